@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.parser.codegen;
+
+import com.google.protobuf.TextFormat;
+import org.mobilitydata.gtfsvalidator.protos.GtfsSpecificationProto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Generates the typed row decoders of GTFS files from gtfs_spec.asciipb. This is run by the generateRowDecoders task
+ * of the parser module before its sources are compiled: the specification stays the single source of truth for the
+ * columns, types, bounds and flags of each file, which end up as constants of the generated code.
+ * <p>
+ * A decoder is generated for each file listed in {@link #BUILDER_BY_FILENAME}, along with the entity builder its rows
+ * are decoded into. The setter of the builder for a column is named after said column in camel case: the generated
+ * code does not compile if the builder and the specification disagree. Only the types validated without external data
+ * are supported, the generation fails for a file having a column of another type.
+ */
+public final class RowDecoderGenerator {
+    private static final String PACKAGE_NAME = "org.mobilitydata.gtfsvalidator.parser";
+    private static final String FACTORY_CLASS_NAME = "GeneratedRowDecoders";
+    private static final String INDENT = "    ";
+
+    // the builder rows of each file are decoded into
+    private static final Map<String, BuilderMapping> BUILDER_BY_FILENAME = new TreeMap<>(Map.of(
+            "calendar_dates.txt",
+            new BuilderMapping("org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.CalendarDate",
+                    "CalendarDate.CalendarDateBuilder",
+                    List.of()),
+            "shapes.txt",
+            new BuilderMapping("org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint",
+                    "ShapePoint.ShapeBuilder",
+                    List.of()),
+            "stop_times.txt",
+            new BuilderMapping("org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime",
+                    "StopTime.StopTimeBuilder",
+                    List.of("continuous_pickup", "continuous_drop_off")),
+            "trips.txt",
+            new BuilderMapping("org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip",
+                    "Trip.TripBuilder",
+                    List.of())));
+
+    private RowDecoderGenerator() {
+    }
+
+    /**
+     * @param args the path of gtfs_spec.asciipb, then the directory the sources are generated in
+     * @throws IOException if the specification can not be read or if the sources can not be written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: RowDecoderGenerator <gtfs_spec.asciipb> <output directory>");
+        }
+        final GtfsSpecificationProto.CsvSpecProtos.Builder specBuilder =
+                GtfsSpecificationProto.CsvSpecProtos.newBuilder();
+        TextFormat.merge(Files.readString(Path.of(args[0]), StandardCharsets.UTF_8), specBuilder);
+
+        final Map<String, String> generatedSourceByClassName = generate(specBuilder.build());
+        final Path packageDirectory = Path.of(args[1]).resolve(PACKAGE_NAME.replace('.', '/'));
+        Files.createDirectories(packageDirectory);
+        for (final Map.Entry<String, String> source : generatedSourceByClassName.entrySet()) {
+            Files.writeString(packageDirectory.resolve(source.getKey() + ".java"), source.getValue(),
+                    StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Returns the source of each generated class by class name: one decoder per file listed in
+     * {@link #BUILDER_BY_FILENAME}, and the factory of said decoders
+     *
+     * @param spec the GTFS specification
+     * @return the source of each generated class by class name
+     */
+    static Map<String, String> generate(final GtfsSpecificationProto.CsvSpecProtos spec) {
+        final Map<String, GtfsSpecificationProto.CsvSpecProto> fileSpecByFilename = new HashMap<>();
+        spec.getCsvspecList().forEach(fileSpec -> fileSpecByFilename.putIfAbsent(fileSpec.getFilename(), fileSpec));
+
+        final Map<String, String> toReturn = new TreeMap<>();
+        final Map<String, String> decoderClassNameByFilename = new TreeMap<>();
+        for (final Map.Entry<String, BuilderMapping> builder : BUILDER_BY_FILENAME.entrySet()) {
+            final GtfsSpecificationProto.CsvSpecProto fileSpec = fileSpecByFilename.get(builder.getKey());
+            if (fileSpec == null) {
+                throw new IllegalStateException("No specification for file: " + builder.getKey());
+            }
+            final String className = toCamelCase(fileSpec.getName(), true) + "RowDecoder";
+            toReturn.put(className, generateDecoder(fileSpec, className, builder.getValue()));
+            decoderClassNameByFilename.put(fileSpec.getFilename(), className);
+        }
+        toReturn.put(FACTORY_CLASS_NAME, generateFactory(decoderClassNameByFilename));
+        return toReturn;
+    }
+
+    private static String generateDecoder(final GtfsSpecificationProto.CsvSpecProto fileSpec,
+                                          final String className,
+                                          final BuilderMapping builder) {
+        final String builderType = builder.typeName;
+        final List<GtfsSpecificationProto.ColumnSpecProto> columnList = fileSpec.getColumnList();
+        final Set<String> variableNameSet = new HashSet<>();
+        String entityId = "null";
+
+        for (final GtfsSpecificationProto.ColumnSpecProto column : columnList) {
+            if (!variableNameSet.add(toCamelCase(column.getName(), false))) {
+                throw new IllegalStateException("Duplicate column " + column.getName() + " in " +
+                        fileSpec.getFilename());
+            }
+            switch (column.getType().getType()) {
+                case INPUT_TYPE_UNSPECIFIED:
+                case TEXT:
+                    // the parser identifies an entity by the value of its text column having unique values
+                    if (column.getUniquevalues()) {
+                        entityId = toCamelCase(column.getName(), false);
+                    }
+                    break;
+                case COLOR:
+                case DATE:
+                case FLOAT:
+                case INTEGER:
+                case TIME:
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported type " + column.getType().getType() + " for column " +
+                            column.getName() + " of " + fileSpec.getFilename());
+            }
+        }
+
+        final StringBuilder source = new StringBuilder();
+        appendHeader(source);
+        new TreeSet<>(List.of(builder.importedClass,
+                "org.mobilitydata.gtfsvalidator.domain.entity.RawEntity",
+                "org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice",
+                "org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils"))
+                .forEach(importedClass -> source.append("import ").append(importedClass).append(";\n"));
+        source.append('\n');
+        if (columnList.stream().anyMatch(column ->
+                column.getType().getType() == GtfsSpecificationProto.ColumnInputType.InputType.DATE)) {
+            source.append("import java.time.LocalDate;\n");
+        }
+        source.append("import java.util.List;\n\n")
+                .append("/**\n")
+                .append(" * Decodes the rows of ").append(fileSpec.getFilename()).append(" into a {@link ")
+                .append(builderType).append("}.\n")
+                .append(" */\n")
+                .append("final class ").append(className).append(" extends GeneratedRowDecoder<").append(builderType)
+                .append("> {\n\n")
+                .append(INDENT).append(className).append("(final GtfsEntityParser parser, final TimeUtils timeUtils) {\n")
+                .append(INDENT).append(INDENT).append("super(parser, timeUtils, ").append(builderType)
+                .append(".class);\n")
+                .append(INDENT).append("}\n\n")
+                .append(INDENT).append("@Override\n")
+                .append(INDENT).append("public void decode(final RawEntity toDecode,\n")
+                .append(INDENT).append("                   final ").append(builderType).append(" builder,\n")
+                .append(INDENT).append("                   final List<Notice> noticeList) {\n");
+
+        final String body = INDENT + INDENT;
+        source.append(body).append("final int[] columnIndexes = bindColumns(toDecode);\n\n")
+                .append(body).append("// values are converted then validated in the order of the specification\n");
+        for (int i = 0; i < columnList.size(); ++i) {
+            final GtfsSpecificationProto.ColumnSpecProto column = columnList.get(i);
+            source.append(body).append("final ").append(getParsedType(column)).append(' ')
+                    .append(getParsedVariableName(column)).append(" = decode").append(getAccessorSuffix(column))
+                    .append("(toDecode, columnIndexes, ").append(i).append(", noticeList);\n");
+        }
+        for (final GtfsSpecificationProto.ColumnSpecProto column : columnList) {
+            source.append('\n');
+            appendValidation(source, body, column, entityId);
+        }
+
+        source.append('\n').append(body).append("builder.clear()");
+        for (final GtfsSpecificationProto.ColumnSpecProto column : columnList) {
+            final String variableName = toCamelCase(column.getName(), false);
+            source.append("\n").append(body).append(INDENT).append(INDENT).append('.').append(variableName)
+                    .append('(').append(variableName).append(')');
+        }
+        for (final String fieldName : builder.unspecifiedFieldList) {
+            // set the same way as when the value of the field is missing
+            source.append("\n").append(body).append(INDENT).append(INDENT).append('.')
+                    .append(toCamelCase(fieldName, false)).append("(null)");
+        }
+        source.append(";\n")
+                .append(INDENT).append("}\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private static void appendValidation(final StringBuilder source,
+                                         final String indent,
+                                         final GtfsSpecificationProto.ColumnSpecProto column,
+                                         final String entityId) {
+        final String fieldName = '"' + column.getName() + '"';
+        final String variableName = toCamelCase(column.getName(), false);
+        final String missingValue = column.getValueRequired() ?
+                " else {\n" + indent + INDENT + "addMissingRequiredValueNotice(" + fieldName + ", " + entityId +
+                        ", noticeList);\n" + indent + "}\n" :
+                "\n";
+
+        switch (column.getType().getType()) {
+            case INTEGER: {
+                source.append(indent).append("if (").append(variableName).append(" != null) {\n")
+                        .append(indent).append(INDENT).append("validateRange(").append(fieldName).append(", ")
+                        .append(entityId).append(", ").append(column.getIntmin()).append(", ")
+                        .append(column.getIntmax()).append(", ").append(variableName).append(", noticeList);\n")
+                        .append(indent).append('}').append(missingValue);
+                break;
+            }
+            case FLOAT: {
+                source.append(indent).append("if (").append(variableName).append(" != null) {\n")
+                        .append(indent).append(INDENT).append("validateRange(").append(fieldName).append(", ")
+                        .append(entityId).append(", ").append(column.getFloatmin()).append("f, ")
+                        .append(column.getFloatmax()).append("f, ").append(variableName).append(", noticeList);\n")
+                        .append(indent).append('}').append(missingValue);
+                break;
+            }
+            case TIME: {
+                final String textVariableName = getParsedVariableName(column);
+                source.append(indent).append("Integer ").append(variableName).append(" = null;\n")
+                        .append(indent).append("if (").append(textVariableName).append(" != null) {\n")
+                        .append(indent).append(INDENT).append(variableName).append(" = convertTime(")
+                        .append(fieldName).append(", ").append(entityId).append(", ").append(textVariableName)
+                        .append(", noticeList);\n")
+                        .append(indent).append('}').append(missingValue);
+                break;
+            }
+            default: {
+                // other types are validated while being converted
+                if (column.getValueRequired()) {
+                    source.append(indent).append("if (").append(variableName).append(" == null) {\n")
+                            .append(indent).append(INDENT).append("addMissingRequiredValueNotice(").append(fieldName)
+                            .append(", ").append(entityId).append(", noticeList);\n")
+                            .append(indent).append("}\n");
+                } else {
+                    source.append(indent).append("// no validation of ").append(column.getName()).append('\n');
+                }
+            }
+        }
+    }
+
+    private static String generateFactory(final Map<String, String> decoderClassNameByFilename) {
+        final StringBuilder source = new StringBuilder();
+        appendHeader(source);
+        source.append("import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;\n")
+                .append("import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;\n\n")
+                .append("/**\n")
+                .append(" * Creates the row decoders generated from the specification.\n")
+                .append(" */\n")
+                .append("public final class ").append(FACTORY_CLASS_NAME).append(" {\n\n")
+                .append(INDENT).append("private ").append(FACTORY_CLASS_NAME).append("() {\n")
+                .append(INDENT).append("}\n\n")
+                .append(INDENT).append("/**\n")
+                .append(INDENT).append(" * Returns the decoder generated for the file the parser provided as parameter ")
+                .append("parses, null if there is none\n")
+                .append(INDENT).append(" *\n")
+                .append(INDENT).append(" * @param parser    the parser of the file, whose column decoders are used\n")
+                .append(INDENT).append(" * @param timeUtils the utility class converting times to a number of ")
+                .append("seconds\n")
+                .append(INDENT).append(" * @return the decoder generated for the file, null if there is none\n")
+                .append(INDENT).append(" */\n")
+                .append(INDENT).append("public static GtfsSpecRepository.TypedRowDecoder<?> create(")
+                .append("final GtfsEntityParser parser,\n")
+                .append(INDENT).append("                                                             ")
+                .append("final TimeUtils timeUtils) {\n")
+                .append(INDENT).append(INDENT).append("switch (parser.getRawFileInfo().getFilename()) {\n");
+        for (final Map.Entry<String, String> decoder : decoderClassNameByFilename.entrySet()) {
+            source.append(INDENT).append(INDENT).append(INDENT).append("case \"").append(decoder.getKey())
+                    .append("\":\n")
+                    .append(INDENT).append(INDENT).append(INDENT).append(INDENT).append("return new ")
+                    .append(decoder.getValue()).append("(parser, timeUtils);\n");
+        }
+        source.append(INDENT).append(INDENT).append(INDENT).append("default:\n")
+                .append(INDENT).append(INDENT).append(INDENT).append(INDENT).append("return null;\n")
+                .append(INDENT).append(INDENT).append("}\n")
+                .append(INDENT).append("}\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private static void appendHeader(final StringBuilder source) {
+        source.append("// Generated from gtfs_spec.asciipb by ").append(RowDecoderGenerator.class.getName())
+                .append(": do not edit\n\n")
+                .append("package ").append(PACKAGE_NAME).append(";\n\n");
+    }
+
+    /**
+     * Returns the type of the values of a column as converted by the parser
+     */
+    private static String getParsedType(final GtfsSpecificationProto.ColumnSpecProto column) {
+        switch (column.getType().getType()) {
+            case INTEGER:
+                return "Integer";
+            case FLOAT:
+                return "Float";
+            case DATE:
+                return "LocalDate";
+            default:
+                return "String";
+        }
+    }
+
+    /**
+     * Returns the suffix of the typed accessor of {@code GeneratedRowDecoder} converting the values of a column
+     */
+    private static String getAccessorSuffix(final GtfsSpecificationProto.ColumnSpecProto column) {
+        switch (column.getType().getType()) {
+            case INTEGER:
+                return "Integer";
+            case FLOAT:
+                return "Float";
+            case DATE:
+                return "Date";
+            default:
+                return "Text";
+        }
+    }
+
+    /**
+     * Returns the name of the variable holding the value of a column as converted by the parser: times are then
+     * converted to a number of seconds held by another variable
+     */
+    private static String getParsedVariableName(final GtfsSpecificationProto.ColumnSpecProto column) {
+        final String variableName = toCamelCase(column.getName(), false);
+        return column.getType().getType() == GtfsSpecificationProto.ColumnInputType.InputType.TIME ?
+                variableName + "Text" :
+                variableName;
+    }
+
+    /**
+     * The entity builder the rows of a file are decoded into
+     */
+    private static final class BuilderMapping {
+        private final String importedClass;
+        private final String typeName;
+        // fields of the builder the specification does not define, for which the setter is called with null
+        private final List<String> unspecifiedFieldList;
+
+        private BuilderMapping(final String importedClass,
+                               final String typeName,
+                               final List<String> unspecifiedFieldList) {
+            this.importedClass = importedClass;
+            this.typeName = typeName;
+            this.unspecifiedFieldList = unspecifiedFieldList;
+        }
+    }
+
+    static String toCamelCase(final String snakeCase, final boolean capitalizeFirst) {
+        final StringBuilder toReturn = new StringBuilder(snakeCase.length());
+        boolean capitalizeNext = capitalizeFirst;
+        for (int i = 0; i < snakeCase.length(); ++i) {
+            final char current = snakeCase.charAt(i);
+            if (current == '_') {
+                capitalizeNext = true;
+            } else {
+                toReturn.append(capitalizeNext ? Character.toUpperCase(current) : current);
+                capitalizeNext = false;
+            }
+        }
+        return toReturn.toString();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.FloatFieldValueOutOfRangeNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.IntegerFieldValueOutOfRangeNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidTimeNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.MissingRequiredValueNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Base class of the row decoders generated from gtfs_spec.asciipb by the generateRowDecoders task of this module. A
+ * generated decoder converts the values of a row with the column decoders of a {@link GtfsEntityParser}, through the
+ * accessor matching the type of each column so that values are never handled as {@link Object}, validates
+ * them column after column the same way as the type validator of the file, then hands them over to the setters of an
+ * entity builder: no {@link ParsedEntity} is built. The bounds and flags of each column are constants of the
+ * generated code.
+ *
+ * @param <B> the type of the builder rows are decoded into
+ */
+abstract class GeneratedRowDecoder<B> implements GtfsSpecRepository.TypedRowDecoder<B> {
+    private final GtfsEntityParser parser;
+    private final TimeUtils timeUtils;
+    private final Class<B> builderType;
+    private final String filename;
+
+    GeneratedRowDecoder(final GtfsEntityParser parser, final TimeUtils timeUtils, final Class<B> builderType) {
+        this.parser = parser;
+        this.timeUtils = timeUtils;
+        this.builderType = builderType;
+        this.filename = parser.getRawFileInfo().getFilename();
+    }
+
+    @Override
+    public Class<B> getBuilderType() {
+        return builderType;
+    }
+
+    final int[] bindColumns(final RawEntity row) {
+        return parser.bindColumns(row);
+    }
+
+    final Integer decodeInteger(final RawEntity row,
+                                final int[] columnIndexes,
+                                final int columnIndex,
+                                final List<? super ErrorNotice> noticeList) {
+        return parser.decodeInteger(row, columnIndexes, columnIndex, noticeList);
+    }
+
+    final Float decodeFloat(final RawEntity row,
+                            final int[] columnIndexes,
+                            final int columnIndex,
+                            final List<? super ErrorNotice> noticeList) {
+        return parser.decodeFloat(row, columnIndexes, columnIndex, noticeList);
+    }
+
+    final LocalDate decodeDate(final RawEntity row,
+                               final int[] columnIndexes,
+                               final int columnIndex,
+                               final List<? super ErrorNotice> noticeList) {
+        return parser.decodeDate(row, columnIndexes, columnIndex, noticeList);
+    }
+
+    final String decodeText(final RawEntity row,
+                            final int[] columnIndexes,
+                            final int columnIndex,
+                            final List<? super ErrorNotice> noticeList) {
+        return parser.decodeText(row, columnIndexes, columnIndex, noticeList);
+    }
+
+    final void validateRange(final String fieldName,
+                             final String entityId,
+                             final int rangeMin,
+                             final int rangeMax,
+                             final int value,
+                             final List<Notice> noticeList) {
+        if (value < rangeMin || value > rangeMax) {
+            noticeList.add(new IntegerFieldValueOutOfRangeNotice(filename, fieldName, entityId, rangeMin, rangeMax,
+                    value));
+        }
+    }
+
+    final void validateRange(final String fieldName,
+                             final String entityId,
+                             final float rangeMin,
+                             final float rangeMax,
+                             final float value,
+                             final List<Notice> noticeList) {
+        if (!(value >= rangeMin && value <= rangeMax)) {
+            noticeList.add(new FloatFieldValueOutOfRangeNotice(filename, fieldName, entityId, rangeMin, rangeMax,
+                    value));
+        }
+    }
+
+    /**
+     * Returns the number of seconds elapsed since noon of day of service for a time formatted as HH:MM:SS, null if the
+     * value is not a valid time in which case an {@link InvalidTimeNotice} is added to the list provided as parameter
+     */
+    final Integer convertTime(final String fieldName,
+                              final String entityId,
+                              final String value,
+                              final List<Notice> noticeList) {
+        final int seconds = timeUtils.convertHHMMSSToSecondsFromNoonOfDayOfService(value);
+        if (seconds == TimeUtils.INVALID_TIME) {
+            noticeList.add(new InvalidTimeNotice(filename, fieldName, entityId, value));
+            return null;
+        }
+        return seconds;
+    }
+
+    final void addMissingRequiredValueNotice(final String fieldName,
+                                             final String entityId,
+                                             final List<Notice> noticeList) {
+        noticeList.add(new MissingRequiredValueNotice(filename, fieldName, entityId));
+    }
+}
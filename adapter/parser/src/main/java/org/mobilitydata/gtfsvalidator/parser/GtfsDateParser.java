@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import org.apache.commons.validator.routines.DateValidator;
+
+import java.time.LocalDate;
+
+/**
+ * Parses the dates of GTFS CSV files written as eight ASCII digits following the {@code yyyyMMdd} pattern, without
+ * going through {@link java.text.SimpleDateFormat}. Only the dates of the Gregorian calendar as applied by
+ * {@link java.util.GregorianCalendar}, from 1583 on, are handled: for these, a value is a valid date for a strict
+ * {@link DateValidator} if and only if it is a valid date here. Any other value is reported as not handled, for the
+ * caller to fall back to said validator, which keeps the same accept/reject decisions for all values.
+ * The dates of a file repeat a lot, for instance in calendar_dates.txt: dates recently parsed are kept in a small
+ * cache, which may be read and written by several threads.
+ */
+final class GtfsDateParser {
+    private static final int DIGIT_COUNT = 8;
+    private static final int MIN_YEAR = 1583;
+    private static final int CACHE_SIZE = 256;
+    private static final int[] DAY_COUNT_PER_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    // entries are immutable: reading an entry written by another thread without synchronization is safe
+    private final CachedDate[] cache = new CachedDate[CACHE_SIZE];
+
+    /**
+     * Returns the date represented by a value, null if the value is not in a form handled here.
+     *
+     * @param text the value to parse
+     * @return the date represented by a value, null if the value is not in a form handled here
+     */
+    LocalDate parse(final CharSequence text) {
+        final int yearMonthDay = toYearMonthDay(text);
+        if (yearMonthDay < 0) {
+            return null;
+        }
+        final int cacheIndex = (yearMonthDay * 0x9E3779B9) >>> 24;
+        final CachedDate cachedDate = cache[cacheIndex];
+        if (cachedDate != null && cachedDate.yearMonthDay == yearMonthDay) {
+            return cachedDate.date;
+        }
+        final LocalDate toReturn =
+                LocalDate.of(yearMonthDay / 10000, yearMonthDay / 100 % 100, yearMonthDay % 100);
+        cache[cacheIndex] = new CachedDate(yearMonthDay, toReturn);
+        return toReturn;
+    }
+
+    /**
+     * Returns the digits of a value as an int, -1 if the value is not a valid date handled here
+     */
+    private static int toYearMonthDay(final CharSequence text) {
+        if (text.length() != DIGIT_COUNT) {
+            return -1;
+        }
+        int toReturn = 0;
+        for (int i = 0; i < DIGIT_COUNT; ++i) {
+            final int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            toReturn = 10 * toReturn + digit;
+        }
+        final int year = toReturn / 10000;
+        final int month = toReturn / 100 % 100;
+        final int day = toReturn % 100;
+        if (year < MIN_YEAR || month < 1 || month > 12 || day < 1) {
+            return -1;
+        }
+        final boolean leapYear = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+        final int dayCount = month == 2 && leapYear ? 29 : DAY_COUNT_PER_MONTH[month - 1];
+        return day <= dayCount ? toReturn : -1;
+    }
+
+    private static final class CachedDate {
+        private final int yearMonthDay;
+        private final LocalDate date;
+
+        private CachedDate(final int yearMonthDay, final LocalDate date) {
+            this.yearMonthDay = yearMonthDay;
+            this.date = date;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.mobilitydata.gtfsvalidator.parser;
 
 import com.google.common.base.Strings;
+import org.apache.commons.validator.routines.AbstractNumberValidator;
 import org.apache.commons.validator.routines.DateValidator;
 import org.apache.commons.validator.routines.FloatValidator;
 import org.apache.commons.validator.routines.IntegerValidator;
@@ -34,21 +35,41 @@ import org.mobilitydata.gtfsvalidator.protos.GtfsSpecificationProto;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.*;
 
 /**
- * This provides methods to parse data from a GTFS CSV file.
+ * This provides methods to parse data from a GTFS CSV file. The {@link GtfsFileSchema} of the file is compiled once
+ * into an array of decoders, one per column, each of them handling a single type. When rows keep track of the position
+ * of their columns, decoders are bound to the index of their column in the file, which is resolved once per file:
+ * parsing a row then comes down to an indexed loop over the decoders. Plain decimal values of numeric columns are
+ * parsed by {@link GtfsNumberParser} and dates by {@link GtfsDateParser}, other values are left to the validators
+ * provided in the constructor. Values of identifier columns are deduplicated through an {@link IdentifierPool}.
+ * Values of columns typed as IDs are checked for characters that are not printable ASCII on the raw content of the
+ * row by {@link RawEntity#hasPrintableAsciiValue(int)} when the row supports it, so that validators only go through
+ * the characters of the values that could not be cleared this way.
  */
 public class GtfsEntityParser implements GtfsSpecRepository.RawEntityParser {
-    private final GtfsSpecificationProto.CsvSpecProto fileSchema;
+    private final GtfsFileSchema fileSchema;
     private final RawFileInfo rawFileInfo;
     private final FloatValidator floatValidator;
     private final IntegerValidator integerValidator;
     private final DateValidator dateValidator;
     private final RegexValidator colorValidator;
+    private final IdentifierPool identifierPool;
+    private final ColumnDecoder<?>[] columnDecoders;
+    // indexed like the decoders, true for columns typed as IDs
+    private final boolean[] checkPrintableAscii;
+    private final Set<String> idHeaderSet;
+    // GtfsNumberParser produces the values of the standard format: it does not apply to currency or percent formats
+    private final boolean parseFloatsInPlace;
+    private final boolean parseIntegersInPlace;
+    // rows of a file may be parsed on several threads: the binding is replaced as a whole
+    private volatile ColumnBinding columnBinding;
 
     private static final String DATE_PATTERN = "yyyyMMdd";
+    // dates are parsed and converted in the same zone, so that the day written in the file is kept
+    private static final TimeZone DATE_TIME_ZONE = TimeZone.getTimeZone(ZoneOffset.UTC);
 
     public GtfsEntityParser(@NotNull GtfsSpecificationProto.CsvSpecProto fileSchema,
                             @NotNull RawFileInfo rawFileInfo,
@@ -56,6 +77,31 @@ public class GtfsEntityParser implements GtfsSpecRepository.RawEntityParser {
                             @NotNull IntegerValidator integerValidator,
                             @NotNull DateValidator dateValidator,
                             @NotNull RegexValidator colorValidator) {
+        this(new GtfsFileSchema(fileSchema), rawFileInfo, floatValidator, integerValidator, dateValidator,
+                colorValidator);
+    }
+
+    public GtfsEntityParser(@NotNull GtfsFileSchema fileSchema,
+                            @NotNull RawFileInfo rawFileInfo,
+                            @NotNull FloatValidator floatValidator,
+                            @NotNull IntegerValidator integerValidator,
+                            @NotNull DateValidator dateValidator,
+                            @NotNull RegexValidator colorValidator) {
+        this(fileSchema, rawFileInfo, floatValidator, integerValidator, dateValidator, colorValidator,
+                new IdentifierPool());
+    }
+
+    /**
+     * @param identifierPool the pool identifiers are deduplicated with, shared by the parsers of all files of a
+     *                       validation run so that entities of different files share their identifiers
+     */
+    public GtfsEntityParser(@NotNull GtfsFileSchema fileSchema,
+                            @NotNull RawFileInfo rawFileInfo,
+                            @NotNull FloatValidator floatValidator,
+                            @NotNull IntegerValidator integerValidator,
+                            @NotNull DateValidator dateValidator,
+                            @NotNull RegexValidator colorValidator,
+                            @NotNull IdentifierPool identifierPool) {
         this.fileSchema = fileSchema;
         this.rawFileInfo = rawFileInfo;
         this.floatValidator = floatValidator;
@@ -66,86 +112,55 @@ public class GtfsEntityParser implements GtfsSpecRepository.RawEntityParser {
         }
         this.dateValidator = dateValidator;
         this.colorValidator = colorValidator;
+        this.identifierPool = identifierPool;
+        this.parseFloatsInPlace = floatValidator.getFormatType() == AbstractNumberValidator.STANDARD_FORMAT;
+        this.parseIntegersInPlace = integerValidator.getFormatType() == AbstractNumberValidator.STANDARD_FORMAT;
+
+        columnDecoders = new ColumnDecoder<?>[fileSchema.getColumnCount()];
+        checkPrintableAscii = new boolean[columnDecoders.length];
+        final Set<String> idHeaders = new HashSet<>();
+        for (int i = 0; i < columnDecoders.length; ++i) {
+            columnDecoders[i] = compile(fileSchema.getColumn(i));
+            if (fileSchema.getColumn(i).getType() == GtfsSpecificationProto.ColumnInputType.InputType.ID) {
+                checkPrintableAscii[i] = true;
+                idHeaders.add(fileSchema.getColumn(i).getName());
+            }
+        }
+        idHeaderSet = Collections.unmodifiableSet(idHeaders);
+    }
+
+    private ColumnDecoder<?> compile(final GtfsFileSchema.Column column) {
+        switch (column.getType()) {
+            case FLOAT:
+                return new FloatColumnDecoder(column.getName());
+            case INTEGER:
+                return new IntegerColumnDecoder(column.getName());
+            case DATE:
+                return new DateColumnDecoder(column.getName());
+            case COLOR:
+                return new ColorColumnDecoder(column.getName());
+            default:
+                return column.isIdentifier() ?
+                        new IdentifierColumnDecoder(column.getName(), column.hasUniqueValues()) :
+                        new TextColumnDecoder(column.getName(), column.hasUniqueValues());
+        }
     }
 
     /**
      * Validates numeric types for a provided {@link RawEntity} from information stored in the
-     * {@link GtfsSpecificationProto.CsvSpecProto} provided in the constructor. If a NaN value is encountered or if
+     * {@link GtfsFileSchema} provided in the constructor. If a NaN value is encountered or if
      * the value is not a valid float, a {@link CannotParseFloatNotice} is generated and added to the returned list.
      * The same logic is applied for integer values, which generates {@link CannotParseIntegerNotice} notices.
      * The same logic is applied for date values, which generates {@link CannotParseDateNotice} notices.
+     * Values are converted as they are in {@link #parseWithNotices(RawEntity)}, which is to be preferred when the
+     * parsed row is needed as well.
      *
      * @param toValidate a {@link RawEntity} to validate
      * @return a collection of notices containing information about the validation process
      */
     @Override
     public Collection<ErrorNotice> validateNonStringTypes(RawEntity toValidate) {
-        Collection<ErrorNotice> toReturn = new ArrayList<>();
-
-        fileSchema.getColumnList().forEach(columnSpecProto -> {
-            String rawField = toValidate.get(columnSpecProto.getName());
-
-            //Skip values that weren't provided
-            if (!Strings.isNullOrEmpty(rawField)) {
-
-                if (columnSpecProto.getType().getType() == GtfsSpecificationProto.ColumnInputType.InputType.FLOAT) {
-
-                    //FIXME: retrieve locale from agency_lang in agency.txt and if that doesn't exist,
-                    //from feed_lang in feed_info.txt before defaulting to Locale.US
-                    if (!floatValidator.isValid(rawField, Locale.US) || Float.isNaN(floatValidator.validate(rawField,
-                            Locale.US))) {
-
-                        toReturn.add(new CannotParseFloatNotice(
-                                        fileSchema.getFilename(),
-                                        columnSpecProto.getName(),
-                                        toValidate.getIndex(),
-                                        rawField
-                                )
-                        );
-                    }
-                } else if (columnSpecProto.getType().getType() ==
-                        GtfsSpecificationProto.ColumnInputType.InputType.INTEGER) {
-
-                    //FIXME: retrieve locale from agency_lang in agency.txt and if that doesn't exist,
-                    //from feed_lang in feed_info.txt before defaulting to Locale.US
-                    if (!integerValidator.isValid(rawField, Locale.US)) {
-
-                        toReturn.add(new CannotParseIntegerNotice(
-                                        fileSchema.getFilename(),
-                                        columnSpecProto.getName(),
-                                        toValidate.getIndex(),
-                                        rawField
-                                )
-                        );
-                    }
-                } else if (columnSpecProto.getType().getType() ==
-                        GtfsSpecificationProto.ColumnInputType.InputType.DATE) {
-
-                    if (!dateValidator.isValid(rawField, DATE_PATTERN)) {
-                        toReturn.add(new CannotParseDateNotice(
-                                        fileSchema.getFilename(),
-                                        columnSpecProto.getName(),
-                                        toValidate.getIndex(),
-                                        rawField
-                                )
-                        );
-                    }
-                } else if (columnSpecProto.getType().getType() ==
-                        GtfsSpecificationProto.ColumnInputType.InputType.COLOR) {
-
-                    if (!colorValidator.isValid(rawField)) {
-                        toReturn.add(new CannotParseColorNotice(
-                                fileSchema.getFilename(),
-                                columnSpecProto.getName(),
-                                toValidate.getIndex(),
-                                rawField
-                        ));
-                    }
-                }
-            }
-        });
-
-        return toReturn;
+        return parseWithNotices(toValidate).getNoticeCollection();
     }
 
     /**
@@ -154,70 +169,303 @@ public class GtfsEntityParser implements GtfsSpecRepository.RawEntityParser {
      * - the contentByHeaderMap is a Map(String, Object) matching columns' header names with the type validated values
      * associated to the {@link RawEntity} to parse
      * - the {@link RawFileInfo} associated to the file being processed
+     * Values are converted as they are in {@link #parseWithNotices(RawEntity)}, which is to be preferred when the
+     * notices are needed as well.
      *
      * @param toParse a row of a GTFS file as raw string data
      * @return a parsed entity whose fields' type have been parsed
      */
     @Override
     public ParsedEntity parse(RawEntity toParse) {
-        Map<String, Object> contentByHeaderMap = new HashMap<>(fileSchema.getColumnCount());
-        final String[] entityId = new String[1];
+        return parseWithNotices(toParse).getParsedEntity();
+    }
 
-        fileSchema.getColumnList().forEach(columnSpecProto -> {
-            String rawField = toParse.get(columnSpecProto.getName());
+    /**
+     * Returns a parsed entity, as described in {@link #parse(RawEntity)}, along with the notices generated for values
+     * that can not be converted to the type of their column, as described in
+     * {@link #validateNonStringTypes(RawEntity)}. Each value is converted a single time: a value that can not be
+     * converted generates a notice and is left out of the parsed entity.
+     *
+     * @param toParse a row of a GTFS file as raw string data
+     * @return a parsed entity whose fields' type have been parsed, along with the notices generated while parsing it
+     */
+    @Override
+    public GtfsSpecRepository.ParseResult parseWithNotices(RawEntity toParse) {
+        final Map<String, Object> contentByHeaderMap = new HashMap<>(columnDecoders.length);
+        final List<ErrorNotice> noticeList = new ArrayList<>();
+        String entityId = null;
+        final int[] columnIndexes = bindColumns(toParse);
+        // all values are assumed to be printable until one is not: the set is then copied, which should be rare
+        Set<String> printableAsciiHeaderSet = columnIndexes == null ? Collections.emptySet() : idHeaderSet;
 
+        for (int i = 0; i < columnDecoders.length; ++i) {
+            final String rawField = getRawField(toParse, columnIndexes, i);
+
+            //Skip values that weren't provided
             if (!Strings.isNullOrEmpty(rawField)) {
+                if (checkPrintableAscii[i] && columnIndexes != null &&
+                        !toParse.hasPrintableAsciiValue(columnIndexes[i])) {
+                    if (printableAsciiHeaderSet == idHeaderSet) {
+                        printableAsciiHeaderSet = new HashSet<>(idHeaderSet);
+                    }
+                    printableAsciiHeaderSet.remove(columnDecoders[i].name);
+                }
+                final ColumnDecoder<?> decoder = columnDecoders[i];
+                final Object value = decoder.decode(rawField, toParse.getIndex(), noticeList);
+                if (value != null) {
+                    contentByHeaderMap.put(decoder.name, value);
+                    if (decoder.isEntityId()) {
+                        //Assuming there is only one field labelled unique per entity
+                        entityId = (String) value;
+                    }
+                }
+            }
+        }
 
-                if (columnSpecProto.getType().getType() == GtfsSpecificationProto.ColumnInputType.InputType.FLOAT) {
+        return new GtfsSpecRepository.ParseResult(
+                new ParsedEntity(entityId, contentByHeaderMap, rawFileInfo, printableAsciiHeaderSet), noticeList);
+    }
 
-                    //FIXME: retrieve locale from agency_lang in agency.txt and if that doesn't exist,
-                    //from feed_lang in feed_info.txt before defaulting to Locale.US
-                    if (floatValidator.isValid(rawField, Locale.US) && !Float.isNaN(floatValidator.validate(rawField,
-                            Locale.US))) {
-                        contentByHeaderMap.put(columnSpecProto.getName(), floatValidator.validate(rawField, Locale.US));
-                    }
+    /**
+     * Returns the non empty value of an integer column, as it would be found in the parsed entity returned by
+     * {@link #parseWithNotices(RawEntity)}. This and the other typed accessors are used by the row decoders generated
+     * from the specification, which do not build a parsed entity and know the type of each column.
+     *
+     * @param row           a row of the file this parses
+     * @param columnIndexes the binding of the columns of the file, as returned by {@link #bindColumns(RawEntity)}
+     * @param columnIndex   the index of the column in the {@link GtfsFileSchema} of the file
+     * @param noticeList    the list notices are added to if the value can not be converted
+     * @return the converted value, null if the value is missing, empty or can not be converted
+     */
+    Integer decodeInteger(final RawEntity row,
+                          final int[] columnIndexes,
+                          final int columnIndex,
+                          final List<? super ErrorNotice> noticeList) {
+        return decodeField((IntegerColumnDecoder) columnDecoders[columnIndex], row, columnIndexes, columnIndex,
+                noticeList);
+    }
 
-                } else if (columnSpecProto.getType().getType() ==
-                        GtfsSpecificationProto.ColumnInputType.InputType.INTEGER) {
+    Float decodeFloat(final RawEntity row,
+                      final int[] columnIndexes,
+                      final int columnIndex,
+                      final List<? super ErrorNotice> noticeList) {
+        return decodeField((FloatColumnDecoder) columnDecoders[columnIndex], row, columnIndexes, columnIndex,
+                noticeList);
+    }
 
-                    //FIXME: retrieve locale from agency_lang in agency.txt and if that doesn't exist,
-                    //from feed_lang in feed_info.txt before defaulting to Locale.US
-                    if (integerValidator.isValid(rawField, Locale.US)) {
-                        contentByHeaderMap.put(columnSpecProto.getName(), integerValidator.validate(rawField,
-                                Locale.US));
-                    }
+    LocalDate decodeDate(final RawEntity row,
+                         final int[] columnIndexes,
+                         final int columnIndex,
+                         final List<? super ErrorNotice> noticeList) {
+        return decodeField((DateColumnDecoder) columnDecoders[columnIndex], row, columnIndexes, columnIndex,
+                noticeList);
+    }
 
-                } else if (columnSpecProto.getType().getType() ==
-                        GtfsSpecificationProto.ColumnInputType.InputType.DATE) {
-
-                    //FIXME: retrieve locale from agency_lang in agency.txt and if that doesn't exist,
-                    //from feed_lang in feed_info.txt before defaulting to Locale.US
-                    if (dateValidator.isValid(rawField, DATE_PATTERN, Locale.US)) {
-                        contentByHeaderMap.put(
-                                //https://programminghints.com/2017/05/still-using-java-util-date-dont/
-                                columnSpecProto.getName(), LocalDate.ofInstant(
-                                        dateValidator.validate(rawField, DATE_PATTERN, Locale.US).toInstant(),
-                                        ZoneId.of("America/Montreal") //FIXME: retrieve timezone from agency.txt
-                                ));
-                    }
+    /**
+     * Returns the non empty value of a text, identifier, color or time column, see
+     * {@link #decodeInteger(RawEntity, int[], int, List)}
+     */
+    String decodeText(final RawEntity row,
+                      final int[] columnIndexes,
+                      final int columnIndex,
+                      final List<? super ErrorNotice> noticeList) {
+        return decodeField((TextColumnDecoder) columnDecoders[columnIndex], row, columnIndexes, columnIndex,
+                noticeList);
+    }
 
-                } else if (columnSpecProto.getType().getType() ==
-                        GtfsSpecificationProto.ColumnInputType.InputType.COLOR) {
+    private <T> T decodeField(final ColumnDecoder<T> decoder,
+                              final RawEntity row,
+                              final int[] columnIndexes,
+                              final int columnIndex,
+                              final List<? super ErrorNotice> noticeList) {
+        final String rawField = getRawField(row, columnIndexes, columnIndex);
+        return Strings.isNullOrEmpty(rawField) ? null : decoder.decode(rawField, row.getIndex(), noticeList);
+    }
 
-                    if (colorValidator.isValid(rawField)) {
-                        contentByHeaderMap.put(columnSpecProto.getName(), rawField);
-                    }
+    RawFileInfo getRawFileInfo() {
+        return rawFileInfo;
+    }
 
-                } else {
-                    contentByHeaderMap.put(columnSpecProto.getName(), rawField);
-                    if (columnSpecProto.getUniquevalues()) {
-                        //Assuming there is only one field labelled unique per entity
-                        entityId[0] = rawField;
-                    }
-                }
+    /**
+     * Returns the index of the column of each decoder in the file the row provided as parameter was read from, null
+     * if the row does not keep track of the position of its columns
+     */
+    int[] bindColumns(final RawEntity row) {
+        final Map<String, Integer> columnIndexPerHeader = row.getColumnIndexPerHeader();
+        if (columnIndexPerHeader.isEmpty()) {
+            return null;
+        }
+        ColumnBinding binding = columnBinding;
+        // all rows of a file share the same map: columns are resolved again only when rows of another file come
+        if (binding == null || binding.columnIndexPerHeader != columnIndexPerHeader) {
+            binding = new ColumnBinding(columnIndexPerHeader, columnDecoders);
+            columnBinding = binding;
+        }
+        return binding.columnIndexes;
+    }
+
+    private String getRawField(final RawEntity row, final int[] columnIndexes, final int decoderIndex) {
+        if (columnIndexes == null) {
+            return row.get(columnDecoders[decoderIndex].name);
+        }
+        final int columnIndex = columnIndexes[decoderIndex];
+        return columnIndex < 0 ? null : row.get(columnIndex);
+    }
+
+    /**
+     * The index of the column of each decoder in a file, -1 if the file has no such column
+     */
+    private static final class ColumnBinding {
+        private final Map<String, Integer> columnIndexPerHeader;
+        private final int[] columnIndexes;
+
+        private ColumnBinding(final Map<String, Integer> columnIndexPerHeader, final ColumnDecoder<?>[] columnDecoders) {
+            this.columnIndexPerHeader = columnIndexPerHeader;
+            this.columnIndexes = new int[columnDecoders.length];
+            for (int i = 0; i < columnDecoders.length; ++i) {
+                columnIndexes[i] = columnIndexPerHeader.getOrDefault(columnDecoders[i].name, -1);
+            }
+        }
+    }
+
+    /**
+     * Converts the non empty values of a column to a given type
+     *
+     * @param <T> the type values are converted to
+     */
+    private abstract static class ColumnDecoder<T> {
+        final String name;
+
+        ColumnDecoder(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the converted value, null if the value can not be converted in which case a notice is added to the
+         * list provided as parameter
+         */
+        abstract T decode(final String rawField, final int rowIndex, final List<? super ErrorNotice> noticeList);
+
+        boolean isEntityId() {
+            return false;
+        }
+    }
+
+    private final class FloatColumnDecoder extends ColumnDecoder<Float> {
+
+        FloatColumnDecoder(final String name) {
+            super(name);
+        }
+
+        @Override
+        Float decode(final String rawField, final int rowIndex, final List<? super ErrorNotice> noticeList) {
+            final double parsedInPlace = parseFloatsInPlace ? GtfsNumberParser.parseFloat(rawField) : Double.NaN;
+            if (!Double.isNaN(parsedInPlace)) {
+                return (float) parsedInPlace;
+            }
+            //FIXME: retrieve locale from agency_lang in agency.txt and if that doesn't exist,
+            //from feed_lang in feed_info.txt before defaulting to Locale.US
+            final Float toReturn = floatValidator.validate(rawField, Locale.US);
+            if (toReturn == null || toReturn.isNaN()) {
+                noticeList.add(new CannotParseFloatNotice(fileSchema.getFilename(), name, rowIndex, rawField));
+                return null;
+            }
+            return toReturn;
+        }
+    }
+
+    private final class IntegerColumnDecoder extends ColumnDecoder<Integer> {
+
+        IntegerColumnDecoder(final String name) {
+            super(name);
+        }
+
+        @Override
+        Integer decode(final String rawField, final int rowIndex, final List<? super ErrorNotice> noticeList) {
+            final long parsedInPlace =
+                    parseIntegersInPlace ? GtfsNumberParser.parseInteger(rawField) : GtfsNumberParser.NOT_HANDLED;
+            if (parsedInPlace != GtfsNumberParser.NOT_HANDLED) {
+                return (int) parsedInPlace;
+            }
+            //FIXME: retrieve locale from agency_lang in agency.txt and if that doesn't exist,
+            //from feed_lang in feed_info.txt before defaulting to Locale.US
+            final Integer toReturn = integerValidator.validate(rawField, Locale.US);
+            if (toReturn == null) {
+                noticeList.add(new CannotParseIntegerNotice(fileSchema.getFilename(), name, rowIndex, rawField));
+            }
+            return toReturn;
+        }
+    }
+
+    private final class DateColumnDecoder extends ColumnDecoder<LocalDate> {
+        private final GtfsDateParser dateParser = new GtfsDateParser();
+
+        DateColumnDecoder(final String name) {
+            super(name);
+        }
+
+        @Override
+        LocalDate decode(final String rawField, final int rowIndex, final List<? super ErrorNotice> noticeList) {
+            final LocalDate parsedInPlace = dateParser.parse(rawField);
+            if (parsedInPlace != null) {
+                return parsedInPlace;
+            }
+            //FIXME: retrieve locale from agency_lang in agency.txt and if that doesn't exist,
+            //from feed_lang in feed_info.txt before defaulting to Locale.US
+            final Date date = dateValidator.validate(rawField, DATE_PATTERN, Locale.US, DATE_TIME_ZONE);
+            if (date == null) {
+                noticeList.add(new CannotParseDateNotice(fileSchema.getFilename(), name, rowIndex, rawField));
+                return null;
+            }
+            // neither the default time zone of the JVM nor the one of the agency can shift the day
+            return LocalDate.ofInstant(date.toInstant(), ZoneOffset.UTC);
+        }
+    }
+
+    private final class ColorColumnDecoder extends TextColumnDecoder {
+
+        ColorColumnDecoder(final String name) {
+            super(name, false);
+        }
+
+        @Override
+        String decode(final String rawField, final int rowIndex, final List<? super ErrorNotice> noticeList) {
+            if (!colorValidator.isValid(rawField)) {
+                noticeList.add(new CannotParseColorNotice(fileSchema.getFilename(), name, rowIndex, rawField));
+                return null;
             }
-        });
+            return rawField;
+        }
+    }
 
-        return new ParsedEntity(entityId[0], contentByHeaderMap, rawFileInfo);
+    private static class TextColumnDecoder extends ColumnDecoder<String> {
+        private final boolean entityId;
+
+        TextColumnDecoder(final String name, final boolean entityId) {
+            super(name);
+            this.entityId = entityId;
+        }
+
+        @Override
+        String decode(final String rawField, final int rowIndex, final List<? super ErrorNotice> noticeList) {
+            return rawField;
+        }
+
+        @Override
+        boolean isEntityId() {
+            return entityId;
+        }
+    }
+
+    private final class IdentifierColumnDecoder extends TextColumnDecoder {
+
+        IdentifierColumnDecoder(final String name, final boolean entityId) {
+            super(name, entityId);
+        }
+
+        @Override
+        String decode(final String rawField, final int rowIndex, final List<? super ErrorNotice> noticeList) {
+            return identifierPool.intern(rawField);
+        }
     }
 }
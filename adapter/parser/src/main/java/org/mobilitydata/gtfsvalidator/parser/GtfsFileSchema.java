@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.mobilitydata.gtfsvalidator.protos.GtfsSpecificationProto;
+
+import java.util.*;
+
+/**
+ * The columns of a GTFS CSV file as defined in a {@link GtfsSpecificationProto.CsvSpecProto}, compiled once per file:
+ * the declared type, flags and bounds of each column are read from the protobuf message when this is built, so that
+ * rows are parsed and validated without going through protobuf getters. This is shared by the
+ * {@link GtfsEntityParser} and the type validator of a file, and holds the lists of headers used to validate the
+ * headers of said file.
+ */
+public final class GtfsFileSchema {
+    private final String filename;
+    private final boolean required;
+    private final Column[] columns;
+    private final Map<String, Integer> columnIndexPerName;
+    private final List<String> requiredHeaderList;
+    private final List<String> optionalHeaderList;
+
+    /**
+     * @param fileSpec the definition of a GTFS CSV file in the GTFS specification
+     */
+    public GtfsFileSchema(@NotNull final GtfsSpecificationProto.CsvSpecProto fileSpec) {
+        final List<GtfsSpecificationProto.ColumnSpecProto> columnSpecList = fileSpec.getColumnList();
+        final List<String> requiredHeaders = new ArrayList<>();
+        final List<String> optionalHeaders = new ArrayList<>();
+        final Map<String, Integer> indexPerName = new HashMap<>(2 * columnSpecList.size());
+
+        filename = fileSpec.getFilename();
+        required = fileSpec.getRequired();
+        columns = new Column[columnSpecList.size()];
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i] = new Column(columnSpecList.get(i));
+            indexPerName.putIfAbsent(columns[i].name, i);
+            if (columns[i].required) {
+                requiredHeaders.add(columns[i].name);
+            } else {
+                optionalHeaders.add(columns[i].name);
+            }
+        }
+        columnIndexPerName = Collections.unmodifiableMap(indexPerName);
+        requiredHeaderList = Collections.unmodifiableList(requiredHeaders);
+        optionalHeaderList = Collections.unmodifiableList(optionalHeaders);
+    }
+
+    /**
+     * Returns the name of the file
+     *
+     * @return the name of the file
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * Returns true if the file is marked as required in the GTFS specification, else false
+     *
+     * @return true if the file is marked as required in the GTFS specification, else false
+     */
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * Returns the number of columns defined for the file
+     *
+     * @return the number of columns defined for the file
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the column at the given position, in the order of the GTFS specification
+     *
+     * @param index the 0 based position of the column in the GTFS specification
+     * @return the column at the given position, in the order of the GTFS specification
+     */
+    public Column getColumn(final int index) {
+        return columns[index];
+    }
+
+    /**
+     * Returns the position of the column matching a header in the GTFS specification, -1 if the header is not defined
+     * for the file
+     *
+     * @param header the name of a column
+     * @return the 0 based position of the column matching a header, -1 if the header is not defined for the file
+     */
+    public int indexOf(final String header) {
+        return columnIndexPerName.getOrDefault(header, -1);
+    }
+
+    /**
+     * Returns the headers marked as required for the file, in the order of the GTFS specification
+     *
+     * @return the headers marked as required for the file
+     */
+    public List<String> getRequiredHeaderList() {
+        return requiredHeaderList;
+    }
+
+    /**
+     * Returns the headers marked as optional for the file, in the order of the GTFS specification
+     *
+     * @return the headers marked as optional for the file
+     */
+    public List<String> getOptionalHeaderList() {
+        return optionalHeaderList;
+    }
+
+    /**
+     * A column of a GTFS CSV file as defined in a {@link GtfsSpecificationProto.ColumnSpecProto}
+     */
+    public static final class Column {
+        private static final String ID_SUFFIX = "_id";
+
+        private final String name;
+        private final GtfsSpecificationProto.ColumnInputType.InputType type;
+        private final boolean required;
+        private final boolean valueRequired;
+        private final boolean uniqueValues;
+        private final boolean identifier;
+        private final float floatMin;
+        private final float floatMax;
+        private final int intMin;
+        private final int intMax;
+
+        private Column(final GtfsSpecificationProto.ColumnSpecProto columnSpec) {
+            name = columnSpec.getName();
+            type = columnSpec.getType().getType();
+            required = columnSpec.getRequired();
+            valueRequired = columnSpec.getValueRequired();
+            uniqueValues = columnSpec.getUniquevalues();
+            // only agency_id is typed as an ID in the specification: keys, references to the keys of other files and
+            // the other fields named after the GTFS convention for IDs hold identifiers as well
+            identifier = type == GtfsSpecificationProto.ColumnInputType.InputType.ID || uniqueValues ||
+                    columnSpec.getSupersetkeyCount() > 0 || (name != null && name.endsWith(ID_SUFFIX));
+            floatMin = columnSpec.getFloatmin();
+            floatMax = columnSpec.getFloatmax();
+            intMin = columnSpec.getIntmin();
+            intMax = columnSpec.getIntmax();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public GtfsSpecificationProto.ColumnInputType.InputType getType() {
+            return type;
+        }
+
+        public boolean isRequired() {
+            return required;
+        }
+
+        public boolean isValueRequired() {
+            return valueRequired;
+        }
+
+        public boolean hasUniqueValues() {
+            return uniqueValues;
+        }
+
+        /**
+         * Returns true if the values of the column identify an entity of this file or of another file, else false
+         *
+         * @return true if the values of the column identify an entity of this file or of another file, else false
+         */
+        public boolean isIdentifier() {
+            return identifier;
+        }
+
+        public float getFloatMin() {
+            return floatMin;
+        }
+
+        public float getFloatMax() {
+            return floatMax;
+        }
+
+        public int getIntMin() {
+            return intMin;
+        }
+
+        public int getIntMax() {
+            return intMax;
+        }
+    }
+}
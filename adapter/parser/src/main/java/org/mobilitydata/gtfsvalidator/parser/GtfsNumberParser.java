@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import org.apache.commons.validator.routines.FloatValidator;
+import org.apache.commons.validator.routines.IntegerValidator;
+
+/**
+ * Parses the plain decimal values found in virtually all numeric fields of GTFS CSV files without going through
+ * {@link java.text.NumberFormat}. Only the unambiguous forms are handled: an optional minus sign, ASCII digits and, for
+ * floats, an optional decimal point followed by at least one digit. For these forms, the value returned is the one the
+ * strict {@link FloatValidator} and {@link IntegerValidator} of the standard format produce with {@link
+ * java.util.Locale#US}. Anything else (surrounding whitespace, grouping separators, exponents, non ASCII digits, too
+ * many digits, NaN...) is reported as not handled, for the caller to fall back to said validators.
+ */
+final class GtfsNumberParser {
+    /**
+     * Returned by {@link #parseInteger(CharSequence)} for values that are not handled
+     */
+    static final long NOT_HANDLED = Long.MIN_VALUE;
+
+    // up to 9 digits always fit in an int
+    private static final int MAX_INTEGER_DIGIT_COUNT = 9;
+    // below 2^53, the digits of a float value are an exact double, as are powers of ten up to 10^22: the quotient of
+    // both is then correctly rounded, exactly like Double.parseDouble used by NumberFormat
+    private static final int MAX_FLOAT_DIGIT_COUNT = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private GtfsNumberParser() {
+    }
+
+    /**
+     * Returns the value of an integer field, {@link #NOT_HANDLED} if the value is not in a form handled here.
+     *
+     * @param text the value to parse
+     * @return the value of an integer field, {@link #NOT_HANDLED} if the value is not in a form handled here
+     */
+    static long parseInteger(final CharSequence text) {
+        final int length = text.length();
+        final boolean negative = length > 0 && text.charAt(0) == '-';
+        final int start = negative ? 1 : 0;
+        if (length == start || length - start > MAX_INTEGER_DIGIT_COUNT) {
+            return NOT_HANDLED;
+        }
+        int toReturn = 0;
+        for (int i = start; i < length; ++i) {
+            final int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_HANDLED;
+            }
+            toReturn = 10 * toReturn + digit;
+        }
+        return negative ? -toReturn : toReturn;
+    }
+
+    /**
+     * Returns the value of a float field before it is narrowed to a float, {@link Double#NaN} if the value is not in a
+     * form handled here.
+     *
+     * @param text the value to parse
+     * @return the value of a float field before it is narrowed to a float, {@link Double#NaN} if the value is not in
+     * a form handled here
+     */
+    static double parseFloat(final CharSequence text) {
+        final int length = text.length();
+        final boolean negative = length > 0 && text.charAt(0) == '-';
+        int index = negative ? 1 : 0;
+        long digits = 0;
+        int digitCount = 0;
+        int fractionDigitCount = -1;
+
+        for (; index < length; ++index) {
+            final char current = text.charAt(index);
+            if (current == '.' && fractionDigitCount < 0 && digitCount > 0) {
+                fractionDigitCount = 0;
+                continue;
+            }
+            final int digit = current - '0';
+            if (digit < 0 || digit > 9 || ++digitCount > MAX_FLOAT_DIGIT_COUNT) {
+                return Double.NaN;
+            }
+            digits = 10 * digits + digit;
+            if (fractionDigitCount >= 0) {
+                fractionDigitCount++;
+            }
+        }
+        if (digitCount == 0 || fractionDigitCount == 0) {
+            return Double.NaN;
+        }
+        final double toReturn = fractionDigitCount < 0 ? digits : digits / POWERS_OF_TEN[fractionDigitCount];
+        return negative ? -toReturn : toReturn;
+    }
+}
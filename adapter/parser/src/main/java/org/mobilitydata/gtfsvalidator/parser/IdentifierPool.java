@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates the values of identifier columns while a GTFS dataset is loaded: the same few thousand trip, stop,
+ * route or service identifiers are repeated on millions of rows, each of them read as a new {@link String}. Values
+ * going through the pool are replaced with the first equal instance seen, so that entities share their identifiers
+ * and lookups by identifier compare identical keys. Unlike {@link String#intern()}, the pool is scoped to a
+ * validation run and is cleared at the end of it. Files may be parsed on several threads.
+ */
+public final class IdentifierPool {
+    private final Map<String, String> identifierByValue = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the instance of the pool equal to the value provided as parameter, after adding said value to the pool
+     * if there was no such instance
+     *
+     * @param value the value to deduplicate
+     * @return the instance of the pool equal to the value provided as parameter
+     */
+    public String intern(final String value) {
+        final String toReturn = identifierByValue.putIfAbsent(value, value);
+        return toReturn == null ? value : toReturn;
+    }
+
+    /**
+     * Removes all values from the pool. Values handed out before are not affected, they are only no longer shared with
+     * the values going through the pool afterwards.
+     */
+    public void clear() {
+        identifierByValue.clear();
+    }
+
+    /**
+     * Returns the number of distinct values in the pool
+     *
+     * @return the number of distinct values in the pool
+     */
+    public int size() {
+        return identifierByValue.size();
+    }
+}
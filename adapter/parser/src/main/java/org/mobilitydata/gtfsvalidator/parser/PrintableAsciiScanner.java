@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Determines whether values only contain printable ASCII characters, from 0x20 (space) to 0x7E (tilde). Raw UTF-8
+ * bytes are checked eight at a time, as a {@code long}: every byte of a UTF-8 encoded character that is not ASCII has
+ * its high bit set, so that raw bytes only contain printable ASCII characters if and only if the decoded
+ * {@link String} does. This lets values be checked before they are decoded.
+ */
+public final class PrintableAsciiScanner {
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    // added to a byte lower than 0x80, sets its high bit if and only if the byte is greater than or equal to 0x20
+    private static final long ADD_TO_REACH_SPACE = 0x6060606060606060L;
+    // added to a byte lower than 0x80, sets its high bit if and only if the byte is 0x7F (delete)
+    private static final long ADD_TO_REACH_DELETE = 0x0101010101010101L;
+
+    private PrintableAsciiScanner() {
+    }
+
+    /**
+     * Returns true if the character provided as parameter is a printable ASCII character, else false
+     *
+     * @param ch the character to analyze
+     * @return true if the character provided as parameter is a printable ASCII character, else false
+     */
+    public static boolean isPrintableAscii(final char ch) {
+        return ch >= 32 && ch < 127;
+    }
+
+    /**
+     * Returns true if all characters of the value provided as parameter are printable ASCII characters, else false
+     *
+     * @param value the value to analyze
+     * @return true if all characters of the value provided as parameter are printable ASCII characters, else false
+     */
+    public static boolean isPrintableAscii(final String value) {
+        final int charCount = value.length();
+        for (int i = 0; i < charCount; ++i) {
+            if (!isPrintableAscii(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if a range of UTF-8 encoded bytes only contains printable ASCII characters, else false. The
+     * outcome is the same as the one of {@link #isPrintableAscii(String)} on the decoded range.
+     *
+     * @param bytes the UTF-8 encoded content
+     * @param start the position of the first byte of the range
+     * @param end   the position following the last byte of the range
+     * @return true if the range only contains printable ASCII characters, else false
+     */
+    public static boolean isPrintableAscii(final byte[] bytes, final int start, final int end) {
+        int index = start;
+        for (; index + Long.BYTES <= end; index += Long.BYTES) {
+            final long word = (long) LONG_VIEW.get(bytes, index);
+            // carries across bytes only happen from a byte whose high bit is already set, in which case the word is
+            // rejected anyway
+            if (((word | ~(word + ADD_TO_REACH_SPACE) | (word + ADD_TO_REACH_DELETE)) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; index < end; ++index) {
+            final byte current = bytes[index];
+            if (current < 32 || current == 127) {
+                // bytes are signed: bytes of characters that are not ASCII are negative
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import org.apache.commons.validator.routines.DateValidator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GtfsDateParserTest {
+
+    @Test
+    void gregorianDateShouldParse() {
+        final GtfsDateParser underTest = new GtfsDateParser();
+
+        assertEquals(LocalDate.of(2020, 2, 29), underTest.parse("20200229"));
+        assertEquals(LocalDate.of(2000, 2, 29), underTest.parse("20000229"));
+        assertEquals(LocalDate.of(1583, 1, 1), underTest.parse("15830101"));
+        assertEquals(LocalDate.of(9999, 12, 31), underTest.parse("99991231"));
+    }
+
+    @Test
+    void repeatedDateShouldBeTakenFromCache() {
+        final GtfsDateParser underTest = new GtfsDateParser();
+
+        assertSame(underTest.parse("20200101"), underTest.parse("20200101"));
+    }
+
+    @Test
+    void unusualValuesShouldNotBeHandled() {
+        final GtfsDateParser underTest = new GtfsDateParser();
+
+        for (final String value : List.of("", "2020011", "202001011", " 20200101", "2020-01-01", "+2020010",
+                "20201301", "20200001", "20200100", "20200230", "19000229", "20210229", "15821015", "00000101",
+                "２０２００１０１")) {
+            assertNull(underTest.parse(value), value);
+        }
+    }
+
+    @Test
+    void handledValuesShouldMatchStrictValidator() {
+        final GtfsDateParser underTest = new GtfsDateParser();
+        final DateValidator dateValidator = DateValidator.getInstance();
+        final Random random = new Random(42);
+        final List<String> valueList = new ArrayList<>();
+        for (LocalDate date = LocalDate.of(2019, 1, 1); date.getYear() < 2022; date = date.plusDays(1)) {
+            valueList.add(String.format("%04d%02d%02d", date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        }
+        for (int i = 0; i < 20000; ++i) {
+            valueList.add(String.format("%04d%02d%02d", 1583 + random.nextInt(8417), random.nextInt(14),
+                    random.nextInt(33)));
+        }
+
+        for (final String value : valueList) {
+            final LocalDate parsed = underTest.parse(value);
+            final Date validated = dateValidator.validate(value, "yyyyMMdd", Locale.US);
+            assertEquals(validated != null, parsed != null, value);
+            if (parsed != null) {
+                assertEquals(LocalDate.ofInstant(validated.toInstant(), ZoneId.systemDefault()), parsed, value);
+            }
+        }
+    }
+}
@@ -33,13 +33,14 @@ import org.mobilitydata.gtfsvalidator.protos.GtfsSpecificationProto;
 import org.mockito.ArgumentMatchers;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.*;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
 class GtfsEntityParserTest {
@@ -48,8 +49,6 @@ class GtfsEntityParserTest {
     void validFloatValidationShouldGenerateNothing() {
 
         FloatValidator mockFloatValidator = mock(FloatValidator.class);
-        when(mockFloatValidator.isValid(ArgumentMatchers.eq("1.0"),
-                (Locale) ArgumentMatchers.any())).thenReturn(true);
 
         GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
         GtfsSpecificationProto.ColumnSpecProto mockColumnSpec = mock(GtfsSpecificationProto.ColumnSpecProto.class);
@@ -80,7 +79,8 @@ class GtfsEntityParserTest {
 
         assertEquals(0, result.size());
 
-        verify(mockFloatValidator, times(1)).isValid(ArgumentMatchers.eq("1.0"),
+        // plain decimal values are parsed without going through the validator
+        verify(mockFloatValidator, never()).validate(ArgumentMatchers.anyString(),
                 (Locale) ArgumentMatchers.any());
     }
 
@@ -88,8 +88,6 @@ class GtfsEntityParserTest {
     void validIntegerValidationShouldGenerateNothing() {
 
         IntegerValidator mockIntegerValidator = mock(IntegerValidator.class);
-        when(mockIntegerValidator.isValid(ArgumentMatchers.eq("1"),
-                (Locale) ArgumentMatchers.any())).thenReturn(true);
 
         GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
         GtfsSpecificationProto.ColumnSpecProto mockColumnSpec = mock(GtfsSpecificationProto.ColumnSpecProto.class);
@@ -120,7 +118,8 @@ class GtfsEntityParserTest {
 
         assertEquals(0, result.size());
 
-        verify(mockIntegerValidator, times(1)).isValid(ArgumentMatchers.eq("1"),
+        // plain decimal values are parsed without going through the validator
+        verify(mockIntegerValidator, never()).validate(ArgumentMatchers.anyString(),
                 (Locale) ArgumentMatchers.any());
     }
 
@@ -194,8 +193,6 @@ class GtfsEntityParserTest {
     void notANumberFloatValidationShouldGenerateError() {
 
         FloatValidator mockFloatValidator = mock(FloatValidator.class);
-        when(mockFloatValidator.isValid(ArgumentMatchers.eq("NaN"),
-                (Locale) ArgumentMatchers.any())).thenReturn(true);
         when(mockFloatValidator.validate(ArgumentMatchers.eq("NaN"),
                 (Locale) ArgumentMatchers.any())).thenReturn(Float.NaN);
 
@@ -227,7 +224,7 @@ class GtfsEntityParserTest {
                 0
         ));
 
-        verify(mockFloatValidator, times(1)).isValid(ArgumentMatchers.eq("NaN"),
+        verify(mockFloatValidator, times(1)).validate(ArgumentMatchers.eq("NaN"),
                 (Locale) ArgumentMatchers.any());
 
         assertEquals(1, result.size());
@@ -246,6 +243,8 @@ class GtfsEntityParserTest {
     void invalidFloatValidationShouldGenerateError() {
 
         FloatValidator mockFloatValidator = mock(FloatValidator.class);
+        when(mockFloatValidator.validate(ArgumentMatchers.anyString(),
+                (Locale) ArgumentMatchers.any())).thenReturn(null);
 
         GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
         when(mockFileSpec.getFilename()).thenReturn("test_filename.tst");
@@ -286,7 +285,7 @@ class GtfsEntityParserTest {
         assertEquals("Value: 'abc' of field: float_type with type float can't be parsed in file: " +
                 "test_filename.tst at row: 0", notice.getDescription());
 
-        verify(mockFloatValidator, times(1)).isValid(ArgumentMatchers.eq("abc"),
+        verify(mockFloatValidator, times(1)).validate(ArgumentMatchers.eq("abc"),
                 (Locale) ArgumentMatchers.any());
     }
 
@@ -360,6 +359,8 @@ class GtfsEntityParserTest {
     void invalidIntegerValidationShouldGenerateError() {
 
         IntegerValidator mockIntegerValidator = mock(IntegerValidator.class);
+        when(mockIntegerValidator.validate(ArgumentMatchers.anyString(),
+                (Locale) ArgumentMatchers.any())).thenReturn(null);
 
         GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
         when(mockFileSpec.getFilename()).thenReturn("test_filename.tst");
@@ -400,7 +401,7 @@ class GtfsEntityParserTest {
         assertEquals("Value: 'abc' of field: integer_type with type integer can't be parsed in file: " +
                 "test_filename.tst at row: 0", notice.getDescription());
 
-        verify(mockIntegerValidator, times(1)).isValid(ArgumentMatchers.eq("abc"),
+        verify(mockIntegerValidator, times(1)).validate(ArgumentMatchers.eq("abc"),
                 (Locale) ArgumentMatchers.any());
     }
 
@@ -512,9 +513,11 @@ class GtfsEntityParserTest {
         assertEquals("Value: 'not_a_date' of field: date_type with type date can't be parsed in file: " +
                 "test_filename.tst at row: 0", notice.getDescription());
 
-        verify(mockDateValidator, times(1)).isValid(
+        verify(mockDateValidator, times(1)).validate(
                 ArgumentMatchers.eq("not_a_date"),
-                ArgumentMatchers.eq("yyyyMMdd")
+                ArgumentMatchers.eq("yyyyMMdd"),
+                (Locale) ArgumentMatchers.any(),
+                (TimeZone) ArgumentMatchers.any()
         );
     }
 
@@ -673,10 +676,6 @@ class GtfsEntityParserTest {
     void validFloatShouldParse() {
 
         FloatValidator mockFloatValidator = mock(FloatValidator.class);
-        when(mockFloatValidator.isValid(ArgumentMatchers.eq("1.0"),
-                (Locale) ArgumentMatchers.any())).thenReturn(true);
-        when(mockFloatValidator.validate(ArgumentMatchers.eq("1.0"),
-                (Locale) ArgumentMatchers.any())).thenReturn(1.0f);
 
         GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
         GtfsSpecificationProto.ColumnSpecProto mockColumnSpec = mock(GtfsSpecificationProto.ColumnSpecProto.class);
@@ -707,10 +706,8 @@ class GtfsEntityParserTest {
 
         assertEquals(1.0f, result.get("float_type"));
 
-        verify(mockFloatValidator, times(1)).isValid(ArgumentMatchers.eq("1.0"),
-                (Locale) ArgumentMatchers.any());
-        // 1 for NaN check, 1 for actual conversion
-        verify(mockFloatValidator, times(2)).validate(ArgumentMatchers.eq("1.0"),
+        // plain decimal values are parsed without going through the validator
+        verify(mockFloatValidator, never()).validate(ArgumentMatchers.anyString(),
                 (Locale) ArgumentMatchers.any());
     }
 
@@ -751,8 +748,6 @@ class GtfsEntityParserTest {
     void notANumberFloatShouldParseToNull() {
 
         FloatValidator mockFloatValidator = mock(FloatValidator.class);
-        when(mockFloatValidator.isValid(ArgumentMatchers.eq("NaN"),
-                (Locale) ArgumentMatchers.any())).thenReturn(true);
         when(mockFloatValidator.validate(ArgumentMatchers.eq("NaN"),
                 (Locale) ArgumentMatchers.any())).thenReturn(Float.NaN);
 
@@ -790,6 +785,8 @@ class GtfsEntityParserTest {
     void invalidFloatShouldParseToNull() {
 
         FloatValidator mockFloatValidator = mock(FloatValidator.class);
+        when(mockFloatValidator.validate(ArgumentMatchers.anyString(),
+                (Locale) ArgumentMatchers.any())).thenReturn(null);
 
         GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
         GtfsSpecificationProto.ColumnSpecProto mockColumnSpec = mock(GtfsSpecificationProto.ColumnSpecProto.class);
@@ -825,10 +822,6 @@ class GtfsEntityParserTest {
     void validIntegerShouldParse() {
 
         IntegerValidator mockIntegerValidator = mock(IntegerValidator.class);
-        when(mockIntegerValidator.isValid(ArgumentMatchers.eq("1"),
-                (Locale) ArgumentMatchers.any())).thenReturn(true);
-        when(mockIntegerValidator.validate(ArgumentMatchers.eq("1"),
-                (Locale) ArgumentMatchers.any())).thenReturn(1);
 
         GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
         GtfsSpecificationProto.ColumnSpecProto mockColumnSpec = mock(GtfsSpecificationProto.ColumnSpecProto.class);
@@ -859,10 +852,8 @@ class GtfsEntityParserTest {
 
         assertEquals(1, result.get("integer_type"));
 
-        verify(mockIntegerValidator, times(1)).isValid(ArgumentMatchers.eq("1"),
-                (Locale) ArgumentMatchers.any());
-
-        verify(mockIntegerValidator, times(1)).validate(ArgumentMatchers.eq("1"),
+        // plain decimal values are parsed without going through the validator
+        verify(mockIntegerValidator, never()).validate(ArgumentMatchers.anyString(),
                 (Locale) ArgumentMatchers.any());
     }
 
@@ -904,6 +895,8 @@ class GtfsEntityParserTest {
     void invalidIntegerShouldParseToNull() {
 
         IntegerValidator mockIntegerValidator = mock(IntegerValidator.class);
+        when(mockIntegerValidator.validate(ArgumentMatchers.anyString(),
+                (Locale) ArgumentMatchers.any())).thenReturn(null);
 
         GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
         when(mockFileSpec.getFilename()).thenReturn("test_filename.tst");
@@ -941,13 +934,51 @@ class GtfsEntityParserTest {
 
         DateValidator mockDateValidator = mock(DateValidator.class);
         when(mockDateValidator.isStrict()).thenReturn(true);
-        when(mockDateValidator.isValid(ArgumentMatchers.eq("16420517"),
-                ArgumentMatchers.eq("yyyyMMdd"),
-                ArgumentMatchers.any())).thenReturn(true);
+
+        GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
+        GtfsSpecificationProto.ColumnSpecProto mockColumnSpec = mock(GtfsSpecificationProto.ColumnSpecProto.class);
+        when(mockColumnSpec.getName()).thenReturn("date_type");
+
+        GtfsSpecificationProto.ColumnInputType mockInputType = mock(GtfsSpecificationProto.ColumnInputType.class);
+        when(mockInputType.getType()).thenReturn(GtfsSpecificationProto.ColumnInputType.InputType.DATE);
+
+        when(mockColumnSpec.getType()).thenReturn(mockInputType);
+        when(mockFileSpec.getColumnList()).thenReturn(List.of(mockColumnSpec));
+
+        GtfsEntityParser underTest = new GtfsEntityParser(
+                mockFileSpec,
+                new RawFileInfo.RawFileInfoBuilder().build(),
+                mock(FloatValidator.class),
+                mock(IntegerValidator.class),
+                mockDateValidator,
+                mock(RegexValidator.class)
+        );
+
+        ParsedEntity result = underTest.parse(new RawEntity(
+                Map.of("date_type", "16420517"),
+                0
+        ));
+
+        assertThat(result.get("date_type"), instanceOf(LocalDate.class));
+        assertEquals(LocalDate.of(1642, 5, 17), result.get("date_type"));
+
+        // dates of the Gregorian calendar are parsed without going through the validator
+        verify(mockDateValidator, never()).validate(ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyString(),
+                (Locale) ArgumentMatchers.any(),
+                (TimeZone) ArgumentMatchers.any());
+    }
+
+    @Test
+    void dateBeforeGregorianCalendarShouldParseWithValidator() {
+
+        DateValidator mockDateValidator = mock(DateValidator.class);
+        when(mockDateValidator.isStrict()).thenReturn(true);
         Date fakeDate = new Date();
-        when(mockDateValidator.validate(ArgumentMatchers.eq("16420517"),
+        when(mockDateValidator.validate(ArgumentMatchers.eq("15420517"),
                 ArgumentMatchers.eq("yyyyMMdd"),
-                (Locale) ArgumentMatchers.any())).thenReturn(fakeDate);
+                (Locale) ArgumentMatchers.any(),
+                (TimeZone) ArgumentMatchers.any())).thenReturn(fakeDate);
 
         GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
         GtfsSpecificationProto.ColumnSpecProto mockColumnSpec = mock(GtfsSpecificationProto.ColumnSpecProto.class);
@@ -969,23 +1000,20 @@ class GtfsEntityParserTest {
         );
 
         ParsedEntity result = underTest.parse(new RawEntity(
-                Map.of("date_type", "16420517"),
+                Map.of("date_type", "15420517"),
                 0
         ));
 
         assertThat(result.get("date_type"), instanceOf(LocalDate.class));
         assertEquals(LocalDate.ofInstant(
                 fakeDate.toInstant(),
-                ZoneId.of("America/Montreal")),
+                ZoneOffset.UTC),
                 result.get("date_type"));
 
-        verify(mockDateValidator, times(1)).isValid(ArgumentMatchers.eq("16420517"),
+        verify(mockDateValidator, times(1)).validate(ArgumentMatchers.eq("15420517"),
                 ArgumentMatchers.eq("yyyyMMdd"),
-                ArgumentMatchers.any());
-
-        verify(mockDateValidator, times(1)).validate(ArgumentMatchers.eq("16420517"),
-                ArgumentMatchers.eq("yyyyMMdd"),
-                (Locale) ArgumentMatchers.any());
+                (Locale) ArgumentMatchers.any(),
+                (TimeZone) ArgumentMatchers.any());
     }
 
     @Test
@@ -1091,5 +1119,139 @@ class GtfsEntityParserTest {
         assertEquals("a_string", result.get("string_type"));
     }
 
-    //TODO: add test for parsedEntity id
-}
\ No newline at end of file
+    /**
+     * A row that can only be read by column index, as the ones read by data providers keeping track of the position
+     * of columns
+     */
+    private static class IndexedRawEntity extends RawEntity {
+        private final Map<String, Integer> columnIndexPerHeader;
+        private final List<String> fieldList;
+
+        IndexedRawEntity(final Map<String, Integer> columnIndexPerHeader, final List<String> fieldList) {
+            super(Collections.emptyMap(), 2);
+            this.columnIndexPerHeader = columnIndexPerHeader;
+            this.fieldList = fieldList;
+        }
+
+        @Override
+        public String get(final String header) {
+            throw new AssertionError("columns are expected to be read by index");
+        }
+
+        @Override
+        public String get(final int columnIndex) {
+            return columnIndex < fieldList.size() ? fieldList.get(columnIndex) : null;
+        }
+
+        @Override
+        public Map<String, Integer> getColumnIndexPerHeader() {
+            return columnIndexPerHeader;
+        }
+
+        @Override
+        public int size() {
+            return fieldList.size();
+        }
+    }
+
+    @Test
+    void rowsKeepingTrackOfColumnsShouldBeParsedByColumnIndex() {
+        final GtfsFileSchema fileSchema = new GtfsFileSchema(GtfsSpecificationProto.CsvSpecProto.newBuilder()
+                .setName("Stops")
+                .setFilename("stops.txt")
+                .addColumn(GtfsSpecificationProto.ColumnSpecProto.newBuilder()
+                        .setName("stop_id")
+                        .setUniquevalues(true)
+                        .setType(GtfsSpecificationProto.ColumnInputType.newBuilder()
+                                .setType(GtfsSpecificationProto.ColumnInputType.InputType.ID)))
+                .addColumn(GtfsSpecificationProto.ColumnSpecProto.newBuilder()
+                        .setName("stop_lat")
+                        .setType(GtfsSpecificationProto.ColumnInputType.newBuilder()
+                                .setType(GtfsSpecificationProto.ColumnInputType.InputType.FLOAT)))
+                .addColumn(GtfsSpecificationProto.ColumnSpecProto.newBuilder()
+                        .setName("location_type")
+                        .setType(GtfsSpecificationProto.ColumnInputType.newBuilder()
+                                .setType(GtfsSpecificationProto.ColumnInputType.InputType.INTEGER)))
+                .build());
+        final GtfsEntityParser underTest = new GtfsEntityParser(
+                fileSchema,
+                RawFileInfo.builder().filename("stops.txt").build(),
+                FloatValidator.getInstance(),
+                IntegerValidator.getInstance(),
+                DateValidator.getInstance(),
+                mock(RegexValidator.class)
+        );
+
+        // columns in another order than the specification, without location_type
+        final Map<String, Integer> firstFileLayout = Map.of("stop_lat", 0, "stop_name", 1, "stop_id", 2);
+        ParsedEntity result = underTest.parse(new IndexedRawEntity(firstFileLayout, List.of("45.5", "name", "s0")));
+        assertEquals("s0", result.getEntityId());
+        assertEquals(45.5f, result.get("stop_lat"));
+        assertNull(result.get("location_type"));
+        assertNull(result.get("stop_name"));
+
+        final Collection<ErrorNotice> noticeCollection = underTest.validateNonStringTypes(
+                new IndexedRawEntity(firstFileLayout, List.of("north", "name", "s1")));
+        assertEquals(1, noticeCollection.size());
+        assertThat(noticeCollection.iterator().next(), instanceOf(CannotParseFloatNotice.class));
+
+        // rows with another layout are bound again
+        final Map<String, Integer> secondFileLayout = Map.of("stop_id", 0, "location_type", 1);
+        result = underTest.parse(new IndexedRawEntity(secondFileLayout, List.of("s2", "1")));
+        assertEquals("s2", result.getEntityId());
+        assertEquals(1, result.get("location_type"));
+        assertNull(result.get("stop_lat"));
+    }
+
+    @Test
+    void identifierValuesShouldBeSharedBetweenFiles() {
+        final IdentifierPool identifierPool = new IdentifierPool();
+        final GtfsEntityParser tripParser = new GtfsEntityParser(
+                new GtfsFileSchema(GtfsSpecificationProto.CsvSpecProto.newBuilder()
+                        .setName("Trips")
+                        .setFilename("trips.txt")
+                        .addColumn(GtfsSpecificationProto.ColumnSpecProto.newBuilder()
+                                .setName("trip_id")
+                                .setUniquevalues(true))
+                        .addColumn(GtfsSpecificationProto.ColumnSpecProto.newBuilder()
+                                .setName("trip_headsign"))
+                        .build()),
+                RawFileInfo.builder().filename("trips.txt").build(),
+                FloatValidator.getInstance(),
+                IntegerValidator.getInstance(),
+                DateValidator.getInstance(),
+                mock(RegexValidator.class),
+                identifierPool
+        );
+        final GtfsEntityParser stopTimeParser = new GtfsEntityParser(
+                new GtfsFileSchema(GtfsSpecificationProto.CsvSpecProto.newBuilder()
+                        .setName("StopTimes")
+                        .setFilename("stop_times.txt")
+                        .addColumn(GtfsSpecificationProto.ColumnSpecProto.newBuilder()
+                                .setName("trip_id")
+                                .addSupersetkey(GtfsSpecificationProto.SupersetKeySpecProto.newBuilder()
+                                        .setCsvname("trips")
+                                        .setKeyname("trip_id")))
+                        .build()),
+                RawFileInfo.builder().filename("stop_times.txt").build(),
+                FloatValidator.getInstance(),
+                IntegerValidator.getInstance(),
+                DateValidator.getInstance(),
+                mock(RegexValidator.class),
+                identifierPool
+        );
+
+        final ParsedEntity trip = tripParser.parse(new RawEntity(
+                Map.of("trip_id", new String("trip0"), "trip_headsign", new String("downtown")), 1));
+        final ParsedEntity firstStopTime = stopTimeParser.parse(new RawEntity(
+                Map.of("trip_id", new String("trip0")), 1));
+        final ParsedEntity secondStopTime = stopTimeParser.parse(new RawEntity(
+                Map.of("trip_id", new String("trip0")), 2));
+
+        assertSame(trip.getEntityId(), trip.get("trip_id"));
+        assertSame(trip.get("trip_id"), firstStopTime.get("trip_id"));
+        assertSame(trip.get("trip_id"), secondStopTime.get("trip_id"));
+        // values of other columns are not deduplicated
+        assertEquals(1, identifierPool.size());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.protos.GtfsSpecificationProto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GtfsFileSchemaTest {
+
+    private static GtfsSpecificationProto.ColumnSpecProto.Builder column(
+            final String name,
+            final GtfsSpecificationProto.ColumnInputType.InputType type) {
+        return GtfsSpecificationProto.ColumnSpecProto.newBuilder()
+                .setName(name)
+                .setType(GtfsSpecificationProto.ColumnInputType.newBuilder().setType(type));
+    }
+
+    private static GtfsFileSchema stopsSchema() {
+        return new GtfsFileSchema(GtfsSpecificationProto.CsvSpecProto.newBuilder()
+                .setName("Stops")
+                .setFilename("stops.txt")
+                .setRequired(true)
+                .addColumn(column("stop_id", GtfsSpecificationProto.ColumnInputType.InputType.ID)
+                        .setRequired(true)
+                        .setValueRequired(true)
+                        .setUniquevalues(true))
+                .addColumn(column("stop_lat", GtfsSpecificationProto.ColumnInputType.InputType.FLOAT)
+                        .setRequired(false)
+                        .setFloatmin(-90)
+                        .setFloatmax(90))
+                .addColumn(column("location_type", GtfsSpecificationProto.ColumnInputType.InputType.INTEGER)
+                        .setRequired(false)
+                        .setIntmin(0)
+                        .setIntmax(4))
+                .build());
+    }
+
+    @Test
+    void columnsShouldBeCompiledInSpecificationOrder() {
+        final GtfsFileSchema underTest = stopsSchema();
+
+        assertEquals("stops.txt", underTest.getFilename());
+        assertTrue(underTest.isRequired());
+        assertEquals(3, underTest.getColumnCount());
+
+        final GtfsFileSchema.Column stopId = underTest.getColumn(0);
+        assertEquals("stop_id", stopId.getName());
+        assertEquals(GtfsSpecificationProto.ColumnInputType.InputType.ID, stopId.getType());
+        assertTrue(stopId.isRequired());
+        assertTrue(stopId.isValueRequired());
+        assertTrue(stopId.hasUniqueValues());
+        assertTrue(stopId.isIdentifier());
+
+        final GtfsFileSchema.Column stopLat = underTest.getColumn(1);
+        assertEquals(GtfsSpecificationProto.ColumnInputType.InputType.FLOAT, stopLat.getType());
+        assertFalse(stopLat.isRequired());
+        assertFalse(stopLat.hasUniqueValues());
+        assertFalse(stopLat.isIdentifier());
+        assertEquals(-90f, stopLat.getFloatMin());
+        assertEquals(90f, stopLat.getFloatMax());
+
+        final GtfsFileSchema.Column locationType = underTest.getColumn(2);
+        assertEquals(0, locationType.getIntMin());
+        assertEquals(4, locationType.getIntMax());
+    }
+
+    @Test
+    void columnsShouldBeFoundByHeader() {
+        final GtfsFileSchema underTest = stopsSchema();
+
+        assertEquals(0, underTest.indexOf("stop_id"));
+        assertEquals(2, underTest.indexOf("location_type"));
+        assertEquals(-1, underTest.indexOf("stop_name"));
+    }
+
+    @Test
+    void headersShouldBeListedByRequirement() {
+        final GtfsFileSchema underTest = stopsSchema();
+
+        assertEquals(List.of("stop_id"), underTest.getRequiredHeaderList());
+        assertEquals(List.of("stop_lat", "location_type"), underTest.getOptionalHeaderList());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import org.apache.commons.validator.routines.FloatValidator;
+import org.apache.commons.validator.routines.IntegerValidator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GtfsNumberParserTest {
+    private static final List<String> UNUSUAL_VALUES = List.of("", "-", ".", "-.", "1.", ".5", "-.5", "+1", " 1",
+            "1 ", "1,000", "1.2.3", "1e5", "1E5", "NaN", "∞", "--1", "1-", "0x10", "١٢", "abc", "1.0a",
+            "1234567890123456", "0.0000000000000001");
+
+    @Test
+    void plainIntegerShouldParse() {
+        assertEquals(0, GtfsNumberParser.parseInteger("0"));
+        assertEquals(0, GtfsNumberParser.parseInteger("-0"));
+        assertEquals(7, GtfsNumberParser.parseInteger("007"));
+        assertEquals(-42, GtfsNumberParser.parseInteger("-42"));
+        assertEquals(999999999, GtfsNumberParser.parseInteger("999999999"));
+    }
+
+    @Test
+    void plainFloatShouldParse() {
+        assertEquals(0.0, GtfsNumberParser.parseFloat("0"));
+        assertEquals(-0.0, GtfsNumberParser.parseFloat("-0.0"));
+        assertEquals(1.5, GtfsNumberParser.parseFloat("1.5"));
+        assertEquals(-122.4194155, GtfsNumberParser.parseFloat("-122.4194155"));
+        assertEquals(123456789012345.0, GtfsNumberParser.parseFloat("123456789012345"));
+    }
+
+    @Test
+    void unusualValuesShouldNotBeHandled() {
+        for (final String value : UNUSUAL_VALUES) {
+            assertEquals(GtfsNumberParser.NOT_HANDLED, GtfsNumberParser.parseInteger(value), value);
+            assertTrue(Double.isNaN(GtfsNumberParser.parseFloat(value)), value);
+        }
+        // may not fit in an int
+        assertEquals(GtfsNumberParser.NOT_HANDLED, GtfsNumberParser.parseInteger("1234567890"));
+        assertEquals(GtfsNumberParser.NOT_HANDLED, GtfsNumberParser.parseInteger("-1234567890"));
+    }
+
+    @Test
+    void handledValuesShouldMatchValidators() {
+        final FloatValidator floatValidator = FloatValidator.getInstance();
+        final IntegerValidator integerValidator = IntegerValidator.getInstance();
+        final Random random = new Random(42);
+        final List<String> valueList = new ArrayList<>(UNUSUAL_VALUES);
+        for (int i = 0; i < 20000; ++i) {
+            valueList.add(Integer.toString(random.nextInt(2000000) - 1000000));
+            valueList.add(Long.toString(random.nextLong() % 1000000000000000L));
+            valueList.add(String.format(Locale.US, "%.7f", 360 * random.nextDouble() - 180));
+            valueList.add(String.format(Locale.US, "%." + random.nextInt(16) + "f", random.nextDouble()));
+        }
+
+        for (final String value : valueList) {
+            final long integerValue = GtfsNumberParser.parseInteger(value);
+            if (integerValue != GtfsNumberParser.NOT_HANDLED) {
+                assertEquals(integerValidator.validate(value, Locale.US), (int) integerValue, value);
+            }
+            final double floatValue = GtfsNumberParser.parseFloat(value);
+            if (!Double.isNaN(floatValue)) {
+                assertEquals(floatValidator.validate(value, Locale.US), (float) floatValue, value);
+            }
+        }
+    }
+}
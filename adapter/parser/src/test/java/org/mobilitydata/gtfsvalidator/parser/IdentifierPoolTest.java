@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IdentifierPoolTest {
+
+    @Test
+    void equalValuesShouldBeReplacedWithFirstInstance() {
+        final IdentifierPool underTest = new IdentifierPool();
+        final String first = new String("stop0");
+
+        assertSame(first, underTest.intern(first));
+        assertSame(first, underTest.intern(new String("stop0")));
+        assertEquals(1, underTest.size());
+    }
+
+    @Test
+    void distinctValuesShouldBeKept() {
+        final IdentifierPool underTest = new IdentifierPool();
+
+        assertEquals("stop0", underTest.intern("stop0"));
+        assertEquals("stop1", underTest.intern("stop1"));
+        assertEquals(2, underTest.size());
+    }
+
+    @Test
+    void clearedPoolShouldNoLongerHandOutPreviousInstances() {
+        final IdentifierPool underTest = new IdentifierPool();
+        final String first = new String("stop0");
+        underTest.intern(first);
+
+        underTest.clear();
+        final String second = new String("stop0");
+
+        assertEquals(0, underTest.size());
+        assertSame(second, underTest.intern(second));
+    }
+}
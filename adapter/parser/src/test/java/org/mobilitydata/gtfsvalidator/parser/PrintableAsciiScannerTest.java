@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrintableAsciiScannerTest {
+
+    private static void assertSameOutcomeAsDecodedValue(final byte[] bytes, final int start, final int end) {
+        final String decoded = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        assertEquals(PrintableAsciiScanner.isPrintableAscii(decoded),
+                PrintableAsciiScanner.isPrintableAscii(bytes, start, end),
+                () -> "Different outcome for " + decoded);
+    }
+
+    @Test
+    void charactersShouldBePrintableFromSpaceToTilde() {
+        for (char ch = 0; ch < 256; ++ch) {
+            assertEquals(ch >= ' ' && ch <= '~', PrintableAsciiScanner.isPrintableAscii(ch));
+        }
+        assertFalse(PrintableAsciiScanner.isPrintableAscii('é'));
+        assertTrue(PrintableAsciiScanner.isPrintableAscii("stop_0 ~"));
+        assertFalse(PrintableAsciiScanner.isPrintableAscii("stop\t0"));
+        assertTrue(PrintableAsciiScanner.isPrintableAscii(""));
+    }
+
+    @Test
+    void everyByteAtEveryPositionShouldGiveSameOutcomeAsDecodedValue() {
+        // lengths up to three words, so that each position of a word as well as the remaining bytes are covered
+        for (int length = 1; length <= 3 * Long.BYTES + 1; ++length) {
+            for (int position = 0; position < length; ++position) {
+                for (int value = 0; value < 256; ++value) {
+                    final byte[] bytes = new byte[length];
+                    Arrays.fill(bytes, (byte) 'a');
+                    bytes[position] = (byte) value;
+                    assertSameOutcomeAsDecodedValue(bytes, 0, length);
+                }
+            }
+        }
+    }
+
+    @Test
+    void bytesAroundSuspiciousByteShouldNotHideIt() {
+        // a byte whose high bit is set carries over to the next byte of the word when the masks are applied
+        final byte[] bytes = "abÿ~ \u007f0123456789".getBytes(StandardCharsets.ISO_8859_1);
+        assertFalse(PrintableAsciiScanner.isPrintableAscii(bytes, 0, bytes.length));
+        assertTrue(PrintableAsciiScanner.isPrintableAscii(bytes, 3, 5));
+        assertFalse(PrintableAsciiScanner.isPrintableAscii(bytes, 3, 6));
+        assertTrue(PrintableAsciiScanner.isPrintableAscii(bytes, 6, bytes.length));
+        assertTrue(PrintableAsciiScanner.isPrintableAscii(bytes, 4, 4));
+    }
+
+    @Test
+    void randomRangesShouldGiveSameOutcomeAsDecodedValue() {
+        final Random random = new Random(42);
+        final String[] pieces = {"stop", "_", "0", " ", "~", "\t", "\u007f", "é", "€", "🚌", "\"",
+                "\u0000"};
+        for (int i = 0; i < 10000; ++i) {
+            final StringBuilder builder = new StringBuilder();
+            final int pieceCount = random.nextInt(12);
+            for (int j = 0; j < pieceCount; ++j) {
+                // mostly printable pieces, so that suspicious bytes are found at any position of long values
+                builder.append(pieces[random.nextInt(10) < 8 ? random.nextInt(5) : random.nextInt(pieces.length)]);
+            }
+            final byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+            final int start = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+            final int end = start + random.nextInt(bytes.length - start + 1);
+            assertSameOutcomeAsDecodedValue(bytes, 0, bytes.length);
+            assertSameOutcomeAsDecodedValue(bytes, start, end);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Evicts the files of a cache directory that share a given extension: files older than a given age are deleted, as
+ * well as the oldest files once their total size exceeds a given number of bytes. This is shared by the repositories
+ * keeping files in the cache directory provided via execution parameter, each of them with its own extension and
+ * limits.
+ */
+final class CacheDirectoryEviction {
+    private final Path cacheDirectory;
+    private final String fileExtension;
+    private final long maxByteCount;
+    private final Duration maxAge;
+
+    /**
+     * @param cacheDirectory the directory holding the cached files
+     * @param fileExtension  the extension of the files to evict
+     * @param maxByteCount   the maximum total size of the files in bytes
+     * @param maxAge         the maximum age of a file
+     */
+    CacheDirectoryEviction(final Path cacheDirectory,
+                           final String fileExtension,
+                           final long maxByteCount,
+                           final Duration maxAge) {
+        this.cacheDirectory = cacheDirectory;
+        this.fileExtension = fileExtension;
+        this.maxByteCount = maxByteCount;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Deletes expired files, then the oldest files if the total size of the remaining ones exceeds the maximum size
+     *
+     * @throws IOException if the cache directory can not be listed
+     */
+    void evict() throws IOException {
+        final List<CachedFile> cachedFileList = new ArrayList<>();
+        try (Stream<Path> pathStream = Files.list(cacheDirectory)) {
+            for (final Path path : pathStream.filter(path -> path.toString().endsWith(fileExtension))
+                    .collect(Collectors.toList())) {
+                try {
+                    cachedFileList.add(new CachedFile(path, Files.size(path), Files.getLastModifiedTime(path)));
+                } catch (NoSuchFileException e) {
+                    // evicted concurrently
+                }
+            }
+        }
+        // most recent files first: they are kept as long as the total size allows it
+        cachedFileList.sort(Comparator.comparing((CachedFile cachedFile) -> cachedFile.lastModifiedTime).reversed());
+
+        long totalByteCount = 0;
+        for (final CachedFile cachedFile : cachedFileList) {
+            final boolean isExpired = isExpired(cachedFile.lastModifiedTime);
+            if (!isExpired) {
+                totalByteCount += cachedFile.byteCount;
+            }
+            if (isExpired || totalByteCount > maxByteCount) {
+                deleteQuietly(cachedFile.path);
+            }
+        }
+    }
+
+    /**
+     * Returns true if a file last modified at the given time is older than the maximum age, false otherwise
+     *
+     * @param lastModifiedTime the time the file was last modified
+     * @return true if a file last modified at the given time is older than the maximum age, false otherwise
+     */
+    boolean isExpired(final FileTime lastModifiedTime) {
+        return lastModifiedTime.toInstant().plus(maxAge).isBefore(Instant.now());
+    }
+
+    /**
+     * Deletes a file if it exists, ignoring failures: the file is evicted again on next save
+     *
+     * @param path the file to delete
+     */
+    static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // evicted again on next save
+        }
+    }
+
+    private static class CachedFile {
+        private final Path path;
+        private final long byteCount;
+        private final FileTime lastModifiedTime;
+
+        private CachedFile(final Path path, final long byteCount, final FileTime lastModifiedTime) {
+            this.path = path;
+            this.byteCount = byteCount;
+            this.lastModifiedTime = lastModifiedTime;
+        }
+    }
+}
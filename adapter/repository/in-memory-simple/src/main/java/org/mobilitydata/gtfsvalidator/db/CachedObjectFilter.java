@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+
+/**
+ * Restricts the classes deserialized from the cache directory, which is provided via execution parameter, to the
+ * classes of the domain and to the standard types their fields hold. This applies to cached validation results and
+ * to snapshots of GTFS data. Any other class found in a cached file is rejected before being instantiated, and the
+ * file is then treated as unreadable.
+ */
+final class CachedObjectFilter {
+    private static final ObjectInputFilter DOMAIN_OBJECTS = ObjectInputFilter.Config.createFilter(String.join(";",
+            "maxdepth=32",
+            "org.mobilitydata.gtfsvalidator.domain.entity.**",
+            "java.lang.String",
+            "java.lang.Number",
+            "java.lang.Boolean",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.Float",
+            "java.lang.Double",
+            "java.lang.Enum",
+            "java.time.Ser",
+            "java.net.URL",
+            "java.util.ArrayList",
+            "java.util.LinkedList",
+            "java.util.HashMap",
+            "java.util.LinkedHashMap",
+            "java.util.TreeMap",
+            "java.util.HashSet",
+            "java.util.LinkedHashSet",
+            "java.util.TreeSet",
+            "java.util.CollSer",
+            "java.util.ImmutableCollections$*",
+            "java.util.Collections$Unmodifiable*",
+            "java.util.Collections$Empty*",
+            "java.util.Collections$Singleton*",
+            // arrays are matched on their component type: these back the collections above
+            "java.lang.Object",
+            "java.util.Map$Entry",
+            "!*"));
+
+    private CachedObjectFilter() {
+    }
+
+    /**
+     * Restricts the classes an {@link ObjectInputStream} reading from the cache directory can deserialize
+     *
+     * @param inputStream the stream reading a cached file, before any object is read
+     * @return the same stream
+     */
+    static ObjectInputStream restrict(final ObjectInputStream inputStream) {
+        inputStream.setObjectInputFilter(DOMAIN_OBJECTS);
+        return inputStream;
+    }
+}
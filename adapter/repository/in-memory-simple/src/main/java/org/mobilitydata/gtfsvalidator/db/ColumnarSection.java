@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Encodes the rows of a table as a section of a snapshot, column by column. Rows are grouped into blocks of up to
+ * {@link #BLOCK_ROW_COUNT} rows, each block being prefixed with its length in bytes and a section ending with an empty
+ * block, so that a section can be skipped without being decoded. A block holds, in that order: the types of its
+ * columns, its number of rows, the strings that first appear in the block, then the values of each column one after
+ * the other. Strings are written once per section: values of string columns are codes into the strings of the
+ * previous blocks of the section.
+ */
+final class ColumnarSection {
+    static final int BLOCK_ROW_COUNT = 64 * 1024;
+    private static final int NO_STRING = -1;
+
+    private ColumnarSection() {
+    }
+
+    /**
+     * The type of the values of a column, along with the number of bytes of each value
+     */
+    enum ColumnType {
+        INT(Integer.BYTES),
+        FLOAT(Float.BYTES),
+        BYTE(Byte.BYTES),
+        // a code into the strings of the section
+        STRING(Integer.BYTES);
+
+        private final int byteCount;
+
+        ColumnType(final int byteCount) {
+            this.byteCount = byteCount;
+        }
+    }
+
+    /**
+     * Skips a section, whatever its content, the name of the section excluded
+     *
+     * @param input the content of the snapshot, positioned on the first block of the section
+     * @throws IOException if the section can not be read
+     */
+    static void skip(final DataInputStream input) throws IOException {
+        int blockByteCount;
+        while ((blockByteCount = input.readInt()) != 0) {
+            while (blockByteCount > 0) {
+                final int skippedByteCount = input.skipBytes(blockByteCount);
+                if (skippedByteCount <= 0) {
+                    throw new EOFException("Truncated section");
+                }
+                blockByteCount -= skippedByteCount;
+            }
+        }
+    }
+
+    /**
+     * Writes the rows of a table one value at a time, in the order of the columns
+     */
+    static final class Writer {
+        private final DataOutputStream output;
+        private final ColumnType[] columnTypes;
+        private final ByteBuffer[] columns;
+        private final Map<String, Integer> codePerString = new HashMap<>();
+        private final List<byte[]> newStringList = new ArrayList<>();
+        private int rowCount;
+        private int column;
+
+        /**
+         * @param output      the content of the snapshot, positioned after the name of the section
+         * @param columnTypes the types of the columns of the table
+         */
+        Writer(final DataOutputStream output, final ColumnType... columnTypes) {
+            this.output = output;
+            this.columnTypes = columnTypes;
+            this.columns = new ByteBuffer[columnTypes.length];
+            for (int i = 0; i < columnTypes.length; ++i) {
+                columns[i] = ByteBuffer.allocate(BLOCK_ROW_COUNT * columnTypes[i].byteCount);
+            }
+        }
+
+        Writer putInt(final int value) {
+            columns[nextColumn(ColumnType.INT)].putInt(rowCount * Integer.BYTES, value);
+            return this;
+        }
+
+        Writer putFloat(final float value) {
+            columns[nextColumn(ColumnType.FLOAT)].putFloat(rowCount * Float.BYTES, value);
+            return this;
+        }
+
+        Writer putByte(final byte value) {
+            columns[nextColumn(ColumnType.BYTE)].put(rowCount, value);
+            return this;
+        }
+
+        Writer putString(final String value) {
+            final int code;
+            if (value == null) {
+                code = NO_STRING;
+            } else {
+                code = codePerString.computeIfAbsent(value, key -> {
+                    newStringList.add(key.getBytes(StandardCharsets.UTF_8));
+                    return codePerString.size();
+                });
+            }
+            columns[nextColumn(ColumnType.STRING)].putInt(rowCount * Integer.BYTES, code);
+            return this;
+        }
+
+        /**
+         * Completes the current row, which must have a value for each column
+         *
+         * @throws IOException if the block completed by this row can not be written
+         */
+        void endRow() throws IOException {
+            if (column != columnTypes.length) {
+                throw new IllegalStateException("Row completed with " + column + " values out of " +
+                        columnTypes.length);
+            }
+            column = 0;
+            if (++rowCount == BLOCK_ROW_COUNT) {
+                writeBlock();
+            }
+        }
+
+        /**
+         * Writes the rows not written yet, then the end of the section
+         *
+         * @throws IOException if the rows can not be written
+         */
+        void finish() throws IOException {
+            writeBlock();
+            output.writeInt(0);
+        }
+
+        private int nextColumn(final ColumnType columnType) {
+            if (columnTypes[column] != columnType) {
+                throw new IllegalStateException("Column " + column + " is of type " + columnTypes[column] +
+                        ", not " + columnType);
+            }
+            return column++;
+        }
+
+        private void writeBlock() throws IOException {
+            if (rowCount == 0) {
+                return;
+            }
+            int blockByteCount = Byte.BYTES + columnTypes.length + 2 * Integer.BYTES;
+            for (final byte[] newString : newStringList) {
+                blockByteCount += Integer.BYTES + newString.length;
+            }
+            for (final ColumnType columnType : columnTypes) {
+                blockByteCount += rowCount * columnType.byteCount;
+            }
+
+            output.writeInt(blockByteCount);
+            output.writeByte(columnTypes.length);
+            for (final ColumnType columnType : columnTypes) {
+                output.writeByte(columnType.ordinal());
+            }
+            output.writeInt(rowCount);
+            output.writeInt(newStringList.size());
+            for (final byte[] newString : newStringList) {
+                output.writeInt(newString.length);
+                output.write(newString);
+            }
+            for (int i = 0; i < columnTypes.length; ++i) {
+                output.write(columns[i].array(), 0, rowCount * columnTypes[i].byteCount);
+            }
+            newStringList.clear();
+            rowCount = 0;
+        }
+    }
+
+    /**
+     * Reads the rows of a table one value at a time, in the order of the columns. Blocks are read one at a time.
+     */
+    static final class Reader {
+        private final DataInputStream input;
+        private final ColumnType[] columnTypes;
+        private final int[] columnOffsets;
+        private final List<String> stringList = new ArrayList<>();
+        private ByteBuffer block = ByteBuffer.allocate(0);
+        private int rowCount;
+        private int row;
+        private int column;
+        private boolean isFinished;
+
+        /**
+         * @param input       the content of the snapshot, positioned after the name of the section
+         * @param columnTypes the types of the columns expected in the section
+         */
+        Reader(final DataInputStream input, final ColumnType... columnTypes) {
+            this.input = input;
+            this.columnTypes = columnTypes;
+            this.columnOffsets = new int[columnTypes.length];
+        }
+
+        /**
+         * Moves to the next row of the section, reading the next block if needed
+         *
+         * @return true if there is a next row, false once the end of the section has been read
+         * @throws IOException if the next block can not be read or does not have the expected columns
+         */
+        boolean nextRow() throws IOException {
+            column = 0;
+            if (++row < rowCount) {
+                return true;
+            }
+            while (!isFinished) {
+                readBlock();
+                if (rowCount > 0) {
+                    row = 0;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int getInt() {
+            return block.getInt(position(ColumnType.INT));
+        }
+
+        float getFloat() {
+            return block.getFloat(position(ColumnType.FLOAT));
+        }
+
+        byte getByte() {
+            return block.get(position(ColumnType.BYTE));
+        }
+
+        String getString() {
+            final int code = block.getInt(position(ColumnType.STRING));
+            return code == NO_STRING ? null : stringList.get(code);
+        }
+
+        private int position(final ColumnType columnType) {
+            if (columnTypes[column] != columnType) {
+                throw new IllegalStateException("Column " + column + " is of type " + columnTypes[column] +
+                        ", not " + columnType);
+            }
+            return columnOffsets[column] + row * columnTypes[column++].byteCount;
+        }
+
+        private void readBlock() throws IOException {
+            final int blockByteCount = input.readInt();
+            rowCount = 0;
+            if (blockByteCount == 0) {
+                isFinished = true;
+                return;
+            }
+            if (block.capacity() < blockByteCount) {
+                block = ByteBuffer.allocate(blockByteCount);
+            }
+            input.readFully(block.array(), 0, blockByteCount);
+            block.clear().limit(blockByteCount);
+
+            if (block.get() != columnTypes.length) {
+                throw new IOException("Unexpected number of columns in snapshot section");
+            }
+            for (final ColumnType columnType : columnTypes) {
+                if (block.get() != columnType.ordinal()) {
+                    throw new IOException("Unexpected column type in snapshot section");
+                }
+            }
+            final int blockRowCount = block.getInt();
+            final int newStringCount = block.getInt();
+            for (int i = 0; i < newStringCount; ++i) {
+                final int stringByteCount = block.getInt();
+                stringList.add(new String(block.array(), block.position(), stringByteCount, StandardCharsets.UTF_8));
+                block.position(block.position() + stringByteCount);
+            }
+            int offset = block.position();
+            for (int i = 0; i < columnTypes.length; ++i) {
+                columnOffsets[i] = offset;
+                offset += blockRowCount * columnTypes[i].byteCount;
+            }
+            if (offset != blockByteCount) {
+                throw new IOException("Unexpected size of snapshot block");
+            }
+            rowCount = blockRowCount;
+        }
+    }
+}
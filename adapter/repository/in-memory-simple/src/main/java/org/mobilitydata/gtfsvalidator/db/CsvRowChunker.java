@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.mobilitydata.gtfsvalidator.db.CsvRowTokenizer.*;
+
+/**
+ * Splits the content of a GTFS CSV file into byte ranges that can be tokenized independently from one another, without
+ * reading the file beforehand. The file is cut at regular offsets, each range then starting at the first row that
+ * starts after its offset: line breaks enclosed in quoted fields are never used as a boundary.
+ * <p>
+ * Whether a line break is enclosed in quotes depends on everything before it. To find out without scanning the file
+ * from its start for each range, each interval between two offsets is summarized once, by the first range that needs
+ * it: the state of the quoting rules of {@link CsvRowTokenizer} at the end of the interval for each state it may start
+ * in, and the number of lines it holds. Summaries are chained to get the state and the line number at any offset, so
+ * that rows keep their index in the file. Intervals are summarized by the threads reading the ranges, as ranges are
+ * read: a range only reads the intervals before it that no other range summarized yet.
+ */
+final class CsvRowChunker {
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final int STATE_COUNT = 4;
+    // a row ends after the byte just read
+    private static final int ROW_END = 4;
+
+    private final ByteSourceFactory sourceFactory;
+    private final long size;
+    private final long chunkByteCount;
+    private final int headerStart;
+    private final AtomicReferenceArray<IntervalSummary> summaries;
+    private final AtomicReferenceArray<long[]> rowStarts;
+
+    /**
+     * Opens a source for a byte range of the content to split
+     */
+    interface ByteSourceFactory {
+
+        CsvRowTokenizer.ByteSource open(final long startOffset, final long endOffset) throws IOException;
+    }
+
+    private CsvRowChunker(final ByteSourceFactory sourceFactory, final long size, final long chunkByteCount,
+                          final int chunkCount) throws IOException {
+        this.sourceFactory = sourceFactory;
+        this.size = size;
+        this.chunkByteCount = chunkByteCount;
+        this.summaries = new AtomicReferenceArray<>(chunkCount);
+        this.rowStarts = new AtomicReferenceArray<>(chunkCount + 1);
+        final CsvRowTokenizer.ByteSource source = sourceFactory.open(0, Math.min(size, 3));
+        this.headerStart = hasByteOrderMark(source.window()) ? 3 : 0;
+        source.close();
+    }
+
+    /**
+     * Returns data providers covering the rows of a GTFS CSV file, in the order of the file. The headers of the file
+     * are read once and shared by all providers. A provider only finds the range it covers and opens it the first time
+     * it is read.
+     *
+     * @param sourceFactory  opens a source for a byte range of the file
+     * @param size           the size of the file in bytes
+     * @param chunkByteCount the approximate size of each range in bytes
+     * @return data providers covering the rows of a GTFS CSV file, in the order of the file
+     * @throws IOException if the file or its headers can not be read
+     */
+    static List<RawFileRepository.RawEntityProvider> split(final ByteSourceFactory sourceFactory,
+                                                          final long size,
+                                                          final long chunkByteCount) throws IOException {
+        final long chunkCount = Math.max(1, (size + chunkByteCount - 1) / chunkByteCount);
+        if (chunkCount > Integer.MAX_VALUE - 8) {
+            throw new IOException("Chunks of " + chunkByteCount + " bytes are too small for a file of " + size +
+                    " bytes");
+        }
+        final CsvRowChunker chunker = new CsvRowChunker(sourceFactory, size, chunkByteCount, (int) chunkCount);
+        // the headers are read from the start of the file, which is released once they are read
+        final CsvRowRawEntityProvider headerProvider =
+                new CsvRowRawEntityProvider(new CsvRowTokenizer(sourceFactory.open(0, size)));
+        headerProvider.close();
+        final RawFileRepository.RawEntityProvider[] providers =
+                new RawFileRepository.RawEntityProvider[(int) chunkCount];
+        for (int i = 0; i < providers.length; ++i) {
+            providers[i] = new ChunkProvider(chunker, i, headerProvider);
+        }
+        return Arrays.asList(providers);
+    }
+
+    /**
+     * Opens the range of a chunk, from the first row starting at or after its offset to the first row starting at or
+     * after the offset of the next chunk
+     */
+    private CsvRowTokenizer openTokenizer(final int chunk) throws IOException {
+        final long[] start = rowStart(chunk);
+        final long[] end = rowStart(chunk + 1);
+        final CsvRowTokenizer.ByteSource source = sourceFactory.open(start[0], end[0]);
+        // the first chunk starts with the headers of the file
+        return chunk == 0 ? new CsvRowTokenizer(source) : new CsvRowTokenizer(source, (int) start[1]);
+    }
+
+    /**
+     * Returns the position of the first row starting at or after the offset of a chunk, along with the 1 based number
+     * of the line said row starts at. The end of the file is returned if no row starts after the offset.
+     *
+     * @param chunk the index of a chunk, the number of chunks for the end of the file
+     * @return pairs of position and line number
+     * @throws IOException if the file can not be read
+     */
+    private long[] rowStart(final int chunk) throws IOException {
+        long[] toReturn = rowStarts.get(chunk);
+        if (toReturn != null) {
+            return toReturn;
+        }
+        if (chunk == 0) {
+            toReturn = new long[]{0, 1};
+        } else if (chunk == summaries.length()) {
+            toReturn = new long[]{size, 0};
+        } else {
+            int state = FIELD_START;
+            long lineNumber = 1;
+            for (int i = 0; i < chunk; ++i) {
+                final IntervalSummary summary = summary(i);
+                state = summary.exitStates[state];
+                lineNumber += summary.lineCount;
+            }
+            toReturn = findRowStart((long) chunk * chunkByteCount, state, lineNumber);
+        }
+        // concurrent computations yield the same result
+        rowStarts.set(chunk, toReturn);
+        return toReturn;
+    }
+
+    /**
+     * Returns the summary of the interval between the offset of a chunk and the offset of the next one, computed
+     * once
+     */
+    private IntervalSummary summary(final int chunk) throws IOException {
+        IntervalSummary toReturn = summaries.get(chunk);
+        if (toReturn == null) {
+            toReturn = summarize((long) chunk * chunkByteCount, Math.min(size, (long) (chunk + 1) * chunkByteCount));
+            summaries.set(chunk, toReturn);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Reads an interval of the file once, following the quoting rules from each state at once
+     */
+    private IntervalSummary summarize(final long start, final long end) throws IOException {
+        final int[] states = {FIELD_START, UNQUOTED, QUOTED, QUOTE_IN_QUOTED};
+        final long[] lineCount = {0};
+        // the byte order mark is not part of the first field
+        scan(Math.max(start, headerStart), end, (current, previous) -> {
+            for (int i = 0; i < STATE_COUNT; ++i) {
+                final int state = next(states[i], current);
+                states[i] = state == ROW_END ? FIELD_START : state;
+            }
+            if (isLineBreak(current, previous)) {
+                lineCount[0]++;
+            }
+            return false;
+        });
+        return new IntervalSummary(states, lineCount[0]);
+    }
+
+    /**
+     * Returns the position following the first line feed that ends a row at or after a given offset, along with the
+     * number of the line it starts at
+     */
+    private long[] findRowStart(final long offset, final int initialState, final long initialLineNumber)
+            throws IOException {
+        final int[] state = {initialState};
+        final long[] lineNumber = {initialLineNumber};
+        final long position = scan(Math.max(offset, headerStart), size, (current, previous) -> {
+            if (isLineBreak(current, previous)) {
+                lineNumber[0]++;
+            }
+            state[0] = next(state[0], current);
+            if (state[0] == ROW_END) {
+                state[0] = FIELD_START;
+                return current == LF;
+            }
+            return false;
+        });
+        return new long[]{position, lineNumber[0]};
+    }
+
+    /**
+     * Reads bytes from a position until the end position or until the visitor returns true
+     *
+     * @return the position following the byte the visitor returned true for, the end position otherwise
+     */
+    private long scan(final long start, final long end, final ByteVisitor visitor) throws IOException {
+        if (start >= end) {
+            return end;
+        }
+        // the byte before the interval tells whether a line feed at its start follows a carriage return
+        final long sourceStart = Math.max(0, start - 1);
+        try (CsvRowTokenizer.ByteSource source = sourceFactory.open(sourceStart, end)) {
+            long windowOffset = sourceStart;
+            byte previous = 0;
+            ByteBuffer window = source.window();
+            int index = (int) (start - sourceStart);
+            if (index > 0) {
+                previous = window.get(0);
+            }
+            while (true) {
+                final int limit = window.limit();
+                for (; index < limit; ++index) {
+                    final byte current = window.get(index);
+                    if (visitor.visit(current, previous)) {
+                        return windowOffset + index + 1;
+                    }
+                    previous = current;
+                }
+                if (!source.extend(limit)) {
+                    return end;
+                }
+                windowOffset += limit;
+                window = source.window();
+                index = 0;
+            }
+        }
+    }
+
+    /**
+     * Line breaks are counted the same way as in {@link CsvRowTokenizer}, whether they are enclosed in quotes or not:
+     * a carriage return followed by a line feed is one line break
+     */
+    private static boolean isLineBreak(final byte current, final byte previous) {
+        return current == CR || (current == LF && previous != CR);
+    }
+
+    /**
+     * Returns the state of the quoting rules once a byte is read, {@link #ROW_END} if the byte ends a row
+     */
+    private static int next(final int state, final byte current) {
+        switch (state) {
+            case QUOTED: {
+                return current == QUOTE ? QUOTE_IN_QUOTED : QUOTED;
+            }
+            case QUOTE_IN_QUOTED: {
+                if (current == QUOTE) {
+                    // escaped quote
+                    return QUOTED;
+                }
+                break;
+            }
+            case FIELD_START: {
+                if (current == QUOTE) {
+                    return QUOTED;
+                }
+                break;
+            }
+        }
+        if (current == COMMA) {
+            return FIELD_START;
+        }
+        return current == CR || current == LF ? ROW_END : UNQUOTED;
+    }
+
+    private static boolean hasByteOrderMark(final ByteBuffer window) {
+        return window.limit() >= 3 && window.get(0) == (byte) 0xEF && window.get(1) == (byte) 0xBB &&
+                window.get(2) == (byte) 0xBF;
+    }
+
+    private interface ByteVisitor {
+
+        boolean visit(final byte current, final byte previous);
+    }
+
+    /**
+     * The state of the quoting rules at the end of an interval for each state at its start, and the number of line
+     * breaks in the interval
+     */
+    private static final class IntervalSummary {
+        private final int[] exitStates;
+        private final long lineCount;
+
+        private IntervalSummary(final int[] exitStates, final long lineCount) {
+            this.exitStates = exitStates;
+            this.lineCount = lineCount;
+        }
+    }
+
+    /**
+     * Reads the range of a chunk, which is only found and opened the first time rows are read. The headers of the
+     * file are read once, before the file is split.
+     */
+    private static final class ChunkProvider implements RawFileRepository.RawEntityProvider {
+        private final CsvRowChunker chunker;
+        private final int chunk;
+        private final CsvRowRawEntityProvider headerProvider;
+        private CsvRowRawEntityProvider delegate;
+
+        private ChunkProvider(final CsvRowChunker chunker, final int chunk,
+                              final CsvRowRawEntityProvider headerProvider) {
+            this.chunker = chunker;
+            this.chunk = chunk;
+            this.headerProvider = headerProvider;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return open().hasNext();
+        }
+
+        @Override
+        public RawEntity getNext() {
+            return open().getNext();
+        }
+
+        @Override
+        public int getHeaderCount() {
+            return headerProvider.getHeaderCount();
+        }
+
+        @Override
+        public List<String> getHeaders() {
+            return headerProvider.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            if (delegate != null) {
+                delegate.close();
+            }
+        }
+
+        private CsvRowRawEntityProvider open() {
+            if (delegate == null) {
+                try {
+                    final CsvRowTokenizer tokenizer = chunker.openTokenizer(chunk);
+                    delegate = chunk == 0 ? new CsvRowRawEntityProvider(tokenizer) :
+                            new CsvRowRawEntityProvider(tokenizer, headerProvider);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return delegate;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.parser.PrintableAsciiScanner;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Represents a row of a GTFS file as the raw bytes read from said file and the position of each field within these
+ * bytes. A field is decoded to a {@code String} the first time it is read. The bytes and positions of consecutive rows
+ * are held in shared arrays: a row only refers to its own range of these arrays.
+ * This is created by {@link CsvRowTokenizer}.
+ */
+final class CsvRowRawEntity extends RawEntity {
+    private final Map<String, Integer> columnIndexPerHeader;
+    private final byte[] content;
+    private final int[] fieldBounds;
+    private final int boundsStart;
+    private final int fieldCount;
+    private String[] decodedFields;
+
+    /**
+     * @param columnIndexPerHeader the index of the column matching each header of the file, shared by all rows
+     * @param content              an array holding the bytes of the row, line break excluded
+     * @param fieldBounds          an array holding the start and end positions of each field within the content
+     * @param boundsStart          the position of the start of the first field of the row in the array of positions
+     * @param fieldCount           the number of fields of the row
+     * @param entityIndex          the 1 based index of the row
+     */
+    CsvRowRawEntity(final Map<String, Integer> columnIndexPerHeader,
+                    final byte[] content,
+                    final int[] fieldBounds,
+                    final int boundsStart,
+                    final int fieldCount,
+                    final int entityIndex) {
+        super(Collections.emptyMap(), entityIndex);
+        this.columnIndexPerHeader = columnIndexPerHeader;
+        this.content = content;
+        this.fieldBounds = fieldBounds;
+        this.boundsStart = boundsStart;
+        this.fieldCount = fieldCount;
+    }
+
+    /**
+     * Returns the value contained in a row for a given header (column)
+     *
+     * @param header a GTFS file column header
+     * @return the value contained in a row for a given header (column)
+     */
+    @Override
+    public String get(final String header) {
+        final Integer columnIndex = columnIndexPerHeader.get(header);
+        return columnIndex == null ? null : get(columnIndex);
+    }
+
+    /**
+     * Returns the value contained in a row for a given column, identified by the 0 based index of its header in the
+     * file
+     *
+     * @param columnIndex the 0 based index of the header of a column in the file
+     * @return the value contained in a row for a given column, null if the row has no such column
+     */
+    @Override
+    public String get(final int columnIndex) {
+        if (columnIndex < 0 || columnIndex >= size()) {
+            return null;
+        }
+        if (decodedFields == null) {
+            decodedFields = new String[size()];
+        }
+        String toReturn = decodedFields[columnIndex];
+        if (toReturn == null) {
+            toReturn = CsvRowTokenizer.decode(content, fieldBounds[boundsStart + 2 * columnIndex],
+                    fieldBounds[boundsStart + 2 * columnIndex + 1]);
+            decodedFields[columnIndex] = toReturn;
+        }
+        return toReturn;
+    }
+
+    /**
+     * Returns true if the raw bytes of a column only contain printable ASCII characters, which is checked without
+     * decoding the value. Quotes enclosing the value are printable ASCII characters, as are escaped quotes.
+     *
+     * @param columnIndex the 0 based index of the header of a column in the file
+     * @return true if the raw bytes of the column only contain printable ASCII characters, false if they do not or if
+     * the row has no such column
+     */
+    @Override
+    public boolean hasPrintableAsciiValue(final int columnIndex) {
+        return columnIndex >= 0 && columnIndex < size() &&
+                PrintableAsciiScanner.isPrintableAscii(content, fieldBounds[boundsStart + 2 * columnIndex],
+                        fieldBounds[boundsStart + 2 * columnIndex + 1]);
+    }
+
+    /**
+     * Returns the 0 based index of the column matching each header of the file, shared by all rows of the file
+     *
+     * @return the 0 based index of the column matching each header of the file
+     */
+    @Override
+    public Map<String, Integer> getColumnIndexPerHeader() {
+        return columnIndexPerHeader;
+    }
+
+    /**
+     * Returns the number of fields of the row.
+     *
+     * @return the number of fields of the row
+     */
+    @Override
+    public int size() {
+        return fieldCount;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Provides methods to perform operations on rows of a GTFS CSV file. Includes feature to transform a row of a GTFS
+ * CSV file into a {@link RawEntity}. Rows are tokenized at the byte level by a {@link CsvRowTokenizer}, files on disk
+ * are memory-mapped. Values of a row can be accessed by header or by column index and are only decoded when read.
+ * Empty lines are skipped, as they were by Jackson, but still count in the index of the following rows.
+ * This is called in {@link InMemoryRawFileRepository} to retrieve the data provider for a specific GTFS CSV file.
+ */
+public class CsvRowRawEntityProvider implements RawFileRepository.RawEntityProvider {
+    private final CsvRowTokenizer tokenizer;
+    private final List<String> headerList;
+    private final Map<String, Integer> columnIndexPerHeader;
+    private RawEntity nextRawEntity;
+
+    /**
+     * Builds a data provider reading rows from a file on disk, which is memory-mapped
+     *
+     * @param file information regarding the file to read
+     * @throws IOException if the file or its headers can not be read
+     */
+    public CsvRowRawEntityProvider(final RawFileInfo file) throws IOException {
+        this(CsvRowTokenizer.mapped(Path.of(file.getPath() + File.separator + file.getFilename())));
+    }
+
+    /**
+     * Builds a data provider reading rows from a stream instead of a file on disk, for instance the stream of an entry
+     * of a zipped archive. The stream is closed once all rows have been read.
+     *
+     * @param csvInputStream the stream of the content of a GTFS CSV file
+     * @throws IOException if the headers of the file can not be read
+     */
+    public CsvRowRawEntityProvider(final InputStream csvInputStream) throws IOException {
+        this(CsvRowTokenizer.stream(csvInputStream));
+    }
+
+    CsvRowRawEntityProvider(final CsvRowTokenizer tokenizer) throws IOException {
+        this.tokenizer = tokenizer;
+
+        if (!tokenizer.nextRow() || tokenizer.isEmptyRow()) {
+            throw new EmptyHeaderLineException();
+        }
+        final List<String> headers = new ArrayList<>(tokenizer.getFieldCount());
+        final Map<String, Integer> indexPerHeader = new HashMap<>();
+        for (int i = 0; i < tokenizer.getFieldCount(); ++i) {
+            final String header = tokenizer.decodeField(i).trim();
+            headers.add(header);
+            // in case of duplicate headers, the value of the last column is kept
+            indexPerHeader.put(header, i);
+        }
+        headerList = Collections.unmodifiableList(headers);
+        columnIndexPerHeader = Collections.unmodifiableMap(indexPerHeader);
+        nextRawEntity = readNext();
+    }
+
+    /**
+     * Builds a data provider reading rows from a range of a file that does not contain the headers of said file
+     *
+     * @param tokenizer      the tokenizer of the range of the file, starting at the beginning of a row
+     * @param headerProvider the data provider that read the headers of the file
+     */
+    CsvRowRawEntityProvider(final CsvRowTokenizer tokenizer, final CsvRowRawEntityProvider headerProvider) {
+        this.tokenizer = tokenizer;
+        this.headerList = headerProvider.headerList;
+        this.columnIndexPerHeader = headerProvider.columnIndexPerHeader;
+        nextRawEntity = readNext();
+    }
+
+    /**
+     * Returns a boolean indicating if a GTFS CSV file has more rows that can be read. true if yes, else false.
+     *
+     * @return a boolean indicating if a GTFS CSV file has more rows that can be read. true if yes, else false
+     */
+    @Override
+    public boolean hasNext() {
+        return nextRawEntity != null;
+    }
+
+    /**
+     * Returns the next row of a GTFS CSV file as a {@link RawEntity}
+     *
+     * @return the next row of a GTFS CSV file as a {@link RawEntity}
+     */
+    @Override
+    public RawEntity getNext() {
+        if (nextRawEntity == null) {
+            throw new NoSuchElementException();
+        }
+        final RawEntity toReturn = nextRawEntity;
+        nextRawEntity = readNext();
+        return toReturn;
+    }
+
+    /**
+     * Returns the number of header of a GTFS CSV file.
+     *
+     * @return the number of header of a GTFS CSV file.
+     */
+    @Override
+    public int getHeaderCount() {
+        return headerList.size();
+    }
+
+    /**
+     * Returns the headers of a GTFS CSV file in the order they appear in the file, including duplicates.
+     *
+     * @return the headers of a GTFS CSV file in the order they appear in the file, including duplicates
+     */
+    @Override
+    public List<String> getHeaders() {
+        return headerList;
+    }
+
+    /**
+     * Releases the stream rows are read from, if any. This is only needed when rows are not read until the end of the
+     * file.
+     */
+    @Override
+    public void close() {
+        try {
+            tokenizer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Thrown when a file has no header line, which is how an empty file is told apart from a file that can not be read
+     */
+    static final class EmptyHeaderLineException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        EmptyHeaderLineException() {
+            super("Empty header line: can not bind data");
+        }
+    }
+
+    /**
+     * Returns the next row that is not an empty line, null if there is none
+     */
+    private RawEntity readNext() {
+        try {
+            while (tokenizer.nextRow()) {
+                if (!tokenizer.isEmptyRow()) {
+                    return tokenizer.toRawEntity(columnIndexPerHeader);
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
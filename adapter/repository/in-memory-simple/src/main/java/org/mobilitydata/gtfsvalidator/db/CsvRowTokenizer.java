@@ -0,0 +1,536 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Splits the content of a GTFS CSV file into rows following RFC 4180. Tokenization happens at the byte level: the
+ * position of each field of the current row is recorded in offset arrays that are reused from one row to the other,
+ * and no {@code String} is created until the value of a field is actually read.
+ * Bytes are read through a {@link ByteSource}: either a memory-mapped file or a stream, for instance the stream of an
+ * entry of a zipped archive.
+ */
+final class CsvRowTokenizer implements Closeable {
+    static final byte COMMA = ',';
+    static final byte QUOTE = '"';
+    static final byte CR = '\r';
+    static final byte LF = '\n';
+    private static final int INITIAL_FIELD_CAPACITY = 32;
+    // size of the arrays rows are copied to by toRawEntity, each shared by consecutive rows
+    private static final int CONTENT_SLAB_SIZE = 64 * 1024;
+    private static final int BOUNDS_SLAB_SIZE = 8 * 1024;
+
+    private final ByteSource source;
+    private int position;
+    // 1 based number of the line following the last row read: this is the index Jackson used to report for a row,
+    // it is kept so that notices keep pointing to the same lines
+    private int lineNumber = 1;
+    private int[] fieldStarts = new int[INITIAL_FIELD_CAPACITY];
+    private int[] fieldEnds = new int[INITIAL_FIELD_CAPACITY];
+    private int fieldCount;
+    private int rowStart;
+    private int rowEnd;
+    private int rowLineCount;
+    private ByteBuffer rowWindow;
+    private byte[] contentSlab = new byte[0];
+    private int contentSlabPosition;
+    private int[] boundsSlab = new int[0];
+    private int boundsSlabPosition;
+
+    /**
+     * @param source the bytes to tokenize, from the start of a file
+     * @throws IOException if the source can not be read
+     */
+    CsvRowTokenizer(final ByteSource source) throws IOException {
+        this.source = source;
+        skipByteOrderMark();
+    }
+
+    /**
+     * @param source     the bytes to tokenize, from the start of a row in the middle of a file
+     * @param lineNumber the 1 based number of the line said row starts at
+     */
+    CsvRowTokenizer(final ByteSource source, final int lineNumber) {
+        this.source = source;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Returns a tokenizer reading a file through memory-mapped windows
+     *
+     * @param path the path to the file to tokenize
+     * @return a tokenizer reading a file through memory-mapped windows
+     * @throws IOException if the file can not be mapped
+     */
+    static CsvRowTokenizer mapped(final Path path) throws IOException {
+        return new CsvRowTokenizer(new MappedFileByteSource(path, MappedFileByteSource.WINDOW_SIZE));
+    }
+
+    /**
+     * Returns a tokenizer reading a stream. The stream is closed once all its bytes have been read.
+     *
+     * @param inputStream the stream to tokenize
+     * @return a tokenizer reading a stream
+     * @throws IOException if the stream can not be read
+     */
+    static CsvRowTokenizer stream(final InputStream inputStream) throws IOException {
+        return new CsvRowTokenizer(new StreamByteSource(inputStream, StreamByteSource.BUFFER_SIZE));
+    }
+
+    /**
+     * Releases the source of the bytes to tokenize, for instance the stream of an entry of a zipped archive that has
+     * not been read entirely
+     *
+     * @throws IOException if the source can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Tokenizes the next row. Positions of its fields are available until the next call to this method.
+     *
+     * @return true if a row was read, false if the end of the content was reached
+     * @throws IOException if the source can not be read
+     */
+    boolean nextRow() throws IOException {
+        boolean endOfInput = false;
+        while (true) {
+            final ByteBuffer window = source.window();
+            if (position < window.limit() || endOfInput) {
+                if (position >= window.limit()) {
+                    return false;
+                }
+                final int next = tokenizeRow(window, position, endOfInput);
+                if (next >= 0) {
+                    rowWindow = window;
+                    position = next;
+                    lineNumber += rowLineCount;
+                    return true;
+                }
+            }
+            // the row is not entirely contained in the current window
+            if (source.extend(position)) {
+                position = 0;
+            } else {
+                endOfInput = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of fields of the current row
+     *
+     * @return the number of fields of the current row
+     */
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns true if the current row has no content at all, i.e. it is an empty line
+     *
+     * @return true if the current row has no content at all
+     */
+    boolean isEmptyRow() {
+        return rowEnd == rowStart;
+    }
+
+    /**
+     * Decodes the value of a field of the current row
+     *
+     * @param fieldIndex the index of the field in the current row
+     * @return the value of the field
+     */
+    String decodeField(final int fieldIndex) {
+        final byte[] field = new byte[fieldEnds[fieldIndex] - fieldStarts[fieldIndex]];
+        copy(fieldStarts[fieldIndex], field);
+        return decode(field, 0, field.length);
+    }
+
+    /**
+     * Returns the current row as a {@link CsvRowRawEntity}. Only the bytes of the row and the positions of its fields
+     * are copied: values are decoded when they are read. Consecutive rows are copied to the same arrays until these
+     * are full, rather than to arrays of their own: an array is released once no row copied to it is referenced.
+     *
+     * @param columnIndexPerHeader the index of the column matching each header of the file
+     * @return the current row as a {@link CsvRowRawEntity}
+     */
+    CsvRowRawEntity toRawEntity(final Map<String, Integer> columnIndexPerHeader) {
+        final int contentLength = rowEnd - rowStart;
+        if (contentSlabPosition + contentLength > contentSlab.length) {
+            contentSlab = new byte[Math.max(CONTENT_SLAB_SIZE, contentLength)];
+            contentSlabPosition = 0;
+        }
+        if (boundsSlabPosition + 2 * fieldCount > boundsSlab.length) {
+            boundsSlab = new int[Math.max(BOUNDS_SLAB_SIZE, 2 * fieldCount)];
+            boundsSlabPosition = 0;
+        }
+        final int contentStart = contentSlabPosition;
+        final ByteBuffer view = rowWindow.duplicate();
+        view.position(rowStart);
+        view.get(contentSlab, contentStart, contentLength);
+        final int boundsStart = boundsSlabPosition;
+        for (int i = 0; i < fieldCount; ++i) {
+            boundsSlab[boundsStart + 2 * i] = fieldStarts[i] - rowStart + contentStart;
+            boundsSlab[boundsStart + 2 * i + 1] = fieldEnds[i] - rowStart + contentStart;
+        }
+        contentSlabPosition += contentLength;
+        boundsSlabPosition += 2 * fieldCount;
+        return new CsvRowRawEntity(columnIndexPerHeader, contentSlab, boundsSlab, boundsStart, fieldCount,
+                lineNumber);
+    }
+
+    /**
+     * Decodes a field from its raw bytes: surrounding quotes are removed and escaped quotes are unescaped
+     *
+     * @param bytes the bytes containing the field
+     * @param start the position of the first byte of the field
+     * @param end   the position following the last byte of the field
+     * @return the value of the field
+     */
+    static String decode(final byte[] bytes, final int start, final int end) {
+        if (start == end || bytes[start] != QUOTE) {
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+        final byte[] unescaped = new byte[end - start];
+        int length = 0;
+        boolean inQuotes = true;
+        int index = start + 1;
+        while (index < end) {
+            final byte current = bytes[index];
+            if (inQuotes && current == QUOTE) {
+                if (index + 1 < end && bytes[index + 1] == QUOTE) {
+                    unescaped[length++] = QUOTE;
+                    index += 2;
+                } else {
+                    inQuotes = false;
+                    index++;
+                }
+            } else {
+                // as with Jackson, white spaces between the closing quote and the delimiter are ignored
+                if (inQuotes || (current != ' ' && current != '\t')) {
+                    unescaped[length++] = current;
+                }
+                index++;
+            }
+        }
+        return new String(unescaped, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void copy(final int from, final byte[] destination) {
+        final ByteBuffer view = rowWindow.duplicate();
+        view.position(from);
+        view.get(destination);
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        ByteBuffer window = source.window();
+        while (window.limit() < 3 && source.extend(0)) {
+            window = source.window();
+        }
+        if (window.limit() >= 3 && window.get(0) == (byte) 0xEF && window.get(1) == (byte) 0xBB &&
+                window.get(2) == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+
+    private void addField(final int start, final int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Records the position of the fields of the row starting at a given position. A field starting with a quote runs
+     * until the matching closing quote, delimiters and line breaks included; anything following the closing quote is
+     * kept as is up to the next delimiter.
+     *
+     * @param window     the bytes to tokenize
+     * @param start      the position of the first byte of the row
+     * @param endOfInput true if no byte follows the window
+     * @return the position following the row and its line break, -1 if the row is not entirely contained in the window
+     */
+    private int tokenizeRow(final ByteBuffer window, final int start, final boolean endOfInput) {
+        final int limit = window.limit();
+        int index = start;
+        int lineCount = 0;
+        fieldCount = 0;
+        rowStart = start;
+
+        while (true) {
+            final int fieldStart = index;
+            if (index < limit && window.get(index) == QUOTE) {
+                index++;
+                while (true) {
+                    if (index >= limit) {
+                        if (!endOfInput) {
+                            return -1;
+                        }
+                        // missing closing quote: the field runs until the end of the content
+                        break;
+                    }
+                    final byte current = window.get(index);
+                    if (current == QUOTE) {
+                        if (index + 1 >= limit && !endOfInput) {
+                            return -1;
+                        }
+                        if (index + 1 < limit && window.get(index + 1) == QUOTE) {
+                            index += 2;
+                            continue;
+                        }
+                        index++;
+                        break;
+                    }
+                    if (current == LF) {
+                        lineCount++;
+                    } else if (current == CR) {
+                        if (index + 1 >= limit && !endOfInput) {
+                            return -1;
+                        }
+                        if (index + 1 >= limit || window.get(index + 1) != LF) {
+                            lineCount++;
+                        }
+                    }
+                    index++;
+                }
+            }
+            while (index < limit) {
+                final byte current = window.get(index);
+                if (current == COMMA || current == LF || current == CR) {
+                    break;
+                }
+                index++;
+            }
+            if (index >= limit && !endOfInput) {
+                return -1;
+            }
+            addField(fieldStart, index);
+
+            if (index >= limit) {
+                // last row of the content, without line break
+                rowEnd = index;
+                rowLineCount = lineCount;
+                return index;
+            }
+            final byte delimiter = window.get(index);
+            if (delimiter == COMMA) {
+                index++;
+                continue;
+            }
+            rowEnd = index;
+            if (delimiter == CR) {
+                if (index + 1 >= limit && !endOfInput) {
+                    return -1;
+                }
+                index++;
+                if (index < limit && window.get(index) == LF) {
+                    index++;
+                }
+            } else {
+                index++;
+            }
+            rowLineCount = lineCount + 1;
+            return index;
+        }
+    }
+
+    /**
+     * Gives access to the bytes to tokenize through a window. Positions used by the tokenizer are relative to the
+     * start of the current window.
+     */
+    abstract static class ByteSource implements Closeable {
+
+        /**
+         * Returns the current window. Bytes are read with absolute positions, from 0 to the limit of the window.
+         *
+         * @return the current window
+         */
+        abstract ByteBuffer window();
+
+        /**
+         * Moves the window so that it starts at a given position of the current window and reads following bytes.
+         *
+         * @param keepFrom the position, in the current window, of the first byte to keep
+         * @return true if the window changed, false if there is no more byte to read. In the latter case the window
+         * is left untouched.
+         * @throws IOException if the source can not be read
+         */
+        abstract boolean extend(final int keepFrom) throws IOException;
+
+        /**
+         * Releases the resources held to read the bytes. Nothing is held by default.
+         *
+         * @throws IOException if the resources can not be released
+         */
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    /**
+     * Reads a range of a file through read-only memory-mapped windows. Windows are remapped at the start of the row
+     * being tokenized, which allows for files bigger than what a single mapping can hold.
+     */
+    static final class MappedFileByteSource extends ByteSource {
+        static final int WINDOW_SIZE = 64 * 1024 * 1024;
+        private final Path path;
+        private final long endOffset;
+        private final int windowSize;
+        private long windowOffset;
+        private ByteBuffer window;
+
+        MappedFileByteSource(final Path path, final int windowSize) throws IOException {
+            this(path, 0, Files.size(path), windowSize);
+        }
+
+        /**
+         * @param path        the path to the file to read
+         * @param startOffset the position of the first byte to read in the file
+         * @param endOffset   the position following the last byte to read in the file
+         * @param windowSize  the size of the windows to map
+         * @throws IOException if the file can not be mapped
+         */
+        MappedFileByteSource(final Path path, final long startOffset, final long endOffset, final int windowSize)
+                throws IOException {
+            this.path = path;
+            this.endOffset = endOffset;
+            this.windowSize = windowSize;
+            this.windowOffset = startOffset;
+            this.window = map(startOffset, (int) Math.min(windowSize, endOffset - startOffset));
+        }
+
+        @Override
+        ByteBuffer window() {
+            return window;
+        }
+
+        @Override
+        boolean extend(final int keepFrom) throws IOException {
+            if (windowOffset + window.limit() >= endOffset) {
+                return false;
+            }
+            final long newOffset = windowOffset + keepFrom;
+            final long keptByteCount = window.limit() - keepFrom;
+            final long newSize = Math.min(Math.min(Math.max(windowSize, 2 * keptByteCount), endOffset - newOffset),
+                    Integer.MAX_VALUE);
+            if (newSize <= keptByteCount) {
+                throw new IOException("Row starting at byte " + newOffset + " of file " + path + " is too long");
+            }
+            window = map(newOffset, (int) newSize);
+            windowOffset = newOffset;
+            return true;
+        }
+
+        private ByteBuffer map(final long offset, final int size) throws IOException {
+            // a mapping remains valid once the channel it was created from is closed
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+            }
+        }
+    }
+
+    /**
+     * Reads a range of an array of bytes already in memory.
+     */
+    static final class ByteArrayByteSource extends ByteSource {
+        private final ByteBuffer window;
+
+        /**
+         * @param bytes       the bytes to read
+         * @param startOffset the position of the first byte to read
+         * @param endOffset   the position following the last byte to read
+         */
+        ByteArrayByteSource(final byte[] bytes, final int startOffset, final int endOffset) {
+            this.window = ByteBuffer.wrap(bytes, startOffset, endOffset - startOffset).slice();
+        }
+
+        @Override
+        ByteBuffer window() {
+            return window;
+        }
+
+        @Override
+        boolean extend(final int keepFrom) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a stream through a buffer that is grown when a row does not fit in it.
+     */
+    static final class StreamByteSource extends ByteSource {
+        static final int BUFFER_SIZE = 64 * 1024;
+        private final InputStream inputStream;
+        private byte[] buffer;
+        private ByteBuffer window;
+        private boolean endOfStream;
+
+        StreamByteSource(final InputStream inputStream, final int bufferSize) throws IOException {
+            this.inputStream = inputStream;
+            this.buffer = new byte[bufferSize];
+            this.window = ByteBuffer.wrap(buffer, 0, 0);
+            extend(0);
+        }
+
+        @Override
+        ByteBuffer window() {
+            return window;
+        }
+
+        @Override
+        boolean extend(final int keepFrom) throws IOException {
+            if (endOfStream) {
+                return false;
+            }
+            final int keptByteCount = window.limit() - keepFrom;
+            if (keptByteCount == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            } else if (keepFrom > 0) {
+                System.arraycopy(buffer, keepFrom, buffer, 0, keptByteCount);
+            }
+            final int readByteCount = inputStream.read(buffer, keptByteCount, buffer.length - keptByteCount);
+            if (readByteCount < 0) {
+                endOfStream = true;
+                inputStream.close();
+            }
+            window = ByteBuffer.wrap(buffer, 0, keptByteCount + Math.max(readByteCount, 0));
+            return keepFrom > 0 || readByteCount > 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+}
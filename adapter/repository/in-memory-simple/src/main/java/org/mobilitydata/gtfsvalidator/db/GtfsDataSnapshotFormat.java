@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.mobilitydata.gtfsvalidator.db.ColumnarSection.ColumnType;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.*;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.CalendarDate;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.fareattributes.FareAttribute;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.frequencies.Frequency;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.pathways.Pathway;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.routes.Route;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.LocationBase;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.transfers.Transfer;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.translations.Translation;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.mobilitydata.gtfsvalidator.db.ColumnarSection.ColumnType.*;
+
+/**
+ * Writes the content of a {@link GtfsDataRepository} to a snapshot and loads it back. A snapshot starts with
+ * {@link #MAGIC} and {@link #FORMAT_VERSION}, followed by named sections and an empty name marking the end of the
+ * snapshot. The largest tables, which are stop_times.txt, shapes.txt, trips.txt and calendar_dates.txt, are written
+ * as {@link ColumnarSection}s, so that loading them does not involve Java serialization. Other entities, along with the
+ * result of the loading of the data, are written as serialized objects, which are only read back if they are instances
+ * of the classes accepted by {@link CachedObjectFilter}.
+ * Sections of serialized objects are written first: once they are read, the rest of the snapshot can not fail to
+ * load unless the snapshot was corrupted after its checksum was verified.
+ */
+final class GtfsDataSnapshotFormat {
+    static final byte[] MAGIC = "GTFSSNAP".getBytes(StandardCharsets.US_ASCII);
+    // to be incremented on each change of the content of a snapshot, including the serialized form of the entities
+    static final int FORMAT_VERSION = 2;
+    private static final String LOADING_RESULT_SECTION = "loading_result";
+    private static final String ENTITY_SECTION = "entities";
+    private static final String CALENDAR_DATE_SECTION = "calendar_dates";
+    private static final String TRIP_SECTION = "trips";
+    private static final String SHAPE_SECTION = "shapes";
+    private static final String STOP_TIME_SECTION = "stop_times";
+    private static final String END_OF_SNAPSHOT = "";
+    private static final ColumnType[] CALENDAR_DATE_COLUMNS = {STRING, INT, BYTE};
+    private static final ColumnType[] TRIP_COLUMNS =
+            {STRING, STRING, STRING, STRING, STRING, STRING, STRING, BYTE, BYTE, BYTE};
+    private static final ColumnType[] SHAPE_COLUMNS = {STRING, INT, FLOAT, FLOAT, FLOAT};
+    private static final ColumnType[] STOP_TIME_COLUMNS =
+            {STRING, INT, INT, INT, STRING, STRING, BYTE, BYTE, BYTE, BYTE, FLOAT, BYTE};
+    private static final byte NO_ENUM_VALUE = -1;
+    private static final int NO_TIME = Integer.MIN_VALUE;
+
+    private GtfsDataSnapshotFormat() {
+    }
+
+    /**
+     * Writes the content of a {@link GtfsDataRepository} along with the result of its loading
+     *
+     * @param output        the stream to write the snapshot to
+     * @param gtfsDataRepo  the repository to write the content of
+     * @param loadingResult the result of the loading of the data of the repository
+     * @throws IOException if the snapshot can not be written
+     */
+    static void write(final DataOutputStream output,
+                      final GtfsDataRepository gtfsDataRepo,
+                      final CachedValidationResult loadingResult) throws IOException {
+        output.write(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+
+        writeObjectSection(output, LOADING_RESULT_SECTION, loadingResult);
+        writeObjectSection(output, ENTITY_SECTION, collectEntities(gtfsDataRepo));
+
+        output.writeUTF(CALENDAR_DATE_SECTION);
+        final ColumnarSection.Writer calendarDateWriter = new ColumnarSection.Writer(output, CALENDAR_DATE_COLUMNS);
+        for (final Map<String, CalendarDate> calendarDatePerDate : gtfsDataRepo.getCalendarDateAll().values()) {
+            for (final CalendarDate calendarDate : calendarDatePerDate.values()) {
+                calendarDateWriter.putString(calendarDate.getServiceId())
+                        .putInt((int) calendarDate.getDate().toEpochDay())
+                        .putByte(encode(calendarDate.getExceptionType()))
+                        .endRow();
+            }
+        }
+        calendarDateWriter.finish();
+
+        output.writeUTF(TRIP_SECTION);
+        final ColumnarSection.Writer tripWriter = new ColumnarSection.Writer(output, TRIP_COLUMNS);
+        for (final Trip trip : gtfsDataRepo.getTripAll().values()) {
+            tripWriter.putString(trip.getTripId())
+                    .putString(trip.getRouteId())
+                    .putString(trip.getServiceId())
+                    .putString(trip.getTripHeadsign())
+                    .putString(trip.getTripShortName())
+                    .putString(trip.getBlockId())
+                    .putString(trip.getShapeId())
+                    .putByte(encode(trip.getDirectionId()))
+                    .putByte(encode(trip.getWheelchairAccessibleStatus()))
+                    .putByte(encode(trip.getBikesAllowedStatus()))
+                    .endRow();
+        }
+        tripWriter.finish();
+
+        output.writeUTF(SHAPE_SECTION);
+        final ColumnarSection.Writer shapeWriter = new ColumnarSection.Writer(output, SHAPE_COLUMNS);
+        for (final ShapeView shape : gtfsDataRepo.getShapeViewAll()) {
+            for (int i = 0; i < shape.size(); ++i) {
+                // coordinates are parsed as floats
+                shapeWriter.putString(shape.getShapeId())
+                        .putInt(shape.getShapePtSequence(i))
+                        .putFloat((float) shape.getShapePtLat(i))
+                        .putFloat((float) shape.getShapePtLon(i))
+                        .putFloat(shape.hasShapeDistTraveled(i) ? shape.getShapeDistTraveled(i) : Float.NaN)
+                        .endRow();
+            }
+        }
+        shapeWriter.finish();
+
+        output.writeUTF(STOP_TIME_SECTION);
+        final ColumnarSection.Writer stopTimeWriter = new ColumnarSection.Writer(output, STOP_TIME_COLUMNS);
+        final StopTimeCursor cursor = gtfsDataRepo.getStopTimeCursor();
+        while (cursor.next()) {
+            stopTimeWriter.putString(cursor.getTripId())
+                    .putInt(cursor.getStopSequence())
+                    .putInt(cursor.hasArrivalTime() ? cursor.getArrivalTime() : NO_TIME)
+                    .putInt(cursor.hasDepartureTime() ? cursor.getDepartureTime() : NO_TIME)
+                    .putString(cursor.getStopId())
+                    .putString(cursor.getStopHeadsign())
+                    .putByte(encode(cursor.getPickupType()))
+                    .putByte(encode(cursor.getDropOffType()))
+                    .putByte(encode(cursor.getContinuousPickup()))
+                    .putByte(encode(cursor.getContinuousDropOff()))
+                    .putFloat(cursor.hasShapeDistTraveled() ? cursor.getShapeDistTraveled() : Float.NaN)
+                    .putByte(encode(cursor.getTimepoint()))
+                    .endRow();
+        }
+        stopTimeWriter.finish();
+
+        output.writeUTF(END_OF_SNAPSHOT);
+    }
+
+    /**
+     * Loads the content of a snapshot into a {@link GtfsDataRepository}, which is expected to be empty. Sections this
+     * version of the validator does not know of are skipped.
+     *
+     * @param input        the stream to read the snapshot from
+     * @param gtfsDataRepo the repository to load the content of the snapshot into
+     * @return the result of the loading of the data of the snapshot
+     * @throws IOException if the snapshot can not be read, in which case the repository has not been modified
+     */
+    static CachedValidationResult read(final DataInputStream input, final GtfsDataRepository gtfsDataRepo)
+            throws IOException {
+        final byte[] magic = new byte[MAGIC.length];
+        input.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC) || input.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a snapshot of the current format");
+        }
+
+        CachedValidationResult toReturn = null;
+        boolean isRepositoryModified = false;
+        try {
+            String sectionName;
+            while (!(sectionName = input.readUTF()).equals(END_OF_SNAPSHOT)) {
+                switch (sectionName) {
+                    case LOADING_RESULT_SECTION: {
+                        toReturn = (CachedValidationResult) readObjectSection(input);
+                        break;
+                    }
+                    case ENTITY_SECTION: {
+                        @SuppressWarnings("unchecked") final List<GtfsEntity> entityList =
+                                (List<GtfsEntity>) readObjectSection(input);
+                        isRepositoryModified = true;
+                        addEntities(entityList, gtfsDataRepo);
+                        break;
+                    }
+                    case CALENDAR_DATE_SECTION: {
+                        isRepositoryModified = true;
+                        readCalendarDates(input, gtfsDataRepo);
+                        break;
+                    }
+                    case TRIP_SECTION: {
+                        isRepositoryModified = true;
+                        readTrips(input, gtfsDataRepo);
+                        break;
+                    }
+                    case SHAPE_SECTION: {
+                        isRepositoryModified = true;
+                        readShapePoints(input, gtfsDataRepo);
+                        break;
+                    }
+                    case STOP_TIME_SECTION: {
+                        isRepositoryModified = true;
+                        readStopTimes(input, gtfsDataRepo);
+                        break;
+                    }
+                    default: {
+                        ColumnarSection.skip(input);
+                    }
+                }
+            }
+        } catch (IOException | ClassCastException e) {
+            if (isRepositoryModified) {
+                // the data repository can not be restored to its previous state
+                throw new UncheckedIOException(new IOException("Snapshot partially loaded", e));
+            }
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+        if (toReturn == null) {
+            throw new IOException("Snapshot without loading result");
+        }
+        return toReturn;
+    }
+
+    private static ArrayList<GtfsEntity> collectEntities(final GtfsDataRepository gtfsDataRepo) {
+        final ArrayList<GtfsEntity> toReturn = new ArrayList<>(gtfsDataRepo.getAgencyAll().values());
+        toReturn.addAll(gtfsDataRepo.getRouteAll().values());
+        toReturn.addAll(gtfsDataRepo.getCalendarAll().values());
+        toReturn.addAll(gtfsDataRepo.getLevelAll().values());
+        gtfsDataRepo.getTransferAll().values().forEach(transferPerToStopId ->
+                toReturn.addAll(transferPerToStopId.values()));
+        toReturn.addAll(gtfsDataRepo.getFareAttributeAll().values());
+        toReturn.addAll(gtfsDataRepo.getFareRuleAll());
+        toReturn.addAll(gtfsDataRepo.getFrequencyAll().values());
+        toReturn.addAll(gtfsDataRepo.getPathwayAll().values());
+        toReturn.addAll(gtfsDataRepo.getAttributionAll());
+        toReturn.addAll(gtfsDataRepo.getTranslationAll());
+        toReturn.addAll(gtfsDataRepo.getStopAll().values());
+        toReturn.addAll(gtfsDataRepo.getFeedInfoAll().values());
+        return toReturn;
+    }
+
+    private static void addEntities(final List<GtfsEntity> entityList, final GtfsDataRepository gtfsDataRepo) {
+        final Agency.AgencyBuilder agencyBuilder = new Agency.AgencyBuilder();
+        for (final GtfsEntity entity : entityList) {
+            if (entity instanceof Agency) {
+                gtfsDataRepo.addAgency((Agency) entity, agencyBuilder);
+            } else if (entity instanceof Route) {
+                gtfsDataRepo.addRoute((Route) entity);
+            } else if (entity instanceof Calendar) {
+                gtfsDataRepo.addCalendar((Calendar) entity);
+            } else if (entity instanceof Level) {
+                gtfsDataRepo.addLevel((Level) entity);
+            } else if (entity instanceof Transfer) {
+                gtfsDataRepo.addTransfer((Transfer) entity);
+            } else if (entity instanceof FareAttribute) {
+                gtfsDataRepo.addFareAttribute((FareAttribute) entity);
+            } else if (entity instanceof FareRule) {
+                gtfsDataRepo.addFareRule((FareRule) entity);
+            } else if (entity instanceof Frequency) {
+                gtfsDataRepo.addFrequency((Frequency) entity);
+            } else if (entity instanceof Pathway) {
+                gtfsDataRepo.addPathway((Pathway) entity);
+            } else if (entity instanceof Attribution) {
+                gtfsDataRepo.addAttribution((Attribution) entity);
+            } else if (entity instanceof Translation) {
+                gtfsDataRepo.addTranslation((Translation) entity);
+            } else if (entity instanceof LocationBase) {
+                gtfsDataRepo.addStop((LocationBase) entity);
+            } else if (entity instanceof FeedInfo) {
+                gtfsDataRepo.addFeedInfo((FeedInfo) entity);
+            }
+        }
+    }
+
+    private static void readCalendarDates(final DataInputStream input, final GtfsDataRepository gtfsDataRepo)
+            throws IOException {
+        final ColumnarSection.Reader reader = new ColumnarSection.Reader(input, CALENDAR_DATE_COLUMNS);
+        final CalendarDate.CalendarDateBuilder builder = new CalendarDate.CalendarDateBuilder();
+        while (reader.nextRow()) {
+            gtfsDataRepo.addCalendarDate((CalendarDate) builder.clear()
+                    .serviceId(reader.getString())
+                    .date(LocalDate.ofEpochDay(reader.getInt()))
+                    // the value of exception_type is its ordinal plus one
+                    .exceptionType(reader.getByte() + 1)
+                    .build()
+                    .getData());
+        }
+    }
+
+    private static void readTrips(final DataInputStream input, final GtfsDataRepository gtfsDataRepo)
+            throws IOException {
+        final ColumnarSection.Reader reader = new ColumnarSection.Reader(input, TRIP_COLUMNS);
+        final Trip.TripBuilder builder = new Trip.TripBuilder();
+        while (reader.nextRow()) {
+            // the value of each enumerated type of trips.txt is its ordinal
+            gtfsDataRepo.addTrip((Trip) builder.clear()
+                    .tripId(reader.getString())
+                    .routeId(reader.getString())
+                    .serviceId(reader.getString())
+                    .tripHeadsign(reader.getString())
+                    .tripShortName(reader.getString())
+                    .blockId(reader.getString())
+                    .shapeId(reader.getString())
+                    .directionId(decode(reader.getByte()))
+                    .wheelchairAccessible(decode(reader.getByte()))
+                    .bikesAllowed(decode(reader.getByte()))
+                    .build()
+                    .getData());
+        }
+    }
+
+    private static void readShapePoints(final DataInputStream input, final GtfsDataRepository gtfsDataRepo)
+            throws IOException {
+        final ColumnarSection.Reader reader = new ColumnarSection.Reader(input, SHAPE_COLUMNS);
+        final ShapePoint.ShapeBuilder builder = new ShapePoint.ShapeBuilder();
+        while (reader.nextRow()) {
+            builder.clear()
+                    .shapeId(reader.getString())
+                    .shapePtSequence(reader.getInt())
+                    .shapePtLat(reader.getFloat())
+                    .shapePtLon(reader.getFloat());
+            final float shapeDistTraveled = reader.getFloat();
+            gtfsDataRepo.appendShapePoint((ShapePoint) builder
+                    .shapeDistTraveled(Float.isNaN(shapeDistTraveled) ? null : shapeDistTraveled)
+                    .build()
+                    .getData());
+        }
+        // shape points are written in order and without duplicates
+        gtfsDataRepo.completeShapePointLoad();
+    }
+
+    private static void readStopTimes(final DataInputStream input, final GtfsDataRepository gtfsDataRepo)
+            throws IOException {
+        final ColumnarSection.Reader reader = new ColumnarSection.Reader(input, STOP_TIME_COLUMNS);
+        final StopTime.StopTimeBuilder builder = new StopTime.StopTimeBuilder();
+        while (reader.nextRow()) {
+            builder.clear()
+                    .tripId(reader.getString())
+                    .stopSequence(reader.getInt());
+            final int arrivalTime = reader.getInt();
+            final int departureTime = reader.getInt();
+            builder.arrivalTime(arrivalTime == NO_TIME ? null : arrivalTime)
+                    .departureTime(departureTime == NO_TIME ? null : departureTime)
+                    .stopId(reader.getString())
+                    .stopHeadsign(reader.getString())
+                    // the value of each enumerated type of stop_times.txt is its ordinal
+                    .pickupType(decode(reader.getByte()))
+                    .dropOffType(decode(reader.getByte()))
+                    .continuousPickup(decode(reader.getByte()))
+                    .continuousDropOff(decode(reader.getByte()));
+            final float shapeDistTraveled = reader.getFloat();
+            gtfsDataRepo.appendStopTime((StopTime) builder
+                    .shapeDistTraveled(Float.isNaN(shapeDistTraveled) ? null : shapeDistTraveled)
+                    .timepoint(decode(reader.getByte()))
+                    .build()
+                    .getData());
+        }
+        // stop times are written in order and without duplicates
+        gtfsDataRepo.completeStopTimeLoad();
+    }
+
+    private static void writeObjectSection(final DataOutputStream output,
+                                           final String sectionName,
+                                           final Serializable object) throws IOException {
+        final ByteArrayOutputStream serializedObject = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutput = new ObjectOutputStream(serializedObject)) {
+            objectOutput.writeObject(object);
+        }
+        output.writeUTF(sectionName);
+        output.writeInt(serializedObject.size());
+        serializedObject.writeTo(output);
+        output.writeInt(0);
+    }
+
+    private static Object readObjectSection(final DataInputStream input) throws IOException {
+        final ByteArrayOutputStream serializedObject = new ByteArrayOutputStream();
+        int blockByteCount;
+        while ((blockByteCount = input.readInt()) != 0) {
+            serializedObject.write(input.readNBytes(blockByteCount));
+        }
+        try (ObjectInputStream objectInput = CachedObjectFilter.restrict(
+                new ObjectInputStream(new ByteArrayInputStream(serializedObject.toByteArray())))) {
+            return objectInput.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static byte encode(final Enum<?> value) {
+        return value == null ? NO_ENUM_VALUE : (byte) value.ordinal();
+    }
+
+    private static Integer decode(final byte value) {
+        return value == NO_ENUM_VALUE ? null : (int) value;
+    }
+}
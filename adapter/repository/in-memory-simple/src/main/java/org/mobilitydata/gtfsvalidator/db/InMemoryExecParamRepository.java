@@ -258,6 +258,10 @@ public class InMemoryExecParamRepository implements ExecParamRepository {
                         : null;
             }
 
+            case CACHE_KEY: {
+                return hasExecParamValue(CACHE_KEY) ? getExecParamByKey(CACHE_KEY).getValue().get(0) : null;
+            }
+
             case ABORT_ON_ERROR: {
                 // if command line option is provided with a value then use this value. Example "- abort_on_error true"
                 // or "abort_on_error false"
@@ -281,6 +285,106 @@ public class InMemoryExecParamRepository implements ExecParamRepository {
                     return defaultValue.get(0);
                 }
             }
+
+            case EXTRACT_TO_DISK_KEY: {
+                // if command line option is provided with a value then use this value. Example "--extract_to_disk true"
+                // or "--extract_to_disk false"
+                if (hasExecParam(EXTRACT_TO_DISK_KEY) && hasExecParamValue(EXTRACT_TO_DISK_KEY)) {
+                    return getExecParamByKey(EXTRACT_TO_DISK_KEY).getValue().get(0);
+                } else {
+                    // otherwise use default value: GTFS files are read directly from the zipped archive
+                    return defaultValue.get(0);
+                }
+            }
+
+            case PARALLEL_PARSING_KEY: {
+                // if command line option is provided with a value then use this value. Example "--parallel_parsing
+                // true" or "--parallel_parsing false"
+                if (hasExecParam(PARALLEL_PARSING_KEY) && hasExecParamValue(PARALLEL_PARSING_KEY)) {
+                    return getExecParamByKey(PARALLEL_PARSING_KEY).getValue().get(0);
+                } else {
+                    // otherwise use default value: rows of a file are parsed one after the other
+                    return defaultValue.get(0);
+                }
+            }
+
+            case TYPED_ROW_DECODING_KEY: {
+                // if command line option is provided with a value then use this value. Example "--typed_row_decoding
+                // true" or "--typed_row_decoding false"
+                if (hasExecParam(TYPED_ROW_DECODING_KEY) && hasExecParamValue(TYPED_ROW_DECODING_KEY)) {
+                    return getExecParamByKey(TYPED_ROW_DECODING_KEY).getValue().get(0);
+                } else {
+                    // otherwise use default value: rows are parsed then type validated as parsed entities
+                    return defaultValue.get(0);
+                }
+            }
+
+            case BULK_LOAD_KEY: {
+                // if command line option is provided with a value then use this value. Example "--bulk_load true" or
+                // "--bulk_load false"
+                if (hasExecParam(BULK_LOAD_KEY) && hasExecParamValue(BULK_LOAD_KEY)) {
+                    return getExecParamByKey(BULK_LOAD_KEY).getValue().get(0);
+                } else {
+                    // otherwise use default value: duplicated rows are detected as each row is added
+                    return defaultValue.get(0);
+                }
+            }
+
+            case OFF_HEAP_STORAGE_KEY: {
+                // if command line option is provided with a value then use this value. Example "--off_heap_storage
+                // true" or "--off_heap_storage false"
+                if (hasExecParam(OFF_HEAP_STORAGE_KEY) && hasExecParamValue(OFF_HEAP_STORAGE_KEY)) {
+                    return getExecParamByKey(OFF_HEAP_STORAGE_KEY).getValue().get(0);
+                } else {
+                    // otherwise use default value: all rows are held on the heap
+                    return defaultValue.get(0);
+                }
+            }
+
+            case DATA_SNAPSHOT_KEY: {
+                // if command line option is provided with a value then use this value. Example "--data_snapshot true"
+                // or "--data_snapshot false"
+                if (hasExecParam(DATA_SNAPSHOT_KEY) && hasExecParamValue(DATA_SNAPSHOT_KEY)) {
+                    return getExecParamByKey(DATA_SNAPSHOT_KEY).getValue().get(0);
+                } else {
+                    // otherwise use default value: GTFS files are loaded on each execution
+                    return defaultValue.get(0);
+                }
+            }
+
+            case STREAM_DOWNLOAD_KEY: {
+                // if command line option is provided with a value then use this value. Example "--stream_download
+                // true" or "--stream_download false"
+                if (hasExecParam(STREAM_DOWNLOAD_KEY) && hasExecParamValue(STREAM_DOWNLOAD_KEY)) {
+                    return getExecParamByKey(STREAM_DOWNLOAD_KEY).getValue().get(0);
+                } else {
+                    // otherwise use default value: the archive is decompressed once fully downloaded
+                    return defaultValue.get(0);
+                }
+            }
+
+            case PIPELINE_QUEUE_DEPTH_KEY:
+            case PIPELINE_BATCH_SIZE_KEY: {
+                // if command line option is provided with a value then use this value. Example
+                // "--pipeline_queue_depth 8"
+                if (hasExecParam(key) && hasExecParamValue(key)) {
+                    return getExecParamByKey(key).getValue().get(0);
+                } else {
+                    // otherwise use default value: by default rows are parsed and processed on a single thread
+                    return defaultValue.get(0);
+                }
+            }
+
+            case FILE_THREAD_COUNT_KEY: {
+                // if command line option is provided with a value then use this value. Example
+                // "--file_thread_count 4"
+                if (hasExecParam(FILE_THREAD_COUNT_KEY) && hasExecParamValue(FILE_THREAD_COUNT_KEY)) {
+                    return getExecParamByKey(FILE_THREAD_COUNT_KEY).getValue().get(0);
+                } else {
+                    // otherwise use default value: files are loaded one after the other
+                    return defaultValue.get(0);
+                }
+            }
         }
         throw new IllegalArgumentException("Requested key is not handled");
     }
@@ -330,6 +434,28 @@ public class InMemoryExecParamRepository implements ExecParamRepository {
                 "Stop validation process on first error");
         options.addOption(String.valueOf(BEAUTIFY_KEY.charAt(1)), BEAUTIFY_KEY, true,
                 "Beautify .json validation report");
+        options.addOption(String.valueOf(EXTRACT_TO_DISK_KEY.charAt(11)), EXTRACT_TO_DISK_KEY, true,
+                "Extract the zip content to disk before reading it (debug)");
+        options.addOption(String.valueOf(PARALLEL_PARSING_KEY.charAt(2)), PARALLEL_PARSING_KEY, true,
+                "Parse chunks of each file concurrently");
+        options.addOption(String.valueOf(STREAM_DOWNLOAD_KEY.charAt(0)), STREAM_DOWNLOAD_KEY, true,
+                "Decompress the archive while downloading it");
+        options.addOption(String.valueOf(CACHE_KEY.charAt(0)), CACHE_KEY, true,
+                "Directory where validation results are cached");
+        options.addOption(String.valueOf(PIPELINE_QUEUE_DEPTH_KEY.charAt(9)), PIPELINE_QUEUE_DEPTH_KEY, true,
+                "Batches of rows queued between stages, 0 to parse on a single thread");
+        options.addOption(String.valueOf(PIPELINE_BATCH_SIZE_KEY.charAt(9)), PIPELINE_BATCH_SIZE_KEY, true,
+                "Number of rows per batch queued between stages");
+        options.addOption(String.valueOf(FILE_THREAD_COUNT_KEY.charAt(0)), FILE_THREAD_COUNT_KEY, true,
+                "Number of files loaded concurrently");
+        options.addOption(String.valueOf(TYPED_ROW_DECODING_KEY.charAt(0)), TYPED_ROW_DECODING_KEY, true,
+                "Decode rows of supported files with the decoders generated from the specification");
+        options.addOption(String.valueOf(BULK_LOAD_KEY.charAt(5)), BULK_LOAD_KEY, true,
+                "Append stop times and shape points, then sort them once per file");
+        options.addOption(String.valueOf(OFF_HEAP_STORAGE_KEY.charAt(14)), OFF_HEAP_STORAGE_KEY, true,
+                "Hold the largest GTFS files outside of the heap");
+        options.addOption(String.valueOf(DATA_SNAPSHOT_KEY.charAt(6)), DATA_SNAPSHOT_KEY, true,
+                "Reload the GTFS data from a snapshot kept in the cache directory when the archive did not change");
 
         validateAllOptionLength(options);
 
@@ -30,41 +30,47 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.transfers.Transfer;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.translations.Translation;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
- * This holds an internal representation of gtfs entities: each row of each file from a GTFS dataset is represented here
+ * This holds an internal representation of gtfs entities: each row of each file from a GTFS dataset is represented here.
+ * Maps holding one entity per row of a file can be presized from the number of rows expected in said file, see
+ * {@link #reserveCapacity(String, int)}.
  */
 public class InMemoryGtfsDataRepository implements GtfsDataRepository {
     // Map containing Agency entities. Entities are mapped on the value found in the column agency_id of GTFS file
     // agency.txt
-    private final Map<String, Agency> agencyPerId = new HashMap<>();
+    private Map<String, Agency> agencyPerId = new HashMap<>();
 
     // Map containing Route entities. Entities are mapped on the value found in the column route_id of GTFS file
     // routes.txt
-    private final Map<String, Route> routePerId = new HashMap<>();
+    private Map<String, Route> routePerId = new HashMap<>();
 
     // Map containing Trip entities. Entities are mapped on the value found in column trip_id of GTFS file trips.txt
-    private final Map<String, Trip> tripPerId = new HashMap<>();
+    private Map<String, Trip> tripPerId = new HashMap<>();
 
     // Map containing Trip entities. Entities are mapped on the value found in column block_id of GTFS file trips.txt
     private final Map<String, List<Trip>> tripPerBlockId = new HashMap<>();
 
     // Map containing Calendar entities. Entities are mapped on the value found in column service_id of GTFS file
     // calendar.txt.
-    private final Map<String, Calendar> calendarPerServiceId = new HashMap<>();
+    private Map<String, Calendar> calendarPerServiceId = new HashMap<>();
 
     // CalendarDate entities container. The key for the outer map is the calendar_dates.txt service_id, with the key for
     // the inner map being the calendar_dates.txt date field
     private final Map<String, Map<String, CalendarDate>> calendarDatePerServiceIdAndDate = new HashMap<>();
 
     // Map containing Level entities. Entities are mapped on the value found in column level_id of GTFS file levels.txt
-    private final Map<String, Level> levelPerId = new HashMap<>();
+    private Map<String, Level> levelPerId = new HashMap<>();
 
     // Map containing FareAttribute entities. Entities are mapped on the value found in column fare_id of gtfs file
     // fare_attributes.txt
-    private final Map<String, FareAttribute> fareAttributePerFareId = new HashMap<>();
+    private Map<String, FareAttribute> fareAttributePerFareId = new HashMap<>();
 
     // map storing feedInfo entities on key feed_publisher_name found in file feed_info.txt
     private final Map<String, FeedInfo> feedInfoPerFeedPublisherName = new HashMap<>();
@@ -82,14 +88,14 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
     // - destination_id
     // - contains_id
     // Example of key after composition: fare_idroute_idorigin_iddestination_idcontains_id
-    private final Map<String, FareRule> fareRuleCollection = new HashMap<>();
+    private Map<String, FareRule> fareRuleCollection = new HashMap<>();
 
     // Map containing Frequency entities. Entities are mapped on a composite key made of the values found in the
     // columns of GTFS file frequencies.txt:
     // - trip_id
     // - start_time
     // Example of key after composition: trip_idstart_time
-    private final Map<String, Frequency> frequencyPerTripIdStartTime = new HashMap<>();
+    private Map<String, Frequency> frequencyPerTripIdStartTime = new HashMap<>();
 
     // Map containing Frequency entities. Entities are mapped on trip_id value. For each trip_id, Frequency entities are
     // stored based on their trip_id value.
@@ -97,7 +103,7 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
 
     // Map containing Pathway entities. Entities are mapped on the value found in column pathway_id of GTFS file
     // pathways.txt
-    private final Map<String, Pathway> pathwayPerId = new HashMap<>();
+    private Map<String, Pathway> pathwayPerId = new HashMap<>();
 
     // Map containing Attribution entities. Entities are mapped on a composite key made of the values found in the
     // columns of GTFS file attributions.txt:
@@ -113,24 +119,25 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
     // - attribution_email
     // - attribution_phone
     // Example of key after composition: attribution_idagency_idroute_idtrip_idorganization_nameis_produceris_operatoris_authorityattribution_urlattribution_emailattribution_phone
-    private final Map<String, Attribution> attributionCollection = new HashMap<>();
+    private Map<String, Attribution> attributionCollection = new HashMap<>();
 
-    // Map containing Shape Entities. A shape is a actually a collection of ShapePoint.
-    // Entities are mapped on the values found in column shape_id  and shape_pt_sequence of GTFS file shapes.txt
-    private final Map<String, SortedMap<Integer, ShapePoint>> shapePerIdShapePtSequence = new HashMap<>();
+    // Table holding the rows of GTFS file shapes.txt packed per shape. A shape is a actually a collection of
+    // ShapePoint. Points are grouped on the values found in column shape_id and shape_pt_sequence of GTFS file
+    // shapes.txt
+    private final ShapeTable shapeTable = new ShapeTable();
 
-    // Map containing StopTime entities. Entities are mapped on a composite key made of the values found in the columns
-    // of GTFS file stop_times.txt:
+    // Table holding the rows of GTFS file stop_times.txt as columns of primitive values. Rows are grouped on the values
+    // found in the columns of GTFS file stop_times.txt:
     // - trip_id
     // - stop_sequence
-    private final Map<String, TreeMap<Integer, StopTime>> stopTimePerTripIdStopSequence = new HashMap<>();
+    private final StopTimeTable stopTimeTable = new StopTimeTable();
 
     // Map containing Translation entities. Entities are mapped on the value found in column table_name, field_value and
     // language of GTFS file translations.txt.
     private final Map<String, Map<String, Map<String, Translation>>> translationPerTableName = new HashMap<>();
 
     // Map containing Stop entities. Entities are mapped on the value found in column stop_id of GTFS file stops.txt
-    private final Map<String, LocationBase> stopPerId = new HashMap<>();
+    private Map<String, LocationBase> stopPerId = new HashMap<>();
 
     /**
      * Add an Agency representing a row from agency.txt to this. Return the entity added to the repository if the
@@ -404,6 +411,18 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
         return levelPerId.get(levelId);
     }
 
+    /**
+     * Return an unmodifiable map of Level objects representing all the rows from levels.txt. Entities are mapped on
+     * value of field level_id of file `levels.txt`.
+     *
+     * @return an unmodifiable map of Level objects representing all the rows from levels.txt. Entities are mapped on
+     * value of field level_id of file `levels.txt`.
+     */
+    @Override
+    public Map<String, Level> getLevelAll() {
+        return Collections.unmodifiableMap(levelPerId);
+    }
+
     /**
      * Add an Calendar representing a row from calendar.txt to this. Return the entity added to the repository if the
      * uniqueness constraint of agency based on service_id is respected, if this requirement is not met, returns null.
@@ -506,6 +525,18 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
         return transferPerStopPair.get(fromStopId).get(toStopId);
     }
 
+    /**
+     * Return an unmodifiable map of Transfer objects representing all the rows from transfers.txt. Entities are mapped
+     * on value of field from_stop_id, then on value of field to_stop_id of file `transfers.txt`.
+     *
+     * @return an unmodifiable map of Transfer objects representing all the rows from transfers.txt. Entities are
+     * mapped on value of field from_stop_id, then on value of field to_stop_id of file `transfers.txt`.
+     */
+    @Override
+    public Map<String, Map<String, Transfer>> getTransferAll() {
+        return Collections.unmodifiableMap(transferPerStopPair);
+    }
+
     /**
      * Add a FeedInfo representing a row from feed_info.txt to this {@link GtfsDataRepository}. Return the entity added
      * to the repository if the uniqueness constraint of feed_info based on feed_publisher_name is respected,
@@ -586,6 +617,18 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
         return fareAttributePerFareId.get(fareId);
     }
 
+    /**
+     * Return an unmodifiable map of FareAttribute objects representing all the rows from fare_attributes.txt. Entities
+     * are mapped on value of field fare_id of file `fare_attributes.txt`.
+     *
+     * @return an unmodifiable map of FareAttribute objects representing all the rows from fare_attributes.txt.
+     * Entities are mapped on value of field fare_id of file `fare_attributes.txt`.
+     */
+    @Override
+    public Map<String, FareAttribute> getFareAttributeAll() {
+        return Collections.unmodifiableMap(fareAttributePerFareId);
+    }
+
     /**
      * Add a FareRule representing a row from fare_rules.txt to this {@link GtfsDataRepository}.
      * Return the entity added to the repository if the uniqueness constraint on rows from fare_rules.txt is respected,
@@ -628,6 +671,16 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
                 containsId));
     }
 
+    /**
+     * Return an unmodifiable collection of FareRule objects representing all the rows from fare_rules.txt
+     *
+     * @return an unmodifiable collection of FareRule objects representing all the rows from fare_rules.txt
+     */
+    @Override
+    public Collection<FareRule> getFareRuleAll() {
+        return Collections.unmodifiableCollection(fareRuleCollection.values());
+    }
+
     /**
      * Add a Frequency representing a row from frequencies.txt to this {@code GtfsDataRepository}.
      * Return the entity added to the repository if the uniqueness constraint on rows from frequencies.txt
@@ -736,6 +789,18 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
         return pathwayPerId.get(pathwayId);
     }
 
+    /**
+     * Return an unmodifiable map of Pathway objects representing all the rows from pathways.txt. Entities are mapped
+     * on value of field pathway_id of file `pathways.txt`.
+     *
+     * @return an unmodifiable map of Pathway objects representing all the rows from pathways.txt. Entities are mapped
+     * on value of field pathway_id of file `pathways.txt`.
+     */
+    @Override
+    public Map<String, Pathway> getPathwayAll() {
+        return Collections.unmodifiableMap(pathwayPerId);
+    }
+
     /**
      * Add an Attribution representing a row from attributions.txt to this. Return the entity added to the repository if
      * the uniqueness constraint of rows f attributions.txt is respected, if this requirement is not met, returns null.
@@ -787,6 +852,16 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
                 attributionPhone));
     }
 
+    /**
+     * Return an unmodifiable collection of Attribution objects representing all the rows from attributions.txt
+     *
+     * @return an unmodifiable collection of Attribution objects representing all the rows from attributions.txt
+     */
+    @Override
+    public Collection<Attribution> getAttributionAll() {
+        return Collections.unmodifiableCollection(attributionCollection.values());
+    }
+
     /**
      * Add a {@link ShapePoint} to a shape. A shape is a list of{@link ShapePoint} whereas a {@link ShapePoint}
      * represents a row from shapes.txt. Return the entity added to the repository if the entity was
@@ -804,27 +879,44 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
     @Override
     public ShapePoint addShapePoint(final ShapePoint newShapePoint) throws IllegalArgumentException {
         if (newShapePoint != null) {
-            final String shapeId = newShapePoint.getShapeId();
-            if (shapePerIdShapePtSequence.containsKey(shapeId)) {
-                if (!shapePerIdShapePtSequence.get(shapeId).containsKey(newShapePoint.getShapePtSequence())) {
-                    shapePerIdShapePtSequence.get(shapeId).put(newShapePoint.getShapePtSequence(), newShapePoint);
-                } else {
-                    return null;
-                }
-            } else {
-                final SortedMap<Integer, ShapePoint> innerMap = new TreeMap<>();
-                innerMap.put(newShapePoint.getShapePtSequence(), newShapePoint);
-                shapePerIdShapePtSequence.put(shapeId, innerMap);
-            }
-            return newShapePoint;
+            return shapeTable.add(newShapePoint) ? newShapePoint : null;
+        } else {
+            throw new IllegalArgumentException("Cannot add null shape point to data repository");
+        }
+    }
+
+    /**
+     * Append a {@link ShapePoint} to the arrays of its shape without checking whether the shape already holds a point
+     * with the same shape_pt_sequence. Shapes are sorted and rid of their duplicated points by
+     * {@link #completeShapePointLoad()}.
+     *
+     * @param newShapePoint the internal representation of a row from shapes.txt to be appended to the repository.
+     * @throws IllegalArgumentException if the shape point passed as argument is null
+     */
+    @Override
+    public void appendShapePoint(final ShapePoint newShapePoint) throws IllegalArgumentException {
+        if (newShapePoint != null) {
+            shapeTable.append(newShapePoint);
         } else {
             throw new IllegalArgumentException("Cannot add null shape point to data repository");
         }
     }
 
+    /**
+     * Sort the points of each shape by shape_pt_sequence, once for the whole of shapes.txt, and remove the points
+     * appended after a point with the same shape_id and shape_pt_sequence.
+     *
+     * @return the shape points removed from the repository, in the order they were appended for a given shape
+     */
+    @Override
+    public List<ShapePoint> completeShapePointLoad() {
+        return shapeTable.completeAppend();
+    }
+
     /**
      * Return an immutable map of shape points from shapes.txt related to the id provided as parameter; which represents
-     * a shape object. The returned map is ordered by shape_pt_sequence.
+     * a shape object. The returned map is ordered by shape_pt_sequence. Its {@link ShapePoint} are materialized from
+     * the arrays of the repository on each call: prefer {@link #getShapeViewById(String)} to read values only.
      *
      * @param shapeId the key from shapes.txt related to the Route to be returned
      * @return an immutable map of shape points from shapes.txt related to the id provided as parameter; which
@@ -832,23 +924,44 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
      */
     @Override
     public SortedMap<Integer, ShapePoint> getShapeById(final String shapeId) {
-        try {
-            return Collections.unmodifiableSortedMap(shapePerIdShapePtSequence.get(shapeId));
-        } catch (NullPointerException e) {
-            return null;
-        }
+        final SortedMap<Integer, ShapePoint> shape = shapeTable.toSortedMap(shapeId);
+        return shape == null ? null : Collections.unmodifiableSortedMap(shape);
     }
 
     /**
      * Return an immutable map representing all records from shapes.txt. The key values for the returned map are
      * shape_id and the value is another map, which keys are shape_pt_sequence and values are {@link ShapePoint}.
-     * Note that those are ordered by ascending shape_pt_sequence.
+     * Note that those are ordered by ascending shape_pt_sequence. The map is a view of the arrays of the repository:
+     * the {@link ShapePoint} of a shape are materialized each time said shape is read from the view.
      *
      * @return an immutable map representing all records from shapes.txt
      */
     @Override
     public Map<String, SortedMap<Integer, ShapePoint>> getShapeAll() {
-        return Collections.unmodifiableMap(shapePerIdShapePtSequence);
+        return Collections.unmodifiableMap(shapeTable.asMap());
+    }
+
+    /**
+     * Return a view of the shape points from shapes.txt related to the id provided as parameter, ordered by
+     * shape_pt_sequence. The view reads the arrays the shape is held in.
+     *
+     * @param shapeId identifies a shape
+     * @return a view of the shape points from shapes.txt related to the id provided as parameter, null if no record
+     * is related to the id
+     */
+    @Override
+    public ShapeView getShapeViewById(final String shapeId) {
+        return shapeTable.view(shapeId);
+    }
+
+    /**
+     * Return a view of each shape from shapes.txt. Views read the arrays shapes are held in.
+     *
+     * @return a view of each shape from shapes.txt
+     */
+    @Override
+    public Collection<ShapeView> getShapeViewAll() {
+        return Collections.unmodifiableCollection(shapeTable.views());
     }
 
     /**
@@ -867,46 +980,85 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
     @Override
     public StopTime addStopTime(final StopTime newStopTime) throws IllegalArgumentException {
         if (newStopTime != null) {
-            final String tripId = newStopTime.getTripId();
-            final Integer stopSequence = newStopTime.getStopSequence();
-            if (stopTimePerTripIdStopSequence.containsKey(tripId)) {
-                if (!stopTimePerTripIdStopSequence.get(tripId).containsKey(stopSequence)) {
-                    stopTimePerTripIdStopSequence.get(tripId).put(stopSequence, newStopTime);
-                } else {
-                    return null;
-                }
-            } else {
-                final TreeMap<Integer, StopTime> innerMap = new TreeMap<>();
-                innerMap.put(stopSequence, newStopTime);
-                stopTimePerTripIdStopSequence.put(tripId, innerMap);
-            }
-            return newStopTime;
+            return stopTimeTable.add(newStopTime) ? newStopTime : null;
+        } else {
+            throw new IllegalArgumentException("Cannot add null StopTime to data repository");
+        }
+    }
+
+    /**
+     * Append a {@link StopTime} to the rows of its trip without checking whether the trip already holds a row with
+     * the same stop_sequence. Trips are sorted and rid of their duplicated rows by {@link #completeStopTimeLoad()}.
+     *
+     * @param newStopTime the internal representation of a row from stop_times.txt to be appended to the repository.
+     * @throws IllegalArgumentException if the stop time passed as argument is null
+     */
+    @Override
+    public void appendStopTime(final StopTime newStopTime) throws IllegalArgumentException {
+        if (newStopTime != null) {
+            stopTimeTable.append(newStopTime);
         } else {
             throw new IllegalArgumentException("Cannot add null StopTime to data repository");
         }
     }
 
+    /**
+     * Sort the rows of each trip by stop_sequence, once for the whole of stop_times.txt, and remove the rows appended
+     * after a row with the same trip_id and stop_sequence.
+     *
+     * @return the records removed from the repository, in the order they were appended for a given trip
+     */
+    @Override
+    public List<StopTime> completeStopTimeLoad() {
+        return stopTimeTable.completeAppend();
+    }
+
     /**
      * Return an immutable map of {@link StopTime} from stop_times.txt related to the trip_id provided as parameter.
-     * The returned map is ordered by stop_sequence
+     * The returned map is ordered by stop_sequence. Its {@link StopTime} are materialized from the columns of the
+     * repository on each call: prefer {@link #getStopTimeCursorByTripId(String)} to read values only.
      *
      * @param tripId identifies a trip
      * @return an immutable map of {@link StopTime} from stop_times.txt related to the trip_id provided as parameter
      */
     @Override
     public SortedMap<Integer, StopTime> getStopTimeByTripId(final String tripId) {
-        return Collections.unmodifiableSortedMap(stopTimePerTripIdStopSequence.get(tripId));
+        return Collections.unmodifiableSortedMap(stopTimeTable.toSortedMap(tripId));
     }
 
     /**
      * Return an immutable map representing all records from stop_times.txt. The key values for the returned map are
      * trip_id and the value is another map, which keys are stop_sequence and values are {@link StopTime}. Note that
-     * those are ordered by ascending stop_sequence.
+     * those are ordered by ascending stop_sequence. The map is a view of the columns of the repository: the
+     * {@link StopTime} of a trip are materialized each time said trip is read from the view.
      *
      * @return an immutable map representing all records from stop_times.txt
      */
     public Map<String, TreeMap<Integer, StopTime>> getStopTimeAll() {
-        return Collections.unmodifiableMap(stopTimePerTripIdStopSequence);
+        return Collections.unmodifiableMap(stopTimeTable.asMap());
+    }
+
+    /**
+     * Return a cursor over all records from stop_times.txt, trip by trip. Records of a trip are iterated by ascending
+     * stop_sequence.
+     *
+     * @return a cursor over all records from stop_times.txt
+     */
+    @Override
+    public StopTimeCursor getStopTimeCursor() {
+        return stopTimeTable.cursor();
+    }
+
+    /**
+     * Return a cursor over the records from stop_times.txt related to the trip_id provided as parameter, by ascending
+     * stop_sequence. The cursor has no row if no record is related to the trip_id.
+     *
+     * @param tripId identifies a trip
+     * @return a cursor over the records from stop_times.txt related to the trip_id provided as parameter
+     */
+    @Override
+    public StopTimeCursor getStopTimeCursorByTripId(final String tripId) {
+        return stopTimeTable.cursor(tripId);
     }
 
     /**
@@ -969,6 +1121,19 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
         return translationPerTableName.get(tableName).get(fieldName).get(language);
     }
 
+    /**
+     * Return an unmodifiable collection of Translation objects representing all the rows from translations.txt
+     *
+     * @return an unmodifiable collection of Translation objects representing all the rows from translations.txt
+     */
+    @Override
+    public Collection<Translation> getTranslationAll() {
+        return translationPerTableName.values().stream()
+                .flatMap(translationPerFieldName -> translationPerFieldName.values().stream())
+                .flatMap(translationPerLanguage -> translationPerLanguage.values().stream())
+                .collect(Collectors.toUnmodifiableList());
+    }
+
     /**
      * Add a stop representing a row from stops.txt to this {@link GtfsDataRepository}. Return the entity added to the
      * repository if the uniqueness constraint of stop based on stop_id is respected. Otherwise returns null.
@@ -1018,6 +1183,88 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
         return stopPerId.get(stopId);
     }
 
+    /**
+     * Replaces the empty maps holding the entities of a GTFS file with maps sized for the number of rows expected in
+     * said file, so that they are not rehashed while the file is loaded. Stop times are grouped by trip_id: their
+     * columns are sized from the number of rows of stop_times.txt, their groups from the number of rows of trips.txt.
+     * The map of the shapes is sized from the number of rows of shapes.txt. Sorted maps and other maps holding several
+     * rows per key are left as they are: the former are never rehashed, the size of the latter can not be derived from
+     * a number of rows.
+     *
+     * @param filename         the name of the GTFS file
+     * @param expectedRowCount the number of rows expected in the file
+     */
+    @Override
+    public void reserveCapacity(final String filename, final int expectedRowCount) {
+        switch (filename) {
+            case "agency.txt": {
+                agencyPerId = presized(agencyPerId, expectedRowCount);
+                break;
+            }
+            case "routes.txt": {
+                routePerId = presized(routePerId, expectedRowCount);
+                break;
+            }
+            case "trips.txt": {
+                tripPerId = presized(tripPerId, expectedRowCount);
+                stopTimeTable.reserveTrips(expectedRowCount);
+                break;
+            }
+            case "stop_times.txt": {
+                stopTimeTable.reserveRows(expectedRowCount);
+                break;
+            }
+            case "shapes.txt": {
+                shapeTable.reservePoints(expectedRowCount);
+                break;
+            }
+            case "calendar.txt": {
+                calendarPerServiceId = presized(calendarPerServiceId, expectedRowCount);
+                break;
+            }
+            case "levels.txt": {
+                levelPerId = presized(levelPerId, expectedRowCount);
+                break;
+            }
+            case "fare_attributes.txt": {
+                fareAttributePerFareId = presized(fareAttributePerFareId, expectedRowCount);
+                break;
+            }
+            case "fare_rules.txt": {
+                fareRuleCollection = presized(fareRuleCollection, expectedRowCount);
+                break;
+            }
+            case "frequencies.txt": {
+                frequencyPerTripIdStartTime = presized(frequencyPerTripIdStartTime, expectedRowCount);
+                break;
+            }
+            case "pathways.txt": {
+                pathwayPerId = presized(pathwayPerId, expectedRowCount);
+                break;
+            }
+            case "attributions.txt": {
+                attributionCollection = presized(attributionCollection, expectedRowCount);
+                break;
+            }
+            case "stops.txt": {
+                stopPerId = presized(stopPerId, expectedRowCount);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns a map that holds the expected number of entries without being rehashed, the map provided as parameter
+     * if it already holds entities
+     */
+    private static <V> Map<String, V> presized(final Map<String, V> toReplace, final int expectedSize) {
+        if (!toReplace.isEmpty() || expectedSize <= 0) {
+            return toReplace;
+        }
+        // the default load factor of a HashMap is 0.75
+        return new HashMap<>((int) Math.min((long) expectedSize * 4 / 3 + 1, Integer.MAX_VALUE));
+    }
+
     /**
      * Returns `feed_info.feed_publisher_name` value if file `feed_info.txt` was provided, otherwise returns an empty
      * String
@@ -1033,4 +1280,13 @@ public class InMemoryGtfsDataRepository implements GtfsDataRepository {
             return feedInfoPerFeedPublisherName.keySet().stream().findFirst().get();
         }
     }
+
+    /**
+     * Does nothing: entities are held on the heap and released along with the repository
+     *
+     * @throws IOException never, declared for the repositories extending this one
+     */
+    @Override
+    public void close() throws IOException {
+    }
 }
@@ -22,9 +22,13 @@ import org.apache.commons.validator.routines.*;
 import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
 import org.mobilitydata.gtfsvalidator.domain.entity.relationship_descriptor.RelationshipDescriptor;
 import org.mobilitydata.gtfsvalidator.parser.GtfsEntityParser;
+import org.mobilitydata.gtfsvalidator.parser.GeneratedRowDecoders;
+import org.mobilitydata.gtfsvalidator.parser.GtfsFileSchema;
 import org.mobilitydata.gtfsvalidator.parser.GtfsRelationshipParser;
+import org.mobilitydata.gtfsvalidator.parser.IdentifierPool;
 import org.mobilitydata.gtfsvalidator.protos.GtfsSpecificationProto;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 import org.mobilitydata.gtfsvalidator.validator.Bcp47Validator;
 import org.mobilitydata.gtfsvalidator.validator.GtfsTypeValidator;
 import org.moblitydata.gtfsvalidator.tree.GtfsNodeMaker;
@@ -32,6 +36,7 @@ import org.moblitydata.gtfsvalidator.tree.GtfsNodeMaker;
 import java.io.IOException;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -41,13 +46,18 @@ import java.util.stream.Collectors;
  */
 public class InMemoryGtfsSpecRepository implements GtfsSpecRepository {
 
-    private final GtfsSpecificationProto.CsvSpecProtos inMemoryGTFSSpec;
-    private final Map<String, ParsedEntityTypeValidator> validatorByFilenameCache = new HashMap<>();
+    // schema of each file, in the order of the GTFS specification
+    private final Map<String, GtfsFileSchema> schemaByFilename = new LinkedHashMap<>();
+    private final Map<String, ParsedEntityTypeValidator> validatorByFilenameCache = new ConcurrentHashMap<>();
     private final RelationshipDescriptor inMemoryGtfsRelationshipDescriptor;
+    // shared by the parsers of all files, cleared at the end of each validation run by clearParsingCaches()
+    private final IdentifierPool identifierPool = new IdentifierPool();
 
     private static final String[] VALID_URL_SCHEMES = {"http", "https"};
     private static final String VALID_COLOR_REGEX_PATTERN = "[0-9a-fA-F]{6}";
     private static final String VALID_TIME_REGEXP_PATTERN = "([0-9][0-9]|[0-9]):[0-5][0-9]:[0-5][0-9]";
+    // RegexValidator is immutable: the pattern is compiled once and shared by the parsers of all files
+    private static final RegexValidator COLOR_VALIDATOR = new RegexValidator(VALID_COLOR_REGEX_PATTERN);
 
     /**
      * @param specProtobufString the string representation of the GTFS protobuf
@@ -69,8 +79,11 @@ public class InMemoryGtfsSpecRepository implements GtfsSpecRepository {
             relationshipDescriptor = null;
             e.printStackTrace();
         }
-        inMemoryGTFSSpec = GtfsSpec;
         inMemoryGtfsRelationshipDescriptor = relationshipDescriptor;
+        if (GtfsSpec != null) {
+            GtfsSpec.getCsvspecList().forEach(
+                    fileSpec -> schemaByFilename.putIfAbsent(fileSpec.getFilename(), new GtfsFileSchema(fileSpec)));
+        }
     }
 
     /**
@@ -80,9 +93,9 @@ public class InMemoryGtfsSpecRepository implements GtfsSpecRepository {
      */
     @Override
     public List<String> getRequiredFilenameList() {
-        return inMemoryGTFSSpec.getCsvspecList().stream()
-                .filter(GtfsSpecificationProto.CsvSpecProto::getRequired)
-                .map(GtfsSpecificationProto.CsvSpecProto::getFilename)
+        return schemaByFilename.values().stream()
+                .filter(GtfsFileSchema::isRequired)
+                .map(GtfsFileSchema::getFilename)
                 .collect(Collectors.toList());
     }
 
@@ -93,9 +106,9 @@ public class InMemoryGtfsSpecRepository implements GtfsSpecRepository {
      */
     @Override
     public List<String> getOptionalFilenameList() {
-        return inMemoryGTFSSpec.getCsvspecList().stream()
-                .filter(file -> !file.getRequired())
-                .map(GtfsSpecificationProto.CsvSpecProto::getFilename)
+        return schemaByFilename.values().stream()
+                .filter(schema -> !schema.isRequired())
+                .map(GtfsFileSchema::getFilename)
                 .collect(Collectors.toList());
     }
 
@@ -107,16 +120,9 @@ public class InMemoryGtfsSpecRepository implements GtfsSpecRepository {
      */
     @Override
     public List<String> getRequiredHeadersForFile(RawFileInfo fileInfo) {
-        GtfsSpecificationProto.CsvSpecProto specForFile = getSpecForFile(fileInfo);
-
-        if (specForFile != null) {
-            return specForFile.getColumnList().stream()
-                    .filter(GtfsSpecificationProto.ColumnSpecProto::getRequired)
-                    .map(GtfsSpecificationProto.ColumnSpecProto::getName)
-                    .collect(Collectors.toList());
-        } else {
-            return Collections.emptyList();
-        }
+        GtfsFileSchema schemaForFile = getSchemaForFile(fileInfo);
+
+        return schemaForFile != null ? schemaForFile.getRequiredHeaderList() : Collections.emptyList();
     }
 
     /**
@@ -127,16 +133,9 @@ public class InMemoryGtfsSpecRepository implements GtfsSpecRepository {
      */
     @Override
     public List<String> getOptionalHeadersForFile(RawFileInfo fileInfo) {
-        GtfsSpecificationProto.CsvSpecProto specForFile = getSpecForFile(fileInfo);
-
-        if (specForFile != null) {
-            return specForFile.getColumnList().stream()
-                    .filter(column -> !column.getRequired())
-                    .map(GtfsSpecificationProto.ColumnSpecProto::getName)
-                    .collect(Collectors.toList());
-        } else {
-            return Collections.emptyList();
-        }
+        GtfsFileSchema schemaForFile = getSchemaForFile(fileInfo);
+
+        return schemaForFile != null ? schemaForFile.getOptionalHeaderList() : Collections.emptyList();
     }
 
     /**
@@ -145,15 +144,12 @@ public class InMemoryGtfsSpecRepository implements GtfsSpecRepository {
      * @param fileInfo information about the file to process: location and expected content
      * @return the schema corresponding to the file associated to {@param fileInfo}, null otherwise
      */
-    private GtfsSpecificationProto.CsvSpecProto getSpecForFile(RawFileInfo fileInfo) {
+    private GtfsFileSchema getSchemaForFile(RawFileInfo fileInfo) {
         if (fileInfo == null || fileInfo.getFilename() == null) {
             return null;
         }
 
-        return inMemoryGTFSSpec.getCsvspecList().stream()
-                .filter(spec -> fileInfo.getFilename().equals(spec.getFilename()))
-                .findAny()
-                .orElse(null);
+        return schemaByFilename.get(fileInfo.getFilename());
     }
 
     /**
@@ -164,16 +160,40 @@ public class InMemoryGtfsSpecRepository implements GtfsSpecRepository {
      */
     @Override
     public RawEntityParser getParserForFile(RawFileInfo file) {
+        return createParser(file);
+    }
+
+    /**
+     * Returns the decoder generated from the GTFS specification for the rows of a given GTFS CSV file, built on top of
+     * the parser of said file
+     *
+     * @param file        information about the file to process: location and expected content
+     * @param builderType the type of the builder rows are decoded into
+     * @param timeUtils   the utility class converting times to a number of seconds
+     * @param <B>         the type of the builder rows are decoded into
+     * @return the decoder of the rows of {@code file}, null if none was generated for {@code builderType}
+     */
+    @Override
+    public <B> TypedRowDecoder<B> getTypedDecoderForFile(final RawFileInfo file,
+                                                         final Class<B> builderType,
+                                                         final TimeUtils timeUtils) {
+        final TypedRowDecoder<?> decoder = GeneratedRowDecoders.create(createParser(file), timeUtils);
+        if (decoder == null || decoder.getBuilderType() != builderType) {
+            return null;
+        }
+        //noinspection unchecked
+        return (TypedRowDecoder<B>) decoder;
+    }
+
+    private GtfsEntityParser createParser(final RawFileInfo file) {
         return new GtfsEntityParser(
-                Objects.requireNonNull(inMemoryGTFSSpec.getCsvspecList().stream()
-                        .filter(spec -> file.getFilename().equals(spec.getFilename()))
-                        .findAny()
-                        .orElse(null)),
+                Objects.requireNonNull(getSchemaForFile(file)),
                 file,
                 FloatValidator.getInstance(),
                 IntegerValidator.getInstance(),
                 DateValidator.getInstance(),
-                new RegexValidator(VALID_COLOR_REGEX_PATTERN));
+                COLOR_VALIDATOR,
+                identifierPool);
     }
 
     /**
@@ -184,28 +204,28 @@ public class InMemoryGtfsSpecRepository implements GtfsSpecRepository {
      */
     @Override
     public ParsedEntityTypeValidator getValidatorForFile(RawFileInfo file) {
-        ParsedEntityTypeValidator toReturn = validatorByFilenameCache.get(file.getFilename());
-
-        if (toReturn == null) {
-            toReturn = new GtfsTypeValidator(
-                    Objects.requireNonNull(inMemoryGTFSSpec.getCsvspecList().stream()
-                            .filter(spec -> file.getFilename().equals(spec.getFilename()))
-                            .findAny()
-                            .orElse(null)),
-                    FloatValidator.getInstance(),
-                    IntegerValidator.getInstance(),
-                    new UrlValidator(VALID_URL_SCHEMES),
-                    new Bcp47Validator(),
-                    EmailValidator.getInstance(),
-                    new RegexValidator(VALID_TIME_REGEXP_PATTERN),
-                    // Uses IANA timezone database shipped with JDK
-                    // to update without updating JDK see
-                    // https://www.oracle.com/technetwork/java/javase/tzupdater-readme-136440.html
-                    ZoneId.getAvailableZoneIds());
-            validatorByFilenameCache.put(file.getFilename(), toReturn);
-        }
+        // files may be loaded concurrently
+        return validatorByFilenameCache.computeIfAbsent(file.getFilename(), filename ->
+                new GtfsTypeValidator(
+                        Objects.requireNonNull(getSchemaForFile(file)),
+                        FloatValidator.getInstance(),
+                        IntegerValidator.getInstance(),
+                        new UrlValidator(VALID_URL_SCHEMES),
+                        new Bcp47Validator(),
+                        EmailValidator.getInstance(),
+                        new RegexValidator(VALID_TIME_REGEXP_PATTERN),
+                        // Uses IANA timezone database shipped with JDK
+                        // to update without updating JDK see
+                        // https://www.oracle.com/technetwork/java/javase/tzupdater-readme-136440.html
+                        ZoneId.getAvailableZoneIds()));
+    }
 
-        return toReturn;
+    /**
+     * Clears the pool the parsers of all files deduplicate identifiers with
+     */
+    @Override
+    public void clearParsingCaches() {
+        identifierPool.clear();
     }
 
     @Override
@@ -16,14 +16,15 @@
 
 package org.mobilitydata.gtfsvalidator.db;
 
-import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
 import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Holds information about a GTFS CSV file that have not been through the parsing process. Provides methods to get
@@ -33,6 +34,8 @@ import java.util.*;
 public class InMemoryRawFileRepository implements RawFileRepository {
 
     private final Map<String, RawFileInfo> fileInfoPerFilename = new HashMap<>();
+    // headers are read once per file, whichever use case asks for them first
+    private final Map<String, List<String>> actualHeadersPerFilename = new ConcurrentHashMap<>();
 
     /**
      * Builds a{@link RawFileInfo} with filename of the file to process
@@ -58,30 +61,30 @@ public class InMemoryRawFileRepository implements RawFileRepository {
     }
 
     /**
-     * Returns the collection of headers for GTFS CSV file from a {@link RawFileInfo} including duplicates
+     * Returns the collection of headers for GTFS CSV file from a {@link RawFileInfo} including duplicates. The headers
+     * of a file are only read the first time they are requested.
      *
      * @param file information regarding a file location and expected content (file name)
      * @return the collection of headers for a given GTFS CSV file
      */
     @Override
     public List<String> getActualHeadersForFile(RawFileInfo file) {
-        File csvFile = new File(file.getPath() + File.separator + file.getFilename());
-        CsvMapper mapper = new CsvMapper();
-        CsvSchema schema = CsvSchema.emptySchema().withHeader();
-
-        List<String> toReturn = new ArrayList<>();
+        //TODO: provider construction errors should go back up to use case level so they can be properly reported
+        if (file.getFilename() == null) {
+            return readActualHeadersForFile(file);
+        }
+        return actualHeadersPerFilename.computeIfAbsent(file.getFilename(), filename -> readActualHeadersForFile(file));
+    }
 
-        try {
-            ((CsvSchema) (mapper.readerFor(Map.class)
-                    .with(schema)
-                    .readValues(csvFile).getParser().getSchema())).iterator()
-                    .forEachRemaining(column -> toReturn.add(column.getName()));
-        } catch (IOException e) {
-            //TODO: this should go back up to use case level so it can be properly reported
+    private List<String> readActualHeadersForFile(RawFileInfo file) {
+        final Optional<RawEntityProvider> provider = getProviderForFile(file);
+        if (provider.isEmpty()) {
             return Collections.emptyList();
         }
-
-        return toReturn;
+        // only the header row is read: the rest of the file is released right away
+        try (RawEntityProvider headerProvider = provider.get()) {
+            return headerProvider.getHeaders();
+        }
     }
 
     /**
@@ -104,9 +107,81 @@ public class InMemoryRawFileRepository implements RawFileRepository {
     public Optional<RawEntityProvider> getProviderForFile(RawFileInfo file) {
 
         try {
-            return Optional.of(new FromFileRawEntityProvider(file));
+            return Optional.of(new CsvRowRawEntityProvider(file));
         } catch (IOException e) {
             return Optional.empty();
         }
     }
+
+    /**
+     * Returns data providers covering consecutive ranges of rows of a GTFS CSV file, in the order of the file. Ranges
+     * can be read concurrently and rows keep their index in the file.
+     *
+     * @param file           information regarding a file to process
+     * @param chunkByteCount the approximate size of each range in bytes
+     * @return data providers covering the rows of a GTFS CSV file, empty if the file can not be read
+     */
+    @Override
+    public List<RawEntityProvider> getProvidersForFileChunks(RawFileInfo file, long chunkByteCount) {
+        try {
+            final Path path = Path.of(file.getPath() + File.separator + file.getFilename());
+            return CsvRowChunker.split(
+                    (startOffset, endOffset) -> new CsvRowTokenizer.MappedFileByteSource(path, startOffset,
+                            endOffset, CsvRowTokenizer.MappedFileByteSource.WINDOW_SIZE),
+                    Files.size(path),
+                    chunkByteCount);
+        } catch (IOException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Deletes a file an entry of the archive was decompressed to while downloading: files extracted to the dataset
+     * directory are read from there.
+     *
+     * @param filename     the name of the entry
+     * @param inflatedFile the file the entry was decompressed to
+     * @throws IOException if the file can not be deleted
+     */
+    @Override
+    public void putEntryFile(String filename, Path inflatedFile) throws IOException {
+        Files.deleteIfExists(inflatedFile);
+    }
+
+    /**
+     * Releases the resources held to read GTFS CSV files. Nothing is held open for files extracted to disk, which are
+     * mapped for the time it takes to read them.
+     *
+     * @throws IOException if a file can not be closed, when files are held open by a subclass
+     */
+    @Override
+    public void close() throws IOException {
+    }
+
+    /**
+     * Returns false: files extracted to disk were decompressed entirely when the archive was extracted, which is when
+     * entries that can not be decompressed are reported.
+     *
+     * @param file information regarding a file to process
+     * @return false
+     */
+    @Override
+    public boolean isCorruptFile(RawFileInfo file) {
+        return false;
+    }
+
+    /**
+     * Returns the size of a GTFS CSV file in bytes, -1 if the file can not be read
+     *
+     * @param file information regarding a file to process
+     * @return the size of a GTFS CSV file in bytes, -1 if the file can not be read
+     */
+    @Override
+    public long getFileSize(RawFileInfo file) {
+        try {
+            return Files.size(Path.of(file.getPath() + File.separator + file.getFilename()));
+        } catch (IOException e) {
+            return -1;
+        }
+    }
 }
@@ -39,7 +39,8 @@ import java.util.stream.Stream;
 
 /**
  * Holds information about the validation process. Stores notices according to their types. Provides methods to add
- * said notices to the repository and get said notices.
+ * said notices to the repository and get said notices. Notices can be added from several threads, for instance when
+ * files are loaded concurrently.
  * This is created  when creating a new default configuration, all fields being set to their default value.
  */
 public class InMemoryValidationResultRepository implements ValidationResultRepository {
@@ -59,7 +60,7 @@ public class InMemoryValidationResultRepository implements ValidationResultRepos
      * @return the notice that was added to the repository
      */
     @Override
-    public Notice addNotice(Notice newNotice) throws TooManyValidationErrorException {
+    public synchronized Notice addNotice(Notice newNotice) throws TooManyValidationErrorException {
         if (newNotice instanceof InfoNotice) {
             infoNoticeList.add((InfoNotice) newNotice);
         } else if (newNotice instanceof WarningNotice) {
@@ -79,7 +80,7 @@ public class InMemoryValidationResultRepository implements ValidationResultRepos
      * @return all notices contained in the validation repository as a collection
      */
     @Override
-    public Collection<Notice> getAll() {
+    public synchronized Collection<Notice> getAll() {
         return Stream.concat(
                 Stream.concat(
                         infoNoticeList.stream(),
@@ -106,12 +107,12 @@ public class InMemoryValidationResultRepository implements ValidationResultRepos
     }
 
     @Override
-    public int getWarningNoticeCount() {
+    public synchronized int getWarningNoticeCount() {
         return warningNoticeList.size();
     }
 
     @Override
-    public int getErrorNoticeCount() {
+    public synchronized int getErrorNoticeCount() {
         return errorNoticeList.size();
     }
 }
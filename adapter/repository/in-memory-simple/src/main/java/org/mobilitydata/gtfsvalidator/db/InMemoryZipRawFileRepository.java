@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Holds information about GTFS CSV files that are read directly from the zipped archive they are contained in: the
+ * path of a {@link RawFileInfo} is the path to said archive and its filename is the name of the entry in said archive.
+ * Rows are streamed from the archive, no file is extracted to the dataset directory. Files split into chunks to be
+ * read concurrently, and files decompressed while the archive was being downloaded, are the exception: they are read
+ * from a temporary file, which is memory-mapped.
+ * This is created when creating a new default configuration if extraction to disk is not requested.
+ */
+public class InMemoryZipRawFileRepository extends InMemoryRawFileRepository {
+
+    private final Map<String, ZipFile> zipFilePerPath = new HashMap<>();
+    // entries decompressed to a temporary file, deleted once the repository is closed
+    private final Map<String, Path> inflatedFilePerFilename = new ConcurrentHashMap<>();
+    // entries that could not be decompressed, as opposed to empty entries
+    private final Set<String> corruptFilenameSet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns a data provider streaming the rows of a GTFS CSV file from the zipped archive it is contained in, or
+     * from the temporary file it has already been decompressed to, for instance while downloading the archive. An
+     * entry that can not be decompressed is recorded as corrupt, see {@link #isCorruptFile(RawFileInfo)}.
+     *
+     * @param file information regarding a file to process: the path to the archive and the name of the entry
+     * @return a data provider for a GTFS CSV file, empty if the entry is empty, missing or can not be read
+     */
+    @Override
+    public Optional<RawEntityProvider> getProviderForFile(RawFileInfo file) {
+        if (file.getPath() == null || file.getFilename() == null) {
+            return Optional.empty();
+        }
+        try {
+            final Path inflatedFile = inflatedFilePerFilename.get(file.getFilename());
+            if (inflatedFile != null) {
+                return Optional.of(new CsvRowRawEntityProvider(CsvRowTokenizer.mapped(inflatedFile)));
+            }
+            final ZipFile zipFile = getZipFile(file.getPath());
+            final ZipEntry entry = zipFile.getEntry(file.getFilename());
+            if (entry == null || entry.isDirectory()) {
+                return Optional.empty();
+            }
+            return Optional.of(new CsvRowRawEntityProvider(zipFile.getInputStream(entry)));
+        } catch (CsvRowRawEntityProvider.EmptyHeaderLineException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            corruptFilenameSet.add(file.getFilename());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns data providers covering consecutive ranges of rows of a GTFS CSV file, in the order of the file. An
+     * entry larger than a single range is decompressed once to a temporary file, which is memory-mapped so that
+     * ranges can be read concurrently: the content of the entry is never held on the heap as a whole. Data providers
+     * only open their range once read, rows keep their index in the file. An entry no larger than a range, or that
+     * can not be decompressed to a temporary file, is streamed by a single data provider. An entry decompressed while
+     * downloading the archive is read from the temporary file it was decompressed to.
+     *
+     * @param file           information regarding a file to process: the path to the archive and the name of the entry
+     * @param chunkByteCount the approximate size of each range in bytes
+     * @return data providers covering the rows of a GTFS CSV file, empty if the entry is empty, missing or can not be
+     * read, in which case it is recorded as corrupt
+     */
+    @Override
+    public List<RawEntityProvider> getProvidersForFileChunks(RawFileInfo file, long chunkByteCount) {
+        if (file.getPath() == null || file.getFilename() == null) {
+            return Collections.emptyList();
+        }
+        try {
+            Path inflatedFile = inflatedFilePerFilename.get(file.getFilename());
+            if (inflatedFile == null) {
+                final ZipEntry entry = getZipFile(file.getPath()).getEntry(file.getFilename());
+                if (entry == null || entry.isDirectory()) {
+                    return Collections.emptyList();
+                }
+                inflatedFile = entry.getSize() > chunkByteCount ? getInflatedFile(file) : null;
+            }
+            if (inflatedFile == null) {
+                return getProviderForFile(file).map(List::of).orElse(Collections.emptyList());
+            }
+            final Path path = inflatedFile;
+            return CsvRowChunker.split(
+                    (startOffset, endOffset) -> new CsvRowTokenizer.MappedFileByteSource(path, startOffset,
+                            endOffset, CsvRowTokenizer.MappedFileByteSource.WINDOW_SIZE),
+                    Files.size(path),
+                    chunkByteCount);
+        } catch (CsvRowRawEntityProvider.EmptyHeaderLineException e) {
+            return Collections.emptyList();
+        } catch (IOException e) {
+            corruptFilenameSet.add(file.getFilename());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Takes over a file an entry of the archive was decompressed to while the archive was being downloaded. Said file
+     * is then read instead of decompressing the entry again, and deleted once the repository is closed.
+     *
+     * @param filename     the name of the entry
+     * @param inflatedFile the file the entry was decompressed to
+     * @throws IOException if the file previously decompressed for the same entry can not be deleted
+     */
+    @Override
+    public void putEntryFile(String filename, Path inflatedFile) throws IOException {
+        final Path previousFile = inflatedFilePerFilename.put(filename, inflatedFile);
+        if (previousFile != null && !previousFile.equals(inflatedFile)) {
+            Files.deleteIfExists(previousFile);
+        }
+    }
+
+    /**
+     * Closes the archives opened to read GTFS CSV files and deletes the temporary files entries were decompressed
+     * to. This is to be called once the validation process is over: archives are opened again and entries read from
+     * them if files are read afterwards.
+     *
+     * @throws IOException if an archive can not be closed or a temporary file can not be deleted
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException closeException = null;
+        for (final Path inflatedFile : inflatedFilePerFilename.values()) {
+            try {
+                Files.deleteIfExists(inflatedFile);
+            } catch (IOException e) {
+                if (closeException == null) {
+                    closeException = e;
+                } else {
+                    closeException.addSuppressed(e);
+                }
+            }
+        }
+        inflatedFilePerFilename.clear();
+        for (final ZipFile zipFile : zipFilePerPath.values()) {
+            try {
+                zipFile.close();
+            } catch (IOException e) {
+                if (closeException == null) {
+                    closeException = e;
+                } else {
+                    closeException.addSuppressed(e);
+                }
+            }
+        }
+        zipFilePerPath.clear();
+        if (closeException != null) {
+            throw closeException;
+        }
+    }
+
+    /**
+     * Returns true if an entry of the archive could not be decompressed when it was read, or if the archive could not
+     * be opened. Such an entry is reported as corrupt rather than empty.
+     *
+     * @param file information regarding a file to process: the path to the archive and the name of the entry
+     * @return true if the entry could not be decompressed when it was read
+     */
+    @Override
+    public boolean isCorruptFile(RawFileInfo file) {
+        return file.getFilename() != null && corruptFilenameSet.contains(file.getFilename());
+    }
+
+    /**
+     * Returns the decompressed size of an entry of the archive in bytes, as recorded in the archive if the entry has
+     * not been decompressed to a temporary file yet. The archive is not decompressed to that end.
+     *
+     * @param file information regarding a file to process: the path to the archive and the name of the entry
+     * @return the decompressed size of an entry of the archive in bytes, -1 if it is not known
+     */
+    @Override
+    public long getFileSize(RawFileInfo file) {
+        if (file.getPath() == null || file.getFilename() == null) {
+            return -1;
+        }
+        try {
+            final Path inflatedFile = inflatedFilePerFilename.get(file.getFilename());
+            if (inflatedFile != null) {
+                return Files.size(inflatedFile);
+            }
+            final ZipEntry entry = getZipFile(file.getPath()).getEntry(file.getFilename());
+            return entry == null || entry.isDirectory() ? -1 : entry.getSize();
+        } catch (IOException e) {
+            corruptFilenameSet.add(file.getFilename());
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the temporary file an entry of the archive is decompressed to, decompressing it the first time. A file
+     * that can not be written entirely, for instance if the disk is full, is deleted and null is returned.
+     *
+     * @param file information regarding a file to process: the path to the archive and the name of the entry
+     * @return the temporary file the entry is decompressed to, null if it can not be written
+     * @throws IOException if the archive can not be read or the entry can not be decompressed
+     */
+    private synchronized Path getInflatedFile(final RawFileInfo file) throws IOException {
+        Path toReturn = inflatedFilePerFilename.get(file.getFilename());
+        if (toReturn != null) {
+            return toReturn;
+        }
+        final ZipFile zipFile = getZipFile(file.getPath());
+        final ZipEntry entry = zipFile.getEntry(file.getFilename());
+        toReturn = Files.createTempFile("gtfs-validator-", ".txt");
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            Files.copy(inputStream, toReturn, StandardCopyOption.REPLACE_EXISTING);
+        } catch (ZipException | EOFException e) {
+            // corrupt or truncated entry
+            Files.deleteIfExists(toReturn);
+            throw e;
+        } catch (IOException e) {
+            Files.deleteIfExists(toReturn);
+            return null;
+        }
+        inflatedFilePerFilename.put(file.getFilename(), toReturn);
+        return toReturn;
+    }
+
+    /**
+     * Returns the archive located at the given path. Archives are opened once: reading the central directory again
+     * for each file would be wasteful.
+     *
+     * @param path the path to the zipped archive
+     * @return the archive located at the given path
+     * @throws IOException if the archive can not be opened
+     */
+    private synchronized ZipFile getZipFile(final String path) throws IOException {
+        ZipFile zipFile = zipFilePerPath.get(path);
+        if (zipFile == null) {
+            zipFile = new ZipFile(path);
+            zipFilePerPath.put(path, zipFile);
+        }
+        return zipFile;
+    }
+}
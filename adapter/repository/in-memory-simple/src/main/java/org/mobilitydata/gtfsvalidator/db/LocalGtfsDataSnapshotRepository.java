@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataSnapshotRepository;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Holds snapshots of the GTFS data loaded from archives in a local directory, one file per key, in the format described
+ * in {@link GtfsDataSnapshotFormat}, followed by the CRC-32C checksum of the snapshot. The checksum is verified before
+ * the data repository is modified: snapshots that are truncated, corrupted or written by another version of the
+ * validator are treated as missing. Snapshots are evicted the same way as the results of previous validations.
+ * This is created when creating a new default configuration, the directory being provided via execution parameter.
+ */
+public class LocalGtfsDataSnapshotRepository implements GtfsDataSnapshotRepository {
+    static final String FILE_EXTENSION = ".snapshot";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private final Path cacheDirectory;
+    private final CacheDirectoryEviction eviction;
+
+    /**
+     * @param cacheDirectory the directory holding the snapshots, null to disable snapshots
+     * @param maxByteCount   the maximum total size of the snapshots in bytes
+     * @param maxAge         the maximum age of a snapshot
+     */
+    public LocalGtfsDataSnapshotRepository(final String cacheDirectory,
+                                           final long maxByteCount,
+                                           final Duration maxAge) {
+        this.cacheDirectory = cacheDirectory != null ? Path.of(cacheDirectory) : null;
+        this.eviction = new CacheDirectoryEviction(this.cacheDirectory, FILE_EXTENSION, maxByteCount, maxAge);
+    }
+
+    /**
+     * Loads the snapshot kept under the given key into a {@link GtfsDataRepository}, which is expected to be empty.
+     * Returns the result of the loading of the data of the snapshot, empty if there is no snapshot, if it has expired
+     * or if it can not be read, in which case the data repository is not modified.
+     *
+     * @param key          the key computed from the archive, the validator and the GTFS specification
+     * @param gtfsDataRepo the repository to load the data of the snapshot into
+     * @return the result of the loading of the data of the snapshot, empty if no snapshot can be loaded
+     */
+    @Override
+    public Optional<CachedValidationResult> loadByKey(final String key, final GtfsDataRepository gtfsDataRepo) {
+        if (cacheDirectory == null) {
+            return Optional.empty();
+        }
+        final Path snapshotFile = cacheDirectory.resolve(key + FILE_EXTENSION);
+        try {
+            if (!Files.isRegularFile(snapshotFile) || eviction.isExpired(Files.getLastModifiedTime(snapshotFile)) ||
+                    !hasValidChecksum(snapshotFile)) {
+                CacheDirectoryEviction.deleteQuietly(snapshotFile);
+                return Optional.empty();
+            }
+            try (DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(snapshotFile), BUFFER_SIZE))) {
+                return Optional.of(GtfsDataSnapshotFormat.read(input, gtfsDataRepo));
+            }
+        } catch (IOException e) {
+            CacheDirectoryEviction.deleteQuietly(snapshotFile);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves a snapshot of the content of a {@link GtfsDataRepository} under the given key, then evicts expired
+     * snapshots and the oldest snapshots if they exceed their maximum size. The snapshot is written to a temporary file
+     * first, so that a snapshot being written is never read.
+     *
+     * @param key           the key computed from the archive, the validator and the GTFS specification
+     * @param gtfsDataRepo  the repository to save the content of
+     * @param loadingResult the result of the loading of the data of the repository
+     * @throws IOException if the snapshot can not be written
+     */
+    @Override
+    public void save(final String key,
+                     final GtfsDataRepository gtfsDataRepo,
+                     final CachedValidationResult loadingResult) throws IOException {
+        if (cacheDirectory == null) {
+            return;
+        }
+        Files.createDirectories(cacheDirectory);
+        final Path tempFile = Files.createTempFile(cacheDirectory, key, ".tmp");
+        try {
+            try (CheckedOutputStream checkedOutput =
+                         new CheckedOutputStream(Files.newOutputStream(tempFile), new CRC32C());
+                 DataOutputStream output =
+                         new DataOutputStream(new BufferedOutputStream(checkedOutput, BUFFER_SIZE))) {
+                GtfsDataSnapshotFormat.write(output, gtfsDataRepo, loadingResult);
+                output.flush();
+                output.writeLong(checkedOutput.getChecksum().getValue());
+            }
+            Files.move(tempFile, cacheDirectory.resolve(key + FILE_EXTENSION), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            CacheDirectoryEviction.deleteQuietly(tempFile);
+        }
+        eviction.evict();
+    }
+
+    /**
+     * Reads a snapshot sequentially to verify that its checksum, stored in its last bytes, matches its content
+     */
+    private static boolean hasValidChecksum(final Path snapshotFile) throws IOException {
+        long remainingByteCount = Files.size(snapshotFile) - Long.BYTES;
+        if (remainingByteCount < GtfsDataSnapshotFormat.MAGIC.length) {
+            return false;
+        }
+        final CRC32C checksum = new CRC32C();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(snapshotFile))) {
+            while (remainingByteCount > 0) {
+                final int readByteCount = (int) Math.min(buffer.length, remainingByteCount);
+                input.readFully(buffer, 0, readByteCount);
+                checksum.update(buffer, 0, readByteCount);
+                remainingByteCount -= readByteCount;
+            }
+            return input.readLong() == checksum.getValue();
+        }
+    }
+}
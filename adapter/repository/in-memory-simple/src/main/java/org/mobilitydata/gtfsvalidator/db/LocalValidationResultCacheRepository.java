@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultCacheRepository;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Holds the results of previous validations in a local directory, one file per key. Results older than a given age are
+ * evicted, as well as the oldest results once the total size of the directory exceeds a given number of bytes.
+ * Results that can not be read, for instance because they were written by another version of the validator or hold
+ * classes that are not part of a validation result, are treated as missing.
+ * This is created when creating a new default configuration, the directory being provided via execution parameter.
+ */
+public class LocalValidationResultCacheRepository implements ValidationResultCacheRepository {
+    static final String FILE_EXTENSION = ".result";
+    private final Path cacheDirectory;
+    private final CacheDirectoryEviction eviction;
+
+    /**
+     * @param cacheDirectory the directory holding the results of previous validations, null to disable the cache
+     * @param maxByteCount   the maximum total size of the cached results in bytes
+     * @param maxAge         the maximum age of a cached result
+     */
+    public LocalValidationResultCacheRepository(final String cacheDirectory,
+                                                final long maxByteCount,
+                                                final Duration maxAge) {
+        this.cacheDirectory = cacheDirectory != null ? Path.of(cacheDirectory) : null;
+        this.eviction = new CacheDirectoryEviction(this.cacheDirectory, FILE_EXTENSION, maxByteCount, maxAge);
+    }
+
+    /**
+     * Returns the validation result cached under the given key, empty if there is none or if it has expired
+     *
+     * @param key the key computed from the archive, the validator and the GTFS specification
+     * @return the validation result cached under the given key, empty if there is none or if it has expired
+     */
+    @Override
+    public Optional<CachedValidationResult> findByKey(final String key) {
+        if (cacheDirectory == null) {
+            return Optional.empty();
+        }
+        final Path cachedFile = cacheDirectory.resolve(key + FILE_EXTENSION);
+        try {
+            if (!Files.isRegularFile(cachedFile) || eviction.isExpired(Files.getLastModifiedTime(cachedFile))) {
+                return Optional.empty();
+            }
+            try (ObjectInputStream inputStream = CachedObjectFilter.restrict(
+                    new ObjectInputStream(new BufferedInputStream(Files.newInputStream(cachedFile))))) {
+                return Optional.of((CachedValidationResult) inputStream.readObject());
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            CacheDirectoryEviction.deleteQuietly(cachedFile);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves a validation result under the given key, then evicts expired results and the oldest results if the cache
+     * exceeds its maximum size. The result is written to a temporary file first, so that a result being written is
+     * never read.
+     *
+     * @param key    the key computed from the archive, the validator and the GTFS specification
+     * @param result the validation result to cache
+     * @throws IOException if the result can not be written
+     */
+    @Override
+    public void save(final String key, final CachedValidationResult result) throws IOException {
+        if (cacheDirectory == null) {
+            return;
+        }
+        Files.createDirectories(cacheDirectory);
+        final Path tempFile = Files.createTempFile(cacheDirectory, key, ".tmp");
+        try {
+            try (ObjectOutputStream outputStream =
+                         new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                outputStream.writeObject(result);
+            }
+            Files.move(tempFile, cacheDirectory.resolve(key + FILE_EXTENSION), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            CacheDirectoryEviction.deleteQuietly(tempFile);
+        }
+        eviction.evict();
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+
+import java.util.*;
+
+/**
+ * Holds the rows of shapes.txt packed per shape rather than as {@link ShapePoint} objects: each shape holds arrays of
+ * latitudes, longitudes, shape_pt_sequence and shape_dist_traveled values. Points are appended in the order they are
+ * added and sorted by shape_pt_sequence once, the first time the shape is read after being loaded. When a whole file
+ * is loaded, points can instead be appended without checking for duplicates, each shape then being sorted and rid of
+ * its duplicated points once, at the end of the file. Shapes are read through {@link ShapeView} backed by these
+ * arrays, or materialized as {@link ShapePoint} objects on demand.
+ */
+final class ShapeTable {
+    private static final int INITIAL_POINT_CAPACITY = 16;
+
+    private Map<String, PackedShape> shapePerId = new HashMap<>();
+
+    /**
+     * Replaces the map of the shapes with a map sized from the number of points provided as parameter, if no point
+     * has been added yet. The number of shapes is not known before shapes.txt is loaded: the map is sized for as many
+     * shapes as would fill their initial arrays, which shapes of a few dozen points or more do not outgrow.
+     *
+     * @param expectedPointCount the number of rows expected in shapes.txt
+     */
+    void reservePoints(final int expectedPointCount) {
+        final int expectedShapeCount = expectedPointCount / INITIAL_POINT_CAPACITY;
+        if (shapePerId.isEmpty() && expectedShapeCount > 0) {
+            // the default load factor of a HashMap is 0.75
+            shapePerId = new HashMap<>(expectedShapeCount * 4 / 3 + 1);
+        }
+    }
+
+    /**
+     * Adds a point to its shape, unless the shape already holds a point with the same shape_pt_sequence
+     *
+     * @param shapePoint the point to add
+     * @return true if the point was added, false if it is a duplicate
+     */
+    boolean add(final ShapePoint shapePoint) {
+        return shapePerId.computeIfAbsent(shapePoint.getShapeId(), PackedShape::new).add(shapePoint);
+    }
+
+    /**
+     * Appends a point to its shape without checking whether the shape already holds a point with the same
+     * shape_pt_sequence. {@link #completeAppend()} is to be called before the table is read or a point is added with
+     * {@link #add(ShapePoint)}.
+     *
+     * @param shapePoint the point to append
+     */
+    void append(final ShapePoint shapePoint) {
+        shapePerId.computeIfAbsent(shapePoint.getShapeId(), PackedShape::new).append(shapePoint);
+    }
+
+    /**
+     * Sorts the points of each shape by ascending shape_pt_sequence, and removes the points that have the same
+     * shape_pt_sequence as a point appended before them in the same shape
+     *
+     * @return the points removed, shape by shape, in the order they were appended
+     */
+    List<ShapePoint> completeAppend() {
+        final List<ShapePoint> toReturn = new ArrayList<>();
+        shapePerId.values().forEach(shape -> shape.sortAndRemoveDuplicates(toReturn));
+        return toReturn;
+    }
+
+    /**
+     * Returns a view of a shape, null if the table holds no point for said shape
+     *
+     * @param shapeId identifies a shape
+     * @return a view of a shape, null if the table holds no point for said shape
+     */
+    ShapeView view(final String shapeId) {
+        final PackedShape shape = shapePerId.get(shapeId);
+        return shape == null ? null : shape.sorted();
+    }
+
+    /**
+     * Returns a view of each shape of the table
+     *
+     * @return a view of each shape of the table
+     */
+    Collection<ShapeView> views() {
+        final List<ShapeView> toReturn = new ArrayList<>(shapePerId.size());
+        shapePerId.values().forEach(shape -> toReturn.add(shape.sorted()));
+        return toReturn;
+    }
+
+    /**
+     * Returns the points of a shape as {@link ShapePoint} objects mapped on their shape_pt_sequence, null if the table
+     * holds no point for said shape
+     *
+     * @param shapeId identifies a shape
+     * @return the points of a shape mapped on their shape_pt_sequence, null if the table holds no point for said shape
+     */
+    SortedMap<Integer, ShapePoint> toSortedMap(final String shapeId) {
+        final PackedShape shape = shapePerId.get(shapeId);
+        return shape == null ? null : shape.sorted().toSortedMap();
+    }
+
+    /**
+     * Returns a read-only view of the table as a map of the points of each shape. Points are materialized as
+     * {@link ShapePoint} objects each time a shape is read from the view, and are not held by the table.
+     *
+     * @return a read-only view of the table as a map of the points of each shape
+     */
+    Map<String, SortedMap<Integer, ShapePoint>> asMap() {
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<String, SortedMap<Integer, ShapePoint>>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, SortedMap<Integer, ShapePoint>>> iterator() {
+                        final Iterator<PackedShape> shapeIterator = shapePerId.values().iterator();
+                        return new Iterator<>() {
+                            @Override
+                            public boolean hasNext() {
+                                return shapeIterator.hasNext();
+                            }
+
+                            @Override
+                            public Entry<String, SortedMap<Integer, ShapePoint>> next() {
+                                final PackedShape shape = shapeIterator.next().sorted();
+                                return new SimpleImmutableEntry<>(shape.shapeId, shape.toSortedMap());
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return shapePerId.size();
+                    }
+                };
+            }
+
+            @Override
+            public boolean containsKey(final Object shapeId) {
+                return shapePerId.containsKey(shapeId);
+            }
+
+            @Override
+            public SortedMap<Integer, ShapePoint> get(final Object shapeId) {
+                return shapeId instanceof String ? toSortedMap((String) shapeId) : null;
+            }
+
+            @Override
+            public int size() {
+                return shapePerId.size();
+            }
+        };
+    }
+
+    /**
+     * The points of a shape. Points usually come by ascending shape_pt_sequence, in which case duplicates are
+     * detected by comparing a point with the last one. Once a point comes out of order, the shape_pt_sequence
+     * values of the shape are held in a set until the points are sorted.
+     */
+    private static final class PackedShape implements ShapeView {
+        private final String shapeId;
+        private int size = 0;
+        private double[] latitudes = new double[INITIAL_POINT_CAPACITY];
+        private double[] longitudes = new double[INITIAL_POINT_CAPACITY];
+        private int[] sequences = new int[INITIAL_POINT_CAPACITY];
+        // NaN if the point has no shape_dist_traveled
+        private float[] distances = new float[INITIAL_POINT_CAPACITY];
+        private boolean isSorted = true;
+        private Set<Integer> sequenceSet = null;
+
+        private PackedShape(final String shapeId) {
+            this.shapeId = shapeId;
+        }
+
+        private boolean add(final ShapePoint shapePoint) {
+            final int sequence = shapePoint.getShapePtSequence();
+            if (sequenceSet == null && size > 0 && sequence <= sequences[size - 1]) {
+                sequenceSet = new HashSet<>(size * 2);
+                for (int i = 0; i < size; ++i) {
+                    sequenceSet.add(sequences[i]);
+                }
+            }
+            if (sequenceSet != null) {
+                if (!sequenceSet.add(sequence)) {
+                    return false;
+                }
+                isSorted &= sequence > sequences[size - 1];
+            }
+            store(shapePoint);
+            return true;
+        }
+
+        private void append(final ShapePoint shapePoint) {
+            isSorted &= size == 0 || shapePoint.getShapePtSequence() > sequences[size - 1];
+            store(shapePoint);
+        }
+
+        private void store(final ShapePoint shapePoint) {
+            if (size == sequences.length) {
+                resize(size * 2);
+            }
+            latitudes[size] = shapePoint.getShapePtLat();
+            longitudes[size] = shapePoint.getShapePtLon();
+            sequences[size] = shapePoint.getShapePtSequence();
+            distances[size] = shapePoint.getShapeDistTraveled() == null ? Float.NaN : shapePoint.getShapeDistTraveled();
+            size++;
+        }
+
+        /**
+         * Sorts the points by shape_pt_sequence if they were not added in that order, and trims the arrays
+         *
+         * @return this
+         */
+        private PackedShape sorted() {
+            if (!isSorted) {
+                sort(null);
+            } else if (size < sequences.length) {
+                resize(size);
+            }
+            sequenceSet = null;
+            return this;
+        }
+
+        /**
+         * Sorts the points by shape_pt_sequence if they were not appended in that order, and only keeps the first
+         * point appended of each shape_pt_sequence
+         *
+         * @param removedPointList the list the points removed are added to, in the order they were appended
+         */
+        private void sortAndRemoveDuplicates(final List<ShapePoint> removedPointList) {
+            if (!isSorted) {
+                sort(removedPointList);
+            }
+            sorted();
+        }
+
+        /**
+         * Sorts the points by shape_pt_sequence, then by index, which keeps points of the same shape_pt_sequence in
+         * the order they were added
+         *
+         * @param removedPointList if not null, only the first point of each shape_pt_sequence is kept and the others
+         *                         are added to this list, in the order they were added
+         */
+        private void sort(final List<ShapePoint> removedPointList) {
+            // shape_pt_sequence in the high bits, index in the low bits
+            final long[] keys = new long[size];
+            for (int i = 0; i < size; ++i) {
+                keys[i] = ((long) sequences[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            final double[] sortedLatitudes = new double[size];
+            final double[] sortedLongitudes = new double[size];
+            final int[] sortedSequences = new int[size];
+            final float[] sortedDistances = new float[size];
+            final SortedMap<Integer, ShapePoint> removedPointPerIndex = new TreeMap<>();
+            final ShapePoint.ShapeBuilder builder = new ShapePoint.ShapeBuilder();
+            int sortedSize = 0;
+            for (int i = 0; i < size; ++i) {
+                final int index = (int) keys[i];
+                if (removedPointList != null && sortedSize > 0 &&
+                        sortedSequences[sortedSize - 1] == sequences[index]) {
+                    removedPointPerIndex.put(index, toShapePoint(index, builder.clear()));
+                    continue;
+                }
+                sortedLatitudes[sortedSize] = latitudes[index];
+                sortedLongitudes[sortedSize] = longitudes[index];
+                sortedSequences[sortedSize] = sequences[index];
+                sortedDistances[sortedSize] = distances[index];
+                sortedSize++;
+            }
+            latitudes = sortedLatitudes;
+            longitudes = sortedLongitudes;
+            sequences = sortedSequences;
+            distances = sortedDistances;
+            size = sortedSize;
+            isSorted = true;
+            if (removedPointList != null) {
+                removedPointList.addAll(removedPointPerIndex.values());
+            }
+        }
+
+        private SortedMap<Integer, ShapePoint> toSortedMap() {
+            final SortedMap<Integer, ShapePoint> toReturn = new TreeMap<>();
+            final ShapePoint.ShapeBuilder builder = new ShapePoint.ShapeBuilder();
+            for (int i = 0; i < size; ++i) {
+                toReturn.put(sequences[i], toShapePoint(i, builder));
+            }
+            return toReturn;
+        }
+
+        private ShapePoint toShapePoint(final int index, final ShapePoint.ShapeBuilder builder) {
+            return (ShapePoint) builder
+                    .shapeId(shapeId)
+                    .shapePtLat((float) latitudes[index])
+                    .shapePtLon((float) longitudes[index])
+                    .shapePtSequence(sequences[index])
+                    .shapeDistTraveled(Float.isNaN(distances[index]) ? null : distances[index])
+                    .build()
+                    .getData();
+        }
+
+        private void resize(final int capacity) {
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+        }
+
+        @Override
+        public String getShapeId() {
+            return shapeId;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int getShapePtSequence(final int index) {
+            return sequences[checkIndex(index)];
+        }
+
+        @Override
+        public double getShapePtLat(final int index) {
+            return latitudes[checkIndex(index)];
+        }
+
+        @Override
+        public double getShapePtLon(final int index) {
+            return longitudes[checkIndex(index)];
+        }
+
+        @Override
+        public boolean hasShapeDistTraveled(final int index) {
+            return !Float.isNaN(distances[checkIndex(index)]);
+        }
+
+        @Override
+        public float getShapeDistTraveled(final int index) {
+            return distances[checkIndex(index)];
+        }
+
+        private int checkIndex(final int index) {
+            return Objects.checkIndex(index, size);
+        }
+    }
+}
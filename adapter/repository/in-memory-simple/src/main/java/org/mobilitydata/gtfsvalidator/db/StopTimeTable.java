@@ -0,0 +1,521 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.*;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
+
+import java.util.*;
+
+/**
+ * Holds the rows of stop_times.txt as columns of primitive values rather than as {@link StopTime} objects: times and
+ * stop sequences are held in {@code int} arrays, distances in a {@code float} array and enumerated values in
+ * {@code byte} arrays. Stop ids and stop headsigns, which are repeated on many rows, are held once in a dictionary and
+ * referred to by their index in said dictionary. Rows are grouped by trip_id: each trip holds the indexes of its rows,
+ * sorted by stop_sequence, which is how duplicated rows are detected while rows are added. When a whole file is
+ * loaded, rows can instead be appended to their trip without any lookup, each trip then being sorted and rid of its
+ * duplicated rows once, at the end of the file.
+ * Rows are read through a {@link StopTimeCursor} without materializing any object, or materialized as {@link StopTime}
+ * objects on demand, one trip at a time.
+ */
+final class StopTimeTable {
+    // sentinel values of missing optional values
+    private static final int NO_TIME = Integer.MIN_VALUE;
+    private static final int NO_CODE = -1;
+    private static final byte NO_ENUM_VALUE = -1;
+
+    // values() returns a new array on each call
+    private static final PickupType[] PICKUP_TYPES = PickupType.values();
+    private static final DropOffType[] DROP_OFF_TYPES = DropOffType.values();
+    private static final ContinuousPickup[] CONTINUOUS_PICKUPS = ContinuousPickup.values();
+    private static final ContinuousDropOff[] CONTINUOUS_DROP_OFFS = ContinuousDropOff.values();
+    private static final Timepoint[] TIMEPOINTS = Timepoint.values();
+
+    private static final int INITIAL_ROW_CAPACITY = 1024;
+    private static final int INITIAL_TRIP_ROW_CAPACITY = 8;
+
+    private int rowCount = 0;
+    private int[] arrivalTimes = new int[INITIAL_ROW_CAPACITY];
+    private int[] departureTimes = new int[INITIAL_ROW_CAPACITY];
+    private int[] stopSequences = new int[INITIAL_ROW_CAPACITY];
+    private int[] stopIdCodes = new int[INITIAL_ROW_CAPACITY];
+    private int[] stopHeadsignCodes = new int[INITIAL_ROW_CAPACITY];
+    private float[] shapeDistTraveled = new float[INITIAL_ROW_CAPACITY];
+    private byte[] pickupTypes = new byte[INITIAL_ROW_CAPACITY];
+    private byte[] dropOffTypes = new byte[INITIAL_ROW_CAPACITY];
+    private byte[] continuousPickups = new byte[INITIAL_ROW_CAPACITY];
+    private byte[] continuousDropOffs = new byte[INITIAL_ROW_CAPACITY];
+    private byte[] timepoints = new byte[INITIAL_ROW_CAPACITY];
+
+    private final Dictionary stopIdDictionary = new Dictionary();
+    private final Dictionary stopHeadsignDictionary = new Dictionary();
+    private Map<String, TripRows> rowsPerTripId = new HashMap<>();
+
+    /**
+     * Grows the columns so that they hold the number of rows provided as parameter without being copied again
+     *
+     * @param expectedRowCount the number of rows expected in stop_times.txt
+     */
+    void reserveRows(final int expectedRowCount) {
+        if (expectedRowCount > arrivalTimes.length) {
+            resize(expectedRowCount);
+        }
+    }
+
+    /**
+     * Replaces the map of the rows of each trip with a map sized for the number of trips provided as parameter, if no
+     * row has been added yet
+     *
+     * @param expectedTripCount the number of trips expected in trips.txt
+     */
+    void reserveTrips(final int expectedTripCount) {
+        if (rowsPerTripId.isEmpty() && expectedTripCount > 0) {
+            // the default load factor of a HashMap is 0.75
+            rowsPerTripId = new HashMap<>((int) Math.min((long) expectedTripCount * 4 / 3 + 1, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Adds a row to the table, unless the table already holds a row with the same trip_id and stop_sequence
+     *
+     * @param stopTime the row to add
+     * @return true if the row was added, false if it is a duplicate
+     */
+    boolean add(final StopTime stopTime) {
+        final TripRows tripRows = rowsPerTripId.computeIfAbsent(stopTime.getTripId(), tripId -> new TripRows());
+        final int position = tripRows.find(stopTime.getStopSequence());
+        if (position >= 0) {
+            return false;
+        }
+        tripRows.insert(-position - 1, store(stopTime));
+        return true;
+    }
+
+    /**
+     * Appends a row to the rows of its trip without checking whether the trip already holds a row with the same
+     * stop_sequence. Trips are left unsorted until {@link #completeAppend()} is called, which is to be done before
+     * the table is read or a row is added with {@link #add(StopTime)}.
+     *
+     * @param stopTime the row to append
+     */
+    void append(final StopTime stopTime) {
+        rowsPerTripId.computeIfAbsent(stopTime.getTripId(), tripId -> new TripRows()).append(store(stopTime));
+    }
+
+    /**
+     * Sorts the rows of each trip that were not appended by ascending stop_sequence, and removes the rows that have
+     * the same stop_sequence as a row appended before them in the same trip
+     *
+     * @return the rows removed, trip by trip, in the order they were appended
+     */
+    List<StopTime> completeAppend() {
+        final List<StopTime> toReturn = new ArrayList<>();
+        final StopTime.StopTimeBuilder builder = new StopTime.StopTimeBuilder();
+        rowsPerTripId.forEach((tripId, tripRows) -> {
+            if (!tripRows.isSorted) {
+                for (final int row : tripRows.sortAndRemoveDuplicates()) {
+                    toReturn.add(toStopTime(tripId, row, builder.clear()));
+                }
+            }
+        });
+        return toReturn;
+    }
+
+    /**
+     * Stores the values of a row in the columns of the table
+     *
+     * @param stopTime the row to store
+     * @return the index of the row in the columns
+     */
+    private int store(final StopTime stopTime) {
+        if (rowCount == arrivalTimes.length) {
+            resize(arrivalTimes.length * 2);
+        }
+        final int row = rowCount++;
+        arrivalTimes[row] = stopTime.getArrivalTime() == null ? NO_TIME : stopTime.getArrivalTime();
+        departureTimes[row] = stopTime.getDepartureTime() == null ? NO_TIME : stopTime.getDepartureTime();
+        stopSequences[row] = stopTime.getStopSequence();
+        stopIdCodes[row] = stopIdDictionary.encode(stopTime.getStopId());
+        stopHeadsignCodes[row] = stopHeadsignDictionary.encode(stopTime.getStopHeadsign());
+        shapeDistTraveled[row] =
+                stopTime.getShapeDistTraveled() == null ? Float.NaN : stopTime.getShapeDistTraveled();
+        pickupTypes[row] = encode(stopTime.getPickupType());
+        dropOffTypes[row] = encode(stopTime.getDropOffType());
+        continuousPickups[row] = encode(stopTime.getContinuousPickup());
+        continuousDropOffs[row] = encode(stopTime.getContinuousDropOff());
+        timepoints[row] = encode(stopTime.getTimePoint());
+        return row;
+    }
+
+    /**
+     * Returns the rows of a trip as {@link StopTime} objects mapped on their stop_sequence, null if the table holds
+     * no row for said trip
+     *
+     * @param tripId identifies a trip
+     * @return the rows of a trip mapped on their stop_sequence, null if the table holds no row for said trip
+     */
+    TreeMap<Integer, StopTime> toSortedMap(final String tripId) {
+        final TripRows tripRows = rowsPerTripId.get(tripId);
+        if (tripRows == null) {
+            return null;
+        }
+        final TreeMap<Integer, StopTime> toReturn = new TreeMap<>();
+        final StopTime.StopTimeBuilder builder = new StopTime.StopTimeBuilder();
+        for (int i = 0; i < tripRows.size; ++i) {
+            final StopTime stopTime = toStopTime(tripId, tripRows.rows[i], builder.clear());
+            toReturn.put(stopTime.getStopSequence(), stopTime);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Returns a read-only view of the table as a map of the rows of each trip. Rows are materialized as
+     * {@link StopTime} objects each time a trip is read from the view, and are not held by the table.
+     *
+     * @return a read-only view of the table as a map of the rows of each trip
+     */
+    Map<String, TreeMap<Integer, StopTime>> asMap() {
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<String, TreeMap<Integer, StopTime>>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, TreeMap<Integer, StopTime>>> iterator() {
+                        final Iterator<String> tripIdIterator = rowsPerTripId.keySet().iterator();
+                        return new Iterator<>() {
+                            @Override
+                            public boolean hasNext() {
+                                return tripIdIterator.hasNext();
+                            }
+
+                            @Override
+                            public Entry<String, TreeMap<Integer, StopTime>> next() {
+                                final String tripId = tripIdIterator.next();
+                                return new SimpleImmutableEntry<>(tripId, toSortedMap(tripId));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return rowsPerTripId.size();
+                    }
+                };
+            }
+
+            @Override
+            public boolean containsKey(final Object tripId) {
+                return rowsPerTripId.containsKey(tripId);
+            }
+
+            @Override
+            public TreeMap<Integer, StopTime> get(final Object tripId) {
+                return tripId instanceof String ? toSortedMap((String) tripId) : null;
+            }
+
+            @Override
+            public int size() {
+                return rowsPerTripId.size();
+            }
+        };
+    }
+
+    /**
+     * Returns a cursor over all rows of the table, trip by trip
+     *
+     * @return a cursor over all rows of the table, trip by trip
+     */
+    StopTimeCursor cursor() {
+        return new Cursor(rowsPerTripId.entrySet().iterator());
+    }
+
+    /**
+     * Returns a cursor over the rows of a trip, which has no row if the table holds no row for said trip
+     *
+     * @param tripId identifies a trip
+     * @return a cursor over the rows of a trip
+     */
+    StopTimeCursor cursor(final String tripId) {
+        final TripRows tripRows = rowsPerTripId.get(tripId);
+        return new Cursor(tripRows == null ?
+                Collections.emptyIterator() :
+                List.of(Map.entry(tripId, tripRows)).iterator());
+    }
+
+    private StopTime toStopTime(final String tripId, final int row, final StopTime.StopTimeBuilder builder) {
+        // the value of each enumerated type of stop_times.txt is its ordinal
+        return (StopTime) builder
+                .tripId(tripId)
+                .arrivalTime(arrivalTimes[row] == NO_TIME ? null : arrivalTimes[row])
+                .departureTime(departureTimes[row] == NO_TIME ? null : departureTimes[row])
+                .stopId(stopIdDictionary.decode(stopIdCodes[row]))
+                .stopSequence(stopSequences[row])
+                .stopHeadsign(stopHeadsignDictionary.decode(stopHeadsignCodes[row]))
+                .pickupType(decode(pickupTypes[row]))
+                .dropOffType(decode(dropOffTypes[row]))
+                .continuousPickup(decode(continuousPickups[row]))
+                .continuousDropOff(decode(continuousDropOffs[row]))
+                .shapeDistTraveled(Float.isNaN(shapeDistTraveled[row]) ? null : shapeDistTraveled[row])
+                .timepoint(decode(timepoints[row]))
+                .build()
+                .getData();
+    }
+
+    private void resize(final int capacity) {
+        arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+        departureTimes = Arrays.copyOf(departureTimes, capacity);
+        stopSequences = Arrays.copyOf(stopSequences, capacity);
+        stopIdCodes = Arrays.copyOf(stopIdCodes, capacity);
+        stopHeadsignCodes = Arrays.copyOf(stopHeadsignCodes, capacity);
+        shapeDistTraveled = Arrays.copyOf(shapeDistTraveled, capacity);
+        pickupTypes = Arrays.copyOf(pickupTypes, capacity);
+        dropOffTypes = Arrays.copyOf(dropOffTypes, capacity);
+        continuousPickups = Arrays.copyOf(continuousPickups, capacity);
+        continuousDropOffs = Arrays.copyOf(continuousDropOffs, capacity);
+        timepoints = Arrays.copyOf(timepoints, capacity);
+    }
+
+    private static byte encode(final Enum<?> value) {
+        return value == null ? NO_ENUM_VALUE : (byte) value.ordinal();
+    }
+
+    private static Integer decode(final byte value) {
+        return value == NO_ENUM_VALUE ? null : (int) value;
+    }
+
+    private static <E> E decode(final E[] values, final byte value) {
+        return value == NO_ENUM_VALUE ? null : values[value];
+    }
+
+    /**
+     * The indexes of the rows of a trip, sorted by stop_sequence unless rows were appended out of order. Rows of a
+     * trip usually come in order, in which case a row is appended.
+     */
+    private final class TripRows {
+        private int[] rows = new int[INITIAL_TRIP_ROW_CAPACITY];
+        private int size = 0;
+        // false once a row is appended with a stop_sequence that is not greater than the one of the last row
+        private boolean isSorted = true;
+
+        /**
+         * Returns the position of the row with the given stop_sequence, or (-(insertion point) - 1) if there is none,
+         * as {@link Arrays#binarySearch(int[], int)} does
+         */
+        private int find(final int stopSequence) {
+            if (size == 0 || stopSequences[rows[size - 1]] < stopSequence) {
+                return -size - 1;
+            }
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int middleSequence = stopSequences[rows[middle]];
+                if (middleSequence < stopSequence) {
+                    low = middle + 1;
+                } else if (middleSequence > stopSequence) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+
+        private void insert(final int position, final int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            System.arraycopy(rows, position, rows, position + 1, size - position);
+            rows[position] = row;
+            size++;
+        }
+
+        private void append(final int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            isSorted &= size == 0 || stopSequences[rows[size - 1]] < stopSequences[row];
+            rows[size++] = row;
+        }
+
+        /**
+         * Sorts the rows by stop_sequence, then by index, and only keeps the first row of each stop_sequence. Rows
+         * are indexed in the order they are added, hence the row kept is the one appended first.
+         *
+         * @return the indexes of the rows removed, in the order they were appended
+         */
+        private int[] sortAndRemoveDuplicates() {
+            // stop_sequence in the high bits, index in the low bits
+            final long[] keys = new long[size];
+            for (int i = 0; i < size; ++i) {
+                keys[i] = ((long) stopSequences[rows[i]] << 32) | rows[i];
+            }
+            Arrays.sort(keys);
+            // grown like rows: trips with many duplicates do not copy the removed rows once per duplicate
+            int[] removedRows = new int[0];
+            int removedCount = 0;
+            int keptCount = 0;
+            for (int i = 0; i < size; ++i) {
+                final int row = (int) keys[i];
+                if (keptCount > 0 && stopSequences[rows[keptCount - 1]] == stopSequences[row]) {
+                    if (removedCount == removedRows.length) {
+                        removedRows = Arrays.copyOf(removedRows, Math.max(4, removedCount * 2));
+                    }
+                    removedRows[removedCount++] = row;
+                } else {
+                    rows[keptCount++] = row;
+                }
+            }
+            size = keptCount;
+            isSorted = true;
+            removedRows = Arrays.copyOf(removedRows, removedCount);
+            Arrays.sort(removedRows);
+            return removedRows;
+        }
+    }
+
+    /**
+     * Maps values to consecutive codes and back
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codePerValue = new HashMap<>();
+        private final List<String> valueList = new ArrayList<>();
+
+        private int encode(final String value) {
+            if (value == null) {
+                return NO_CODE;
+            }
+            Integer code = codePerValue.get(value);
+            if (code == null) {
+                code = valueList.size();
+                codePerValue.put(value, code);
+                valueList.add(value);
+            }
+            return code;
+        }
+
+        private String decode(final int code) {
+            return code == NO_CODE ? null : valueList.get(code);
+        }
+    }
+
+    /**
+     * A flyweight positioned on one row of the table at a time
+     */
+    private final class Cursor implements StopTimeCursor {
+        private final Iterator<Map.Entry<String, TripRows>> tripIterator;
+        private String tripId;
+        private TripRows tripRows;
+        private int position;
+        private int row;
+
+        private Cursor(final Iterator<Map.Entry<String, TripRows>> tripIterator) {
+            this.tripIterator = tripIterator;
+        }
+
+        @Override
+        public boolean next() {
+            while (tripRows == null || ++position >= tripRows.size) {
+                if (!tripIterator.hasNext()) {
+                    tripRows = null;
+                    return false;
+                }
+                final Map.Entry<String, TripRows> entry = tripIterator.next();
+                tripId = entry.getKey();
+                tripRows = entry.getValue();
+                position = -1;
+            }
+            row = tripRows.rows[position];
+            return true;
+        }
+
+        @Override
+        public String getTripId() {
+            return tripId;
+        }
+
+        @Override
+        public int getStopSequence() {
+            return stopSequences[row];
+        }
+
+        @Override
+        public String getStopId() {
+            return stopIdDictionary.decode(stopIdCodes[row]);
+        }
+
+        @Override
+        public boolean hasArrivalTime() {
+            return arrivalTimes[row] != NO_TIME;
+        }
+
+        @Override
+        public int getArrivalTime() {
+            return arrivalTimes[row];
+        }
+
+        @Override
+        public boolean hasDepartureTime() {
+            return departureTimes[row] != NO_TIME;
+        }
+
+        @Override
+        public int getDepartureTime() {
+            return departureTimes[row];
+        }
+
+        @Override
+        public String getStopHeadsign() {
+            return stopHeadsignDictionary.decode(stopHeadsignCodes[row]);
+        }
+
+        @Override
+        public PickupType getPickupType() {
+            return decode(PICKUP_TYPES, pickupTypes[row]);
+        }
+
+        @Override
+        public DropOffType getDropOffType() {
+            return decode(DROP_OFF_TYPES, dropOffTypes[row]);
+        }
+
+        @Override
+        public ContinuousPickup getContinuousPickup() {
+            return decode(CONTINUOUS_PICKUPS, continuousPickups[row]);
+        }
+
+        @Override
+        public ContinuousDropOff getContinuousDropOff() {
+            return decode(CONTINUOUS_DROP_OFFS, continuousDropOffs[row]);
+        }
+
+        @Override
+        public boolean hasShapeDistTraveled() {
+            return !Float.isNaN(shapeDistTraveled[row]);
+        }
+
+        @Override
+        public float getShapeDistTraveled() {
+            return shapeDistTraveled[row];
+        }
+
+        @Override
+        public Timepoint getTimepoint() {
+            return decode(TIMEPOINTS, timepoints[row]);
+        }
+    }
+}
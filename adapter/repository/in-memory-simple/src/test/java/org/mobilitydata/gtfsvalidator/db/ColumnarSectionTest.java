@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mobilitydata.gtfsvalidator.db.ColumnarSection.ColumnType.*;
+
+class ColumnarSectionTest {
+
+    private static byte[] writeRows(final int rowCount) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(content);
+        final ColumnarSection.Writer underTest = new ColumnarSection.Writer(output, STRING, INT, FLOAT);
+        for (int i = 0; i < rowCount; ++i) {
+            underTest.putString(i % 3 == 0 ? null : "value " + i % 100).putInt(i).putFloat(i / 2f).endRow();
+        }
+        underTest.finish();
+        output.writeUTF("next section");
+        output.flush();
+        return content.toByteArray();
+    }
+
+    @Test
+    void rowsSpanningSeveralBlocksShouldBeReadInOrder() throws IOException {
+        final int rowCount = 2 * ColumnarSection.BLOCK_ROW_COUNT + 1000;
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(writeRows(rowCount)));
+        final ColumnarSection.Reader underTest = new ColumnarSection.Reader(input, STRING, INT, FLOAT);
+
+        int count = 0;
+        while (underTest.nextRow()) {
+            assertEquals(count % 3 == 0 ? null : "value " + count % 100, underTest.getString());
+            assertEquals(count, underTest.getInt());
+            assertEquals(count / 2f, underTest.getFloat());
+            count++;
+        }
+        assertEquals(rowCount, count);
+        assertEquals("next section", input.readUTF());
+    }
+
+    @Test
+    void skippedSectionShouldBePositionedOnNextSection() throws IOException {
+        final DataInputStream input =
+                new DataInputStream(new ByteArrayInputStream(writeRows(ColumnarSection.BLOCK_ROW_COUNT + 1)));
+
+        ColumnarSection.skip(input);
+
+        assertEquals("next section", input.readUTF());
+    }
+
+    @Test
+    void unexpectedColumnsShouldThrowException() throws IOException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(writeRows(10)));
+        final ColumnarSection.Reader underTest = new ColumnarSection.Reader(input, STRING, INT, INT);
+
+        assertThrows(IOException.class, underTest::nextRow);
+    }
+
+    @Test
+    void incompleteRowShouldThrowException() {
+        final ColumnarSection.Writer underTest =
+                new ColumnarSection.Writer(new DataOutputStream(new ByteArrayOutputStream()), STRING, INT);
+        underTest.putString("value");
+
+        assertThrows(IllegalStateException.class, underTest::endRow);
+    }
+}
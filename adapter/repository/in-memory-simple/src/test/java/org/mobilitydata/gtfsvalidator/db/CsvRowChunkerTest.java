@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRowChunkerTest {
+    private static final String CONTENT = "\uFEFFstop_id,stop_name,stop_desc\r\n" +
+            "stop0,\"first, \"\"quoted\"\"\r\nstop\",\r\n" +
+            "stop1,\"multi\nline\n\" ,desc\n" +
+            "\n" +
+            "stop2,\"\"\"\n\",\r" +
+            "stop3\r\n" +
+            "stop4,été\n" +
+            "stop5,5\" screen,\"\n\"\n" +
+            "\"stop6\"\"\",\"\n\"\n";
+
+    private static List<String> describeRows(final List<RawFileRepository.RawEntityProvider> providerList) {
+        final List<String> toReturn = new ArrayList<>();
+        for (final RawFileRepository.RawEntityProvider provider : providerList) {
+            while (provider.hasNext()) {
+                final RawEntity rawEntity = provider.getNext();
+                final StringBuilder description = new StringBuilder().append(rawEntity.getIndex());
+                for (final String header : provider.getHeaders()) {
+                    description.append('|').append(rawEntity.get(header));
+                }
+                toReturn.add(description.append('|').append(rawEntity.size()).toString());
+            }
+        }
+        return toReturn;
+    }
+
+    @Test
+    void chunksShouldProvideTheSameRowsAsTheWholeFile(@TempDir final Path tempDir) throws IOException {
+        final byte[] content = CONTENT.getBytes(StandardCharsets.UTF_8);
+        final Path file = tempDir.resolve("stops.txt");
+        Files.write(file, content);
+        final List<String> expected =
+                describeRows(List.of(new CsvRowRawEntityProvider(new ByteArrayInputStream(content))));
+
+        for (int chunkByteCount = 1; chunkByteCount <= content.length; ++chunkByteCount) {
+            final List<RawFileRepository.RawEntityProvider> fromByteArray = CsvRowChunker.split(
+                    (startOffset, endOffset) -> new CsvRowTokenizer.ByteArrayByteSource(content, (int) startOffset,
+                            (int) endOffset),
+                    content.length,
+                    chunkByteCount);
+            assertEquals(expected, describeRows(fromByteArray));
+
+            final List<RawFileRepository.RawEntityProvider> fromMappedFile = CsvRowChunker.split(
+                    (startOffset, endOffset) -> new CsvRowTokenizer.MappedFileByteSource(file, startOffset, endOffset,
+                            3),
+                    content.length,
+                    chunkByteCount);
+            assertEquals(expected, describeRows(fromMappedFile));
+        }
+    }
+
+    @Test
+    void chunksShouldOnlyBeOpenedOnceRead() throws IOException {
+        final byte[] content = CONTENT.getBytes(StandardCharsets.UTF_8);
+        final List<long[]> openedRangeList = new ArrayList<>();
+
+        final List<RawFileRepository.RawEntityProvider> underTest = CsvRowChunker.split(
+                (startOffset, endOffset) -> {
+                    openedRangeList.add(new long[]{startOffset, endOffset});
+                    return new CsvRowTokenizer.ByteArrayByteSource(content, (int) startOffset, (int) endOffset);
+                },
+                content.length,
+                (content.length + 1) / 2);
+
+        assertEquals(2, underTest.size());
+        // the byte order mark and the headers are read from the start of the file
+        assertEquals(2, openedRangeList.size());
+        assertEquals(List.of("stop_id", "stop_name", "stop_desc"), underTest.get(1).getHeaders());
+        assertEquals(2, openedRangeList.size());
+
+        assertTrue(underTest.get(1).hasNext());
+        assertTrue(openedRangeList.size() > 2);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowRawEntityProviderTest {
+    private static final String CONTENT = "\uFEFF stop_id ,stop_name,stop_desc\r\n" +
+            "stop0,\"first, \"\"quoted\"\" stop\",\r\n" +
+            "stop1,\"multi\nline\" ,desc\n" +
+            "\n" +
+            "stop2,été";
+
+    private static CsvRowRawEntityProvider fromStream(final String content) throws IOException {
+        return new CsvRowRawEntityProvider(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertContent(final CsvRowRawEntityProvider underTest) {
+        assertEquals(List.of("stop_id", "stop_name", "stop_desc"), underTest.getHeaders());
+        assertEquals(3, underTest.getHeaderCount());
+
+        RawEntity row = underTest.getNext();
+        assertEquals(3, row.getIndex());
+        assertEquals(3, row.size());
+        assertEquals("stop0", row.get("stop_id"));
+        assertEquals("first, \"quoted\" stop", row.get("stop_name"));
+        assertEquals("first, \"quoted\" stop", row.get(1));
+        assertEquals("", row.get("stop_desc"));
+        assertNull(row.get("stop_url"));
+        assertNull(row.get(3));
+
+        row = underTest.getNext();
+        assertEquals(5, row.getIndex());
+        assertEquals("multi\nline", row.get("stop_name"));
+        assertEquals("desc", row.get(2));
+
+        // the empty line is skipped
+        row = underTest.getNext();
+        assertEquals(6, row.getIndex());
+        assertEquals("été", row.get("stop_name"));
+        assertNull(row.get("stop_desc"));
+        assertFalse(underTest.hasNext());
+    }
+
+    @Test
+    void rowsShouldBeTokenizedFromStream() throws IOException {
+        assertContent(fromStream(CONTENT));
+    }
+
+    @Test
+    void closeShouldReleaseStreamNotReadEntirely() throws IOException {
+        final boolean[] isClosed = {false};
+        final CsvRowRawEntityProvider underTest = new CsvRowRawEntityProvider(
+                new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)) {
+                    @Override
+                    public void close() throws IOException {
+                        isClosed[0] = true;
+                        super.close();
+                    }
+                });
+        assertTrue(underTest.hasNext());
+        assertFalse(isClosed[0]);
+
+        underTest.close();
+
+        assertTrue(isClosed[0]);
+    }
+
+    @Test
+    void rowsShouldBeTokenizedFromMappedFile(@TempDir final Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("stops.txt"), CONTENT);
+
+        assertContent(new CsvRowRawEntityProvider(
+                RawFileInfo.builder().filename("stops.txt").path(tempDir.toString()).build()));
+    }
+
+    @Test
+    void rowsSpanningWindowsShouldBeTokenizedAsAWhole(@TempDir final Path tempDir) throws IOException {
+        final Path file = tempDir.resolve("stops.txt");
+        Files.writeString(file, CONTENT);
+
+        for (int windowSize = 1; windowSize < 8; ++windowSize) {
+            final CsvRowRawEntityProvider fromMappedFile = new CsvRowRawEntityProvider(new CsvRowTokenizer(
+                    new CsvRowTokenizer.MappedFileByteSource(file, windowSize)));
+            assertContent(fromMappedFile);
+
+            final CsvRowRawEntityProvider fromStream = new CsvRowRawEntityProvider(new CsvRowTokenizer(
+                    new CsvRowTokenizer.StreamByteSource(Files.newInputStream(file), windowSize)));
+            assertContent(fromStream);
+        }
+    }
+
+    @Test
+    void emptyHeaderLineShouldThrowException() {
+        assertThrows(IOException.class, () -> fromStream(""));
+        assertThrows(IOException.class, () -> fromStream("\nstop_id\n"));
+    }
+
+    @Test
+    void fileWithoutRowShouldHaveNoNext() throws IOException {
+        final CsvRowRawEntityProvider underTest = fromStream("stop_id,stop_name\n");
+
+        assertEquals(List.of("stop_id", "stop_name"), underTest.getHeaders());
+        assertFalse(underTest.hasNext());
+    }
+
+    @Test
+    void rowsShouldStayReadableOnceFollowingRowsAreRead() throws IOException {
+        final StringBuilder content = new StringBuilder("stop_id,stop_name\n");
+        final int rowCount = 20_000;
+        for (int i = 0; i < rowCount; ++i) {
+            content.append("stop").append(i).append(",name").append(i).append('\n');
+        }
+        final CsvRowRawEntityProvider underTest = fromStream(content.toString());
+
+        // rows are copied to arrays shared by consecutive rows, which are filled several times over
+        final List<RawEntity> rowList = new ArrayList<>();
+        while (underTest.hasNext()) {
+            rowList.add(underTest.getNext());
+        }
+
+        assertEquals(rowCount, rowList.size());
+        for (int i = 0; i < rowCount; ++i) {
+            assertEquals(2, rowList.get(i).size());
+            assertEquals("stop" + i, rowList.get(i).get("stop_id"));
+            assertEquals("name" + i, rowList.get(i).get(1));
+        }
+    }
+}
@@ -30,6 +30,8 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.transfers.Transfer;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.translations.TableName;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.translations.Translation;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -269,6 +271,22 @@ class InMemoryGtfsDataRepositoryTest {
         assertEquals(mockLevel01, underTest.getLevelById("level id 1"));
     }
 
+    @Test
+    void getLevelAllShouldReturnLevelCollection() {
+        final Level mockLevel00 = mock(Level.class);
+        final Level mockLevel01 = mock(Level.class);
+        when(mockLevel00.getLevelId()).thenReturn("level id 0");
+        when(mockLevel01.getLevelId()).thenReturn("level id 1");
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+
+        underTest.addLevel(mockLevel00);
+        underTest.addLevel(mockLevel01);
+
+        assertEquals(2, underTest.getLevelAll().size());
+        assertEquals(mockLevel00, underTest.getLevelAll().get("level id 0"));
+        assertEquals(mockLevel01, underTest.getLevelAll().get("level id 1"));
+    }
+
     @Test
     void addSameCalendarTwiceShouldReturnNull() {
         final Calendar mockCalendar = mock(Calendar.class);
@@ -554,6 +572,21 @@ class InMemoryGtfsDataRepositoryTest {
                 null, null));
     }
 
+    @Test
+    void getFareRuleAllShouldReturnFareRuleCollection() {
+        final FareRule mockFareRule00 = mock(FareRule.class);
+        final FareRule mockFareRule01 = mock(FareRule.class);
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+        when(mockFareRule00.getFareRuleMappingKey()).thenReturn("fare id0" + "null" + "null" + "null" + "null");
+        when(mockFareRule01.getFareRuleMappingKey()).thenReturn("fare id1" + "null" + "null" + "null" + "null");
+
+        underTest.addFareRule(mockFareRule00);
+        underTest.addFareRule(mockFareRule01);
+
+        assertEquals(2, underTest.getFareRuleAll().size());
+        assertTrue(underTest.getFareRuleAll().containsAll(List.of(mockFareRule00, mockFareRule01)));
+    }
+
     @Test
     void addNullFrequencyShouldThrowIllegalArgumentException() {
         final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
@@ -785,7 +818,7 @@ class InMemoryGtfsDataRepositoryTest {
     }
 
     @Test
-    void addShapeAndGetShapeByIdShouldReturnSameEntity() {
+    void addShapeAndGetShapeByIdShouldReturnSameData() {
         final ShapePoint mockShapePoint00 = mock(ShapePoint.class);
         when(mockShapePoint00.getShapeId()).thenReturn("test id00");
         when(mockShapePoint00.getShapePtSequence()).thenReturn(4);
@@ -803,8 +836,10 @@ class InMemoryGtfsDataRepositoryTest {
 
         final Map<Integer, ShapePoint> secondMapToCheck = underTest.getShapeById("test id01");
 
-        assertEquals(firstMapToCheck, underTest.getShapeById("test id00"));
-        assertEquals(secondMapToCheck, underTest.getShapeById("test id01"));
+        assertEquals(Set.of(4), firstMapToCheck.keySet());
+        assertEquals("test id00", firstMapToCheck.get(4).getShapeId());
+        assertEquals(Set.of(8), secondMapToCheck.keySet());
+        assertEquals("test id01", secondMapToCheck.get(8).getShapeId());
     }
 
     @Test
@@ -817,14 +852,17 @@ class InMemoryGtfsDataRepositoryTest {
     void addShapePointShouldMaintainOrder() {
         final ShapePoint firstShapePointInSequence = mock(ShapePoint.class);
         when(firstShapePointInSequence.getShapeId()).thenReturn("test id00");
+        when(firstShapePointInSequence.getShapePtLat()).thenReturn(1f);
         when(firstShapePointInSequence.getShapePtSequence()).thenReturn(4);
 
         final ShapePoint secondShapePointInSequence = mock(ShapePoint.class);
         when(secondShapePointInSequence.getShapeId()).thenReturn("test id00");
+        when(secondShapePointInSequence.getShapePtLat()).thenReturn(2f);
         when(secondShapePointInSequence.getShapePtSequence()).thenReturn(8);
 
         final ShapePoint thirdShapePointInSequence = mock(ShapePoint.class);
         when(thirdShapePointInSequence.getShapeId()).thenReturn("test id00");
+        when(thirdShapePointInSequence.getShapePtLat()).thenReturn(3f);
         when(thirdShapePointInSequence.getShapePtSequence()).thenReturn(12);
 
         final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
@@ -832,20 +870,87 @@ class InMemoryGtfsDataRepositoryTest {
         underTest.addShapePoint(thirdShapePointInSequence);
         underTest.addShapePoint(secondShapePointInSequence);
 
-        final List<ShapePoint> toCheck = new ArrayList<>();
+        final List<Float> toCheck = new ArrayList<>();
 
-        underTest.getShapeById("test id00").forEach((key, value) -> toCheck.add(value));
-        assertEquals(secondShapePointInSequence, toCheck.get(0));
-        assertEquals(thirdShapePointInSequence, toCheck.get(1));
+        underTest.getShapeById("test id00").forEach((key, value) -> toCheck.add(value.getShapePtLat()));
+        assertEquals(List.of(2f, 3f), toCheck);
 
         underTest.addShapePoint(firstShapePointInSequence);
 
         toCheck.clear();
-        underTest.getShapeById("test id00").forEach((key, value) -> toCheck.add(value));
+        underTest.getShapeById("test id00").forEach((key, value) -> toCheck.add(value.getShapePtLat()));
+
+        assertEquals(List.of(1f, 2f, 3f), toCheck);
+    }
+
+    @Test
+    void getShapeViewByIdShouldReturnShapePointsOrderedBySequence() {
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+        final ShapePoint.ShapeBuilder builder = new ShapePoint.ShapeBuilder();
+        // points are added out of order, then a duplicate of a point added out of order
+        for (final int shapePtSequence : new int[]{3, 1, 2, 5, 4}) {
+            assertNotNull(underTest.addShapePoint((ShapePoint) builder.shapeId("test id00")
+                    .shapePtLat(45f + shapePtSequence)
+                    .shapePtLon(-73f - shapePtSequence)
+                    .shapePtSequence(shapePtSequence)
+                    .shapeDistTraveled(shapePtSequence == 2 ? null : 10f * shapePtSequence)
+                    .build()
+                    .getData()));
+        }
+        assertNull(underTest.addShapePoint((ShapePoint) builder.shapePtSequence(2).build().getData()));
+
+        final ShapeView toCheck = underTest.getShapeViewById("test id00");
+        assertEquals("test id00", toCheck.getShapeId());
+        assertEquals(5, toCheck.size());
+        for (int i = 0; i < toCheck.size(); ++i) {
+            assertEquals(i + 1, toCheck.getShapePtSequence(i));
+            assertEquals(46d + i, toCheck.getShapePtLat(i));
+            assertEquals(-74d - i, toCheck.getShapePtLon(i));
+        }
+        assertFalse(toCheck.hasShapeDistTraveled(1));
+        assertTrue(toCheck.hasShapeDistTraveled(4));
+        assertEquals(50f, toCheck.getShapeDistTraveled(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> toCheck.getShapePtSequence(5));
 
-        assertEquals(firstShapePointInSequence, toCheck.get(0));
-        assertEquals(secondShapePointInSequence, toCheck.get(1));
-        assertEquals(thirdShapePointInSequence, toCheck.get(2));
+        assertNull(underTest.getShapeViewById("test id01"));
+        assertEquals(List.of(toCheck), List.copyOf(underTest.getShapeViewAll()));
+    }
+
+    @Test
+    void appendShapePointsAndCompleteLoadShouldRemoveDuplicatesAndMaintainOrder() {
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+        final ShapePoint.ShapeBuilder builder = new ShapePoint.ShapeBuilder();
+        // the last point duplicates the second one, with another latitude
+        final int[] shapePtSequences = {3, 1, 2, 1};
+        for (int i = 0; i < shapePtSequences.length; ++i) {
+            underTest.appendShapePoint((ShapePoint) builder.clear()
+                    .shapeId("test id00")
+                    .shapePtLat(10f * i)
+                    .shapePtLon(0f)
+                    .shapePtSequence(shapePtSequences[i])
+                    .build()
+                    .getData());
+        }
+
+        final List<ShapePoint> duplicateList = underTest.completeShapePointLoad();
+        assertEquals(1, duplicateList.size());
+        assertEquals("test id00", duplicateList.get(0).getShapeId());
+        assertEquals(1, duplicateList.get(0).getShapePtSequence());
+        assertEquals(30f, duplicateList.get(0).getShapePtLat());
+
+        final ShapeView toCheck = underTest.getShapeViewById("test id00");
+        assertEquals(3, toCheck.size());
+        assertEquals(10d, toCheck.getShapePtLat(0));
+        assertEquals(20d, toCheck.getShapePtLat(1));
+        assertEquals(0d, toCheck.getShapePtLat(2));
+    }
+
+    @Test
+    void appendNullShapePointShouldThrowException() {
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> underTest.appendShapePoint(null));
+        assertEquals("Cannot add null shape point to data repository", exception.getMessage());
     }
 
     @Test
@@ -880,111 +985,71 @@ class InMemoryGtfsDataRepositoryTest {
 
     @Test
     void addSameStopTimeTwiceShouldReturnNull() {
-        final StopTime mockStopTime = mock(StopTime.class);
+        final StopTime stopTime = createStopTime("trip id", 3, "stop id");
         final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
-        when(mockStopTime.getTripId()).thenReturn("trip id");
-        when(mockStopTime.getStopSequence()).thenReturn(3);
 
-        underTest.addStopTime(mockStopTime);
+        underTest.addStopTime(stopTime);
 
-        assertNull(underTest.addStopTime(mockStopTime));
+        assertNull(underTest.addStopTime(stopTime));
     }
 
     @Test
     void addStopTimeWithSameDataShouldReturnNull() {
-        final StopTime firstStopTime = mock(StopTime.class);
-        when(firstStopTime.getTripId()).thenReturn("trip id");
-        when(firstStopTime.getStopSequence()).thenReturn(3);
-
-        final StopTime duplicateStopTime = mock(StopTime.class);
-        when(duplicateStopTime.getTripId()).thenReturn("trip id");
-        when(duplicateStopTime.getStopSequence()).thenReturn(3);
+        final StopTime firstStopTime = createStopTime("trip id", 3, "stop id");
+        final StopTime duplicateStopTime = createStopTime("trip id", 3, "other stop id");
 
         final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
 
         assertEquals(firstStopTime, underTest.addStopTime(firstStopTime));
         assertNull(underTest.addStopTime(duplicateStopTime));
+        assertEquals("stop id", underTest.getStopTimeByTripId("trip id").get(3).getStopId());
     }
 
     @Test
-    void getStopTimeByTripIdAndAddStopTimeShouldReturnSameEntity() {
-        final StopTime mockStopTime00 = mock(StopTime.class);
-        when(mockStopTime00.getTripId()).thenReturn("trip id00");
-        when(mockStopTime00.getStopSequence()).thenReturn(3);
-
-        final StopTime mockStopTime01 = mock(StopTime.class);
-        when(mockStopTime01.getTripId()).thenReturn("trip id01");
-        when(mockStopTime01.getStopSequence()).thenReturn(4);
-
+    void getStopTimeByTripIdAndAddStopTimeShouldReturnSameData() {
         final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
 
-        underTest.addStopTime(mockStopTime00);
-        underTest.addStopTime(mockStopTime01);
+        underTest.addStopTime(createStopTime("trip id00", 3, "stop id00"));
+        underTest.addStopTime(createStopTime("trip id01", 4, "stop id01"));
 
-        final TreeMap<Integer, StopTime> firstMapToCheck = new TreeMap<>();
-        firstMapToCheck.put(3, mockStopTime00);
+        final SortedMap<Integer, StopTime> firstMapToCheck = underTest.getStopTimeByTripId("trip id00");
+        assertEquals(Set.of(3), firstMapToCheck.keySet());
+        assertEquals("trip id00", firstMapToCheck.get(3).getTripId());
+        assertEquals("stop id00", firstMapToCheck.get(3).getStopId());
 
-        final TreeMap<Integer, StopTime> secondMapToCheck = new TreeMap<>();
-        secondMapToCheck.put(4, mockStopTime01);
-
-        assertEquals(firstMapToCheck, underTest.getStopTimeByTripId("trip id00"));
-        assertEquals(secondMapToCheck, underTest.getStopTimeByTripId("trip id01"));
+        final SortedMap<Integer, StopTime> secondMapToCheck = underTest.getStopTimeByTripId("trip id01");
+        assertEquals(Set.of(4), secondMapToCheck.keySet());
+        assertEquals("trip id01", secondMapToCheck.get(4).getTripId());
+        assertEquals("stop id01", secondMapToCheck.get(4).getStopId());
     }
 
     @Test
     void addStopTimeShouldMaintainOrder() {
-        final StopTime firstStopTimeInSequence = mock(StopTime.class);
-        when(firstStopTimeInSequence.getTripId()).thenReturn("trip id00");
-        when(firstStopTimeInSequence.getStopSequence()).thenReturn(4);
-
-        final StopTime secondStopTimeInSequence = mock(StopTime.class);
-        when(secondStopTimeInSequence.getTripId()).thenReturn("trip id00");
-        when(secondStopTimeInSequence.getStopSequence()).thenReturn(8);
-
-        final StopTime thirdStopTimeInSequence = mock(StopTime.class);
-        when(thirdStopTimeInSequence.getTripId()).thenReturn("trip id00");
-        when(thirdStopTimeInSequence.getStopSequence()).thenReturn(12);
-
         final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
 
-        underTest.addStopTime(thirdStopTimeInSequence);
-        underTest.addStopTime(secondStopTimeInSequence);
+        underTest.addStopTime(createStopTime("trip id00", 12, "third stop"));
+        underTest.addStopTime(createStopTime("trip id00", 8, "second stop"));
 
-        final List<StopTime> toCheck = new ArrayList<>();
+        final List<String> toCheck = new ArrayList<>();
 
-        underTest.getStopTimeByTripId("trip id00").forEach((key, value) -> toCheck.add(value));
-        assertEquals(secondStopTimeInSequence, toCheck.get(0));
-        assertEquals(thirdStopTimeInSequence, toCheck.get(1));
+        underTest.getStopTimeByTripId("trip id00").forEach((key, value) -> toCheck.add(value.getStopId()));
+        assertEquals(List.of("second stop", "third stop"), toCheck);
 
-        underTest.addStopTime(firstStopTimeInSequence);
+        underTest.addStopTime(createStopTime("trip id00", 4, "first stop"));
 
         toCheck.clear();
-        underTest.getStopTimeByTripId("trip id00").forEach((key, value) -> toCheck.add(value));
+        underTest.getStopTimeByTripId("trip id00").forEach((key, value) -> toCheck.add(value.getStopId()));
 
-        assertEquals(firstStopTimeInSequence, toCheck.get(0));
-        assertEquals(secondStopTimeInSequence, toCheck.get(1));
-        assertEquals(thirdStopTimeInSequence, toCheck.get(2));
+        assertEquals(List.of("first stop", "second stop", "third stop"), toCheck);
     }
 
     @Test
     void getStopTimeAllShouldReturnStopTimeCollection() {
-        final StopTime firstStopTimeInSequenceOfTrip00 = mock(StopTime.class);
-        when(firstStopTimeInSequenceOfTrip00.getTripId()).thenReturn("trip id00");
-        when(firstStopTimeInSequenceOfTrip00.getStopSequence()).thenReturn(4);
-
-        final StopTime secondStopTimeInSequenceOfTrip00 = mock(StopTime.class);
-        when(secondStopTimeInSequenceOfTrip00.getTripId()).thenReturn("trip id00");
-        when(secondStopTimeInSequenceOfTrip00.getStopSequence()).thenReturn(8);
-
-        final StopTime firstStopTimeInSequenceOfTrip01 = mock(StopTime.class);
-        when(firstStopTimeInSequenceOfTrip01.getTripId()).thenReturn("trip id01");
-        when(firstStopTimeInSequenceOfTrip01.getStopSequence()).thenReturn(12);
-
         final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
 
-        underTest.addStopTime(firstStopTimeInSequenceOfTrip00);
-        underTest.addStopTime(secondStopTimeInSequenceOfTrip00);
-        underTest.addStopTime(firstStopTimeInSequenceOfTrip01);
+        underTest.addStopTime(createStopTime("trip id00", 4, "stop id"));
+        underTest.addStopTime(createStopTime("trip id00", 8, "stop id"));
+        underTest.addStopTime(createStopTime("trip id01", 12, "stop id"));
 
         final Map<String, TreeMap<Integer, StopTime>> toCheck = underTest.getStopTimeAll();
         assertEquals(2, toCheck.size());
@@ -993,6 +1058,90 @@ class InMemoryGtfsDataRepositoryTest {
         assertTrue(toCheck.get("trip id00").containsKey(8));
         assertEquals(1, toCheck.get("trip id01").size());
         assertTrue(toCheck.get("trip id01").containsKey(12));
+        assertFalse(toCheck.containsKey("trip id02"));
+        assertNull(toCheck.get("trip id02"));
+        assertEquals(Set.of("trip id00", "trip id01"), toCheck.keySet());
+    }
+
+    @Test
+    void getStopTimeCursorShouldIterateOverAllStopTimesTripByTrip() {
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+
+        underTest.addStopTime(createStopTime("trip id00", 8, "second stop"));
+        underTest.addStopTime(createStopTime("trip id01", 12, "stop"));
+        underTest.addStopTime(createStopTime("trip id00", 4, "first stop"));
+
+        final Map<String, List<Integer>> stopSequencePerTripId = new HashMap<>();
+        final StopTimeCursor cursor = underTest.getStopTimeCursor();
+        while (cursor.next()) {
+            stopSequencePerTripId.computeIfAbsent(cursor.getTripId(), tripId -> new ArrayList<>())
+                    .add(cursor.getStopSequence());
+        }
+
+        assertEquals(Map.of("trip id00", List.of(4, 8), "trip id01", List.of(12)), stopSequencePerTripId);
+    }
+
+    @Test
+    void getStopTimeCursorByTripIdShouldReturnValuesOfStopTimesOfTrip() {
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+
+        underTest.addStopTime(createStopTime("trip id00", 8, "second stop"));
+        underTest.addStopTime(createStopTime("trip id01", 12, "stop"));
+        underTest.addStopTime(createStopTime("trip id00", 4, "first stop"));
+
+        final StopTimeCursor cursor = underTest.getStopTimeCursorByTripId("trip id00");
+        assertTrue(cursor.next());
+        assertEquals("trip id00", cursor.getTripId());
+        assertEquals(4, cursor.getStopSequence());
+        assertEquals("first stop", cursor.getStopId());
+        assertTrue(cursor.next());
+        assertEquals(8, cursor.getStopSequence());
+        assertEquals("second stop", cursor.getStopId());
+        assertFalse(cursor.next());
+
+        assertFalse(underTest.getStopTimeCursorByTripId("trip id02").next());
+    }
+
+    @Test
+    void appendStopTimesAndCompleteLoadShouldRemoveDuplicatesAndMaintainOrder() {
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+        underTest.appendStopTime(createStopTime("trip id", 2, "stop id 2"));
+        underTest.appendStopTime(createStopTime("trip id", 1, "stop id 1"));
+        underTest.appendStopTime(createStopTime("trip id", 2, "other stop id 2"));
+
+        final List<StopTime> duplicateList = underTest.completeStopTimeLoad();
+        assertEquals(1, duplicateList.size());
+        assertEquals("trip id", duplicateList.get(0).getTripId());
+        assertEquals(2, duplicateList.get(0).getStopSequence());
+        assertEquals("other stop id 2", duplicateList.get(0).getStopId());
+
+        final SortedMap<Integer, StopTime> toCheck = underTest.getStopTimeByTripId("trip id");
+        assertEquals(List.of(1, 2), List.copyOf(toCheck.keySet()));
+        assertEquals("stop id 2", toCheck.get(2).getStopId());
+    }
+
+    @Test
+    void appendNullStopTimeShouldThrowException() {
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+        final Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> underTest.appendStopTime(null));
+        assertEquals("Cannot add null StopTime to data repository", exception.getMessage());
+    }
+
+    private static StopTime createStopTime(final String tripId, final int stopSequence, final String stopId) {
+        return (StopTime) new StopTime.StopTimeBuilder()
+                .tripId(tripId)
+                .stopSequence(stopSequence)
+                .stopId(stopId)
+                .arrivalTime(stopSequence * 60)
+                .departureTime(stopSequence * 60)
+                .pickupType(null)
+                .dropOffType(null)
+                .continuousPickup(null)
+                .continuousDropOff(null)
+                .timepoint(null)
+                .build()
+                .getData();
     }
 
     @Test
@@ -1057,6 +1206,25 @@ class InMemoryGtfsDataRepositoryTest {
                         "field", "spanish"));
     }
 
+    @Test
+    void getTranslationAllShouldReturnTranslationCollection() {
+        final Translation mockTranslation00 = mock(Translation.class);
+        final Translation mockTranslation01 = mock(Translation.class);
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+        when(mockTranslation00.getTableName()).thenReturn(TableName.AGENCY);
+        when(mockTranslation00.getFieldName()).thenReturn("field");
+        when(mockTranslation00.getLanguage()).thenReturn("french");
+        when(mockTranslation01.getTableName()).thenReturn(TableName.STOP_TIMES);
+        when(mockTranslation01.getFieldName()).thenReturn("field");
+        when(mockTranslation01.getLanguage()).thenReturn("spanish");
+
+        underTest.addTranslation(mockTranslation00);
+        underTest.addTranslation(mockTranslation01);
+
+        assertEquals(2, underTest.getTranslationAll().size());
+        assertTrue(underTest.getTranslationAll().containsAll(List.of(mockTranslation00, mockTranslation01)));
+    }
+
     @Test
     void callToGetFeedInfoAllShouldReturnFeedInfoCollection() {
         final FeedInfo mockFeedInfo00 = mock(FeedInfo.class);
@@ -1088,4 +1256,25 @@ class InMemoryGtfsDataRepositoryTest {
         underTest.addFeedInfo(mockFeedInfo);
         assertEquals("feed publisher", underTest.getFeedPublisherName());
     }
+
+    @Test
+    void reserveCapacityShouldKeepEntitiesAlreadyAdded() {
+        final Trip mockTrip00 = mock(Trip.class);
+        final Trip mockTrip01 = mock(Trip.class);
+        final InMemoryGtfsDataRepository underTest = new InMemoryGtfsDataRepository();
+        when(mockTrip00.getTripId()).thenReturn("trip id00");
+        when(mockTrip01.getTripId()).thenReturn("trip id01");
+
+        underTest.reserveCapacity("trips.txt", 1000);
+        assertEquals(mockTrip00, underTest.addTrip(mockTrip00));
+        underTest.reserveCapacity("trips.txt", 1000);
+        underTest.reserveCapacity("unknown.txt", 1000);
+        underTest.reserveCapacity("shapes.txt", 1000);
+        assertEquals(mockTrip01, underTest.addTrip(mockTrip01));
+        assertNull(underTest.addTrip(mockTrip00));
+
+        assertEquals(2, underTest.getTripAll().size());
+        assertEquals(mockTrip00, underTest.getTripById("trip id00"));
+        assertEquals(mockTrip01, underTest.getTripById("trip id01"));
+    }
 }
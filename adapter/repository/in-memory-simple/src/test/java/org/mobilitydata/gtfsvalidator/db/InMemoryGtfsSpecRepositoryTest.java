@@ -19,14 +19,44 @@ package org.mobilitydata.gtfsvalidator.db;
 
 import com.google.common.io.Resources;
 import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
 import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
-
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.CalendarDate;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
+import org.mobilitydata.gtfsvalidator.usecase.ProcessParsedCalendarDate;
+import org.mobilitydata.gtfsvalidator.usecase.ProcessParsedShapePoint;
+import org.mobilitydata.gtfsvalidator.usecase.ProcessParsedStopTime;
+import org.mobilitydata.gtfsvalidator.usecase.ProcessParsedTrip;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
-
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 class InMemoryGtfsSpecRepositoryTest {
 
@@ -155,4 +185,338 @@ class InMemoryGtfsSpecRepositoryTest {
         assertTrue(optionalHeaderListForOptionalFile0.contains(OPTIONAL_HEADER_0));
         assertTrue(optionalHeaderListForOptionalFile1.contains(OPTIONAL_HEADER_1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void typedDecoderOfStopTimesShouldGenerateSameNoticesAndEntitiesAsParsedEntities() throws IOException {
+        //noinspection UnstableApiUsage
+        final InMemoryGtfsSpecRepository underTest = new InMemoryGtfsSpecRepository(
+                Resources.toString(Resources.getResource("gtfs_spec.asciipb"), StandardCharsets.UTF_8),
+                testSchemaAsString());
+        final RawFileInfo stopTimesFile = RawFileInfo.builder().filename("stop_times.txt").build();
+        final TimeUtils mockTimeUtils = mockTimeUtils();
+
+        final GtfsSpecRepository.TypedRowDecoder<StopTime.StopTimeBuilder> decoder =
+                underTest.getTypedDecoderForFile(stopTimesFile, StopTime.StopTimeBuilder.class, mockTimeUtils);
+        assertNotNull(decoder);
+        assertNull(underTest.getTypedDecoderForFile(stopTimesFile, Object.class, mockTimeUtils));
+        assertNull(underTest.getTypedDecoderForFile(RawFileInfo.builder().filename("trips.txt").build(),
+                StopTime.StopTimeBuilder.class, mockTimeUtils));
+
+        final String csv = "trip_id,arrival_time,departure_time,stop_id,stop_sequence,stop_headsign,pickup_type," +
+                "drop_off_type,shape_dist_traveled,timepoint\n" +
+                "trip0,08:00:00,08:01:00,stop0,0,headsign,0,1,0.0,1\n" +
+                "trip0,25:59:59,26:00:00,stop1,1,,,,12.5,0\n" +
+                "trip0,8:00:00,8:1:00,stop2,2,,3,3,,\n" +
+                "trip0,08:60:00,x,stop3,3,,4,-1,-2.5,2\n" +
+                "trip0,,,stop4,1.5,,a,,b,\n" +
+                "trip0,,,stop5,1,,,,,\n" +
+                ",,,,,,,,,\n" +
+                "trip1,10:00:00,10:00:00,stop0,-4,,2,2,1e3,1\n";
+
+        final List<String> parsedNoticeList = new ArrayList<>();
+        final List<String> parsedStopTimeList = new ArrayList<>();
+        final GtfsSpecRepository.RawEntityParser parser = underTest.getParserForFile(stopTimesFile);
+        final GtfsSpecRepository.ParsedEntityTypeValidator validator = underTest.getValidatorForFile(stopTimesFile);
+        final LoadedStopTimes parsedStopTimes = new LoadedStopTimes(mockTimeUtils);
+        for (final RawEntity row : readRows(csv)) {
+            final GtfsSpecRepository.ParseResult parseResult = parser.parseWithNotices(row);
+            final ParsedEntity parsedEntity = parseResult.getParsedEntity();
+            parseResult.getNoticeCollection().forEach(parsedStopTimes.resultRepo::addNotice);
+            validator.validate(parsedEntity).forEach(parsedStopTimes.resultRepo::addNotice);
+            parsedStopTimes.processParsedStopTime.execute(parsedEntity);
+        }
+
+        final LoadedStopTimes decodedStopTimes = new LoadedStopTimes(mockTimeUtils);
+        final StopTime.StopTimeBuilder builder = new StopTime.StopTimeBuilder();
+        for (final RawEntity row : readRows(csv)) {
+            final List<Notice> noticeList = new ArrayList<>();
+            decoder.decode(row, builder, noticeList);
+            noticeList.forEach(decodedStopTimes.resultRepo::addNotice);
+            decodedStopTimes.processParsedStopTime.execute(builder);
+        }
+
+        assertEquals(parsedStopTimes.getNoticeList(), decodedStopTimes.getNoticeList());
+        assertEquals(parsedStopTimes.getStopTimeList(), decodedStopTimes.getStopTimeList());
+        assertEquals(3, parsedStopTimes.getStopTimeList().size());
+        assertTrue(parsedStopTimes.getStopTimeList().get(0).startsWith("trip0,-14400,-14340,stop0,0,headsign,"));
+    }
+
+    @Test
+    void typedDecodersOfTripsShapesAndCalendarDatesShouldGenerateSameNoticesAndEntitiesAsParsedEntities()
+            throws IOException {
+        //noinspection UnstableApiUsage
+        final InMemoryGtfsSpecRepository underTest = new InMemoryGtfsSpecRepository(
+                Resources.toString(Resources.getResource("gtfs_spec.asciipb"), StandardCharsets.UTF_8),
+                testSchemaAsString());
+
+        final List<String> tripList = assertDecodedSameAsParsed(underTest, "trips.txt", Trip.TripBuilder.class,
+                new Trip.TripBuilder(),
+                "route_id,service_id,trip_id,trip_headsign,direction_id,block_id,shape_id,wheelchair_accessible," +
+                        "bikes_allowed\n" +
+                        "route0,service0,trip0,headsign,0,block0,shape0,1,2\n" +
+                        "route0,service0,trip1,,1,,,,\n" +
+                        "route0,service0,trip1,,,,,,\n" +
+                        "route0,,trip2,,2,,,3,-1\n" +
+                        "route0,service0,trip3,,a,,,1.5,\n" +
+                        ",,,,,,,,\n",
+                entities -> new ProcessParsedTrip(entities.resultRepo, entities.dataRepo,
+                        new Trip.TripBuilder())::execute,
+                entities -> new ProcessParsedTrip(entities.resultRepo, entities.dataRepo,
+                        new Trip.TripBuilder())::execute,
+                (final Trip trip) -> String.join(",", trip.getRouteId(), trip.getServiceId(), trip.getTripId(),
+                        String.valueOf(trip.getTripHeadsign()), String.valueOf(trip.getDirectionId()),
+                        String.valueOf(trip.getBlockId()), String.valueOf(trip.getShapeId()),
+                        String.valueOf(trip.getWheelchairAccessibleStatus()),
+                        String.valueOf(trip.getBikesAllowedStatus())));
+        assertEquals(4, tripList.size());
+        assertTrue(tripList.get(0).startsWith("route0,service0,trip0,headsign,"));
+
+        final List<String> shapePointList = assertDecodedSameAsParsed(underTest, "shapes.txt",
+                ShapePoint.ShapeBuilder.class, new ShapePoint.ShapeBuilder(),
+                "shape_id,shape_pt_lat,shape_pt_lon,shape_pt_sequence,shape_dist_traveled\n" +
+                        "shape0,45.5,-73.5,0,0.0\n" +
+                        "shape0,45.6,-73.6,1,\n" +
+                        "shape0,45.6,-73.6,1,12.5\n" +
+                        "shape0,91,-181,2,-1\n" +
+                        "shape0,x,,1.5,b\n" +
+                        ",,,,\n",
+                entities -> new ProcessParsedShapePoint(entities.resultRepo, entities.dataRepo,
+                        new ShapePoint.ShapeBuilder())::execute,
+                entities -> new ProcessParsedShapePoint(entities.resultRepo, entities.dataRepo,
+                        new ShapePoint.ShapeBuilder())::execute,
+                (final ShapePoint shapePoint) -> String.join(",", shapePoint.getShapeId(),
+                        String.valueOf(shapePoint.getShapePtLat()), String.valueOf(shapePoint.getShapePtLon()),
+                        String.valueOf(shapePoint.getShapePtSequence()),
+                        String.valueOf(shapePoint.getShapeDistTraveled())));
+        assertEquals(3, shapePointList.size());
+        assertEquals("shape0,45.5,-73.5,0,0.0", shapePointList.get(0));
+
+        final List<String> calendarDateList = assertDecodedSameAsParsed(underTest, "calendar_dates.txt",
+                CalendarDate.CalendarDateBuilder.class, new CalendarDate.CalendarDateBuilder(),
+                "service_id,date,exception_type\n" +
+                        "service0,20200101,1\n" +
+                        "service0,20200102,2\n" +
+                        "service0,20200102,1\n" +
+                        "service0,2020-01-03,3\n" +
+                        "service0,20201301,\n" +
+                        ",,\n",
+                entities -> new ProcessParsedCalendarDate(entities.resultRepo, entities.dataRepo,
+                        new CalendarDate.CalendarDateBuilder())::execute,
+                entities -> new ProcessParsedCalendarDate(entities.resultRepo, entities.dataRepo,
+                        new CalendarDate.CalendarDateBuilder())::execute,
+                (final CalendarDate calendarDate) -> String.join(",", calendarDate.getServiceId(),
+                        String.valueOf(calendarDate.getDate()), String.valueOf(calendarDate.getExceptionType())));
+        assertEquals(3, calendarDateList.size());
+        assertEquals("service0,2020-01-01,ADDED_SERVICE", calendarDateList.get(0));
+    }
+
+    @Test
+    void idValuesClearedFromRawContentShouldGenerateSameNoticesAsIdValuesScannedAfterParsing() throws IOException {
+        //noinspection UnstableApiUsage
+        final InMemoryGtfsSpecRepository underTest = new InMemoryGtfsSpecRepository(
+                Resources.toString(Resources.getResource("gtfs_spec.asciipb"), StandardCharsets.UTF_8),
+                testSchemaAsString());
+        final RawFileInfo agencyFile = RawFileInfo.builder().filename("agency.txt").build();
+        final GtfsSpecRepository.RawEntityParser parser = underTest.getParserForFile(agencyFile);
+        final GtfsSpecRepository.ParsedEntityTypeValidator validator = underTest.getValidatorForFile(agencyFile);
+
+        final String csv = "agency_id,agency_name,agency_url,agency_timezone\n" +
+                "agency0,name,http://agency.org,America/Montreal\n" +
+                "agency_with_a_long_id_0123456789,name,http://agency.org,America/Montreal\n" +
+                "agencé,name,http://agency.org,America/Montreal\n" +
+                "agency_with_a_long_id_€,name,http://agency.org,America/Montreal\n" +
+                "agency\u007f1,name,http://agency.org,America/Montreal\n" +
+                "\"agency \"\"2\"\"\",name,http://agency.org,America/Montreal\n" +
+                "\"agency\t3\",name,http://agency.org,America/Montreal\n" +
+                "\"agency4\"\t,name,http://agency.org,America/Montreal\n" +
+                ",name,http://agency.org,America/Montreal\n";
+
+        final List<String> clearedNoticeList = new ArrayList<>();
+        final List<String> scannedNoticeList = new ArrayList<>();
+        final List<RawEntity> rowList = readRows(csv);
+        for (final RawEntity row : rowList) {
+            final ParsedEntity cleared = parser.parseWithNotices(row).getParsedEntity();
+            validator.validate(cleared).forEach(notice -> clearedNoticeList.add(notice.getClass().getSimpleName() +
+                    ": " + notice.getNoticeSpecificAll()));
+
+            // a row read by header does not keep its raw content: values are scanned by the validator
+            final Map<String, String> contentByHeaderMap = new HashMap<>();
+            row.getColumnIndexPerHeader().forEach((header, index) -> contentByHeaderMap.put(header, row.get(index)));
+            final ParsedEntity scanned =
+                    parser.parseWithNotices(new RawEntity(contentByHeaderMap, row.getIndex())).getParsedEntity();
+            assertFalse(scanned.hasPrintableAsciiValue("agency_id"));
+            validator.validate(scanned).forEach(notice -> scannedNoticeList.add(notice.getClass().getSimpleName() +
+                    ": " + notice.getNoticeSpecificAll()));
+        }
+
+        assertEquals(scannedNoticeList, clearedNoticeList);
+        assertEquals(4, clearedNoticeList.stream()
+                .filter(notice -> notice.startsWith("NonAsciiOrNonPrintableCharNotice")).count());
+        assertTrue(parser.parseWithNotices(rowList.get(0)).getParsedEntity().hasPrintableAsciiValue("agency_id"));
+        assertTrue(parser.parseWithNotices(rowList.get(5)).getParsedEntity().hasPrintableAsciiValue("agency_id"));
+        assertFalse(parser.parseWithNotices(rowList.get(2)).getParsedEntity().hasPrintableAsciiValue("agency_id"));
+        // the tab following the closing quote is not part of the value, which is left to the validator
+        assertFalse(parser.parseWithNotices(rowList.get(7)).getParsedEntity().hasPrintableAsciiValue("agency_id"));
+    }
+
+    /**
+     * Parses and decodes the rows of a file, asserts that both generate the same notices and add the same entities to
+     * the GTFS data repository, and returns said entities as strings
+     */
+    private static <B, E> List<String> assertDecodedSameAsParsed(
+            final InMemoryGtfsSpecRepository underTest,
+            final String filename,
+            final Class<B> builderType,
+            final B builder,
+            final String csv,
+            final Function<LoadedEntities, Consumer<ParsedEntity>> parsedEntityProcessor,
+            final Function<LoadedEntities, Consumer<B>> decodedRowProcessor,
+            final Function<E, String> entityToString) throws IOException {
+        final RawFileInfo file = RawFileInfo.builder().filename(filename).build();
+        final TimeUtils mockTimeUtils = mockTimeUtils();
+
+        final LoadedEntities parsedEntities = new LoadedEntities();
+        final Consumer<ParsedEntity> parsedEntityConsumer = parsedEntityProcessor.apply(parsedEntities);
+        final GtfsSpecRepository.RawEntityParser parser = underTest.getParserForFile(file);
+        final GtfsSpecRepository.ParsedEntityTypeValidator validator = underTest.getValidatorForFile(file);
+        for (final RawEntity row : readRows(csv)) {
+            final GtfsSpecRepository.ParseResult parseResult = parser.parseWithNotices(row);
+            final ParsedEntity parsedEntity = parseResult.getParsedEntity();
+            parseResult.getNoticeCollection().forEach(parsedEntities.resultRepo::addNotice);
+            validator.validate(parsedEntity).forEach(parsedEntities.resultRepo::addNotice);
+            parsedEntityConsumer.accept(parsedEntity);
+        }
+
+        final LoadedEntities decodedEntities = new LoadedEntities();
+        final Consumer<B> decodedRowConsumer = decodedRowProcessor.apply(decodedEntities);
+        final GtfsSpecRepository.TypedRowDecoder<B> decoder =
+                underTest.getTypedDecoderForFile(file, builderType, mockTimeUtils);
+        assertNotNull(decoder);
+        for (final RawEntity row : readRows(csv)) {
+            final List<Notice> noticeList = new ArrayList<>();
+            decoder.decode(row, builder, noticeList);
+            noticeList.forEach(decodedEntities.resultRepo::addNotice);
+            decodedRowConsumer.accept(builder);
+        }
+
+        assertEquals(parsedEntities.getNoticeList(), decodedEntities.getNoticeList());
+        final List<String> toReturn = parsedEntities.getEntityList(entityToString);
+        assertEquals(toReturn, decodedEntities.getEntityList(entityToString));
+        return toReturn;
+    }
+
+    private static List<RawEntity> readRows(final String csv) throws IOException {
+        final CsvRowRawEntityProvider provider =
+                new CsvRowRawEntityProvider(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        final List<RawEntity> toReturn = new ArrayList<>();
+        while (provider.hasNext()) {
+            toReturn.add(provider.getNext());
+        }
+        return toReturn;
+    }
+
+    private static TimeUtils mockTimeUtils() {
+        final Pattern timePattern = Pattern.compile("([0-9][0-9]|[0-9]):([0-5][0-9]):([0-5][0-9])");
+        final TimeUtils mockTimeUtils = mock(TimeUtils.class);
+        when(mockTimeUtils.convertHHMMSSToSecondsFromNoonOfDayOfService(anyString())).thenAnswer(invocation -> {
+            final Matcher matcher = timePattern.matcher(invocation.getArgument(0));
+            return matcher.matches() ?
+                    Integer.parseInt(matcher.group(1)) * 3600 + Integer.parseInt(matcher.group(2)) * 60 +
+                            Integer.parseInt(matcher.group(3)) - 12 * 3600 :
+                    TimeUtils.INVALID_TIME;
+        });
+        when(mockTimeUtils.convertHHMMSSToIntFromNoonOfDayOfService(any())).thenAnswer(invocation -> {
+            final String value = invocation.getArgument(0);
+            final int seconds = value == null ?
+                    TimeUtils.INVALID_TIME :
+                    mockTimeUtils.convertHHMMSSToSecondsFromNoonOfDayOfService(value);
+            return seconds == TimeUtils.INVALID_TIME ? null : seconds;
+        });
+        return mockTimeUtils;
+    }
+
+    /**
+     * The notices and entities resulting from the processing of rows of a file other than stop_times.txt
+     */
+    private static class LoadedEntities {
+        private final ValidationResultRepository resultRepo = mock(ValidationResultRepository.class);
+        private final GtfsDataRepository dataRepo = mock(GtfsDataRepository.class);
+
+        private LoadedEntities() {
+            // entities already added are rejected, as duplicates
+            final Set<String> keySet = new HashSet<>();
+            when(dataRepo.addTrip(any())).thenAnswer(invocation -> {
+                final Trip trip = invocation.getArgument(0);
+                return keySet.add(trip.getTripId()) ? trip : null;
+            });
+            when(dataRepo.addShapePoint(any())).thenAnswer(invocation -> {
+                final ShapePoint shapePoint = invocation.getArgument(0);
+                return keySet.add(shapePoint.getShapeId() + "," + shapePoint.getShapePtSequence()) ? shapePoint : null;
+            });
+            when(dataRepo.addCalendarDate(any())).thenAnswer(invocation -> {
+                final CalendarDate calendarDate = invocation.getArgument(0);
+                return keySet.add(calendarDate.getServiceId() + "," + calendarDate.getDate()) ? calendarDate : null;
+            });
+        }
+
+        private List<String> getNoticeList() {
+            final ArgumentCaptor<Notice> captor = ArgumentCaptor.forClass(Notice.class);
+            verify(resultRepo, atLeast(0)).addNotice(captor.capture());
+            final List<String> toReturn = new ArrayList<>();
+            captor.getAllValues().forEach(notice -> toReturn.add(notice.getClass().getSimpleName() + ": " +
+                    notice.getDescription() + " " + notice.getNoticeSpecificAll()));
+            return toReturn;
+        }
+
+        private <E> List<String> getEntityList(final Function<E, String> entityToString) {
+            final List<String> toReturn = new ArrayList<>();
+            mockingDetails(dataRepo).getInvocations().forEach(invocation -> toReturn.add(
+                    entityToString.apply(invocation.getArgument(0))));
+            return toReturn;
+        }
+    }
+
+    /**
+     * The notices and stop times resulting from the processing of rows of stop_times.txt
+     */
+    private static class LoadedStopTimes {
+        private final ValidationResultRepository resultRepo = mock(ValidationResultRepository.class);
+        private final GtfsDataRepository dataRepo = mock(GtfsDataRepository.class);
+        private final ProcessParsedStopTime processParsedStopTime;
+
+        private LoadedStopTimes(final TimeUtils timeUtils) {
+            when(dataRepo.addStopTime(any())).thenAnswer(returnsFirstArg());
+            processParsedStopTime = new ProcessParsedStopTime(resultRepo, dataRepo, timeUtils,
+                    new StopTime.StopTimeBuilder());
+        }
+
+        private List<String> getNoticeList() {
+            final ArgumentCaptor<Notice> captor = ArgumentCaptor.forClass(Notice.class);
+            verify(resultRepo, atLeast(0)).addNotice(captor.capture());
+            final List<String> toReturn = new ArrayList<>();
+            captor.getAllValues().forEach(notice -> toReturn.add(notice.getClass().getSimpleName() + ": " +
+                    notice.getDescription() + " " + notice.getNoticeSpecificAll()));
+            return toReturn;
+        }
+
+        private List<String> getStopTimeList() {
+            final ArgumentCaptor<StopTime> captor = ArgumentCaptor.forClass(StopTime.class);
+            verify(dataRepo, atLeast(0)).addStopTime(captor.capture());
+            final List<String> toReturn = new ArrayList<>();
+            captor.getAllValues().forEach(stopTime -> toReturn.add(String.join(",",
+                    stopTime.getTripId(),
+                    String.valueOf(stopTime.getArrivalTime()),
+                    String.valueOf(stopTime.getDepartureTime()),
+                    stopTime.getStopId(),
+                    String.valueOf(stopTime.getStopSequence()),
+                    String.valueOf(stopTime.getStopHeadsign()),
+                    String.valueOf(stopTime.getPickupType()),
+                    String.valueOf(stopTime.getDropOffType()),
+                    String.valueOf(stopTime.getShapeDistTraveled()),
+                    String.valueOf(stopTime.getTimePoint()),
+                    String.valueOf(stopTime.getContinuousPickup()),
+                    String.valueOf(stopTime.getContinuousDropOff()))));
+            return toReturn;
+        }
+    }
+}
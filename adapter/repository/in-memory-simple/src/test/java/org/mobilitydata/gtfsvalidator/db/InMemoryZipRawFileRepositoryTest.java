@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.stream.Stream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryZipRawFileRepositoryTest {
+    private static final String FILENAME = "stops.txt";
+
+    private static Path createArchive(final Path directory) throws IOException {
+        final Path archive = directory.resolve("test.zip");
+        try (OutputStream outputStream = Files.newOutputStream(archive);
+             ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            zipOutputStream.putNextEntry(new ZipEntry(FILENAME));
+            zipOutputStream.write("stop_id,stop_name\nstop0,first stop\nstop1,second stop\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.closeEntry();
+        }
+        return archive;
+    }
+
+    private static Path createInflatedFile(final Path directory) throws IOException {
+        return Files.write(directory.resolve("inflated.txt"),
+                "stop_id\nstreamed stop\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rowsShouldBeReadFromArchive(@TempDir final Path tempDir) throws IOException {
+        final Path archive = createArchive(tempDir);
+        final InMemoryZipRawFileRepository underTest = new InMemoryZipRawFileRepository();
+        final RawFileInfo fileInfo = underTest.create(
+                RawFileInfo.builder().filename(FILENAME).path(archive.toString()).build());
+
+        assertEquals(List.of("stop_id", "stop_name"), underTest.getActualHeadersForFile(fileInfo));
+
+        final Optional<RawFileRepository.RawEntityProvider> provider = underTest.getProviderForFile(fileInfo);
+        assertTrue(provider.isPresent());
+        assertEquals(2, provider.get().getHeaderCount());
+
+        final RawEntity firstRow = provider.get().getNext();
+        assertEquals("stop0", firstRow.get("stop_id"));
+        assertEquals("first stop", firstRow.get("stop_name"));
+        assertEquals("stop1", provider.get().getNext().get("stop_id"));
+        assertFalse(provider.get().hasNext());
+    }
+
+    @Test
+    void missingEntryShouldReturnEmptyProvider(@TempDir final Path tempDir) throws IOException {
+        final Path archive = createArchive(tempDir);
+        final InMemoryZipRawFileRepository underTest = new InMemoryZipRawFileRepository();
+
+        assertTrue(underTest.getProviderForFile(
+                RawFileInfo.builder().filename("trips.txt").path(archive.toString()).build()).isEmpty());
+        assertTrue(underTest.getProviderForFile(RawFileInfo.builder().build()).isEmpty());
+        assertTrue(underTest.getActualHeadersForFile(RawFileInfo.builder().build()).isEmpty());
+    }
+
+    @Test
+    void entryThatCanNotBeDecompressedShouldBeCorruptRatherThanEmpty(@TempDir final Path tempDir) throws IOException {
+        final Path archive = tempDir.resolve("corrupt.zip");
+        try (OutputStream outputStream = Files.newOutputStream(archive);
+             ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            zipOutputStream.putNextEntry(new ZipEntry(FILENAME));
+            zipOutputStream.write("stop_id,stop_name\nstop0,first stop\n".getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.putNextEntry(new ZipEntry("trips.txt"));
+        }
+        final byte[] bytes = Files.readAllBytes(archive);
+        // the deflated content of the first entry follows its 30 bytes long local header and its name: a block of
+        // reserved type can not be inflated
+        Arrays.fill(bytes, 30 + FILENAME.length(), 30 + FILENAME.length() + 4, (byte) 0xFF);
+        Files.write(archive, bytes);
+        final InMemoryZipRawFileRepository underTest = new InMemoryZipRawFileRepository();
+        final RawFileInfo corruptFileInfo = underTest.create(
+                RawFileInfo.builder().filename(FILENAME).path(archive.toString()).build());
+        final RawFileInfo emptyFileInfo = underTest.create(
+                RawFileInfo.builder().filename("trips.txt").path(archive.toString()).build());
+
+        assertTrue(underTest.getProviderForFile(corruptFileInfo).isEmpty());
+        assertTrue(underTest.isCorruptFile(corruptFileInfo));
+        assertTrue(underTest.getProviderForFile(emptyFileInfo).isEmpty());
+        assertFalse(underTest.isCorruptFile(emptyFileInfo));
+        underTest.close();
+    }
+
+    @Test
+    void fileDecompressedWhileDownloadingShouldBeReadInsteadOfArchive(@TempDir final Path tempDir)
+            throws IOException {
+        final Path archive = createArchive(tempDir);
+        final InMemoryZipRawFileRepository underTest = new InMemoryZipRawFileRepository();
+        final RawFileInfo fileInfo = underTest.create(
+                RawFileInfo.builder().filename(FILENAME).path(archive.toString()).build());
+        underTest.putEntryFile(FILENAME, createInflatedFile(tempDir));
+
+        assertEquals(List.of("stop_id"), underTest.getActualHeadersForFile(fileInfo));
+        final Optional<RawFileRepository.RawEntityProvider> provider = underTest.getProviderForFile(fileInfo);
+        assertTrue(provider.isPresent());
+        assertEquals(List.of("stop_id"), provider.get().getHeaders());
+        assertEquals("streamed stop", provider.get().getNext().get("stop_id"));
+        assertFalse(provider.get().hasNext());
+        assertEquals(22, underTest.getFileSize(fileInfo));
+    }
+
+    @Test
+    void fileDecompressedWhileDownloadingShouldBeSplitIntoChunks(@TempDir final Path tempDir)
+            throws IOException {
+        final Path archive = createArchive(tempDir);
+        final InMemoryZipRawFileRepository underTest = new InMemoryZipRawFileRepository();
+        final RawFileInfo fileInfo = underTest.create(
+                RawFileInfo.builder().filename(FILENAME).path(archive.toString()).build());
+        underTest.putEntryFile(FILENAME, createInflatedFile(tempDir));
+
+        final List<RawFileRepository.RawEntityProvider> chunkProviderList =
+                underTest.getProvidersForFileChunks(fileInfo, 1);
+        assertEquals(List.of("stop_id"), chunkProviderList.get(0).getHeaders());
+        assertEquals(List.of("streamed stop"), readStopIds(chunkProviderList));
+    }
+
+    @Test
+    void entryLargerThanChunkShouldBeSplitOverTemporaryFileDeletedOnceClosed(@TempDir final Path tempDir)
+            throws IOException {
+        final Path archive = createArchive(tempDir);
+        final InMemoryZipRawFileRepository underTest = new InMemoryZipRawFileRepository();
+        final RawFileInfo fileInfo = underTest.create(
+                RawFileInfo.builder().filename(FILENAME).path(archive.toString()).build());
+
+        final List<RawFileRepository.RawEntityProvider> chunkProviderList =
+                underTest.getProvidersForFileChunks(fileInfo, 20);
+        assertEquals(3, chunkProviderList.size());
+        assertEquals(List.of("stop_id", "stop_name"), chunkProviderList.get(2).getHeaders());
+        assertEquals(List.of("stop0", "stop1"), readStopIds(chunkProviderList));
+        final List<RawFileRepository.RawEntityProvider> wholeFileProviderList =
+                underTest.getProvidersForFileChunks(fileInfo, 100);
+        assertEquals(1, wholeFileProviderList.size());
+        assertEquals(List.of("stop0", "stop1"), readStopIds(wholeFileProviderList));
+
+        final long temporaryFileCount = countTemporaryFiles();
+        underTest.close();
+        assertEquals(temporaryFileCount - 1, countTemporaryFiles());
+    }
+
+    private static List<String> readStopIds(final List<RawFileRepository.RawEntityProvider> providerList) {
+        final List<String> toReturn = new ArrayList<>();
+        for (final RawFileRepository.RawEntityProvider provider : providerList) {
+            while (provider.hasNext()) {
+                toReturn.add(provider.getNext().get("stop_id"));
+            }
+            provider.close();
+        }
+        return toReturn;
+    }
+
+    private static long countTemporaryFiles() throws IOException {
+        try (Stream<Path> temporaryFiles = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return temporaryFiles.filter(path -> path.getFileName().toString().startsWith("gtfs-validator-"))
+                    .count();
+        }
+    }
+
+    @Test
+    void closedRepositoryShouldDeleteDecompressedFilesAndReopenArchive(@TempDir final Path tempDir)
+            throws IOException {
+        final Path archive = createArchive(tempDir);
+        final InMemoryZipRawFileRepository underTest = new InMemoryZipRawFileRepository();
+        final RawFileInfo fileInfo = underTest.create(
+                RawFileInfo.builder().filename(FILENAME).path(archive.toString()).build());
+        underTest.putEntryFile(FILENAME, createInflatedFile(tempDir));
+        assertEquals(22, underTest.getFileSize(fileInfo));
+
+        underTest.close();
+
+        assertFalse(Files.exists(tempDir.resolve("inflated.txt")));
+        assertEquals(53, underTest.getFileSize(fileInfo));
+        assertEquals("stop0", underTest.getProviderForFile(fileInfo).orElseThrow().getNext().get("stop_id"));
+        underTest.close();
+    }
+
+    @Test
+    void fileSizeShouldBeDecompressedSizeOfEntry(@TempDir final Path tempDir) throws IOException {
+        final Path archive = createArchive(tempDir);
+        final InMemoryZipRawFileRepository underTest = new InMemoryZipRawFileRepository();
+        final RawFileInfo fileInfo = underTest.create(
+                RawFileInfo.builder().filename(FILENAME).path(archive.toString()).build());
+
+        assertEquals(53, underTest.getFileSize(fileInfo));
+        assertEquals(-1, underTest.getFileSize(
+                RawFileInfo.builder().filename("trips.txt").path(archive.toString()).build()));
+        assertEquals(-1, underTest.getFileSize(RawFileInfo.builder().build()));
+
+        underTest.putEntryFile(FILENAME, createInflatedFile(tempDir));
+        assertEquals(22, underTest.getFileSize(fileInfo));
+    }
+}
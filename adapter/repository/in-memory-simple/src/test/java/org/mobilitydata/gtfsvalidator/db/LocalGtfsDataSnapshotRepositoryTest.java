@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.Level;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.CalendarDate;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.ExceptionType;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.PickupType;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.DirectionId;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalGtfsDataSnapshotRepositoryTest {
+    private static final long MAX_BYTE_COUNT = 64 * 1024 * 1024;
+
+    private static CachedValidationResult loadingResult() {
+        return new CachedValidationResult("agency name", List.of("stop_times.txt"),
+                List.of(new InvalidRowLengthNotice("stop_times.txt", 3, 4, 5)));
+    }
+
+    private static Trip trip(final String tripId) {
+        return (Trip) new Trip.TripBuilder()
+                .routeId("route id")
+                .serviceId("service id")
+                .tripId(tripId)
+                .tripHeadsign("headsign")
+                .directionId(1)
+                .wheelchairAccessible(null)
+                .bikesAllowed(null)
+                .build()
+                .getData();
+    }
+
+    private static StopTime stopTime(final String tripId, final int stopSequence, final Integer arrivalTime) {
+        return (StopTime) new StopTime.StopTimeBuilder()
+                .tripId(tripId)
+                .arrivalTime(arrivalTime)
+                .departureTime(arrivalTime)
+                .stopId("stop " + stopSequence % 100)
+                .stopSequence(stopSequence)
+                .pickupType(1)
+                .dropOffType(null)
+                .continuousPickup(null)
+                .continuousDropOff(null)
+                .timepoint(0)
+                .build()
+                .getData();
+    }
+
+    private static InMemoryGtfsDataRepository populatedRepository() {
+        final InMemoryGtfsDataRepository toReturn = new InMemoryGtfsDataRepository();
+        toReturn.addTrip(trip("trip 0"));
+        toReturn.addTrip(trip("trip 1"));
+        toReturn.addStopTime(stopTime("trip 0", 2, 3600));
+        toReturn.addStopTime(stopTime("trip 0", 1, null));
+        toReturn.addStopTime(stopTime("trip 1", 1, 7200));
+        toReturn.addShapePoint((ShapePoint) new ShapePoint.ShapeBuilder()
+                .shapeId("shape id")
+                .shapePtLat(45.5f)
+                .shapePtLon(-73.5f)
+                .shapePtSequence(1)
+                .shapeDistTraveled(12.5f)
+                .build()
+                .getData());
+        toReturn.addCalendarDate((CalendarDate) new CalendarDate.CalendarDateBuilder()
+                .serviceId("service id")
+                .date(LocalDate.of(2020, 6, 1))
+                .exceptionType(2)
+                .build()
+                .getData());
+        toReturn.addLevel((Level) new Level.LevelBuilder()
+                .levelId("level id")
+                .levelIndex(1f)
+                .levelName("level name")
+                .build()
+                .getData());
+        return toReturn;
+    }
+
+    /**
+     * Writes a snapshot made of a loading result only, in the given version of the format
+     */
+    private static void writeSnapshot(final Path snapshotFile,
+                                      final int formatVersion,
+                                      final Serializable loadingResult) throws IOException {
+        final ByteArrayOutputStream serializedObject = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutput = new ObjectOutputStream(serializedObject)) {
+            objectOutput.writeObject(loadingResult);
+        }
+        try (CheckedOutputStream checkedOutput =
+                     new CheckedOutputStream(Files.newOutputStream(snapshotFile), new CRC32C());
+             DataOutputStream output = new DataOutputStream(checkedOutput)) {
+            output.write(GtfsDataSnapshotFormat.MAGIC);
+            output.writeInt(formatVersion);
+            output.writeUTF("loading_result");
+            output.writeInt(serializedObject.size());
+            serializedObject.writeTo(output);
+            output.writeInt(0);
+            output.writeUTF("");
+            output.flush();
+            output.writeLong(checkedOutput.getChecksum().getValue());
+        }
+    }
+
+    @Test
+    void savedSnapshotShouldBeLoadedWithSameData(@TempDir final Path tempDir) throws IOException {
+        final LocalGtfsDataSnapshotRepository underTest =
+                new LocalGtfsDataSnapshotRepository(tempDir.toString(), MAX_BYTE_COUNT, Duration.ofDays(1));
+        underTest.save("key", populatedRepository(), loadingResult());
+
+        final InMemoryGtfsDataRepository toCheck = new InMemoryGtfsDataRepository();
+        final Optional<CachedValidationResult> loadingResult = underTest.loadByKey("key", toCheck);
+
+        assertTrue(loadingResult.isPresent());
+        assertEquals(List.of("stop_times.txt"), loadingResult.get().getProcessedFilenameList());
+        assertEquals(1, loadingResult.get().getNoticeList().size());
+
+        assertEquals(2, toCheck.getTripAll().size());
+        final Trip trip = toCheck.getTripById("trip 1");
+        assertEquals("route id", trip.getRouteId());
+        assertEquals("headsign", trip.getTripHeadsign());
+        assertNull(trip.getBlockId());
+        assertEquals(DirectionId.INBOUND, trip.getDirectionId());
+
+        final StopTimeCursor cursor = toCheck.getStopTimeCursorByTripId("trip 0");
+        assertTrue(cursor.next());
+        assertEquals(1, cursor.getStopSequence());
+        assertFalse(cursor.hasArrivalTime());
+        assertEquals("stop 1", cursor.getStopId());
+        assertEquals(PickupType.NO_PICKUP, cursor.getPickupType());
+        assertTrue(cursor.next());
+        assertEquals(2, cursor.getStopSequence());
+        assertEquals(3600, cursor.getArrivalTime());
+        assertFalse(cursor.next());
+        assertEquals(1, toCheck.getStopTimeByTripId("trip 1").size());
+
+        final ShapeView shape = toCheck.getShapeViewById("shape id");
+        assertEquals(1, shape.size());
+        assertEquals(45.5, shape.getShapePtLat(0));
+        assertEquals(12.5f, shape.getShapeDistTraveled(0));
+
+        final CalendarDate calendarDate = toCheck.getCalendarDateAll().get("service id").get("2020-06-01");
+        assertEquals(ExceptionType.REMOVED_SERVICE, calendarDate.getExceptionType());
+        assertEquals("level name", toCheck.getLevelById("level id").getLevelName());
+    }
+
+    @Test
+    void corruptedSnapshotShouldBeMissingAndDeleted(@TempDir final Path tempDir) throws IOException {
+        final LocalGtfsDataSnapshotRepository underTest =
+                new LocalGtfsDataSnapshotRepository(tempDir.toString(), MAX_BYTE_COUNT, Duration.ofDays(1));
+        underTest.save("key", populatedRepository(), loadingResult());
+        final Path snapshotFile = tempDir.resolve("key" + LocalGtfsDataSnapshotRepository.FILE_EXTENSION);
+        final byte[] content = Files.readAllBytes(snapshotFile);
+        content[content.length / 2] ^= 1;
+        Files.write(snapshotFile, content);
+
+        final InMemoryGtfsDataRepository toCheck = new InMemoryGtfsDataRepository();
+
+        assertTrue(underTest.loadByKey("key", toCheck).isEmpty());
+        assertFalse(Files.exists(snapshotFile));
+        assertTrue(toCheck.getTripAll().isEmpty());
+    }
+
+    @Test
+    void disabledSnapshotsShouldNeitherSaveNorLoad() throws IOException {
+        final LocalGtfsDataSnapshotRepository underTest =
+                new LocalGtfsDataSnapshotRepository(null, MAX_BYTE_COUNT, Duration.ofDays(1));
+
+        underTest.save("key", populatedRepository(), loadingResult());
+
+        assertTrue(underTest.loadByKey("key", new InMemoryGtfsDataRepository()).isEmpty());
+    }
+
+    @Test
+    void snapshotOfPreviousFormatShouldBeMissingAndDeleted(@TempDir final Path tempDir) throws IOException {
+        final LocalGtfsDataSnapshotRepository underTest =
+                new LocalGtfsDataSnapshotRepository(tempDir.toString(), MAX_BYTE_COUNT, Duration.ofDays(1));
+        final Path snapshotFile = tempDir.resolve("key" + LocalGtfsDataSnapshotRepository.FILE_EXTENSION);
+        writeSnapshot(snapshotFile, GtfsDataSnapshotFormat.FORMAT_VERSION - 1, loadingResult());
+
+        assertTrue(underTest.loadByKey("key", new InMemoryGtfsDataRepository()).isEmpty());
+        assertFalse(Files.exists(snapshotFile));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void snapshotHoldingClassesOutsideOfDomainShouldBeMissingAndDeleted(@TempDir final Path tempDir)
+            throws IOException {
+        final LocalGtfsDataSnapshotRepository underTest =
+                new LocalGtfsDataSnapshotRepository(tempDir.toString(), MAX_BYTE_COUNT, Duration.ofDays(1));
+        final Path snapshotFile = tempDir.resolve("key" + LocalGtfsDataSnapshotRepository.FILE_EXTENSION);
+        final List foreignList = new ArrayList();
+        foreignList.add(new Date());
+        writeSnapshot(snapshotFile, GtfsDataSnapshotFormat.FORMAT_VERSION,
+                new CachedValidationResult("agency name", List.of("stop_times.txt"), foreignList));
+
+        assertTrue(underTest.loadByKey("key", new InMemoryGtfsDataRepository()).isEmpty());
+        assertFalse(Files.exists(snapshotFile));
+    }
+}
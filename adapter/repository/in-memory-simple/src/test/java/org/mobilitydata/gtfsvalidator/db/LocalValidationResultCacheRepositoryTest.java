@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalValidationResultCacheRepositoryTest {
+    private static final long MAX_BYTE_COUNT = 1024 * 1024;
+
+    private static CachedValidationResult cachedResult() {
+        return new CachedValidationResult("agency name", List.of("stops.txt"),
+                List.of(new InvalidRowLengthNotice("stops.txt", 3, 4, 5)));
+    }
+
+    @Test
+    void savedResultShouldBeFound(@TempDir final Path tempDir) throws IOException {
+        final LocalValidationResultCacheRepository underTest =
+                new LocalValidationResultCacheRepository(tempDir.toString(), MAX_BYTE_COUNT, Duration.ofDays(1));
+
+        underTest.save("key", cachedResult());
+        final Optional<CachedValidationResult> toCheck = underTest.findByKey("key");
+
+        assertTrue(toCheck.isPresent());
+        assertEquals("agency name", toCheck.get().getFeedPublisherNameOrAgencyName());
+        assertEquals(List.of("stops.txt"), toCheck.get().getProcessedFilenameList());
+        assertEquals(1, toCheck.get().getNoticeList().size());
+        assertEquals("stops.txt", toCheck.get().getNoticeList().get(0).getFilename());
+        assertEquals(3, toCheck.get().getNoticeList().get(0).getNoticeSpecific(InvalidRowLengthNotice.KEY_ROW_INDEX));
+        assertTrue(underTest.findByKey("other key").isEmpty());
+    }
+
+    @Test
+    void disabledCacheShouldNeitherSaveNorFind() throws IOException {
+        final LocalValidationResultCacheRepository underTest =
+                new LocalValidationResultCacheRepository(null, MAX_BYTE_COUNT, Duration.ofDays(1));
+
+        underTest.save("key", cachedResult());
+
+        assertTrue(underTest.findByKey("key").isEmpty());
+    }
+
+    @Test
+    void expiredResultShouldBeMissingAndEvicted(@TempDir final Path tempDir) throws IOException {
+        final LocalValidationResultCacheRepository underTest =
+                new LocalValidationResultCacheRepository(tempDir.toString(), MAX_BYTE_COUNT, Duration.ofDays(1));
+        underTest.save("expired", cachedResult());
+        final Path expiredFile = tempDir.resolve("expired" + LocalValidationResultCacheRepository.FILE_EXTENSION);
+        Files.setLastModifiedTime(expiredFile, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        assertTrue(underTest.findByKey("expired").isEmpty());
+
+        underTest.save("key", cachedResult());
+
+        assertFalse(Files.exists(expiredFile));
+        assertTrue(underTest.findByKey("key").isPresent());
+    }
+
+    @Test
+    void oldestResultsShouldBeEvictedBeyondMaxByteCount(@TempDir final Path tempDir) throws IOException {
+        final LocalValidationResultCacheRepository sizing =
+                new LocalValidationResultCacheRepository(tempDir.toString(), MAX_BYTE_COUNT, Duration.ofDays(1));
+        sizing.save("sizing", cachedResult());
+        final long resultByteCount =
+                Files.size(tempDir.resolve("sizing" + LocalValidationResultCacheRepository.FILE_EXTENSION));
+
+        final LocalValidationResultCacheRepository underTest = new LocalValidationResultCacheRepository(
+                tempDir.toString(), 2 * resultByteCount, Duration.ofDays(1));
+        Files.setLastModifiedTime(tempDir.resolve("sizing" + LocalValidationResultCacheRepository.FILE_EXTENSION),
+                FileTime.from(Instant.now().minusSeconds(20)));
+        underTest.save("older", cachedResult());
+        Files.setLastModifiedTime(tempDir.resolve("older" + LocalValidationResultCacheRepository.FILE_EXTENSION),
+                FileTime.from(Instant.now().minusSeconds(10)));
+        underTest.save("newer", cachedResult());
+
+        assertTrue(underTest.findByKey("sizing").isEmpty());
+        assertTrue(underTest.findByKey("older").isPresent());
+        assertTrue(underTest.findByKey("newer").isPresent());
+    }
+
+    @Test
+    void unreadableResultShouldBeMissingAndDeleted(@TempDir final Path tempDir) throws IOException {
+        final Path corruptFile = Files.writeString(
+                tempDir.resolve("corrupt" + LocalValidationResultCacheRepository.FILE_EXTENSION), "not a result");
+        final LocalValidationResultCacheRepository underTest =
+                new LocalValidationResultCacheRepository(tempDir.toString(), MAX_BYTE_COUNT, Duration.ofDays(1));
+
+        assertTrue(underTest.findByKey("corrupt").isEmpty());
+        assertFalse(Files.exists(corruptFile));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void resultHoldingClassesOutsideOfDomainShouldBeMissingAndDeleted(@TempDir final Path tempDir)
+            throws IOException {
+        final LocalValidationResultCacheRepository underTest =
+                new LocalValidationResultCacheRepository(tempDir.toString(), MAX_BYTE_COUNT, Duration.ofDays(1));
+        final List foreignList = new ArrayList<>(List.of(new Date()));
+        underTest.save("foreign", new CachedValidationResult("agency name", List.of("stops.txt"), foreignList));
+
+        assertTrue(underTest.findByKey("foreign").isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("foreign" + LocalValidationResultCacheRepository.FILE_EXTENSION)));
+    }
+}
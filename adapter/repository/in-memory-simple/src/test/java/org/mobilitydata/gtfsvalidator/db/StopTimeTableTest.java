@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db;
+
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.*;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
+
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StopTimeTableTest {
+
+    @Test
+    void stopTimeShouldBeMaterializedWithSameValues() {
+        final StopTimeTable underTest = new StopTimeTable();
+        underTest.add((StopTime) new StopTime.StopTimeBuilder()
+                .tripId("trip id")
+                .arrivalTime(3600)
+                .departureTime(3660)
+                .stopId("stop id")
+                .stopSequence(7)
+                .stopHeadsign("headsign")
+                .pickupType(1)
+                .dropOffType(2)
+                .continuousPickup(3)
+                .continuousDropOff(0)
+                .shapeDistTraveled(12.5f)
+                .timepoint(1)
+                .build()
+                .getData());
+
+        final StopTime toCheck = underTest.toSortedMap("trip id").get(7);
+        assertEquals("trip id", toCheck.getTripId());
+        assertEquals(3600, toCheck.getArrivalTime());
+        assertEquals(3660, toCheck.getDepartureTime());
+        assertEquals("stop id", toCheck.getStopId());
+        assertEquals(7, toCheck.getStopSequence());
+        assertEquals("headsign", toCheck.getStopHeadsign());
+        assertEquals(PickupType.NO_PICKUP, toCheck.getPickupType());
+        assertEquals(DropOffType.MUST_PHONE_DROP_OFF, toCheck.getDropOffType());
+        assertEquals(ContinuousPickup.MUST_ASK_DRIVER_CONTINUOUS_STOPPING_PICKUP, toCheck.getContinuousPickup());
+        assertEquals(ContinuousDropOff.CONTINUOUS_DROP_OFF, toCheck.getContinuousDropOff());
+        assertEquals(12.5f, toCheck.getShapeDistTraveled());
+        assertEquals(Timepoint.EXACT_TIMES, toCheck.getTimePoint());
+
+        final StopTimeCursor cursor = underTest.cursor("trip id");
+        assertTrue(cursor.next());
+        assertEquals(3600, cursor.getArrivalTime());
+        assertEquals("headsign", cursor.getStopHeadsign());
+        assertEquals(PickupType.NO_PICKUP, cursor.getPickupType());
+        assertEquals(ContinuousDropOff.CONTINUOUS_DROP_OFF, cursor.getContinuousDropOff());
+        assertEquals(12.5f, cursor.getShapeDistTraveled());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void missingOptionalValuesShouldBeMaterializedAsNull() {
+        final StopTimeTable underTest = new StopTimeTable();
+        underTest.add((StopTime) new StopTime.StopTimeBuilder()
+                .tripId("trip id")
+                .stopId("stop id")
+                .stopSequence(0)
+                .pickupType(null)
+                .dropOffType(null)
+                .continuousPickup(null)
+                .continuousDropOff(null)
+                .timepoint(0)
+                .build()
+                .getData());
+
+        final StopTime toCheck = underTest.toSortedMap("trip id").get(0);
+        assertNull(toCheck.getArrivalTime());
+        assertNull(toCheck.getDepartureTime());
+        assertNull(toCheck.getStopHeadsign());
+        assertNull(toCheck.getShapeDistTraveled());
+        assertEquals(Timepoint.APPROXIMATED_TIMES, toCheck.getTimePoint());
+
+        final StopTimeCursor cursor = underTest.cursor();
+        assertTrue(cursor.next());
+        assertFalse(cursor.hasArrivalTime());
+        assertFalse(cursor.hasDepartureTime());
+        assertFalse(cursor.hasShapeDistTraveled());
+        assertNull(cursor.getStopHeadsign());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void rowsAddedBeyondInitialCapacityShouldBeKeptInOrderOfStopSequence() {
+        final StopTimeTable underTest = new StopTimeTable();
+        underTest.reserveTrips(2);
+        // rows are added by descending stop_sequence, alternating between two trips
+        for (int stopSequence = 5000; stopSequence > 0; --stopSequence) {
+            assertTrue(underTest.add(createStopTime(stopSequence % 2 == 0 ? "even" : "odd", stopSequence)));
+        }
+        assertFalse(underTest.add(createStopTime("odd", 4999)));
+
+        final TreeMap<Integer, StopTime> toCheck = underTest.toSortedMap("even");
+        assertEquals(2500, toCheck.size());
+        assertEquals("stop 2", toCheck.firstEntry().getValue().getStopId());
+        assertEquals("stop 5000", toCheck.lastEntry().getValue().getStopId());
+
+        final StopTimeCursor cursor = underTest.cursor("odd");
+        int previousStopSequence = -1;
+        int rowCount = 0;
+        while (cursor.next()) {
+            assertTrue(cursor.getStopSequence() > previousStopSequence);
+            assertEquals("stop " + cursor.getStopSequence(), cursor.getStopId());
+            previousStopSequence = cursor.getStopSequence();
+            rowCount++;
+        }
+        assertEquals(2500, rowCount);
+        assertNull(underTest.toSortedMap("unknown trip"));
+    }
+
+    @Test
+    void appendedRowsShouldBeSortedAndRidOfDuplicatesOnceCompleted() {
+        final StopTimeTable underTest = new StopTimeTable();
+        underTest.append(createStopTime("trip id", 3, "first 3"));
+        underTest.append(createStopTime("trip id", 1, "first 1"));
+        underTest.append(createStopTime("trip id", 3, "second 3"));
+        underTest.append(createStopTime("other trip id", 1, "other 1"));
+        underTest.append(createStopTime("trip id", 2, "first 2"));
+        underTest.append(createStopTime("trip id", 1, "second 1"));
+        underTest.append(createStopTime("trip id", 3, "third 3"));
+
+        final List<StopTime> duplicateList = underTest.completeAppend();
+        assertEquals(3, duplicateList.size());
+        assertEquals("second 3", duplicateList.get(0).getStopId());
+        assertEquals("second 1", duplicateList.get(1).getStopId());
+        assertEquals("third 3", duplicateList.get(2).getStopId());
+        assertEquals("trip id", duplicateList.get(0).getTripId());
+
+        final StopTimeCursor cursor = underTest.cursor("trip id");
+        assertTrue(cursor.next());
+        assertEquals("first 1", cursor.getStopId());
+        assertTrue(cursor.next());
+        assertEquals("first 2", cursor.getStopId());
+        assertTrue(cursor.next());
+        assertEquals("first 3", cursor.getStopId());
+        assertFalse(cursor.next());
+        assertEquals(1, underTest.toSortedMap("other trip id").size());
+        assertTrue(underTest.completeAppend().isEmpty());
+    }
+
+    @Test
+    void manyDuplicatesShouldBeRemovedInOrderTheyWereAppended() {
+        final StopTimeTable underTest = new StopTimeTable();
+        for (int i = 0; i < 5000; ++i) {
+            underTest.append(createStopTime("trip id", i % 2, "row " + i));
+        }
+
+        final List<StopTime> duplicateList = underTest.completeAppend();
+        assertEquals(4998, duplicateList.size());
+        assertEquals("row 2", duplicateList.get(0).getStopId());
+        assertEquals("row 3", duplicateList.get(1).getStopId());
+        assertEquals("row 4999", duplicateList.get(4997).getStopId());
+
+        final StopTimeCursor cursor = underTest.cursor("trip id");
+        assertTrue(cursor.next());
+        assertEquals("row 0", cursor.getStopId());
+        assertTrue(cursor.next());
+        assertEquals("row 1", cursor.getStopId());
+        assertFalse(cursor.next());
+    }
+
+    private static StopTime createStopTime(final String tripId, final int stopSequence) {
+        return createStopTime(tripId, stopSequence, "stop " + stopSequence);
+    }
+
+    private static StopTime createStopTime(final String tripId, final int stopSequence, final String stopId) {
+        return (StopTime) new StopTime.StopTimeBuilder()
+                .tripId(tripId)
+                .stopId(stopId)
+                .stopSequence(stopSequence)
+                .pickupType(null)
+                .dropOffType(null)
+                .continuousPickup(null)
+                .continuousDropOff(null)
+                .timepoint(0)
+                .build()
+                .getData();
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Records grouped by a key, such as a trip_id, and ordered by a sequence number within their group, such as a
+ * stop_sequence, held in a {@link RecordStore}. Each record starts with a header made of the index of the next record
+ * of its group, the code of its group and its sequence number; the fields of a table follow, from offset
+ * {@link #HEADER_WIDTH}. The records of a group are linked, by ascending sequence number once sorted: only the key of
+ * each group and the indexes of its first and last records are held on the heap.
+ * <p>
+ * Records are either added one at a time, in which case a record with the same sequence number as another record of
+ * its group is rejected, or appended without any check when a whole file is loaded, in which case each group is rid of
+ * its duplicated records by {@link #completeAppend()}. Either way, records are linked in the order they come, and a
+ * group which records did not come by ascending sequence number is sorted once, by {@link #completeAppend()} or
+ * {@link #compact()}. Before records are read, {@link #compact()} copies them to a new store group after group, so
+ * that the records of a group are contiguous and can be read by index.
+ */
+final class GroupedRecordTable implements Closeable {
+    static final int HEADER_WIDTH = 3 * Integer.BYTES;
+    static final int NO_GROUP = -1;
+    static final int NO_RECORD = -1;
+    private static final int NEXT_OFFSET = 0;
+    private static final int GROUP_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+
+    private final int recordWidth;
+    private RecordStore store;
+    private Map<String, Integer> codePerKey = new HashMap<>();
+    private final List<Group> groupList = new ArrayList<>();
+    private boolean isCompact = true;
+
+    /**
+     * @param fieldWidth the size in bytes of the fields of a record, the header excluded
+     */
+    GroupedRecordTable(final int fieldWidth) {
+        // records are copied 4 bytes at a time
+        recordWidth = HEADER_WIDTH + (fieldWidth + Integer.BYTES - 1) / Integer.BYTES * Integer.BYTES;
+        store = new RecordStore(recordWidth);
+    }
+
+    /**
+     * Replaces the map of the codes of the groups with a map sized for the number of groups provided as parameter, if
+     * no record has been added yet
+     *
+     * @param expectedGroupCount the number of groups expected
+     */
+    void reserveGroups(final int expectedGroupCount) {
+        if (codePerKey.isEmpty() && expectedGroupCount > 0) {
+            // the default load factor of a HashMap is 0.75
+            codePerKey = new HashMap<>((int) Math.min((long) expectedGroupCount * 4 / 3 + 1, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Adds a record to a group, unless the group already holds a record with the same sequence number
+     *
+     * @param key      the key of the group
+     * @param sequence the sequence number of the record in its group
+     * @return the index of the record added, which fields are to be written, {@link #NO_RECORD} if the record is a
+     * duplicate
+     */
+    int add(final String key, final int sequence) {
+        final Group group = groupOf(key);
+        if (group.sequences == null) {
+            // rows usually come in order, in which case the record is linked after the last one without any lookup
+            if (group.size == 0 || sequence > getSequence(group.last)) {
+                final int record = allocate(group, sequence);
+                link(group, group.last, record, NO_RECORD);
+                return record;
+            }
+            if (sequence == getSequence(group.last)) {
+                return NO_RECORD;
+            }
+            // from the first record added out of order on, the group is sorted once, before it is read
+            group.sequences = new HashSet<>();
+            for (int record = group.first; record != NO_RECORD; record = getNext(record)) {
+                group.sequences.add(getSequence(record));
+            }
+            group.isSorted = false;
+        }
+        if (!group.sequences.add(sequence)) {
+            return NO_RECORD;
+        }
+        final int record = allocate(group, sequence);
+        link(group, group.last, record, NO_RECORD);
+        return record;
+    }
+
+    /**
+     * Appends a record to a group without checking whether the group already holds a record with the same sequence
+     * number. {@link #completeAppend()} is to be called before records are read or added with
+     * {@link #add(String, int)}.
+     *
+     * @param key      the key of the group
+     * @param sequence the sequence number of the record in its group
+     * @return the index of the record appended, which fields are to be written
+     */
+    int append(final String key, final int sequence) {
+        final Group group = groupOf(key);
+        group.isSorted &= group.size == 0 || sequence > getSequence(group.last);
+        final int record = allocate(group, sequence);
+        link(group, group.last, record, NO_RECORD);
+        return record;
+    }
+
+    /**
+     * Sorts the records of each group that were not appended or added by ascending sequence number, and unlinks the
+     * records that have the same sequence number as a record appended before them in the same group. Records unlinked are
+     * left in the store until {@link #compact()} is called: they can still be read until then.
+     *
+     * @return the indexes of the records unlinked, group by group, in the order they were appended
+     */
+    int[] completeAppend() {
+        int[] removedRecords = new int[0];
+        int removedCount = 0;
+        for (final Group group : groupList) {
+            if (group.isSorted) {
+                continue;
+            }
+            // sequence number in the high bits, index in the low bits: records of the same sequence number are
+            // sorted in the order they were appended
+            final long[] keys = new long[group.size];
+            int record = group.first;
+            for (int i = 0; i < keys.length; ++i) {
+                keys[i] = ((long) getSequence(record) << 32) | record;
+                record = getNext(record);
+            }
+            Arrays.sort(keys);
+            final int groupRemovedStart = removedCount;
+            group.first = NO_RECORD;
+            group.last = NO_RECORD;
+            group.size = 0;
+            for (final long key : keys) {
+                record = (int) key;
+                if (group.size > 0 && getSequence(group.last) == getSequence(record)) {
+                    if (removedCount == removedRecords.length) {
+                        removedRecords = Arrays.copyOf(removedRecords, Math.max(8, removedCount * 2));
+                    }
+                    removedRecords[removedCount++] = record;
+                } else {
+                    link(group, group.last, record, NO_RECORD);
+                }
+            }
+            Arrays.sort(removedRecords, groupRemovedStart, removedCount);
+            group.isSorted = true;
+            group.sequences = null;
+        }
+        return Arrays.copyOf(removedRecords, removedCount);
+    }
+
+    /**
+     * Copies the records to a new store group after group, by ascending sequence number, if records were added since
+     * the last call. The records of a group are then contiguous, from {@link #getFirst(int)} included to
+     * {@link #getFirst(int)} + {@link #getSize(int)} excluded. Groups which records were not added in order are sorted
+     * first, and records unlinked by {@link #completeAppend()} are dropped.
+     *
+     * @throws UncheckedIOException if the previous store can not be closed
+     */
+    synchronized void compact() {
+        if (isCompact) {
+            return;
+        }
+        completeAppend();
+        final RecordStore compactStore = new RecordStore(recordWidth);
+        for (final Group group : groupList) {
+            int record = group.first;
+            int previousCopy = NO_RECORD;
+            while (record != NO_RECORD) {
+                final int copy = compactStore.allocate();
+                compactStore.copy(store, record, copy);
+                compactStore.putInt(copy, NEXT_OFFSET, NO_RECORD);
+                if (previousCopy == NO_RECORD) {
+                    group.first = copy;
+                } else {
+                    compactStore.putInt(previousCopy, NEXT_OFFSET, copy);
+                }
+                previousCopy = copy;
+                record = getNext(record);
+            }
+            group.last = previousCopy;
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        store = compactStore;
+        isCompact = true;
+    }
+
+    /**
+     * Returns the number of groups
+     *
+     * @return the number of groups
+     */
+    int getGroupCount() {
+        return groupList.size();
+    }
+
+    /**
+     * Returns the code of a group, from 0 to {@link #getGroupCount()} excluded, in the order groups were created
+     *
+     * @param key the key of the group
+     * @return the code of the group, {@link #NO_GROUP} if no record has this key
+     */
+    int getGroup(final String key) {
+        final Integer code = codePerKey.get(key);
+        return code == null ? NO_GROUP : code;
+    }
+
+    String getKey(final int group) {
+        return groupList.get(group).key;
+    }
+
+    /**
+     * Returns the index of the first record of a group, by ascending sequence number
+     *
+     * @param group the code of a group
+     * @return the index of the first record of the group
+     */
+    int getFirst(final int group) {
+        return groupList.get(group).first;
+    }
+
+    int getSize(final int group) {
+        return groupList.get(group).size;
+    }
+
+    int getNext(final int record) {
+        return store.getInt(record, NEXT_OFFSET);
+    }
+
+    int getGroupOf(final int record) {
+        return store.getInt(record, GROUP_OFFSET);
+    }
+
+    int getSequence(final int record) {
+        return store.getInt(record, SEQUENCE_OFFSET);
+    }
+
+    int getInt(final int record, final int offset) {
+        return store.getInt(record, offset);
+    }
+
+    void putInt(final int record, final int offset, final int value) {
+        store.putInt(record, offset, value);
+    }
+
+    float getFloat(final int record, final int offset) {
+        return store.getFloat(record, offset);
+    }
+
+    void putFloat(final int record, final int offset, final float value) {
+        store.putFloat(record, offset, value);
+    }
+
+    byte getByte(final int record, final int offset) {
+        return store.getByte(record, offset);
+    }
+
+    void putByte(final int record, final int offset, final byte value) {
+        store.putByte(record, offset, value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+
+    private Group groupOf(final String key) {
+        final Integer code = codePerKey.get(key);
+        if (code != null) {
+            return groupList.get(code);
+        }
+        final Group group = new Group(key);
+        codePerKey.put(key, groupList.size());
+        groupList.add(group);
+        return group;
+    }
+
+    private int allocate(final Group group, final int sequence) {
+        final int record = store.allocate();
+        store.putInt(record, GROUP_OFFSET, codePerKey.get(group.key));
+        store.putInt(record, SEQUENCE_OFFSET, sequence);
+        isCompact = false;
+        return record;
+    }
+
+    /**
+     * Links a record between two records of a group, which are {@link #NO_RECORD} at either end of the group
+     */
+    private void link(final Group group, final int previous, final int record, final int next) {
+        store.putInt(record, NEXT_OFFSET, next);
+        if (previous == NO_RECORD) {
+            group.first = record;
+        } else {
+            store.putInt(previous, NEXT_OFFSET, record);
+        }
+        if (next == NO_RECORD) {
+            group.last = record;
+        }
+        group.size++;
+    }
+
+    /**
+     * The key of a group and the indexes of its first and last records
+     */
+    private static final class Group {
+        private final String key;
+        private int first = NO_RECORD;
+        private int last = NO_RECORD;
+        private int size = 0;
+        // false once a record is appended with a sequence number that is not greater than the one of the last record
+        private boolean isSorted = true;
+        // the sequence numbers of the records of the group, only held once a record was added out of order and until
+        // the group is sorted
+        private Set<Integer> sequences = null;
+
+        private Group(final String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.CalendarDate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.mobilitydata.gtfsvalidator.db.offheap.GroupedRecordTable.*;
+
+/**
+ * Holds the rows of calendar_dates.txt as fixed-width records outside of the Java heap, grouped by service_id and
+ * ordered by date, the sequence number of a record being its date as a number of days since the epoch. Rows are
+ * materialized as {@link CalendarDate} objects each time a service is read.
+ */
+final class OffHeapCalendarDateTable implements Closeable {
+    // offsets of the fields of a record
+    private static final int EXCEPTION_TYPE = HEADER_WIDTH;
+    private static final int FIELD_WIDTH = EXCEPTION_TYPE + 1 - HEADER_WIDTH;
+
+    private final GroupedRecordTable table = new GroupedRecordTable(FIELD_WIDTH);
+
+    /**
+     * Adds a row to the table, unless the table already holds a row with the same service_id and date
+     *
+     * @param calendarDate the row to add
+     * @return true if the row was added, false if it is a duplicate
+     */
+    boolean add(final CalendarDate calendarDate) {
+        final int record = table.add(calendarDate.getServiceId(), (int) calendarDate.getDate().toEpochDay());
+        if (record == NO_RECORD) {
+            return false;
+        }
+        table.putByte(record, EXCEPTION_TYPE, (byte) calendarDate.getExceptionType().ordinal());
+        return true;
+    }
+
+    /**
+     * Returns a read-only view of the table as a map of the rows of each service, mapped on their date as a string.
+     * Rows are materialized as {@link CalendarDate} objects each time a service is read from the view, and are not
+     * held by the table.
+     *
+     * @return a read-only view of the table as a map of the rows of each service
+     */
+    Map<String, Map<String, CalendarDate>> asMap() {
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<String, Map<String, CalendarDate>>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, Map<String, CalendarDate>>> iterator() {
+                        return new Iterator<>() {
+                            private int group = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return group < table.getGroupCount();
+                            }
+
+                            @Override
+                            public Entry<String, Map<String, CalendarDate>> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                final int current = group++;
+                                return new SimpleImmutableEntry<>(table.getKey(current), toMap(current));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return table.getGroupCount();
+                    }
+                };
+            }
+
+            @Override
+            public boolean containsKey(final Object serviceId) {
+                return serviceId instanceof String && table.getGroup((String) serviceId) != NO_GROUP;
+            }
+
+            @Override
+            public Map<String, CalendarDate> get(final Object serviceId) {
+                if (!(serviceId instanceof String)) {
+                    return null;
+                }
+                final int group = table.getGroup((String) serviceId);
+                return group == NO_GROUP ? null : toMap(group);
+            }
+
+            @Override
+            public int size() {
+                return table.getGroupCount();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        table.close();
+    }
+
+    /**
+     * Returns the rows of a service mapped on their date as a string, by ascending date. Records are read by following
+     * the links of the group, once the table is compacted so that the groups which rows were not added by ascending
+     * date are sorted.
+     */
+    private Map<String, CalendarDate> toMap(final int group) {
+        table.compact();
+        final Map<String, CalendarDate> toReturn = new LinkedHashMap<>();
+        final CalendarDate.CalendarDateBuilder builder = new CalendarDate.CalendarDateBuilder();
+        for (int record = table.getFirst(group); record != NO_RECORD; record = table.getNext(record)) {
+            final LocalDate date = LocalDate.ofEpochDay(table.getSequence(record));
+            // the value of an exception_type is its ordinal plus one
+            toReturn.put(date.toString(), (CalendarDate) builder.clear()
+                    .serviceId(table.getKey(group))
+                    .date(date)
+                    .exceptionType(table.getByte(record, EXCEPTION_TYPE) + 1)
+                    .build()
+                    .getData());
+        }
+        return toReturn;
+    }
+}
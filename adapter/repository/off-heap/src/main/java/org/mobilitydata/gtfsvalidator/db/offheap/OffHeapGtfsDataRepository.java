@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import org.mobilitydata.gtfsvalidator.db.InMemoryGtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.CalendarDate;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A {@link GtfsDataRepository} holding the rows of the largest GTFS files (stop_times.txt, shapes.txt, trips.txt and
+ * calendar_dates.txt) outside of the Java heap, as fixed-width records in temporary files mapped in memory. Only the
+ * index of each table (the key of each trip, shape or service) and the distinct string values referred to by records
+ * are held on the heap. Rows of these files are materialized as entities each time they are read. The other files
+ * are held on the heap as in {@link InMemoryGtfsDataRepository}.
+ * This is meant for datasets that do not fit in the heap: temporary files are deleted once the repository is closed,
+ * or when the JVM terminates otherwise.
+ */
+public class OffHeapGtfsDataRepository extends InMemoryGtfsDataRepository implements Closeable {
+    // Table holding the rows of GTFS file trips.txt. Records are grouped on the value found in column trip_id
+    private final OffHeapTripTable tripTable = new OffHeapTripTable();
+
+    // Table holding the rows of GTFS file calendar_dates.txt. Records are grouped on the value found in column
+    // service_id and ordered by the value found in column date
+    private final OffHeapCalendarDateTable calendarDateTable = new OffHeapCalendarDateTable();
+
+    // Table holding the rows of GTFS file shapes.txt. Records are grouped on the value found in column shape_id and
+    // ordered by the value found in column shape_pt_sequence
+    private final OffHeapShapeTable shapeTable = new OffHeapShapeTable();
+
+    // Table holding the rows of GTFS file stop_times.txt. Records are grouped on the value found in column trip_id and
+    // ordered by the value found in column stop_sequence
+    private final OffHeapStopTimeTable stopTimeTable = new OffHeapStopTimeTable();
+
+    /**
+     * Add a trip representing a row from trips.txt to this {@link GtfsDataRepository}. Return the entity added to the
+     * repository if the uniqueness constraint of trip based on trip_id is respected, if this requirement is not met,
+     * returns null.
+     *
+     * @param newTrip the internal representation of a row from trips.txt to be added to the repository.
+     * @return the entity added to the repository if the uniqueness constraint of trip based on trip_id is
+     * respected, if this requirement is not met returns null.
+     * @throws IllegalArgumentException if the trip passed as argument is null
+     */
+    @Override
+    public Trip addTrip(final Trip newTrip) throws IllegalArgumentException {
+        if (newTrip != null) {
+            return tripTable.add(newTrip) ? newTrip : null;
+        } else {
+            throw new IllegalArgumentException("Cannot add null trip to data repository");
+        }
+    }
+
+    /**
+     * Return the Trip representing a row from trips.txt related to the id provided as parameter. The Trip is
+     * materialized from the records of the repository on each call.
+     *
+     * @param tripId the key from trips.txt related to the Trip to be returned
+     * @return the Trip representing a row from trips.txt related to the id provided as parameter
+     */
+    @Override
+    public Trip getTripById(final String tripId) {
+        return tripTable.get(tripId);
+    }
+
+    /**
+     * Return an immutable map of Trip objects representing all the rows from trips.txt. Entities are mapped on trip_id
+     * of file `trips.txt`. The map is a view of the records of the repository: a Trip is materialized each time it is
+     * read from the view.
+     *
+     * @return an immutable map of Trip objects representing all the rows from trips.txt
+     */
+    @Override
+    public Map<String, Trip> getTripAll() {
+        return Collections.unmodifiableMap(tripTable.asMap());
+    }
+
+    /**
+     * Return an immutable map of {@link Trip} grouped by blockId value. The map is a view of the records of the
+     * repository: the trips of a block are materialized each time the block is read.
+     *
+     * @return an immutable map of {@link Trip} grouped by blockId value
+     */
+    @Override
+    public Map<String, List<Trip>> getAllTripByBlockId() {
+        return Collections.unmodifiableMap(tripTable.toMapByBlockId());
+    }
+
+    /**
+     * Add a CalendarDate representing a row from calendar_dates.txt to this. Return the entity added to the repository
+     * if the uniqueness constraint of calendar date based on service_id and date is respected, if this requirement is
+     * not met, returns null.
+     *
+     * @param newCalendarDate the internal representation of a row from calendar_dates.txt to be added to the repository
+     * @return the entity added to the repository if the uniqueness constraint of calendar date based on service_id and
+     * date is respected, if this requirement is not met returns null.
+     * @throws IllegalArgumentException if the calendar date passed as argument is null
+     */
+    @Override
+    public CalendarDate addCalendarDate(final CalendarDate newCalendarDate) throws IllegalArgumentException {
+        if (newCalendarDate != null) {
+            return calendarDateTable.add(newCalendarDate) ? newCalendarDate : null;
+        } else {
+            throw new IllegalArgumentException("Cannot add null calendar date to data repository");
+        }
+    }
+
+    /**
+     * Return an immutable collection of {@code CalendarDate} objects representing all the rows from calendar_dates.txt.
+     * Entities are mapped on service_id and date in a nested map. The map is a view of the records of the repository:
+     * the CalendarDate of a service are materialized each time said service is read from the view.
+     *
+     * @return a immutable collection of {@code CalendarDate} objects representing all the rows from calendar_dates.txt
+     */
+    @Override
+    public Map<String, Map<String, CalendarDate>> getCalendarDateAll() {
+        return Collections.unmodifiableMap(calendarDateTable.asMap());
+    }
+
+    /**
+     * Add a {@link ShapePoint} representing a row from shapes.txt to its shape. Return the entity added to the
+     * repository if the entity was successfully added, and returns null if the provided newShapePoint already exists
+     * in the repository.
+     *
+     * @param newShapePoint the internal representation of a row from shapes.txt to be added to the repository.
+     * @return the entity added to the repository if the entity was successfully added, and returns null if the
+     * provided newShapePoint already exists in the repository
+     * @throws IllegalArgumentException if the shape point passed as argument is null
+     */
+    @Override
+    public ShapePoint addShapePoint(final ShapePoint newShapePoint) throws IllegalArgumentException {
+        if (newShapePoint != null) {
+            return shapeTable.add(newShapePoint) ? newShapePoint : null;
+        } else {
+            throw new IllegalArgumentException("Cannot add null shape point to data repository");
+        }
+    }
+
+    /**
+     * Append a {@link ShapePoint} to the records of its shape without checking whether the shape already holds a
+     * point with the same shape_pt_sequence. Shapes are sorted and rid of their duplicated points by
+     * {@link #completeShapePointLoad()}.
+     *
+     * @param newShapePoint the internal representation of a row from shapes.txt to be appended to the repository.
+     * @throws IllegalArgumentException if the shape point passed as argument is null
+     */
+    @Override
+    public void appendShapePoint(final ShapePoint newShapePoint) throws IllegalArgumentException {
+        if (newShapePoint != null) {
+            shapeTable.append(newShapePoint);
+        } else {
+            throw new IllegalArgumentException("Cannot add null shape point to data repository");
+        }
+    }
+
+    /**
+     * Sort the points of each shape by shape_pt_sequence, once for the whole of shapes.txt, and remove the points
+     * appended after a point with the same shape_id and shape_pt_sequence.
+     *
+     * @return the shape points removed from the repository, in the order they were appended for a given shape
+     */
+    @Override
+    public List<ShapePoint> completeShapePointLoad() {
+        return shapeTable.completeAppend();
+    }
+
+    /**
+     * Return an immutable map of shape points from shapes.txt related to the id provided as parameter, ordered by
+     * shape_pt_sequence. Its {@link ShapePoint} are materialized from the records of the repository on each call:
+     * prefer {@link #getShapeViewById(String)} to read values only.
+     *
+     * @param shapeId identifies a shape
+     * @return an immutable map of shape points from shapes.txt related to the id provided as parameter, null if no
+     * record is related to the id
+     */
+    @Override
+    public SortedMap<Integer, ShapePoint> getShapeById(final String shapeId) {
+        final SortedMap<Integer, ShapePoint> shape = shapeTable.toSortedMap(shapeId);
+        return shape == null ? null : Collections.unmodifiableSortedMap(shape);
+    }
+
+    /**
+     * Return an immutable map representing all records from shapes.txt, mapped on shape_id then on
+     * shape_pt_sequence. The map is a view of the records of the repository: the {@link ShapePoint} of a shape are
+     * materialized each time said shape is read from the view.
+     *
+     * @return an immutable map representing all records from shapes.txt
+     */
+    @Override
+    public Map<String, SortedMap<Integer, ShapePoint>> getShapeAll() {
+        return Collections.unmodifiableMap(shapeTable.asMap());
+    }
+
+    /**
+     * Return a view of the shape points from shapes.txt related to the id provided as parameter, ordered by
+     * shape_pt_sequence. The view reads the records the shape is held in.
+     *
+     * @param shapeId identifies a shape
+     * @return a view of the shape points from shapes.txt related to the id provided as parameter, null if no record
+     * is related to the id
+     */
+    @Override
+    public ShapeView getShapeViewById(final String shapeId) {
+        return shapeTable.view(shapeId);
+    }
+
+    /**
+     * Return a view of each shape from shapes.txt. Views read the records shapes are held in.
+     *
+     * @return a view of each shape from shapes.txt
+     */
+    @Override
+    public Collection<ShapeView> getShapeViewAll() {
+        return Collections.unmodifiableCollection(shapeTable.views());
+    }
+
+    /**
+     * Add a {@link StopTime} representing a row from stop_times.txt to this {@link GtfsDataRepository}. Return the
+     * entity added to the repository if the uniqueness constraint on rows from stop_times.txt is respected, if this
+     * requirement is not met, returns null.
+     *
+     * @param newStopTime the internal representation of a row from stop_times.txt to be added to the repository.
+     * @return the entity added to the repository if the uniqueness constraint on rows from stop_times.txt is
+     * respected, if this requirement is not met, returns null
+     * @throws IllegalArgumentException if the stop time passed as argument is null
+     */
+    @Override
+    public StopTime addStopTime(final StopTime newStopTime) throws IllegalArgumentException {
+        if (newStopTime != null) {
+            return stopTimeTable.add(newStopTime) ? newStopTime : null;
+        } else {
+            throw new IllegalArgumentException("Cannot add null StopTime to data repository");
+        }
+    }
+
+    /**
+     * Append a {@link StopTime} to the records of its trip without checking whether the trip already holds a row
+     * with the same stop_sequence. Trips are sorted and rid of their duplicated rows by
+     * {@link #completeStopTimeLoad()}.
+     *
+     * @param newStopTime the internal representation of a row from stop_times.txt to be appended to the repository.
+     * @throws IllegalArgumentException if the stop time passed as argument is null
+     */
+    @Override
+    public void appendStopTime(final StopTime newStopTime) throws IllegalArgumentException {
+        if (newStopTime != null) {
+            stopTimeTable.append(newStopTime);
+        } else {
+            throw new IllegalArgumentException("Cannot add null StopTime to data repository");
+        }
+    }
+
+    /**
+     * Sort the rows of each trip by stop_sequence, once for the whole of stop_times.txt, and remove the rows appended
+     * after a row with the same trip_id and stop_sequence.
+     *
+     * @return the records removed from the repository, in the order they were appended for a given trip
+     */
+    @Override
+    public List<StopTime> completeStopTimeLoad() {
+        return stopTimeTable.completeAppend();
+    }
+
+    /**
+     * Return an immutable map of {@link StopTime} from stop_times.txt related to the trip_id provided as parameter,
+     * ordered by stop_sequence. Its {@link StopTime} are materialized from the records of the repository on each call:
+     * prefer {@link #getStopTimeCursorByTripId(String)} to read values only.
+     *
+     * @param tripId identifies a trip
+     * @return an immutable map of {@link StopTime} from stop_times.txt related to the trip_id provided as parameter
+     */
+    @Override
+    public SortedMap<Integer, StopTime> getStopTimeByTripId(final String tripId) {
+        return Collections.unmodifiableSortedMap(stopTimeTable.toSortedMap(tripId));
+    }
+
+    /**
+     * Return an immutable map representing all records from stop_times.txt, mapped on trip_id then on stop_sequence.
+     * The map is a view of the records of the repository: the {@link StopTime} of a trip are materialized each time
+     * said trip is read from the view.
+     *
+     * @return an immutable map representing all records from stop_times.txt
+     */
+    @Override
+    public Map<String, TreeMap<Integer, StopTime>> getStopTimeAll() {
+        return Collections.unmodifiableMap(stopTimeTable.asMap());
+    }
+
+    /**
+     * Return a cursor over all records from stop_times.txt, trip by trip. Records of a trip are iterated by ascending
+     * stop_sequence.
+     *
+     * @return a cursor over all records from stop_times.txt
+     */
+    @Override
+    public StopTimeCursor getStopTimeCursor() {
+        return stopTimeTable.cursor();
+    }
+
+    /**
+     * Return a cursor over the records from stop_times.txt related to the trip_id provided as parameter, by ascending
+     * stop_sequence. The cursor has no row if no record is related to the trip_id.
+     *
+     * @param tripId identifies a trip
+     * @return a cursor over the records from stop_times.txt related to the trip_id provided as parameter
+     */
+    @Override
+    public StopTimeCursor getStopTimeCursorByTripId(final String tripId) {
+        return stopTimeTable.cursor(tripId);
+    }
+
+    /**
+     * Sizes the index of trips from the number of rows of trips.txt, for both trips and stop times. Records are not
+     * presized: they are allocated in slabs of a temporary file. Other files are handled as in
+     * {@link InMemoryGtfsDataRepository#reserveCapacity(String, int)}.
+     *
+     * @param filename         the name of the GTFS file
+     * @param expectedRowCount the number of rows expected in the file
+     */
+    @Override
+    public void reserveCapacity(final String filename, final int expectedRowCount) {
+        switch (filename) {
+            case "trips.txt": {
+                tripTable.reserveTrips(expectedRowCount);
+                stopTimeTable.reserveTrips(expectedRowCount);
+                break;
+            }
+            case "stop_times.txt": {
+                break;
+            }
+            default: {
+                super.reserveCapacity(filename, expectedRowCount);
+            }
+        }
+    }
+
+    /**
+     * Closes the tables held outside of the heap and deletes their temporary files. Records of these tables can not be
+     * read anymore.
+     *
+     * @throws IOException if a temporary file can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        tripTable.close();
+        calendarDateTable.close();
+        shapeTable.close();
+        stopTimeTable.close();
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+import static org.mobilitydata.gtfsvalidator.db.offheap.GroupedRecordTable.*;
+
+/**
+ * Holds the rows of shapes.txt as fixed-width records outside of the Java heap, grouped by shape_id and ordered by
+ * shape_pt_sequence. Shapes are read through {@link ShapeView} backed by these records, or materialized as
+ * {@link ShapePoint} objects on demand.
+ */
+final class OffHeapShapeTable implements Closeable {
+    // offsets of the fields of a record
+    private static final int SHAPE_PT_LAT = HEADER_WIDTH;
+    private static final int SHAPE_PT_LON = SHAPE_PT_LAT + Float.BYTES;
+    // NaN if the point has no shape_dist_traveled
+    private static final int SHAPE_DIST_TRAVELED = SHAPE_PT_LON + Float.BYTES;
+    private static final int FIELD_WIDTH = SHAPE_DIST_TRAVELED + Float.BYTES - HEADER_WIDTH;
+
+    private final GroupedRecordTable table = new GroupedRecordTable(FIELD_WIDTH);
+
+    /**
+     * Adds a point to its shape, unless the shape already holds a point with the same shape_pt_sequence
+     *
+     * @param shapePoint the point to add
+     * @return true if the point was added, false if it is a duplicate
+     */
+    boolean add(final ShapePoint shapePoint) {
+        final int record = table.add(shapePoint.getShapeId(), shapePoint.getShapePtSequence());
+        if (record == NO_RECORD) {
+            return false;
+        }
+        store(record, shapePoint);
+        return true;
+    }
+
+    /**
+     * Appends a point to its shape without checking whether the shape already holds a point with the same
+     * shape_pt_sequence. {@link #completeAppend()} is to be called before the table is read or a point is added with
+     * {@link #add(ShapePoint)}.
+     *
+     * @param shapePoint the point to append
+     */
+    void append(final ShapePoint shapePoint) {
+        store(table.append(shapePoint.getShapeId(), shapePoint.getShapePtSequence()), shapePoint);
+    }
+
+    /**
+     * Sorts the points of each shape that were not appended by ascending shape_pt_sequence, and removes the points
+     * that have the same shape_pt_sequence as a point appended before them in the same shape
+     *
+     * @return the points removed, shape by shape, in the order they were appended
+     */
+    List<ShapePoint> completeAppend() {
+        final int[] removedRecords = table.completeAppend();
+        final List<ShapePoint> toReturn = new ArrayList<>(removedRecords.length);
+        final ShapePoint.ShapeBuilder builder = new ShapePoint.ShapeBuilder();
+        for (final int record : removedRecords) {
+            toReturn.add(toShapePoint(record, builder.clear()));
+        }
+        return toReturn;
+    }
+
+    /**
+     * Returns a view of a shape, null if the table holds no point for said shape
+     *
+     * @param shapeId identifies a shape
+     * @return a view of a shape, null if the table holds no point for said shape
+     */
+    ShapeView view(final String shapeId) {
+        table.compact();
+        final int group = table.getGroup(shapeId);
+        return group == NO_GROUP ? null : new View(group);
+    }
+
+    /**
+     * Returns a view of each shape of the table
+     *
+     * @return a view of each shape of the table
+     */
+    Collection<ShapeView> views() {
+        table.compact();
+        final List<ShapeView> toReturn = new ArrayList<>(table.getGroupCount());
+        for (int group = 0; group < table.getGroupCount(); ++group) {
+            toReturn.add(new View(group));
+        }
+        return toReturn;
+    }
+
+    /**
+     * Returns the points of a shape as {@link ShapePoint} objects mapped on their shape_pt_sequence, null if the table
+     * holds no point for said shape
+     *
+     * @param shapeId identifies a shape
+     * @return the points of a shape mapped on their shape_pt_sequence, null if the table holds no point for said shape
+     */
+    SortedMap<Integer, ShapePoint> toSortedMap(final String shapeId) {
+        table.compact();
+        final int group = table.getGroup(shapeId);
+        return group == NO_GROUP ? null : toSortedMap(group);
+    }
+
+    /**
+     * Returns a read-only view of the table as a map of the points of each shape. Points are materialized as
+     * {@link ShapePoint} objects each time a shape is read from the view, and are not held by the table.
+     *
+     * @return a read-only view of the table as a map of the points of each shape
+     */
+    Map<String, SortedMap<Integer, ShapePoint>> asMap() {
+        table.compact();
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<String, SortedMap<Integer, ShapePoint>>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, SortedMap<Integer, ShapePoint>>> iterator() {
+                        return new Iterator<>() {
+                            private int group = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return group < table.getGroupCount();
+                            }
+
+                            @Override
+                            public Entry<String, SortedMap<Integer, ShapePoint>> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                final int current = group++;
+                                return new SimpleImmutableEntry<>(table.getKey(current), toSortedMap(current));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return table.getGroupCount();
+                    }
+                };
+            }
+
+            @Override
+            public boolean containsKey(final Object shapeId) {
+                return shapeId instanceof String && table.getGroup((String) shapeId) != NO_GROUP;
+            }
+
+            @Override
+            public SortedMap<Integer, ShapePoint> get(final Object shapeId) {
+                return shapeId instanceof String ? toSortedMap((String) shapeId) : null;
+            }
+
+            @Override
+            public int size() {
+                return table.getGroupCount();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        table.close();
+    }
+
+    private void store(final int record, final ShapePoint shapePoint) {
+        table.putFloat(record, SHAPE_PT_LAT, shapePoint.getShapePtLat());
+        table.putFloat(record, SHAPE_PT_LON, shapePoint.getShapePtLon());
+        table.putFloat(record, SHAPE_DIST_TRAVELED,
+                shapePoint.getShapeDistTraveled() == null ? Float.NaN : shapePoint.getShapeDistTraveled());
+    }
+
+    private SortedMap<Integer, ShapePoint> toSortedMap(final int group) {
+        final SortedMap<Integer, ShapePoint> toReturn = new TreeMap<>();
+        final ShapePoint.ShapeBuilder builder = new ShapePoint.ShapeBuilder();
+        final int first = table.getFirst(group);
+        for (int record = first; record < first + table.getSize(group); ++record) {
+            toReturn.put(table.getSequence(record), toShapePoint(record, builder.clear()));
+        }
+        return toReturn;
+    }
+
+    private ShapePoint toShapePoint(final int record, final ShapePoint.ShapeBuilder builder) {
+        final float shapeDistTraveled = table.getFloat(record, SHAPE_DIST_TRAVELED);
+        return (ShapePoint) builder
+                .shapeId(table.getKey(table.getGroupOf(record)))
+                .shapePtLat(table.getFloat(record, SHAPE_PT_LAT))
+                .shapePtLon(table.getFloat(record, SHAPE_PT_LON))
+                .shapePtSequence(table.getSequence(record))
+                .shapeDistTraveled(Float.isNaN(shapeDistTraveled) ? null : shapeDistTraveled)
+                .build()
+                .getData();
+    }
+
+    /**
+     * A view of the records of a shape, which are contiguous once the table is compacted
+     */
+    private final class View implements ShapeView {
+        private final int group;
+        private final int first;
+        private final int size;
+
+        private View(final int group) {
+            this.group = group;
+            this.first = table.getFirst(group);
+            this.size = table.getSize(group);
+        }
+
+        @Override
+        public String getShapeId() {
+            return table.getKey(group);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int getShapePtSequence(final int index) {
+            return table.getSequence(record(index));
+        }
+
+        @Override
+        public double getShapePtLat(final int index) {
+            return table.getFloat(record(index), SHAPE_PT_LAT);
+        }
+
+        @Override
+        public double getShapePtLon(final int index) {
+            return table.getFloat(record(index), SHAPE_PT_LON);
+        }
+
+        @Override
+        public boolean hasShapeDistTraveled(final int index) {
+            return !Float.isNaN(table.getFloat(record(index), SHAPE_DIST_TRAVELED));
+        }
+
+        @Override
+        public float getShapeDistTraveled(final int index) {
+            return table.getFloat(record(index), SHAPE_DIST_TRAVELED);
+        }
+
+        private int record(final int index) {
+            return first + Objects.checkIndex(index, size);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.*;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+import static org.mobilitydata.gtfsvalidator.db.offheap.GroupedRecordTable.*;
+
+/**
+ * Holds the rows of stop_times.txt as fixed-width records outside of the Java heap, grouped by trip_id and ordered by
+ * stop_sequence. Times are held as {@code int} values, distances as {@code float} values and enumerated values as
+ * {@code byte} values. Stop ids and stop headsigns are held once on the heap in a {@link StringDictionary} and
+ * referred to by their code. Rows are read through a {@link StopTimeCursor} without materializing any object, or
+ * materialized as {@link StopTime} objects on demand, one trip at a time.
+ */
+final class OffHeapStopTimeTable implements Closeable {
+    // sentinel values of missing optional values
+    private static final int NO_TIME = Integer.MIN_VALUE;
+    private static final byte NO_ENUM_VALUE = -1;
+
+    // offsets of the fields of a record
+    private static final int ARRIVAL_TIME = HEADER_WIDTH;
+    private static final int DEPARTURE_TIME = ARRIVAL_TIME + Integer.BYTES;
+    private static final int STOP_ID = DEPARTURE_TIME + Integer.BYTES;
+    private static final int STOP_HEADSIGN = STOP_ID + Integer.BYTES;
+    private static final int SHAPE_DIST_TRAVELED = STOP_HEADSIGN + Integer.BYTES;
+    private static final int PICKUP_TYPE = SHAPE_DIST_TRAVELED + Float.BYTES;
+    private static final int DROP_OFF_TYPE = PICKUP_TYPE + 1;
+    private static final int CONTINUOUS_PICKUP = DROP_OFF_TYPE + 1;
+    private static final int CONTINUOUS_DROP_OFF = CONTINUOUS_PICKUP + 1;
+    private static final int TIMEPOINT = CONTINUOUS_DROP_OFF + 1;
+    private static final int FIELD_WIDTH = TIMEPOINT + 1 - HEADER_WIDTH;
+
+    // values() returns a new array on each call
+    private static final PickupType[] PICKUP_TYPES = PickupType.values();
+    private static final DropOffType[] DROP_OFF_TYPES = DropOffType.values();
+    private static final ContinuousPickup[] CONTINUOUS_PICKUPS = ContinuousPickup.values();
+    private static final ContinuousDropOff[] CONTINUOUS_DROP_OFFS = ContinuousDropOff.values();
+    private static final Timepoint[] TIMEPOINTS = Timepoint.values();
+
+    private final GroupedRecordTable table = new GroupedRecordTable(FIELD_WIDTH);
+    private final StringDictionary dictionary = new StringDictionary();
+
+    /**
+     * Sizes the index of the trips for the number of trips provided as parameter, if no row has been added yet
+     *
+     * @param expectedTripCount the number of trips expected in trips.txt
+     */
+    void reserveTrips(final int expectedTripCount) {
+        table.reserveGroups(expectedTripCount);
+    }
+
+    /**
+     * Adds a row to the table, unless the table already holds a row with the same trip_id and stop_sequence
+     *
+     * @param stopTime the row to add
+     * @return true if the row was added, false if it is a duplicate
+     */
+    boolean add(final StopTime stopTime) {
+        final int record = table.add(stopTime.getTripId(), stopTime.getStopSequence());
+        if (record == NO_RECORD) {
+            return false;
+        }
+        store(record, stopTime);
+        return true;
+    }
+
+    /**
+     * Appends a row to the rows of its trip without checking whether the trip already holds a row with the same
+     * stop_sequence. {@link #completeAppend()} is to be called before the table is read or a row is added with
+     * {@link #add(StopTime)}.
+     *
+     * @param stopTime the row to append
+     */
+    void append(final StopTime stopTime) {
+        store(table.append(stopTime.getTripId(), stopTime.getStopSequence()), stopTime);
+    }
+
+    /**
+     * Sorts the rows of each trip that were not appended by ascending stop_sequence, and removes the rows that have
+     * the same stop_sequence as a row appended before them in the same trip
+     *
+     * @return the rows removed, trip by trip, in the order they were appended
+     */
+    List<StopTime> completeAppend() {
+        final int[] removedRecords = table.completeAppend();
+        final List<StopTime> toReturn = new ArrayList<>(removedRecords.length);
+        final StopTime.StopTimeBuilder builder = new StopTime.StopTimeBuilder();
+        for (final int record : removedRecords) {
+            toReturn.add(toStopTime(record, builder.clear()));
+        }
+        return toReturn;
+    }
+
+    /**
+     * Returns the rows of a trip as {@link StopTime} objects mapped on their stop_sequence, null if the table holds
+     * no row for said trip
+     *
+     * @param tripId identifies a trip
+     * @return the rows of a trip mapped on their stop_sequence, null if the table holds no row for said trip
+     */
+    TreeMap<Integer, StopTime> toSortedMap(final String tripId) {
+        table.compact();
+        final int group = table.getGroup(tripId);
+        return group == NO_GROUP ? null : toSortedMap(group);
+    }
+
+    /**
+     * Returns a read-only view of the table as a map of the rows of each trip. Rows are materialized as
+     * {@link StopTime} objects each time a trip is read from the view, and are not held by the table.
+     *
+     * @return a read-only view of the table as a map of the rows of each trip
+     */
+    Map<String, TreeMap<Integer, StopTime>> asMap() {
+        table.compact();
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<String, TreeMap<Integer, StopTime>>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, TreeMap<Integer, StopTime>>> iterator() {
+                        return new Iterator<>() {
+                            private int group = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return group < table.getGroupCount();
+                            }
+
+                            @Override
+                            public Entry<String, TreeMap<Integer, StopTime>> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                final int current = group++;
+                                return new SimpleImmutableEntry<>(table.getKey(current), toSortedMap(current));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return table.getGroupCount();
+                    }
+                };
+            }
+
+            @Override
+            public boolean containsKey(final Object tripId) {
+                return tripId instanceof String && table.getGroup((String) tripId) != NO_GROUP;
+            }
+
+            @Override
+            public TreeMap<Integer, StopTime> get(final Object tripId) {
+                return tripId instanceof String ? toSortedMap((String) tripId) : null;
+            }
+
+            @Override
+            public int size() {
+                return table.getGroupCount();
+            }
+        };
+    }
+
+    /**
+     * Returns a cursor over all rows of the table, trip by trip
+     *
+     * @return a cursor over all rows of the table, trip by trip
+     */
+    StopTimeCursor cursor() {
+        table.compact();
+        return new Cursor(0, table.getGroupCount());
+    }
+
+    /**
+     * Returns a cursor over the rows of a trip, which has no row if the table holds no row for said trip
+     *
+     * @param tripId identifies a trip
+     * @return a cursor over the rows of a trip
+     */
+    StopTimeCursor cursor(final String tripId) {
+        table.compact();
+        final int group = table.getGroup(tripId);
+        return group == NO_GROUP ? new Cursor(0, 0) : new Cursor(group, group + 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        table.close();
+    }
+
+    private void store(final int record, final StopTime stopTime) {
+        table.putInt(record, ARRIVAL_TIME, stopTime.getArrivalTime() == null ? NO_TIME : stopTime.getArrivalTime());
+        table.putInt(record, DEPARTURE_TIME,
+                stopTime.getDepartureTime() == null ? NO_TIME : stopTime.getDepartureTime());
+        table.putInt(record, STOP_ID, dictionary.encode(stopTime.getStopId()));
+        table.putInt(record, STOP_HEADSIGN, dictionary.encode(stopTime.getStopHeadsign()));
+        table.putFloat(record, SHAPE_DIST_TRAVELED,
+                stopTime.getShapeDistTraveled() == null ? Float.NaN : stopTime.getShapeDistTraveled());
+        table.putByte(record, PICKUP_TYPE, encode(stopTime.getPickupType()));
+        table.putByte(record, DROP_OFF_TYPE, encode(stopTime.getDropOffType()));
+        table.putByte(record, CONTINUOUS_PICKUP, encode(stopTime.getContinuousPickup()));
+        table.putByte(record, CONTINUOUS_DROP_OFF, encode(stopTime.getContinuousDropOff()));
+        table.putByte(record, TIMEPOINT, encode(stopTime.getTimePoint()));
+    }
+
+    private TreeMap<Integer, StopTime> toSortedMap(final int group) {
+        final TreeMap<Integer, StopTime> toReturn = new TreeMap<>();
+        final StopTime.StopTimeBuilder builder = new StopTime.StopTimeBuilder();
+        final int first = table.getFirst(group);
+        for (int record = first; record < first + table.getSize(group); ++record) {
+            final StopTime stopTime = toStopTime(record, builder.clear());
+            toReturn.put(stopTime.getStopSequence(), stopTime);
+        }
+        return toReturn;
+    }
+
+    private StopTime toStopTime(final int record, final StopTime.StopTimeBuilder builder) {
+        final int arrivalTime = table.getInt(record, ARRIVAL_TIME);
+        final int departureTime = table.getInt(record, DEPARTURE_TIME);
+        final float shapeDistTraveled = table.getFloat(record, SHAPE_DIST_TRAVELED);
+        // the value of each enumerated type of stop_times.txt is its ordinal
+        return (StopTime) builder
+                .tripId(table.getKey(table.getGroupOf(record)))
+                .arrivalTime(arrivalTime == NO_TIME ? null : arrivalTime)
+                .departureTime(departureTime == NO_TIME ? null : departureTime)
+                .stopId(dictionary.decode(table.getInt(record, STOP_ID)))
+                .stopSequence(table.getSequence(record))
+                .stopHeadsign(dictionary.decode(table.getInt(record, STOP_HEADSIGN)))
+                .pickupType(decode(table.getByte(record, PICKUP_TYPE)))
+                .dropOffType(decode(table.getByte(record, DROP_OFF_TYPE)))
+                .continuousPickup(decode(table.getByte(record, CONTINUOUS_PICKUP)))
+                .continuousDropOff(decode(table.getByte(record, CONTINUOUS_DROP_OFF)))
+                .shapeDistTraveled(Float.isNaN(shapeDistTraveled) ? null : shapeDistTraveled)
+                .timepoint(decode(table.getByte(record, TIMEPOINT)))
+                .build()
+                .getData();
+    }
+
+    private static byte encode(final Enum<?> value) {
+        return value == null ? NO_ENUM_VALUE : (byte) value.ordinal();
+    }
+
+    private static Integer decode(final byte value) {
+        return value == NO_ENUM_VALUE ? null : (int) value;
+    }
+
+    private static <E> E decode(final E[] values, final byte value) {
+        return value == NO_ENUM_VALUE ? null : values[value];
+    }
+
+    /**
+     * A flyweight positioned on one record of the table at a time. The records of a trip are contiguous once the
+     * table is compacted.
+     */
+    private final class Cursor implements StopTimeCursor {
+        private final int endGroup;
+        private int group;
+        private int record = -1;
+        private int endRecord = 0;
+
+        private Cursor(final int startGroup, final int endGroup) {
+            this.group = startGroup - 1;
+            this.endGroup = endGroup;
+        }
+
+        @Override
+        public boolean next() {
+            while (++record >= endRecord) {
+                if (group + 1 >= endGroup) {
+                    record = endRecord;
+                    return false;
+                }
+                group++;
+                record = table.getFirst(group) - 1;
+                endRecord = table.getFirst(group) + table.getSize(group);
+            }
+            return true;
+        }
+
+        @Override
+        public String getTripId() {
+            return table.getKey(group);
+        }
+
+        @Override
+        public int getStopSequence() {
+            return table.getSequence(record);
+        }
+
+        @Override
+        public String getStopId() {
+            return dictionary.decode(table.getInt(record, STOP_ID));
+        }
+
+        @Override
+        public boolean hasArrivalTime() {
+            return table.getInt(record, ARRIVAL_TIME) != NO_TIME;
+        }
+
+        @Override
+        public int getArrivalTime() {
+            return table.getInt(record, ARRIVAL_TIME);
+        }
+
+        @Override
+        public boolean hasDepartureTime() {
+            return table.getInt(record, DEPARTURE_TIME) != NO_TIME;
+        }
+
+        @Override
+        public int getDepartureTime() {
+            return table.getInt(record, DEPARTURE_TIME);
+        }
+
+        @Override
+        public String getStopHeadsign() {
+            return dictionary.decode(table.getInt(record, STOP_HEADSIGN));
+        }
+
+        @Override
+        public PickupType getPickupType() {
+            return decode(PICKUP_TYPES, table.getByte(record, PICKUP_TYPE));
+        }
+
+        @Override
+        public DropOffType getDropOffType() {
+            return decode(DROP_OFF_TYPES, table.getByte(record, DROP_OFF_TYPE));
+        }
+
+        @Override
+        public ContinuousPickup getContinuousPickup() {
+            return decode(CONTINUOUS_PICKUPS, table.getByte(record, CONTINUOUS_PICKUP));
+        }
+
+        @Override
+        public ContinuousDropOff getContinuousDropOff() {
+            return decode(CONTINUOUS_DROP_OFFS, table.getByte(record, CONTINUOUS_DROP_OFF));
+        }
+
+        @Override
+        public boolean hasShapeDistTraveled() {
+            return !Float.isNaN(table.getFloat(record, SHAPE_DIST_TRAVELED));
+        }
+
+        @Override
+        public float getShapeDistTraveled() {
+            return table.getFloat(record, SHAPE_DIST_TRAVELED);
+        }
+
+        @Override
+        public Timepoint getTimepoint() {
+            return decode(TIMEPOINTS, table.getByte(record, TIMEPOINT));
+        }
+    }
+}
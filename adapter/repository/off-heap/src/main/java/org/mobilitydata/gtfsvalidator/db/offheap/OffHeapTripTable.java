@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+import static org.mobilitydata.gtfsvalidator.db.offheap.GroupedRecordTable.*;
+
+/**
+ * Holds the rows of trips.txt as fixed-width records outside of the Java heap, one group per trip_id. Route ids,
+ * service ids, headsigns, short names, block ids and shape ids are held once on the heap in a
+ * {@link StringDictionary} and referred to by their code; enumerated values are held as {@code byte} values. Rows are
+ * materialized as {@link Trip} objects each time they are read, except for the last trip read by id, which is kept
+ * since validators usually read the same trip for each of its stop times. Trips that have a block_id are indexed by
+ * block_id in another table, which records hold the code of a trip as their sequence number.
+ */
+final class OffHeapTripTable implements Closeable {
+    private static final byte NO_ENUM_VALUE = -1;
+
+    // offsets of the fields of a record
+    private static final int ROUTE_ID = HEADER_WIDTH;
+    private static final int SERVICE_ID = ROUTE_ID + Integer.BYTES;
+    private static final int TRIP_HEADSIGN = SERVICE_ID + Integer.BYTES;
+    private static final int TRIP_SHORT_NAME = TRIP_HEADSIGN + Integer.BYTES;
+    private static final int BLOCK_ID = TRIP_SHORT_NAME + Integer.BYTES;
+    private static final int SHAPE_ID = BLOCK_ID + Integer.BYTES;
+    private static final int DIRECTION_ID = SHAPE_ID + Integer.BYTES;
+    private static final int WHEELCHAIR_ACCESSIBLE = DIRECTION_ID + 1;
+    private static final int BIKES_ALLOWED = WHEELCHAIR_ACCESSIBLE + 1;
+    private static final int FIELD_WIDTH = BIKES_ALLOWED + 1 - HEADER_WIDTH;
+
+    private final GroupedRecordTable table = new GroupedRecordTable(FIELD_WIDTH);
+    private final GroupedRecordTable blockTable = new GroupedRecordTable(0);
+    private final StringDictionary dictionary = new StringDictionary();
+    private volatile Trip lastTrip = null;
+
+    /**
+     * Sizes the index of the trips for the number of trips provided as parameter, if no row has been added yet
+     *
+     * @param expectedTripCount the number of rows expected in trips.txt
+     */
+    void reserveTrips(final int expectedTripCount) {
+        table.reserveGroups(expectedTripCount);
+    }
+
+    /**
+     * Adds a row to the table, unless the table already holds a row with the same trip_id
+     *
+     * @param trip the row to add
+     * @return true if the row was added, false if it is a duplicate
+     */
+    boolean add(final Trip trip) {
+        final int record = table.add(trip.getTripId(), 0);
+        if (record == NO_RECORD) {
+            return false;
+        }
+        table.putInt(record, ROUTE_ID, dictionary.encode(trip.getRouteId()));
+        table.putInt(record, SERVICE_ID, dictionary.encode(trip.getServiceId()));
+        table.putInt(record, TRIP_HEADSIGN, dictionary.encode(trip.getTripHeadsign()));
+        table.putInt(record, TRIP_SHORT_NAME, dictionary.encode(trip.getTripShortName()));
+        table.putInt(record, BLOCK_ID, dictionary.encode(trip.getBlockId()));
+        table.putInt(record, SHAPE_ID, dictionary.encode(trip.getShapeId()));
+        table.putByte(record, DIRECTION_ID, encode(trip.getDirectionId()));
+        table.putByte(record, WHEELCHAIR_ACCESSIBLE, encode(trip.getWheelchairAccessibleStatus()));
+        table.putByte(record, BIKES_ALLOWED, encode(trip.getBikesAllowedStatus()));
+        if (trip.getBlockId() != null) {
+            // codes of trips are given in ascending order: trips of a block are linked in the order they were added
+            blockTable.add(trip.getBlockId(), table.getGroupOf(record));
+        }
+        return true;
+    }
+
+    /**
+     * Returns the row of a trip as a {@link Trip} object, null if the table holds no row for said trip
+     *
+     * @param tripId identifies a trip
+     * @return the row of a trip, null if the table holds no row for said trip
+     */
+    Trip get(final String tripId) {
+        final Trip cached = lastTrip;
+        if (cached != null && cached.getTripId().equals(tripId)) {
+            return cached;
+        }
+        final int group = table.getGroup(tripId);
+        if (group == NO_GROUP) {
+            return null;
+        }
+        final Trip toReturn = toTrip(group, new Trip.TripBuilder());
+        lastTrip = toReturn;
+        return toReturn;
+    }
+
+    /**
+     * Returns a read-only view of the table as a map of trips. Rows are materialized as {@link Trip} objects each
+     * time they are read from the view, and are not held by the table.
+     *
+     * @return a read-only view of the table as a map of trips
+     */
+    Map<String, Trip> asMap() {
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<String, Trip>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, Trip>> iterator() {
+                        final Trip.TripBuilder builder = new Trip.TripBuilder();
+                        return new Iterator<>() {
+                            private int group = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return group < table.getGroupCount();
+                            }
+
+                            @Override
+                            public Entry<String, Trip> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                final int current = group++;
+                                return new SimpleImmutableEntry<>(table.getKey(current),
+                                        toTrip(current, builder.clear()));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return table.getGroupCount();
+                    }
+                };
+            }
+
+            @Override
+            public boolean containsKey(final Object tripId) {
+                return tripId instanceof String && table.getGroup((String) tripId) != NO_GROUP;
+            }
+
+            @Override
+            public Trip get(final Object tripId) {
+                return tripId instanceof String ? OffHeapTripTable.this.get((String) tripId) : null;
+            }
+
+            @Override
+            public int size() {
+                return table.getGroupCount();
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only view of the trips that have a block_id, grouped by block_id in the order they were added.
+     * The trips of a block are materialized as {@link Trip} objects each time the block is read from the view, and are
+     * not held by the table.
+     *
+     * @return a read-only view of the trips that have a block_id, grouped by block_id
+     */
+    Map<String, List<Trip>> toMapByBlockId() {
+        blockTable.compact();
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<String, List<Trip>>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, List<Trip>>> iterator() {
+                        return new Iterator<>() {
+                            private int block = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return block < blockTable.getGroupCount();
+                            }
+
+                            @Override
+                            public Entry<String, List<Trip>> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                final int current = block++;
+                                return new SimpleImmutableEntry<>(blockTable.getKey(current), toTripList(current));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return blockTable.getGroupCount();
+                    }
+                };
+            }
+
+            @Override
+            public boolean containsKey(final Object blockId) {
+                return blockId instanceof String && blockTable.getGroup((String) blockId) != NO_GROUP;
+            }
+
+            @Override
+            public List<Trip> get(final Object blockId) {
+                if (!(blockId instanceof String)) {
+                    return null;
+                }
+                final int block = blockTable.getGroup((String) blockId);
+                return block == NO_GROUP ? null : toTripList(block);
+            }
+
+            @Override
+            public int size() {
+                return blockTable.getGroupCount();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        lastTrip = null;
+        table.close();
+        blockTable.close();
+    }
+
+    private List<Trip> toTripList(final int block) {
+        final int first = blockTable.getFirst(block);
+        final List<Trip> toReturn = new ArrayList<>(blockTable.getSize(block));
+        final Trip.TripBuilder builder = new Trip.TripBuilder();
+        for (int record = first; record < first + blockTable.getSize(block); ++record) {
+            toReturn.add(toTrip(blockTable.getSequence(record), builder.clear()));
+        }
+        return toReturn;
+    }
+
+    private Trip toTrip(final int group, final Trip.TripBuilder builder) {
+        final int record = table.getFirst(group);
+        // the value of each enumerated type of trips.txt is its ordinal
+        return (Trip) builder
+                .tripId(table.getKey(group))
+                .routeId(dictionary.decode(table.getInt(record, ROUTE_ID)))
+                .serviceId(dictionary.decode(table.getInt(record, SERVICE_ID)))
+                .tripHeadsign(dictionary.decode(table.getInt(record, TRIP_HEADSIGN)))
+                .tripShortName(dictionary.decode(table.getInt(record, TRIP_SHORT_NAME)))
+                .blockId(dictionary.decode(table.getInt(record, BLOCK_ID)))
+                .shapeId(dictionary.decode(table.getInt(record, SHAPE_ID)))
+                .directionId(decode(table.getByte(record, DIRECTION_ID)))
+                .wheelchairAccessible(decode(table.getByte(record, WHEELCHAIR_ACCESSIBLE)))
+                .bikesAllowed(decode(table.getByte(record, BIKES_ALLOWED)))
+                .build()
+                .getData();
+    }
+
+    private static byte encode(final Enum<?> value) {
+        return value == null ? NO_ENUM_VALUE : (byte) value.ordinal();
+    }
+
+    private static Integer decode(final byte value) {
+        return value == NO_ENUM_VALUE ? null : (int) value;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Holds fixed-width records outside of the Java heap, in slabs of a temporary file mapped in memory. A slab is mapped
+ * each time the previous one is full, so that records never move once allocated. Values are read and written by
+ * record index and by offset in the record. Pages of the file are written back to disk by the operating system when
+ * memory is needed: the number of records is neither bounded by the heap nor by the memory available to direct
+ * buffers. The temporary file is deleted once the store is closed, or when the JVM terminates otherwise.
+ * <p>
+ * The JDK offers no supported way to unmap a buffer: the slabs of a store stay mapped after the store is closed, until
+ * they are garbage collected, and so does the disk space of the deleted file on most systems. The store drops its
+ * references to the slabs when it is closed so that they can be collected; unmapping them explicitly would crash the
+ * JVM on any read of a closed store instead of failing it.
+ */
+final class RecordStore implements Closeable {
+    private static final int RECORDS_PER_SLAB_SHIFT = 16;
+    private static final int RECORD_IN_SLAB_MASK = (1 << RECORDS_PER_SLAB_SHIFT) - 1;
+
+    private final int recordWidth;
+    private final FileChannel channel;
+    private ByteBuffer[] slabs = new ByteBuffer[0];
+    private int recordCount = 0;
+
+    /**
+     * @param recordWidth the size of a record in bytes, a multiple of 4
+     * @throws UncheckedIOException if the temporary file can not be created
+     */
+    RecordStore(final int recordWidth) {
+        if (recordWidth <= 0 || recordWidth % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("Record width must be a positive multiple of 4: " + recordWidth);
+        }
+        this.recordWidth = recordWidth;
+        try {
+            final Path file = Files.createTempFile("gtfs-validator-", ".records");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Allocates a record, whose bytes are all 0
+     *
+     * @return the index of the record allocated
+     * @throws UncheckedIOException if the file can not be extended
+     */
+    int allocate() {
+        if (recordCount == slabs.length << RECORDS_PER_SLAB_SHIFT) {
+            final long slabByteCount = (long) recordWidth << RECORDS_PER_SLAB_SHIFT;
+            try {
+                final ByteBuffer slab = channel.map(FileChannel.MapMode.READ_WRITE, slabs.length * slabByteCount,
+                        slabByteCount);
+                slabs = Arrays.copyOf(slabs, slabs.length + 1);
+                slabs[slabs.length - 1] = slab.order(ByteOrder.nativeOrder());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return recordCount++;
+    }
+
+    /**
+     * Returns the number of records allocated
+     *
+     * @return the number of records allocated
+     */
+    int size() {
+        return recordCount;
+    }
+
+    int getInt(final int record, final int offset) {
+        return slab(record).getInt(position(record, offset));
+    }
+
+    void putInt(final int record, final int offset, final int value) {
+        slab(record).putInt(position(record, offset), value);
+    }
+
+    float getFloat(final int record, final int offset) {
+        return slab(record).getFloat(position(record, offset));
+    }
+
+    void putFloat(final int record, final int offset, final float value) {
+        slab(record).putFloat(position(record, offset), value);
+    }
+
+    byte getByte(final int record, final int offset) {
+        return slab(record).get(position(record, offset));
+    }
+
+    void putByte(final int record, final int offset, final byte value) {
+        slab(record).put(position(record, offset), value);
+    }
+
+    /**
+     * Copies a record of another store with the same record width to a record of this store
+     *
+     * @param source       the store to copy the record from
+     * @param sourceRecord the index of the record to copy in the source store
+     * @param record       the index of the record to overwrite in this store
+     */
+    void copy(final RecordStore source, final int sourceRecord, final int record) {
+        for (int offset = 0; offset < recordWidth; offset += Integer.BYTES) {
+            putInt(record, offset, source.getInt(sourceRecord, offset));
+        }
+    }
+
+    /**
+     * Closes and deletes the temporary file. Records can not be read nor written anymore. The slabs are unmapped, and
+     * their memory and disk space released, once they are garbage collected.
+     *
+     * @throws IOException if the file can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        slabs = new ByteBuffer[0];
+        recordCount = 0;
+        channel.close();
+    }
+
+    private ByteBuffer slab(final int record) {
+        return slabs[record >>> RECORDS_PER_SLAB_SHIFT];
+    }
+
+    private int position(final int record, final int offset) {
+        return (record & RECORD_IN_SLAB_MASK) * recordWidth + offset;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the string values of the records of a table to consecutive codes and back, so that records hold a code of
+ * fixed width instead of a value. Each distinct value is held once on the heap.
+ */
+final class StringDictionary {
+    static final int NO_CODE = -1;
+
+    private final Map<String, Integer> codePerValue = new HashMap<>();
+    private final List<String> valueList = new ArrayList<>();
+
+    /**
+     * Returns the code of a value, which is assigned if the value has no code yet
+     *
+     * @param value the value to encode
+     * @return the code of the value, {@link #NO_CODE} if the value is null
+     */
+    int encode(final String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Integer code = codePerValue.get(value);
+        if (code == null) {
+            code = valueList.size();
+            codePerValue.put(value, code);
+            valueList.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Returns the value of a code
+     *
+     * @param code the code returned by {@link #encode(String)}
+     * @return the value of the code, null if the code is {@link #NO_CODE}
+     */
+    String decode(final int code) {
+        return code == NO_CODE ? null : valueList.get(code);
+    }
+}
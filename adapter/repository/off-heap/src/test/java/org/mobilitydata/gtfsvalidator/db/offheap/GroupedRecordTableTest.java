@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mobilitydata.gtfsvalidator.db.offheap.GroupedRecordTable.*;
+
+class GroupedRecordTableTest {
+    private static final int VALUE = HEADER_WIDTH;
+
+    @Test
+    void recordsAddedOutOfOrderShouldBeReadBySequenceOnceCompacted() throws IOException {
+        try (final GroupedRecordTable underTest = new GroupedRecordTable(Integer.BYTES)) {
+            underTest.putInt(underTest.add("b", 2), VALUE, 20);
+            underTest.putInt(underTest.add("a", 5), VALUE, 50);
+            underTest.putInt(underTest.add("b", 1), VALUE, 10);
+            underTest.putInt(underTest.add("a", 3), VALUE, 30);
+            underTest.putInt(underTest.add("a", 4), VALUE, 40);
+
+            underTest.compact();
+
+            assertEquals(2, underTest.getGroupCount());
+            final int groupA = underTest.getGroup("a");
+            assertEquals("a", underTest.getKey(groupA));
+            assertEquals(3, underTest.getSize(groupA));
+            final int first = underTest.getFirst(groupA);
+            assertEquals(3, underTest.getSequence(first));
+            assertEquals(30, underTest.getInt(first, VALUE));
+            assertEquals(4, underTest.getSequence(first + 1));
+            assertEquals(40, underTest.getInt(first + 1, VALUE));
+            assertEquals(5, underTest.getSequence(first + 2));
+            assertEquals(50, underTest.getInt(first + 2, VALUE));
+            assertEquals(groupA, underTest.getGroupOf(first + 2));
+            assertEquals(NO_GROUP, underTest.getGroup("c"));
+        }
+    }
+
+    @Test
+    void recordWithSameSequenceShouldNotBeAdded() throws IOException {
+        try (final GroupedRecordTable underTest = new GroupedRecordTable(Integer.BYTES)) {
+            underTest.add("a", 1);
+            underTest.add("a", 2);
+
+            assertEquals(NO_RECORD, underTest.add("a", 1));
+            assertEquals(NO_RECORD, underTest.add("a", 2));
+            assertNotEquals(NO_RECORD, underTest.add("b", 1));
+            assertEquals(2, underTest.getSize(underTest.getGroup("a")));
+        }
+    }
+
+    @Test
+    void recordWithSameSequenceShouldNotBeAddedToGroupAddedOutOfOrder() throws IOException {
+        try (final GroupedRecordTable underTest = new GroupedRecordTable(Integer.BYTES)) {
+            underTest.putInt(underTest.add("a", 3), VALUE, 30);
+            underTest.putInt(underTest.add("a", 1), VALUE, 10);
+
+            assertEquals(NO_RECORD, underTest.add("a", 3));
+            assertEquals(NO_RECORD, underTest.add("a", 1));
+            underTest.putInt(underTest.add("a", 2), VALUE, 20);
+            assertEquals(NO_RECORD, underTest.add("a", 2));
+            underTest.compact();
+            assertEquals(NO_RECORD, underTest.add("a", 2));
+            underTest.putInt(underTest.add("a", 0), VALUE, 0);
+            underTest.compact();
+
+            final int groupA = underTest.getGroup("a");
+            assertEquals(4, underTest.getSize(groupA));
+            for (int i = 0; i < 4; ++i) {
+                assertEquals(i, underTest.getSequence(underTest.getFirst(groupA) + i));
+                assertEquals(10 * i, underTest.getInt(underTest.getFirst(groupA) + i, VALUE));
+            }
+        }
+    }
+
+    @Test
+    void appendedRecordsShouldBeSortedAndRidOfDuplicatesOnceCompleted()throws IOException {
+        try (final GroupedRecordTable underTest = new GroupedRecordTable(Integer.BYTES)) {
+            underTest.putInt(underTest.append("a", 3), VALUE, 1);
+            underTest.putInt(underTest.append("a", 1), VALUE, 2);
+            final int duplicate = underTest.append("a", 3);
+            underTest.putInt(duplicate, VALUE, 3);
+            underTest.putInt(underTest.append("b", 1), VALUE, 4);
+            underTest.putInt(underTest.append("b", 2), VALUE, 5);
+
+            final int[] removedRecords = underTest.completeAppend();
+
+            assertArrayEquals(new int[]{duplicate}, removedRecords);
+            // records removed can still be read until the table is compacted
+            assertEquals(3, underTest.getInt(duplicate, VALUE));
+            underTest.compact();
+            final int groupA = underTest.getGroup("a");
+            assertEquals(2, underTest.getSize(groupA));
+            assertEquals(2, underTest.getInt(underTest.getFirst(groupA), VALUE));
+            assertEquals(1, underTest.getInt(underTest.getFirst(groupA) + 1, VALUE));
+            assertEquals(2, underTest.getSize(underTest.getGroup("b")));
+        }
+    }
+
+    @Test
+    void groupsShouldBeContiguousAcrossSlabsOnceCompacted() throws IOException {
+        final int recordCount = 200_000;
+        try (final GroupedRecordTable underTest = new GroupedRecordTable(Integer.BYTES)) {
+            // records of both groups are interleaved
+            for (int i = 0; i < recordCount; ++i) {
+                underTest.putInt(underTest.add(i % 2 == 0 ? "even" : "odd", i), VALUE, i);
+            }
+
+            underTest.compact();
+
+            final int even = underTest.getGroup("even");
+            assertEquals(recordCount / 2, underTest.getSize(even));
+            for (int i = 0; i < recordCount / 2; ++i) {
+                assertEquals(2 * i, underTest.getInt(underTest.getFirst(even) + i, VALUE));
+            }
+        }
+    }
+}
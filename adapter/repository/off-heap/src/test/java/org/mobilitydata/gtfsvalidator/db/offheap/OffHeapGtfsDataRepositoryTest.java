@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.db.offheap;
+
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.BikesAllowedStatus;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.WheelchairAccessibleStatus;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.CalendarDate;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.ExceptionType;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.DropOffType;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.PickupType;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.DirectionId;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapGtfsDataRepositoryTest {
+
+    private static Trip trip(final String tripId, final String blockId) {
+        return (Trip) new Trip.TripBuilder()
+                .routeId("route id")
+                .serviceId("service id")
+                .tripId(tripId)
+                .tripHeadsign("headsign")
+                .directionId(1)
+                .blockId(blockId)
+                .wheelchairAccessible(2)
+                .build()
+                .getData();
+    }
+
+    private static StopTime stopTime(final String tripId, final int stopSequence, final String stopId) {
+        return (StopTime) new StopTime.StopTimeBuilder()
+                .tripId(tripId)
+                .arrivalTime(3600 + stopSequence)
+                .stopId(stopId)
+                .stopSequence(stopSequence)
+                .pickupType(1)
+                .dropOffType(null)
+                .continuousPickup(null)
+                .continuousDropOff(null)
+                .timepoint(0)
+                .build()
+                .getData();
+    }
+
+    private static ShapePoint shapePoint(final String shapeId, final int sequence, final float latitude) {
+        return (ShapePoint) new ShapePoint.ShapeBuilder()
+                .shapeId(shapeId)
+                .shapePtLat(latitude)
+                .shapePtLon(-73.5f)
+                .shapePtSequence(sequence)
+                .build()
+                .getData();
+    }
+
+    @Test
+    void tripShouldBeMaterializedWithSameValues() throws IOException {
+        try (final OffHeapGtfsDataRepository underTest = new OffHeapGtfsDataRepository()) {
+            final Trip trip = trip("trip id", "block id");
+
+            assertSame(trip, underTest.addTrip(trip));
+            assertNull(underTest.addTrip(trip("trip id", null)));
+
+            final Trip toCheck = underTest.getTripById("trip id");
+            assertEquals("route id", toCheck.getRouteId());
+            assertEquals("service id", toCheck.getServiceId());
+            assertEquals("headsign", toCheck.getTripHeadsign());
+            assertNull(toCheck.getTripShortName());
+            assertEquals(DirectionId.INBOUND, toCheck.getDirectionId());
+            assertEquals("block id", toCheck.getBlockId());
+            assertNull(toCheck.getShapeId());
+            assertEquals(WheelchairAccessibleStatus.NOT_WHEELCHAIR_ACCESSIBLE,
+                    toCheck.getWheelchairAccessibleStatus());
+            assertEquals(BikesAllowedStatus.UNKNOWN_BIKES_ALLOWANCE, toCheck.getBikesAllowedStatus());
+            assertNull(underTest.getTripById("other trip id"));
+            assertEquals(1, underTest.getTripAll().size());
+            assertTrue(underTest.getTripAll().containsKey("trip id"));
+        }
+    }
+
+    @Test
+    void tripsShouldBeGroupedByBlockIdInTheOrderTheyWereAdded() throws IOException {
+        try (final OffHeapGtfsDataRepository underTest = new OffHeapGtfsDataRepository()) {
+            underTest.addTrip(trip("trip 0", "block 0"));
+            underTest.addTrip(trip("trip 1", null));
+            underTest.addTrip(trip("trip 2", "block 1"));
+            underTest.addTrip(trip("trip 3", "block 0"));
+
+            final Map<String, List<Trip>> toCheck = underTest.getAllTripByBlockId();
+
+            assertEquals(2, toCheck.size());
+            assertEquals(2, toCheck.get("block 0").size());
+            assertEquals("trip 0", toCheck.get("block 0").get(0).getTripId());
+            assertEquals("trip 3", toCheck.get("block 0").get(1).getTripId());
+            assertEquals("trip 2", toCheck.get("block 1").get(0).getTripId());
+        }
+    }
+
+    @Test
+    void calendarDatesShouldBeMappedOnServiceIdAndDate() throws IOException {
+        try (final OffHeapGtfsDataRepository underTest = new OffHeapGtfsDataRepository()) {
+            final CalendarDate.CalendarDateBuilder builder = new CalendarDate.CalendarDateBuilder();
+            final CalendarDate calendarDate = (CalendarDate) builder.clear()
+                    .serviceId("service id")
+                    .date(LocalDate.of(2020, 6, 1))
+                    .exceptionType(2)
+                    .build()
+                    .getData();
+
+            assertSame(calendarDate, underTest.addCalendarDate(calendarDate));
+            assertNull(underTest.addCalendarDate(calendarDate));
+
+            final CalendarDate toCheck = underTest.getCalendarDateAll().get("service id").get("2020-06-01");
+            assertEquals("service id", toCheck.getServiceId());
+            assertEquals(LocalDate.of(2020, 6, 1), toCheck.getDate());
+            assertEquals(ExceptionType.REMOVED_SERVICE, toCheck.getExceptionType());
+            assertNull(underTest.getCalendarDateAll().get("other service id"));
+        }
+    }
+
+    @Test
+    void shapeShouldBeReadThroughViewBySequence() throws IOException {
+        try (final OffHeapGtfsDataRepository underTest = new OffHeapGtfsDataRepository()) {
+            underTest.addShapePoint(shapePoint("shape id", 2, 45.5f));
+            underTest.addShapePoint(shapePoint("shape id", 1, 45.25f));
+            assertNull(underTest.addShapePoint(shapePoint("shape id", 2, 45.75f)));
+
+            final ShapeView toCheck = underTest.getShapeViewById("shape id");
+            assertEquals("shape id", toCheck.getShapeId());
+            assertEquals(2, toCheck.size());
+            assertEquals(1, toCheck.getShapePtSequence(0));
+            assertEquals(45.25, toCheck.getShapePtLat(0));
+            assertEquals(45.5, toCheck.getShapePtLat(1));
+            assertFalse(toCheck.hasShapeDistTraveled(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> toCheck.getShapePtLat(2));
+            assertEquals(-73.5f, underTest.getShapeById("shape id").get(2).getShapePtLon());
+            assertNull(underTest.getShapeViewById("other shape id"));
+            assertEquals(1, underTest.getShapeViewAll().size());
+        }
+    }
+
+    @Test
+    void appendedShapePointsShouldBeRidOfDuplicatesOnceCompleted() throws IOException {
+        try (final OffHeapGtfsDataRepository underTest = new OffHeapGtfsDataRepository()) {
+            underTest.appendShapePoint(shapePoint("shape id", 2, 45.5f));
+            underTest.appendShapePoint(shapePoint("shape id", 1, 45.25f));
+            underTest.appendShapePoint(shapePoint("shape id", 2, 45.75f));
+
+            final List<ShapePoint> toCheck = underTest.completeShapePointLoad();
+
+            assertEquals(1, toCheck.size());
+            assertEquals("shape id", toCheck.get(0).getShapeId());
+            assertEquals(45.75f, toCheck.get(0).getShapePtLat());
+            assertEquals(2, underTest.getShapeViewById("shape id").size());
+            assertEquals(45.5, underTest.getShapeViewById("shape id").getShapePtLat(1));
+        }
+    }
+
+    @Test
+    void stopTimesShouldBeReadThroughCursorTripByTrip() throws IOException {
+        try (final OffHeapGtfsDataRepository underTest = new OffHeapGtfsDataRepository()) {
+            underTest.addStopTime(stopTime("trip 0", 2, "stop 2"));
+            underTest.addStopTime(stopTime("trip 1", 0, "stop 0"));
+            underTest.addStopTime(stopTime("trip 0", 1, "stop 1"));
+            assertNull(underTest.addStopTime(stopTime("trip 0", 1, "stop 3")));
+
+            final StopTimeCursor toCheck = underTest.getStopTimeCursor();
+            assertTrue(toCheck.next());
+            assertEquals("trip 0", toCheck.getTripId());
+            assertEquals(1, toCheck.getStopSequence());
+            assertEquals("stop 1", toCheck.getStopId());
+            assertEquals(3601, toCheck.getArrivalTime());
+            assertFalse(toCheck.hasDepartureTime());
+            assertEquals(PickupType.NO_PICKUP, toCheck.getPickupType());
+            assertEquals(DropOffType.REGULAR_DROP_OFF, toCheck.getDropOffType());
+            assertTrue(toCheck.next());
+            assertEquals(2, toCheck.getStopSequence());
+            assertTrue(toCheck.next());
+            assertEquals("trip 1", toCheck.getTripId());
+            assertFalse(toCheck.next());
+            assertFalse(toCheck.next());
+
+            assertFalse(underTest.getStopTimeCursorByTripId("other trip id").next());
+            assertEquals("stop 2", underTest.getStopTimeByTripId("trip 0").get(2).getStopId());
+            assertEquals(2, underTest.getStopTimeAll().size());
+        }
+    }
+
+    @Test
+    void appendedStopTimesShouldBeRidOfDuplicatesOnceCompleted() throws IOException {
+        try (final OffHeapGtfsDataRepository underTest = new OffHeapGtfsDataRepository()) {
+            underTest.appendStopTime(stopTime("trip id", 1, "stop 1"));
+            underTest.appendStopTime(stopTime("trip id", 0, "stop 0"));
+            underTest.appendStopTime(stopTime("trip id", 1, "stop 2"));
+
+            final List<StopTime> toCheck = underTest.completeStopTimeLoad();
+
+            assertEquals(1, toCheck.size());
+            assertEquals("stop 2", toCheck.get(0).getStopId());
+            final StopTimeCursor cursor = underTest.getStopTimeCursorByTripId("trip id");
+            assertTrue(cursor.next());
+            assertEquals("stop 0", cursor.getStopId());
+            assertTrue(cursor.next());
+            assertEquals("stop 1", cursor.getStopId());
+            assertFalse(cursor.next());
+        }
+    }
+
+    @Test
+    void nullEntitiesShouldThrowException() throws IOException {
+        try (final OffHeapGtfsDataRepository underTest = new OffHeapGtfsDataRepository()) {
+            assertThrows(IllegalArgumentException.class, () -> underTest.addTrip(null));
+            assertThrows(IllegalArgumentException.class, () -> underTest.addCalendarDate(null));
+            assertThrows(IllegalArgumentException.class, () -> underTest.addShapePoint(null));
+            assertThrows(IllegalArgumentException.class, () -> underTest.appendShapePoint(null));
+            assertThrows(IllegalArgumentException.class, () -> underTest.addStopTime(null));
+            assertThrows(IllegalArgumentException.class, () -> underTest.appendStopTime(null));
+        }
+    }
+}
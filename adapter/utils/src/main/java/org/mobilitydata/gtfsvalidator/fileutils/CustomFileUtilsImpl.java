@@ -20,7 +20,10 @@ import org.apache.commons.io.FileUtils;
 import org.mobilitydata.gtfsvalidator.usecase.utils.CustomFileUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public class CustomFileUtilsImpl implements CustomFileUtils {
     private static CustomFileUtilsImpl CUSTOM_FILE_UTILS = null;
@@ -59,4 +62,19 @@ public class CustomFileUtilsImpl implements CustomFileUtils {
     public long sizeOfDirectory(final Path pathToDirectory) {
         return FileUtils.sizeOfDirectory(new File(pathToDirectory.toString()));
     }
+
+    /**
+     * Returns the uncompressed size of the content of a zipped archive given its path. Sizes are read from the central
+     * directory of the archive: nothing is decompressed. Returns -1 if the archive can not be read.
+     * @param pathToArchive  the path to the zipped archive
+     * @return the uncompressed size of the content of a zipped archive given its path
+     */
+    @Override
+    public long sizeOfArchiveContent(final Path pathToArchive) {
+        try (ZipFile zipFile = new ZipFile(pathToArchive.toFile())) {
+            return zipFile.stream().mapToLong(ZipEntry::getSize).filter(size -> size > 0).sum();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
 }
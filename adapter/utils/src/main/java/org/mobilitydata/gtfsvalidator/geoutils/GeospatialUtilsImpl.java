@@ -22,13 +22,13 @@ import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.ShapeFactory;
 import org.locationtech.spatial4j.shape.SpatialRelation;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.BoardingArea;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.LocationBase;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.StopOrPlatform;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.StopTooFarFromTripShapeNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.utils.GeospatialUtils;
 
 import java.util.*;
@@ -81,8 +81,8 @@ public class GeospatialUtilsImpl implements GeospatialUtils {
      * Returns a list of E052 errors for the given input, one for each stop that is too far from the trip shapePoints
      *
      * @param trip          Trip for this GTFS trip
-     * @param stopTimes     a map of StopTimes for a trip, sorted by stop_sequence
-     * @param shapePoints   a map of ShapePoints for a trip, sorted by shape_pt_sequence
+     * @param stopTimes     a cursor over the stop times of a trip, ordered by stop_sequence
+     * @param shapePoints   a view of the shape points for a trip, ordered by shape_pt_sequence
      * @param stopsByStopId a map of all stops (keyed on stop_id), needed to obtain the latitude and longitude for each stop
      * @param testedCache   a cache for previously tested shape_id and stop_id pairs (keyed on shape_id+stop_id). If the
      *                      combination of shape_id and stop_id appears in this set, we shouldn't test it again. Shapes
@@ -90,50 +90,52 @@ public class GeospatialUtilsImpl implements GeospatialUtils {
      * @return a list of E052 errors, one for each stop that is too far from the trip shapePoints
      */
     public List<StopTooFarFromTripShapeNotice> checkStopsWithinTripShape(final Trip trip,
-                                                                         final SortedMap<Integer, StopTime> stopTimes,
-                                                                         final SortedMap<Integer, ShapePoint> shapePoints,
+                                                                         final StopTimeCursor stopTimes,
+                                                                         final ShapeView shapePoints,
                                                                          final Map<String, LocationBase> stopsByStopId,
                                                                          final Set<String> testedCache) {
         List<StopTooFarFromTripShapeNotice> errors = new ArrayList<>();
-        if (trip == null || stopTimes == null || stopTimes.isEmpty() || shapePoints == null || shapePoints.isEmpty()) {
+        if (trip == null || stopTimes == null || shapePoints == null || shapePoints.size() == 0 || !stopTimes.next()) {
             // Nothing to do - return empty list
             return errors;
         }
 
         // Create a polyline from the GTFS shapes data
         ShapeFactory.LineStringBuilder lineBuilder = getShapeFactory().lineString();
-        shapePoints.forEach((integer, shapePoint) -> lineBuilder.pointXY(shapePoint.getShapePtLon(), shapePoint.getShapePtLat()));
+        for (int i = 0; i < shapePoints.size(); ++i) {
+            lineBuilder.pointXY(shapePoints.getShapePtLon(i), shapePoints.getShapePtLat(i));
+        }
         Shape shapeLine = lineBuilder.build();
 
         // Create the buffered version of the trip as a polygon
         Shape shapeBuffer = shapeLine.getBuffered(TRIP_BUFFER_DEGREES, shapeLine.getContext());
 
         // Check if each stop is within the buffer polygon
-        stopTimes.forEach((stopSequence, stopTime) -> {
-            LocationBase stop = stopsByStopId.get(stopTime.getStopId());
+        do {
+            LocationBase stop = stopsByStopId.get(stopTimes.getStopId());
             if (stop == null || stop.getStopLat() == null || stop.getStopLon() == null) {
                 // Lat/lon are optional for location_type 4 - skip to the next stop if they aren't provided
-                return;
+                continue;
             }
             if (!(stop instanceof StopOrPlatform) && !(stop instanceof BoardingArea)) {
                 // This rule only applies to stops of location_type 0 and 4 - skip to next stop
-                return;
+                continue;
             }
             if (testedCache.contains(trip.getShapeId() + stop.getStopId())) {
                 // We've already tested this combination of shape ID and stop ID - skip to next stop
-                return;
+                continue;
             }
             testedCache.add(trip.getShapeId() + stop.getStopId());
             org.locationtech.spatial4j.shape.Point p = getShapeFactory().pointXY(stop.getStopLon(), stop.getStopLat());
             if (!shapeBuffer.relate(p).equals(SpatialRelation.CONTAINS)) {
                 errors.add(new StopTooFarFromTripShapeNotice(
-                        stopTime.getStopId(),
-                        stopTime.getStopSequence(),
+                        stopTimes.getStopId(),
+                        stopTimes.getStopSequence(),
                         trip.getTripId(),
                         trip.getShapeId(),
                         TRIP_BUFFER_METERS));
             }
-        });
+        } while (stopTimes.next());
 
         return errors;
     }
@@ -18,24 +18,28 @@ package org.mobilitydata.gtfsvalidator.timeutils;
 
 import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 
-import java.time.LocalTime;
-import java.time.temporal.ChronoUnit;
-import java.util.concurrent.TimeUnit;
-import java.util.regex.Pattern;
-
 /**
- * Utility class to carry out operations related to GTFS TIME type
+ * Utility class to carry out operations related to GTFS TIME type. Times are parsed and formatted by scanning their
+ * characters: neither regular expressions nor {@link String#format(String, Object...)} are involved, since this is
+ * called for every row of stop_times.txt.
  */
 public class TimeUtilsImpl implements TimeUtils {
-    // Matches any time string representing time in HH:MM:SS format with:
-    // - hours between 0 and 99h,
-    // - minutes between 0 and 60min
-    // - seconds between 0 and 0sec.
-    // Examples of string matching the related regexp: "00:45:32" or "26:45:22".
-    // Examples of string that do not match the regexp: "23:90", "23:90:62" or "abcdefg"
-    final static Pattern pattern = Pattern.compile("([0-9][0-9]|[0-9]):[0-5][0-9]:[0-5][0-9]");
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int SECONDS_PER_DAY = 24 * SECONDS_PER_HOUR;
+    private static final int NOON = 12 * SECONDS_PER_HOUR;
+    // the two digits of each value from 00 to 59, which covers minutes, seconds and the hours formatted here (0 to 47)
+    private static final char[] TENS_DIGITS = new char[60];
+    private static final char[] UNITS_DIGITS = new char[60];
     private static TimeUtilsImpl TIME_UTILS = null;
 
+    static {
+        for (int i = 0; i < 60; ++i) {
+            TENS_DIGITS[i] = (char) ('0' + i / 10);
+            UNITS_DIGITS[i] = (char) ('0' + i % 10);
+        }
+    }
+
     private TimeUtilsImpl() {
     }
 
@@ -63,23 +67,71 @@ public class TimeUtilsImpl implements TimeUtils {
      */
     @Override
     public Integer convertHHMMSSToIntFromNoonOfDayOfService(final String timeAsString) {
-        if (timeAsString != null && pattern.matcher(timeAsString).matches()) {
-            final String[] timeStringSplit = timeAsString.split(":");
-            try {
-                final int hourValue = Integer.parseInt(timeStringSplit[0]);
-                final int minuteValue = Integer.parseInt(timeStringSplit[1]);
-                final int secondValue = Integer.parseInt(timeStringSplit[2]);
-                // Converting time to an Integer value representing number of seconds
-                final int timeValueAsInt = (int) (TimeUnit.HOURS.toSeconds(hourValue) +
-                        TimeUnit.MINUTES.toSeconds(minuteValue) + secondValue);
-                // Setting noon as point zero, subtracting 12 * 3600 seconds
-                return timeValueAsInt - (int) (TimeUnit.HOURS.toSeconds(12));
-            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
-                return null;
+        final int toReturn = convertHHMMSSToSecondsFromNoonOfDayOfService(timeAsString);
+        return toReturn == INVALID_TIME ? null : toReturn;
+    }
+
+    /**
+     * This method converts a time formatted as HH:MM:SS to a number of seconds elapsed since noon, as
+     * {@link #convertHHMMSSToIntFromNoonOfDayOfService(String)} does. Accepted values are made of:
+     * - hours between 0 and 99h, written with one or two digits,
+     * - minutes between 0 and 59min, written with two digits,
+     * - seconds between 0 and 59sec, written with two digits.
+     * Examples of accepted values: "00:45:32", "7:05:00" or "26:45:22".
+     * Examples of rejected values: "23:90", "23:90:62", " 7:05:00" or "abcdefg"
+     *
+     * @param timeAsString the time formatted as HH:MM:SS to convert as a number of seconds elapsed since noon of day
+     *                     of service
+     * @return the number of seconds elapsed since noon of day of service, {@link #INVALID_TIME} if the value is not a
+     * valid time
+     */
+    @Override
+    public int convertHHMMSSToSecondsFromNoonOfDayOfService(final String timeAsString) {
+        if (timeAsString == null) {
+            return INVALID_TIME;
+        }
+        final int length = timeAsString.length();
+        // H:MM:SS or HH:MM:SS
+        final int hourDigitCount = length - 6;
+        if (hourDigitCount != 1 && hourDigitCount != 2) {
+            return INVALID_TIME;
+        }
+        int hourValue = 0;
+        for (int i = 0; i < hourDigitCount; ++i) {
+            final int digit = toDigit(timeAsString.charAt(i), 9);
+            if (digit < 0) {
+                return INVALID_TIME;
             }
-        } else {
-            return null;
+            hourValue = 10 * hourValue + digit;
         }
+        final int minuteValue = parseMinutesOrSeconds(timeAsString, hourDigitCount);
+        final int secondValue = parseMinutesOrSeconds(timeAsString, hourDigitCount + 3);
+        if (minuteValue < 0 || secondValue < 0) {
+            return INVALID_TIME;
+        }
+        // Setting noon as point zero
+        return hourValue * SECONDS_PER_HOUR + minuteValue * SECONDS_PER_MINUTE + secondValue - NOON;
+    }
+
+    /**
+     * Returns the value of the two digits following a colon at a given position, -1 if these are not a colon followed
+     * by a number between 00 and 59
+     */
+    private static int parseMinutesOrSeconds(final String timeAsString, final int colonIndex) {
+        if (timeAsString.charAt(colonIndex) != ':') {
+            return -1;
+        }
+        final int tens = toDigit(timeAsString.charAt(colonIndex + 1), 5);
+        final int units = toDigit(timeAsString.charAt(colonIndex + 2), 9);
+        return tens < 0 || units < 0 ? -1 : 10 * tens + units;
+    }
+
+    /**
+     * Returns the value of an ASCII digit, -1 if the character is not a digit between 0 and the given maximum
+     */
+    private static int toDigit(final char character, final int maxDigit) {
+        final int toReturn = character - '0';
+        return toReturn < 0 || toReturn > maxDigit ? -1 : toReturn;
     }
 
     /**
@@ -95,29 +147,20 @@ public class TimeUtilsImpl implements TimeUtils {
         if (elapsedDurationSinceNoonInSeconds == null) {
             throw new IllegalArgumentException("elapsedDurationSinceNoonInSeconds cannot be null");
         }
-        final LocalTime noon = LocalTime.NOON;
         // elapsedDurationSinceNoonInSeconds > 0 for times after noon, e.g 14:00PM is represented a +2*3600s=+7200s
         // elapsedDurationSinceNoonInSeconds < 0 for times before noon, e.g 11:00AM is represented as -1*3600s=-3600s
-        final boolean isTimeGreaterThan24hours =
-                elapsedDurationSinceNoonInSeconds >= TimeUnit.HOURS.toSeconds(12);
+        // The time of day wraps around midnight: times of the next day are written from 24:00:00 on
+        final int secondOfDay = (int) Math.floorMod(NOON + (long) elapsedDurationSinceNoonInSeconds, SECONDS_PER_DAY);
+        final boolean isTimeGreaterThan24hours = elapsedDurationSinceNoonInSeconds >= NOON;
+        final int hours = secondOfDay / SECONDS_PER_HOUR + (isTimeGreaterThan24hours ? 24 : 0);
+        final int minutes = secondOfDay / SECONDS_PER_MINUTE % 60;
+        final int seconds = secondOfDay % 60;
 
-        if (!isTimeGreaterThan24hours) {
-            return String.format("%02d:%02d:%02d", noon.plusSeconds(elapsedDurationSinceNoonInSeconds).getHour(),
-                    noon.plusSeconds(elapsedDurationSinceNoonInSeconds).getMinute(),
-                    noon.plusSeconds(elapsedDurationSinceNoonInSeconds).getSecond());
-        } else {
-            // This wraps around midnight
-            LocalTime timeAfterMidnight = noon.plusSeconds(elapsedDurationSinceNoonInSeconds);
-            // Get the number of hours, minutes, and seconds between midnight and timeAfterMidnight, which is the
-            // time to add to 24:00:00
-            long hoursAfterMidnight = LocalTime.MIDNIGHT.until(timeAfterMidnight, ChronoUnit.HOURS);
-            long minutesAfterMidnight = LocalTime.MIDNIGHT.until(timeAfterMidnight, ChronoUnit.MINUTES) % 60;
-            long secondsAfterMidnight = LocalTime.MIDNIGHT.until(timeAfterMidnight, ChronoUnit.SECONDS) % 60;
-            return String.format("%02d:%02d:%02d",
-                    24 + hoursAfterMidnight,
-                    minutesAfterMidnight,
-                    secondsAfterMidnight);
-        }
+        return new String(new char[]{
+                TENS_DIGITS[hours], UNITS_DIGITS[hours], ':',
+                TENS_DIGITS[minutes], UNITS_DIGITS[minutes], ':',
+                TENS_DIGITS[seconds], UNITS_DIGITS[seconds]
+        });
     }
 
     /**
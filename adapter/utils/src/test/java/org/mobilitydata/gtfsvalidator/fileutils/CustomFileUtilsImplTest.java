@@ -34,4 +34,11 @@ class CustomFileUtilsImplTest {
     void shouldMathSizeOfZipFile() {
         fileSizeTest(Path.of("./test_file.zip"), 2156);
     }
+
+    @Test
+    void shouldMatchUncompressedSizeOfZipFileContent() {
+        assertEquals(3188,
+                CustomFileUtilsImpl.getInstance().sizeOfArchiveContent(
+                        Path.of(Resources.getResource("test_file.zip").getPath())));
+    }
 }
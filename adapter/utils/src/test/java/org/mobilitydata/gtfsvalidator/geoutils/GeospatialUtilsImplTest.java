@@ -25,6 +25,8 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.StopOrPlatform;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.StopTooFarFromTripShapeNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 
 import java.util.*;
 
@@ -142,7 +144,8 @@ public class GeospatialUtilsImplTest {
         SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, new HashSet<>());
         assertEquals(0, errorList.size());
 
         verify(trip, times(4)).getShapeId();
@@ -277,7 +280,8 @@ public class GeospatialUtilsImplTest {
         SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, new HashSet<>());
 
         assertEquals(1, errorList.size());
 
@@ -433,7 +437,8 @@ public class GeospatialUtilsImplTest {
         Set<String> testedCache = new HashSet<>();
 
         List<StopTooFarFromTripShapeNotice> trip1ErrorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip1, stopTimes, points, stopPerId, testedCache);
+                GEO_UTILS.checkStopsWithinTripShape(trip1, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, testedCache);
 
         assertEquals(1, trip1ErrorList.size());
 
@@ -444,7 +449,8 @@ public class GeospatialUtilsImplTest {
 
         // Validate the 2nd trip - no new errors should be added, because the shapeId+stopId combination has already been flagged
         List<StopTooFarFromTripShapeNotice> trip2ErrorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip1, stopTimes, points, stopPerId, testedCache);
+                GEO_UTILS.checkStopsWithinTripShape(trip1, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, testedCache);
         assertEquals(0, trip2ErrorList.size());
 
         verify(trip1, times(10)).getShapeId();
@@ -553,7 +559,8 @@ public class GeospatialUtilsImplTest {
         final Map<String, LocationBase> stopPerId = new HashMap<>(Map.of(stopId1, stop1, stopId2, stop2, stopId3, stop3));
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip1, stopTimes, null, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip1, StopTimeCursor.of(stopTimes.values()),
+                        null, stopPerId, new HashSet<>());
 
         assertEquals(0, errorList.size());
 
@@ -664,7 +671,8 @@ public class GeospatialUtilsImplTest {
         SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, new HashSet<>());
 
         assertEquals(0, errorList.size());
 
@@ -797,7 +805,8 @@ public class GeospatialUtilsImplTest {
         SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, new HashSet<>());
 
         assertEquals(0, errorList.size());
 
@@ -918,7 +927,8 @@ public class GeospatialUtilsImplTest {
         SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, new HashSet<>());
         assertEquals(0, errorList.size());
 
         verify(trip, times(2)).getShapeId();
@@ -1036,7 +1046,8 @@ public class GeospatialUtilsImplTest {
         SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, new HashSet<>());
         assertEquals(0, errorList.size());
 
         verifyNoMoreInteractions(stop1);
@@ -1137,7 +1148,8 @@ public class GeospatialUtilsImplTest {
         SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, new HashSet<>());
         assertEquals(0, errorList.size());
 
         verify(trip, times(2)).getShapeId();
@@ -1256,7 +1268,8 @@ public class GeospatialUtilsImplTest {
         SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, new HashSet<>());
         assertEquals(0, errorList.size());
 
         verifyNoMoreInteractions(trip);
@@ -1357,10 +1370,11 @@ public class GeospatialUtilsImplTest {
         final Map<String, LocationBase> stopPerId = new HashMap<>(Map.of(stopId1, stop1, stopId2, stop2));
 
         // Entities are keyed on shape_pt_sequence of GTFS file shapes.txt
-        SortedMap<Integer, ShapePoint> points = null;
+        ShapeView points = null;
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        points, stopPerId, new HashSet<>());
         assertEquals(0, errorList.size());
 
         verifyNoMoreInteractions(trip);
@@ -1464,7 +1478,8 @@ public class GeospatialUtilsImplTest {
         SortedMap<Integer, ShapePoint> points = new TreeMap<>();
 
         List<StopTooFarFromTripShapeNotice> errorList =
-                GEO_UTILS.checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+                GEO_UTILS.checkStopsWithinTripShape(trip, StopTimeCursor.of(stopTimes.values()),
+                        ShapeView.of(points), stopPerId, new HashSet<>());
         assertEquals(0, errorList.size());
 
         verifyNoMoreInteractions(trip);
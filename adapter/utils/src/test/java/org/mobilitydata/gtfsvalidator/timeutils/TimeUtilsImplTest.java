@@ -18,6 +18,12 @@ package org.mobilitydata.gtfsvalidator.timeutils;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
+
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -110,6 +116,52 @@ public class TimeUtilsImplTest {
         assertNull(TIME_CONVERSION_UTILS.convertHHMMSSToIntFromNoonOfDayOfService(blankString));
     }
 
+    @Test
+    void convertHHMMSSToSecondsFromNoonOfDayOfServiceOnInvalidValueShouldReturnInvalidTime() {
+        for (final String invalidTimeAsString : List.of("", "    ", "1344", "13:0:22", " 7:05:00", "07:05:00 ",
+                "07:60:00", "07:05:60", "100:00:00", "07-05-00", "٠٧:٠٥:٠٠")) {
+            assertEquals(TimeUtils.INVALID_TIME,
+                    TIME_CONVERSION_UTILS.convertHHMMSSToSecondsFromNoonOfDayOfService(invalidTimeAsString));
+        }
+        assertEquals(TimeUtils.INVALID_TIME, TIME_CONVERSION_UTILS.convertHHMMSSToSecondsFromNoonOfDayOfService(null));
+    }
+
+    @Test
+    void convertHHMMSSToSecondsFromNoonOfDayOfServiceShouldAcceptSameValuesAsRegularExpression() {
+        final Pattern pattern = Pattern.compile("([0-9][0-9]|[0-9]):[0-5][0-9]:[0-5][0-9]");
+        // characters around the bounds of each part of a time
+        final char[] alphabet = {'/', '0', '5', '6', '9', ':'};
+        for (int length = 7; length <= 8; ++length) {
+            final char[] timeAsChars = new char[length];
+            final int combinationCount = (int) Math.pow(alphabet.length, length);
+            for (int combination = 0; combination < combinationCount; ++combination) {
+                int remainder = combination;
+                for (int i = 0; i < length; ++i) {
+                    timeAsChars[i] = alphabet[remainder % alphabet.length];
+                    remainder /= alphabet.length;
+                }
+                final String timeAsString = new String(timeAsChars);
+                assertEquals(pattern.matcher(timeAsString).matches(),
+                        TIME_CONVERSION_UTILS.convertHHMMSSToSecondsFromNoonOfDayOfService(timeAsString) !=
+                                TimeUtils.INVALID_TIME, timeAsString);
+            }
+        }
+    }
+
+    @Test
+    void convertIntegerToHHMMSSShouldMatchLocalTimeArithmetic() {
+        for (int elapsedDuration = -2 * NOON; elapsedDuration < 100 * HOUR_TO_SEC_CONVERSION_FACTOR;
+             elapsedDuration += 7) {
+            final LocalTime time = LocalTime.NOON.plusSeconds(elapsedDuration);
+            final String expected = elapsedDuration < NOON ?
+                    String.format("%02d:%02d:%02d", time.getHour(), time.getMinute(), time.getSecond()) :
+                    String.format("%02d:%02d:%02d", 24 + LocalTime.MIDNIGHT.until(time, ChronoUnit.HOURS),
+                            LocalTime.MIDNIGHT.until(time, ChronoUnit.MINUTES) % 60,
+                            LocalTime.MIDNIGHT.until(time, ChronoUnit.SECONDS) % 60);
+            assertEquals(expected, TIME_CONVERSION_UTILS.convertIntegerToHHMMSS(elapsedDuration));
+        }
+    }
+
     // Remove warning "PointlessArithmeticExpression" since they these expressions are written to ease code
     // comprehension
     @SuppressWarnings("PointlessArithmeticExpression")
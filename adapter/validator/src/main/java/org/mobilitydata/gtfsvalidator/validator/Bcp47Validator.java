@@ -35,12 +35,13 @@ public class Bcp47Validator {
     }
 
     /**
-     * Validates a language tag according to the IETF BCP 47
+     * Validates a language tag according to the IETF BCP 47. The builder used to validate tags is shared: files may be
+     * validated on several threads.
      *
      * @param languageTag the language tag to validate
      * @return true if the language tag is valid, false if not.
      */
-    public Boolean isValid(String languageTag) {
+    public synchronized Boolean isValid(String languageTag) {
         try {
             langTagValidator.setLanguageTag(languageTag).build();
             return true;
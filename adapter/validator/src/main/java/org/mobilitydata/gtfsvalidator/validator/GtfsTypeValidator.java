@@ -22,6 +22,8 @@ import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.*;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.warning.NonAsciiOrNonPrintableCharNotice;
+import org.mobilitydata.gtfsvalidator.parser.GtfsFileSchema;
+import org.mobilitydata.gtfsvalidator.parser.PrintableAsciiScanner;
 import org.mobilitydata.gtfsvalidator.protos.GtfsSpecificationProto;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
 
@@ -32,10 +34,12 @@ import java.util.Set;
 
 /**
  * Provides methods to validate the type of fields in a GTFS CSV file according to the theoretical type set in a
- * {@link GtfsSpecificationProto.CsvSpecProto}
+ * {@link GtfsSpecificationProto.CsvSpecProto}, as compiled in a {@link GtfsFileSchema}. The outcome of the validation
+ * of URL, email and language code values is kept in a {@link ValidationMemo} per column: these columns have few
+ * distinct values, which are validated once while notices are still generated for each row.
  */
 public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeValidator {
-    private final GtfsSpecificationProto.CsvSpecProto fileSchema;
+    private final GtfsFileSchema fileSchema;
     private final FloatValidator floatValidator;
     private final IntegerValidator integerValidator;
     private final UrlValidator urlValidator;
@@ -43,16 +47,11 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
     private final EmailValidator emailValidator;
     private final RegexValidator timeValidator;
     private final Set<String> timezoneSet;
+    // indexed like the columns of the file, null for columns that are not memoized
+    private final ValidationMemo[] memoByColumn;
 
-    /**
-     * Private class method determining if a character is printable.
-     *
-     * @param ch the character to analyze
-     * @return true if the character is printable, else false
-     */
-    private static boolean isPrintableAscii(char ch) {
-        return ch >= 32 && ch < 127;
-    }
+    // number of values kept for each column, more than enough for columns such as agency_url or feed_lang
+    private static final int MEMO_CAPACITY = 1024;
 
     public GtfsTypeValidator(@NotNull GtfsSpecificationProto.CsvSpecProto fileSchema,
                              @NotNull FloatValidator floatValidator,
@@ -62,6 +61,18 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                              @NotNull EmailValidator emailValidator,
                              @NotNull RegexValidator timeValidator,
                              @NotNull Set<String> timezoneSet) {
+        this(new GtfsFileSchema(fileSchema), floatValidator, integerValidator, urlValidator, langValidator,
+                emailValidator, timeValidator, timezoneSet);
+    }
+
+    public GtfsTypeValidator(@NotNull GtfsFileSchema fileSchema,
+                             @NotNull FloatValidator floatValidator,
+                             @NotNull IntegerValidator integerValidator,
+                             @NotNull UrlValidator urlValidator,
+                             @NotNull Bcp47Validator langValidator,
+                             @NotNull EmailValidator emailValidator,
+                             @NotNull RegexValidator timeValidator,
+                             @NotNull Set<String> timezoneSet) {
         this.fileSchema = fileSchema;
         this.floatValidator = floatValidator;
         this.integerValidator = integerValidator;
@@ -70,6 +81,51 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
         this.emailValidator = emailValidator;
         this.timeValidator = timeValidator;
         this.timezoneSet = timezoneSet;
+
+        memoByColumn = new ValidationMemo[fileSchema.getColumnCount()];
+        for (int columnIndex = 0; columnIndex < memoByColumn.length; ++columnIndex) {
+            switch (fileSchema.getColumn(columnIndex).getType()) {
+                case URL: {
+                    memoByColumn[columnIndex] = new ValidationMemo(urlValidator::isValid, MEMO_CAPACITY);
+                    break;
+                }
+                case EMAIL: {
+                    memoByColumn[columnIndex] = new ValidationMemo(emailValidator::isValid, MEMO_CAPACITY);
+                    break;
+                }
+                case LANGUAGE_CODE: {
+                    memoByColumn[columnIndex] = new ValidationMemo(langValidator::isValid, MEMO_CAPACITY);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of values whose validation outcome was found in the memo of their column
+     *
+     * @return the number of values whose validation outcome was found in the memo of their column
+     */
+    public long getMemoHitCount() {
+        long toReturn = 0;
+        for (final ValidationMemo memo : memoByColumn) {
+            toReturn += memo != null ? memo.getHitCount() : 0;
+        }
+        return toReturn;
+    }
+
+    /**
+     * Returns the number of values validated through the memo of their column, whether the outcome was found in the
+     * memo or not
+     *
+     * @return the number of values validated through the memo of their column
+     */
+    public long getMemoLookupCount() {
+        long toReturn = 0;
+        for (final ValidationMemo memo : memoByColumn) {
+            toReturn += memo != null ? memo.getHitCount() + memo.getMissCount() : 0;
+        }
+        return toReturn;
     }
 
     /**
@@ -85,13 +141,13 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
     public Collection<Notice> validate(ParsedEntity toValidate) {
         Collection<Notice> toReturn = new ArrayList<>();
 
-        fileSchema.getColumnList().forEach(columnSpecProto -> {
-
-            Object value = toValidate.get(columnSpecProto.getName());
+        for (int columnIndex = 0; columnIndex < fileSchema.getColumnCount(); ++columnIndex) {
+            final GtfsFileSchema.Column column = fileSchema.getColumn(columnIndex);
+            Object value = toValidate.get(column.getName());
 
             if (value != null &&
                     (!(value instanceof String) || !((String) value).isEmpty())) {
-                switch (columnSpecProto.getType().getType()) {
+                switch (column.getType()) {
                     case INPUT_TYPE_UNSPECIFIED: // Text is default and does not require validation
                     case TEXT:
                     case COLOR:
@@ -100,15 +156,15 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                     case FLOAT: {
                         if (!floatValidator.isInRange(
                                 (Float) value,
-                                columnSpecProto.getFloatmin(),
-                                columnSpecProto.getFloatmax())) {
+                                column.getFloatMin(),
+                                column.getFloatMax())) {
 
                             toReturn.add(new FloatFieldValueOutOfRangeNotice(
                                     toValidate.getRawFileInfo().getFilename(),
-                                    columnSpecProto.getName(),
+                                    column.getName(),
                                     toValidate.getEntityId(),
-                                    columnSpecProto.getFloatmin(),
-                                    columnSpecProto.getFloatmax(),
+                                    column.getFloatMin(),
+                                    column.getFloatMax(),
                                     (Float) value
                             ));
                         }
@@ -117,15 +173,15 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                     case INTEGER: {
                         if (!integerValidator.isInRange(
                                 (Integer) value,
-                                columnSpecProto.getIntmin(),
-                                columnSpecProto.getIntmax())) {
+                                column.getIntMin(),
+                                column.getIntMax())) {
 
                             toReturn.add(new IntegerFieldValueOutOfRangeNotice(
                                     toValidate.getRawFileInfo().getFilename(),
-                                    columnSpecProto.getName(),
+                                    column.getName(),
                                     toValidate.getEntityId(),
-                                    columnSpecProto.getIntmin(),
-                                    columnSpecProto.getIntmax(),
+                                    column.getIntMin(),
+                                    column.getIntMax(),
                                     (Integer) value
                             ));
                         }
@@ -136,7 +192,7 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                         if (!timezoneSet.contains((String) value)) {
                             toReturn.add(new InvalidTimezoneNotice(
                                     toValidate.getRawFileInfo().getFilename(),
-                                    columnSpecProto.getName(),
+                                    column.getName(),
                                     toValidate.getEntityId(),
                                     (String) value
                             ));
@@ -144,26 +200,23 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                         break;
                     }
                     case ID: {
-                        String stringValue = (String) value;
-                        int charCount = stringValue.length();
-                        for (int i = 0; i < charCount; ++i) {
-                            if (!isPrintableAscii(stringValue.charAt(i))) {
-                                toReturn.add(new NonAsciiOrNonPrintableCharNotice(
-                                        toValidate.getRawFileInfo().getFilename(),
-                                        columnSpecProto.getName(),
-                                        toValidate.getEntityId(),
-                                        stringValue
-                                ));
-                                break;
-                            }
+                        // values cleared from the raw content of their row are not scanned a second time
+                        if (!toValidate.hasPrintableAsciiValue(column.getName()) &&
+                                !PrintableAsciiScanner.isPrintableAscii((String) value)) {
+                            toReturn.add(new NonAsciiOrNonPrintableCharNotice(
+                                    toValidate.getRawFileInfo().getFilename(),
+                                    column.getName(),
+                                    toValidate.getEntityId(),
+                                    (String) value
+                            ));
                         }
                         break;
                     }
                     case URL: {
-                        if (!urlValidator.isValid((String) value)) {
+                        if (!memoByColumn[columnIndex].isValid((String) value)) {
                             toReturn.add(new InvalidUrlNotice(
                                     toValidate.getRawFileInfo().getFilename(),
-                                    columnSpecProto.getName(),
+                                    column.getName(),
                                     toValidate.getEntityId(),
                                     (String) value
                             ));
@@ -174,7 +227,7 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                         if (!timeValidator.isValid((String) value)) {
                             toReturn.add(new InvalidTimeNotice(
                                     toValidate.getRawFileInfo().getFilename(),
-                                    columnSpecProto.getName(),
+                                    column.getName(),
                                     toValidate.getEntityId(),
                                     (String) value
                             ));
@@ -187,7 +240,7 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                         } catch (IllegalArgumentException e) {
                             toReturn.add(new InvalidCurrencyCodeNotice(
                                     toValidate.getRawFileInfo().getFilename(),
-                                    columnSpecProto.getName(),
+                                    column.getName(),
                                     toValidate.getEntityId(),
                                     (String) value
                             ));
@@ -195,10 +248,10 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                         break;
                     }
                     case EMAIL: {
-                        if (!emailValidator.isValid((String) value)) {
+                        if (!memoByColumn[columnIndex].isValid((String) value)) {
                             toReturn.add(new InvalidEmailNotice(
                                     toValidate.getRawFileInfo().getFilename(),
-                                    columnSpecProto.getName(),
+                                    column.getName(),
                                     toValidate.getEntityId(),
                                     (String) value
                             ));
@@ -206,10 +259,10 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                         break;
                     }
                     case LANGUAGE_CODE: {
-                        if (!langValidator.isValid((String) value)) {
+                        if (!memoByColumn[columnIndex].isValid((String) value)) {
                             toReturn.add(new InvalidLangNotice(
                                     toValidate.getRawFileInfo().getFilename(),
-                                    columnSpecProto.getName(),
+                                    column.getName(),
                                     toValidate.getEntityId(),
                                     (String) value
                             ));
@@ -218,15 +271,15 @@ public class GtfsTypeValidator implements GtfsSpecRepository.ParsedEntityTypeVal
                     }
                 }
             } else {    //value is null or an empty string
-                if (columnSpecProto.getValueRequired()) {
+                if (column.isValueRequired()) {
                     toReturn.add(new MissingRequiredValueNotice(
                             toValidate.getRawFileInfo().getFilename(),
-                            columnSpecProto.getName(),
+                            column.getName(),
                             toValidate.getEntityId()
                     ));
                 }
             }
-        });
+        }
 
         return toReturn;
     }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.validator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the outcome of the validation of the values of a column, so that a value repeated on many rows is validated
+ * once. This is meant for columns with few distinct values, such as agency_url or feed_lang, validated by costly
+ * validators. The number of values kept is bounded: the least recently used value is evicted first. Rows may be
+ * validated on several threads.
+ */
+final class ValidationMemo {
+    private final Predicate<String> validator;
+    private final Map<String, Boolean> validityByValue;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * @param validator the validator of the values of the column
+     * @param capacity  the maximum number of values kept
+     */
+    ValidationMemo(final Predicate<String> validator, final int capacity) {
+        this.validator = validator;
+        this.validityByValue = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns true if a value is valid, else false. The validator is only called for values not validated recently.
+     *
+     * @param value the value to validate
+     * @return true if the value is valid, else false
+     */
+    boolean isValid(final String value) {
+        synchronized (this) {
+            final Boolean cachedValidity = validityByValue.get(value);
+            if (cachedValidity != null) {
+                hitCount++;
+                return cachedValidity;
+            }
+            missCount++;
+        }
+        // validators are thread-safe: the value is validated without holding the lock
+        final boolean toReturn = validator.test(value);
+        synchronized (this) {
+            validityByValue.put(value, toReturn);
+        }
+        return toReturn;
+    }
+
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    synchronized long getMissCount() {
+        return missCount;
+    }
+}
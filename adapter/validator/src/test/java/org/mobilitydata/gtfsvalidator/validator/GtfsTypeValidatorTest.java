@@ -387,6 +387,48 @@ class GtfsTypeValidatorTest {
                 ArgumentMatchers.eq("ftp://mobilitydata.org"));
     }
 
+    @Test
+    void repeatedUrlShouldBeValidatedOnceAndGenerateNoticePerRow() {
+        UrlValidator mockUrlValidator = mock(UrlValidator.class);
+
+        GtfsSpecificationProto.CsvSpecProto mockFileSpec = mock(GtfsSpecificationProto.CsvSpecProto.class);
+        GtfsSpecificationProto.ColumnSpecProto mockColumnSpec = mock(GtfsSpecificationProto.ColumnSpecProto.class);
+        when(mockColumnSpec.getName()).thenReturn("type_url");
+
+        GtfsSpecificationProto.ColumnInputType mockInputType = mock(GtfsSpecificationProto.ColumnInputType.class);
+        when(mockInputType.getType()).thenReturn(GtfsSpecificationProto.ColumnInputType.InputType.URL);
+
+        when(mockColumnSpec.getType()).thenReturn(mockInputType);
+        when(mockFileSpec.getColumnList()).thenReturn(List.of(mockColumnSpec));
+
+        GtfsTypeValidator underTest = new GtfsTypeValidator(mockFileSpec,
+                mock(FloatValidator.class),
+                mock(IntegerValidator.class),
+                mockUrlValidator,
+                mock(Bcp47Validator.class),
+                mock(EmailValidator.class),
+                mock(RegexValidator.class),
+                Collections.emptySet()
+        );
+
+        for (int i = 0; i < 3; ++i) {
+            Collection<Notice> result = underTest.validate(new ParsedEntity(
+                    TEST_ID + i,
+                    Map.of("type_url", "ftp://mobilitydata.org"),
+                    new RawFileInfo.RawFileInfoBuilder().filename(TEST_FILE_TST).build()
+            ));
+
+            assertEquals(1, result.size());
+            assertEquals("Invalid url:`ftp://mobilitydata.org` in field:`type_url` for entity with id:`test_id" + i +
+                    "`", new ArrayList<>(result).get(0).getDescription());
+        }
+
+        assertEquals(2, underTest.getMemoHitCount());
+        assertEquals(3, underTest.getMemoLookupCount());
+        verify(mockUrlValidator, times(1)).isValid(
+                ArgumentMatchers.eq("ftp://mobilitydata.org"));
+    }
+
     @Test
     void emailInCorrectFormatDoNotGenerateNotice() {
         EmailValidator mockEmailValidator = mock(EmailValidator.class);
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.validator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationMemoTest {
+
+    @Test
+    void repeatedValueShouldBeValidatedOnce() {
+        final List<String> validatedValueList = new ArrayList<>();
+        final ValidationMemo underTest = new ValidationMemo(value -> {
+            validatedValueList.add(value);
+            return value.startsWith("https");
+        }, 8);
+
+        assertTrue(underTest.isValid("https://mobilitydata.org"));
+        assertFalse(underTest.isValid("ftp://mobilitydata.org"));
+        assertTrue(underTest.isValid("https://mobilitydata.org"));
+        assertFalse(underTest.isValid("ftp://mobilitydata.org"));
+
+        assertEquals(List.of("https://mobilitydata.org", "ftp://mobilitydata.org"), validatedValueList);
+        assertEquals(2, underTest.getHitCount());
+        assertEquals(2, underTest.getMissCount());
+    }
+
+    @Test
+    void leastRecentlyUsedValueShouldBeEvicted() {
+        final List<String> validatedValueList = new ArrayList<>();
+        final ValidationMemo underTest = new ValidationMemo(value -> {
+            validatedValueList.add(value);
+            return true;
+        }, 2);
+
+        underTest.isValid("a");
+        underTest.isValid("b");
+        // a is now more recently used than b
+        underTest.isValid("a");
+        underTest.isValid("c");
+        underTest.isValid("a");
+        underTest.isValid("b");
+
+        assertEquals(List.of("a", "b", "c", "b"), validatedValueList);
+        assertEquals(2, underTest.getHitCount());
+        assertEquals(4, underTest.getMissCount());
+    }
+}
@@ -19,7 +19,9 @@ package org.mobilitydata.gtfsvalidator.web;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.mobilitydata.gtfsvalidator.config.DefaultConfig;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
 import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.usecase.*;
 import org.mobilitydata.gtfsvalidator.usecase.port.ExecParamRepository;
 import org.mobilitydata.gtfsvalidator.usecase.port.TooManyValidationErrorException;
@@ -31,13 +33,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 public class ServiceManager {
     final long startTime = System.nanoTime();
     private final Logger logger = LogManager.getLogger();
     private DefaultConfig config;
-    private final Set<String> processedFilenameCollection = new HashSet<>();
+    private final Set<String> processedFilenameCollection = Collections.synchronizedSet(new HashSet<>());
 
     /**
      * Initiates the {@code DefaultConfig} needed to proceed to GTFS archive validation. {@link DefaultConfig} is
@@ -91,6 +94,34 @@ public class ServiceManager {
                 // use case will inspect parameters and decide if GTFS dataset should be downloaded or not
                 config.downloadArchiveFromNetwork().execute();
 
+                final ComputeValidationResultCacheKey computeValidationResultCacheKey =
+                        config.computeValidationResultCacheKey();
+                final Optional<String> cacheKey = computeValidationResultCacheKey.execute();
+                final Optional<CachedValidationResult> cachedResult =
+                        cacheKey.flatMap(key -> config.loadValidationResultFromCache().execute(key));
+
+                if (cachedResult.isPresent()) {
+                    // the same archive has already been validated: skip straight to the export of the result
+                    config.createPath().execute(ExecParamRepository.OUTPUT_KEY, true);
+                    config.generateInfoNotice(
+                            TimeUnit.NANOSECONDS.toHours(System.nanoTime() - startTime),
+                            new HashSet<>(cachedResult.get().getProcessedFilenameList()))
+                            .execute(cachedResult.get().getFeedPublisherNameOrAgencyName());
+                    config.exportResultAsFile().execute(cachedResult.get().getFeedPublisherNameOrAgencyName());
+                    return "Validation success";
+                }
+
+                // GTFS files are not loaded again if a snapshot of the data loaded from the same archive is kept
+                final Optional<String> dataSnapshotKey = computeValidationResultCacheKey.executeForDataSnapshot();
+                final Optional<CachedValidationResult> loadingResult =
+                        dataSnapshotKey.flatMap(key -> config.loadGtfsDataSnapshot().execute(key));
+
+                if (loadingResult.isPresent()) {
+                    processedFilenameCollection.addAll(loadingResult.get().getProcessedFilenameList());
+                    validateDataAndExportResult(cacheKey);
+                    return "Validation success";
+                }
+
                 config.unzipInputArchive(
                         config.createPath().execute(ExecParamRepository.EXTRACT_KEY, true))
                         .execute();
@@ -128,20 +159,23 @@ public class ServiceManager {
                 final ProcessParsedStopTime processParsedStopTime = config.processParsedStopTime();
                 final PreprocessParsedStop preprocessParsedStop = config.preprocessParsedStop();
 
+                // collections of the data repository are sized once, from the size of the files to load
+                config.reserveDataRepositoryCapacity().execute(filenameListToProcess);
+
                 final Map<String, ParsedEntity> preprocessedStopByStopId = new HashMap<>();
+                final boolean parallelParsing =
+                        Boolean.parseBoolean(config.getExecParamValue(ExecParamRepository.PARALLEL_PARSING_KEY));
+                final int pipelineQueueDepth =
+                        Integer.parseInt(config.getExecParamValue(ExecParamRepository.PIPELINE_QUEUE_DEPTH_KEY));
+                final boolean typedRowDecoding =
+                        Boolean.parseBoolean(config.getExecParamValue(ExecParamRepository.TYPED_ROW_DECODING_KEY));
 
-                filenameListToProcess.forEach(filename -> {
+                final Consumer<String> fileProcessor = filename -> {
                     logger.info("Validate CSV structure and field types for file: " + filename);
                     processedFilenameCollection.add(filename);
-                    config.validateCsvNotEmptyForFile(filename).execute();
-                    config.validateHeadersForFile(filename).execute();
-                    config.validateAllRowLengthForFile(filename).execute();
-
-                    final ParseSingleRowForFile parseSingleRowForFile = config.parseSingleRowForFile(filename);
-                    while (parseSingleRowForFile.hasNext()) {
-                        final ParsedEntity parsedEntity = parseSingleRowForFile.execute();
-                        validateGtfsTypes.execute(parsedEntity);
-
+                    // the file is read only once: structure validation, row length validation and parsing
+                    // are all fed by the same data provider
+                    final Consumer<ParsedEntity> typeValidatedEntityConsumer = parsedEntity -> {
                         // load gtfs entities into memory
                         if (filenameListToProcess.contains(filename)) {
                             switch (filename) {
@@ -221,49 +255,73 @@ public class ServiceManager {
                                 }
                             }
                         }
+                    };
+                    final Consumer<ParsedEntity> parsedEntityConsumer = parsedEntity -> {
+                        validateGtfsTypes.execute(parsedEntity);
+                        typeValidatedEntityConsumer.accept(parsedEntity);
+                    };
+                    if (parallelParsing) {
+                        // chunks of the file are parsed concurrently, rows are consumed in the order of the file
+                        final ValidateAndParseChunksForFile validateAndParseChunksForFile =
+                                config.validateAndParseChunksForFile(filename);
+                        validateAndParseChunksForFile.validateFileStructure();
+                        validateAndParseChunksForFile.execute(parsedEntityConsumer);
+                    } else if (pipelineQueueDepth > 0) {
+                        // rows are read, then parsed and type validated, on their own threads while entities
+                        // are loaded into memory on this one
+                        final ValidateAndParseStagedForFile validateAndParseStagedForFile =
+                                config.validateAndParseStagedForFile(filename);
+                        validateAndParseStagedForFile.validateFileStructure();
+                        validateAndParseStagedForFile.execute(typeValidatedEntityConsumer);
+                    } else if (typedRowDecoding && filename.equals("stop_times.txt")) {
+                        // rows are decoded straight into the builder of their entity, with the same notices
+                        config.validateAndDecodeStopTimes().execute(processParsedStopTime::execute);
+                    } else if (typedRowDecoding && filename.equals("trips.txt")) {
+                        config.validateAndDecodeTrips().execute(processParsedTrip::execute);
+                    } else if (typedRowDecoding && filename.equals("shapes.txt")) {
+                        config.validateAndDecodeShapePoints().execute(processParsedShapePoint::execute);
+                    } else if (typedRowDecoding && filename.equals("calendar_dates.txt")) {
+                        config.validateAndDecodeCalendarDates().execute(processCalendarDate::execute);
+                    } else {
+                        final ValidateAndParseSingleRowForFile validateAndParseSingleRowForFile =
+                                config.validateAndParseSingleRowForFile(filename);
+                        validateAndParseSingleRowForFile.validateFileStructure();
+                        while (validateAndParseSingleRowForFile.hasNext()) {
+                            parsedEntityConsumer.accept(validateAndParseSingleRowForFile.execute());
+                        }
+                    }
+                    // when bulk loaded, stop times and shape points are sorted and checked for duplicates once
+                    // the whole file has been loaded
+                    if (filename.equals("stop_times.txt")) {
+                        processParsedStopTime.completeLoad();
+                    } else if (filename.equals("shapes.txt")) {
+                        processParsedShapePoint.completeLoad();
                     }
-                });
+                };
+                final int fileThreadCount =
+                        Integer.parseInt(config.getExecParamValue(ExecParamRepository.FILE_THREAD_COUNT_KEY));
 
-                config.processParsedStopAll().execute(preprocessedStopByStopId);
+                if (fileThreadCount > 1) {
+                    // files are loaded concurrently and stops are processed as soon as stops.txt is loaded. The
+                    // default timezone of stops is the one of agencies: agency.txt has to be loaded first
+                    config.processFilesConcurrently().execute(
+                            filenameListToProcess,
+                            Map.of("stops.txt", List.of("agency.txt")),
+                            filename -> {
+                                fileProcessor.accept(filename);
+                                if (filename.equals("stops.txt")) {
+                                    config.processParsedStopAll().execute(preprocessedStopByStopId);
+                                }
+                            });
+                } else {
+                    filenameListToProcess.forEach(fileProcessor);
+                    config.processParsedStopAll().execute(preprocessedStopByStopId);
+                }
                 preprocessedStopByStopId.clear();
+                dataSnapshotKey.ifPresent(key ->
+                        config.saveGtfsDataSnapshot().execute(key, processedFilenameCollection));
 
-                config.validateRouteShortNameLength().execute();
-                config.validateRouteColorAndTextContrast().execute();
-                config.validateRouteDescriptionAndNameAreDifferent().execute();
-                config.validateRouteTypeIsInOptions().execute();
-                config.validateBothRouteNamesPresence().execute();
-                config.validateRouteLongNameDoesNotContainShortName().execute();
-                config.validateCalendarEndDateBeforeStartDate().execute();
-                config.validateAgenciesHaveSameAgencyTimezone().execute();
-                config.validateTripRouteId().execute();
-                config.validateTripServiceId().execute();
-                config.validateRouteAgencyId().execute();
-                config.stopTimeBasedCrossValidator().execute();
-                config.shapeBasedCrossValidator().execute();
-                config.validateFeedInfoEndDateAfterStartDate().execute();
-                config.validateFeedCoversTheNext7ServiceDays().execute();
-                config.validateFeedCoversTheNext30ServiceDays().execute();
-                config.validateFeedInfoFeedEndDateIsPresent().execute();
-                config.validateFeedInfoFeedStartDateIsPresent().execute();
-                config.validateStopTimeDepartureTimeAfterArrivalTime().execute();
-                config.validateTripEdgeArrivalDepartureTime().execute();
-                config.validateTripTravelSpeed().execute();
-                config.validateTripUsage().execute();
-                config.validateTripNumberOfStops().execute();
-                config.validateFrequencyStartTimeBeforeEndTime().execute();
-                config.validateFrequencyOverlap().execute();
-                config.validateNoOverlappingStopTimeInTripBlock().execute();
-                config.validateAgencyLangAndFeedInfoFeedLangMatch().execute();
-                config.validateRouteLongNameAreUnique().execute();
-                config.validateRouteShortNameAreUnique().execute();
-                config.validateUniqueRouteLongNameRouteShortNameCombination().execute();
-
-                config.createPath().execute(ExecParamRepository.OUTPUT_KEY, true);
-
-                config.generateInfoNotice(
-                        TimeUnit.NANOSECONDS.toHours(System.nanoTime() - startTime),
-                        processedFilenameCollection).execute();
-                config.exportResultAsFile().execute();
+                validateDataAndExportResult(cacheKey);
 
                 return "Validation success";
             }
@@ -290,10 +348,58 @@ public class ServiceManager {
                 logger.error("An exception occurred: " + ioException);
                 throw new IOException("An exception occurred: " + ioException);
             }
+        } finally {
+            config.close();
         }
         return null;
     }
 
+    /**
+     * Validates the rules involving several files against the GTFS data loaded, then exports the validation result
+     * and saves it to the cache
+     */
+    private void validateDataAndExportResult(final Optional<String> cacheKey) throws IOException {
+        config.validateRouteShortNameLength().execute();
+        config.validateRouteColorAndTextContrast().execute();
+        config.validateRouteDescriptionAndNameAreDifferent().execute();
+        config.validateRouteTypeIsInOptions().execute();
+        config.validateBothRouteNamesPresence().execute();
+        config.validateRouteLongNameDoesNotContainShortName().execute();
+        config.validateCalendarEndDateBeforeStartDate().execute();
+        config.validateAgenciesHaveSameAgencyTimezone().execute();
+        config.validateTripRouteId().execute();
+        config.validateTripServiceId().execute();
+        config.validateRouteAgencyId().execute();
+        config.stopTimeBasedCrossValidator().execute();
+        config.shapeBasedCrossValidator().execute();
+        config.validateFeedInfoEndDateAfterStartDate().execute();
+        config.validateFeedCoversTheNext7ServiceDays().execute();
+        config.validateFeedCoversTheNext30ServiceDays().execute();
+        config.validateFeedInfoFeedEndDateIsPresent().execute();
+        config.validateFeedInfoFeedStartDateIsPresent().execute();
+        config.validateStopTimeDepartureTimeAfterArrivalTime().execute();
+        config.validateTripEdgeArrivalDepartureTime().execute();
+        config.validateTripTravelSpeed().execute();
+        config.validateTripUsage().execute();
+        config.validateTripNumberOfStops().execute();
+        config.validateFrequencyStartTimeBeforeEndTime().execute();
+        config.validateFrequencyOverlap().execute();
+        config.validateNoOverlappingStopTimeInTripBlock().execute();
+        config.validateAgencyLangAndFeedInfoFeedLangMatch().execute();
+        config.validateRouteLongNameAreUnique().execute();
+        config.validateRouteShortNameAreUnique().execute();
+        config.validateUniqueRouteLongNameRouteShortNameCombination().execute();
+
+        config.createPath().execute(ExecParamRepository.OUTPUT_KEY, true);
+
+        config.generateInfoNotice(
+                TimeUnit.NANOSECONDS.toHours(System.nanoTime() - startTime),
+                processedFilenameCollection).execute();
+        config.exportResultAsFile().execute();
+        cacheKey.ifPresent(key ->
+                config.saveValidationResultToCache().execute(key, processedFilenameCollection));
+    }
+
     /**
      * Returns the validation report
      *
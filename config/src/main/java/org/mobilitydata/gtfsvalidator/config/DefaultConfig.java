@@ -21,6 +21,7 @@ import com.google.common.io.Resources;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.logging.log4j.Logger;
 import org.mobilitydata.gtfsvalidator.db.*;
+import org.mobilitydata.gtfsvalidator.db.offheap.OffHeapGtfsDataRepository;
 import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.*;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.calendardates.CalendarDate;
@@ -45,14 +46,18 @@ import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Properties;
 import java.util.Set;
 import java.util.SimpleTimeZone;
 import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.mobilitydata.gtfsvalidator.usecase.port.ExecParamRepository.*;
 
@@ -60,17 +65,27 @@ import static org.mobilitydata.gtfsvalidator.usecase.port.ExecParamRepository.*;
  * Configuration calling use cases for the execution of the validation process. This is necessary for the validation
  * process. Hence, this is created before calling the different use case of the validation process in the main method.
  */
-public class DefaultConfig {
+public class DefaultConfig implements AutoCloseable {
     private static final String DEFAULT_TIMEZONE_NAME = "America/Montreal";
     private static final TimeZone DEFAULT_TIMEZONE = SimpleTimeZone.getTimeZone(DEFAULT_TIMEZONE_NAME);
     private static final ZoneId DEFAULT_TIMEZONE_ID = DEFAULT_TIMEZONE.toZoneId();
-    private final RawFileRepository rawFileRepo = new InMemoryRawFileRepository();
+    // approximate size of the chunks of a file parsed concurrently when option parallel_parsing is set to true
+    private static final long PARSING_CHUNK_BYTE_COUNT = 4 * 1024 * 1024;
+    private static final long RESULT_CACHE_MAX_BYTE_COUNT = 1024L * 1024 * 1024;
+    // cache keys include the current date, results cached on a previous day are never read again
+    private static final Duration RESULT_CACHE_MAX_AGE = Duration.ofDays(1);
+    private static final long DATA_SNAPSHOT_MAX_BYTE_COUNT = 4L * 1024 * 1024 * 1024;
+    // snapshot keys do not include the current date, snapshots only depend on the archive and the validator
+    private static final Duration DATA_SNAPSHOT_MAX_AGE = Duration.ofDays(7);
+    private final RawFileRepository rawFileRepo;
     private final ValidationResultRepository resultRepo;
-    private final GtfsDataRepository gtfsDataRepository = new InMemoryGtfsDataRepository();
+    private final GtfsDataRepository gtfsDataRepository;
     private final TimeUtils timeUtils = TimeUtilsImpl.getInstance();
     private final GeospatialUtils geoUtils = GeospatialUtilsImpl.getInstance();
     private final GtfsSpecRepository specRepo;
     private final ExecParamRepository execParamRepo;
+    private final ValidationResultCacheRepository resultCacheRepo;
+    private final GtfsDataSnapshotRepository dataSnapshotRepo;
     private final Logger logger;
 
     private DefaultConfig(final String[] args, final Logger logger) {
@@ -82,10 +97,20 @@ public class DefaultConfig {
                 logger
         );
 
+        rawFileRepo = createRawFileRepository();
+
+        gtfsDataRepository = createGtfsDataRepository();
+
         specRepo = new InMemoryGtfsSpecRepository(loadGtfsProtobuf(), loadGtfsRelationshipDescription());
 
         resultRepo = new InMemoryValidationResultRepository(
                 Boolean.parseBoolean(execParamRepo.getExecParamValue(ABORT_ON_ERROR)));
+
+        resultCacheRepo = new LocalValidationResultCacheRepository(execParamRepo.getExecParamValue(CACHE_KEY),
+                RESULT_CACHE_MAX_BYTE_COUNT, RESULT_CACHE_MAX_AGE);
+
+        dataSnapshotRepo = new LocalGtfsDataSnapshotRepository(execParamRepo.getExecParamValue(CACHE_KEY),
+                DATA_SNAPSHOT_MAX_BYTE_COUNT, DATA_SNAPSHOT_MAX_AGE);
     }
 
     private DefaultConfig(final String executionParametersAsString, final Logger logger) {
@@ -97,10 +122,20 @@ public class DefaultConfig {
                 logger
         );
 
+        rawFileRepo = createRawFileRepository();
+
+        gtfsDataRepository = createGtfsDataRepository();
+
         specRepo = new InMemoryGtfsSpecRepository(loadGtfsProtobuf(), loadGtfsRelationshipDescription());
 
         resultRepo = new InMemoryValidationResultRepository(
                 Boolean.parseBoolean(execParamRepo.getExecParamValue(ABORT_ON_ERROR)));
+
+        resultCacheRepo = new LocalValidationResultCacheRepository(execParamRepo.getExecParamValue(CACHE_KEY),
+                RESULT_CACHE_MAX_BYTE_COUNT, RESULT_CACHE_MAX_AGE);
+
+        dataSnapshotRepo = new LocalGtfsDataSnapshotRepository(execParamRepo.getExecParamValue(CACHE_KEY),
+                DATA_SNAPSHOT_MAX_BYTE_COUNT, DATA_SNAPSHOT_MAX_AGE);
     }
 
     public static class Builder {
@@ -141,6 +176,41 @@ public class DefaultConfig {
     }
 
 
+    /**
+     * Releases the resources held by the repositories of this configuration, such as the archive GTFS files are read
+     * from and the temporary files GTFS data is held in outside of the heap. This is to be called once the validation
+     * process is over, its result exported.
+     */
+    @Override
+    public void close() {
+        // the configuration may be used for another validation run: identifiers of this one are not kept
+        specRepo.clearParsingCaches();
+        try {
+            rawFileRepo.close();
+        } catch (IOException e) {
+            logger.warn("Could not close GTFS archive: " + e);
+        }
+        try {
+            gtfsDataRepository.close();
+        } catch (IOException e) {
+            logger.warn("Could not release GTFS data: " + e);
+        }
+    }
+
+    private RawFileRepository createRawFileRepository() {
+        // GTFS files are read directly from the zipped archive unless extraction to disk is requested (debug)
+        return Boolean.parseBoolean(execParamRepo.getExecParamValue(EXTRACT_TO_DISK_KEY)) ?
+                new InMemoryRawFileRepository() :
+                new InMemoryZipRawFileRepository();
+    }
+
+    private GtfsDataRepository createGtfsDataRepository() {
+        // the largest GTFS files are held outside of the heap only if requested, for datasets that do not fit in it
+        return Boolean.parseBoolean(execParamRepo.getExecParamValue(OFF_HEAP_STORAGE_KEY)) ?
+                new OffHeapGtfsDataRepository() :
+                new InMemoryGtfsDataRepository();
+    }
+
     @SuppressWarnings("UnstableApiUsage")
     private String loadDefaultParameter() {
         String toReturn = null;
@@ -182,8 +252,45 @@ public class DefaultConfig {
         return toReturn;
     }
 
+    /**
+     * Returns the version of the validator written in validator-version.properties by the build, or null if the
+     * resource has not been processed by the build or if no version was provided to it.
+     */
+    private String loadValidatorVersion() {
+        final Properties properties = new Properties();
+        try (InputStream inputStream = Resources.getResource("validator-version.properties").openStream()) {
+            properties.load(inputStream);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Could not read the version of the validator: " + e);
+            return null;
+        }
+        final String version = properties.getProperty("version");
+        return Strings.isNullOrEmpty(version) || version.contains("${") ? null : version;
+    }
+
     public DownloadArchiveFromNetwork downloadArchiveFromNetwork() {
-        return new DownloadArchiveFromNetwork(resultRepo, execParamRepo, logger);
+        return new DownloadArchiveFromNetwork(rawFileRepo, resultRepo, execParamRepo, logger);
+    }
+
+    public ComputeValidationResultCacheKey computeValidationResultCacheKey() {
+        return new ComputeValidationResultCacheKey(execParamRepo, loadGtfsProtobuf(), loadValidatorVersion(),
+                logger);
+    }
+
+    public LoadValidationResultFromCache loadValidationResultFromCache() {
+        return new LoadValidationResultFromCache(resultCacheRepo, resultRepo, logger);
+    }
+
+    public SaveValidationResultToCache saveValidationResultToCache() {
+        return new SaveValidationResultToCache(resultCacheRepo, resultRepo, gtfsDataRepository, logger);
+    }
+
+    public LoadGtfsDataSnapshot loadGtfsDataSnapshot() {
+        return new LoadGtfsDataSnapshot(dataSnapshotRepo, resultRepo, gtfsDataRepository, logger);
+    }
+
+    public SaveGtfsDataSnapshot saveGtfsDataSnapshot() {
+        return new SaveGtfsDataSnapshot(dataSnapshotRepo, resultRepo, gtfsDataRepository, logger);
     }
 
     public CreatePath createPath() {
@@ -231,6 +338,82 @@ public class DefaultConfig {
         );
     }
 
+    public ValidateAndParseSingleRowForFile validateAndParseSingleRowForFile(final String filename) {
+        return new ValidateAndParseSingleRowForFile(
+                rawFileRepo.findByName(filename).orElse(RawFileInfo.builder().build()),
+                rawFileRepo,
+                specRepo,
+                resultRepo,
+                validateCsvNotEmptyForFile(filename),
+                validateHeadersForFile(filename)
+        );
+    }
+
+    public ValidateAndDecodeSingleRowForFile<StopTime.StopTimeBuilder> validateAndDecodeStopTimes() {
+        return validateAndDecodeSingleRowForFile("stop_times.txt", StopTime.StopTimeBuilder.class,
+                new StopTime.StopTimeBuilder());
+    }
+
+    public ValidateAndDecodeSingleRowForFile<Trip.TripBuilder> validateAndDecodeTrips() {
+        return validateAndDecodeSingleRowForFile("trips.txt", Trip.TripBuilder.class, new Trip.TripBuilder());
+    }
+
+    public ValidateAndDecodeSingleRowForFile<ShapePoint.ShapeBuilder> validateAndDecodeShapePoints() {
+        return validateAndDecodeSingleRowForFile("shapes.txt", ShapePoint.ShapeBuilder.class,
+                new ShapePoint.ShapeBuilder());
+    }
+
+    public ValidateAndDecodeSingleRowForFile<CalendarDate.CalendarDateBuilder> validateAndDecodeCalendarDates() {
+        return validateAndDecodeSingleRowForFile("calendar_dates.txt", CalendarDate.CalendarDateBuilder.class,
+                new CalendarDate.CalendarDateBuilder());
+    }
+
+    private <B> ValidateAndDecodeSingleRowForFile<B> validateAndDecodeSingleRowForFile(final String filename,
+                                                                                       final Class<B> builderType,
+                                                                                       final B builder) {
+        return new ValidateAndDecodeSingleRowForFile<>(
+                rawFileRepo.findByName(filename).orElse(RawFileInfo.builder().build()),
+                rawFileRepo,
+                specRepo,
+                resultRepo,
+                validateCsvNotEmptyForFile(filename),
+                validateHeadersForFile(filename),
+                builderType,
+                builder,
+                timeUtils
+        );
+    }
+
+    public ValidateAndParseChunksForFile validateAndParseChunksForFile(final String filename) {
+        return new ValidateAndParseChunksForFile(
+                rawFileRepo.findByName(filename).orElse(RawFileInfo.builder().build()),
+                rawFileRepo,
+                specRepo,
+                resultRepo,
+                validateCsvNotEmptyForFile(filename),
+                validateHeadersForFile(filename),
+                ForkJoinPool.commonPool(),
+                PARSING_CHUNK_BYTE_COUNT
+        );
+    }
+
+    public ValidateAndParseStagedForFile validateAndParseStagedForFile(final String filename) {
+        return new ValidateAndParseStagedForFile(
+                rawFileRepo.findByName(filename).orElse(RawFileInfo.builder().build()),
+                rawFileRepo,
+                specRepo,
+                resultRepo,
+                validateCsvNotEmptyForFile(filename),
+                validateHeadersForFile(filename),
+                Integer.parseInt(execParamRepo.getExecParamValue(PIPELINE_QUEUE_DEPTH_KEY)),
+                Integer.parseInt(execParamRepo.getExecParamValue(PIPELINE_BATCH_SIZE_KEY))
+        );
+    }
+
+    public ProcessFilesConcurrently processFilesConcurrently() {
+        return new ProcessFilesConcurrently(Integer.parseInt(execParamRepo.getExecParamValue(FILE_THREAD_COUNT_KEY)));
+    }
+
     public ValidateGtfsTypes validateGtfsTypes() {
         return new ValidateGtfsTypes(
                 specRepo,
@@ -328,8 +511,7 @@ public class DefaultConfig {
                 processingTimeSecs,
                 processedFilenameCollection,
                 CustomFileUtilsImpl.getInstance(),
-                Path.of(execParamRepo.getExecParamValue(ExecParamRepository.INPUT_KEY)),
-                Path.of(execParamRepo.getExecParamValue(ExecParamRepository.EXTRACT_KEY))
+                Path.of(execParamRepo.getExecParamValue(ExecParamRepository.INPUT_KEY))
         );
     }
 
@@ -390,12 +572,13 @@ public class DefaultConfig {
     }
 
     public ProcessParsedShapePoint processParsedShapePoint() {
-        return new ProcessParsedShapePoint(resultRepo, gtfsDataRepository, new ShapePoint.ShapeBuilder());
+        return new ProcessParsedShapePoint(resultRepo, gtfsDataRepository, new ShapePoint.ShapeBuilder(),
+                Boolean.parseBoolean(execParamRepo.getExecParamValue(BULK_LOAD_KEY)));
     }
 
     public ProcessParsedStopTime processParsedStopTime() {
         return new ProcessParsedStopTime(resultRepo, gtfsDataRepository, timeUtils,
-                new StopTime.StopTimeBuilder());
+                new StopTime.StopTimeBuilder(), Boolean.parseBoolean(execParamRepo.getExecParamValue(BULK_LOAD_KEY)));
     }
 
     public ProcessParsedTranslation processParsedTranslation() {
@@ -427,6 +610,10 @@ public class DefaultConfig {
         return new GenerateFilenameListToProcess(logger);
     }
 
+    public ReserveDataRepositoryCapacity reserveDataRepositoryCapacity() {
+        return new ReserveDataRepositoryCapacity(rawFileRepo, gtfsDataRepository, logger);
+    }
+
     public ValidateAgenciesHaveSameAgencyTimezone validateAgenciesHaveSameAgencyTimezone() {
         return new ValidateAgenciesHaveSameAgencyTimezone(gtfsDataRepository, resultRepo, logger);
     }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.domain.entity;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Represents the result of the validation of a GTFS archive, kept so that the same archive does not have to be
+ * validated again: the notices generated by the validation process, apart from the information notice which is
+ * specific to each execution, along with what is needed to generate said information notice and name the report.
+ */
+public class CachedValidationResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String feedPublisherNameOrAgencyName;
+    private final List<String> processedFilenameList;
+    private final List<Notice> noticeList;
+
+    /**
+     * @param feedPublisherNameOrAgencyName the name of the feed publisher or of the first agency of the archive, empty
+     *                                      if none was found
+     * @param processedFilenameList         the names of the files of the archive that were processed
+     * @param noticeList                    the notices generated by the validation process
+     */
+    public CachedValidationResult(final String feedPublisherNameOrAgencyName,
+                                  final List<String> processedFilenameList,
+                                  final List<Notice> noticeList) {
+        this.feedPublisherNameOrAgencyName = feedPublisherNameOrAgencyName;
+        this.processedFilenameList = processedFilenameList;
+        this.noticeList = noticeList;
+    }
+
+    /**
+     * Returns the name of the feed publisher or of the first agency of the archive, empty if none was found
+     *
+     * @return the name of the feed publisher or of the first agency of the archive, empty if none was found
+     */
+    public String getFeedPublisherNameOrAgencyName() {
+        return feedPublisherNameOrAgencyName;
+    }
+
+    /**
+     * Returns the names of the files of the archive that were processed
+     *
+     * @return the names of the files of the archive that were processed
+     */
+    public List<String> getProcessedFilenameList() {
+        return processedFilenameList;
+    }
+
+    /**
+     * Returns the notices generated by the validation process
+     *
+     * @return the notices generated by the validation process
+     */
+    public List<Notice> getNoticeList() {
+        return noticeList;
+    }
+}
@@ -16,7 +16,9 @@
 
 package org.mobilitydata.gtfsvalidator.domain.entity;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a row of a GTFS file that has been parsed: the type of each column of the raw data has been determined.
@@ -30,6 +32,7 @@ public class ParsedEntity {
      * Value: a String, Integer or Float, depending on the declared type of the column
      */
     private final Map<String, Object> contentByHeaderMap;
+    private final Set<String> printableAsciiHeaderSet;
 
     /**
      * @param rawFileInfo        an object containing information regarding a file location and expected content
@@ -37,9 +40,24 @@ public class ParsedEntity {
      * @param id                 the id extracted from the original row.
      */
     public ParsedEntity(String id, Map<String, Object> contentByHeaderMap, RawFileInfo rawFileInfo) {
+        this(id, contentByHeaderMap, rawFileInfo, Collections.emptySet());
+    }
+
+    /**
+     * @param rawFileInfo             an object containing information regarding a file location and expected content
+     * @param contentByHeaderMap      an object mapping rows of a GTFS .txt file on header name.
+     * @param id                      the id extracted from the original row.
+     * @param printableAsciiHeaderSet the headers whose value was found to only contain printable ASCII characters
+     *                                while parsing the original row, may be shared by several entities
+     */
+    public ParsedEntity(String id,
+                        Map<String, Object> contentByHeaderMap,
+                        RawFileInfo rawFileInfo,
+                        Set<String> printableAsciiHeaderSet) {
         this.contentByHeaderMap = contentByHeaderMap;
         this.rawFileInfo = rawFileInfo;
         this.entityId = id;
+        this.printableAsciiHeaderSet = printableAsciiHeaderSet;
     }
 
     /**
@@ -61,6 +79,17 @@ public class ParsedEntity {
         return contentByHeaderMap.get(header);
     }
 
+    /**
+     * Returns true if the value of a given header (column) was found to only contain printable ASCII characters while
+     * parsing the original row, false if it was not or if this was not checked
+     *
+     * @param header a GTFS file column header
+     * @return true if the value of the header was found to only contain printable ASCII characters, else false
+     */
+    public boolean hasPrintableAsciiValue(final String header) {
+        return printableAsciiHeaderSet.contains(header);
+    }
+
     /**
      * Returns information related to the raw file from which this entity's data was parsed
      *
@@ -16,6 +16,7 @@
 
 package org.mobilitydata.gtfsvalidator.domain.entity;
 
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -52,6 +53,49 @@ public class RawEntity {
         return contentByHeaderMap.get(header);
     }
 
+    /**
+     * Returns the value contained in a row for a given column, identified by the 0 based index of its header in the
+     * file. The header of the column is resolved from {@link #getColumnIndexPerHeader()} and its value is read with
+     * {@link #get(String)}: rows that do not keep track of the position of columns have no value for any index.
+     * Subclasses that do keep track of it should override this with a direct access.
+     *
+     * @param columnIndex the 0 based index of the header of a column in the file
+     * @return the value contained in a row for a given column, null if the row has no such column
+     */
+    public String get(final int columnIndex) {
+        for (final Map.Entry<String, Integer> columnIndexForHeader : getColumnIndexPerHeader().entrySet()) {
+            if (columnIndexForHeader.getValue() == columnIndex) {
+                return get(columnIndexForHeader.getKey());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the value of a column is known to only contain printable ASCII characters, as determined from
+     * the raw content of the row before the value is decoded. This is only supported by rows read by a data provider
+     * that keeps the raw content of rows, other rows leave this to validators.
+     *
+     * @param columnIndex the 0 based index of the header of a column in the file
+     * @return true if the value of the column is known to only contain printable ASCII characters, false if it does
+     * not or if this is not known
+     */
+    public boolean hasPrintableAsciiValue(final int columnIndex) {
+        return false;
+    }
+
+    /**
+     * Returns the 0 based index of the column matching each header of the file this row was read from. The returned
+     * map is shared by all rows read by the same data provider, so that the position of columns can be resolved once
+     * per file rather than once per row.
+     *
+     * @return the 0 based index of the column matching each header, empty if the row does not keep track of the
+     * position of columns
+     */
+    public Map<String, Integer> getColumnIndexPerHeader() {
+        return Collections.emptyMap();
+    }
+
     /**
      * Returns the number of headers (columns).
      *
@@ -30,6 +30,8 @@ import java.util.List;
  * {@link AgencyBuilder} to create this.
  */
 public class Agency extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @Nullable
     private final String agencyId;
     @NotNull
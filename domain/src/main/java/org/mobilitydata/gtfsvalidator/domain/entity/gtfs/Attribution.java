@@ -35,6 +35,8 @@ import java.util.Objects;
  * object.
  */
 public class Attribution extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @Nullable
     private final String attributionId;
     @Nullable
@@ -32,6 +32,7 @@ import java.util.Set;
  * {@link CalendarBuilder} to create this.
  */
 public class Calendar extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
     private static final String MONDAY = "monday";
     private static final String TUESDAY = "tuesday";
     private static final String WEDNESDAY = "wednesday";
@@ -29,6 +29,8 @@ import java.util.List;
  * {@link FareRuleBuilder} to create this.
  */
 public class FareRule extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String fareId;
     @Nullable
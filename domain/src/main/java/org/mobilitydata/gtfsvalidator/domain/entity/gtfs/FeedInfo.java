@@ -30,6 +30,8 @@ import java.util.List;
  * {@link FeedInfoBuilder} to create this.
  */
 public class FeedInfo extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String feedPublisherName;
     @NotNull
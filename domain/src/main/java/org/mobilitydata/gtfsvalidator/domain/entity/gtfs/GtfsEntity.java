@@ -16,10 +16,13 @@
 
 package org.mobilitydata.gtfsvalidator.domain.entity.gtfs;
 
+import java.io.Serializable;
+
 /**
  * This is the super class from which all gtfs entities inherit. This implementation allows manipulation of generic
  * lists of gtfs entities. At present, this class is empty. We will add fields and methods according to the progress of
- * the project.
+ * the project. Entities are serializable so that the GTFS data loaded from an archive can be kept in a snapshot.
  */
-public abstract class GtfsEntity {
+public abstract class GtfsEntity implements Serializable {
+    private static final long serialVersionUID = 1L;
 }
@@ -29,6 +29,8 @@ import java.util.List;
  * {@code Level.LevelBuilder} to create this.
  */
 public class Level extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String levelId;
     @NotNull
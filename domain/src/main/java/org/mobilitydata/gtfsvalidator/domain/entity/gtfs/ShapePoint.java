@@ -31,6 +31,8 @@ import java.util.List;
  * {@link ShapePoint.ShapeBuilder} to create this.
  */
 public class ShapePoint extends GtfsEntity implements Comparable<ShapePoint> {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String shapeId;
     @NotNull
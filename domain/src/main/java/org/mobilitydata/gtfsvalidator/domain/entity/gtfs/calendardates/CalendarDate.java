@@ -33,6 +33,8 @@ import java.util.Objects;
  * {@link CalendarDate.CalendarDateBuilder} to create this.
  */
 public class CalendarDate extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String serviceId;
     @NotNull
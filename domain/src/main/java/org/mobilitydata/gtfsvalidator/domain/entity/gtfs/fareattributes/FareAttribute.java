@@ -34,6 +34,8 @@ import java.util.List;
  * {@code FareAttribute.FareAttributeBuilder} to create this.
  */
 public class FareAttribute extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     final String fareId;
     @NotNull
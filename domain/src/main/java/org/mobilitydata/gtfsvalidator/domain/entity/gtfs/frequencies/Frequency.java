@@ -33,6 +33,8 @@ import java.util.List;
  * {@link FrequencyBuilder} to create this.
  */
 public class Frequency extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String tripId;
     @NotNull
@@ -34,6 +34,8 @@ import java.util.List;
  * {@link PathwayBuilder} to create this.
  */
 public class Pathway extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String pathwayId;
     @NotNull
@@ -34,6 +34,8 @@ import java.util.List;
  * {@link RouteBuilder} to create this.
  */
 public class Route extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String routeId;
     @Nullable
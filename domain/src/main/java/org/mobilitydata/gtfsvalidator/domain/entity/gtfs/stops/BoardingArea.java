@@ -28,6 +28,7 @@ import java.util.List;
  * Use {@link BoardingAreaBuilder} to instantiate
  */
 public class BoardingArea extends LocationBase {
+    private static final long serialVersionUID = 1L;
 
     @NotNull
     private final String parentStation;
@@ -32,6 +32,8 @@ import static org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.Wheelchair
  * Use {@link EntranceBuilder} to instantiate
  */
 public class Entrance extends LocationBase {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String parentStation;
     @NotNull
@@ -28,6 +28,7 @@ import java.util.List;
  * Use {@link GenericNodeBuilder} to instantiate
  */
 public class GenericNode extends LocationBase {
+    private static final long serialVersionUID = 1L;
 
     @NotNull
     private final String parentStation;
@@ -29,6 +29,7 @@ import java.util.List;
  * derived from {@link LocationBase.LocationBaseBuilder} to instantiate a subclass.
  */
 public abstract class LocationBase extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
 
     private @NotNull
     final String stopId;
@@ -32,6 +32,7 @@ import static org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.Wheelchair
  * Use {@link StationBuilder} to instantiate
  */
 public class Station extends LocationBase {
+    private static final long serialVersionUID = 1L;
 
     @NotNull
     private final WheelchairBoarding wheelchairBoarding;
@@ -32,6 +32,8 @@ import static org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.Wheelchair
  * Use {@link StopOrPlatformBuilder} to instantiate
  */
 public class StopOrPlatform extends LocationBase {
+    private static final long serialVersionUID = 1L;
+
     @Nullable
     private final String parentStation;
     @NotNull
@@ -37,6 +37,8 @@ import java.util.List;
  * object.
  */
 public class StopTime extends GtfsEntity implements Comparable<StopTime> {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String tripId;
     @Nullable
@@ -33,6 +33,8 @@ import java.util.List;
  * {@link TransferBuilder} to create this.
  */
 public class Transfer extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String fromStopId;
     @NotNull
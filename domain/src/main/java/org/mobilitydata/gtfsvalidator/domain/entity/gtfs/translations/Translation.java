@@ -32,6 +32,8 @@ import java.util.List;
  * Base class for all entities defined in translations.txt
  */
 public class Translation extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final TableName tableName;
     @NotNull
@@ -33,6 +33,8 @@ import java.util.ArrayList;
  * {@link TripBuilder} to create this.
  */
 public class Trip extends GtfsEntity {
+    private static final long serialVersionUID = 1L;
+
     @NotNull
     private final String routeId;
     @NotNull
@@ -17,6 +17,7 @@
 package org.mobilitydata.gtfsvalidator.domain.entity.notice.base;
 
 public abstract class ErrorNotice extends Notice {
+    private static final long serialVersionUID = 1L;
     private static final String level = "ERROR";
 
     protected static final int E_001 = 1;
@@ -18,6 +18,7 @@ package org.mobilitydata.gtfsvalidator.domain.entity.notice.base;
 
 //TODO: use those to track progress (no error in file xxx, took xxms) maybe also have verbose level
 public abstract class InfoNotice extends Notice {
+    private static final long serialVersionUID = 1L;
     private static final String level = "INFO";
     protected static final int I_001 = 1;
 
@@ -19,10 +19,12 @@ package org.mobilitydata.gtfsvalidator.domain.entity.notice.base;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.NoticeExporter;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
-public abstract class Notice {
+public abstract class Notice implements Serializable {
+    private static final long serialVersionUID = 1L;
     public static final String KEY_FIELD_NAME = "fieldName";
     public static final String KEY_FOLDER_NAME = "folderName";
     public static final String KEY_LINE_NUMBER = "lineNumber";
@@ -17,6 +17,7 @@
 package org.mobilitydata.gtfsvalidator.domain.entity.notice.base;
 
 public abstract class WarningNotice extends Notice {
+    private static final long serialVersionUID = 1L;
     private static final String level = "WARNING";
 
     protected static final int W_001 = 1;
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class BackwardsTimeTravelInStopNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public BackwardsTimeTravelInStopNotice(final String tripId,
                                            final Integer stopSequence,
                                            final String arrivalTimeAsString,
@@ -24,6 +24,8 @@ import java.io.IOException;
 import java.util.Set;
 
 public class BlockTripsWithOverlappingStopTimesNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
+
     // This constructor is used when generating notice related to E054: conflicting trips have same service_id
     public BlockTripsWithOverlappingStopTimesNotice(final String tripId,
                                                     final String tripFirstTime,
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.time.LocalDate;
 
 public class CalendarEndDateBeforeStartDateNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public CalendarEndDateBeforeStartDateNotice(final String filename, final String entityId, final LocalDate startDate,
                                                 final LocalDate endDate) {
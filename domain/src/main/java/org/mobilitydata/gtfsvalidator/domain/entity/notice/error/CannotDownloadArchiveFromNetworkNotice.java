@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.net.URL;
 
 public class CannotDownloadArchiveFromNetworkNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public CannotDownloadArchiveFromNetworkNotice(final URL url) {
         super(String.valueOf(url),
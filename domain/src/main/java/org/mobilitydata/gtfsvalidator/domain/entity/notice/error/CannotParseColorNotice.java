@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class CannotParseColorNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public CannotParseColorNotice(String filename, String fieldName, int lineNumber, String colorValue) {
         super(filename, E_014,
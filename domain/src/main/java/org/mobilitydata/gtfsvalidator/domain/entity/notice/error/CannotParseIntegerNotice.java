@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class CannotParseIntegerNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public CannotParseIntegerNotice(String filename, String fieldName, int lineNumber, String rawValue) {
         super(filename, E_005,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class DecreasingShapeDistanceNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public DecreasingShapeDistanceNotice(final String shapeId,
                                          final int shapePtSequence,
                                          final Float shapeDistTraveled,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class DuplicatedEntityNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public DuplicatedEntityNotice(final String filename, final String fieldName, final String entityId) {
         super(filename, E_020,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class DuplicatedHeaderNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public DuplicatedHeaderNotice(final String filename, final String duplicatedHeaderName) {
         super(filename, E_043,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class EmptyFileErrorNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public EmptyFileErrorNotice(String filename) {
         super(filename, E_039,
                 "Empty csv file",
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class EmptyFileWarningNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
     public EmptyFileWarningNotice(String filename) {
         super(filename, W_009,
                 "Empty optional csv file",
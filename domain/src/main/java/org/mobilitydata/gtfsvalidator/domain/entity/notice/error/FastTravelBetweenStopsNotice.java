@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.List;
 
 public class FastTravelBetweenStopsNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public FastTravelBetweenStopsNotice(final String tripId,
                                         final float speedkmh,
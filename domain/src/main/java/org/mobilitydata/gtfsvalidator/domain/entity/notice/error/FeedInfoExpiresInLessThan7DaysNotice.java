@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class FeedInfoExpiresInLessThan7DaysNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public FeedInfoExpiresInLessThan7DaysNotice(final String fileName,
                                                 final String currentDateAsString,
                                                 final String feedEndDateAsString,
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.Set;
 
 public class FeedInfoLangAgencyLangMismatchNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public FeedInfoLangAgencyLangMismatchNotice(final String agencyId,
                                                 final String agencyName,
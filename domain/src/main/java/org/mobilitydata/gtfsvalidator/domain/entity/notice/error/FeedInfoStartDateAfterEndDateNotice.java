@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class FeedInfoStartDateAfterEndDateNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public FeedInfoStartDateAfterEndDateNotice(final String filename,
                                                final String startDateAsString,
                                                final String endDateAsString,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class IllegalFieldValueCombinationNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public IllegalFieldValueCombinationNotice(final String filename, final String fieldName,
                                               final String conflictingFieldName, final String entityId) {
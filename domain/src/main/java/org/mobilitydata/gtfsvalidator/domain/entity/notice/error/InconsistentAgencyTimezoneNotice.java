@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class InconsistentAgencyTimezoneNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     private final int distinctTimezoneCount;
     private final String conflictingTimezoneCollection;
     private final String fieldName;
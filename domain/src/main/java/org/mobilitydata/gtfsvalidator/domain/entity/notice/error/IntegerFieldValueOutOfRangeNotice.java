@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class IntegerFieldValueOutOfRangeNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public IntegerFieldValueOutOfRangeNotice(final String filename, final String fieldName, final String entityId,
                                              final int rangeMin, final int rangeMax, final int actualValue) {
         super(filename, E_010,
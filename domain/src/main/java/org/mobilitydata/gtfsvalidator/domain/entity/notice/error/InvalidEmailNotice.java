@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class InvalidEmailNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public InvalidEmailNotice(final String filename, final String fieldName,
                               final String entityId, final String emailValue) {
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class InvalidRowLengthNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public InvalidRowLengthNotice(String filename, int rowIndex, int expectedLength, int actualLength) {
         super(filename, E_004,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class InvalidTimezoneNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public InvalidTimezoneNotice(String filename, String fieldName, String entityId, String timezoneValue) {
         super(filename, E_013,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class InvalidUrlNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public InvalidUrlNotice(String filename, String fieldName, String entityId, String urlValue) {
         super(filename, E_012,
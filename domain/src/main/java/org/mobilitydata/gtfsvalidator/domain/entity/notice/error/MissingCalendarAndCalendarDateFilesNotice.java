@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class MissingCalendarAndCalendarDateFilesNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public MissingCalendarAndCalendarDateFilesNotice() {
         super("calendar.txt", E_056,
                 "Missing both `calendar_dates.txt` and `calendar.txt` files",
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class MissingHeaderNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public MissingHeaderNotice(final String filename, final String missingHeaderName) {
         super(filename, E_001,
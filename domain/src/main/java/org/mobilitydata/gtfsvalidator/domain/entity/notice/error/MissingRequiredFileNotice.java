@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class MissingRequiredFileNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public MissingRequiredFileNotice(String filename) {
         super(filename, E_003,
                 "Missing required file",
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class MissingRequiredValueNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public MissingRequiredValueNotice(final String filename, final String fieldName, final String entityId) {
         super(filename, E_015,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class MissingTripEdgeStopTimeNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public MissingTripEdgeStopTimeNotice(final String fieldName, final String tripId, final Integer stopSequence) {
         super("stop_times.txt", E_044,
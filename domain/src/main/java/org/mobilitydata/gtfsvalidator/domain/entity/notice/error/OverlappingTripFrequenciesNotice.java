@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class OverlappingTripFrequenciesNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public OverlappingTripFrequenciesNotice(final String tripId,
                                             final String currentFrequencyStartTime,
                                             final String currentFrequencyEndTime,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class ParentStationInvalidLocationTypeNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public ParentStationInvalidLocationTypeNotice(final String childId,
                                                   final Integer childLocationType,
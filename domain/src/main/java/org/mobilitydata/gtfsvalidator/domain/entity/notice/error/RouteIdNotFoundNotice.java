@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class RouteIdNotFoundNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public RouteIdNotFoundNotice(final String filename, final String entityId, final String routeId,
                                  final String fieldName) {
         super(filename,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class RouteLongNameEqualsShortNameNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public RouteLongNameEqualsShortNameNotice(final String filename, final String entityId) {
         super(filename, E_028,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class ServiceIdNotFoundNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public ServiceIdNotFoundNotice(final String filename, final String entityId, final String fieldName,
                                    final String serviceId) {
         super(filename,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class ShapeIdNotFoundNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public ShapeIdNotFoundNotice(final String filename, final String fieldName, final String compositeKeyFirstPart,
                                  final String compositeKeySecondPart, final Object compositeKeyFirstValue,
                                  final Object compositeKeySecondValue, final String shapeId) {
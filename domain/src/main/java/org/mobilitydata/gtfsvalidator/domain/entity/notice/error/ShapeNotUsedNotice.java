@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class ShapeNotUsedNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public ShapeNotUsedNotice(final String entityId, final String fieldName) {
         super("shapes.txt",
                 E_038,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class StopTimeArrivalTimeAfterDepartureTimeNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public StopTimeArrivalTimeAfterDepartureTimeNotice(final String filename,
                                                        final String arrivalTimeAsString,
                                                        final String departureTimeAsString,
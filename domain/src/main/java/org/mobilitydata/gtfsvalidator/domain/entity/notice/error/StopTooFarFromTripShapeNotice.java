@@ -6,6 +6,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class StopTooFarFromTripShapeNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public StopTooFarFromTripShapeNotice(final String stopId, final int stopSequence,
                                          final String tripId, final String shapeId, final double stopShapeThreshold) {
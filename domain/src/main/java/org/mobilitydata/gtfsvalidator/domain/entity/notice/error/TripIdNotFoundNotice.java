@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class TripIdNotFoundNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public TripIdNotFoundNotice(final String filename,
                                 final String fieldName,
                                 final String compositeKeyFirstPart,
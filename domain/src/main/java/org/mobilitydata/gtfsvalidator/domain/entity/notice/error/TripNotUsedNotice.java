@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class TripNotUsedNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public TripNotUsedNotice(final String tripId) {
         super("trips.txt",
                 E_050,
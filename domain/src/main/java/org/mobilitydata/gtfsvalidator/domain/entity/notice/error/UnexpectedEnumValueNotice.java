@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class UnexpectedEnumValueNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
 
     public UnexpectedEnumValueNotice(final String filename, final String fieldName, final String entityId,
                                      final Object enumValue) {
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import java.io.IOException;
 
 public class UnusableTripNotice extends ErrorNotice {
+    private static final long serialVersionUID = 1L;
     public UnusableTripNotice(final String tripId) {
         super("stop_times.txt", E_051,
                 "Trips must have more than one stop to be usable",
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.InfoNotice;
 import java.io.IOException;
 
 public class ValidationProcessInfoNotice extends InfoNotice {
+    private static final long serialVersionUID = 1L;
     public ValidationProcessInfoNotice(final String feedPublisherNameOrAgencyName,
                                        final String validationTimestamp,
                                        final int warningNoticeCount,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class DuplicateRouteLongNameNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
     public DuplicateRouteLongNameNotice(final String routeId,
                                         final String conflictingRouteId,
                                         final String duplicateRouteLongName) {
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class DuplicateRouteLongNameRouteShortNameCombinationNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
     public DuplicateRouteLongNameRouteShortNameCombinationNotice(final String routeId,
                                                                  final String conflictingRouteId,
                                                                  final String duplicateRouteLongName,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class DuplicateRouteShortNameNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
     public DuplicateRouteShortNameNotice(final String routeId,
                                          final String conflictingRouteId,
                                          final String duplicateRouteShortName) {
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class ExtraFileFoundNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
 
     public ExtraFileFoundNotice(String filename) {
         super(filename,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class FeedInfoExpiresInLessThan30DaysNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
     public FeedInfoExpiresInLessThan30DaysNotice(final String fileName,
                                                  final String currentDateAsString,
                                                  final String feedEndDateAsString,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class MissingFeedEndDateNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
     public MissingFeedEndDateNotice(final String fileName,
                                     final String fieldName,
                                     final String compositeKeyFirstPart,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class MissingRouteLongNameNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
 
     public MissingRouteLongNameNotice(final String filename, final String entityId) {
         super(filename, W_007,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class NonAsciiOrNonPrintableCharNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
 
     public NonAsciiOrNonPrintableCharNotice(String filename, String fieldName, String entityId, String idValue) {
         super(filename, W_003,
@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class NonStandardHeaderNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
 
     public NonStandardHeaderNotice(String filename, String extra) {
         super(filename, W_002,
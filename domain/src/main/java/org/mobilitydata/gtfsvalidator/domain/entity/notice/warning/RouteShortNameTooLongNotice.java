@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.WarningNotice;
 import java.io.IOException;
 
 public class RouteShortNameTooLongNotice extends WarningNotice {
+    private static final long serialVersionUID = 1L;
 
     public RouteShortNameTooLongNotice(final String filename, final String entityId, final String shortNameLength) {
         super(filename, W_005,
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.domain.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RawEntityTest {
+
+    @Test
+    public void getByIndexShouldReturnNullWhenColumnPositionsAreNotKnown() {
+        final RawEntity underTest = new RawEntity(Map.of("stop_id", "stop0"), 2);
+        assertNull(underTest.get(0));
+    }
+
+    @Test
+    public void getByIndexShouldReadValueOfHeaderAtIndex() {
+        final RawEntity underTest = new RawEntity(Map.of("stop_id", "stop0", "stop_name", "name0"), 2) {
+            @Override
+            public Map<String, Integer> getColumnIndexPerHeader() {
+                return Map.of("stop_id", 0, "stop_name", 1);
+            }
+        };
+        assertEquals("stop0", underTest.get(0));
+        assertEquals("name0", underTest.get(1));
+        assertNull(underTest.get(2));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.mobilitydata.gtfsvalidator.usecase.port.ExecParamRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Use case to compute the key under which the result of the validation of a GTFS archive is cached. This step
+ * intervenes after the said archive has been downloaded from the network.
+ */
+public class ComputeValidationResultCacheKey {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final ExecParamRepository execParamRepo;
+    private final String gtfsSpec;
+    private final String validatorVersion;
+    private final Logger logger;
+    // the archive is read once when computing several keys
+    private String archiveDigest;
+
+    /**
+     * @param execParamRepo    a repository containing execution parameters
+     * @param gtfsSpec         the GTFS specification used, as loaded from gtfs_spec.asciipb
+     * @param validatorVersion the version of the validator, as set by the build; null or blank when unknown
+     * @param logger           a logger displaying information about the validation process
+     */
+    public ComputeValidationResultCacheKey(final ExecParamRepository execParamRepo,
+                                           final String gtfsSpec,
+                                           final String validatorVersion,
+                                           final Logger logger) {
+        this.execParamRepo = execParamRepo;
+        this.gtfsSpec = gtfsSpec;
+        this.validatorVersion = validatorVersion;
+        this.logger = logger;
+    }
+
+    /**
+     * Use case execution method: returns the SHA-256 digest of the content of the archive to validate, of the version
+     * of the validator and of the GTFS specification, along with the execution parameters and the current date, which
+     * all have an impact on the validation result. Returns an empty value if no cache directory has been provided via
+     * execution parameter, if the version of the validator is unknown, or if the archive can not be read.
+     *
+     * @return the key under which the result of the validation of a GTFS archive is cached
+     */
+    public Optional<String> execute() {
+        if (!execParamRepo.hasExecParamValue(ExecParamRepository.CACHE_KEY)) {
+            return Optional.empty();
+        }
+        // feed coverage is validated against the current date
+        return computeKey(LocalDate.now().toString());
+    }
+
+    /**
+     * Returns the key under which a snapshot of the GTFS data loaded from the archive to validate is kept. Unlike the
+     * key returned by {@link #execute()}, it does not depend on the current date: loading GTFS files does not.
+     * Returns an empty value if no cache directory has been provided via execution parameter, if snapshots have not
+     * been requested, if the version of the validator is unknown, or if the archive can not be read.
+     *
+     * @return the key under which a snapshot of the GTFS data loaded from the archive is kept
+     */
+    public Optional<String> executeForDataSnapshot() {
+        if (!execParamRepo.hasExecParamValue(ExecParamRepository.CACHE_KEY) ||
+                !Boolean.parseBoolean(execParamRepo.getExecParamValue(ExecParamRepository.DATA_SNAPSHOT_KEY))) {
+            return Optional.empty();
+        }
+        return computeKey(ExecParamRepository.DATA_SNAPSHOT_KEY);
+    }
+
+    private Optional<String> computeKey(final String suffix) {
+        // results of a build of unknown version could be served to any other build
+        if (validatorVersion == null || validatorVersion.isBlank()) {
+            logger.warn("Version of the validator is unknown, nothing will be cached for the archive");
+            return Optional.empty();
+        }
+        try {
+            if (archiveDigest == null) {
+                archiveDigest =
+                        digestOfArchive(Path.of(execParamRepo.getExecParamValue(ExecParamRepository.INPUT_KEY)));
+            }
+            final String key = String.join(System.lineSeparator(),
+                    archiveDigest,
+                    validatorVersion,
+                    toHex(newDigest().digest(gtfsSpec.getBytes(StandardCharsets.UTF_8))),
+                    execParamRepo.getExecParamValue(ExecParamRepository.ABORT_ON_ERROR),
+                    String.valueOf(execParamRepo.getExecParamValue(ExecParamRepository.EXCLUSION_KEY)),
+                    suffix);
+            return Optional.of(toHex(newDigest().digest(key.getBytes(StandardCharsets.UTF_8))));
+        } catch (IOException e) {
+            logger.warn("Could not compute the cache key of the archive, nothing will be cached for it: " + e);
+            return Optional.empty();
+        }
+    }
+
+    private static String digestOfArchive(final Path archive) throws IOException {
+        final MessageDigest digest = newDigest();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream inputStream = Files.newInputStream(archive)) {
+            int readByteCount;
+            while ((readByteCount = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, readByteCount);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every implementation of the Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder toReturn = new StringBuilder(2 * bytes.length);
+        for (final byte b : bytes) {
+            toReturn.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return toReturn.toString();
+    }
+}
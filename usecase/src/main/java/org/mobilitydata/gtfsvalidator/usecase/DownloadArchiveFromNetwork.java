@@ -19,16 +19,28 @@ package org.mobilitydata.gtfsvalidator.usecase;
 import org.apache.logging.log4j.Logger;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.CannotDownloadArchiveFromNetworkNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.ExecParamRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 import static java.net.HttpURLConnection.HTTP_MOVED_PERM;
 import static java.net.HttpURLConnection.HTTP_MOVED_TEMP;
@@ -39,17 +51,22 @@ import static java.net.HttpURLConnection.HTTP_MOVED_TEMP;
 public class DownloadArchiveFromNetwork {
     private static final int HTTP_TEMP_REDIRECT = 307;
     private static final int HTTP_PERM_REDIRECT = 308;
+    private static final int STREAM_BUFFER_SIZE = 1024 * 1024;
+    private final RawFileRepository rawFileRepo;
     private final ValidationResultRepository resultRepo;
     private final ExecParamRepository execParamRepo;
     private final Logger logger;
 
     /**
-     * @param resultRepo a repository storing information about the validation process
-     * @param logger     logger used to log relevant information about the downloading process
+     * @param rawFileRepo a repository storing information about a GTFS dataset
+     * @param resultRepo  a repository storing information about the validation process
+     * @param logger      logger used to log relevant information about the downloading process
      */
-    public DownloadArchiveFromNetwork(final ValidationResultRepository resultRepo,
+    public DownloadArchiveFromNetwork(final RawFileRepository rawFileRepo,
+                                      final ValidationResultRepository resultRepo,
                                       final ExecParamRepository execParamRepo,
                                       final Logger logger) {
+        this.rawFileRepo = rawFileRepo;
         this.resultRepo = resultRepo;
         this.execParamRepo = execParamRepo;
         this.logger = logger;
@@ -59,6 +76,10 @@ public class DownloadArchiveFromNetwork {
      * Use case execution method: downloads a GTFS archive at the URL provided in the constructor. If the process fails
      * a {@link CannotDownloadArchiveFromNetworkNotice} is generated and added to the {@link ValidationResultRepository}
      * provided in the constructor.
+     * If streaming is requested via execution parameter, entries are decompressed from their local headers to
+     * temporary files while the archive is being downloaded, and said files are handed over to the
+     * {@link RawFileRepository} provided in the constructor once checked against the central directory of the archive.
+     * Archives that can only be read through their central directory are read from disk as usual.
      */
     public void execute() throws IOException {
         //TODO: does using File class break clean architecture (make business logic dependant on a framework)?
@@ -67,6 +88,8 @@ public class DownloadArchiveFromNetwork {
             logger.info("Downloading archive");
             final String url = execParamRepo.getExecParamValue(execParamRepo.URL_KEY);
             final String targetPath = execParamRepo.getExecParamValue(execParamRepo.INPUT_KEY);
+            final boolean streamDownload =
+                    Boolean.parseBoolean(execParamRepo.getExecParamValue(ExecParamRepository.STREAM_DOWNLOAD_KEY));
             InputStream inputStream;
 
             try {
@@ -84,11 +107,15 @@ public class DownloadArchiveFromNetwork {
                     inputStream = sourceUrl.openStream();
                 }
 
-                Files.copy(
-                        inputStream, // TODO: think about how to remove dependency on Files. FileCopier interface?
-                        Paths.get(targetPath),
-                        StandardCopyOption.REPLACE_EXISTING
-                );
+                if (streamDownload) {
+                    downloadAndInflate(inputStream, Paths.get(targetPath));
+                } else {
+                    Files.copy(
+                            inputStream, // TODO: think about how to remove dependency on Files. FileCopier interface?
+                            Paths.get(targetPath),
+                            StandardCopyOption.REPLACE_EXISTING
+                    );
+                }
             } catch (IOException e) {
                 resultRepo.addNotice
                         (new CannotDownloadArchiveFromNetworkNotice(
@@ -97,4 +124,154 @@ public class DownloadArchiveFromNetwork {
             }
         }
     }
+
+    /**
+     * Writes the archive to disk and, at the same time, hands the downloaded bytes over to another thread that
+     * decompresses the entries of the archive to temporary files as soon as they are received. Only the bytes in
+     * transit between both threads are held in memory.
+     *
+     * @param inputStream the stream of the archive to download
+     * @param targetPath  where to write the archive
+     * @throws IOException if the archive can not be downloaded or written to disk
+     */
+    private void downloadAndInflate(final InputStream inputStream, final Path targetPath) throws IOException {
+        final PipedInputStream teeInputStream = new PipedInputStream(STREAM_BUFFER_SIZE);
+        final PipedOutputStream teeOutputStream = new PipedOutputStream(teeInputStream);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Future<Map<String, InflatedEntry>> inflation = executor.submit(() -> inflateEntries(teeInputStream));
+
+        try (inputStream; OutputStream fileOutputStream = Files.newOutputStream(targetPath)) {
+            final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            boolean isTeeOpen = true;
+            int readByteCount;
+            while ((readByteCount = inputStream.read(buffer)) != -1) {
+                fileOutputStream.write(buffer, 0, readByteCount);
+                if (isTeeOpen) {
+                    try {
+                        teeOutputStream.write(buffer, 0, readByteCount);
+                    } catch (IOException e) {
+                        // all entries have been read, or the archive can not be read as a stream: the rest of the
+                        // archive is only written to disk
+                        isTeeOpen = false;
+                    }
+                }
+            }
+        } finally {
+            teeOutputStream.close();
+            executor.shutdown();
+        }
+
+        final Map<String, InflatedEntry> inflatedEntryPerFilename = getInflatedEntries(inflation);
+        if (inflatedEntryPerFilename.isEmpty()) {
+            logger.info("Archive can not be decompressed while downloading, it will be read from disk");
+            return;
+        }
+        // local headers may not describe the same entries as the central directory, which is what is read from disk:
+        // entries that do not match the central directory are dropped and read from disk instead
+        try (ZipFile zipFile = new ZipFile(targetPath.toFile())) {
+            for (final Map.Entry<String, InflatedEntry> inflatedEntry : inflatedEntryPerFilename.entrySet()) {
+                final String filename = inflatedEntry.getKey();
+                if (inflatedEntry.getValue().matches(zipFile.getEntry(filename))) {
+                    rawFileRepo.putEntryFile(filename, inflatedEntry.getValue().file);
+                } else {
+                    logger.info("Entry " + filename + " does not match the central directory of the archive, it" +
+                            " will be read from disk");
+                    Files.deleteIfExists(inflatedEntry.getValue().file);
+                }
+            }
+        } catch (IOException e) {
+            logger.info("Central directory of archive can not be read, it will be read from disk");
+            for (final InflatedEntry inflatedEntry : inflatedEntryPerFilename.values()) {
+                Files.deleteIfExists(inflatedEntry.file);
+            }
+        }
+    }
+
+    /**
+     * Decompresses the entries of an archive from their local headers to temporary files, in the order they are
+     * received. Returns an empty map if the archive can not be read that way, for instance if it contains stored
+     * entries followed by a data descriptor: such archives can only be read through their central directory. The
+     * temporary files are deleted in that case.
+     *
+     * @param archiveInputStream the stream of the archive being downloaded, closed once decompression stops
+     * @return the entries of the archive decompressed to temporary files, mapped by name
+     */
+    private static Map<String, InflatedEntry> inflateEntries(final InputStream archiveInputStream) throws IOException {
+        final Map<String, InflatedEntry> toReturn = new LinkedHashMap<>();
+
+        try (ZipInputStream zipInputStream = new ZipInputStream(archiveInputStream)) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                final Path file = Files.createTempFile("gtfs-validator-", ".txt");
+                final InflatedEntry inflatedEntry = new InflatedEntry(file);
+                final InflatedEntry previousEntry = toReturn.put(entry.getName(), inflatedEntry);
+                if (previousEntry != null) {
+                    Files.deleteIfExists(previousEntry.file);
+                }
+                inflatedEntry.write(zipInputStream);
+            }
+            return toReturn;
+        } catch (IOException e) {
+            for (final InflatedEntry inflatedEntry : toReturn.values()) {
+                Files.deleteIfExists(inflatedEntry.file);
+            }
+            return Collections.emptyMap();
+        }
+    }
+
+    private static Map<String, InflatedEntry> getInflatedEntries(final Future<Map<String, InflatedEntry>> inflation)
+            throws IOException {
+        try {
+            return inflation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Decompression of archive was interrupted");
+        } catch (ExecutionException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * A temporary file an entry of an archive is decompressed to, along with the size and CRC-32 of the content
+     * written to it, to be checked against the central directory of the archive
+     */
+    private static final class InflatedEntry {
+        private final Path file;
+        private final CRC32 crc = new CRC32();
+        private long size = 0;
+
+        private InflatedEntry(final Path file) {
+            this.file = file;
+        }
+
+        /**
+         * Writes the rest of the current entry of a {@link ZipInputStream} to the file
+         */
+        private void write(final ZipInputStream zipInputStream) throws IOException {
+            try (OutputStream outputStream = Files.newOutputStream(file)) {
+                final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                int readByteCount;
+                while ((readByteCount = zipInputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, readByteCount);
+                    crc.update(buffer, 0, readByteCount);
+                    size += readByteCount;
+                }
+            }
+        }
+
+        /**
+         * Returns true if the content decompressed from the local header of the entry has the size and CRC-32
+         * recorded in the central directory of the archive for this entry
+         *
+         * @param centralEntry the entry of the central directory with the same name, null if there is none
+         * @return true if the content matches the entry of the central directory
+         */
+        private boolean matches(final ZipEntry centralEntry) {
+            return centralEntry != null && !centralEntry.isDirectory() && centralEntry.getSize() == size &&
+                    centralEntry.getCrc() == crc.getValue();
+        }
+    }
 }
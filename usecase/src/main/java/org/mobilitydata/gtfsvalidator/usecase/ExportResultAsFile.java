@@ -47,12 +47,17 @@ public class ExportResultAsFile {
     }
 
     public void execute() throws IOException {
-        String reportName = gtfsDataRepo.getFeedPublisherName();
-
-        if ((reportName.isEmpty() || reportName.isBlank()) && gtfsDataRepo.getAgencyCount() > 0) {
-            reportName = gtfsDataRepo.getAgencyAll().values().iterator().next().getAgencyName();
-        }
+        execute(getFeedPublisherNameOrAgencyName(gtfsDataRepo));
+    }
 
+    /**
+     * Exports the notices of the validation repository to a report named after the feed publisher or agency name
+     * provided as parameter, for instance when the validation result has been loaded from cache and the GTFS data
+     * repository is empty.
+     *
+     * @param reportName the name of the feed publisher or of the first agency of the archive
+     */
+    public void execute(final String reportName) throws IOException {
         final String finalPath =
                 (execParamRepo.getExecParamValue(execParamRepo.OUTPUT_KEY) +
                         File.separator + reportName + "__" +
@@ -81,4 +86,13 @@ public class ExportResultAsFile {
         }
         exporter.exportEnd();
     }
+
+    static String getFeedPublisherNameOrAgencyName(final GtfsDataRepository gtfsDataRepo) {
+        String toReturn = gtfsDataRepo.getFeedPublisherName();
+
+        if ((toReturn.isEmpty() || toReturn.isBlank()) && gtfsDataRepo.getAgencyCount() > 0) {
+            toReturn = gtfsDataRepo.getAgencyAll().values().iterator().next().getAgencyName();
+        }
+        return toReturn;
+    }
 }
@@ -36,7 +36,6 @@ public class GenerateInfoNotice {
     private final Set<String> processedFilenameCollection;
     private final CustomFileUtils customFileUtils;
     private final Path inputPath;
-    private final Path extractPath;
 
 
     public GenerateInfoNotice(final ValidationResultRepository resultRepo,
@@ -46,8 +45,7 @@ public class GenerateInfoNotice {
                               final long processingTimeSecs,
                               final Set<String> processedFilenameCollection,
                               final CustomFileUtils customFileUtils,
-                              final Path inputPath,
-                              final Path extractPath) {
+                              final Path inputPath) {
         this.resultRepo = resultRepo;
         this.execParamRepo = execParamRepo;
         this.gtfsDataRepo = gtfsDataRepo;
@@ -56,19 +54,22 @@ public class GenerateInfoNotice {
         this.processedFilenameCollection = processedFilenameCollection;
         this.customFileUtils = customFileUtils;
         this.inputPath = inputPath;
-        this.extractPath = extractPath;
     }
 
     public void execute() {
-        String feedPublisherNameOrAgencyName = gtfsDataRepo.getFeedPublisherName();
+        execute(ExportResultAsFile.getFeedPublisherNameOrAgencyName(gtfsDataRepo));
+    }
 
-        if (feedPublisherNameOrAgencyName.isEmpty() || feedPublisherNameOrAgencyName.isBlank()) {
-            if (gtfsDataRepo.getAgencyCount() > 0) {
-                feedPublisherNameOrAgencyName = gtfsDataRepo.getAgencyAll().values().iterator().next().getAgencyName();
-            } else {
-                feedPublisherNameOrAgencyName = "no agency or feed publisher found";
-            }
-        }
+    /**
+     * Generates the information notice for the feed publisher or agency name provided as parameter, for instance when
+     * the validation result has been loaded from cache and the GTFS data repository is empty.
+     *
+     * @param feedPublisherNameOrAgencyName the name of the feed publisher or of the first agency of the archive
+     */
+    public void execute(final String feedPublisherNameOrAgencyName) {
+        final String nameToReport = feedPublisherNameOrAgencyName.isBlank() ?
+                "no agency or feed publisher found" :
+                feedPublisherNameOrAgencyName;
 
         final String urlOrPathToGtfsArchive = execParamRepo.hasExecParamValue(ExecParamRepository.URL_KEY) ?
                 execParamRepo.getExecParamValue(ExecParamRepository.URL_KEY) :
@@ -76,13 +77,14 @@ public class GenerateInfoNotice {
 
         resultRepo.addNotice(
                 new ValidationProcessInfoNotice(
-                        feedPublisherNameOrAgencyName,
+                        nameToReport,
                         timestamp.toString(),
                         resultRepo.getWarningNoticeCount(),
                         resultRepo.getErrorNoticeCount(),
                         urlOrPathToGtfsArchive,
                         customFileUtils.sizeOf(inputPath),
-                        customFileUtils.sizeOfDirectory(extractPath),
+                        // read from the archive itself: its content is not necessarily extracted to disk
+                        customFileUtils.sizeOfArchiveContent(inputPath),
                         GTFS_VALIDATOR_VERSION,
                         processedFilenameCollection.toString(),
                         processingTimeSecs)
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataSnapshotRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+
+import java.util.Optional;
+
+/**
+ * Use case to reload the GTFS data loaded from the same archive by a previous execution. When found, the validation
+ * process can skip the loading of GTFS files and go straight to the validation rules involving several files.
+ */
+public class LoadGtfsDataSnapshot {
+    private final GtfsDataSnapshotRepository dataSnapshotRepo;
+    private final ValidationResultRepository resultRepo;
+    private final GtfsDataRepository gtfsDataRepo;
+    private final Logger logger;
+
+    /**
+     * @param dataSnapshotRepo a repository storing snapshots of the GTFS data loaded from archives
+     * @param resultRepo       a repository storing information about the validation process
+     * @param gtfsDataRepo     a repository storing the data of a GTFS dataset, expected to be empty
+     * @param logger           a logger displaying information about the validation process
+     */
+    public LoadGtfsDataSnapshot(final GtfsDataSnapshotRepository dataSnapshotRepo,
+                                final ValidationResultRepository resultRepo,
+                                final GtfsDataRepository gtfsDataRepo,
+                                final Logger logger) {
+        this.dataSnapshotRepo = dataSnapshotRepo;
+        this.resultRepo = resultRepo;
+        this.gtfsDataRepo = gtfsDataRepo;
+        this.logger = logger;
+    }
+
+    /**
+     * Use case execution method: if a snapshot is kept under the key provided as parameter, loads its data into the
+     * {@link GtfsDataRepository} provided in the constructor, adds the notices generated while loading said data to
+     * the {@link ValidationResultRepository} provided in the constructor and returns the result of the loading.
+     *
+     * @param snapshotKey the key computed by {@link ComputeValidationResultCacheKey}
+     * @return the result of the loading of the GTFS data, empty if no snapshot is kept under the given key
+     */
+    public Optional<CachedValidationResult> execute(final String snapshotKey) {
+        final Optional<CachedValidationResult> toReturn = dataSnapshotRepo.loadByKey(snapshotKey, gtfsDataRepo);
+
+        toReturn.ifPresent(loadingResult -> {
+            logger.info("Archive already loaded, loading GTFS data from snapshot");
+            // a snapshot is only saved when loading the data did not abort the validation process
+            loadingResult.getNoticeList().forEach(resultRepo::addNotice);
+        });
+        return toReturn;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultCacheRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+
+import java.util.Optional;
+
+/**
+ * Use case to retrieve the result of a previous validation of the same GTFS archive. When found, the validation
+ * process can skip straight to the export of the validation result.
+ */
+public class LoadValidationResultFromCache {
+    private final ValidationResultCacheRepository resultCacheRepo;
+    private final ValidationResultRepository resultRepo;
+    private final Logger logger;
+
+    /**
+     * @param resultCacheRepo a repository storing the results of previous validations
+     * @param resultRepo      a repository storing information about the validation process
+     * @param logger          a logger displaying information about the validation process
+     */
+    public LoadValidationResultFromCache(final ValidationResultCacheRepository resultCacheRepo,
+                                         final ValidationResultRepository resultRepo,
+                                         final Logger logger) {
+        this.resultCacheRepo = resultCacheRepo;
+        this.resultRepo = resultRepo;
+        this.logger = logger;
+    }
+
+    /**
+     * Use case execution method: if a validation result is cached under the key provided as parameter, adds its
+     * notices to the {@link ValidationResultRepository} provided in the constructor and returns said result.
+     *
+     * @param cacheKey the key computed by {@link ComputeValidationResultCacheKey}
+     * @return the cached validation result, empty if none is cached under the given key
+     */
+    public Optional<CachedValidationResult> execute(final String cacheKey) {
+        final Optional<CachedValidationResult> toReturn = resultCacheRepo.findByKey(cacheKey);
+
+        toReturn.ifPresent(cachedResult -> {
+            logger.info("Archive already validated, loading validation result from cache");
+            // results of aborted validation processes are not cached: no notice aborts this one
+            cachedResult.getNoticeList().forEach(resultRepo::addNotice);
+        });
+        return toReturn;
+    }
+}
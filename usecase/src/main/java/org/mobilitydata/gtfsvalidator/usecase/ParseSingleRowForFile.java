@@ -74,8 +74,9 @@ public class ParseSingleRowForFile {
 
         if (hasNext()) {
             RawEntity rawEntity = provider.getNext();
-            parser.validateNonStringTypes(rawEntity).forEach(resultRepo::addNotice);
-            toReturn = parser.parse(rawEntity);
+            final GtfsSpecRepository.ParseResult parseResult = parser.parseWithNotices(rawEntity);
+            parseResult.getNoticeCollection().forEach(resultRepo::addNotice);
+            toReturn = parseResult.getParsedEntity();
         }
 
         return toReturn;
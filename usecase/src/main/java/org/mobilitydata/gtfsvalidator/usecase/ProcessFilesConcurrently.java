@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Use case to process the files of a GTFS dataset concurrently, so that the time needed to load a dataset approaches
+ * the time needed to load its largest file. Files are processed in the order they are provided, as soon as a thread
+ * is available and all files they depend on have been processed.
+ * Only dependencies that exist while loading files are to be provided: references between files described by the
+ * GTFS relationship description are validated once all files are loaded, hence do not prevent files from being
+ * loaded concurrently.
+ */
+public class ProcessFilesConcurrently {
+    private final int threadCount;
+
+    /**
+     * @param threadCount the maximum number of files processed at the same time
+     */
+    public ProcessFilesConcurrently(final int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Use case execution method: processes each file of the collection provided as parameter on a pool of threads.
+     * A file is only processed once all the files it depends on have been processed, dependencies on files that are
+     * not part of the collection being ignored.
+     * If processing a file throws an exception, for instance when aborting on error, files that are not being
+     * processed yet are not processed and this method rethrows said exception once files being processed are done.
+     *
+     * @param filenameCollection        the names of the files to process
+     * @param dependencyListByFilename  the names of the files that must have been processed before a given file
+     * @param fileProcessor             processes the file whose name it is given
+     */
+    public void execute(final Collection<String> filenameCollection,
+                        final Map<String, List<String>> dependencyListByFilename,
+                        final Consumer<String> fileProcessor) {
+        final List<String> waitingFilenameList = new ArrayList<>(filenameCollection);
+        final Set<String> unprocessedFilenameSet = new HashSet<>(filenameCollection);
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CompletionService<String> completionService = new ExecutorCompletionService<>(executor);
+        int processingCount = 0;
+
+        try {
+            while (!waitingFilenameList.isEmpty() || processingCount > 0) {
+                final Iterator<String> waitingFilenameIterator = waitingFilenameList.iterator();
+                while (waitingFilenameIterator.hasNext()) {
+                    final String filename = waitingFilenameIterator.next();
+                    if (dependencyListByFilename.getOrDefault(filename, Collections.emptyList()).stream()
+                            .noneMatch(unprocessedFilenameSet::contains)) {
+                        waitingFilenameIterator.remove();
+                        completionService.submit(() -> {
+                            fileProcessor.accept(filename);
+                            return filename;
+                        });
+                        processingCount++;
+                    }
+                }
+                if (processingCount == 0) {
+                    throw new IllegalArgumentException("Circular dependency among files: " + waitingFilenameList);
+                }
+                unprocessedFilenameSet.remove(takeProcessedFilename(completionService));
+                processingCount--;
+            }
+        } finally {
+            // other files are not processed anymore, files being processed have to be done before results are used
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    /**
+     * Waits for the next file to be processed, rethrowing the exception thrown while processing it if any
+     */
+    private static String takeProcessedFilename(final CompletionService<String> completionService) {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for files to be processed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void awaitTermination(final ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
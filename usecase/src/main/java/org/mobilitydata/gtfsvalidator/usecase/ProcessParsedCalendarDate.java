@@ -26,6 +26,7 @@ import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * This use case turns a parsed entity representing a row from calendar_dates.txt into a concrete class
@@ -64,12 +65,28 @@ public class ProcessParsedCalendarDate {
                 .date(date)
                 .exceptionType(exceptionType);
 
-        final EntityBuildResult<?> calendarDate = builder.build();
+        addCalendarDate(builder.build(), validatedParsedRoute::getEntityId);
+    }
+
+    /**
+     * Use case execution method to go from a builder holding the values of a row from calendar_dates.txt, as filled by
+     * {@link ValidateAndDecodeSingleRowForFile}, to an internal representation. Notices are generated the same way as
+     * with {@link #execute(ParsedEntity)}: no column of calendar_dates.txt identifies a row on its own, so that
+     * duplicated dates are reported without entity id either way.
+     *
+     * @param decodedCalendarDate the builder holding the values of the entity to be processed and added to the GTFS
+     *                            data repository
+     */
+    public void execute(final CalendarDate.CalendarDateBuilder decodedCalendarDate) {
+        addCalendarDate(decodedCalendarDate.build(), () -> null);
+    }
 
+    private void addCalendarDate(final EntityBuildResult<?> calendarDate,
+                                 final Supplier<String> entityId) {
         if (calendarDate.isSuccess()) {
             if (gtfsDataRepository.addCalendarDate((CalendarDate) calendarDate.getData()) == null) {
                 resultRepository.addNotice(new DuplicatedEntityNotice("calendar_dates.txt",
-                        "service_id, date", validatedParsedRoute.getEntityId()));
+                        "service_id, date", entityId.get()));
             }
         } else {
             // at this step it is certain that calling getData method will return a list of notices, therefore there is
@@ -25,6 +25,7 @@ import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * This use case turns a parsed entity representing a row from shapes.txt into a concrete class
@@ -33,13 +34,30 @@ public class ProcessParsedShapePoint {
     private final ValidationResultRepository resultRepository;
     private final GtfsDataRepository gtfsDataRepository;
     private final ShapePoint.ShapeBuilder builder;
+    private final boolean bulkLoad;
 
     public ProcessParsedShapePoint(final ValidationResultRepository resultRepository,
                                    final GtfsDataRepository gtfsDataRepository,
                                    final ShapePoint.ShapeBuilder builder) {
+        this(resultRepository, gtfsDataRepository, builder, false);
+    }
+
+    /**
+     * @param resultRepository   a repository storing information about the validation process
+     * @param gtfsDataRepository a repository storing the data of a GTFS dataset
+     * @param builder            the builder of the shape points
+     * @param bulkLoad           if true, shape points are appended to the GTFS data repository and duplicated shape
+     *                           points are only detected by {@link #completeLoad()}, once the whole file has been
+     *                           processed
+     */
+    public ProcessParsedShapePoint(final ValidationResultRepository resultRepository,
+                                   final GtfsDataRepository gtfsDataRepository,
+                                   final ShapePoint.ShapeBuilder builder,
+                                   final boolean bulkLoad) {
         this.resultRepository = resultRepository;
         this.gtfsDataRepository = gtfsDataRepository;
         this.builder = builder;
+        this.bulkLoad = bulkLoad;
     }
 
     /**
@@ -67,12 +85,29 @@ public class ProcessParsedShapePoint {
                 .shapePtSequence(shapePtSequence)
                 .shapeDistTraveled(shapeDistTraveled);
 
-        final EntityBuildResult<?> shape = builder.build();
+        addShapePoint(builder.build(), validatedShapeEntity::getEntityId);
+    }
 
+    /**
+     * Use case execution method to go from a builder holding the values of a row from shapes.txt, as filled by
+     * {@link ValidateAndDecodeSingleRowForFile}, to an internal representation. Notices are generated the same way as
+     * with {@link #execute(ParsedEntity)}: no column of shapes.txt identifies a row on its own, so that duplicated
+     * shape points are reported without entity id either way.
+     *
+     * @param decodedShapePoint the builder holding the values of the entity to be processed and added to the GTFS
+     *                          data repository
+     */
+    public void execute(final ShapePoint.ShapeBuilder decodedShapePoint) {
+        addShapePoint(decodedShapePoint.build(), () -> null);
+    }
+
+    private void addShapePoint(final EntityBuildResult<?> shape, final Supplier<String> entityId) {
         if (shape.isSuccess()) {
-            if (gtfsDataRepository.addShapePoint((ShapePoint) shape.getData()) == null) {
+            if (bulkLoad) {
+                gtfsDataRepository.appendShapePoint((ShapePoint) shape.getData());
+            } else if (gtfsDataRepository.addShapePoint((ShapePoint) shape.getData()) == null) {
                 resultRepository.addNotice(new DuplicatedEntityNotice("shapes.txt",
-                        "shape_id", validatedShapeEntity.getEntityId()));
+                        "shape_id", entityId.get()));
             }
         } else {
             // at this step it is certain that calling getData method will return a list of notices, therefore there is
@@ -81,4 +116,18 @@ public class ProcessParsedShapePoint {
             ((List<Notice>) shape.getData()).forEach(resultRepository::addNotice);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Completes the loading of shapes.txt once all its rows have been processed. When shape points are bulk loaded,
+     * the GTFS data repository sorts the points of each shape and removes duplicated points, for each of which a
+     * {@code DuplicatedEntityNotice} is added to the result repository, the same notice as when shape points are added
+     * one at a time. Otherwise this does nothing.
+     */
+    public void completeLoad() {
+        if (bulkLoad) {
+            gtfsDataRepository.completeShapePointLoad().forEach(duplicate ->
+                    resultRepository.addNotice(new DuplicatedEntityNotice("shapes.txt",
+                            "shape_id", duplicate.getShapeId())));
+        }
+    }
+}
@@ -35,15 +35,33 @@ public class ProcessParsedStopTime {
     private final GtfsDataRepository gtfsDataRepository;
     private final TimeUtils timeUtils;
     private final StopTime.StopTimeBuilder builder;
+    private final boolean bulkLoad;
 
     public ProcessParsedStopTime(final ValidationResultRepository resultRepository,
                                  final GtfsDataRepository gtfsDataRepository,
                                  final TimeUtils timeUtils,
                                  final StopTime.StopTimeBuilder builder) {
+        this(resultRepository, gtfsDataRepository, timeUtils, builder, false);
+    }
+
+    /**
+     * @param resultRepository   a repository storing information about the validation process
+     * @param gtfsDataRepository a repository storing the data of a GTFS dataset
+     * @param timeUtils          utility class to convert times
+     * @param builder            the builder of the stop times
+     * @param bulkLoad           if true, stop times are appended to the GTFS data repository and duplicated stop times
+     *                           are only detected by {@link #completeLoad()}, once the whole file has been processed
+     */
+    public ProcessParsedStopTime(final ValidationResultRepository resultRepository,
+                                 final GtfsDataRepository gtfsDataRepository,
+                                 final TimeUtils timeUtils,
+                                 final StopTime.StopTimeBuilder builder,
+                                 final boolean bulkLoad) {
         this.resultRepository = resultRepository;
         this.gtfsDataRepository = gtfsDataRepository;
         this.timeUtils = timeUtils;
         this.builder = builder;
+        this.bulkLoad = bulkLoad;
     }
 
     /**
@@ -90,21 +108,67 @@ public class ProcessParsedStopTime {
         final EntityBuildResult<?> stopTime = builder.build();
 
         if (stopTime.isSuccess()) {
-            if (gtfsDataRepository.addStopTime((StopTime) stopTime.getData()) == null) {
-                resultRepository.addNotice(
-                        new DuplicatedEntityNotice(
-                                "stop_times.txt",
-                                "trip_id",
-                                "stop_sequence",
-                                tripId,
-                                stopSequence)
-                );
-            }
+            addStopTime((StopTime) stopTime.getData(), tripId, stopSequence);
+        } else {
+            addBuildNotices(stopTime);
+        }
+    }
+
+    /**
+     * Use case execution method to go from a builder holding the values of a row from stop_times.txt, as filled by
+     * {@link ValidateAndDecodeSingleRowForFile}, to an internal representation. Notices are generated the same way as
+     * with {@link #execute(ParsedEntity)}.
+     *
+     * @param decodedStopTime the builder holding the values of the entity to be processed and added to the GTFS data
+     *                        repository
+     */
+    public void execute(final StopTime.StopTimeBuilder decodedStopTime) {
+        final EntityBuildResult<?> stopTime = decodedStopTime.build();
+
+        if (stopTime.isSuccess()) {
+            final StopTime toAdd = (StopTime) stopTime.getData();
+            addStopTime(toAdd, toAdd.getTripId(), toAdd.getStopSequence());
         } else {
-            // at this step it is certain that calling getData method will return a list of notices, therefore there is
-            // no need for cast check
-            //noinspection unchecked
-            ((List<Notice>) stopTime.getData()).forEach(resultRepository::addNotice);
+            addBuildNotices(stopTime);
+        }
+    }
+
+    /**
+     * Completes the loading of stop_times.txt once all its rows have been processed. When stop times are bulk loaded,
+     * the GTFS data repository sorts the stop times of each trip and removes duplicated stop times, for each of which a
+     * {@code DuplicatedEntityNotice} is added to the result repository, the same notice as when stop times are added
+     * one at a time. Otherwise this does nothing.
+     */
+    public void completeLoad() {
+        if (bulkLoad) {
+            gtfsDataRepository.completeStopTimeLoad().forEach(duplicate ->
+                    addDuplicatedEntityNotice(duplicate.getTripId(), duplicate.getStopSequence()));
         }
     }
+
+    private void addStopTime(final StopTime stopTime, final String tripId, final Integer stopSequence) {
+        if (bulkLoad) {
+            gtfsDataRepository.appendStopTime(stopTime);
+        } else if (gtfsDataRepository.addStopTime(stopTime) == null) {
+            addDuplicatedEntityNotice(tripId, stopSequence);
+        }
+    }
+
+    private void addDuplicatedEntityNotice(final String tripId, final Integer stopSequence) {
+        resultRepository.addNotice(
+                new DuplicatedEntityNotice(
+                        "stop_times.txt",
+                        "trip_id",
+                        "stop_sequence",
+                        tripId,
+                        stopSequence)
+        );
+    }
+
+    private void addBuildNotices(final EntityBuildResult<?> stopTime) {
+        // at this step it is certain that calling getData method will return a list of notices, therefore there is
+        // no need for cast check
+        //noinspection unchecked
+        ((List<Notice>) stopTime.getData()).forEach(resultRepository::addNotice);
+    }
 }
@@ -25,6 +25,7 @@ import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 /**
  * This use case turns a parsed entity representing a row from trips.txt into a concrete class
@@ -77,12 +78,26 @@ public class ProcessParsedTrip {
                 .wheelchairAccessible(wheelchairAccessible)
                 .bikesAllowed(bikesAllowed);
 
-        final EntityBuildResult<?> trip = builder.build();
+        addTrip(builder.build(), validatedTripEntity::getEntityId);
+    }
+
+    /**
+     * Use case execution method to go from a builder holding the values of a row from trips.txt, as filled by
+     * {@link ValidateAndDecodeSingleRowForFile}, to an internal representation. Notices are generated the same way as
+     * with {@link #execute(ParsedEntity)}.
+     *
+     * @param decodedTrip the builder holding the values of the entity to be processed and added to the GTFS data
+     *                    repository
+     */
+    public void execute(final Trip.TripBuilder decodedTrip) {
+        final EntityBuildResult<?> trip = decodedTrip.build();
+        addTrip(trip, () -> ((Trip) trip.getData()).getTripId());
+    }
 
+    private void addTrip(final EntityBuildResult<?> trip, final Supplier<String> tripId) {
         if (trip.isSuccess()) {
             if (gtfsDataRepository.addTrip((Trip) trip.getData()) == null) {
-                resultRepository.addNotice(new DuplicatedEntityNotice("trips.txt", "trip_id",
-                        validatedTripEntity.getEntityId()));
+                resultRepository.addNotice(new DuplicatedEntityNotice("trips.txt", "trip_id", tripId.get()));
             }
         } else {
             // At this step of the process, we are certain that calling .getData() on trip will return a list of notices
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Use case to plan the loading of a GTFS dataset into a {@link GtfsDataRepository}: the number of rows of each file is
+ * estimated from the decompressed size of said file and the average length of its first rows, before any file is
+ * loaded. These estimates are handed over to the {@link GtfsDataRepository} so that collections holding millions of
+ * entities are allocated once rather than grown while rows are added.
+ */
+public class ReserveDataRepositoryCapacity {
+    // number of rows read to estimate the average length of the rows of a file
+    static final int SAMPLE_ROW_COUNT = 128;
+
+    private final RawFileRepository rawFileRepo;
+    private final GtfsDataRepository dataRepo;
+    private final Logger logger;
+
+    /**
+     * @param rawFileRepo a repository storing information about a GTFS dataset
+     * @param dataRepo    a repository storing the data of a GTFS dataset
+     * @param logger      a logger displaying information about the estimates
+     */
+    public ReserveDataRepositoryCapacity(final RawFileRepository rawFileRepo,
+                                         final GtfsDataRepository dataRepo,
+                                         final Logger logger) {
+        this.rawFileRepo = rawFileRepo;
+        this.dataRepo = dataRepo;
+        this.logger = logger;
+    }
+
+    /**
+     * Use case execution method: estimates the number of rows of each file provided as parameter and reserves the
+     * matching capacity in the {@link GtfsDataRepository}. Files whose size is not known, or without any row, are
+     * skipped.
+     *
+     * @param filenameList the names of the files to be loaded
+     */
+    public void execute(final List<String> filenameList) {
+        for (final String filename : filenameList) {
+            final Optional<RawFileInfo> fileInfo = rawFileRepo.findByName(filename);
+            if (fileInfo.isEmpty()) {
+                continue;
+            }
+            final int estimatedRowCount = estimateRowCount(fileInfo.get());
+            if (estimatedRowCount > 0) {
+                logger.info("Reserving capacity for " + estimatedRowCount + " rows of file: " + filename);
+                dataRepo.reserveCapacity(filename, estimatedRowCount);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rows of a file, estimated from its size and the length of its first rows. The length of a
+     * row is estimated from the length of its values encoded in UTF-8, one separator per value (a comma or the line
+     * break): quotes and carriage returns are not accounted for, which leans towards more rows rather than fewer. The
+     * data provider is closed once the first rows are read.
+     *
+     * @param file information regarding the file
+     * @return the estimated number of rows of the file, 0 if it can not be estimated
+     */
+    int estimateRowCount(final RawFileInfo file) {
+        final long fileSize = rawFileRepo.getFileSize(file);
+        if (fileSize <= 0) {
+            return 0;
+        }
+        final Optional<RawFileRepository.RawEntityProvider> optionalProvider = rawFileRepo.getProviderForFile(file);
+        if (optionalProvider.isEmpty()) {
+            return 0;
+        }
+        try (final RawFileRepository.RawEntityProvider provider = optionalProvider.get()) {
+            final List<String> headerList = provider.getHeaders();
+            long headerByteCount = headerList.size();
+            for (final String header : headerList) {
+                headerByteCount += utf8Length(header);
+            }
+
+            long sampleByteCount = 0;
+            int sampleRowCount = 0;
+            while (sampleRowCount < SAMPLE_ROW_COUNT && provider.hasNext()) {
+                final RawEntity row = provider.getNext();
+                sampleByteCount += headerList.size();
+                for (final String header : headerList) {
+                    sampleByteCount += utf8Length(row.get(header));
+                }
+                sampleRowCount++;
+            }
+            if (sampleRowCount == 0 || sampleByteCount == 0) {
+                return 0;
+            }
+            if (!provider.hasNext()) {
+                // the whole file was read
+                return sampleRowCount;
+            }
+            final long estimate = (fileSize - headerByteCount) * sampleRowCount / sampleByteCount + 1;
+            return (int) Math.max(sampleRowCount, Math.min(estimate, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Returns the number of bytes of a value encoded in UTF-8, as in the file, without encoding it
+     *
+     * @param value a value read from a file, possibly null
+     * @return the number of bytes of the value encoded in UTF-8, 0 if the value is null
+     */
+    static int utf8Length(final String value) {
+        if (value == null) {
+            return 0;
+        }
+        int toReturn = 0;
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                toReturn += 1;
+            } else if (c < 0x800) {
+                toReturn += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // a supplementary character is encoded on 4 bytes
+                toReturn += 4;
+                ++i;
+            } else {
+                toReturn += 3;
+            }
+        }
+        return toReturn;
+    }
+}
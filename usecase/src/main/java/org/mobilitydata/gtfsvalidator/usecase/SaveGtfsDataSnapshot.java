@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataSnapshotRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Use case to keep a snapshot of the GTFS data loaded from an archive, so that the GTFS files of the same archive do
+ * not have to be loaded again. This step intervenes once all GTFS files have been loaded, before the validation rules
+ * involving several files are executed.
+ */
+public class SaveGtfsDataSnapshot {
+    private final GtfsDataSnapshotRepository dataSnapshotRepo;
+    private final ValidationResultRepository resultRepo;
+    private final GtfsDataRepository gtfsDataRepo;
+    private final Logger logger;
+
+    /**
+     * @param dataSnapshotRepo a repository storing snapshots of the GTFS data loaded from archives
+     * @param resultRepo       a repository storing information about the validation process
+     * @param gtfsDataRepo     a repository storing the data of a GTFS dataset
+     * @param logger           a logger displaying information about the validation process
+     */
+    public SaveGtfsDataSnapshot(final GtfsDataSnapshotRepository dataSnapshotRepo,
+                                final ValidationResultRepository resultRepo,
+                                final GtfsDataRepository gtfsDataRepo,
+                                final Logger logger) {
+        this.dataSnapshotRepo = dataSnapshotRepo;
+        this.resultRepo = resultRepo;
+        this.gtfsDataRepo = gtfsDataRepo;
+        this.logger = logger;
+    }
+
+    /**
+     * Use case execution method: saves the data contained in the {@link GtfsDataRepository} provided in the
+     * constructor under the key provided as parameter, along with the notices generated so far, which are the ones
+     * generated while loading said data. Failing to save the snapshot does not fail the validation process.
+     *
+     * @param snapshotKey                 the key computed by {@link ComputeValidationResultCacheKey}
+     * @param processedFilenameCollection the names of the files of the archive that were processed
+     */
+    public void execute(final String snapshotKey, final Collection<String> processedFilenameCollection) {
+        try {
+            dataSnapshotRepo.save(snapshotKey, gtfsDataRepo, new CachedValidationResult(
+                    ExportResultAsFile.getFeedPublisherNameOrAgencyName(gtfsDataRepo),
+                    new ArrayList<>(processedFilenameCollection),
+                    new ArrayList<>(resultRepo.getAll())));
+        } catch (IOException e) {
+            logger.warn("Could not save snapshot of GTFS data: " + e);
+        }
+    }
+}
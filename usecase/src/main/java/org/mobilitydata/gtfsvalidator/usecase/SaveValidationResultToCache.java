@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.info.ValidationProcessInfoNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultCacheRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Use case to keep the result of the validation of a GTFS archive, so that the same archive does not have to be
+ * validated again. This step intervenes once the validation process is over.
+ */
+public class SaveValidationResultToCache {
+    private final ValidationResultCacheRepository resultCacheRepo;
+    private final ValidationResultRepository resultRepo;
+    private final GtfsDataRepository gtfsDataRepo;
+    private final Logger logger;
+
+    /**
+     * @param resultCacheRepo a repository storing the results of previous validations
+     * @param resultRepo      a repository storing information about the validation process
+     * @param gtfsDataRepo    a repository storing the data of a GTFS dataset
+     * @param logger          a logger displaying information about the validation process
+     */
+    public SaveValidationResultToCache(final ValidationResultCacheRepository resultCacheRepo,
+                                       final ValidationResultRepository resultRepo,
+                                       final GtfsDataRepository gtfsDataRepo,
+                                       final Logger logger) {
+        this.resultCacheRepo = resultCacheRepo;
+        this.resultRepo = resultRepo;
+        this.gtfsDataRepo = gtfsDataRepo;
+        this.logger = logger;
+    }
+
+    /**
+     * Use case execution method: saves the notices contained in the {@link ValidationResultRepository} provided in the
+     * constructor under the key provided as parameter. The {@link ValidationProcessInfoNotice} is not saved, since it
+     * is specific to each execution. Failing to save the validation result does not fail the validation process.
+     *
+     * @param cacheKey                    the key computed by {@link ComputeValidationResultCacheKey}
+     * @param processedFilenameCollection the names of the files of the archive that were processed
+     */
+    public void execute(final String cacheKey, final Collection<String> processedFilenameCollection) {
+        try {
+            resultCacheRepo.save(cacheKey, new CachedValidationResult(
+                    ExportResultAsFile.getFeedPublisherNameOrAgencyName(gtfsDataRepo),
+                    new ArrayList<>(processedFilenameCollection),
+                    resultRepo.getAll().stream()
+                            .filter(notice -> !(notice instanceof ValidationProcessInfoNotice))
+                            .collect(Collectors.toList())));
+        } catch (IOException e) {
+            logger.warn("Could not save validation result to cache: " + e);
+        }
+    }
+}
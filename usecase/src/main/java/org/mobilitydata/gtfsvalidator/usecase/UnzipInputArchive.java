@@ -25,9 +25,19 @@ import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Enumeration;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -36,6 +46,7 @@ import java.util.zip.ZipFile;
  * has been downloaded from the network.
  */
 public class UnzipInputArchive {
+    private static final int MAX_EXTRACTION_THREAD_COUNT = 8;
 
     private final RawFileRepository rawFileRepo;
     private final Path zipExtractPath;
@@ -61,36 +72,117 @@ public class UnzipInputArchive {
     }
 
     /**
-     * Use case execution method. Tries to unzip an archive, if the process fails then
-     * a {@link CannotUnzipInputArchiveNotice} is generated and added to the {@link ValidationResultRepository} provided
+     * Use case execution method. Registers every file of an archive in the {@link RawFileRepository} provided in the
+     * constructor. By default, files are read directly from the archive. If extraction to disk is requested via
+     * execution parameter, files are first extracted to the target directory: if the process fails then a
+     * {@link CannotUnzipInputArchiveNotice} is generated and added to the {@link ValidationResultRepository} provided
      * in the constructor.
+     * Files are extracted concurrently, but notices are generated and files registered in the order of the archive.
      */
     public void execute() throws IOException {
+        final boolean extractToDisk =
+                Boolean.parseBoolean(execParamRepo.getExecParamValue(ExecParamRepository.EXTRACT_TO_DISK_KEY));
 
-        logger.info("Unzipping archive");
+        logger.info(extractToDisk ? "Unzipping archive" : "Reading archive content");
 
         final String zipInputPath = execParamRepo.getExecParamValue(execParamRepo.INPUT_KEY);
         final ZipFile inputZip = new ZipFile(zipInputPath);
+        final List<? extends ZipEntry> zipEntryList = Collections.list(inputZip.entries());
 
-        Enumeration<? extends ZipEntry> zipEntries = inputZip.entries();
-        zipEntries.asIterator().forEachRemaining(entry -> {
-            try {
+        try {
+            final List<Future<Boolean>> extractionList =
+                    extractToDisk ? extractAll(inputZip, zipEntryList) : Collections.emptyList();
+
+            for (int i = 0; i < zipEntryList.size(); ++i) {
+                final ZipEntry entry = zipEntryList.get(i);
                 if (entry.isDirectory()) {
                     resultRepo.addNotice(new InputZipContainsFolderNotice(inputZip.getName(), entry.getName()));
+                } else if (extractToDisk) {
+                    if (isExtracted(extractionList.get(i))) {
+                        rawFileRepo.create(
+                                new RawFileInfo.RawFileInfoBuilder()
+                                        .filename(entry.getName())
+                                        .path(zipExtractPath.toAbsolutePath().toString())
+                                        .build()
+                        );
+                    } else {
+                        //TODO: should CannotUnzipInputArchiveNotice be made a warning instead of an error?
+                        resultRepo.addNotice(new CannotUnzipInputArchiveNotice(inputZip.getName()));
+                    }
                 } else {
-                    Path fileToCreate = zipExtractPath.resolve(entry.getName());
-                    Files.copy(inputZip.getInputStream(entry), fileToCreate);
+                    // the file is read later on straight from the archive
                     rawFileRepo.create(
                             new RawFileInfo.RawFileInfoBuilder()
                                     .filename(entry.getName())
-                                    .path(zipExtractPath.toAbsolutePath().toString())
+                                    .path(zipInputPath)
                                     .build()
                     );
                 }
-            } catch (IOException e) {
-                //TODO: should CannotUnzipInputArchiveNotice be made a warning instead of an error?
-                resultRepo.addNotice(new CannotUnzipInputArchiveNotice(inputZip.getName()));
             }
-        });
+        } finally {
+            inputZip.close();
+        }
+    }
+
+    /**
+     * Submits the extraction of all files of an archive to a bounded pool of threads
+     *
+     * @param inputZip     the archive to extract
+     * @param zipEntryList the entries of the archive
+     * @return the extraction of each entry of the archive, in the order of the archive, null for directories
+     */
+    private List<Future<Boolean>> extractAll(final ZipFile inputZip, final List<? extends ZipEntry> zipEntryList)
+            throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_EXTRACTION_THREAD_COUNT)));
+        final List<Future<Boolean>> toReturn = new ArrayList<>(zipEntryList.size());
+
+        try {
+            for (final ZipEntry entry : zipEntryList) {
+                toReturn.add(entry.isDirectory() ? null : executor.submit(() ->
+                        extract(inputZip, entry, zipExtractPath.resolve(entry.getName()))));
+            }
+            // wait for all extractions, so that the archive can be closed afterwards
+            for (final Future<Boolean> extraction : toReturn) {
+                if (extraction != null) {
+                    isExtracted(extraction);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return toReturn;
+    }
+
+    private static boolean extract(final ZipFile inputZip, final ZipEntry entry, final Path fileToCreate)
+            throws IOException {
+        try (InputStream source = inputZip.getInputStream(entry);
+             OutputStream target = Files.newOutputStream(fileToCreate, StandardOpenOption.CREATE_NEW)) {
+            source.transferTo(target);
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the extraction of an entry succeeded, false if it failed with an {@link IOException}
+     *
+     * @param extraction the extraction of an entry of the archive
+     * @return true if the extraction of an entry succeeded, false if it failed with an {@link IOException}
+     * @throws IOException if waiting for the extraction was interrupted
+     */
+    private static boolean isExtracted(final Future<Boolean> extraction) throws IOException {
+        try {
+            return extraction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Extraction of archive was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                return false;
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
     }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Use case to validate the structure of a csv file and decode its rows straight into an entity builder, with the
+ * decoder generated from the GTFS specification for said file. The same notices are generated as with
+ * {@link ValidateAndParseSingleRowForFile} followed by {@link ValidateGtfsTypes}, in the same order, without building a
+ * {@link ParsedEntity} for each row.
+ *
+ * @param <B> the type of the builder rows are decoded into
+ */
+public class ValidateAndDecodeSingleRowForFile<B> {
+
+    private final RawFileInfo rawFileInfo;
+    private final ValidationResultRepository resultRepo;
+    private final ValidateCsvNotEmptyForFile validateCsvNotEmptyForFile;
+    private final ValidateHeadersForFile validateHeadersForFile;
+    private final B builder;
+    private final List<Notice> noticeList = new ArrayList<>();
+    private RawFileRepository.RawEntityProvider provider;
+    private GtfsSpecRepository.TypedRowDecoder<B> decoder;
+
+    /**
+     * @param rawFileInfo                an object containing information regarding a file location and expected
+     *                                   content
+     * @param rawFileRepo                a repository storing information about a GTFS dataset
+     * @param specRepo                   a repository storing information about the GTFS specification used
+     * @param resultRepo                 a repository storing information about the validation process
+     * @param validateCsvNotEmptyForFile the use case validating rules E039 and W009 for the same file
+     * @param validateHeadersForFile     the use case validating rules E001, E043 and W002 for the same file
+     * @param builderType                the type of the builder rows are decoded into
+     * @param builder                    the builder rows are decoded into, reused from a row to the next
+     * @param timeUtils                  the utility class converting times to a number of seconds
+     * @throws IllegalArgumentException if no decoder was generated for the file and builder provided as parameters
+     */
+    public ValidateAndDecodeSingleRowForFile(final RawFileInfo rawFileInfo,
+                                             final RawFileRepository rawFileRepo,
+                                             final GtfsSpecRepository specRepo,
+                                             final ValidationResultRepository resultRepo,
+                                             final ValidateCsvNotEmptyForFile validateCsvNotEmptyForFile,
+                                             final ValidateHeadersForFile validateHeadersForFile,
+                                             final Class<B> builderType,
+                                             final B builder,
+                                             final TimeUtils timeUtils) {
+        this.rawFileInfo = rawFileInfo;
+        this.resultRepo = resultRepo;
+        this.validateCsvNotEmptyForFile = validateCsvNotEmptyForFile;
+        this.validateHeadersForFile = validateHeadersForFile;
+        this.builder = builder;
+
+        rawFileRepo.getProviderForFile(rawFileInfo).ifPresent(
+                provider -> {
+                    this.decoder = specRepo.getTypedDecoderForFile(rawFileInfo, builderType, timeUtils);
+                    if (decoder == null) {
+                        throw new IllegalArgumentException("No decoder of " + rawFileInfo.getFilename() +
+                                " for " + builderType.getName());
+                    }
+                    this.provider = provider;
+                }
+        );
+    }
+
+    /**
+     * Validates the rules that apply to the file as a whole (E039, W009, E001, E043, W002) from the headers of the
+     * data provider opened in the constructor. This is to be called once, before the first call to {@link #execute()}.
+     */
+    public void validateFileStructure() {
+        final List<String> actualHeaderList = provider != null ? provider.getHeaders() : Collections.emptyList();
+
+        validateCsvNotEmptyForFile.execute(actualHeaderList, hasNext());
+        validateHeadersForFile.execute(actualHeaderList);
+    }
+
+    /**
+     * Returns true if the file has a next row, else false
+     *
+     * @return true if the file has a next row, else false
+     */
+    public boolean hasNext() {
+        return provider != null && provider.hasNext();
+    }
+
+    /**
+     * Use case execution method: decodes the next row from a GTFS CSV file into the builder provided in the
+     * constructor. An {@link InvalidRowLengthNotice} is added to the {@link ValidationResultRepository} provided in the
+     * constructor if the length of the row does not match the number of headers of the file. Then the row is decoded,
+     * the notices generated while converting and validating its values being added to said repository.
+     *
+     * @return the builder provided in the constructor, holding the values of the next row from a GTFS CSV file, null if
+     * there is no next row
+     */
+    public B execute() {
+        if (!hasNext()) {
+            return null;
+        }
+        final RawEntity rawEntity = provider.getNext();
+        if (rawEntity.size() != provider.getHeaderCount()) {
+            resultRepo.addNotice(new InvalidRowLengthNotice(
+                    rawFileInfo.getFilename(),
+                    rawEntity.getIndex(),
+                    provider.getHeaderCount(),
+                    rawEntity.size())
+            );
+        }
+        noticeList.clear();
+        decoder.decode(rawEntity, builder, noticeList);
+        noticeList.forEach(resultRepo::addNotice);
+        return builder;
+    }
+
+    /**
+     * Use case execution method: validates the structure of the file, then decodes all its rows and hands the builder
+     * over to the consumer provided as parameter after each row, in the order of the file. The notices are the same as
+     * with {@link #validateFileStructure()} followed by {@link #execute()} for each row.
+     *
+     * @param decodedRowConsumer the consumer of the builder holding the values of each row
+     */
+    public void execute(final Consumer<B> decodedRowConsumer) {
+        validateFileStructure();
+        while (hasNext()) {
+            decodedRowConsumer.accept(execute());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Use case to validate the structure of a csv file and parse its rows, using several threads for a single file. The
+ * file is split into chunks of consecutive rows by the {@link RawFileRepository}: the length of each row is validated,
+ * its numeric types are validated and it is parsed on a {@link ForkJoinPool}. Results are then handed over in the
+ * order of the file on the calling thread, so that the same notices are generated in the same order as with
+ * {@link ValidateAndParseSingleRowForFile}, with the same row indexes.
+ */
+public class ValidateAndParseChunksForFile {
+
+    private final RawFileInfo rawFileInfo;
+    private final ValidationResultRepository resultRepo;
+    private final ValidateCsvNotEmptyForFile validateCsvNotEmptyForFile;
+    private final ValidateHeadersForFile validateHeadersForFile;
+    private final ForkJoinPool forkJoinPool;
+    private final List<RawFileRepository.RawEntityProvider> providerList;
+    private final GtfsSpecRepository.RawEntityParser parser;
+
+    /**
+     * @param rawFileInfo                an object containing information regarding a file location and expected
+     *                                   content
+     * @param rawFileRepo                a repository storing information about a GTFS dataset
+     * @param specRepo                   a repository storing information about the GTFS specification used
+     * @param resultRepo                 a repository storing information about the validation process
+     * @param validateCsvNotEmptyForFile the use case validating rules E039 and W009 for the same file
+     * @param validateHeadersForFile     the use case validating rules E001, E043 and W002 for the same file
+     * @param forkJoinPool               the pool chunks are parsed on
+     * @param chunkByteCount             the approximate size of a chunk in bytes
+     */
+    public ValidateAndParseChunksForFile(final RawFileInfo rawFileInfo,
+                                         final RawFileRepository rawFileRepo,
+                                         final GtfsSpecRepository specRepo,
+                                         final ValidationResultRepository resultRepo,
+                                         final ValidateCsvNotEmptyForFile validateCsvNotEmptyForFile,
+                                         final ValidateHeadersForFile validateHeadersForFile,
+                                         final ForkJoinPool forkJoinPool,
+                                         final long chunkByteCount) {
+        this.rawFileInfo = rawFileInfo;
+        this.resultRepo = resultRepo;
+        this.validateCsvNotEmptyForFile = validateCsvNotEmptyForFile;
+        this.validateHeadersForFile = validateHeadersForFile;
+        this.forkJoinPool = forkJoinPool;
+        this.providerList = rawFileRepo.getProvidersForFileChunks(rawFileInfo, chunkByteCount);
+        this.parser = providerList.isEmpty() ? null : specRepo.getParserForFile(rawFileInfo);
+    }
+
+    /**
+     * Validates the rules that apply to the file as a whole (E039, W009, E001, E043, W002) from the headers of the
+     * file. This is to be called once, before {@link #execute(Consumer)}.
+     */
+    public void validateFileStructure() {
+        final List<String> actualHeaderList =
+                providerList.isEmpty() ? Collections.emptyList() : providerList.get(0).getHeaders();
+
+        validateCsvNotEmptyForFile.execute(actualHeaderList,
+                providerList.stream().anyMatch(RawFileRepository.RawEntityProvider::hasNext));
+        validateHeadersForFile.execute(actualHeaderList);
+    }
+
+    /**
+     * Use case execution method: parses all rows of a GTFS CSV file and hands them over to the consumer provided as
+     * parameter, in the order of the file. For each row, an {@link InvalidRowLengthNotice} is added to the
+     * {@link ValidationResultRepository} provided in the constructor if the length of the row does not match the
+     * number of headers of the file, as well as notices related to the validation of numeric types. Then the parsed
+     * row is handed over to the consumer.
+     * The number of chunks parsed ahead of the consumer is bounded by the parallelism of the pool, which bounds the
+     * number of rows held in memory.
+     *
+     * @param parsedEntityConsumer the consumer of the parsed rows
+     */
+    public void execute(final Consumer<ParsedEntity> parsedEntityConsumer) {
+        final Iterator<RawFileRepository.RawEntityProvider> providerIterator = providerList.iterator();
+        final Deque<ForkJoinTask<List<ParsedRow>>> pendingChunkQueue = new ArrayDeque<>();
+        final int maxPendingChunkCount = 2 * forkJoinPool.getParallelism();
+
+        try {
+            while (!pendingChunkQueue.isEmpty() || providerIterator.hasNext()) {
+                while (pendingChunkQueue.size() < maxPendingChunkCount && providerIterator.hasNext()) {
+                    final RawFileRepository.RawEntityProvider provider = providerIterator.next();
+                    pendingChunkQueue.add(forkJoinPool.submit(() -> parseChunk(provider)));
+                }
+                for (final ParsedRow parsedRow : pendingChunkQueue.remove().join()) {
+                    parsedRow.noticeList.forEach(resultRepo::addNotice);
+                    parsedEntityConsumer.accept(parsedRow.parsedEntity);
+                }
+            }
+        } finally {
+            // on early termination, for instance when aborting on error, chunks still pending are not needed anymore
+            pendingChunkQueue.forEach(chunk -> chunk.cancel(true));
+        }
+    }
+
+    private List<ParsedRow> parseChunk(final RawFileRepository.RawEntityProvider provider) {
+        final List<ParsedRow> toReturn = new ArrayList<>();
+
+        while (provider.hasNext()) {
+            final RawEntity rawEntity = provider.getNext();
+            final List<Notice> noticeList = new ArrayList<>();
+            if (rawEntity.size() != provider.getHeaderCount()) {
+                noticeList.add(new InvalidRowLengthNotice(
+                        rawFileInfo.getFilename(),
+                        rawEntity.getIndex(),
+                        provider.getHeaderCount(),
+                        rawEntity.size())
+                );
+            }
+            final GtfsSpecRepository.ParseResult parseResult = parser.parseWithNotices(rawEntity);
+            noticeList.addAll(parseResult.getNoticeCollection());
+            toReturn.add(new ParsedRow(noticeList, parseResult.getParsedEntity()));
+        }
+        return toReturn;
+    }
+
+    /**
+     * A parsed row along with the notices generated while parsing it
+     */
+    private static class ParsedRow {
+        private final List<Notice> noticeList;
+        private final ParsedEntity parsedEntity;
+
+        private ParsedRow(final List<Notice> noticeList, final ParsedEntity parsedEntity) {
+            this.noticeList = noticeList;
+            this.parsedEntity = parsedEntity;
+        }
+    }
+}
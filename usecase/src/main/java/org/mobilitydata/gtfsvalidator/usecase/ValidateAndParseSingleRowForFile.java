@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Use case to validate the structure of a csv file and parse its rows while reading said file only once. This replaces
+ * the sequence {@link ValidateCsvNotEmptyForFile}, {@link ValidateHeadersForFile}, {@link ValidateAllRowLengthForFile}
+ * and {@link ParseSingleRowForFile}, each of which opens and tokenizes the whole file on its own. The same notices are
+ * generated: the file level rules are evaluated from the headers of the single data provider, the length of each row
+ * is validated right before said row is parsed.
+ */
+public class ValidateAndParseSingleRowForFile {
+
+    private final RawFileInfo rawFileInfo;
+    private final ValidationResultRepository resultRepo;
+    private final ValidateCsvNotEmptyForFile validateCsvNotEmptyForFile;
+    private final ValidateHeadersForFile validateHeadersForFile;
+    private RawFileRepository.RawEntityProvider provider;
+    private GtfsSpecRepository.RawEntityParser parser;
+
+    /**
+     * @param rawFileInfo                an object containing information regarding a file location and expected
+     *                                   content
+     * @param rawFileRepo                a repository storing information about a GTFS dataset
+     * @param specRepo                   a repository storing information about the GTFS specification used
+     * @param resultRepo                 a repository storing information about the validation process
+     * @param validateCsvNotEmptyForFile the use case validating rules E039 and W009 for the same file
+     * @param validateHeadersForFile     the use case validating rules E001, E043 and W002 for the same file
+     */
+    public ValidateAndParseSingleRowForFile(final RawFileInfo rawFileInfo,
+                                            final RawFileRepository rawFileRepo,
+                                            final GtfsSpecRepository specRepo,
+                                            final ValidationResultRepository resultRepo,
+                                            final ValidateCsvNotEmptyForFile validateCsvNotEmptyForFile,
+                                            final ValidateHeadersForFile validateHeadersForFile) {
+        this.rawFileInfo = rawFileInfo;
+        this.resultRepo = resultRepo;
+        this.validateCsvNotEmptyForFile = validateCsvNotEmptyForFile;
+        this.validateHeadersForFile = validateHeadersForFile;
+
+        rawFileRepo.getProviderForFile(rawFileInfo).ifPresent(
+                provider -> {
+                    this.parser = specRepo.getParserForFile(rawFileInfo);
+                    this.provider = provider;
+                }
+        );
+    }
+
+    /**
+     * Validates the rules that apply to the file as a whole (E039, W009, E001, E043, W002) from the headers of the
+     * data provider opened in the constructor. This is to be called once, before the first call to {@link #execute()}.
+     */
+    public void validateFileStructure() {
+        final List<String> actualHeaderList = provider != null ? provider.getHeaders() : Collections.emptyList();
+
+        validateCsvNotEmptyForFile.execute(actualHeaderList, hasNext());
+        validateHeadersForFile.execute(actualHeaderList);
+    }
+
+    /**
+     * Returns true if the file has a next row, else false
+     *
+     * @return true if the file has a next row, else false
+     */
+    public boolean hasNext() {
+        return provider != null && provider.hasNext();
+    }
+
+    /**
+     * Use case execution method: returns the next parsed row from a GTFS CSV file. An {@link InvalidRowLengthNotice} is
+     * added to the {@link ValidationResultRepository} provided in the constructor if the length of the row does not
+     * match the number of headers of the file. Then the row is parsed, its numeric types being validated as values are
+     * converted.
+     *
+     * @return the next parsed row from a GTFS CSV file, null if there is none
+     */
+    public ParsedEntity execute() {
+        ParsedEntity toReturn = null;
+
+        if (hasNext()) {
+            final RawEntity rawEntity = provider.getNext();
+            if (rawEntity.size() != provider.getHeaderCount()) {
+                resultRepo.addNotice(new InvalidRowLengthNotice(
+                        rawFileInfo.getFilename(),
+                        rawEntity.getIndex(),
+                        provider.getHeaderCount(),
+                        rawEntity.size())
+                );
+            }
+            final GtfsSpecRepository.ParseResult parseResult = parser.parseWithNotices(rawEntity);
+            parseResult.getNoticeCollection().forEach(resultRepo::addNotice);
+            toReturn = parseResult.getParsedEntity();
+        }
+
+        return toReturn;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Use case to validate the structure of a csv file and parse its rows in three stages running concurrently: rows are
+ * read from the data provider on a first thread, then their length and types are validated and they are parsed on a
+ * second thread, while the calling thread hands over the parsed rows to the use cases loading them into memory.
+ * Stages exchange batches of rows through bounded queues: a stage that gets ahead of the next one waits until a batch
+ * has been taken, which bounds the number of rows held in memory. The same notices are generated in the same order as
+ * with {@link ValidateAndParseSingleRowForFile} followed by {@link ValidateGtfsTypes}.
+ */
+public class ValidateAndParseStagedForFile {
+
+    private final RawFileInfo rawFileInfo;
+    private final ValidationResultRepository resultRepo;
+    private final ValidateCsvNotEmptyForFile validateCsvNotEmptyForFile;
+    private final ValidateHeadersForFile validateHeadersForFile;
+    private final int queueDepth;
+    private final int batchSize;
+    private RawFileRepository.RawEntityProvider provider;
+    private GtfsSpecRepository.RawEntityParser parser;
+    private GtfsSpecRepository.ParsedEntityTypeValidator typeValidator;
+
+    /**
+     * @param rawFileInfo                an object containing information regarding a file location and expected
+     *                                   content
+     * @param rawFileRepo                a repository storing information about a GTFS dataset
+     * @param specRepo                   a repository storing information about the GTFS specification used
+     * @param resultRepo                 a repository storing information about the validation process
+     * @param validateCsvNotEmptyForFile the use case validating rules E039 and W009 for the same file
+     * @param validateHeadersForFile     the use case validating rules E001, E043 and W002 for the same file
+     * @param queueDepth                 the number of batches that can be queued between two stages
+     * @param batchSize                  the number of rows in a batch
+     */
+    public ValidateAndParseStagedForFile(final RawFileInfo rawFileInfo,
+                                         final RawFileRepository rawFileRepo,
+                                         final GtfsSpecRepository specRepo,
+                                         final ValidationResultRepository resultRepo,
+                                         final ValidateCsvNotEmptyForFile validateCsvNotEmptyForFile,
+                                         final ValidateHeadersForFile validateHeadersForFile,
+                                         final int queueDepth,
+                                         final int batchSize) {
+        if (queueDepth < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Queue depth and batch size must be positive");
+        }
+        this.rawFileInfo = rawFileInfo;
+        this.resultRepo = resultRepo;
+        this.validateCsvNotEmptyForFile = validateCsvNotEmptyForFile;
+        this.validateHeadersForFile = validateHeadersForFile;
+        this.queueDepth = queueDepth;
+        this.batchSize = batchSize;
+
+        rawFileRepo.getProviderForFile(rawFileInfo).ifPresent(
+                provider -> {
+                    this.parser = specRepo.getParserForFile(rawFileInfo);
+                    this.typeValidator = specRepo.getValidatorForFile(rawFileInfo);
+                    this.provider = provider;
+                }
+        );
+    }
+
+    /**
+     * Validates the rules that apply to the file as a whole (E039, W009, E001, E043, W002) from the headers of the
+     * data provider opened in the constructor. This is to be called once, before {@link #execute(Consumer)}.
+     */
+    public void validateFileStructure() {
+        final List<String> actualHeaderList = provider != null ? provider.getHeaders() : Collections.emptyList();
+
+        validateCsvNotEmptyForFile.execute(actualHeaderList, provider != null && provider.hasNext());
+        validateHeadersForFile.execute(actualHeaderList);
+    }
+
+    /**
+     * Use case execution method: parses all rows of a GTFS CSV file and hands them over to the consumer provided as
+     * parameter, in the order of the file. For each row, an {@link InvalidRowLengthNotice} is added to the
+     * {@link ValidationResultRepository} provided in the constructor if the length of the row does not match the
+     * number of headers of the file, as well as notices related to the validation of numeric types and of GTFS types.
+     * Then the parsed and type validated row is handed over to the consumer, on the calling thread.
+     * An exception thrown by the consumer, for instance when aborting on error, stops all stages. An exception or an
+     * error thrown by another stage is rethrown on the calling thread.
+     *
+     * @param typeValidatedEntityConsumer the consumer of the parsed rows
+     */
+    public void execute(final Consumer<ParsedEntity> typeValidatedEntityConsumer) {
+        if (provider == null) {
+            return;
+        }
+        final BlockingQueue<Batch<RawEntity>> rawBatchQueue = new ArrayBlockingQueue<>(queueDepth);
+        final BlockingQueue<Batch<ParsedRow>> parsedBatchQueue = new ArrayBlockingQueue<>(queueDepth);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            executor.submit(() -> {
+                readRows(rawBatchQueue);
+                return null;
+            });
+            executor.submit(() -> {
+                parseRows(rawBatchQueue, parsedBatchQueue);
+                return null;
+            });
+
+            Batch<ParsedRow> batch;
+            while (!(batch = takeBatch(parsedBatchQueue)).isLast()) {
+                for (final ParsedRow parsedRow : batch.rowList) {
+                    parsedRow.noticeList.forEach(resultRepo::addNotice);
+                    typeValidatedEntityConsumer.accept(parsedRow.parsedEntity);
+                }
+            }
+        } finally {
+            // on early termination stages blocked on a full queue are interrupted
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * First stage: reads rows from the data provider and queues them by batch
+     */
+    private void readRows(final BlockingQueue<Batch<RawEntity>> rawBatchQueue) throws InterruptedException {
+        try {
+            List<RawEntity> rowList = new ArrayList<>(batchSize);
+            while (provider.hasNext()) {
+                rowList.add(provider.getNext());
+                if (rowList.size() == batchSize) {
+                    rawBatchQueue.put(new Batch<>(rowList, null));
+                    rowList = new ArrayList<>(batchSize);
+                }
+            }
+            if (!rowList.isEmpty()) {
+                rawBatchQueue.put(new Batch<>(rowList, null));
+            }
+            rawBatchQueue.put(Batch.last());
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Throwable e) {
+            // errors are forwarded too: the next stage would otherwise wait for rows forever
+            rawBatchQueue.put(new Batch<>(Collections.emptyList(), e));
+        }
+    }
+
+    /**
+     * Second stage: validates the length and types of the rows of each batch and parses them
+     */
+    private void parseRows(final BlockingQueue<Batch<RawEntity>> rawBatchQueue,
+                           final BlockingQueue<Batch<ParsedRow>> parsedBatchQueue) throws InterruptedException {
+        try {
+            Batch<RawEntity> batch;
+            while (!(batch = takeBatch(rawBatchQueue)).isLast()) {
+                final List<ParsedRow> parsedRowList = new ArrayList<>(batch.rowList.size());
+                for (final RawEntity rawEntity : batch.rowList) {
+                    parsedRowList.add(parseRow(rawEntity));
+                }
+                parsedBatchQueue.put(new Batch<>(parsedRowList, null));
+            }
+            parsedBatchQueue.put(Batch.last());
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Throwable e) {
+            parsedBatchQueue.put(new Batch<>(Collections.emptyList(), e));
+        }
+    }
+
+    private ParsedRow parseRow(final RawEntity rawEntity) {
+        final List<Notice> noticeList = new ArrayList<>();
+        if (rawEntity.size() != provider.getHeaderCount()) {
+            noticeList.add(new InvalidRowLengthNotice(
+                    rawFileInfo.getFilename(),
+                    rawEntity.getIndex(),
+                    provider.getHeaderCount(),
+                    rawEntity.size())
+            );
+        }
+        final GtfsSpecRepository.ParseResult parseResult = parser.parseWithNotices(rawEntity);
+        noticeList.addAll(parseResult.getNoticeCollection());
+        final ParsedEntity parsedEntity = parseResult.getParsedEntity();
+        noticeList.addAll(typeValidator.validate(parsedEntity));
+        return new ParsedRow(noticeList, parsedEntity);
+    }
+
+    /**
+     * Takes the next batch from a queue, rethrowing the exception or error that stopped the previous stage if any
+     */
+    private static <T> Batch<T> takeBatch(final BlockingQueue<Batch<T>> batchQueue) {
+        final Batch<T> toReturn;
+        try {
+            toReturn = batchQueue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for rows of the file");
+        }
+        if (toReturn.failure instanceof RuntimeException) {
+            throw (RuntimeException) toReturn.failure;
+        }
+        if (toReturn.failure instanceof Error) {
+            throw (Error) toReturn.failure;
+        }
+        if (toReturn.failure != null) {
+            throw new CompletionException(toReturn.failure);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Consecutive rows of a file, or the exception or error that stopped the stage producing them. An empty batch marks the end
+     * of the file.
+     */
+    private static class Batch<T> {
+        private final List<T> rowList;
+        private final Throwable failure;
+
+        private Batch(final List<T> rowList, final Throwable failure) {
+            this.rowList = rowList;
+            this.failure = failure;
+        }
+
+        private static <T> Batch<T> last() {
+            return new Batch<>(Collections.emptyList(), null);
+        }
+
+        private boolean isLast() {
+            return rowList.isEmpty();
+        }
+    }
+
+    /**
+     * A parsed row along with the notices generated while parsing it and validating its types
+     */
+    private static class ParsedRow {
+        private final List<Notice> noticeList;
+        private final ParsedEntity parsedEntity;
+
+        private ParsedRow(final List<Notice> noticeList, final ParsedEntity parsedEntity) {
+            this.noticeList = noticeList;
+            this.parsedEntity = parsedEntity;
+        }
+    }
+}
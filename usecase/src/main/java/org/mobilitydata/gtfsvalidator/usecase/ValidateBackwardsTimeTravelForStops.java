@@ -16,12 +16,13 @@
 
 package org.mobilitydata.gtfsvalidator.usecase;
 
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.BackwardsTimeTravelInStopNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 
-import java.util.TreeMap;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Use case to validate that for a given `trip_id`, the `arrival_time` of (n+1)-th stoptime in sequence does not precede
@@ -30,38 +31,46 @@ import java.util.TreeMap;
 public class ValidateBackwardsTimeTravelForStops {
 
     public void execute(final ValidationResultRepository resultRepo,
-                        final TreeMap<Integer, StopTime> stopTimeSequence,
+                        final StopTimeCursor stopTimeSequence,
                         final TimeUtils timeUtils) {
+        // notices are kept until the last stoptime of the trip has been read: the rule is only checked if first and
+        // last stoptimes of the trip provide both arrival and departure times
+        final List<BackwardsTimeTravelInStopNotice> noticeCollection = new ArrayList<>();
 
         // get previous stoptime relevant information
-        final var previousStopTimeData = new Object() {
-            Integer departureTime = null;
-            Integer stopSequence = null;
-        };
-
-        if (stopTimeSequence.lastEntry().getValue().getDepartureTime() != null &&
-                stopTimeSequence.lastEntry().getValue().getArrivalTime() != null &&
-                stopTimeSequence.firstEntry().getValue().getDepartureTime() != null &&
-                stopTimeSequence.firstEntry().getValue().getArrivalTime() != null) {
-            stopTimeSequence.forEach((stopSequence, stopTime) -> {
-
-                if (stopTime.getArrivalTime() != null && previousStopTimeData.departureTime != null) {
-                    if (stopTime.getArrivalTime() < previousStopTimeData.departureTime) {
-                        resultRepo.addNotice(
-                                new BackwardsTimeTravelInStopNotice(
-                                        stopTime.getTripId(),
-                                        stopTime.getStopSequence(),
-                                        timeUtils.convertIntegerToHHMMSS(stopTime.getArrivalTime()),
-                                        timeUtils.convertIntegerToHHMMSS(previousStopTimeData.departureTime),
-                                        previousStopTimeData.stopSequence));
-                    }
-                }
-                // to exclude any row where only one time field is provided
-                if (stopTime.getArrivalTime() != null && stopTime.getDepartureTime() != null) {
-                    previousStopTimeData.departureTime = stopTime.getDepartureTime();
-                    previousStopTimeData.stopSequence = stopSequence;
+        Integer previousDepartureTime = null;
+        Integer previousStopSequence = null;
+        boolean isFirstStopTime = true;
+        boolean areLastStopTimeTimesProvided = false;
+        while (stopTimeSequence.next()) {
+            final boolean hasArrivalTime = stopTimeSequence.hasArrivalTime();
+            final boolean hasDepartureTime = stopTimeSequence.hasDepartureTime();
+            if (isFirstStopTime && !(hasArrivalTime && hasDepartureTime)) {
+                return;
+            }
+            isFirstStopTime = false;
+            if (hasArrivalTime && previousDepartureTime != null) {
+                final int arrivalTime = stopTimeSequence.getArrivalTime();
+                if (arrivalTime < previousDepartureTime) {
+                    noticeCollection.add(
+                            new BackwardsTimeTravelInStopNotice(
+                                    stopTimeSequence.getTripId(),
+                                    stopTimeSequence.getStopSequence(),
+                                    timeUtils.convertIntegerToHHMMSS(arrivalTime),
+                                    timeUtils.convertIntegerToHHMMSS(previousDepartureTime),
+                                    previousStopSequence));
                 }
-            });
+            }
+            // to exclude any row where only one time field is provided
+            if (hasArrivalTime && hasDepartureTime) {
+                previousDepartureTime = stopTimeSequence.getDepartureTime();
+                previousStopSequence = stopTimeSequence.getStopSequence();
+            }
+            areLastStopTimeTimesProvided = hasArrivalTime && hasDepartureTime;
+        }
+
+        if (areLastStopTimeTimesProvided) {
+            noticeCollection.forEach(resultRepo::addNotice);
         }
     }
 }
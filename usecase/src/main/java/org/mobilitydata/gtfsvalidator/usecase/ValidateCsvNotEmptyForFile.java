@@ -18,15 +18,18 @@ package org.mobilitydata.gtfsvalidator.usecase;
 
 import org.apache.logging.log4j.Logger;
 import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.CannotUnzipInputArchiveNotice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.EmptyFileErrorNotice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.EmptyFileWarningNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
 import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
+import java.util.List;
 
 /**
  * Use case to validate a csv file is not empty.
+ * - the file can not be decompressed from the archive: that's an unzipping error, not an empty file
  * - the file is completely empty: that's an error
  * - the file defines headers but no row of data
  * - required file: that's an error
@@ -60,6 +63,9 @@ public class ValidateCsvNotEmptyForFile {
 
     /**
      * Use case execution method: for a file, checks if it empty
+     * If no file content is available because the file can not be decompressed from the archive, a
+     * {@link CannotUnzipInputArchiveNotice} is added to the {@link ValidationResultRepository} provided in the
+     * constructor.
      * If no file content at all is available or it contains headers but no row of data and is required,
      * a {@link EmptyFileErrorNotice} is added to the {@link ValidationResultRepository} provided in the constructor.
      * If a file contains headers and is optional but no rows of data,
@@ -68,19 +74,48 @@ public class ValidateCsvNotEmptyForFile {
     public void execute() {
         logger.info("Validating rule 'E_039 & W_009 - Empty file'");
         if (rawFileRepo.getActualHeadersForFile(rawFileInfo).size() == 0) {
-            resultRepo.addNotice(new EmptyFileErrorNotice(rawFileInfo.getFilename()));
+            addNoContentNotice();
         } else {
             rawFileRepo.getProviderForFile(rawFileInfo).ifPresent(
                     provider -> {
                         if (!provider.hasNext()) {
-                            if (specRepo.getRequiredFilenameList().contains(rawFileInfo.getFilename())) {
-                                resultRepo.addNotice(new EmptyFileErrorNotice(rawFileInfo.getFilename()));
-                            } else {
-                                resultRepo.addNotice(new EmptyFileWarningNotice(rawFileInfo.getFilename()));
-                            }
+                            addEmptyContentNotice();
                         }
                     }
             );
         }
     }
+
+    /**
+     * Use case execution method to use when the file is already being read: checks emptiness from the headers and
+     * from the availability of a first row of data as reported by the caller instead of re-opening the file.
+     * Generates the same notices as {@link #execute()}.
+     *
+     * @param actualHeaderList the headers of the file, empty if the file has no content at all
+     * @param hasDataRow       true if the file contains at least one row of data, else false
+     */
+    public void execute(final List<String> actualHeaderList, final boolean hasDataRow) {
+        logger.info("Validating rule 'E_039 & W_009 - Empty file'");
+        if (actualHeaderList.size() == 0) {
+            addNoContentNotice();
+        } else if (!hasDataRow) {
+            addEmptyContentNotice();
+        }
+    }
+
+    private void addNoContentNotice() {
+        if (rawFileRepo.isCorruptFile(rawFileInfo)) {
+            resultRepo.addNotice(new CannotUnzipInputArchiveNotice(rawFileInfo.getFilename()));
+        } else {
+            resultRepo.addNotice(new EmptyFileErrorNotice(rawFileInfo.getFilename()));
+        }
+    }
+
+    private void addEmptyContentNotice() {
+        if (specRepo.getRequiredFilenameList().contains(rawFileInfo.getFilename())) {
+            resultRepo.addNotice(new EmptyFileErrorNotice(rawFileInfo.getFilename()));
+        } else {
+            resultRepo.addNotice(new EmptyFileWarningNotice(rawFileInfo.getFilename()));
+        }
+    }
 }
@@ -69,14 +69,39 @@ public class ValidateHeadersForFile {
      * then added to the {@link ValidationResultRepository} provided in the constructor.
      */
     public void execute() {
-        logger.info("Validating rules :'E001 - Missing required field");
-        logger.info("                  'E043 - Duplicated field");
-        logger.info("                  'W002 - Non standard field name");
+        logRules();
 
         List<String> expectedRequiredHeaderList = specRepo.getRequiredHeadersForFile(rawFileInfo);
         List<String> expectedOptionalHeaderList = specRepo.getOptionalHeadersForFile(rawFileInfo);
         List<String> actualHeaderList = rawFileRepo.getActualHeadersForFile(rawFileInfo);
 
+        validateHeaders(expectedRequiredHeaderList, expectedOptionalHeaderList, actualHeaderList);
+    }
+
+    /**
+     * Use case execution method to use when the headers of the file have already been read, e.g. from the
+     * {@link RawFileRepository.RawEntityProvider} used to parse the file. Generates the same notices as
+     * {@link #execute()} without re-opening the file.
+     *
+     * @param actualHeaderList the headers of the file in the order they appear in the file, including duplicates
+     */
+    public void execute(final List<String> actualHeaderList) {
+        logRules();
+
+        validateHeaders(specRepo.getRequiredHeadersForFile(rawFileInfo),
+                specRepo.getOptionalHeadersForFile(rawFileInfo),
+                actualHeaderList);
+    }
+
+    private void logRules() {
+        logger.info("Validating rules :'E001 - Missing required field");
+        logger.info("                  'E043 - Duplicated field");
+        logger.info("                  'W002 - Non standard field name");
+    }
+
+    private void validateHeaders(final List<String> expectedRequiredHeaderList,
+                                 final List<String> expectedOptionalHeaderList,
+                                 final List<String> actualHeaderList) {
         // Duplicated headers
         Set<String> headerSet = new HashSet<>();
         actualHeaderList.forEach(actualHeader -> {
@@ -87,14 +112,15 @@ public class ValidateHeadersForFile {
 
         // Missing headers
         expectedRequiredHeaderList.stream()
-                .filter(expectedHeader -> !(actualHeaderList.contains(expectedHeader)))
+                .filter(expectedHeader -> !(headerSet.contains(expectedHeader)))
                 .forEach(missingHeader -> resultRepo.addNotice(new MissingHeaderNotice(rawFileInfo.getFilename(),
                         missingHeader)));
 
         // Extra headers
+        final Set<String> expectedHeaderSet = new HashSet<>(expectedRequiredHeaderList);
+        expectedHeaderSet.addAll(expectedOptionalHeaderList);
         actualHeaderList.stream()
-                .filter(header ->
-                        !expectedOptionalHeaderList.contains(header) && !expectedRequiredHeaderList.contains(header))
+                .filter(header -> !expectedHeaderSet.contains(header))
                 .forEach(extraHeader ->
                         resultRepo.addNotice(new NonStandardHeaderNotice(rawFileInfo.getFilename(), extraHeader)));
 
@@ -24,6 +24,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.BlockTripsWithOverlappingStopTimesNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 
@@ -65,20 +66,20 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
         final Map<String, List<Trip>> tripPerBlockId = dataRepo.getAllTripByBlockId();
         final boolean isCalendarProvided = dataRepo.getCalendarAll().size() != 0;
         tripPerBlockId.forEach((blockId, trips) -> {
+            // stop times of each trip are read once, before trips of the block are compared pairwise
+            final Map<String, TripTimes> timesPerTripId = new HashMap<>();
+            trips.forEach(trip -> timesPerTripId.computeIfAbsent(trip.getTripId(), this::readTripTimes));
             final Map<String, Trip> visitedTripIdCollection = new HashMap();
             trips.forEach(currentTrip -> {
                 final String currentTripId = currentTrip.getTripId();
-                final SortedMap<Integer, StopTime> tripStopTimes = dataRepo.getStopTimeByTripId(currentTripId);
-
-                final StopTime tripFirstStopTime = tripStopTimes.get(tripStopTimes.firstKey());
-                final StopTime tripLastStopTime = tripStopTimes.get(tripStopTimes.lastKey());
-                final Integer tripFirstTime = tripFirstStopTime.getArrivalTime();
-                final Integer tripLastTime = tripLastStopTime.getDepartureTime();
+                final TripTimes tripTimes = timesPerTripId.get(currentTripId);
+                final Integer tripFirstTime = tripTimes.firstTime;
+                final Integer tripLastTime = tripTimes.lastTime;
                 visitedTripIdCollection.put(currentTripId, currentTrip);
                 if (tripFirstTime == null || tripLastTime == null) {
                     return;
                 }
-                if (!areTripTimesValid(tripFirstStopTime, tripLastStopTime)) {
+                if (!areTripTimesValid(tripFirstTime, tripLastTime)) {
                     return;
                 }
                 trips.forEach(unvisitedTrip -> {
@@ -93,16 +94,9 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
                     // | 0       | 5      | a         | 5       | 08:45           | 11:20          |
                     // | 0       | 8      | a         | 5       | 11:40           | 13:50          |
 
-                    // fetch related StopTime for unvisitedTrip
-                    final SortedMap<Integer, StopTime> unvisitedTripStopTimes =
-                            dataRepo.getStopTimeByTripId(unvisitedTripId);
-                    final StopTime unvisitedTripFirstStopTime =
-                            unvisitedTripStopTimes.get(unvisitedTripStopTimes.firstKey());
-                    final StopTime unvisitedTripLastStopTime =
-                            unvisitedTripStopTimes.get(unvisitedTripStopTimes.lastKey());
-
-                    final Integer unvisitedTripFirstTime = unvisitedTripFirstStopTime.getArrivalTime();
-                    final Integer unvisitedTripLastTime = unvisitedTripLastStopTime.getDepartureTime();
+                    final TripTimes unvisitedTripTimes = timesPerTripId.get(unvisitedTripId);
+                    final Integer unvisitedTripFirstTime = unvisitedTripTimes.firstTime;
+                    final Integer unvisitedTripLastTime = unvisitedTripTimes.lastTime;
                     if (unvisitedTrip.hasSameServiceId(currentTrip)) {
                         checkOverlappingForTripsWithSameServiceId(
                                 blockId,
@@ -111,9 +105,7 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
                                 tripFirstTime,
                                 tripLastTime,
                                 unvisitedTripFirstTime,
-                                unvisitedTripLastTime,
-                                unvisitedTripFirstStopTime,
-                                unvisitedTripLastStopTime);
+                                unvisitedTripLastTime);
                     } else {
                         // if trips have different service_id additional check needs to be done to determine
                         // whether they operate on the same day or not
@@ -134,9 +126,7 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
                                     tripFirstTime,
                                     tripLastTime,
                                     unvisitedTripFirstTime,
-                                    unvisitedTripLastTime,
-                                    unvisitedTripFirstStopTime,
-                                    unvisitedTripLastStopTime);
+                                    unvisitedTripLastTime);
                         } else {
                             checkOverlappingTripsDifferentServiceIdCalendarNotProvided(
                                     blockId,
@@ -147,9 +137,7 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
                                     tripFirstTime,
                                     tripLastTime,
                                     unvisitedTripFirstTime,
-                                    unvisitedTripLastTime,
-                                    unvisitedTripFirstStopTime,
-                                    unvisitedTripLastStopTime);
+                                    unvisitedTripLastTime);
                         }
                     }
                 });
@@ -157,18 +145,35 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
         });
     }
 
+    /**
+     * Reads the arrival time of the first {@link StopTime} of a trip and the departure time of its last
+     * {@link StopTime}, through a cursor so that no {@link StopTime} is materialized
+     *
+     * @param tripId id of the {@link Trip}
+     * @return the first and last times of the trip, null when missing
+     */
+    private TripTimes readTripTimes(final String tripId) {
+        final StopTimeCursor cursor = dataRepo.getStopTimeCursorByTripId(tripId);
+        if (!cursor.next()) {
+            return new TripTimes(null, null);
+        }
+        final Integer firstTime = cursor.hasArrivalTime() ? cursor.getArrivalTime() : null;
+        Integer lastTime;
+        do {
+            lastTime = cursor.hasDepartureTime() ? cursor.getDepartureTime() : null;
+        } while (cursor.next());
+        return new TripTimes(firstTime, lastTime);
+    }
+
     /**
      * Determines if {@code Trip} times are valid. Returns true if
      * tripFirstStopTime.arrivalTime < tripLastStopTime.departureTime, otherwise returns false
      *
-     * @param tripFirstStopTime first {@link StopTime} of trip
-     * @param tripLastStopTime  last {@link StopTime} of trip
-     * @return true if {@param tripFirstStopTime} arrival time is before {@param tripLastStopTime} departure time,
-     * otherwise returns false.
+     * @param arrivalTime   arrival time of the first {@link StopTime} of trip
+     * @param departureTime departure time of the last {@link StopTime} of trip
+     * @return true if {@param arrivalTime} is before {@param departureTime}, otherwise returns false.
      */
-    private boolean areTripTimesValid(final StopTime tripFirstStopTime, final StopTime tripLastStopTime) {
-        final Integer arrivalTime = tripFirstStopTime.getArrivalTime();
-        final Integer departureTime = tripLastStopTime.getDepartureTime();
+    private boolean areTripTimesValid(final Integer arrivalTime, final Integer departureTime) {
         if (arrivalTime != null & departureTime != null) {
             return arrivalTime < departureTime;
         } else {
@@ -188,8 +193,6 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
      * @param tripLastTime           {@link Trip} last time
      * @param otherTripFirstTime     other {@link Trip} first time
      * @param otherTripLastTime      other {@link Trip} last time
-     * @param otherTripFirstStopTime other {@link Trip} first {@link StopTime}
-     * @param otherTripLastStopTime  other {@link Trip} last {@link StopTime}
      */
     private void checkOverlappingForTripsWithSameServiceId(final String blockId,
                                                            final String tripId,
@@ -197,16 +200,14 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
                                                            final int tripFirstTime,
                                                            final int tripLastTime,
                                                            final Integer otherTripFirstTime,
-                                                           final Integer otherTripLastTime,
-                                                           final StopTime otherTripFirstStopTime,
-                                                           final StopTime otherTripLastStopTime) {
+                                                           final Integer otherTripLastTime) {
         // stop_times arrival_time and departure_time should not be null to perform the
         // subsequent operations
         if (otherTripFirstTime == null || otherTripLastTime == null) {
             return;
         }
         // stop_times arrival_time and departure_time are supposed to be ordered
-        if (!areTripTimesValid(otherTripFirstStopTime, otherTripLastStopTime)) {
+        if (!areTripTimesValid(otherTripFirstTime, otherTripLastTime)) {
             return;
         }
         // if times overlap
@@ -238,8 +239,6 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
      * @param tripLastTime           {@link Trip} last time
      * @param otherTripFirstTime     other {@link Trip} first time
      * @param otherTripLastTime      other {@link Trip} last time
-     * @param otherTripFirstStopTime other {@link Trip} first {@link StopTime}
-     * @param otherTripLastStopTime  other {@link Trip} last {@link StopTime}
      */
     private void checkOverlappingTripsDifferentServiceIdCalendarProvided(final String blockId,
                                                                          final Trip trip,
@@ -249,9 +248,7 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
                                                                          final int tripFirstTime,
                                                                          final int tripLastTime,
                                                                          final Integer otherTripFirstTime,
-                                                                         final Integer otherTripLastTime,
-                                                                         final StopTime otherTripFirstStopTime,
-                                                                         final StopTime otherTripLastStopTime) {
+                                                                         final Integer otherTripLastTime) {
         // interpret data from `calendar.txt` to determine if currentTrip and otherTrip
         // operate on same days
         Calendar tripCalendar = dataRepo.getCalendarByServiceId(trip.getServiceId());
@@ -267,7 +264,7 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
         if (otherTripFirstTime == null || otherTripLastTime == null) {
             return;
         }
-        if (!areTripTimesValid(otherTripFirstStopTime, otherTripLastStopTime)) {
+        if (!areTripTimesValid(otherTripFirstTime, otherTripLastTime)) {
             return;
         }
         if (!timeUtils.arePeriodsOverlapping(tripFirstTime, tripLastTime,
@@ -301,8 +298,6 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
      * @param tripLastTime           {@link Trip} last time
      * @param otherTripFirstTime     other {@link Trip} first time
      * @param otherTripLastTime      other {@link Trip} last time
-     * @param otherTripFirstStopTime other {@link Trip} first {@link StopTime}
-     * @param otherTripLastStopTime  other {@link Trip} last {@link StopTime}
      */
     private void checkOverlappingTripsDifferentServiceIdCalendarNotProvided(final String blockId,
                                                                             final Trip trip,
@@ -312,9 +307,7 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
                                                                             final int tripFirstTime,
                                                                             final int tripLastTime,
                                                                             final Integer otherTripFirstTime,
-                                                                            final Integer otherTripLastTime,
-                                                                            final StopTime otherTripFirstStopTime,
-                                                                            final StopTime otherTripLastStopTime) {
+                                                                            final Integer otherTripLastTime) {
         // interpret data from `calendar_dates.txt` to determine if trip and otherTrip operate on same days
         final Set<String> tripCalendarDateCollection = new HashSet<>();
         dataRepo.getCalendarDateAll().get(trip.getServiceId())
@@ -338,7 +331,7 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
         if (otherTripFirstTime == null || otherTripLastTime == null) {
             return;
         }
-        if (!areTripTimesValid(otherTripFirstStopTime, otherTripLastStopTime)) {
+        if (!areTripTimesValid(otherTripFirstTime, otherTripLastTime)) {
             return;
         }
         if (!timeUtils.arePeriodsOverlapping(tripFirstTime, tripLastTime, otherTripFirstTime, otherTripLastTime)) {
@@ -357,4 +350,17 @@ public class ValidateNoOverlappingStopTimeInTripBlock {
                         potentialConflictingDates)
         );
     }
+
+    /**
+     * The arrival time of the first {@link StopTime} of a trip and the departure time of its last {@link StopTime}
+     */
+    private static class TripTimes {
+        private final Integer firstTime;
+        private final Integer lastTime;
+
+        private TripTimes(final Integer firstTime, final Integer lastTime) {
+            this.firstTime = firstTime;
+            this.lastTime = lastTime;
+        }
+    }
 }
@@ -16,33 +16,31 @@
 
 package org.mobilitydata.gtfsvalidator.usecase;
 
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.MissingRequiredValueNotice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.ShapeIdNotFoundNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
-import java.util.Map;
-
 /**
  * Use case to validate that in `stop_times.txt` all records having a non-null value for field `shape_dist_travelled`
  * refer to a record from `trips.txt` that itself refers to an existing record of `shapes.txt`.
  */
 public class ValidateShapeIdReferenceInStopTime {
     public void execute(final ValidationResultRepository resultRepo,
-                        final StopTime stopTime,
-                        final Map<Integer, ShapePoint> shape,
+                        final StopTimeCursor stopTime,
+                        final ShapeView shape,
                         final Trip trip) {
         if (stopTime != null) {
-            if (stopTime.getShapeDistTraveled() != null) {
+            if (stopTime.hasShapeDistTraveled()) {
                 // if trip is null, then a TripIdNotFoundNotice is generated
                 // todo: implement use case to execute cross validation of files `stop_times.txt` and `trips.txt` on
                 // field `stop_times.trips_id`
                 if (trip != null) {
                     final String tripId = trip.getTripId();
                     final String tripShapeId = trip.getShapeId();
-                    final Integer stopSequence = stopTime.getStopSequence();
+                    final int stopSequence = stopTime.getStopSequence();
                     if (tripShapeId == null) {
                         resultRepo.addNotice(new MissingRequiredValueNotice("trips.txt", "shape_id",
                                 tripId));
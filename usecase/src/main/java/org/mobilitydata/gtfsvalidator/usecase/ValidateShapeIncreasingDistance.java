@@ -16,14 +16,10 @@
 
 package org.mobilitydata.gtfsvalidator.usecase;
 
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.DecreasingShapeDistanceNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
 /**
  * This use case checks that `shape_dist_traveled` increase must increase along with `shape_pt_sequence` of rows from
  * GTFS shapes.txt.
@@ -31,40 +27,34 @@ import java.util.stream.Collectors;
 public class ValidateShapeIncreasingDistance {
 
     /**
-     * @param shape   map storing all shape point information for a given `shape_id`
+     * @param shape   view of all shape points for a given `shape_id`, ordered by `shape_pt_sequence`
      * @param shapeId id of the shape to process
      */
-    public void execute(final Map<Integer, ShapePoint> shape,
+    public void execute(final ShapeView shape,
                         final String shapeId,
                         final ValidationResultRepository resultRepo) {
-        // get previous shape point relevant information
-        final var previousShapePointData = new Object() {
-            Float shapeDistTraveled = null;
-            Integer shapePtSequence = null;
-        };
-        final List<ShapePoint> shapePointCollection = shape.values().stream()
-                .filter(shapePoint -> shapePoint.getShapeDistTraveled() != null)
-                .collect(Collectors.toList());
-        shapePointCollection.forEach(shapePoint -> {
-            final Float shapeDistTraveled = shapePoint.getShapeDistTraveled();
-            final int shapePtSequence = shapePoint.getShapePtSequence();
-            if (shapeDistTraveled != null && previousShapePointData.shapeDistTraveled != null) {
-                if (previousShapePointData.shapeDistTraveled >= shapeDistTraveled) {
+        // index of the previous shape point with a `shape_dist_traveled`, -1 if none
+        int previousIndex = -1;
+        for (int index = 0; index < shape.size(); ++index) {
+            // to exclude any row where field `shape_dist_traveled` is not provided
+            if (!shape.hasShapeDistTraveled(index)) {
+                continue;
+            }
+            final float shapeDistTraveled = shape.getShapeDistTraveled(index);
+            if (previousIndex >= 0) {
+                final float previousShapeDistTraveled = shape.getShapeDistTraveled(previousIndex);
+                if (previousShapeDistTraveled >= shapeDistTraveled) {
                     resultRepo.addNotice(
                             new DecreasingShapeDistanceNotice(
                                     shapeId,
-                                    shapePtSequence,
+                                    shape.getShapePtSequence(index),
                                     shapeDistTraveled,
-                                    previousShapePointData.shapePtSequence,
-                                    previousShapePointData.shapeDistTraveled)
+                                    shape.getShapePtSequence(previousIndex),
+                                    previousShapeDistTraveled)
                     );
                 }
             }
-            previousShapePointData.shapeDistTraveled = shapeDistTraveled;
-            previousShapePointData.shapePtSequence = shapePtSequence;
-//            // to exclude any row where field `shape_dist_traveled` is not provided
-//            if (shapeDistTraveled != null) {
-//            }
-        });
+            previousIndex = index;
+        }
     }
 }
@@ -20,6 +20,7 @@ import org.apache.logging.log4j.Logger;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.StopTimeArrivalTimeAfterDepartureTimeNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 
@@ -59,21 +60,22 @@ public class ValidateStopTimeDepartureTimeAfterArrivalTime {
      */
     public void execute() {
         logger.info("Validating rule 'E045 - `departure_time` and `arrival_time` out of order");
-        dataRepo.getStopTimeAll().forEach((tripId, tripStopTimes) -> tripStopTimes.forEach((stopSequence, stopTime) -> {
-            final Integer stopTimeArrivalTime = stopTime.getArrivalTime();
-            final Integer stopTimeDepartureTime = stopTime.getDepartureTime();
-            if (stopTimeDepartureTime != null && stopTimeArrivalTime != null) {
+        final StopTimeCursor stopTimeCursor = dataRepo.getStopTimeCursor();
+        while (stopTimeCursor.next()) {
+            if (stopTimeCursor.hasDepartureTime() && stopTimeCursor.hasArrivalTime()) {
+                final int stopTimeArrivalTime = stopTimeCursor.getArrivalTime();
+                final int stopTimeDepartureTime = stopTimeCursor.getDepartureTime();
                 if (stopTimeDepartureTime < stopTimeArrivalTime) {
                     resultRepo.addNotice(
                             new StopTimeArrivalTimeAfterDepartureTimeNotice(
                                     "stop_times.txt",
                                     timeUtils.convertIntegerToHHMMSS(stopTimeArrivalTime),
                                     timeUtils.convertIntegerToHHMMSS(stopTimeDepartureTime),
-                                    tripId,
-                                    stopSequence)
+                                    stopTimeCursor.getTripId(),
+                                    stopTimeCursor.getStopSequence())
                     );
                 }
             }
-        }));
+        }
     }
 }
@@ -16,12 +16,10 @@
 
 package org.mobilitydata.gtfsvalidator.usecase;
 
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.DecreasingStopTimeDistanceNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
-import java.util.TreeMap;
-
 /**
  * Use case to validate that for each trip, stop times have increasing `shape_dist_travelled` values.
  */
@@ -40,33 +38,31 @@ public class ValidateStopTimeIncreasingDistance {
      * stop time `shape_dist_traveled` value are not arranged in ascending order. This generates a
      * {@code WarningNotice} if two consecutive stop time have the same value for `shape_dist_travelled`.
      *
-     * @param stopTimeSequence {@link StopTime} collection mapped on `stop_sequence` value for a given `trip_id`
+     * @param stopTimeSequence cursor over the stop times of a given `trip_id`, ordered by `stop_sequence`
      */
-    public void execute(final TreeMap<Integer, StopTime> stopTimeSequence) {
+    public void execute(final StopTimeCursor stopTimeSequence) {
         // get previous stoptime relevant information
-        final var previousStopTimeData = new Object() {
-            Float shapeDistTraveled = null;
-            Integer stopSequence = null;
-        };
-        stopTimeSequence.forEach((stopSequence, stopTime) -> {
-            final Float shapeDistTraveled = stopTime.getShapeDistTraveled();
-            if (shapeDistTraveled != null && previousStopTimeData.shapeDistTraveled != null) {
-                if (previousStopTimeData.shapeDistTraveled >= shapeDistTraveled) {
-                    resultRepo.addNotice(
-                            new DecreasingStopTimeDistanceNotice(
-                                    stopTime.getTripId(),
-                                    previousStopTimeData.stopSequence,
-                                    previousStopTimeData.shapeDistTraveled,
-                                    stopSequence,
-                                    shapeDistTraveled)
-                    );
-                }
-            }
+        Float previousShapeDistTraveled = null;
+        Integer previousStopSequence = null;
+        while (stopTimeSequence.next()) {
             // to exclude any row where field `shape_dist_traveled` is not provided
-            if (shapeDistTraveled != null) {
-                previousStopTimeData.shapeDistTraveled = shapeDistTraveled;
-                previousStopTimeData.stopSequence = stopSequence;
+            if (!stopTimeSequence.hasShapeDistTraveled()) {
+                continue;
+            }
+            final float shapeDistTraveled = stopTimeSequence.getShapeDistTraveled();
+            final int stopSequence = stopTimeSequence.getStopSequence();
+            if (previousShapeDistTraveled != null && previousShapeDistTraveled >= shapeDistTraveled) {
+                resultRepo.addNotice(
+                        new DecreasingStopTimeDistanceNotice(
+                                stopTimeSequence.getTripId(),
+                                previousStopSequence,
+                                previousShapeDistTraveled,
+                                stopSequence,
+                                shapeDistTraveled)
+                );
             }
-        });
+            previousShapeDistTraveled = shapeDistTraveled;
+            previousStopSequence = stopSequence;
+        }
     }
 }
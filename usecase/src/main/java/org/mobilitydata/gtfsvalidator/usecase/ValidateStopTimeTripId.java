@@ -16,9 +16,9 @@
 
 package org.mobilitydata.gtfsvalidator.usecase;
 
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.TripIdNotFoundNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
 import java.util.Map;
@@ -30,7 +30,7 @@ public class ValidateStopTimeTripId {
      * This notice is then added to the {@link ValidationResultRepository} provided in the constructor.
      */
     public void execute(final ValidationResultRepository resultRepo,
-                        final StopTime stopTime,
+                        final StopTimeCursor stopTime,
                         final Map<String, Trip> tripCollection) {
         if (!tripCollection.containsKey(stopTime.getTripId())) {
             resultRepo.addNotice(new TripIdNotFoundNotice("stop_times.txt",
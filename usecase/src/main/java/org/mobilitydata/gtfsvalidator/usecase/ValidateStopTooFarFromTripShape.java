@@ -20,6 +20,7 @@ import org.apache.logging.log4j.Logger;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.StopTooFarFromTripShapeNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.GeospatialUtils;
 
@@ -68,21 +69,29 @@ public class ValidateStopTooFarFromTripShape {
         // Cache for previously tested shape_id and stop_id pairs - we don't need to test them more than once
         final Set<String> testedCache = new HashSet<>();
 
-        dataRepo.getStopTimeAll().forEach((tripId, tripStopTimes) -> {
+        // rows of a trip are iterated one after the other: each trip is checked when its first row is reached
+        final StopTimeCursor stopTimeCursor = dataRepo.getStopTimeCursor();
+        String previousTripId = null;
+        while (stopTimeCursor.next()) {
+            final String tripId = stopTimeCursor.getTripId();
+            if (tripId.equals(previousTripId)) {
+                continue;
+            }
+            previousTripId = tripId;
             final Trip trip = dataRepo.getTripById(tripId);
             if (trip == null || trip.getShapeId() == null) {
                 // No shape for this trip - skip to the next trip
-                return;
+                continue;
             }
             // Check for possible E052 errors for this combination of stop times and shape points for this trip_id
             List<StopTooFarFromTripShapeNotice> errorsForTrip = geospatialUtils.checkStopsWithinTripShape(trip,
-                    tripStopTimes,
-                    dataRepo.getShapeById(trip.getShapeId()),
+                    dataRepo.getStopTimeCursorByTripId(tripId),
+                    dataRepo.getShapeViewById(trip.getShapeId()),
                     dataRepo.getStopAll(),
                     testedCache
             );
             errors.addAll(errorsForTrip);
-        });
+        }
         errors.forEach(resultRepo::addNotice);
     }
 }
@@ -17,13 +17,11 @@
 package org.mobilitydata.gtfsvalidator.usecase;
 
 import org.apache.logging.log4j.Logger;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.MissingTripEdgeStopTimeNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
-import java.util.SortedMap;
-
 /**
  * Use case for E043 to validate that all records of `trips.txt` refer to an a collection of {@code StopTime} from file
  * `stop_times.txt` of which -when sorted by `stop_sequence`-
@@ -57,41 +55,53 @@ public class ValidateTripEdgeArrivalDepartureTime {
         logger.info("Validating rule E044 - Missing trip edge arrival_time or departure_time");
 
         dataRepo.getTripAll().keySet().forEach(tripId -> {
-            SortedMap<Integer, StopTime> stopTimesForTrip = dataRepo.getStopTimeByTripId(tripId);
-
-            StopTime tripStartStop = stopTimesForTrip.get(stopTimesForTrip.firstKey());
-            StopTime tripEndStop = stopTimesForTrip.get(stopTimesForTrip.lastKey());
+            // values are read through a cursor: no StopTime is materialized for the rows of the trip
+            final StopTimeCursor stopTimeCursor = dataRepo.getStopTimeCursorByTripId(tripId);
+            if (!stopTimeCursor.next()) {
+                return;
+            }
+            final int tripStartStopSequence = stopTimeCursor.getStopSequence();
+            final boolean tripStartHasArrivalTime = stopTimeCursor.hasArrivalTime();
+            final boolean tripStartHasDepartureTime = stopTimeCursor.hasDepartureTime();
+            int tripEndStopSequence;
+            boolean tripEndHasArrivalTime;
+            boolean tripEndHasDepartureTime;
+            do {
+                tripEndStopSequence = stopTimeCursor.getStopSequence();
+                tripEndHasArrivalTime = stopTimeCursor.hasArrivalTime();
+                tripEndHasDepartureTime = stopTimeCursor.hasDepartureTime();
+            } while (stopTimeCursor.next());
 
-            if (tripStartStop.getArrivalTime() == null) {
+            if (!tripStartHasArrivalTime) {
                 resultRepo.addNotice(
                         new MissingTripEdgeStopTimeNotice("arrival_time",
                                 tripId,
-                                tripStartStop.getStopSequence()
+                                tripStartStopSequence
                         )
                 );
             }
-            if (tripStartStop.getDepartureTime() == null) {
+            if (!tripStartHasDepartureTime) {
                 resultRepo.addNotice(
                         new MissingTripEdgeStopTimeNotice("departure_time",
                                 tripId,
-                                tripStartStop.getStopSequence()
+                                tripStartStopSequence
                         )
                 );
             }
 
-            if (tripEndStop.getArrivalTime() == null) {
+            if (!tripEndHasArrivalTime) {
                 resultRepo.addNotice(
                         new MissingTripEdgeStopTimeNotice("arrival_time",
                                 tripId,
-                                tripEndStop.getStopSequence()
+                                tripEndStopSequence
                         )
                 );
             }
-            if (tripEndStop.getDepartureTime() == null) {
+            if (!tripEndHasDepartureTime) {
                 resultRepo.addNotice(
                         new MissingTripEdgeStopTimeNotice("departure_time",
                                 tripId,
-                                tripEndStop.getStopSequence()
+                                tripEndStopSequence
                         )
                 );
             }
@@ -20,6 +20,7 @@ import org.apache.logging.log4j.Logger;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.UnusableTripNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 
 /**
@@ -46,7 +47,9 @@ public class ValidateTripNumberOfStops {
     public void execute() {
         logger.info("Validating rule 'E051 - Trips must have more than one stop to be usable.");
         dataRepository.getTripAll().forEach((tripId, trip) -> {
-            if (dataRepository.getStopTimeByTripId(tripId).size() <= 1) {
+            // stop times of the trip are counted up to two
+            final StopTimeCursor stopTimeCursor = dataRepository.getStopTimeCursorByTripId(tripId);
+            if (!(stopTimeCursor.next() && stopTimeCursor.next())) {
                 resultRepo.addNotice(new UnusableTripNotice(tripId));
             }
         });
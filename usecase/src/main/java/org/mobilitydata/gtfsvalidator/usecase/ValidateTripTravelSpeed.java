@@ -20,6 +20,7 @@ import org.apache.logging.log4j.Logger;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.LocationBase;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.FastTravelBetweenStopsNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.GeospatialUtils;
 
@@ -75,14 +76,16 @@ public class ValidateTripTravelSpeed {
                 final List<Integer> accumulatedStopSequence = new ArrayList<>();
             };
 
-            dataRepo.getStopTimeByTripId(tripId).forEach((stopSequence, stopTime) -> {
+            final StopTimeCursor stopTimeCursor = dataRepo.getStopTimeCursorByTripId(tripId);
+            while (stopTimeCursor.next()) {
+                final int stopSequence = stopTimeCursor.getStopSequence();
 
                 // prepare data for current iteration
-                LocationBase currentStop = dataRepo.getStopById(stopTime.getStopId());
+                LocationBase currentStop = dataRepo.getStopById(stopTimeCursor.getStopId());
                 double currentStopLat = currentStop.getStopLat();
                 double currentStopLon = currentStop.getStopLon();
 
-                Integer currentArrivalTime = stopTime.getArrivalTime();
+                Integer currentArrivalTime = stopTimeCursor.hasArrivalTime() ? stopTimeCursor.getArrivalTime() : null;
                 int distanceFromPreviousStopMeter = geoUtils.distanceBetweenMeter(
                         previousStopsData.latitude,
                         previousStopsData.longitude,
@@ -121,11 +124,12 @@ public class ValidateTripTravelSpeed {
                     previousStopsData.accumulatedStopSequence.clear();
                 }
 
-                previousStopsData.departureTime = stopTime.getDepartureTime();
+                previousStopsData.departureTime =
+                        stopTimeCursor.hasDepartureTime() ? stopTimeCursor.getDepartureTime() : null;
                 previousStopsData.latitude = currentStopLat;
                 previousStopsData.longitude = currentStopLon;
                 previousStopsData.accumulatedStopSequence.add(stopSequence);
-            });
+            }
         });
     }
 }
@@ -36,6 +36,17 @@ public interface ExecParamRepository {
     String EXCLUSION_KEY = "exclude";
     String ABORT_ON_ERROR = "abort_on_error";
     String BEAUTIFY_KEY = "beautify";
+    String EXTRACT_TO_DISK_KEY = "extract_to_disk";
+    String PARALLEL_PARSING_KEY = "parallel_parsing";
+    String STREAM_DOWNLOAD_KEY = "stream_download";
+    String CACHE_KEY = "cache";
+    String PIPELINE_QUEUE_DEPTH_KEY = "pipeline_queue_depth";
+    String PIPELINE_BATCH_SIZE_KEY = "pipeline_batch_size";
+    String FILE_THREAD_COUNT_KEY = "file_thread_count";
+    String TYPED_ROW_DECODING_KEY = "typed_row_decoding";
+    String BULK_LOAD_KEY = "bulk_load";
+    String OFF_HEAP_STORAGE_KEY = "off_heap_storage";
+    String DATA_SNAPSHOT_KEY = "data_snapshot";
     int MAX_CHARS_NUM = 22; // empirically defined
 
     ExecParam getExecParamByKey(final String optionName);
@@ -28,12 +28,18 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.transfers.Transfer;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.translations.Translation;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 
+import java.io.Closeable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
-public interface GtfsDataRepository {
+/**
+ * Holds the entities loaded from the files of a GTFS dataset. A repository may hold resources outside of the heap,
+ * released once it is closed.
+ */
+public interface GtfsDataRepository extends Closeable {
     Agency addAgency(final Agency newAgency, final Agency.AgencyBuilder builder) throws IllegalArgumentException;
 
     Agency getAgencyById(final String agencyId);
@@ -56,6 +62,8 @@ public interface GtfsDataRepository {
 
     Level getLevelById(final String levelId);
 
+    Map<String, Level> getLevelAll();
+
     Calendar addCalendar(final Calendar newCalendar) throws IllegalArgumentException;
 
     Calendar getCalendarByServiceId(final String serviceId);
@@ -74,6 +82,8 @@ public interface GtfsDataRepository {
 
     Transfer getTransferByStopPair(final String fromStopId, final String toStopId);
 
+    Map<String, Map<String, Transfer>> getTransferAll();
+
     FeedInfo addFeedInfo(final FeedInfo newFeedInfo) throws IllegalArgumentException;
 
     Map<String, FeedInfo> getFeedInfoAll();
@@ -84,11 +94,15 @@ public interface GtfsDataRepository {
 
     FareAttribute getFareAttributeById(final String fareId);
 
+    Map<String, FareAttribute> getFareAttributeAll();
+
     FareRule addFareRule(final FareRule newFareRule) throws IllegalArgumentException;
 
     FareRule getFareRule(final String fareId, final String routeId, final String originId, final String destinationId,
                          final String containsId);
 
+    Collection<FareRule> getFareRuleAll();
+
     Frequency addFrequency(final Frequency newFrequency);
 
     Frequency getFrequency(final String tripId, final Integer startTime);
@@ -101,6 +115,8 @@ public interface GtfsDataRepository {
 
     Pathway getPathwayById(final String pathwayId);
 
+    Map<String, Pathway> getPathwayAll();
+
     Attribution addAttribution(final Attribution newAttribution) throws IllegalArgumentException;
 
     Attribution getAttribution(final String attributionId, final String agencyId, final String routeId,
@@ -108,6 +124,8 @@ public interface GtfsDataRepository {
                                final boolean isOperator, final boolean isAuthority, final String attributionUrl,
                                final String attributionEmail, final String attributionPhone);
 
+    Collection<Attribution> getAttributionAll();
+
     /**
      * Add a {@link ShapePoint} to a shape. A shape is a list of{@link ShapePoint} whereas a {@link ShapePoint}
      * represents a row from shapes.txt to this. Return the entity added to the repository if the entity was
@@ -124,6 +142,25 @@ public interface GtfsDataRepository {
      */
     ShapePoint addShapePoint(final ShapePoint newShapePoint) throws IllegalArgumentException;
 
+    /**
+     * Append a {@link ShapePoint} to its shape without checking the uniqueness constraint on rows from shapes.txt,
+     * when shapes.txt is loaded as a whole. Duplicated shape points are removed once the whole file has been appended,
+     * by {@link #completeShapePointLoad()}, which is to be called before shapes are read.
+     *
+     * @param newShapePoint the internal representation of a row from shapes.txt to be appended to the repository.
+     * @throws IllegalArgumentException if the shape point passed as argument is null
+     */
+    void appendShapePoint(final ShapePoint newShapePoint) throws IllegalArgumentException;
+
+    /**
+     * Order the shape points appended by {@link #appendShapePoint(ShapePoint)} by shape_pt_sequence, and remove the
+     * ones that do not respect the uniqueness constraint on rows from shapes.txt: of several shape points with the same
+     * shape_id and shape_pt_sequence, the one appended first is kept, as with {@link #addShapePoint(ShapePoint)}.
+     *
+     * @return the shape points removed from the repository, in the order they were appended for a given shape
+     */
+    List<ShapePoint> completeShapePointLoad();
+
     /**
      * Return an immutable map of shape points from shapes.txt related to the id provided as parameter; which represents
      * a shape object. The returned map is ordered by shape_pt_sequence.
@@ -143,6 +180,23 @@ public interface GtfsDataRepository {
      */
     Map<String, SortedMap<Integer, ShapePoint>> getShapeAll();
 
+    /**
+     * Return a view of the shape points from shapes.txt related to the id provided as parameter, ordered by
+     * shape_pt_sequence. Unlike {@link #getShapeById(String)}, this does not require a {@link ShapePoint} per record.
+     *
+     * @param shapeId identifies a shape
+     * @return a view of the shape points from shapes.txt related to the id provided as parameter, null if no record
+     * is related to the id
+     */
+    ShapeView getShapeViewById(final String shapeId);
+
+    /**
+     * Return a view of each shape from shapes.txt
+     *
+     * @return a view of each shape from shapes.txt
+     */
+    Collection<ShapeView> getShapeViewAll();
+
     /**
      * Add a {@link StopTime} representing a row from stop_times.txt to this {@link GtfsDataRepository}.
      * Return the entity added to the repository if the uniqueness constraint on rows from stop_times.txt is respected,
@@ -158,6 +212,26 @@ public interface GtfsDataRepository {
      */
     StopTime addStopTime(final StopTime newStopTime) throws IllegalArgumentException;
 
+    /**
+     * Append a {@link StopTime} representing a row from stop_times.txt to the records of its trip without checking the
+     * uniqueness constraint on rows from stop_times.txt, when stop_times.txt is loaded as a whole. Duplicated records
+     * are removed once the whole file has been appended, by {@link #completeStopTimeLoad()}, which is to be called
+     * before records are read.
+     *
+     * @param newStopTime the internal representation of a row from stop_times.txt to be appended to the repository.
+     * @throws IllegalArgumentException if the stop time passed as argument is null
+     */
+    void appendStopTime(final StopTime newStopTime) throws IllegalArgumentException;
+
+    /**
+     * Order the records appended by {@link #appendStopTime(StopTime)} by stop_sequence, and remove the ones that do not
+     * respect the uniqueness constraint on rows from stop_times.txt: of several records with the same trip_id and
+     * stop_sequence, the one appended first is kept, as with {@link #addStopTime(StopTime)}.
+     *
+     * @return the records removed from the repository, in the order they were appended for a given trip
+     */
+    List<StopTime> completeStopTimeLoad();
+
     /**
      * Return an immutable map of {@link StopTime} from stop_times.txt related to the trip_id provided as parameter.
      * The returned map is ordered by stop_sequence
@@ -175,18 +249,47 @@ public interface GtfsDataRepository {
      */
     Map<String, TreeMap<Integer, StopTime>> getStopTimeAll();
 
+    /**
+     * Return a cursor over all records from stop_times.txt, trip by trip. Records of a trip are iterated by ascending
+     * stop_sequence. Unlike {@link #getStopTimeAll()}, this does not require a {@link StopTime} per record.
+     *
+     * @return a cursor over all records from stop_times.txt
+     */
+    StopTimeCursor getStopTimeCursor();
+
+    /**
+     * Return a cursor over the records from stop_times.txt related to the trip_id provided as parameter, by ascending
+     * stop_sequence. The cursor has no row if no record is related to the trip_id.
+     *
+     * @param tripId identifies a trip
+     * @return a cursor over the records from stop_times.txt related to the trip_id provided as parameter
+     */
+    StopTimeCursor getStopTimeCursorByTripId(final String tripId);
+
     Translation getTranslationByTableNameFieldValueLanguage(final String tableName,
                                                             final String fieldValue,
                                                             final String language);
 
     Translation addTranslation(final Translation newTranslationTable);
 
+    Collection<Translation> getTranslationAll();
+
     LocationBase addStop(final LocationBase newStop);
 
     LocationBase getStopById(final String stopId);
 
     Map<String, LocationBase> getStopAll();
 
+    /**
+     * Hints the number of rows expected in a GTFS file before said file is loaded, so that the collections holding
+     * the entities of the file are allocated once instead of growing while rows are added. This has no effect on
+     * collections that already hold entities.
+     *
+     * @param filename         the name of the GTFS file
+     * @param expectedRowCount the number of rows expected in the file
+     */
+    void reserveCapacity(final String filename, final int expectedRowCount);
+
     /**
      * Returns `feed_info.feed_publisher_name` value if file `feed_info.txt` was provided, otherwise returns an empty
      * String
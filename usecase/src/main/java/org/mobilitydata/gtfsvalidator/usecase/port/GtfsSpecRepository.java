@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
 import org.mobilitydata.gtfsvalidator.domain.entity.relationship_descriptor.RelationshipDescriptor;
+import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -43,12 +44,83 @@ public interface GtfsSpecRepository {
 
     ParsedEntityTypeValidator getValidatorForFile(final RawFileInfo file);
 
+    /**
+     * Releases what the parsers of the GTFS files share while a dataset is loaded, such as the values of identifier
+     * columns they deduplicate. This is to be called at the end of each validation run: parsers obtained afterwards
+     * start from scratch.
+     */
+    void clearParsingCaches();
+
+    /**
+     * Returns the decoder generated from the GTFS specification for the rows of a given file and the entity builder
+     * of said file, null if no decoder was generated for this file and builder
+     *
+     * @param file        information about the file to process: location and expected content
+     * @param builderType the type of the builder rows are decoded into
+     * @param timeUtils   the utility class converting times to a number of seconds
+     * @param <B>         the type of the builder rows are decoded into
+     * @return the decoder of the rows of {@code file}, null if there is none for {@code builderType}
+     */
+    <B> TypedRowDecoder<B> getTypedDecoderForFile(final RawFileInfo file,
+                                                  final Class<B> builderType,
+                                                  final TimeUtils timeUtils);
+
     RelationshipDescriptor getGtfsRelationshipDescriptor();
 
     interface RawEntityParser {
         Collection<ErrorNotice> validateNonStringTypes(final RawEntity toValidate);
 
         ParsedEntity parse(final RawEntity toParse);
+
+        /**
+         * Parses a row and validates its non string types at once, each value being converted a single time. This
+         * is equivalent to calling {@link #validateNonStringTypes(RawEntity)} then {@link #parse(RawEntity)}.
+         *
+         * @param toParse a row of a GTFS file as raw string data
+         * @return the parsed row along with the notices generated while converting its values
+         */
+        ParseResult parseWithNotices(final RawEntity toParse);
+    }
+
+    /**
+     * A parsed row along with the notices generated while converting its values
+     */
+    final class ParseResult {
+        private final ParsedEntity parsedEntity;
+        private final Collection<ErrorNotice> noticeCollection;
+
+        public ParseResult(final ParsedEntity parsedEntity, final Collection<ErrorNotice> noticeCollection) {
+            this.parsedEntity = parsedEntity;
+            this.noticeCollection = noticeCollection;
+        }
+
+        public ParsedEntity getParsedEntity() {
+            return parsedEntity;
+        }
+
+        public Collection<ErrorNotice> getNoticeCollection() {
+            return noticeCollection;
+        }
+    }
+
+    /**
+     * Decodes a row of a GTFS file straight into an entity builder: values are converted and validated as they would
+     * be by a {@link RawEntityParser} followed by a {@link ParsedEntityTypeValidator}, generating the same notices in
+     * the same order, without going through a {@link ParsedEntity}.
+     *
+     * @param <B> the type of the builder rows are decoded into
+     */
+    interface TypedRowDecoder<B> {
+        Class<B> getBuilderType();
+
+        /**
+         * Clears the builder provided as parameter and sets its fields from the values of a row
+         *
+         * @param toDecode   a row of a GTFS file as raw string data
+         * @param builder    the builder to fill
+         * @param noticeList the list notices generated while converting and validating values are added to
+         */
+        void decode(final RawEntity toDecode, final B builder, final List<Notice> noticeList);
     }
 
     interface ParsedEntityTypeValidator {
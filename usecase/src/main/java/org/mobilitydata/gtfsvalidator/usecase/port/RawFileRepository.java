@@ -19,6 +19,9 @@ package org.mobilitydata.gtfsvalidator.usecase.port;
 import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
 import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -26,7 +29,7 @@ import java.util.Set;
 /**
  * This holds information about a GTFS dataset to validate.
  */
-public interface RawFileRepository {
+public interface RawFileRepository extends Closeable {
 
     RawFileInfo create(RawFileInfo fileInfo);
 
@@ -38,12 +41,26 @@ public interface RawFileRepository {
 
     Optional<RawEntityProvider> getProviderForFile(RawFileInfo file);
 
-    interface RawEntityProvider {
+    List<RawEntityProvider> getProvidersForFileChunks(RawFileInfo file, long chunkByteCount);
+
+    void putEntryFile(String filename, Path inflatedFile) throws IOException;
+
+    long getFileSize(RawFileInfo file);
+
+    boolean isCorruptFile(RawFileInfo file);
+
+    interface RawEntityProvider extends AutoCloseable {
 
         boolean hasNext();
 
         RawEntity getNext();
 
         int getHeaderCount();
+
+        List<String> getHeaders();
+
+        @Override
+        default void close() {
+        }
     }
 }
\ No newline at end of file
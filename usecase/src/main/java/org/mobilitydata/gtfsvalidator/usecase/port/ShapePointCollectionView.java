@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase.port;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
+
+import java.util.Collection;
+import java.util.SortedMap;
+
+/**
+ * A {@link ShapeView} over {@link ShapePoint} objects, see {@link ShapeView#of(SortedMap)}
+ */
+class ShapePointCollectionView implements ShapeView {
+    private final ShapePoint[] shapePoints;
+
+    ShapePointCollectionView(final Collection<ShapePoint> shapePointCollection) {
+        this.shapePoints = shapePointCollection.toArray(new ShapePoint[0]);
+    }
+
+    @Override
+    public String getShapeId() {
+        return shapePoints.length == 0 ? null : shapePoints[0].getShapeId();
+    }
+
+    @Override
+    public int size() {
+        return shapePoints.length;
+    }
+
+    @Override
+    public int getShapePtSequence(final int index) {
+        return shapePoints[index].getShapePtSequence();
+    }
+
+    @Override
+    public double getShapePtLat(final int index) {
+        return shapePoints[index].getShapePtLat();
+    }
+
+    @Override
+    public double getShapePtLon(final int index) {
+        return shapePoints[index].getShapePtLon();
+    }
+
+    @Override
+    public boolean hasShapeDistTraveled(final int index) {
+        return shapePoints[index].getShapeDistTraveled() != null;
+    }
+
+    @Override
+    public float getShapeDistTraveled(final int index) {
+        return shapePoints[index].getShapeDistTraveled();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase.port;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
+
+import java.util.SortedMap;
+
+/**
+ * A read-only view of the points of a shape from shapes.txt, indexed from 0 by ascending shape_pt_sequence. Values
+ * are read by index without materializing a {@link ShapePoint} per point: a repository may back the view with the
+ * arrays it holds the points in.
+ */
+public interface ShapeView {
+
+    String getShapeId();
+
+    /**
+     * Returns the number of points of the shape
+     *
+     * @return the number of points of the shape
+     */
+    int size();
+
+    int getShapePtSequence(final int index);
+
+    double getShapePtLat(final int index);
+
+    double getShapePtLon(final int index);
+
+    /**
+     * Returns true if the point at the given index has a distance traveled along the shape, in which case it is
+     * returned by {@link #getShapeDistTraveled(int)}
+     *
+     * @param index the index of a point of the shape
+     * @return true if the point at the given index has a distance traveled along the shape, else false
+     */
+    boolean hasShapeDistTraveled(final int index);
+
+    float getShapeDistTraveled(final int index);
+
+    /**
+     * Returns a view of a shape held as a map of {@link ShapePoint} mapped on their shape_pt_sequence. This is meant
+     * for repositories holding {@link ShapePoint} objects.
+     *
+     * @param shape the points of a shape mapped on their shape_pt_sequence
+     * @return a view of the shape provided as parameter
+     */
+    static ShapeView of(final SortedMap<Integer, ShapePoint> shape) {
+        return new ShapePointCollectionView(shape.values());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase.port;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.*;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * A {@link StopTimeCursor} over {@link StopTime} objects, see {@link StopTimeCursor#of(Collection)}
+ */
+class StopTimeCollectionCursor implements StopTimeCursor {
+    private final Iterator<StopTime> iterator;
+    private StopTime current;
+
+    StopTimeCollectionCursor(final Collection<StopTime> stopTimeCollection) {
+        this.iterator = stopTimeCollection.iterator();
+    }
+
+    @Override
+    public boolean next() {
+        current = iterator.hasNext() ? iterator.next() : null;
+        return current != null;
+    }
+
+    @Override
+    public String getTripId() {
+        return current.getTripId();
+    }
+
+    @Override
+    public int getStopSequence() {
+        return current.getStopSequence();
+    }
+
+    @Override
+    public String getStopId() {
+        return current.getStopId();
+    }
+
+    @Override
+    public boolean hasArrivalTime() {
+        return current.getArrivalTime() != null;
+    }
+
+    @Override
+    public int getArrivalTime() {
+        return current.getArrivalTime();
+    }
+
+    @Override
+    public boolean hasDepartureTime() {
+        return current.getDepartureTime() != null;
+    }
+
+    @Override
+    public int getDepartureTime() {
+        return current.getDepartureTime();
+    }
+
+    @Override
+    public String getStopHeadsign() {
+        return current.getStopHeadsign();
+    }
+
+    @Override
+    public PickupType getPickupType() {
+        return current.getPickupType();
+    }
+
+    @Override
+    public DropOffType getDropOffType() {
+        return current.getDropOffType();
+    }
+
+    @Override
+    public ContinuousPickup getContinuousPickup() {
+        return current.getContinuousPickup();
+    }
+
+    @Override
+    public ContinuousDropOff getContinuousDropOff() {
+        return current.getContinuousDropOff();
+    }
+
+    @Override
+    public boolean hasShapeDistTraveled() {
+        return current.getShapeDistTraveled() != null;
+    }
+
+    @Override
+    public float getShapeDistTraveled() {
+        return current.getShapeDistTraveled();
+    }
+
+    @Override
+    public Timepoint getTimepoint() {
+        return current.getTimePoint();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase.port;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.*;
+
+import java.util.Collection;
+
+/**
+ * Iterates over rows of stop_times.txt without materializing a {@link StopTime} per row: the cursor is positioned on
+ * one row at a time and its getters return the values of said row. The cursor is moved to the first row by the first
+ * call to {@link #next()}, values read from the cursor must not be kept past the following call to {@link #next()}
+ * unless they are copied. Rows of a trip are iterated by ascending stop_sequence.
+ */
+public interface StopTimeCursor {
+
+    /**
+     * Moves the cursor to the next row
+     *
+     * @return true if the cursor was moved to a row, false if there are no more rows
+     */
+    boolean next();
+
+    String getTripId();
+
+    int getStopSequence();
+
+    String getStopId();
+
+    /**
+     * Returns true if the current row has an arrival time, in which case it is returned by {@link #getArrivalTime()}
+     *
+     * @return true if the current row has an arrival time, else false
+     */
+    boolean hasArrivalTime();
+
+    int getArrivalTime();
+
+    /**
+     * Returns true if the current row has a departure time, in which case it is returned by
+     * {@link #getDepartureTime()}
+     *
+     * @return true if the current row has a departure time, else false
+     */
+    boolean hasDepartureTime();
+
+    int getDepartureTime();
+
+    String getStopHeadsign();
+
+    PickupType getPickupType();
+
+    DropOffType getDropOffType();
+
+    ContinuousPickup getContinuousPickup();
+
+    ContinuousDropOff getContinuousDropOff();
+
+    /**
+     * Returns true if the current row has a distance traveled along the shape of the trip, in which case it is
+     * returned by {@link #getShapeDistTraveled()}
+     *
+     * @return true if the current row has a distance traveled along the shape of the trip, else false
+     */
+    boolean hasShapeDistTraveled();
+
+    float getShapeDistTraveled();
+
+    Timepoint getTimepoint();
+
+    /**
+     * Returns a cursor over a collection of {@link StopTime}, in the order of said collection. This is meant for
+     * repositories holding {@link StopTime} objects.
+     *
+     * @param stopTimeCollection the rows to iterate over
+     * @return a cursor over the collection provided as parameter
+     */
+    static StopTimeCursor of(final Collection<StopTime> stopTimeCollection) {
+        return new StopTimeCollectionCursor(stopTimeCollection);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase.port;
+
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * This holds the results of previous validations, so that an archive that did not change is not validated again.
+ */
+public interface ValidationResultCacheRepository {
+
+    Optional<CachedValidationResult> findByKey(String key);
+
+    void save(String key, CachedValidationResult result) throws IOException;
+}
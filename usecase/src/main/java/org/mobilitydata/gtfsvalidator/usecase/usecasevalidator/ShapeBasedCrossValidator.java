@@ -58,12 +58,9 @@ public class ShapeBasedCrossValidator {
         final Set<String> tripShapeIdCollection = new HashSet<>();
         dataRepo.getTripAll().values()
                 .forEach(trip -> tripShapeIdCollection.add(trip.getShapeId()));
-        dataRepo.getShapeAll().values().
+        dataRepo.getShapeViewAll().
                 forEach(shape -> {
-                    final String shapeId = shape.values().stream()
-                            .findFirst()
-                            .get()
-                            .getShapeId();
+                    final String shapeId = shape.getShapeId();
                     validateShapeUsage.execute(resultRepo, shapeId, tripShapeIdCollection);
                     validateShapeIncreasingDistance.execute(shape, shapeId, resultRepo);
                 });
@@ -17,13 +17,14 @@
 package org.mobilitydata.gtfsvalidator.usecase.usecasevalidator;
 
 import org.apache.logging.log4j.Logger;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateBackwardsTimeTravelForStops;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateShapeIdReferenceInStopTime;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateStopTimeIncreasingDistance;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateStopTimeTripId;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 
@@ -73,19 +74,28 @@ public class StopTimeValidator {
         logger.info("                  'E037 - `trip_id` not found");
         logger.info("                  'E054 & W013 - Decreasing travelled distance");
 
-        dataRepo.getStopTimeAll().values().forEach(stopTimeCollection -> {
-            // E049
-            validateBackwardsTimeTravelForStops.execute(resultRepo, stopTimeCollection, timeUtils);
-            // E054 and W013
-            validateStopTimeIncreasingDistance.execute(stopTimeCollection);
-            stopTimeCollection.values().forEach(stopTime -> {
-                final Trip trip = dataRepo.getTripById(stopTime.getTripId());
-                final Map<Integer, ShapePoint> shape = dataRepo.getShapeById(trip == null ? null : trip.getShapeId());
-                // E034 - cross validation
-                validateShapeIdReferenceInStopTime.execute(resultRepo, stopTime, shape, trip);
-                // E037 - cross validation
-                validateStopTimeTripId.execute(resultRepo, stopTime, dataRepo.getTripAll());
-            });
-        });
+        final Map<String, Trip> tripCollection = dataRepo.getTripAll();
+        final StopTimeCursor stopTime = dataRepo.getStopTimeCursor();
+        // rows of a trip are iterated one after the other: trip and shape are resolved once per trip
+        String currentTripId = null;
+        Trip trip = null;
+        ShapeView shape = null;
+        while (stopTime.next()) {
+            final String tripId = stopTime.getTripId();
+            if (!tripId.equals(currentTripId)) {
+                currentTripId = tripId;
+                trip = dataRepo.getTripById(tripId);
+                shape = dataRepo.getShapeViewById(trip == null ? null : trip.getShapeId());
+                // E049
+                validateBackwardsTimeTravelForStops.execute(resultRepo, dataRepo.getStopTimeCursorByTripId(tripId),
+                        timeUtils);
+                // E054 and W013
+                validateStopTimeIncreasingDistance.execute(dataRepo.getStopTimeCursorByTripId(tripId));
+            }
+            // E034 - cross validation
+            validateShapeIdReferenceInStopTime.execute(resultRepo, stopTime, shape, trip);
+            // E037 - cross validation
+            validateStopTimeTripId.execute(resultRepo, stopTime, tripCollection);
+        }
     }
 }
@@ -21,4 +21,5 @@ import java.nio.file.Path;
 public interface CustomFileUtils {
     long sizeOf(final Path pathToFile);
     long sizeOfDirectory(final Path pathToDirectory);
+    long sizeOfArchiveContent(final Path pathToArchive);
 }
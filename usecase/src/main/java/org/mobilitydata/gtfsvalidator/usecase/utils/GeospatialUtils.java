@@ -16,16 +16,15 @@
 
 package org.mobilitydata.gtfsvalidator.usecase.utils;
 
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stops.LocationBase;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.StopTooFarFromTripShapeNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
 
 public interface GeospatialUtils {
     int KILOMETER_TO_METER_CONVERSION_FACTOR = 1000; // conversion factor from kilometers to meters
@@ -45,8 +44,8 @@ public interface GeospatialUtils {
      * Returns a list of E052 errors for the given input, one for each stop that is too far from the trip shape
      *
      * @param trip        Trip for this GTFS trip
-     * @param stopTimes   a map of StopTimes for a trip, sorted by stop_sequence
-     * @param shape       a map of ShapePoints for a trip, sorted by shape_pt_sequence
+     * @param stopTimes   a cursor over the stop times of a trip, ordered by stop_sequence
+     * @param shape       a view of the shape points for a trip, ordered by shape_pt_sequence
      * @param stops       a map of all stops (keyed on stop_id), needed to obtain the latitude and longitude for each stop
      * @param testedCache a cache for previously tested shape_id and stop_id pairs (keyed on shape_id+stop_id). If the
      *                    combination of shape_id and stop_id appears in this set, we shouldn't test it again. Shapes
@@ -54,8 +53,8 @@ public interface GeospatialUtils {
      * @return a list of E052 errors, one for each stop that is too far from the trip shape
      */
     List<StopTooFarFromTripShapeNotice> checkStopsWithinTripShape(Trip trip,
-                                                                  SortedMap<Integer, StopTime> stopTimes,
-                                                                  SortedMap<Integer, ShapePoint> shape,
+                                                                  StopTimeCursor stopTimes,
+                                                                  ShapeView shape,
                                                                   Map<String, LocationBase> stops,
                                                                   Set<String> testedCache);
 }
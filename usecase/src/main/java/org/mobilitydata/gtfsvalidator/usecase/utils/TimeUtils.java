@@ -17,8 +17,24 @@
 package org.mobilitydata.gtfsvalidator.usecase.utils;
 
 public interface TimeUtils {
+    /**
+     * Returned by {@link #convertHHMMSSToSecondsFromNoonOfDayOfService(String)} for a value that is not a valid time
+     */
+    int INVALID_TIME = Integer.MIN_VALUE;
+
     Integer convertHHMMSSToIntFromNoonOfDayOfService(final String timeAsString);
 
+    /**
+     * Same as {@link #convertHHMMSSToIntFromNoonOfDayOfService(String)}, without boxing the result: invalid values are
+     * reported as {@link #INVALID_TIME} instead of null.
+     *
+     * @param timeAsString the time formatted as HH:MM:SS to convert as a number of seconds elapsed since noon of day
+     *                     of service
+     * @return the number of seconds elapsed since noon of day of service, {@link #INVALID_TIME} if the value is not a
+     * valid time
+     */
+    int convertHHMMSSToSecondsFromNoonOfDayOfService(final String timeAsString);
+
     String convertIntegerToHHMMSS(final Integer elapsedDurationSinceNoon);
 
     boolean arePeriodsOverlapping(final int firstPeriodFirstTime, final int firstPeriodLastTime,
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mobilitydata.gtfsvalidator.usecase.port.ExecParamRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ComputeValidationResultCacheKeyTest {
+
+    private static ExecParamRepository mockExecParamRepo(final Path archive, final String abortOnError) {
+        final ExecParamRepository mockExecParamRepo = mock(ExecParamRepository.class);
+        when(mockExecParamRepo.hasExecParamValue(ExecParamRepository.CACHE_KEY)).thenReturn(true);
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.INPUT_KEY)).thenReturn(archive.toString());
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.ABORT_ON_ERROR)).thenReturn(abortOnError);
+        return mockExecParamRepo;
+    }
+
+    @Test
+    void noCacheDirectoryShouldReturnEmptyKey() {
+        final ExecParamRepository mockExecParamRepo = mock(ExecParamRepository.class);
+        when(mockExecParamRepo.hasExecParamValue(ExecParamRepository.CACHE_KEY)).thenReturn(false);
+        final Logger mockLogger = mock(Logger.class);
+
+        final ComputeValidationResultCacheKey underTest =
+                new ComputeValidationResultCacheKey(mockExecParamRepo, "spec", "1.0", mockLogger);
+
+        assertTrue(underTest.execute().isEmpty());
+        verify(mockExecParamRepo, times(1)).hasExecParamValue(ExecParamRepository.CACHE_KEY);
+        verifyNoMoreInteractions(mockExecParamRepo);
+        verifyNoInteractions(mockLogger);
+    }
+
+    @Test
+    void keyShouldDependOnArchiveSpecAndExecParams(@TempDir final Path tempDir) throws IOException {
+        final Path archive = Files.write(tempDir.resolve("archive.zip"), new byte[]{1, 2, 3});
+        final Path otherArchive = Files.write(tempDir.resolve("other.zip"), new byte[]{1, 2, 4});
+        final Logger mockLogger = mock(Logger.class);
+
+        final Optional<String> key =
+                new ComputeValidationResultCacheKey(mockExecParamRepo(archive, "true"), "spec", "1.0", mockLogger).execute();
+
+        assertTrue(key.isPresent());
+        assertEquals(64, key.get().length());
+        assertEquals(key, new ComputeValidationResultCacheKey(
+                mockExecParamRepo(archive, "true"), "spec", "1.0", mockLogger).execute());
+        assertNotEquals(key, new ComputeValidationResultCacheKey(
+                mockExecParamRepo(otherArchive, "true"), "spec", "1.0", mockLogger).execute());
+        assertNotEquals(key, new ComputeValidationResultCacheKey(
+                mockExecParamRepo(archive, "true"), "other spec", "1.0", mockLogger).execute());
+        assertNotEquals(key, new ComputeValidationResultCacheKey(
+                mockExecParamRepo(archive, "false"), "spec", "1.0", mockLogger).execute());
+        assertNotEquals(key, new ComputeValidationResultCacheKey(
+                mockExecParamRepo(archive, "true"), "spec", "1.1", mockLogger).execute());
+        verifyNoInteractions(mockLogger);
+    }
+
+    @Test
+    void unreadableArchiveShouldReturnEmptyKeyAndLogWarning(@TempDir final Path tempDir) {
+        final Logger mockLogger = mock(Logger.class);
+
+        final ComputeValidationResultCacheKey underTest = new ComputeValidationResultCacheKey(
+                mockExecParamRepo(tempDir.resolve("missing.zip"), "true"), "spec", "1.0", mockLogger);
+
+        assertTrue(underTest.execute().isEmpty());
+        verify(mockLogger, times(1)).warn(anyString());
+    }
+
+    @Test
+    void dataSnapshotNotRequestedShouldReturnEmptyKey(@TempDir final Path tempDir) throws IOException {
+        final Path archive = Files.write(tempDir.resolve("archive.zip"), new byte[]{1, 2, 3});
+        final ExecParamRepository mockExecParamRepo = mockExecParamRepo(archive, "true");
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.DATA_SNAPSHOT_KEY)).thenReturn("false");
+        final Logger mockLogger = mock(Logger.class);
+
+        final ComputeValidationResultCacheKey underTest =
+                new ComputeValidationResultCacheKey(mockExecParamRepo, "spec", "1.0", mockLogger);
+
+        assertTrue(underTest.executeForDataSnapshot().isEmpty());
+        verify(mockExecParamRepo, never()).getExecParamValue(ExecParamRepository.INPUT_KEY);
+        verifyNoInteractions(mockLogger);
+    }
+
+    @Test
+    void dataSnapshotKeyShouldDifferFromValidationResultKey(@TempDir final Path tempDir) throws IOException {
+        final Path archive = Files.write(tempDir.resolve("archive.zip"), new byte[]{1, 2, 3});
+        final ExecParamRepository mockExecParamRepo = mockExecParamRepo(archive, "true");
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.DATA_SNAPSHOT_KEY)).thenReturn("true");
+        final Logger mockLogger = mock(Logger.class);
+
+        final ComputeValidationResultCacheKey underTest =
+                new ComputeValidationResultCacheKey(mockExecParamRepo, "spec", "1.0", mockLogger);
+        final Optional<String> snapshotKey = underTest.executeForDataSnapshot();
+
+        assertTrue(snapshotKey.isPresent());
+        assertEquals(64, snapshotKey.get().length());
+        assertNotEquals(snapshotKey, underTest.execute());
+        // the archive is only read once
+        verify(mockExecParamRepo, times(1)).getExecParamValue(ExecParamRepository.INPUT_KEY);
+        verifyNoInteractions(mockLogger);
+    }
+
+    @Test
+    void unknownValidatorVersionShouldReturnEmptyKeysAndLogWarning(@TempDir final Path tempDir) throws IOException {
+        final Path archive = Files.write(tempDir.resolve("archive.zip"), new byte[]{1, 2, 3});
+        final ExecParamRepository mockExecParamRepo = mockExecParamRepo(archive, "true");
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.DATA_SNAPSHOT_KEY)).thenReturn("true");
+        final Logger mockLogger = mock(Logger.class);
+
+        final ComputeValidationResultCacheKey underTest =
+                new ComputeValidationResultCacheKey(mockExecParamRepo, "spec", " ", mockLogger);
+
+        assertTrue(underTest.execute().isEmpty());
+        assertTrue(underTest.executeForDataSnapshot().isEmpty());
+        verify(mockExecParamRepo, never()).getExecParamValue(ExecParamRepository.INPUT_KEY);
+        verify(mockLogger, times(2)).warn(anyString());
+    }
+}
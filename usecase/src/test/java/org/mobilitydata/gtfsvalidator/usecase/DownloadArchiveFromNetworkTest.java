@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.CannotDownloadArchiveFromNetworkNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ExecParamRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DownloadArchiveFromNetworkTest {
+    private static final byte[] AGENCY_CONTENT = "agency_id\nagency0\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] STOP_TIMES_CONTENT =
+            "trip_id,stop_id\ntrip0,stop0\n".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private String serve(final String context, final byte[] content) {
+        server.createContext(context, exchange -> {
+            // chunked transfer encoding: the content is received progressively
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                for (int i = 0; i < content.length; i += 4096) {
+                    outputStream.write(content, i, Math.min(4096, content.length - i));
+                }
+            }
+        });
+        return "http://localhost:" + server.getAddress().getPort() + context;
+    }
+
+    private static byte[] createArchive() throws IOException {
+        final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(archive)) {
+            zipOutputStream.putNextEntry(new ZipEntry("agency.txt"));
+            zipOutputStream.write(AGENCY_CONTENT);
+            zipOutputStream.putNextEntry(new ZipEntry("folder/"));
+            zipOutputStream.putNextEntry(new ZipEntry("stop_times.txt"));
+            zipOutputStream.write(STOP_TIMES_CONTENT);
+        }
+        return archive.toByteArray();
+    }
+
+    private static byte[] createStoredArchive(final byte[] agencyContent) throws IOException {
+        final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(archive)) {
+            final ZipEntry entry = new ZipEntry("agency.txt");
+            final CRC32 crc = new CRC32();
+            crc.update(agencyContent);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(agencyContent.length);
+            entry.setCrc(crc.getValue());
+            zipOutputStream.putNextEntry(entry);
+            zipOutputStream.write(agencyContent);
+        }
+        return archive.toByteArray();
+    }
+
+    /**
+     * Returns an archive whose local header describes an entry with a given content, while its central directory
+     * describes the same entry with another content of the same length
+     */
+    private static byte[] createArchiveWithMismatchingCentralDirectory(final byte[] localContent,
+                                                                       final byte[] centralContent)
+            throws IOException {
+        final byte[] localArchive = createStoredArchive(localContent);
+        final byte[] centralArchive = createStoredArchive(centralContent);
+        // offset of the central directory, as recorded in the end of central directory record
+        final int centralDirectoryOffset = ByteBuffer.wrap(centralArchive, centralArchive.length - 6, 4)
+                .order(ByteOrder.LITTLE_ENDIAN).getInt();
+        final byte[] toReturn = centralArchive.clone();
+        System.arraycopy(localArchive, 0, toReturn, 0, centralDirectoryOffset);
+        return toReturn;
+    }
+
+    /**
+     * Returns the local header of a stored entry followed by a data descriptor, which can not be read from a stream
+     */
+    private static byte[] createStoredEntryWithDataDescriptor() {
+        final byte[] name = "agency.txt".getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer localHeader = ByteBuffer.allocate(30 + name.length + AGENCY_CONTENT.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        localHeader.putInt(0x04034b50).putShort((short) 10).putShort((short) 0x0008).putShort((short) 0)
+                .putInt(0).putInt(0).putInt(0).putInt(0).putShort((short) name.length).putShort((short) 0)
+                .put(name).put(AGENCY_CONTENT);
+        return localHeader.array();
+    }
+
+    private static long countTemporaryFiles() throws IOException {
+        try (Stream<Path> temporaryFiles = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return temporaryFiles.filter(path -> path.getFileName().toString().startsWith("gtfs-validator-"))
+                    .count();
+        }
+    }
+
+    private static ExecParamRepository mockExecParamRepo(final String url, final Path targetPath,
+                                                         final boolean streamDownload) {
+        final ExecParamRepository mockExecParamRepo = mock(ExecParamRepository.class);
+        when(mockExecParamRepo.hasExecParamValue(ExecParamRepository.URL_KEY)).thenReturn(true);
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.URL_KEY)).thenReturn(url);
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.INPUT_KEY)).thenReturn(targetPath.toString());
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.STREAM_DOWNLOAD_KEY))
+                .thenReturn(String.valueOf(streamDownload));
+        return mockExecParamRepo;
+    }
+
+    @Test
+    void streamedArchiveShouldBeWrittenToDiskAndDecompressed(@TempDir final Path tempDir) throws IOException {
+        final byte[] archive = createArchive();
+        final Path targetPath = tempDir.resolve("input.zip");
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+
+        final DownloadArchiveFromNetwork underTest = new DownloadArchiveFromNetwork(mockFileRepo, mockResultRepo,
+                mockExecParamRepo(serve("/gtfs.zip", archive), targetPath, true), mock(Logger.class));
+        underTest.execute();
+
+        assertArrayEquals(archive, Files.readAllBytes(targetPath));
+        final ArgumentCaptor<Path> agencyFile = ArgumentCaptor.forClass(Path.class);
+        final ArgumentCaptor<Path> stopTimesFile = ArgumentCaptor.forClass(Path.class);
+        verify(mockFileRepo, times(1)).putEntryFile(eq("agency.txt"), agencyFile.capture());
+        verify(mockFileRepo, times(1)).putEntryFile(eq("stop_times.txt"), stopTimesFile.capture());
+        verifyNoMoreInteractions(mockFileRepo);
+        assertArrayEquals(AGENCY_CONTENT, Files.readAllBytes(agencyFile.getValue()));
+        assertArrayEquals(STOP_TIMES_CONTENT, Files.readAllBytes(stopTimesFile.getValue()));
+        Files.delete(agencyFile.getValue());
+        Files.delete(stopTimesFile.getValue());
+        verifyNoInteractions(mockResultRepo);
+    }
+
+    @Test
+    void archiveThatCanNotBeStreamedShouldOnlyBeWrittenToDisk(@TempDir final Path tempDir) throws IOException {
+        final byte[] archive = createStoredEntryWithDataDescriptor();
+        final Path targetPath = tempDir.resolve("input.zip");
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+
+        final DownloadArchiveFromNetwork underTest = new DownloadArchiveFromNetwork(mockFileRepo, mockResultRepo,
+                mockExecParamRepo(serve("/stored.zip", archive), targetPath, true), mock(Logger.class));
+        underTest.execute();
+
+        assertArrayEquals(archive, Files.readAllBytes(targetPath));
+        verifyNoInteractions(mockFileRepo, mockResultRepo);
+    }
+
+    @Test
+    void contentNotMatchingCentralDirectoryShouldOnlyBeWrittenToDisk(@TempDir final Path tempDir)
+            throws IOException {
+        final byte[] archive = createArchiveWithMismatchingCentralDirectory(
+                "agency_id\nlocal0\n".getBytes(StandardCharsets.UTF_8),
+                "agency_id\ncentr0\n".getBytes(StandardCharsets.UTF_8));
+        final Path targetPath = tempDir.resolve("input.zip");
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+
+        final long temporaryFileCount = countTemporaryFiles();
+
+        final DownloadArchiveFromNetwork underTest = new DownloadArchiveFromNetwork(mockFileRepo, mockResultRepo,
+                mockExecParamRepo(serve("/mismatch.zip", archive), targetPath, true), mock(Logger.class));
+        underTest.execute();
+
+        assertArrayEquals(archive, Files.readAllBytes(targetPath));
+        verifyNoInteractions(mockFileRepo, mockResultRepo);
+        // the entry decompressed while downloading is deleted
+        assertEquals(temporaryFileCount, countTemporaryFiles());
+    }
+
+    @Test
+    void archiveShouldBeCopiedToDiskByDefault(@TempDir final Path tempDir) throws IOException {
+        final byte[] archive = createArchive();
+        final Path targetPath = tempDir.resolve("input.zip");
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+
+        final DownloadArchiveFromNetwork underTest = new DownloadArchiveFromNetwork(mockFileRepo,
+                mock(ValidationResultRepository.class),
+                mockExecParamRepo(serve("/gtfs.zip", archive), targetPath, false), mock(Logger.class));
+        underTest.execute();
+
+        assertArrayEquals(archive, Files.readAllBytes(targetPath));
+        verifyNoInteractions(mockFileRepo);
+    }
+
+    @Test
+    void downloadErrorShouldGenerateNotice(@TempDir final Path tempDir) {
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final String url = "http://localhost:" + server.getAddress().getPort() + "/missing.zip";
+
+        final DownloadArchiveFromNetwork underTest = new DownloadArchiveFromNetwork(mock(RawFileRepository.class),
+                mockResultRepo, mockExecParamRepo(url, tempDir.resolve("input.zip"), true), mock(Logger.class));
+
+        assertThrows(IOException.class, underTest::execute);
+        verify(mockResultRepo, times(1)).addNotice(any(CannotDownloadArchiveFromNetworkNotice.class));
+    }
+}
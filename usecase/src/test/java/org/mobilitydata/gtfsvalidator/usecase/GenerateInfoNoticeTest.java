@@ -61,15 +61,14 @@ class GenerateInfoNoticeTest {
         when(mockProcessedFilenameCollection.toString()).thenReturn("processed filename collection as String");
 
         final Path mockInputPath = mock(Path.class);
-        final Path mockExtractPath = mock(Path.class);
         when(mockInputPath.toString()).thenReturn("");
         final CustomFileUtils mockCustomFileUtils = mock(CustomFileUtils.class);
         when(mockCustomFileUtils.sizeOf(mockInputPath)).thenReturn(56L);
-        when(mockCustomFileUtils.sizeOfDirectory(mockExtractPath)).thenReturn(89L);
+        when(mockCustomFileUtils.sizeOfArchiveContent(mockInputPath)).thenReturn(89L);
 
         final GenerateInfoNotice underTest =
                 new GenerateInfoNotice(mockResultRepo, mockExecParamRepo, mockDataRepo, mockTimestamp,
-                        mockProcessingTime, mockProcessedFilenameCollection, mockCustomFileUtils, mockInputPath, mockExtractPath);
+                        mockProcessingTime, mockProcessedFilenameCollection, mockCustomFileUtils, mockInputPath);
 
         underTest.execute();
 
@@ -126,15 +125,14 @@ class GenerateInfoNoticeTest {
         when(mockProcessedFilenameCollection.toString()).thenReturn("processed filename collection as String");
 
         final Path mockInputPath = mock(Path.class);
-        final Path mockExtractPath = mock(Path.class);
         when(mockInputPath.toString()).thenReturn("");
         final CustomFileUtils mockCustomFileUtils = mock(CustomFileUtils.class);
         when(mockCustomFileUtils.sizeOf(mockInputPath)).thenReturn(56L);
-        when(mockCustomFileUtils.sizeOfDirectory(mockExtractPath)).thenReturn(89L);
+        when(mockCustomFileUtils.sizeOfArchiveContent(mockInputPath)).thenReturn(89L);
 
         final GenerateInfoNotice underTest =
                 new GenerateInfoNotice(mockResultRepo, mockExecParamRepo, mockDataRepo, mockTimestamp,
-                        mockProcessingTime, mockProcessedFilenameCollection, mockCustomFileUtils, mockInputPath, mockExtractPath);
+                        mockProcessingTime, mockProcessedFilenameCollection, mockCustomFileUtils, mockInputPath);
 
         underTest.execute();
 
@@ -186,15 +184,14 @@ class GenerateInfoNoticeTest {
         when(mockProcessedFilenameCollection.toString()).thenReturn("processed filename collection as String");
 
         final Path mockInputPath = mock(Path.class);
-        final Path mockExtractPath = mock(Path.class);
         when(mockInputPath.toString()).thenReturn("");
         final CustomFileUtils mockCustomFileUtils = mock(CustomFileUtils.class);
         when(mockCustomFileUtils.sizeOf(mockInputPath)).thenReturn(56L);
-        when(mockCustomFileUtils.sizeOfDirectory(mockExtractPath)).thenReturn(89L);
+        when(mockCustomFileUtils.sizeOfArchiveContent(mockInputPath)).thenReturn(89L);
 
         final GenerateInfoNotice underTest =
                 new GenerateInfoNotice(mockResultRepo, mockExecParamRepo, mockDataRepo, mockTimestamp,
-                        mockProcessingTime, mockProcessedFilenameCollection, mockCustomFileUtils, mockInputPath, mockExtractPath);
+                        mockProcessingTime, mockProcessedFilenameCollection, mockCustomFileUtils, mockInputPath);
 
         underTest.execute();
 
@@ -252,15 +249,14 @@ class GenerateInfoNoticeTest {
         when(mockProcessedFilenameCollection.toString()).thenReturn("processed filename collection as String");
 
         final Path mockInputPath = mock(Path.class);
-        final Path mockExtractPath = mock(Path.class);
         when(mockInputPath.toString()).thenReturn("");
         final CustomFileUtils mockCustomFileUtils = mock(CustomFileUtils.class);
         when(mockCustomFileUtils.sizeOf(mockInputPath)).thenReturn(56L);
-        when(mockCustomFileUtils.sizeOfDirectory(mockExtractPath)).thenReturn(89L);
+        when(mockCustomFileUtils.sizeOfArchiveContent(mockInputPath)).thenReturn(89L);
 
         final GenerateInfoNotice underTest =
                 new GenerateInfoNotice(mockResultRepo, mockExecParamRepo, mockDataRepo, mockTimestamp,
-                        mockProcessingTime, mockProcessedFilenameCollection, mockCustomFileUtils, mockInputPath, mockExtractPath);
+                        mockProcessingTime, mockProcessedFilenameCollection, mockCustomFileUtils, mockInputPath);
 
         underTest.execute();
 
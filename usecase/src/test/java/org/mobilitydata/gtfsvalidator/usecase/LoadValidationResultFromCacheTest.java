@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.warning.ExtraFileFoundNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultCacheRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LoadValidationResultFromCacheTest {
+
+    @Test
+    void cacheMissShouldNotAddNotice() {
+        final ValidationResultCacheRepository mockCacheRepo = mock(ValidationResultCacheRepository.class);
+        when(mockCacheRepo.findByKey("key")).thenReturn(Optional.empty());
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+
+        final LoadValidationResultFromCache underTest =
+                new LoadValidationResultFromCache(mockCacheRepo, mockResultRepo, mock(Logger.class));
+
+        assertTrue(underTest.execute("key").isEmpty());
+        verifyNoInteractions(mockResultRepo);
+    }
+
+    @Test
+    void cacheHitShouldAddNoticesInOrder() {
+        final Notice warning = new ExtraFileFoundNotice("extra.txt");
+        final Notice error = new InvalidRowLengthNotice("stops.txt", 3, 4, 5);
+        final CachedValidationResult cachedResult =
+                new CachedValidationResult("agency name", List.of("stops.txt"), List.of(warning, error));
+        final ValidationResultCacheRepository mockCacheRepo = mock(ValidationResultCacheRepository.class);
+        when(mockCacheRepo.findByKey("key")).thenReturn(Optional.of(cachedResult));
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final Logger mockLogger = mock(Logger.class);
+
+        final LoadValidationResultFromCache underTest =
+                new LoadValidationResultFromCache(mockCacheRepo, mockResultRepo, mockLogger);
+
+        assertEquals(Optional.of(cachedResult), underTest.execute("key"));
+        final InOrder inOrder = inOrder(mockResultRepo);
+        inOrder.verify(mockResultRepo, times(1)).addNotice(warning);
+        inOrder.verify(mockResultRepo, times(1)).addNotice(error);
+        verifyNoMoreInteractions(mockResultRepo);
+        verify(mockLogger, times(1)).info(anyString());
+    }
+}
@@ -46,7 +46,8 @@ class ParseSingleRowForFileTest {
         when(mockProvider.getNext()).thenReturn(testRawEntity);
 
         GtfsSpecRepository.RawEntityParser mockParser = mock(GtfsSpecRepository.RawEntityParser.class);
-        when(mockParser.validateNonStringTypes(any(RawEntity.class))).thenReturn(Collections.emptyList());
+        when(mockParser.parseWithNotices(any(RawEntity.class)))
+                .thenReturn(new GtfsSpecRepository.ParseResult(null, Collections.emptyList()));
 
         RawFileRepository mockFileRepo = mock(RawFileRepository.class);
         when(mockFileRepo.getProviderForFile(any(RawFileInfo.class))).thenReturn(Optional.of(mockProvider));
@@ -72,8 +73,7 @@ class ParseSingleRowForFileTest {
 
         inOrder.verify(mockFileRepo, times(1)).getProviderForFile(any(RawFileInfo.class));
         inOrder.verify(mockSpecRepo, times(1)).getParserForFile(any(RawFileInfo.class));
-        verify(mockParser, times(3)).validateNonStringTypes(any(RawEntity.class));
-        verify(mockParser, times(3)).parse(any(RawEntity.class));
+        verify(mockParser, times(3)).parseWithNotices(any(RawEntity.class));
         verify(mockProvider, times(4)).hasNext();
         verify(mockProvider, times(3)).getNext();
         verifyNoInteractions(mockResultRepo);
@@ -90,7 +90,8 @@ class ParseSingleRowForFileTest {
 
         GtfsSpecRepository.RawEntityParser mockParser = mock(GtfsSpecRepository.RawEntityParser.class);
         ErrorNotice testNotice = new MissingHeaderNotice("testName", "testHeader");
-        when(mockParser.validateNonStringTypes(any(RawEntity.class))).thenReturn(List.of(testNotice, testNotice, testNotice));
+        when(mockParser.parseWithNotices(any(RawEntity.class)))
+                .thenReturn(new GtfsSpecRepository.ParseResult(null, List.of(testNotice, testNotice, testNotice)));
 
         RawFileRepository mockFileRepo = mock(RawFileRepository.class);
         when(mockFileRepo.getProviderForFile(any(RawFileInfo.class))).thenReturn(Optional.of(mockProvider));
@@ -115,8 +116,7 @@ class ParseSingleRowForFileTest {
 
         inOrder.verify(mockFileRepo, times(1)).getProviderForFile(any(RawFileInfo.class));
         inOrder.verify(mockSpecRepo, times(1)).getParserForFile(any(RawFileInfo.class));
-        verify(mockParser, times(3)).validateNonStringTypes(any(RawEntity.class));
-        verify(mockParser, times(3)).parse(any(RawEntity.class));
+        verify(mockParser, times(3)).parseWithNotices(any(RawEntity.class));
         verify(mockProvider, times(3)).hasNext();
         verify(mockProvider, times(3)).getNext();
         verify(mockResultRepo, times(9)).addNotice(any(MissingHeaderNotice.class));
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.usecase.port.TooManyValidationErrorException;
+
+import java.util.*;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessFilesConcurrentlyTest {
+
+    @Test
+    void independentFilesShouldBeProcessedConcurrently() {
+        // both files have to be processed at the same time for the barrier to be passed
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final Set<String> processedFilenameSet = Collections.synchronizedSet(new HashSet<>());
+
+        new ProcessFilesConcurrently(2).execute(List.of("shapes.txt", "stop_times.txt"), Collections.emptyMap(),
+                filename -> {
+                    try {
+                        barrier.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                        throw new AssertionError(e);
+                    }
+                    processedFilenameSet.add(filename);
+                });
+
+        assertEquals(Set.of("shapes.txt", "stop_times.txt"), processedFilenameSet);
+    }
+
+    @Test
+    void fileShouldBeProcessedAfterFilesItDependsOn() {
+        final List<String> processedFilenameList = Collections.synchronizedList(new ArrayList<>());
+
+        new ProcessFilesConcurrently(4).execute(List.of("stops.txt", "routes.txt", "agency.txt"),
+                Map.of("stops.txt", List.of("agency.txt"), "routes.txt", List.of("agency.txt", "levels.txt")),
+                processedFilenameList::add);
+
+        assertEquals(3, processedFilenameList.size());
+        assertEquals("agency.txt", processedFilenameList.get(0));
+        assertTrue(processedFilenameList.containsAll(List.of("stops.txt", "routes.txt")));
+    }
+
+    @Test
+    void exceptionShouldBeRethrownAndRemainingFilesNotProcessed() {
+        final List<String> processedFilenameList = Collections.synchronizedList(new ArrayList<>());
+
+        assertThrows(TooManyValidationErrorException.class, () -> new ProcessFilesConcurrently(2).execute(
+                List.of("agency.txt", "stops.txt"),
+                Map.of("stops.txt", List.of("agency.txt")),
+                filename -> {
+                    processedFilenameList.add(filename);
+                    throw new TooManyValidationErrorException();
+                }));
+
+        assertEquals(List.of("agency.txt"), processedFilenameList);
+    }
+
+    @Test
+    void circularDependencyShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new ProcessFilesConcurrently(2).execute(
+                List.of("agency.txt", "stops.txt"),
+                Map.of("stops.txt", List.of("agency.txt"), "agency.txt", List.of("stops.txt")),
+                filename -> {
+                    throw new AssertionError("no file expected");
+                }));
+    }
+
+    @Test
+    void nonPositiveThreadCountShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new ProcessFilesConcurrently(0));
+    }
+}
@@ -198,4 +198,54 @@ class ProcessParsedShapePointTest {
         verifyNoMoreInteractions(mockBuilder, mockGtfsDataRepo, mockResultRepo, mockParsedShape, mockShapePoint,
                 mockGenericObject);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void bulkLoadedShapeShouldBeAppendedAndDuplicatesReportedOnceLoadIsComplete() {
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final GtfsDataRepository mockGtfsDataRepo = mock(GtfsDataRepository.class);
+        final ShapePoint.ShapeBuilder mockBuilder = mock(ShapePoint.ShapeBuilder.class, RETURNS_SELF);
+        final ParsedEntity mockParsedShape = mock(ParsedEntity.class);
+        final ShapePoint mockShapePoint = mock(ShapePoint.class);
+        final ShapePoint mockDuplicateShapePoint = mock(ShapePoint.class);
+        when(mockDuplicateShapePoint.getShapeId()).thenReturn("shape id");
+
+        final EntityBuildResult<?> mockGenericObject = mock(EntityBuildResult.class);
+        when(mockGenericObject.isSuccess()).thenReturn(true);
+        // suppressed warning regarding unused result of method, since this behavior is wanted
+        //noinspection ResultOfMethodCallIgnored
+        doReturn(mockShapePoint).when(mockGenericObject).getData();
+        doReturn(mockGenericObject).when(mockBuilder).build();
+        when(mockGtfsDataRepo.completeShapePointLoad()).thenReturn(List.of(mockDuplicateShapePoint));
+
+        final ProcessParsedShapePoint underTest =
+                new ProcessParsedShapePoint(mockResultRepo, mockGtfsDataRepo, mockBuilder, true);
+
+        underTest.execute(mockParsedShape);
+
+        verify(mockGtfsDataRepo, times(1)).appendShapePoint(ArgumentMatchers.eq(mockShapePoint));
+        verifyNoMoreInteractions(mockGtfsDataRepo);
+        verifyNoInteractions(mockResultRepo);
+
+        underTest.completeLoad();
+
+        verify(mockGtfsDataRepo, times(1)).completeShapePointLoad();
+        final ArgumentCaptor<DuplicatedEntityNotice> captor = ArgumentCaptor.forClass(DuplicatedEntityNotice.class);
+        verify(mockResultRepo, times(1)).addNotice(captor.capture());
+
+        assertEquals("shapes.txt", captor.getValue().getFilename());
+        assertEquals(SHAPE_ID, captor.getValue().getNoticeSpecific(Notice.KEY_FIELD_NAME));
+        assertEquals("shape id", captor.getValue().getEntityId());
+        verifyNoMoreInteractions(mockGtfsDataRepo, mockResultRepo);
+    }
+
+    @Test
+    public void completeLoadShouldDoNothingIfShapeIsNotBulkLoaded() {
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final GtfsDataRepository mockGtfsDataRepo = mock(GtfsDataRepository.class);
+        final ShapePoint.ShapeBuilder mockBuilder = mock(ShapePoint.ShapeBuilder.class, RETURNS_SELF);
+
+        new ProcessParsedShapePoint(mockResultRepo, mockGtfsDataRepo, mockBuilder).completeLoad();
+
+        verifyNoInteractions(mockResultRepo, mockGtfsDataRepo, mockBuilder);
+    }
+}
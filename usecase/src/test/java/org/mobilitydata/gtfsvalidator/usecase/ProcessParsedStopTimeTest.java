@@ -301,4 +301,103 @@ class ProcessParsedStopTimeTest {
         verifyNoMoreInteractions(mockBuilder, mockEntityBuildResult, mockParsedEntity, mockResultRepo,
                 mockEntityBuildResult, mockDataRepo);
     }
+
+    @Test
+    void duplicateDecodedStopTimeShouldGenerateNoticeFromBuiltEntity() {
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
+        final EntityBuildResult<?> mockEntityBuildResult = mock(EntityBuildResult.class);
+
+        final StopTime mockStopTime = mock(StopTime.class);
+        when(mockStopTime.getTripId()).thenReturn("trip_id");
+        when(mockStopTime.getStopSequence()).thenReturn(3);
+
+        final StopTime.StopTimeBuilder mockBuilder = mock(StopTime.StopTimeBuilder.class, RETURNS_SELF);
+        doReturn(mockEntityBuildResult).when(mockBuilder).build();
+        doReturn(true).when(mockEntityBuildResult).isSuccess();
+        // suppressed warning regarding unused result of method, since this behavior is wanted
+        //noinspection ResultOfMethodCallIgnored
+        doReturn(mockStopTime).when(mockEntityBuildResult).getData();
+
+        when(mockDataRepo.addStopTime(mockStopTime)).thenReturn(null);
+
+        final ProcessParsedStopTime underTest = new ProcessParsedStopTime(mockResultRepo, mockDataRepo,
+                mock(TimeUtils.class), mock(StopTime.StopTimeBuilder.class));
+
+        underTest.execute(mockBuilder);
+
+        // the builder is filled by the decoder: it is only built
+        verify(mockBuilder, times(1)).build();
+        verify(mockDataRepo, times(1)).addStopTime(mockStopTime);
+
+        final ArgumentCaptor<DuplicatedEntityNotice> captor = ArgumentCaptor.forClass(DuplicatedEntityNotice.class);
+
+        verify(mockResultRepo, times(1)).addNotice(captor.capture());
+
+        final List<DuplicatedEntityNotice> noticeList = captor.getAllValues();
+
+        assertEquals("stop_times.txt", noticeList.get(0).getFilename());
+        assertEquals("trip_id", noticeList.get(0).getNoticeSpecific(KEY_COMPOSITE_KEY_FIRST_PART));
+        assertEquals("stop_sequence", noticeList.get(0).getNoticeSpecific(KEY_COMPOSITE_KEY_SECOND_PART));
+        assertEquals("trip_id", noticeList.get(0).getNoticeSpecific(KEY_COMPOSITE_KEY_FIRST_VALUE));
+        assertEquals(3, noticeList.get(0).getNoticeSpecific(KEY_COMPOSITE_KEY_SECOND_VALUE));
+
+        verifyNoMoreInteractions(mockBuilder, mockResultRepo, mockDataRepo);
+    }
+
+    @Test
+    void bulkLoadedStopTimeShouldBeAppendedAndDuplicatesReportedOnceLoadIsComplete() {
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
+        final EntityBuildResult<?> mockEntityBuildResult = mock(EntityBuildResult.class);
+
+        final StopTime mockStopTime = mock(StopTime.class);
+        final StopTime mockDuplicateStopTime = mock(StopTime.class);
+        when(mockDuplicateStopTime.getTripId()).thenReturn("trip_id");
+        when(mockDuplicateStopTime.getStopSequence()).thenReturn(3);
+
+        final StopTime.StopTimeBuilder mockBuilder = mock(StopTime.StopTimeBuilder.class, RETURNS_SELF);
+        doReturn(mockEntityBuildResult).when(mockBuilder).build();
+        doReturn(true).when(mockEntityBuildResult).isSuccess();
+        // suppressed warning regarding unused result of method, since this behavior is wanted
+        //noinspection ResultOfMethodCallIgnored
+        doReturn(mockStopTime).when(mockEntityBuildResult).getData();
+
+        when(mockDataRepo.completeStopTimeLoad()).thenReturn(List.of(mockDuplicateStopTime));
+
+        final ProcessParsedStopTime underTest = new ProcessParsedStopTime(mockResultRepo, mockDataRepo,
+                mock(TimeUtils.class), mock(StopTime.StopTimeBuilder.class), true);
+
+        underTest.execute(mockBuilder);
+
+        verify(mockDataRepo, times(1)).appendStopTime(mockStopTime);
+        verifyNoMoreInteractions(mockDataRepo);
+        verifyNoInteractions(mockResultRepo);
+
+        underTest.completeLoad();
+
+        verify(mockDataRepo, times(1)).completeStopTimeLoad();
+        final ArgumentCaptor<DuplicatedEntityNotice> captor = ArgumentCaptor.forClass(DuplicatedEntityNotice.class);
+        verify(mockResultRepo, times(1)).addNotice(captor.capture());
+
+        final DuplicatedEntityNotice notice = captor.getValue();
+        assertEquals("stop_times.txt", notice.getFilename());
+        assertEquals("trip_id", notice.getNoticeSpecific(KEY_COMPOSITE_KEY_FIRST_PART));
+        assertEquals("stop_sequence", notice.getNoticeSpecific(KEY_COMPOSITE_KEY_SECOND_PART));
+        assertEquals("trip_id", notice.getNoticeSpecific(KEY_COMPOSITE_KEY_FIRST_VALUE));
+        assertEquals(3, notice.getNoticeSpecific(KEY_COMPOSITE_KEY_SECOND_VALUE));
+
+        verifyNoMoreInteractions(mockResultRepo, mockDataRepo);
+    }
+
+    @Test
+    void completeLoadShouldDoNothingIfStopTimeIsNotBulkLoaded() {
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
+
+        new ProcessParsedStopTime(mockResultRepo, mockDataRepo, mock(TimeUtils.class),
+                mock(StopTime.StopTimeBuilder.class)).completeLoad();
+
+        verifyNoInteractions(mockResultRepo, mockDataRepo);
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReserveDataRepositoryCapacityTest {
+    private static final String FILENAME = "stop_times.txt";
+
+    /**
+     * Returns a data provider whose rows are all "trip0,stop0" under headers "trip_id,stop_id": 12 bytes per row and
+     * 16 bytes for the headers
+     */
+    private static RawFileRepository.RawEntityProvider mockProvider(final int rowCount) {
+        final RawFileRepository.RawEntityProvider mockProvider = mock(RawFileRepository.RawEntityProvider.class);
+        final List<RawEntity> rowList = new ArrayList<>();
+        for (int i = 0; i < rowCount; ++i) {
+            rowList.add(new RawEntity(Map.of("trip_id", "trip0", "stop_id", "stop0"), i + 2));
+        }
+        final int[] nextIndex = {0};
+        when(mockProvider.getHeaders()).thenReturn(List.of("trip_id", "stop_id"));
+        when(mockProvider.getHeaderCount()).thenReturn(2);
+        when(mockProvider.hasNext()).thenAnswer(invocation -> nextIndex[0] < rowList.size());
+        when(mockProvider.getNext()).thenAnswer(invocation -> rowList.get(nextIndex[0]++));
+        return mockProvider;
+    }
+
+    private static RawFileRepository mockRawFileRepo(final long fileSize, final int rowCount) {
+        final RawFileInfo fileInfo = RawFileInfo.builder().filename(FILENAME).build();
+        final RawFileRepository.RawEntityProvider mockProvider = mockProvider(rowCount);
+        final RawFileRepository mockRawFileRepo = mock(RawFileRepository.class);
+        when(mockRawFileRepo.findByName(FILENAME)).thenReturn(Optional.of(fileInfo));
+        when(mockRawFileRepo.getFileSize(fileInfo)).thenReturn(fileSize);
+        when(mockRawFileRepo.getProviderForFile(fileInfo)).thenReturn(Optional.of(mockProvider));
+        return mockRawFileRepo;
+    }
+
+    @Test
+    void rowCountOfLargeFileShouldBeEstimatedFromSizeAndFirstRows() {
+        final int rowCount = 1_000_000;
+        final RawFileRepository mockRawFileRepo = mockRawFileRepo(16 + 12L * rowCount, rowCount);
+        final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
+        final Logger mockLogger = mock(Logger.class);
+
+        new ReserveDataRepositoryCapacity(mockRawFileRepo, mockDataRepo, mockLogger).execute(List.of(FILENAME));
+
+        verify(mockDataRepo, times(1)).reserveCapacity(FILENAME, rowCount + 1);
+        verify(mockLogger, times(1)).info("Reserving capacity for " + (rowCount + 1) + " rows of file: " + FILENAME);
+        verifyNoMoreInteractions(mockDataRepo, mockLogger);
+    }
+
+    @Test
+    void rowCountOfFileReadAsAWholeShouldBeExact() {
+        final RawFileRepository mockRawFileRepo = mockRawFileRepo(16 + 12L * 3, 3);
+        final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
+
+        new ReserveDataRepositoryCapacity(mockRawFileRepo, mockDataRepo, mock(Logger.class))
+                .execute(List.of(FILENAME));
+
+        verify(mockDataRepo, times(1)).reserveCapacity(FILENAME, 3);
+        verifyNoMoreInteractions(mockDataRepo);
+    }
+
+    @Test
+    void fileWithoutSizeOrRowsShouldBeSkipped() {
+        final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
+        final Logger mockLogger = mock(Logger.class);
+
+        new ReserveDataRepositoryCapacity(mockRawFileRepo(-1, 3), mockDataRepo, mockLogger)
+                .execute(List.of(FILENAME));
+        new ReserveDataRepositoryCapacity(mockRawFileRepo(16, 0), mockDataRepo, mockLogger)
+                .execute(List.of(FILENAME, "missing.txt"));
+
+        verify(mockDataRepo, never()).reserveCapacity(anyString(), anyInt());
+        verifyNoInteractions(mockLogger);
+    }
+
+    @Test
+    void providerShouldBeClosedOnceFirstRowsAreRead() {
+        final RawFileRepository mockRawFileRepo = mockRawFileRepo(16 + 12L * 1000, 1000);
+        final RawFileRepository.RawEntityProvider mockProvider =
+                mockRawFileRepo.getProviderForFile(mockRawFileRepo.findByName(FILENAME).orElseThrow()).orElseThrow();
+
+        new ReserveDataRepositoryCapacity(mockRawFileRepo, mock(GtfsDataRepository.class), mock(Logger.class))
+                .execute(List.of(FILENAME));
+
+        verify(mockProvider, times(1)).close();
+    }
+
+    @Test
+    void utf8LengthShouldCountEncodedBytes() {
+        assertEquals(0, ReserveDataRepositoryCapacity.utf8Length(null));
+        assertEquals(5, ReserveDataRepositoryCapacity.utf8Length("stop0"));
+        assertEquals(9, ReserveDataRepositoryCapacity.utf8Length("Montr\u00e9al"));
+        assertEquals(6, ReserveDataRepositoryCapacity.utf8Length("\u6771\u4eac"));
+        assertEquals(4, ReserveDataRepositoryCapacity.utf8Length("\uD83D\uDE8C"));
+    }
+}
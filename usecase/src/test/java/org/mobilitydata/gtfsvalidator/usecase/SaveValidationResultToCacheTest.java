@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.CachedValidationResult;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.info.ValidationProcessInfoNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.warning.ExtraFileFoundNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultCacheRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SaveValidationResultToCacheTest {
+
+    private static ValidationResultRepository mockResultRepo(final Notice... notices) {
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        when(mockResultRepo.getAll()).thenReturn(List.of(notices));
+        return mockResultRepo;
+    }
+
+    private static GtfsDataRepository mockDataRepo() {
+        final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
+        when(mockDataRepo.getFeedPublisherName()).thenReturn("feed publisher name");
+        return mockDataRepo;
+    }
+
+    @Test
+    void noticesExceptInfoNoticeShouldBeSaved() throws IOException {
+        final Notice infoNotice = new ValidationProcessInfoNotice("feed publisher name", "timestamp", 1, 0,
+                "archive.zip", 0, 0, "version", "[stops.txt]", 0);
+        final Notice warning = new ExtraFileFoundNotice("extra.txt");
+        final ValidationResultCacheRepository mockCacheRepo = mock(ValidationResultCacheRepository.class);
+        final Logger mockLogger = mock(Logger.class);
+
+        final SaveValidationResultToCache underTest = new SaveValidationResultToCache(mockCacheRepo,
+                mockResultRepo(infoNotice, warning), mockDataRepo(), mockLogger);
+
+        underTest.execute("key", Set.of("stops.txt"));
+
+        final ArgumentCaptor<CachedValidationResult> captor = ArgumentCaptor.forClass(CachedValidationResult.class);
+        verify(mockCacheRepo, times(1)).save(eq("key"), captor.capture());
+        assertEquals("feed publisher name", captor.getValue().getFeedPublisherNameOrAgencyName());
+        assertEquals(List.of("stops.txt"), captor.getValue().getProcessedFilenameList());
+        assertEquals(List.of(warning), captor.getValue().getNoticeList());
+        verifyNoInteractions(mockLogger);
+    }
+
+    @Test
+    void failureToSaveShouldBeLogged() throws IOException {
+        final ValidationResultCacheRepository mockCacheRepo = mock(ValidationResultCacheRepository.class);
+        doThrow(new IOException("disk full")).when(mockCacheRepo).save(anyString(), any());
+        final Logger mockLogger = mock(Logger.class);
+
+        final SaveValidationResultToCache underTest =
+                new SaveValidationResultToCache(mockCacheRepo, mockResultRepo(), mockDataRepo(), mockLogger);
+
+        underTest.execute("key", Set.of());
+
+        verify(mockLogger, times(1)).warn(anyString());
+    }
+}
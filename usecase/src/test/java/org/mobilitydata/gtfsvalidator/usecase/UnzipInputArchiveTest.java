@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.CannotUnzipInputArchiveNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.warning.InputZipContainsFolderNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ExecParamRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UnzipInputArchiveTest {
+    private static final byte[] AGENCY_CONTENT = "agency_id\nagency0\n".getBytes(StandardCharsets.UTF_8);
+    // larger than the extraction buffer
+    private static final byte[] STOP_TIMES_CONTENT =
+            "trip_id,stop_id\ntrip0,stop0\n".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+
+    private static Path createArchive(final Path directory) throws IOException {
+        final Path archive = directory.resolve("gtfs.zip");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zipOutputStream.putNextEntry(new ZipEntry("agency.txt"));
+            zipOutputStream.write(AGENCY_CONTENT);
+            zipOutputStream.putNextEntry(new ZipEntry("folder/"));
+            zipOutputStream.putNextEntry(new ZipEntry("stop_times.txt"));
+            zipOutputStream.write(STOP_TIMES_CONTENT);
+            // the folder is not extracted, hence this file can not be extracted either
+            zipOutputStream.putNextEntry(new ZipEntry("folder/stops.txt"));
+            zipOutputStream.write(AGENCY_CONTENT);
+        }
+        return archive;
+    }
+
+    private static ExecParamRepository mockExecParamRepo(final Path archive, final boolean extractToDisk) {
+        final ExecParamRepository mockExecParamRepo = mock(ExecParamRepository.class);
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.EXTRACT_TO_DISK_KEY))
+                .thenReturn(String.valueOf(extractToDisk));
+        when(mockExecParamRepo.getExecParamValue(ExecParamRepository.INPUT_KEY)).thenReturn(archive.toString());
+        return mockExecParamRepo;
+    }
+
+    @Test
+    void extractionShouldRegisterFilesAndGenerateNoticesInArchiveOrder(@TempDir final Path tempDir)
+            throws IOException {
+        final Path archive = createArchive(tempDir);
+        final Path extractPath = Files.createDirectory(tempDir.resolve("extract"));
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+
+        final UnzipInputArchive underTest = new UnzipInputArchive(mockFileRepo, extractPath, mockResultRepo,
+                mockExecParamRepo(archive, true), mock(Logger.class));
+        underTest.execute();
+
+        final ArgumentCaptor<RawFileInfo> captor = ArgumentCaptor.forClass(RawFileInfo.class);
+        final InOrder inOrder = inOrder(mockFileRepo, mockResultRepo);
+        inOrder.verify(mockFileRepo, times(1)).create(captor.capture());
+        inOrder.verify(mockResultRepo, times(1)).addNotice(any(InputZipContainsFolderNotice.class));
+        inOrder.verify(mockFileRepo, times(1)).create(captor.capture());
+        inOrder.verify(mockResultRepo, times(1)).addNotice(any(CannotUnzipInputArchiveNotice.class));
+        verifyNoMoreInteractions(mockFileRepo, mockResultRepo);
+
+        assertEquals("agency.txt", captor.getAllValues().get(0).getFilename());
+        assertEquals("stop_times.txt", captor.getAllValues().get(1).getFilename());
+        assertEquals(extractPath.toAbsolutePath().toString(), captor.getAllValues().get(1).getPath());
+        assertArrayEquals(AGENCY_CONTENT, Files.readAllBytes(extractPath.resolve("agency.txt")));
+        assertArrayEquals(STOP_TIMES_CONTENT, Files.readAllBytes(extractPath.resolve("stop_times.txt")));
+    }
+
+    @Test
+    void filesShouldBeReadFromArchiveByDefault(@TempDir final Path tempDir) throws IOException {
+        final Path archive = createArchive(tempDir);
+        final Path extractPath = Files.createDirectory(tempDir.resolve("extract"));
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+
+        final UnzipInputArchive underTest = new UnzipInputArchive(mockFileRepo, extractPath, mockResultRepo,
+                mockExecParamRepo(archive, false), mock(Logger.class));
+        underTest.execute();
+
+        final ArgumentCaptor<RawFileInfo> captor = ArgumentCaptor.forClass(RawFileInfo.class);
+        verify(mockFileRepo, times(3)).create(captor.capture());
+        verify(mockResultRepo, times(1)).addNotice(any(InputZipContainsFolderNotice.class));
+        verifyNoMoreInteractions(mockFileRepo, mockResultRepo);
+
+        assertEquals(List.of("agency.txt", "stop_times.txt", "folder/stops.txt"),
+                List.of(captor.getAllValues().get(0).getFilename(), captor.getAllValues().get(1).getFilename(),
+                        captor.getAllValues().get(2).getFilename()));
+        assertEquals(archive.toString(), captor.getAllValues().get(0).getPath());
+        assertEquals(0, Files.list(extractPath).count());
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.MissingRequiredValueNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ValidateAndDecodeSingleRowForFileTest {
+
+    @Test
+    void rowsShouldBeDecodedIntoTheSameBuilder() {
+        final RawFileRepository.RawEntityProvider mockProvider = mock(RawFileRepository.RawEntityProvider.class);
+        final List<String> headers = List.of("testKey");
+        when(mockProvider.getHeaders()).thenReturn(headers);
+        when(mockProvider.hasNext()).thenReturn(true, true, true, true, true, true, true, false);
+        final RawEntity testRawEntity = new RawEntity(Map.of("testKey", "testValue"), 2);
+        when(mockProvider.getNext()).thenReturn(testRawEntity);
+        when(mockProvider.getHeaderCount()).thenReturn(1);
+
+        @SuppressWarnings("unchecked") final GtfsSpecRepository.TypedRowDecoder<StopTime.StopTimeBuilder> mockDecoder =
+                mock(GtfsSpecRepository.TypedRowDecoder.class);
+
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProviderForFile(any(RawFileInfo.class))).thenReturn(Optional.of(mockProvider));
+
+        final TimeUtils mockTimeUtils = mock(TimeUtils.class);
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        when(mockSpecRepo.getTypedDecoderForFile(any(RawFileInfo.class), eq(StopTime.StopTimeBuilder.class),
+                same(mockTimeUtils))).thenReturn(mockDecoder);
+
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final ValidateCsvNotEmptyForFile mockValidateCsvNotEmpty = mock(ValidateCsvNotEmptyForFile.class);
+        final ValidateHeadersForFile mockValidateHeaders = mock(ValidateHeadersForFile.class);
+        final StopTime.StopTimeBuilder mockBuilder = mock(StopTime.StopTimeBuilder.class);
+
+        final ValidateAndDecodeSingleRowForFile<StopTime.StopTimeBuilder> underTest =
+                new ValidateAndDecodeSingleRowForFile<>(
+                        RawFileInfo.builder().filename("stop_times.txt").build(),
+                        mockFileRepo,
+                        mockSpecRepo,
+                        mockResultRepo,
+                        mockValidateCsvNotEmpty,
+                        mockValidateHeaders,
+                        StopTime.StopTimeBuilder.class,
+                        mockBuilder,
+                        mockTimeUtils
+                );
+
+        underTest.validateFileStructure();
+        while (underTest.hasNext()) {
+            assertSame(mockBuilder, underTest.execute());
+        }
+        assertNull(underTest.execute());
+
+        verify(mockFileRepo, times(1)).getProviderForFile(any(RawFileInfo.class));
+        verify(mockSpecRepo, times(1)).getTypedDecoderForFile(any(RawFileInfo.class),
+                eq(StopTime.StopTimeBuilder.class), same(mockTimeUtils));
+        verify(mockValidateCsvNotEmpty, times(1)).execute(headers, true);
+        verify(mockValidateHeaders, times(1)).execute(headers);
+        verify(mockDecoder, times(3)).decode(same(testRawEntity), same(mockBuilder), anyList());
+        verifyNoInteractions(mockResultRepo, mockBuilder);
+        verifyNoMoreInteractions(mockFileRepo, mockSpecRepo, mockDecoder, mockValidateCsvNotEmpty,
+                mockValidateHeaders);
+    }
+
+    @Test
+    void invalidRowLengthAndDecodingNoticesShouldBeAddedToRepo() {
+        final RawFileRepository.RawEntityProvider mockProvider = mock(RawFileRepository.RawEntityProvider.class);
+        when(mockProvider.getHeaders()).thenReturn(List.of("testKey", "otherKey"));
+        when(mockProvider.hasNext()).thenReturn(true);
+        final RawEntity testRawEntity = new RawEntity(Map.of("testKey", "testValue"), 2);
+        when(mockProvider.getNext()).thenReturn(testRawEntity);
+        when(mockProvider.getHeaderCount()).thenReturn(2);
+
+        final Notice decodingNotice = new MissingRequiredValueNotice("stop_times.txt", "otherKey", null);
+        @SuppressWarnings("unchecked") final GtfsSpecRepository.TypedRowDecoder<StopTime.StopTimeBuilder> mockDecoder =
+                mock(GtfsSpecRepository.TypedRowDecoder.class);
+        doAnswer(invocation -> {
+            final List<Notice> noticeList = invocation.getArgument(2);
+            noticeList.add(decodingNotice);
+            return null;
+        }).when(mockDecoder).decode(any(), any(), anyList());
+
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProviderForFile(any(RawFileInfo.class))).thenReturn(Optional.of(mockProvider));
+
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        when(mockSpecRepo.getTypedDecoderForFile(any(RawFileInfo.class), eq(StopTime.StopTimeBuilder.class), any()))
+                .thenReturn(mockDecoder);
+
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+
+        final ValidateAndDecodeSingleRowForFile<StopTime.StopTimeBuilder> underTest =
+                new ValidateAndDecodeSingleRowForFile<>(
+                        RawFileInfo.builder().filename("stop_times.txt").build(),
+                        mockFileRepo,
+                        mockSpecRepo,
+                        mockResultRepo,
+                        mock(ValidateCsvNotEmptyForFile.class),
+                        mock(ValidateHeadersForFile.class),
+                        StopTime.StopTimeBuilder.class,
+                        mock(StopTime.StopTimeBuilder.class),
+                        mock(TimeUtils.class)
+                );
+
+        underTest.execute();
+        underTest.execute();
+
+        verify(mockResultRepo, times(2)).addNotice(any(InvalidRowLengthNotice.class));
+        verify(mockResultRepo, times(2)).addNotice(decodingNotice);
+        verifyNoMoreInteractions(mockResultRepo);
+    }
+
+    @Test
+    void fileWithoutDecoderShouldThrowException() {
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProviderForFile(any(RawFileInfo.class)))
+                .thenReturn(Optional.of(mock(RawFileRepository.RawEntityProvider.class)));
+
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+
+        assertThrows(IllegalArgumentException.class, () -> new ValidateAndDecodeSingleRowForFile<>(
+                RawFileInfo.builder().filename("trips.txt").build(),
+                mockFileRepo,
+                mockSpecRepo,
+                mock(ValidationResultRepository.class),
+                mock(ValidateCsvNotEmptyForFile.class),
+                mock(ValidateHeadersForFile.class),
+                StopTime.StopTimeBuilder.class,
+                mock(StopTime.StopTimeBuilder.class),
+                mock(TimeUtils.class)
+        ));
+    }
+
+    @Test
+    void providerErrorShouldBeReportedAsEmptyFile() {
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProviderForFile(any(RawFileInfo.class))).thenReturn(Optional.empty());
+
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final ValidateCsvNotEmptyForFile mockValidateCsvNotEmpty = mock(ValidateCsvNotEmptyForFile.class);
+        final ValidateHeadersForFile mockValidateHeaders = mock(ValidateHeadersForFile.class);
+
+        final ValidateAndDecodeSingleRowForFile<StopTime.StopTimeBuilder> underTest =
+                new ValidateAndDecodeSingleRowForFile<>(
+                        RawFileInfo.builder().filename("stop_times.txt").build(),
+                        mockFileRepo,
+                        mockSpecRepo,
+                        mockResultRepo,
+                        mockValidateCsvNotEmpty,
+                        mockValidateHeaders,
+                        StopTime.StopTimeBuilder.class,
+                        mock(StopTime.StopTimeBuilder.class),
+                        mock(TimeUtils.class)
+                );
+
+        underTest.validateFileStructure();
+
+        verify(mockValidateCsvNotEmpty, times(1)).execute(Collections.emptyList(), false);
+        verify(mockValidateHeaders, times(1)).execute(Collections.emptyList());
+        verifyNoMoreInteractions(mockSpecRepo, mockResultRepo, mockValidateCsvNotEmpty, mockValidateHeaders);
+    }
+}
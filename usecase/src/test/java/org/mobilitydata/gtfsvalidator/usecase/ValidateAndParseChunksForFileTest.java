@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.CannotParseFloatNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+import org.mockito.InOrder;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ValidateAndParseChunksForFileTest {
+
+    private static RawFileRepository.RawEntityProvider mockProvider(final RawEntity... rawEntities) {
+        final RawFileRepository.RawEntityProvider mockProvider = mock(RawFileRepository.RawEntityProvider.class);
+        final Iterator<RawEntity> rawEntityIterator = Arrays.asList(rawEntities).iterator();
+        when(mockProvider.getHeaders()).thenReturn(List.of("testKey", "otherKey"));
+        when(mockProvider.getHeaderCount()).thenReturn(2);
+        when(mockProvider.hasNext()).then(invocation -> rawEntityIterator.hasNext());
+        when(mockProvider.getNext()).then(invocation -> rawEntityIterator.next());
+        return mockProvider;
+    }
+
+    @Test
+    void rowsOfAllChunksShouldBeConsumedInFileOrder() {
+        final RawEntity firstRawEntity = new RawEntity(Map.of("testKey", "a", "otherKey", "b"), 2);
+        final RawEntity secondRawEntity = new RawEntity(Map.of("testKey", "c"), 3);
+        final RawEntity thirdRawEntity = new RawEntity(Map.of("testKey", "d", "otherKey", "e"), 5);
+        final List<RawFileRepository.RawEntityProvider> providerList = List.of(
+                mockProvider(firstRawEntity, secondRawEntity),
+                mockProvider(),
+                mockProvider(thirdRawEntity));
+
+        final ParsedEntity firstParsedEntity = mock(ParsedEntity.class);
+        final ParsedEntity secondParsedEntity = mock(ParsedEntity.class);
+        final ParsedEntity thirdParsedEntity = mock(ParsedEntity.class);
+        final ErrorNotice typeNotice = new CannotParseFloatNotice("test.tst", "testKey", 5, "d");
+        final GtfsSpecRepository.RawEntityParser mockParser = mock(GtfsSpecRepository.RawEntityParser.class);
+        when(mockParser.parseWithNotices(firstRawEntity))
+                .thenReturn(new GtfsSpecRepository.ParseResult(firstParsedEntity, Collections.emptyList()));
+        when(mockParser.parseWithNotices(secondRawEntity))
+                .thenReturn(new GtfsSpecRepository.ParseResult(secondParsedEntity, Collections.emptyList()));
+        when(mockParser.parseWithNotices(thirdRawEntity))
+                .thenReturn(new GtfsSpecRepository.ParseResult(thirdParsedEntity, List.of(typeNotice)));
+
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProvidersForFileChunks(any(RawFileInfo.class), anyLong())).thenReturn(providerList);
+
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        when(mockSpecRepo.getParserForFile(any(RawFileInfo.class))).thenReturn(mockParser);
+
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final ValidateCsvNotEmptyForFile mockValidateCsvNotEmpty = mock(ValidateCsvNotEmptyForFile.class);
+        final ValidateHeadersForFile mockValidateHeaders = mock(ValidateHeadersForFile.class);
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+
+        final ValidateAndParseChunksForFile underTest = new ValidateAndParseChunksForFile(
+                RawFileInfo.builder().filename("test.tst").build(),
+                mockFileRepo,
+                mockSpecRepo,
+                mockResultRepo,
+                mockValidateCsvNotEmpty,
+                mockValidateHeaders,
+                forkJoinPool,
+                1024
+        );
+
+        final List<ParsedEntity> consumedEntityList = new ArrayList<>();
+        underTest.validateFileStructure();
+        underTest.execute(consumedEntityList::add);
+        forkJoinPool.shutdown();
+
+        assertEquals(List.of(firstParsedEntity, secondParsedEntity, thirdParsedEntity), consumedEntityList);
+        verify(mockFileRepo, times(1)).getProvidersForFileChunks(any(RawFileInfo.class), eq(1024L));
+        verify(mockSpecRepo, times(1)).getParserForFile(any(RawFileInfo.class));
+        verify(mockValidateCsvNotEmpty, times(1)).execute(List.of("testKey", "otherKey"), true);
+        verify(mockValidateHeaders, times(1)).execute(List.of("testKey", "otherKey"));
+        final InOrder inOrder = inOrder(mockResultRepo);
+        inOrder.verify(mockResultRepo, times(1)).addNotice(any(InvalidRowLengthNotice.class));
+        inOrder.verify(mockResultRepo, times(1)).addNotice(typeNotice);
+        verifyNoMoreInteractions(mockResultRepo, mockValidateCsvNotEmpty, mockValidateHeaders);
+    }
+
+    @Test
+    void providerErrorShouldBeReportedAsEmptyFile() {
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProvidersForFileChunks(any(RawFileInfo.class), anyLong()))
+                .thenReturn(Collections.emptyList());
+
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final ValidateCsvNotEmptyForFile mockValidateCsvNotEmpty = mock(ValidateCsvNotEmptyForFile.class);
+        final ValidateHeadersForFile mockValidateHeaders = mock(ValidateHeadersForFile.class);
+
+        final ValidateAndParseChunksForFile underTest = new ValidateAndParseChunksForFile(
+                RawFileInfo.builder().filename("test_empty.tst").build(),
+                mockFileRepo,
+                mockSpecRepo,
+                mockResultRepo,
+                mockValidateCsvNotEmpty,
+                mockValidateHeaders,
+                ForkJoinPool.commonPool(),
+                1024
+        );
+
+        underTest.validateFileStructure();
+        underTest.execute(parsedEntity -> {
+            throw new AssertionError("no row expected");
+        });
+
+        verify(mockValidateCsvNotEmpty, times(1)).execute(Collections.emptyList(), false);
+        verify(mockValidateHeaders, times(1)).execute(Collections.emptyList());
+        verifyNoMoreInteractions(mockSpecRepo, mockResultRepo, mockValidateCsvNotEmpty, mockValidateHeaders);
+    }
+}
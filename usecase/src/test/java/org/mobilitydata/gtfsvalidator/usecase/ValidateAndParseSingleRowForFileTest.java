@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.CannotParseFloatNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ValidateAndParseSingleRowForFileTest {
+
+    @Test
+    void fileShouldBeOpenedOnlyOnce() {
+        final RawFileRepository.RawEntityProvider mockProvider = mock(RawFileRepository.RawEntityProvider.class);
+        final List<String> headers = List.of("testKey");
+        when(mockProvider.getHeaders()).thenReturn(headers);
+        when(mockProvider.hasNext()).thenReturn(true, true, true, true, true, true, true, false);
+        final RawEntity testRawEntity = new RawEntity(Map.of("testKey", "testValue"), 2);
+        when(mockProvider.getNext()).thenReturn(testRawEntity);
+        when(mockProvider.getHeaderCount()).thenReturn(1);
+
+        final GtfsSpecRepository.RawEntityParser mockParser = mock(GtfsSpecRepository.RawEntityParser.class);
+        when(mockParser.parseWithNotices(any(RawEntity.class)))
+                .thenReturn(new GtfsSpecRepository.ParseResult(null, Collections.emptyList()));
+
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProviderForFile(any(RawFileInfo.class))).thenReturn(Optional.of(mockProvider));
+
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        when(mockSpecRepo.getParserForFile(any(RawFileInfo.class))).thenReturn(mockParser);
+
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final ValidateCsvNotEmptyForFile mockValidateCsvNotEmpty = mock(ValidateCsvNotEmptyForFile.class);
+        final ValidateHeadersForFile mockValidateHeaders = mock(ValidateHeadersForFile.class);
+
+        final ValidateAndParseSingleRowForFile underTest = new ValidateAndParseSingleRowForFile(
+                RawFileInfo.builder().filename("test.tst").build(),
+                mockFileRepo,
+                mockSpecRepo,
+                mockResultRepo,
+                mockValidateCsvNotEmpty,
+                mockValidateHeaders
+        );
+
+        underTest.validateFileStructure();
+        while (underTest.hasNext()) {
+            underTest.execute();
+        }
+
+        verify(mockFileRepo, times(1)).getProviderForFile(any(RawFileInfo.class));
+        verify(mockSpecRepo, times(1)).getParserForFile(any(RawFileInfo.class));
+        verify(mockValidateCsvNotEmpty, times(1)).execute(headers, true);
+        verify(mockValidateHeaders, times(1)).execute(headers);
+        verify(mockProvider, times(1)).getHeaders();
+        verify(mockProvider, times(3)).getNext();
+        verify(mockProvider, times(3)).getHeaderCount();
+        verify(mockParser, times(3)).parseWithNotices(testRawEntity);
+        verifyNoInteractions(mockResultRepo);
+        verifyNoMoreInteractions(mockFileRepo, mockSpecRepo, mockResultRepo, mockParser, mockValidateCsvNotEmpty,
+                mockValidateHeaders);
+    }
+
+    @Test
+    void invalidRowLengthAndTypeNoticesShouldBeAddedToRepo() {
+        final RawFileRepository.RawEntityProvider mockProvider = mock(RawFileRepository.RawEntityProvider.class);
+        when(mockProvider.getHeaders()).thenReturn(List.of("testKey", "otherKey"));
+        when(mockProvider.hasNext()).thenReturn(true);
+        final RawEntity testRawEntity = new RawEntity(Map.of("testKey", "testValue"), 2);
+        when(mockProvider.getNext()).thenReturn(testRawEntity);
+        when(mockProvider.getHeaderCount()).thenReturn(2);
+
+        final GtfsSpecRepository.RawEntityParser mockParser = mock(GtfsSpecRepository.RawEntityParser.class);
+        final ErrorNotice typeNotice = new CannotParseFloatNotice("test.tst", "testKey", 2, "testValue");
+        when(mockParser.parseWithNotices(any(RawEntity.class)))
+                .thenReturn(new GtfsSpecRepository.ParseResult(null, List.of(typeNotice)));
+
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProviderForFile(any(RawFileInfo.class))).thenReturn(Optional.of(mockProvider));
+
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        when(mockSpecRepo.getParserForFile(any(RawFileInfo.class))).thenReturn(mockParser);
+
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+
+        final ValidateAndParseSingleRowForFile underTest = new ValidateAndParseSingleRowForFile(
+                RawFileInfo.builder().filename("test.tst").build(),
+                mockFileRepo,
+                mockSpecRepo,
+                mockResultRepo,
+                mock(ValidateCsvNotEmptyForFile.class),
+                mock(ValidateHeadersForFile.class)
+        );
+
+        underTest.execute();
+        underTest.execute();
+
+        verify(mockResultRepo, times(2)).addNotice(any(InvalidRowLengthNotice.class));
+        verify(mockResultRepo, times(2)).addNotice(typeNotice);
+        verify(mockParser, times(2)).parseWithNotices(testRawEntity);
+        verifyNoMoreInteractions(mockResultRepo);
+    }
+
+    @Test
+    void providerErrorShouldBeReportedAsEmptyFile() {
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProviderForFile(any(RawFileInfo.class))).thenReturn(Optional.empty());
+
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final ValidateCsvNotEmptyForFile mockValidateCsvNotEmpty = mock(ValidateCsvNotEmptyForFile.class);
+        final ValidateHeadersForFile mockValidateHeaders = mock(ValidateHeadersForFile.class);
+
+        final ValidateAndParseSingleRowForFile underTest = new ValidateAndParseSingleRowForFile(
+                RawFileInfo.builder().filename("test_empty.tst").build(),
+                mockFileRepo,
+                mockSpecRepo,
+                mockResultRepo,
+                mockValidateCsvNotEmpty,
+                mockValidateHeaders
+        );
+
+        underTest.validateFileStructure();
+
+        verify(mockValidateCsvNotEmpty, times(1)).execute(Collections.emptyList(), false);
+        verify(mockValidateHeaders, times(1)).execute(Collections.emptyList());
+        verifyNoMoreInteractions(mockSpecRepo, mockResultRepo, mockValidateCsvNotEmpty, mockValidateHeaders);
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2020. MobilityData IO.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.mobilitydata.gtfsvalidator.usecase;
+
+import org.junit.jupiter.api.Test;
+import org.mobilitydata.gtfsvalidator.domain.entity.ParsedEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawEntity;
+import org.mobilitydata.gtfsvalidator.domain.entity.RawFileInfo;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.ErrorNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.CannotParseFloatNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidRowLengthNotice;
+import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.InvalidUrlNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.GtfsSpecRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.RawFileRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ValidateAndParseStagedForFileTest {
+
+    private static RawFileRepository.RawEntityProvider mockProvider(final RawEntity... rawEntities) {
+        final RawFileRepository.RawEntityProvider mockProvider = mock(RawFileRepository.RawEntityProvider.class);
+        final Iterator<RawEntity> rawEntityIterator = Arrays.asList(rawEntities).iterator();
+        when(mockProvider.getHeaders()).thenReturn(List.of("testKey", "otherKey"));
+        when(mockProvider.getHeaderCount()).thenReturn(2);
+        when(mockProvider.hasNext()).then(invocation -> rawEntityIterator.hasNext());
+        when(mockProvider.getNext()).then(invocation -> rawEntityIterator.next());
+        return mockProvider;
+    }
+
+    private static RawFileRepository mockFileRepo(final RawFileRepository.RawEntityProvider provider) {
+        final RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+        when(mockFileRepo.getProviderForFile(any(RawFileInfo.class))).thenReturn(Optional.ofNullable(provider));
+        return mockFileRepo;
+    }
+
+    private static GtfsSpecRepository mockSpecRepo(final GtfsSpecRepository.RawEntityParser parser,
+                                                   final GtfsSpecRepository.ParsedEntityTypeValidator validator) {
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        when(mockSpecRepo.getParserForFile(any(RawFileInfo.class))).thenReturn(parser);
+        when(mockSpecRepo.getValidatorForFile(any(RawFileInfo.class))).thenReturn(validator);
+        return mockSpecRepo;
+    }
+
+    @Test
+    void rowsShouldBeConsumedInFileOrderWithTheirNotices() {
+        final RawEntity firstRawEntity = new RawEntity(Map.of("testKey", "a", "otherKey", "b"), 2);
+        final RawEntity secondRawEntity = new RawEntity(Map.of("testKey", "c"), 3);
+        final RawEntity thirdRawEntity = new RawEntity(Map.of("testKey", "d", "otherKey", "e"), 4);
+
+        final ParsedEntity firstParsedEntity = mock(ParsedEntity.class);
+        final ParsedEntity secondParsedEntity = mock(ParsedEntity.class);
+        final ParsedEntity thirdParsedEntity = mock(ParsedEntity.class);
+        final ErrorNotice numericTypeNotice = new CannotParseFloatNotice("test.tst", "testKey", 4, "d");
+        final ErrorNotice gtfsTypeNotice = new InvalidUrlNotice("test.tst", "otherKey", "4", "e");
+        final GtfsSpecRepository.RawEntityParser mockParser = mock(GtfsSpecRepository.RawEntityParser.class);
+        when(mockParser.parseWithNotices(firstRawEntity))
+                .thenReturn(new GtfsSpecRepository.ParseResult(firstParsedEntity, Collections.emptyList()));
+        when(mockParser.parseWithNotices(secondRawEntity))
+                .thenReturn(new GtfsSpecRepository.ParseResult(secondParsedEntity, Collections.emptyList()));
+        when(mockParser.parseWithNotices(thirdRawEntity))
+                .thenReturn(new GtfsSpecRepository.ParseResult(thirdParsedEntity, List.of(numericTypeNotice)));
+        final GtfsSpecRepository.ParsedEntityTypeValidator mockValidator =
+                mock(GtfsSpecRepository.ParsedEntityTypeValidator.class);
+        when(mockValidator.validate(any(ParsedEntity.class))).thenReturn(Collections.emptyList());
+        when(mockValidator.validate(thirdParsedEntity)).thenReturn(List.of(gtfsTypeNotice));
+
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final ValidateCsvNotEmptyForFile mockValidateCsvNotEmpty = mock(ValidateCsvNotEmptyForFile.class);
+        final ValidateHeadersForFile mockValidateHeaders = mock(ValidateHeadersForFile.class);
+
+        final ValidateAndParseStagedForFile underTest = new ValidateAndParseStagedForFile(
+                RawFileInfo.builder().filename("test.tst").build(),
+                mockFileRepo(mockProvider(firstRawEntity, secondRawEntity, thirdRawEntity)),
+                mockSpecRepo(mockParser, mockValidator),
+                mockResultRepo,
+                mockValidateCsvNotEmpty,
+                mockValidateHeaders,
+                1,
+                2
+        );
+
+        final List<ParsedEntity> consumedEntityList = new ArrayList<>();
+        underTest.validateFileStructure();
+        underTest.execute(consumedEntityList::add);
+
+        assertEquals(List.of(firstParsedEntity, secondParsedEntity, thirdParsedEntity), consumedEntityList);
+        verify(mockValidateCsvNotEmpty, times(1)).execute(List.of("testKey", "otherKey"), true);
+        verify(mockValidateHeaders, times(1)).execute(List.of("testKey", "otherKey"));
+        final InOrder inOrder = inOrder(mockResultRepo);
+        inOrder.verify(mockResultRepo, times(1)).addNotice(any(InvalidRowLengthNotice.class));
+        inOrder.verify(mockResultRepo, times(1)).addNotice(numericTypeNotice);
+        inOrder.verify(mockResultRepo, times(1)).addNotice(gtfsTypeNotice);
+        verifyNoMoreInteractions(mockResultRepo, mockValidateCsvNotEmpty, mockValidateHeaders);
+    }
+
+    @Test
+    void parsingErrorShouldBeRethrownOnCallingThread() {
+        final RawEntity rawEntity = new RawEntity(Map.of("testKey", "a", "otherKey", "b"), 2);
+        final GtfsSpecRepository.RawEntityParser mockParser = mock(GtfsSpecRepository.RawEntityParser.class);
+        when(mockParser.parseWithNotices(any(RawEntity.class))).thenThrow(new IllegalStateException("test"));
+
+        final ValidateAndParseStagedForFile underTest = new ValidateAndParseStagedForFile(
+                RawFileInfo.builder().filename("test.tst").build(),
+                mockFileRepo(mockProvider(rawEntity)),
+                mockSpecRepo(mockParser, mock(GtfsSpecRepository.ParsedEntityTypeValidator.class)),
+                mock(ValidationResultRepository.class),
+                mock(ValidateCsvNotEmptyForFile.class),
+                mock(ValidateHeadersForFile.class),
+                1,
+                1
+        );
+
+        final Exception exception = assertThrows(IllegalStateException.class, () -> underTest.execute(
+                parsedEntity -> {
+                    throw new AssertionError("no row expected");
+                }));
+        assertEquals("test", exception.getMessage());
+    }
+
+    @Test
+    void errorWhileReadingRowsShouldBeRethrownOnCallingThread() {
+        final RawFileRepository.RawEntityProvider mockProvider = mockProvider();
+        doReturn(true).when(mockProvider).hasNext();
+        doThrow(new OutOfMemoryError("test")).when(mockProvider).getNext();
+
+        final ValidateAndParseStagedForFile underTest = new ValidateAndParseStagedForFile(
+                RawFileInfo.builder().filename("test.tst").build(),
+                mockFileRepo(mockProvider),
+                mockSpecRepo(mock(GtfsSpecRepository.RawEntityParser.class),
+                        mock(GtfsSpecRepository.ParsedEntityTypeValidator.class)),
+                mock(ValidationResultRepository.class),
+                mock(ValidateCsvNotEmptyForFile.class),
+                mock(ValidateHeadersForFile.class),
+                1,
+                1
+        );
+
+        // without the error being forwarded, the calling thread would wait for rows forever
+        final Error error = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(OutOfMemoryError.class, () -> underTest.execute(parsedEntity -> {
+                    throw new AssertionError("no row expected");
+                })));
+        assertEquals("test", error.getMessage());
+    }
+
+    @Test
+    void errorWhileParsingRowsShouldBeRethrownOnCallingThread() {
+        final RawEntity rawEntity = new RawEntity(Map.of("testKey", "a", "otherKey", "b"), 2);
+        final GtfsSpecRepository.RawEntityParser mockParser = mock(GtfsSpecRepository.RawEntityParser.class);
+        when(mockParser.parseWithNotices(any(RawEntity.class))).thenThrow(new StackOverflowError("test"));
+
+        final ValidateAndParseStagedForFile underTest = new ValidateAndParseStagedForFile(
+                RawFileInfo.builder().filename("test.tst").build(),
+                mockFileRepo(mockProvider(rawEntity)),
+                mockSpecRepo(mockParser, mock(GtfsSpecRepository.ParsedEntityTypeValidator.class)),
+                mock(ValidationResultRepository.class),
+                mock(ValidateCsvNotEmptyForFile.class),
+                mock(ValidateHeadersForFile.class),
+                1,
+                1
+        );
+
+        final Error error = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(StackOverflowError.class, () -> underTest.execute(parsedEntity -> {
+                    throw new AssertionError("no row expected");
+                })));
+        assertEquals("test", error.getMessage());
+    }
+
+    @Test
+    void consumerExceptionShouldStopAllStages() {
+        final RawEntity[] rawEntities = new RawEntity[100];
+        for (int i = 0; i < rawEntities.length; ++i) {
+            rawEntities[i] = new RawEntity(Map.of("testKey", "a", "otherKey", "b"), i + 2);
+        }
+        final GtfsSpecRepository.RawEntityParser mockParser = mock(GtfsSpecRepository.RawEntityParser.class);
+        when(mockParser.parseWithNotices(any(RawEntity.class)))
+                .thenReturn(new GtfsSpecRepository.ParseResult(mock(ParsedEntity.class), Collections.emptyList()));
+        final GtfsSpecRepository.ParsedEntityTypeValidator mockValidator =
+                mock(GtfsSpecRepository.ParsedEntityTypeValidator.class);
+        when(mockValidator.validate(any(ParsedEntity.class))).thenReturn(Collections.emptyList());
+
+        final ValidateAndParseStagedForFile underTest = new ValidateAndParseStagedForFile(
+                RawFileInfo.builder().filename("test.tst").build(),
+                mockFileRepo(mockProvider(rawEntities)),
+                mockSpecRepo(mockParser, mockValidator),
+                mock(ValidationResultRepository.class),
+                mock(ValidateCsvNotEmptyForFile.class),
+                mock(ValidateHeadersForFile.class),
+                1,
+                1
+        );
+
+        final List<ParsedEntity> consumedEntityList = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> underTest.execute(parsedEntity -> {
+            consumedEntityList.add(parsedEntity);
+            throw new IllegalStateException("abort");
+        }));
+        assertEquals(1, consumedEntityList.size());
+        // at most one batch in each queue and one batch held by each stage
+        verify(mockParser, atMost(4)).parseWithNotices(any(RawEntity.class));
+    }
+
+    @Test
+    void missingFileShouldBeReportedAsEmptyFile() {
+        final GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+        final ValidateCsvNotEmptyForFile mockValidateCsvNotEmpty = mock(ValidateCsvNotEmptyForFile.class);
+        final ValidateHeadersForFile mockValidateHeaders = mock(ValidateHeadersForFile.class);
+
+        final ValidateAndParseStagedForFile underTest = new ValidateAndParseStagedForFile(
+                RawFileInfo.builder().filename("test_empty.tst").build(),
+                mockFileRepo(null),
+                mockSpecRepo,
+                mockResultRepo,
+                mockValidateCsvNotEmpty,
+                mockValidateHeaders,
+                1,
+                1
+        );
+
+        underTest.validateFileStructure();
+        underTest.execute(parsedEntity -> {
+            throw new AssertionError("no row expected");
+        });
+
+        verify(mockValidateCsvNotEmpty, times(1)).execute(Collections.emptyList(), false);
+        verify(mockValidateHeaders, times(1)).execute(Collections.emptyList());
+        verifyNoMoreInteractions(mockSpecRepo, mockResultRepo, mockValidateCsvNotEmpty, mockValidateHeaders);
+    }
+}
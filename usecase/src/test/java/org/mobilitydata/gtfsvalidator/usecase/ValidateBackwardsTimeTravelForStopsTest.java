@@ -19,6 +19,7 @@ package org.mobilitydata.gtfsvalidator.usecase;
 import org.junit.jupiter.api.Test;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.BackwardsTimeTravelInStopNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 import org.mockito.ArgumentCaptor;
@@ -71,16 +72,17 @@ class ValidateBackwardsTimeTravelForStopsTest {
         when(mockTimeUtils.convertIntegerToHHMMSS(1201)).thenReturn("1201");
 
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
-
-        verify(firstStopTimeInSequence, times(3)).getDepartureTime();
-        verify(firstStopTimeInSequence, times(3)).getArrivalTime();
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(2)).getDepartureTime();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(2)).getArrivalTime();
         verify(secondStopTimeInSequence, times(2)).getDepartureTime();
-        verify(secondStopTimeInSequence, times(3)).getArrivalTime();
-
-        verify(thirdStopTimeInSequence, times(3)).getDepartureTime();
-        verify(thirdStopTimeInSequence, times(4)).getArrivalTime();
+        verify(secondStopTimeInSequence, times(1)).getStopSequence();
+        verify(thirdStopTimeInSequence, times(2)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
 
         verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(firstStopTimeInSequence, secondStopTimeInSequence, thirdStopTimeInSequence);
@@ -128,20 +130,19 @@ class ValidateBackwardsTimeTravelForStopsTest {
         when(mockTimeUtils.convertIntegerToHHMMSS(1020)).thenReturn("1020");
         when(mockTimeUtils.convertIntegerToHHMMSS(1201)).thenReturn("1201");
 
-
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
-
-        verify(firstStopTimeInSequence, times(3)).getDepartureTime();
-        verify(firstStopTimeInSequence, times(3)).getArrivalTime();
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(2)).getDepartureTime();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(2)).getArrivalTime();
         verify(secondStopTimeInSequence, times(2)).getDepartureTime();
-        verify(secondStopTimeInSequence, times(4)).getArrivalTime();
+        verify(secondStopTimeInSequence, times(2)).getStopSequence();
         verify(secondStopTimeInSequence, times(1)).getTripId();
-        verify(secondStopTimeInSequence, times(1)).getStopSequence();
-
-        verify(thirdStopTimeInSequence, times(3)).getDepartureTime();
-        verify(thirdStopTimeInSequence, times(4)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
 
         final ArgumentCaptor<BackwardsTimeTravelInStopNotice> captor =
                 ArgumentCaptor.forClass(BackwardsTimeTravelInStopNotice.class);
@@ -204,15 +205,16 @@ class ValidateBackwardsTimeTravelForStopsTest {
         when(mockTimeUtils.convertIntegerToHHMMSS(1201)).thenReturn("1201");
 
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
-
-        verify(firstStopTimeInSequence, times(3)).getDepartureTime();
-        verify(firstStopTimeInSequence, times(3)).getArrivalTime();
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
-        verify(secondStopTimeInSequence, times(2)).getArrivalTime();
-
-        verify(thirdStopTimeInSequence, times(3)).getDepartureTime();
-        verify(thirdStopTimeInSequence, times(4)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(2)).getDepartureTime();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(1)).getArrivalTime();
+        verify(secondStopTimeInSequence, times(1)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(2)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
 
         verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(firstStopTimeInSequence, secondStopTimeInSequence, thirdStopTimeInSequence);
@@ -259,16 +261,16 @@ class ValidateBackwardsTimeTravelForStopsTest {
         when(mockTimeUtils.convertIntegerToHHMMSS(1201)).thenReturn("1201");
 
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
-
-        verify(firstStopTimeInSequence, times(3)).getDepartureTime();
-        verify(firstStopTimeInSequence, times(3)).getArrivalTime();
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(2)).getDepartureTime();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(2)).getArrivalTime();
         verify(secondStopTimeInSequence, times(1)).getDepartureTime();
-        verify(secondStopTimeInSequence, times(3)).getArrivalTime();
-
-        verify(thirdStopTimeInSequence, times(3)).getDepartureTime();
-        verify(thirdStopTimeInSequence, times(4)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
 
         verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(firstStopTimeInSequence, secondStopTimeInSequence, thirdStopTimeInSequence);
@@ -314,15 +316,16 @@ class ValidateBackwardsTimeTravelForStopsTest {
         when(mockTimeUtils.convertIntegerToHHMMSS(1201)).thenReturn("1201");
 
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
-
-        verify(firstStopTimeInSequence, times(3)).getDepartureTime();
-        verify(firstStopTimeInSequence, times(3)).getArrivalTime();
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
-        verify(secondStopTimeInSequence, times(2)).getArrivalTime();
-
-        verify(thirdStopTimeInSequence, times(3)).getDepartureTime();
-        verify(thirdStopTimeInSequence, times(4)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(2)).getDepartureTime();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(1)).getArrivalTime();
+        verify(secondStopTimeInSequence, times(1)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(2)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
 
         verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(firstStopTimeInSequence, secondStopTimeInSequence, thirdStopTimeInSequence);
@@ -366,17 +369,17 @@ class ValidateBackwardsTimeTravelForStopsTest {
         when(mockTimeUtils.convertIntegerToHHMMSS(1201)).thenReturn("1201");
 
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
-
-        verify(firstStopTimeInSequence, times(3)).getDepartureTime();
-        verify(firstStopTimeInSequence, times(3)).getArrivalTime();
-
-        verify(secondStopTimeInSequence, times(2)).getArrivalTime();
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(2)).getDepartureTime();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(1)).getArrivalTime();
+        verify(secondStopTimeInSequence, times(1)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(2)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(2)).getStopSequence();
         verify(thirdStopTimeInSequence, times(1)).getTripId();
-        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
-        verify(thirdStopTimeInSequence, times(3)).getDepartureTime();
-        verify(thirdStopTimeInSequence, times(5)).getArrivalTime();
 
         final ArgumentCaptor<BackwardsTimeTravelInStopNotice> captor =
                 ArgumentCaptor.forClass(BackwardsTimeTravelInStopNotice.class);
@@ -443,17 +446,17 @@ class ValidateBackwardsTimeTravelForStopsTest {
         when(mockTimeUtils.convertIntegerToHHMMSS(1201)).thenReturn("1201");
 
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
-        verify(firstStopTimeInSequence, times(3)).getDepartureTime();
-        verify(firstStopTimeInSequence, times(3)).getArrivalTime();
-
-        verify(secondStopTimeInSequence, times(2)).getArrivalTime();
-
-        verify(thirdStopTimeInSequence, times(3)).getDepartureTime();
-        verify(thirdStopTimeInSequence, times(5)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(2)).getDepartureTime();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(1)).getArrivalTime();
+        verify(secondStopTimeInSequence, times(1)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(2)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(2)).getStopSequence();
         verify(thirdStopTimeInSequence, times(1)).getTripId();
-        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
 
         final ArgumentCaptor<BackwardsTimeTravelInStopNotice> captor =
                 ArgumentCaptor.forClass(BackwardsTimeTravelInStopNotice.class);
@@ -520,18 +523,17 @@ class ValidateBackwardsTimeTravelForStopsTest {
         when(mockTimeUtils.convertIntegerToHHMMSS(1201)).thenReturn("1201");
 
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
-
-        verify(firstStopTimeInSequence, times(3)).getDepartureTime();
-        verify(firstStopTimeInSequence, times(3)).getArrivalTime();
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(2)).getDepartureTime();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(2)).getArrivalTime();
         verify(secondStopTimeInSequence, times(1)).getDepartureTime();
-        verify(secondStopTimeInSequence, times(3)).getArrivalTime();
-
-        verify(thirdStopTimeInSequence, times(3)).getDepartureTime();
-        verify(thirdStopTimeInSequence, times(5)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getArrivalTime();
+        verify(thirdStopTimeInSequence, times(2)).getDepartureTime();
+        verify(thirdStopTimeInSequence, times(2)).getStopSequence();
         verify(thirdStopTimeInSequence, times(1)).getTripId();
-        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
 
         final ArgumentCaptor<BackwardsTimeTravelInStopNotice> captor =
                 ArgumentCaptor.forClass(BackwardsTimeTravelInStopNotice.class);
@@ -593,10 +595,9 @@ class ValidateBackwardsTimeTravelForStopsTest {
         final TimeUtils mockTimeUtils = mock(TimeUtils.class);
 
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
-        verify(thirdStopTimeInSequence, times(1)).getDepartureTime();
-        verify(thirdStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
         verify(firstStopTimeInSequence, times(1)).getDepartureTime();
 
         verifyNoInteractions(secondStopTimeInSequence, mockResultRepo, mockTimeUtils);
@@ -643,11 +644,18 @@ class ValidateBackwardsTimeTravelForStopsTest {
         final TimeUtils mockTimeUtils = mock(TimeUtils.class);
 
         final ValidateBackwardsTimeTravelForStops underTest = new ValidateBackwardsTimeTravelForStops();
-        underTest.execute(mockResultRepo, mockStopTimeSequence, mockTimeUtils);
+        underTest.execute(mockResultRepo, StopTimeCursor.of(mockStopTimeSequence.values()), mockTimeUtils);
 
+        verify(firstStopTimeInSequence, times(1)).getArrivalTime();
+        verify(firstStopTimeInSequence, times(2)).getDepartureTime();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(2)).getArrivalTime();
+        verify(secondStopTimeInSequence, times(2)).getDepartureTime();
+        verify(secondStopTimeInSequence, times(1)).getStopSequence();
+        verify(thirdStopTimeInSequence, times(1)).getArrivalTime();
         verify(thirdStopTimeInSequence, times(1)).getDepartureTime();
 
-        verifyNoInteractions(secondStopTimeInSequence, mockResultRepo, mockTimeUtils);
-        verifyNoMoreInteractions(firstStopTimeInSequence, thirdStopTimeInSequence);
+        verifyNoInteractions(mockResultRepo, mockTimeUtils);
+        verifyNoMoreInteractions(firstStopTimeInSequence, secondStopTimeInSequence, thirdStopTimeInSequence);
     }
 }
@@ -303,4 +303,37 @@ class ValidateHeadersForFileTest {
         verifyNoMoreInteractions(mockFileRepo, mockSpecRepo, mockResultRepo);
     }
 
-}
\ No newline at end of file
+    @Test
+    void headersProvidedByCallerShouldNotBeReadFromFile() {
+
+        List<String> mockRequiredHeaders = List.of(REQUIRED_HEADER_0, REQUIRED_HEADER_1);
+        List<String> mockOptionalHeaders = List.of(OPTIONAL_HEADER_0);
+        List<String> actualHeaders = List.of(REQUIRED_HEADER_0, OPTIONAL_HEADER_0, OPTIONAL_HEADER_0, EXTRA_HEADER_0);
+
+        RawFileRepository mockFileRepo = mock(RawFileRepository.class);
+
+        GtfsSpecRepository mockSpecRepo = mock(GtfsSpecRepository.class);
+        when(mockSpecRepo.getRequiredHeadersForFile(any(RawFileInfo.class))).thenReturn(mockRequiredHeaders);
+        when(mockSpecRepo.getOptionalHeadersForFile(any(RawFileInfo.class))).thenReturn(mockOptionalHeaders);
+
+        ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
+
+        ValidateHeadersForFile underTest = new ValidateHeadersForFile(
+                mockSpecRepo,
+                RawFileInfo.builder().filename(TEST_TST).build(),
+                mockFileRepo,
+                mockResultRepo,
+                mock(Logger.class)
+        );
+
+        underTest.execute(actualHeaders);
+
+        verify(mockSpecRepo, times(1)).getRequiredHeadersForFile(any(RawFileInfo.class));
+        verify(mockSpecRepo, times(1)).getOptionalHeadersForFile(any(RawFileInfo.class));
+        verify(mockResultRepo, times(1)).addNotice(any(DuplicatedHeaderNotice.class));
+        verify(mockResultRepo, times(1)).addNotice(any(MissingHeaderNotice.class));
+        verify(mockResultRepo, times(1)).addNotice(any(NonStandardHeaderNotice.class));
+        verifyNoInteractions(mockFileRepo);
+        verifyNoMoreInteractions(mockFileRepo, mockSpecRepo, mockResultRepo);
+    }
+}
@@ -26,6 +26,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.BlockTripsWithOverlappingStopTimesNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 import org.mockito.ArgumentCaptor;
@@ -178,9 +179,12 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         mockThirdTripStopTimeCollection.put(15, thirdTripLastStopTime);
 
         when(mockDataRepo.getAllTripByBlockId()).thenReturn(mockTripPerBlockIdCollection);
-        when(mockDataRepo.getStopTimeByTripId("2")).thenReturn(mockFirstTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("5")).thenReturn(mockSecondTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("8")).thenReturn(mockThirdTripStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursorByTripId("2"))
+                .then(invocation -> StopTimeCursor.of(mockFirstTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("5"))
+                .then(invocation -> StopTimeCursor.of(mockSecondTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("8"))
+                .then(invocation -> StopTimeCursor.of(mockThirdTripStopTimeCollection.values()));
 
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
@@ -202,30 +206,26 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         verify(mockDataRepo, times(1)).getAllTripByBlockId();
         verify(mockDataRepo, times(1)).getCalendarAll();
 
-        verify(firstMockTrip, times(4)).getTripId();
-        verify(secondMockTrip, times(4)).getTripId();
+        verify(firstMockTrip, times(5)).getTripId();
+        verify(secondMockTrip, times(5)).getTripId();
         verify(secondMockTrip, times(1)).hasSameServiceId(firstMockTrip);
-        verify(thirdMockTrip, times(4)).getTripId();
+        verify(thirdMockTrip, times(5)).getTripId();
         verify(thirdMockTrip, times(1)).hasSameServiceId(firstMockTrip);
         verify(thirdMockTrip, times(1)).hasSameServiceId(secondMockTrip);
 
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("2");
-        verify(mockDataRepo, times(2)).getStopTimeByTripId("5");
-        verify(mockDataRepo, times(3)).getStopTimeByTripId("8");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("2");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("5");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("8");
 
         verify(firstTripFirstStopTime, times(2)).getArrivalTime();
-        verify(firstTripFirstStopTime, times(2)).getArrivalTime();
-
-        verify(secondTripFirstStopTime, times(4)).getArrivalTime();
-
-        verify(thirdTripFirstStopTime, times(6)).getArrivalTime();
-
+        verify(firstTripFirstStopTime, times(6)).getDepartureTime();
         verify(firstTripLastStopTime, times(2)).getDepartureTime();
-
-        verify(secondTripLastStopTime, times(4)).getDepartureTime();
-        verify(secondTripLastStopTime, times(4)).getDepartureTime();
-
-        verify(thirdTripLastStopTime, times(6)).getDepartureTime();
+        verify(secondTripFirstStopTime, times(2)).getArrivalTime();
+        verify(secondTripFirstStopTime, times(2)).getDepartureTime();
+        verify(secondTripLastStopTime, times(2)).getDepartureTime();
+        verify(thirdTripFirstStopTime, times(2)).getArrivalTime();
+        verify(thirdTripFirstStopTime, times(2)).getDepartureTime();
+        verify(thirdTripLastStopTime, times(2)).getDepartureTime();
 
         verify(mockTimeUtils, times(3))
                 .arePeriodsOverlapping(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(),
@@ -358,9 +358,12 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         mockThirdTripStopTimeCollection.put(15, thirdTripLastStopTime);
 
         when(mockDataRepo.getAllTripByBlockId()).thenReturn(mockTripPerBlockIdCollection);
-        when(mockDataRepo.getStopTimeByTripId("2")).thenReturn(mockFirstTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("5")).thenReturn(mockSecondTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("8")).thenReturn(mockThirdTripStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursorByTripId("2"))
+                .then(invocation -> StopTimeCursor.of(mockFirstTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("5"))
+                .then(invocation -> StopTimeCursor.of(mockSecondTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("8"))
+                .then(invocation -> StopTimeCursor.of(mockThirdTripStopTimeCollection.values()));
 
         final Map<String, Calendar> mockCalendarCollection = new HashMap<>();
         final Calendar calendarForServiceA = mock(Calendar.class);
@@ -402,30 +405,32 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
 
         verify(mockDataRepo, times(1)).getAllTripByBlockId();
 
-        verify(firstMockTrip, times(4)).getTripId();
+        verify(firstMockTrip, times(5)).getTripId();
         verify(firstMockTrip, times(2)).getServiceId();
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("2");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("2");
 
-        verify(secondMockTrip, times(4)).getTripId();
+        verify(secondMockTrip, times(5)).getTripId();
         verify(secondMockTrip, times(2)).getServiceId();
         verify(secondMockTrip, times(1)).hasSameServiceId(firstMockTrip);
-        verify(mockDataRepo, times(2)).getStopTimeByTripId("5");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("5");
 
-        verify(thirdMockTrip, times(4)).getTripId();
+        verify(thirdMockTrip, times(5)).getTripId();
         verify(thirdMockTrip, times(2)).getServiceId();
         verify(thirdMockTrip, times(1)).hasSameServiceId(secondMockTrip);
         verify(thirdMockTrip, times(1)).hasSameServiceId(firstMockTrip);
-        verify(mockDataRepo, times(3)).getStopTimeByTripId("8");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("8");
 
         verify(firstTripFirstStopTime, times(2)).getArrivalTime();
-
+        verify(firstTripFirstStopTime, times(2)).getDepartureTime();
+        verify(firstTripSecondStopTime, times(2)).getDepartureTime();
+        verify(firstTripThirdStopTime, times(2)).getDepartureTime();
         verify(firstTripLastStopTime, times(2)).getDepartureTime();
-
-        verify(secondTripFirstStopTime, times(3)).getArrivalTime();
-        verify(secondTripLastStopTime, times(3)).getDepartureTime();
-
-        verify(thirdTripFirstStopTime, times(4)).getArrivalTime();
-        verify(thirdTripLastStopTime, times(4)).getDepartureTime();
+        verify(secondTripFirstStopTime, times(2)).getArrivalTime();
+        verify(secondTripFirstStopTime, times(2)).getDepartureTime();
+        verify(secondTripLastStopTime, times(2)).getDepartureTime();
+        verify(thirdTripFirstStopTime, times(2)).getArrivalTime();
+        verify(thirdTripFirstStopTime, times(2)).getDepartureTime();
+        verify(thirdTripLastStopTime, times(2)).getDepartureTime();
 
         verify(mockDataRepo, times(1)).getCalendarAll();
 
@@ -569,9 +574,12 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         mockThirdTripStopTimeCollection.put(15, thirdTripLastStopTime);
 
         when(mockDataRepo.getAllTripByBlockId()).thenReturn(mockTripPerBlockIdCollection);
-        when(mockDataRepo.getStopTimeByTripId("2")).thenReturn(mockFirstTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("5")).thenReturn(mockSecondTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("8")).thenReturn(mockThirdTripStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursorByTripId("2"))
+                .then(invocation -> StopTimeCursor.of(mockFirstTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("5"))
+                .then(invocation -> StopTimeCursor.of(mockSecondTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("8"))
+                .then(invocation -> StopTimeCursor.of(mockThirdTripStopTimeCollection.values()));
         when(mockDataRepo.getCalendarAll()).thenReturn(new HashMap<>());
 
         final Map<String, Map<String, CalendarDate>> mockCalendarDateCollection = new HashMap<>();
@@ -620,21 +628,33 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         verify(mockDataRepo, times(1)).getAllTripByBlockId();
         verify(mockDataRepo, times(1)).getCalendarAll();
 
-        verify(firstMockTrip, times(4)).getTripId();
+        verify(firstMockTrip, times(5)).getTripId();
         verify(firstMockTrip, times(2)).getServiceId();
 
-        verify(secondMockTrip, times(4)).getTripId();
+        verify(secondMockTrip, times(5)).getTripId();
         verify(secondMockTrip, times(2)).getServiceId();
         verify(secondMockTrip, times(1)).hasSameServiceId(firstMockTrip);
 
-        verify(thirdMockTrip, times(4)).getTripId();
+        verify(thirdMockTrip, times(5)).getTripId();
         verify(thirdMockTrip, times(2)).getServiceId();
         verify(thirdMockTrip, times(1)).hasSameServiceId(firstMockTrip);
         verify(thirdMockTrip, times(1)).hasSameServiceId(secondMockTrip);
 
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("2");
-        verify(mockDataRepo, times(2)).getStopTimeByTripId("5");
-        verify(mockDataRepo, times(3)).getStopTimeByTripId("8");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("2");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("5");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("8");
+
+        verify(firstTripFirstStopTime, times(2)).getArrivalTime();
+        verify(firstTripFirstStopTime, times(2)).getDepartureTime();
+        verify(firstTripSecondStopTime, times(2)).getDepartureTime();
+        verify(firstTripThirdStopTime, times(2)).getDepartureTime();
+        verify(firstTripLastStopTime, times(2)).getDepartureTime();
+        verify(secondTripFirstStopTime, times(2)).getArrivalTime();
+        verify(secondTripFirstStopTime, times(2)).getDepartureTime();
+        verify(secondTripLastStopTime, times(2)).getDepartureTime();
+        verify(thirdTripFirstStopTime, times(2)).getArrivalTime();
+        verify(thirdTripFirstStopTime, times(2)).getDepartureTime();
+        verify(thirdTripLastStopTime, times(2)).getDepartureTime();
         verify(mockDataRepo, times(6)).getCalendarDateAll();
 
         verify(calendarDateForServiceB, times(1)).getExceptionType();
@@ -642,18 +662,6 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         verify(calendarDateForServiceC, times(2)).getExceptionType();
         verify(calendarDateForServiceC, times(2)).getDate();
 
-        verify(firstTripFirstStopTime, times(2)).getArrivalTime();
-
-        verify(secondTripFirstStopTime, times(3)).getArrivalTime();
-
-        verify(thirdTripFirstStopTime, times(4)).getArrivalTime();
-
-        verify(firstTripLastStopTime, times(2)).getDepartureTime();
-
-        verify(secondTripLastStopTime, times(3)).getDepartureTime();
-
-        verify(thirdTripLastStopTime, times(4)).getDepartureTime();
-
         verifyNoInteractions(mockResultRepo, mockTimeUtils);
         verifyNoMoreInteractions(mockLogger, mockDataRepo, firstMockTrip, secondMockTrip, thirdMockTrip,
                 firstTripFirstStopTime, firstTripSecondStopTime, firstTripThirdStopTime, firstTripLastStopTime,
@@ -774,9 +782,12 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         mockThirdTripStopTimeCollection.put(15, thirdTripLastStopTime);
 
         when(mockDataRepo.getAllTripByBlockId()).thenReturn(mockTripPerBlockIdCollection);
-        when(mockDataRepo.getStopTimeByTripId("2")).thenReturn(mockFirstTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("5")).thenReturn(mockSecondTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("8")).thenReturn(mockThirdTripStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursorByTripId("2"))
+                .then(invocation -> StopTimeCursor.of(mockFirstTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("5"))
+                .then(invocation -> StopTimeCursor.of(mockSecondTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("8"))
+                .then(invocation -> StopTimeCursor.of(mockThirdTripStopTimeCollection.values()));
 
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
@@ -800,33 +811,29 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
 
         verify(mockDataRepo, times(1)).getAllTripByBlockId();
 
-        verify(firstMockTrip, times(4)).getTripId();
+        verify(firstMockTrip, times(5)).getTripId();
 
-        verify(secondMockTrip, times(4)).getTripId();
+        verify(secondMockTrip, times(5)).getTripId();
         verify(secondMockTrip, times(1)).hasSameServiceId(firstMockTrip);
 
-        verify(thirdMockTrip, times(4)).getTripId();
+        verify(thirdMockTrip, times(5)).getTripId();
         verify(thirdMockTrip, times(1)).hasSameServiceId(firstMockTrip);
         verify(thirdMockTrip, times(1)).hasSameServiceId(secondMockTrip);
 
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("2");
-        verify(mockDataRepo, times(2)).getStopTimeByTripId("5");
-        verify(mockDataRepo, times(3)).getStopTimeByTripId("8");
-        verify(mockDataRepo, times(1)).getCalendarAll();
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("2");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("5");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("8");
 
         verify(firstTripFirstStopTime, times(2)).getArrivalTime();
-        verify(firstTripFirstStopTime, times(2)).getArrivalTime();
-
-        verify(secondTripFirstStopTime, times(4)).getArrivalTime();
-
-        verify(thirdTripFirstStopTime, times(6)).getArrivalTime();
-
+        verify(firstTripFirstStopTime, times(2)).getDepartureTime();
         verify(firstTripLastStopTime, times(2)).getDepartureTime();
-
-        verify(secondTripLastStopTime, times(4)).getDepartureTime();
-        verify(secondTripLastStopTime, times(4)).getDepartureTime();
-
-        verify(thirdTripLastStopTime, times(6)).getDepartureTime();
+        verify(secondTripFirstStopTime, times(2)).getArrivalTime();
+        verify(secondTripFirstStopTime, times(2)).getDepartureTime();
+        verify(secondTripLastStopTime, times(2)).getDepartureTime();
+        verify(thirdTripFirstStopTime, times(2)).getArrivalTime();
+        verify(thirdTripFirstStopTime, times(2)).getDepartureTime();
+        verify(thirdTripLastStopTime, times(2)).getDepartureTime();
+        verify(mockDataRepo, times(1)).getCalendarAll();
 
         verify(mockTimeUtils, times(1)).convertIntegerToHHMMSS(FIVE_AM_AS_SECS_BEFORE_NOON);
         verify(mockTimeUtils, times(1)).convertIntegerToHHMMSS(TEN_AM_AS_SECS_BEFORE_NOON);
@@ -996,9 +1003,12 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         mockThirdTripStopTimeCollection.put(15, thirdTripLastStopTime);
 
         when(mockDataRepo.getAllTripByBlockId()).thenReturn(mockTripPerBlockIdCollection);
-        when(mockDataRepo.getStopTimeByTripId("2")).thenReturn(mockFirstTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("5")).thenReturn(mockSecondTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("8")).thenReturn(mockThirdTripStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursorByTripId("2"))
+                .then(invocation -> StopTimeCursor.of(mockFirstTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("5"))
+                .then(invocation -> StopTimeCursor.of(mockSecondTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("8"))
+                .then(invocation -> StopTimeCursor.of(mockThirdTripStopTimeCollection.values()));
 
         final Map<String, Calendar> mockCalendarCollection = new HashMap<>();
         final Calendar calendarForServiceA = mock(Calendar.class);
@@ -1039,38 +1049,39 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         verify(mockDataRepo, times(2)).getCalendarByServiceId("b");
         verify(mockDataRepo, times(2)).getCalendarByServiceId("c");
 
-        verify(firstMockTrip, times(4)).getTripId();
+        verify(firstMockTrip, times(5)).getTripId();
         verify(firstMockTrip, times(2)).getServiceId();
 
-        verify(secondMockTrip, times(4)).getTripId();
+        verify(secondMockTrip, times(5)).getTripId();
         verify(secondMockTrip, times(2)).getServiceId();
         verify(secondMockTrip, times(1)).hasSameServiceId(firstMockTrip);
 
-        verify(thirdMockTrip, times(4)).getTripId();
+        verify(thirdMockTrip, times(5)).getTripId();
         verify(thirdMockTrip, times(2)).getServiceId();
         verify(thirdMockTrip, times(1)).hasSameServiceId(firstMockTrip);
         verify(thirdMockTrip, times(1)).hasSameServiceId(secondMockTrip);
 
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("2");
-        verify(mockDataRepo, times(2)).getStopTimeByTripId("5");
-        verify(mockDataRepo, times(3)).getStopTimeByTripId("8");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("2");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("5");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("8");
 
         verify(firstTripFirstStopTime, times(2)).getArrivalTime();
-
-        verify(secondTripFirstStopTime, times(3)).getArrivalTime();
-
-        verify(thirdTripFirstStopTime, times(5)).getArrivalTime();
-
+        verify(firstTripFirstStopTime, times(2)).getDepartureTime();
+        verify(firstTripSecondStopTime, times(2)).getDepartureTime();
+        verify(firstTripThirdStopTime, times(2)).getDepartureTime();
         verify(firstTripLastStopTime, times(2)).getDepartureTime();
-
-        verify(secondTripLastStopTime, times(3)).getDepartureTime();
+        verify(secondTripFirstStopTime, times(2)).getArrivalTime();
+        verify(secondTripFirstStopTime, times(2)).getDepartureTime();
+        verify(secondTripLastStopTime, times(2)).getDepartureTime();
+        verify(thirdTripFirstStopTime, times(2)).getArrivalTime();
+        verify(thirdTripFirstStopTime, times(2)).getDepartureTime();
+        verify(thirdTripLastStopTime, times(2)).getDepartureTime();
 
         verify(calendarForServiceA, times(1)).isOverlapping(calendarForServiceB);
         verify(calendarForServiceA, times(1)).isOverlapping(calendarForServiceC);
         verify(calendarForServiceB, times(1)).isOverlapping(calendarForServiceC);
         verify(calendarForServiceA, times(2)).getOverlappingDays(calendarForServiceC);
 
-        verify(thirdTripLastStopTime, times(5)).getDepartureTime();
         verify(mockTimeUtils, times(1)).convertIntegerToHHMMSS(FIVE_AM_AS_SECS_BEFORE_NOON);
         verify(mockTimeUtils, times(1)).convertIntegerToHHMMSS(TEN_AM_AS_SECS_BEFORE_NOON);
         verify(mockTimeUtils, times(1)).convertIntegerToHHMMSS(NINE_AM_40_MIN_AS_SECS_BEFORE_NOON);
@@ -1231,9 +1242,12 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         mockThirdTripStopTimeCollection.put(15, thirdTripLastStopTime);
 
         when(mockDataRepo.getAllTripByBlockId()).thenReturn(mockTripPerBlockIdCollection);
-        when(mockDataRepo.getStopTimeByTripId("2")).thenReturn(mockFirstTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("5")).thenReturn(mockSecondTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("8")).thenReturn(mockThirdTripStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursorByTripId("2"))
+                .then(invocation -> StopTimeCursor.of(mockFirstTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("5"))
+                .then(invocation -> StopTimeCursor.of(mockSecondTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("8"))
+                .then(invocation -> StopTimeCursor.of(mockThirdTripStopTimeCollection.values()));
 
         final Map<String, Map<String, CalendarDate>> mockCalendarDateCollection = new HashMap<>();
         final HashMap<String, CalendarDate> calendarDateCollectionServiceA = new HashMap<>();
@@ -1286,40 +1300,37 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         verify(mockDataRepo, times(1)).getAllTripByBlockId();
         verify(mockDataRepo, times(1)).getCalendarAll();
 
-        verify(firstMockTrip, times(4)).getTripId();
+        verify(firstMockTrip, times(5)).getTripId();
         verify(firstMockTrip, times(2)).getServiceId();
 
-        verify(secondMockTrip, times(4)).getTripId();
+        verify(secondMockTrip, times(5)).getTripId();
         verify(secondMockTrip, times(2)).getServiceId();
         verify(secondMockTrip, times(1)).hasSameServiceId(firstMockTrip);
 
-        verify(thirdMockTrip, times(4)).getTripId();
+        verify(thirdMockTrip, times(5)).getTripId();
         verify(thirdMockTrip, times(2)).getServiceId();
         verify(thirdMockTrip, times(1)).hasSameServiceId(firstMockTrip);
         verify(thirdMockTrip, times(1)).hasSameServiceId(secondMockTrip);
 
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("2");
-        verify(mockDataRepo, times(2)).getStopTimeByTripId("5");
-        verify(mockDataRepo, times(3)).getStopTimeByTripId("8");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("2");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("5");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("8");
+
+        verify(firstTripFirstStopTime, times(2)).getArrivalTime();
+        verify(firstTripFirstStopTime, times(2)).getDepartureTime();
+        verify(firstTripLastStopTime, times(2)).getDepartureTime();
+        verify(secondTripFirstStopTime, times(2)).getArrivalTime();
+        verify(secondTripFirstStopTime, times(2)).getDepartureTime();
+        verify(secondTripLastStopTime, times(2)).getDepartureTime();
+        verify(thirdTripFirstStopTime, times(2)).getArrivalTime();
+        verify(thirdTripFirstStopTime, times(2)).getDepartureTime();
+        verify(thirdTripLastStopTime, times(2)).getDepartureTime();
         verify(mockDataRepo, times(6)).getCalendarDateAll();
 
         verify(calendarDateForServiceC, times(3)).getDate();
         verify(calendarDateForServiceB, times(1)).getExceptionType();
         verify(calendarDateForServiceC, times(2)).getExceptionType();
 
-        verify(firstTripFirstStopTime, times(2)).getArrivalTime();
-
-        verify(secondTripFirstStopTime, times(3)).getArrivalTime();
-
-        verify(thirdTripFirstStopTime, times(5)).getArrivalTime();
-
-        verify(firstTripLastStopTime, times(2)).getDepartureTime();
-
-        verify(secondTripLastStopTime, times(3)).getDepartureTime();
-        verify(secondTripLastStopTime, times(3)).getDepartureTime();
-
-        verify(thirdTripLastStopTime, times(5)).getDepartureTime();
-
         final ArgumentCaptor<BlockTripsWithOverlappingStopTimesNotice> captor =
                 ArgumentCaptor.forClass(BlockTripsWithOverlappingStopTimesNotice.class);
 
@@ -1449,9 +1460,12 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         mockThirdTripStopTimeCollection.put(15, thirdTripLastStopTime);
 
         when(mockDataRepo.getAllTripByBlockId()).thenReturn(mockTripPerBlockIdCollection);
-        when(mockDataRepo.getStopTimeByTripId("2")).thenReturn(mockFirstTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("5")).thenReturn(mockSecondTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("8")).thenReturn(mockThirdTripStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursorByTripId("2"))
+                .then(invocation -> StopTimeCursor.of(mockFirstTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("5"))
+                .then(invocation -> StopTimeCursor.of(mockSecondTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("8"))
+                .then(invocation -> StopTimeCursor.of(mockThirdTripStopTimeCollection.values()));
 
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
@@ -1468,29 +1482,26 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         verify(mockDataRepo, times(1)).getAllTripByBlockId();
         verify(mockDataRepo, times(1)).getCalendarAll();
 
-        verify(firstMockTrip, times(3)).getTripId();
+        verify(firstMockTrip, times(4)).getTripId();
 
-        verify(secondMockTrip, times(3)).getTripId();
+        verify(secondMockTrip, times(4)).getTripId();
 
-        verify(thirdMockTrip, times(3)).getTripId();
+        verify(thirdMockTrip, times(4)).getTripId();
         verify(thirdMockTrip, times(1)).hasSameServiceId(secondMockTrip);
 
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("2");
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("5");
-        verify(mockDataRepo, times(2)).getStopTimeByTripId("8");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("2");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("5");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("8");
 
         verify(firstTripFirstStopTime, times(1)).getArrivalTime();
-        verify(firstTripFirstStopTime, times(1)).getArrivalTime();
-
+        verify(firstTripFirstStopTime, times(2)).getDepartureTime();
+        verify(firstTripLastStopTime, times(2)).getDepartureTime();
         verify(secondTripFirstStopTime, times(2)).getArrivalTime();
-
-        verify(thirdTripFirstStopTime, times(4)).getArrivalTime();
-
-        verify(firstTripLastStopTime, times(1)).getDepartureTime();
-
+        verify(secondTripFirstStopTime, times(2)).getDepartureTime();
         verify(secondTripLastStopTime, times(2)).getDepartureTime();
-
-        verify(thirdTripLastStopTime, times(4)).getDepartureTime();
+        verify(thirdTripFirstStopTime, times(2)).getArrivalTime();
+        verify(thirdTripFirstStopTime, times(2)).getDepartureTime();
+        verify(thirdTripLastStopTime, times(2)).getDepartureTime();
 
         verify(mockTimeUtils, times(1))
                 .arePeriodsOverlapping(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(),
@@ -1596,9 +1607,12 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         mockThirdTripStopTimeCollection.put(15, thirdTripLastStopTime);
 
         when(mockDataRepo.getAllTripByBlockId()).thenReturn(mockTripPerBlockIdCollection);
-        when(mockDataRepo.getStopTimeByTripId("2")).thenReturn(mockFirstTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("5")).thenReturn(mockSecondTripStopTimeCollection);
-        when(mockDataRepo.getStopTimeByTripId("8")).thenReturn(mockThirdTripStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursorByTripId("2"))
+                .then(invocation -> StopTimeCursor.of(mockFirstTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("5"))
+                .then(invocation -> StopTimeCursor.of(mockSecondTripStopTimeCollection.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId("8"))
+                .then(invocation -> StopTimeCursor.of(mockThirdTripStopTimeCollection.values()));
 
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
@@ -1615,29 +1629,26 @@ class ValidateNoOverlappingStopTimeInTripBlockTest {
         verify(mockDataRepo, times(1)).getAllTripByBlockId();
         verify(mockDataRepo, times(1)).getCalendarAll();
 
-        verify(firstMockTrip, times(3)).getTripId();
+        verify(firstMockTrip, times(4)).getTripId();
 
-        verify(secondMockTrip, times(3)).getTripId();
+        verify(secondMockTrip, times(4)).getTripId();
 
-        verify(thirdMockTrip, times(3)).getTripId();
+        verify(thirdMockTrip, times(4)).getTripId();
         verify(thirdMockTrip, times(1)).hasSameServiceId(secondMockTrip);
 
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("2");
-        verify(mockDataRepo, times(1)).getStopTimeByTripId("5");
-        verify(mockDataRepo, times(2)).getStopTimeByTripId("8");
-
-        verify(firstTripFirstStopTime, times(1)).getArrivalTime();
-        verify(firstTripFirstStopTime, times(1)).getArrivalTime();
-
-        verify(thirdTripFirstStopTime, times(4)).getArrivalTime();
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("2");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("5");
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId("8");
 
+        verify(firstTripFirstStopTime, times(2)).getArrivalTime();
+        verify(firstTripFirstStopTime, times(2)).getDepartureTime();
         verify(firstTripLastStopTime, times(1)).getDepartureTime();
-
         verify(secondTripFirstStopTime, times(2)).getArrivalTime();
+        verify(secondTripFirstStopTime, times(2)).getDepartureTime();
         verify(secondTripLastStopTime, times(2)).getDepartureTime();
-        verify(secondTripLastStopTime, times(2)).getDepartureTime();
-
-        verify(thirdTripLastStopTime, times(4)).getDepartureTime();
+        verify(thirdTripFirstStopTime, times(2)).getArrivalTime();
+        verify(thirdTripFirstStopTime, times(2)).getDepartureTime();
+        verify(thirdTripLastStopTime, times(2)).getDepartureTime();
 
         verify(mockTimeUtils, times(1))
                 .arePeriodsOverlapping(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(),
@@ -17,17 +17,15 @@
 package org.mobilitydata.gtfsvalidator.usecase;
 
 import org.junit.jupiter.api.Test;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.MissingRequiredValueNotice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.ShapeIdNotFoundNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mockito.ArgumentCaptor;
 
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice.*;
@@ -38,10 +36,8 @@ class ValidateShapeIdReferenceInStopTimeTest {
     @Test
     void nullStopTimeShouldNotGenerateNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
-        final StopTime nullStoptime = null;
-        // suppressed warning regarding unchecked type since it is not required here
-        // noinspection unchecked
-        final Map<Integer, ShapePoint> mockShape = mock(TreeMap.class);
+        final StopTimeCursor nullStoptime = null;
+        final ShapeView mockShape = mock(ShapeView.class);
         final Trip mockTrip = mock(Trip.class);
 
         final ValidateShapeIdReferenceInStopTime underTest = new ValidateShapeIdReferenceInStopTime();
@@ -56,18 +52,16 @@ class ValidateShapeIdReferenceInStopTimeTest {
     @Test
     void stopTimeWithNullShapeDistTraveledShouldNotGenerateNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
-        final StopTime mockStopTime = mock(StopTime.class);
-        when(mockStopTime.getShapeDistTraveled()).thenReturn(null);
-        // suppressed warning regarding unchecked type since it is not required here
-        // noinspection unchecked
-        final Map<Integer, ShapePoint> mockShape = mock(TreeMap.class);
+        final StopTimeCursor mockStopTime = mock(StopTimeCursor.class);
+        when(mockStopTime.hasShapeDistTraveled()).thenReturn(false);
+        final ShapeView mockShape = mock(ShapeView.class);
         final Trip mockTrip = mock(Trip.class);
 
         final ValidateShapeIdReferenceInStopTime underTest = new ValidateShapeIdReferenceInStopTime();
 
         underTest.execute(mockResultRepo, mockStopTime, mockShape, mockTrip);
 
-        verify(mockStopTime, times(1)).getShapeDistTraveled();
+        verify(mockStopTime, times(1)).hasShapeDistTraveled();
 
         verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(mockStopTime, mockTrip);
@@ -78,11 +72,9 @@ class ValidateShapeIdReferenceInStopTimeTest {
     @Test
     void nullTripShouldNotGenerateNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
-        final StopTime mockStopTime = mock(StopTime.class);
-        when(mockStopTime.getShapeDistTraveled()).thenReturn(340f);
-        // suppressed warning regarding unchecked type since it is not required here
-        // noinspection unchecked
-        final Map<Integer, ShapePoint> mockShape = mock(TreeMap.class);
+        final StopTimeCursor mockStopTime = mock(StopTimeCursor.class);
+        when(mockStopTime.hasShapeDistTraveled()).thenReturn(true);
+        final ShapeView mockShape = mock(ShapeView.class);
 
         // querying an non existing trip id returns null value, therefore mockTrip = null here to mock this behavior
         final Trip nullTrip = null;
@@ -91,7 +83,7 @@ class ValidateShapeIdReferenceInStopTimeTest {
 
         underTest.execute(mockResultRepo, mockStopTime, mockShape, nullTrip);
 
-        verify(mockStopTime, times(1)).getShapeDistTraveled();
+        verify(mockStopTime, times(1)).hasShapeDistTraveled();
 
         verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(mockStopTime);
@@ -102,13 +94,11 @@ class ValidateShapeIdReferenceInStopTimeTest {
     @Test
     void nullShapeIdShouldGenerateNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
-        final StopTime mockStopTime = mock(StopTime.class);
-        when(mockStopTime.getShapeDistTraveled()).thenReturn(340f);
+        final StopTimeCursor mockStopTime = mock(StopTimeCursor.class);
+        when(mockStopTime.hasShapeDistTraveled()).thenReturn(true);
         when(mockStopTime.getStopSequence()).thenReturn(3);
 
-        // suppressed warning regarding unchecked type since it is not required here
-        // noinspection unchecked
-        final Map<Integer, ShapePoint> mockShape = mock(TreeMap.class);
+        final ShapeView mockShape = mock(ShapeView.class);
         final Trip mockTrip = mock(Trip.class);
         when(mockTrip.getShapeId()).thenReturn(null);
         when(mockTrip.getTripId()).thenReturn("trip id");
@@ -120,7 +110,7 @@ class ValidateShapeIdReferenceInStopTimeTest {
         verify(mockTrip, times(1)).getTripId();
         verify(mockTrip, times(1)).getShapeId();
 
-        verify(mockStopTime, times(1)).getShapeDistTraveled();
+        verify(mockStopTime, times(1)).hasShapeDistTraveled();
         verify(mockStopTime, times(1)).getStopSequence();
 
         final ArgumentCaptor<MissingRequiredValueNotice> captor =
@@ -142,11 +132,11 @@ class ValidateShapeIdReferenceInStopTimeTest {
     @Test
     void nullShapeShouldGenerateNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
-        final StopTime mockStopTime = mock(StopTime.class);
-        when(mockStopTime.getShapeDistTraveled()).thenReturn(340f);
+        final StopTimeCursor mockStopTime = mock(StopTimeCursor.class);
+        when(mockStopTime.hasShapeDistTraveled()).thenReturn(true);
         when(mockStopTime.getStopSequence()).thenReturn(3);
 
-        final Map<Integer, ShapePoint> nullShape = null;
+        final ShapeView nullShape = null;
         final Trip mockTrip = mock(Trip.class);
         when(mockTrip.getShapeId()).thenReturn("non existing shape id");
         when(mockTrip.getTripId()).thenReturn("trip id");
@@ -158,7 +148,7 @@ class ValidateShapeIdReferenceInStopTimeTest {
         verify(mockTrip, times(1)).getTripId();
         verify(mockTrip, times(1)).getShapeId();
 
-        verify(mockStopTime, times(1)).getShapeDistTraveled();
+        verify(mockStopTime, times(1)).hasShapeDistTraveled();
         verify(mockStopTime, times(1)).getStopSequence();
 
         final ArgumentCaptor<ShapeIdNotFoundNotice> captor =
@@ -19,6 +19,7 @@ package org.mobilitydata.gtfsvalidator.usecase;
 import org.junit.jupiter.api.Test;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.DecreasingShapeDistanceNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mockito.ArgumentCaptor;
 
@@ -31,8 +32,6 @@ import static org.mockito.Mockito.*;
 
 class ValidateShapeIncreasingDistanceTest {
 
-    // suppressed warning regarding ignored result of method used in assertions
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     void strictlyIncreasingDistanceInShapeWithoutNullValuesShouldNotGenerateNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
@@ -55,24 +54,11 @@ class ValidateShapeIncreasingDistanceTest {
         final String shapeId = "shape id ";
         final ValidateShapeIncreasingDistance underTest = new ValidateShapeIncreasingDistance();
 
-        underTest.execute(shape, shapeId, mockResultRepo);
-
-        verify(firstShapePoint, times(2)).getShapeDistTraveled();
-        verify(firstShapePoint, times(1)).getShapePtSequence();
-        verify(secondShapePoint, times(2)).getShapeDistTraveled();
-        verify(secondShapePoint, times(1)).getShapePtSequence();
-        verify(thirdShapePoint, times(2)).getShapeDistTraveled();
-        verify(thirdShapePoint, times(1)).getShapePtSequence();
-        verify(fourthShapePoint, times(2)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(1)).getShapePtSequence();
+        underTest.execute(ShapeView.of(shape), shapeId, mockResultRepo);
 
         verifyNoInteractions(mockResultRepo);
-        verifyNoMoreInteractions(firstShapePoint, secondShapePoint, thirdShapePoint,
-                fourthShapePoint);
     }
 
-    // suppressed warning regarding ignored result of method used in assertions
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     void strictlyIncreasingDistanceInShapeWithNullValuesShouldNotGenerateErrorNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
@@ -99,23 +85,12 @@ class ValidateShapeIncreasingDistanceTest {
         final String shapeId = "shape id";
         final ValidateShapeIncreasingDistance underTest = new ValidateShapeIncreasingDistance();
 
-        underTest.execute(shape, shapeId, mockResultRepo);
-
+        underTest.execute(ShapeView.of(shape), shapeId, mockResultRepo);
 
-        verify(firstShapePoint, times(2)).getShapeDistTraveled();
-        verify(firstShapePoint, times(1)).getShapePtSequence();
-        verify(secondShapePoint, times(1)).getShapeDistTraveled();
-        verify(thirdShapePoint, times(1)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(2)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(1)).getShapePtSequence();
 
         verifyNoInteractions(mockResultRepo);
-        verifyNoMoreInteractions(firstShapePoint, secondShapePoint, thirdShapePoint,
-                fourthShapePoint);
     }
 
-    // suppressed warning regarding ignored result of method used in assertions
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     void decreasingDistanceInShapeWithoutNullValuesShouldGenerateErrorNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
@@ -142,16 +117,7 @@ class ValidateShapeIncreasingDistanceTest {
         final String shapeId = "shape id";
         final ValidateShapeIncreasingDistance underTest = new ValidateShapeIncreasingDistance();
 
-        underTest.execute(shape, shapeId, mockResultRepo);
-
-        verify(firstShapePoint, times(2)).getShapeDistTraveled();
-        verify(firstShapePoint, times(1)).getShapePtSequence();
-        verify(secondShapePoint, times(2)).getShapeDistTraveled();
-        verify(secondShapePoint, times(1)).getShapePtSequence();
-        verify(thirdShapePoint, times(2)).getShapeDistTraveled();
-        verify(thirdShapePoint, times(1)).getShapePtSequence();
-        verify(fourthShapePoint, times(2)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(1)).getShapePtSequence();
+        underTest.execute(ShapeView.of(shape), shapeId, mockResultRepo);
 
         final ArgumentCaptor<DecreasingShapeDistanceNotice> captor =
                 ArgumentCaptor.forClass(DecreasingShapeDistanceNotice.class);
@@ -171,12 +137,9 @@ class ValidateShapeIncreasingDistanceTest {
         assertEquals(3, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_PT_SEQUENCE));
         assertEquals(15f, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_DIST_TRAVELED));
 
-        verifyNoMoreInteractions(firstShapePoint, secondShapePoint, thirdShapePoint,
-                fourthShapePoint, mockResultRepo);
+        verifyNoMoreInteractions(mockResultRepo);
     }
 
-    // suppressed warning regarding ignored result of method used in assertions
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     void decreasingDistanceInShapeWithNullValuesShouldGenerateErrorNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
@@ -203,14 +166,7 @@ class ValidateShapeIncreasingDistanceTest {
         final String shapeId = "shape id";
         final ValidateShapeIncreasingDistance underTest = new ValidateShapeIncreasingDistance();
 
-        underTest.execute(shape, shapeId, mockResultRepo);
-
-        verify(firstShapePoint, times(2)).getShapeDistTraveled();
-        verify(firstShapePoint, times(1)).getShapePtSequence();
-        verify(secondShapePoint, times(1)).getShapeDistTraveled();
-        verify(thirdShapePoint, times(1)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(2)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(1)).getShapePtSequence();
+        underTest.execute(ShapeView.of(shape), shapeId, mockResultRepo);
 
         final ArgumentCaptor<DecreasingShapeDistanceNotice> captor =
                 ArgumentCaptor.forClass(DecreasingShapeDistanceNotice.class);
@@ -230,12 +186,9 @@ class ValidateShapeIncreasingDistanceTest {
         assertEquals(1, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_PT_SEQUENCE));
         assertEquals(5f, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_DIST_TRAVELED));
 
-        verifyNoMoreInteractions(firstShapePoint, secondShapePoint, thirdShapePoint,
-                fourthShapePoint, mockResultRepo);
+        verifyNoMoreInteractions(mockResultRepo);
     }
 
-    // suppressed warning regarding ignored result of method used in assertions
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     void equalDistanceInStopTimeWithoutNullValuesShouldGenerateErrorNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
@@ -262,16 +215,7 @@ class ValidateShapeIncreasingDistanceTest {
         final String shapeId = "shape id";
         final ValidateShapeIncreasingDistance underTest = new ValidateShapeIncreasingDistance();
 
-        underTest.execute(shape, shapeId, mockResultRepo);
-
-        verify(firstShapePoint, times(2)).getShapeDistTraveled();
-        verify(firstShapePoint, times(1)).getShapePtSequence();
-        verify(secondShapePoint, times(2)).getShapeDistTraveled();
-        verify(secondShapePoint, times(1)).getShapePtSequence();
-        verify(thirdShapePoint, times(2)).getShapeDistTraveled();
-        verify(thirdShapePoint, times(1)).getShapePtSequence();
-        verify(fourthShapePoint, times(2)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(1)).getShapePtSequence();
+        underTest.execute(ShapeView.of(shape), shapeId, mockResultRepo);
 
         final ArgumentCaptor<DecreasingShapeDistanceNotice> captor =
                 ArgumentCaptor.forClass(DecreasingShapeDistanceNotice.class);
@@ -291,12 +235,9 @@ class ValidateShapeIncreasingDistanceTest {
         assertEquals(2, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_PT_SEQUENCE));
         assertEquals(10f, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_DIST_TRAVELED));
 
-        verifyNoMoreInteractions(firstShapePoint, secondShapePoint, thirdShapePoint,
-                fourthShapePoint, mockResultRepo);
+        verifyNoMoreInteractions(mockResultRepo);
     }
 
-    // suppressed warning regarding ignored result of method used in assertions
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     void equalDistanceInStopTimeWithNullValuesShouldGenerateErrorNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
@@ -323,14 +264,7 @@ class ValidateShapeIncreasingDistanceTest {
         final String shapeId = "shape id";
         final ValidateShapeIncreasingDistance underTest = new ValidateShapeIncreasingDistance();
 
-        underTest.execute(shape, shapeId, mockResultRepo);
-
-        verify(firstShapePoint, times(2)).getShapeDistTraveled();
-        verify(firstShapePoint, times(1)).getShapePtSequence();
-        verify(secondShapePoint, times(1)).getShapeDistTraveled();
-        verify(thirdShapePoint, times(1)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(2)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(1)).getShapePtSequence();
+        underTest.execute(ShapeView.of(shape), shapeId, mockResultRepo);
 
         final ArgumentCaptor<DecreasingShapeDistanceNotice> captor =
                 ArgumentCaptor.forClass(DecreasingShapeDistanceNotice.class);
@@ -350,12 +284,9 @@ class ValidateShapeIncreasingDistanceTest {
         assertEquals(1, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_PT_SEQUENCE));
         assertEquals(5f, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_DIST_TRAVELED));
 
-        verifyNoMoreInteractions(firstShapePoint, secondShapePoint, thirdShapePoint,
-                fourthShapePoint, mockResultRepo);
+        verifyNoMoreInteractions(mockResultRepo);
     }
 
-    // suppressed warning regarding ignored result of method used in assertions
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     void largeValueInFirstSequenceIndexShouldBeDetectedAndDecreasingDistanceShouldGenerateNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
@@ -382,16 +313,7 @@ class ValidateShapeIncreasingDistanceTest {
         final String shapeId = "shape id";
         final ValidateShapeIncreasingDistance underTest = new ValidateShapeIncreasingDistance();
 
-        underTest.execute(shape, shapeId, mockResultRepo);
-
-        verify(firstShapePoint, times(2)).getShapeDistTraveled();
-        verify(firstShapePoint, times(1)).getShapePtSequence();
-        verify(secondShapePoint, times(2)).getShapeDistTraveled();
-        verify(secondShapePoint, times(1)).getShapePtSequence();
-        verify(thirdShapePoint, times(2)).getShapeDistTraveled();
-        verify(thirdShapePoint, times(1)).getShapePtSequence();
-        verify(fourthShapePoint, times(2)).getShapeDistTraveled();
-        verify(fourthShapePoint, times(1)).getShapePtSequence();
+        underTest.execute(ShapeView.of(shape), shapeId, mockResultRepo);
 
         final ArgumentCaptor<DecreasingShapeDistanceNotice> captor =
                 ArgumentCaptor.forClass(DecreasingShapeDistanceNotice.class);
@@ -411,7 +333,6 @@ class ValidateShapeIncreasingDistanceTest {
         assertEquals(1, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_PT_SEQUENCE));
         assertEquals(10f, notice.getNoticeSpecific(KEY_SHAPE_PREVIOUS_SHAPE_DIST_TRAVELED));
 
-        verifyNoMoreInteractions(firstShapePoint, secondShapePoint, thirdShapePoint,
-                fourthShapePoint, mockResultRepo);
+        verifyNoMoreInteractions(mockResultRepo);
     }
 }
@@ -22,13 +22,12 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.StopTimeArrivalTimeAfterDepartureTimeNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 import org.mockito.ArgumentCaptor;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -46,14 +45,12 @@ class ValidateStopTimeDepartureTimeAfterArrivalTimeTest {
         when(mockStopTime.getArrivalTime()).thenReturn(arrivalTime);
         when(mockStopTime.getDepartureTime()).thenReturn(departureTime);
 
-        final Map<String, TreeMap<Integer, StopTime>> mockStopTimeCollection = new HashMap<>();
         final TreeMap<Integer, StopTime> mockStopTimeEntry = new TreeMap<>();
         final Integer stopSequence = 0;
         mockStopTimeEntry.put(stopSequence, mockStopTime);
-        mockStopTimeCollection.put("trip_id", mockStopTimeEntry);
 
         final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
-        when(mockDataRepo.getStopTimeAll()).thenReturn(mockStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursor()).thenReturn(StopTimeCursor.of(mockStopTimeEntry.values()));
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
         final TimeUtils mockTimeUtil = mock(TimeUtils.class);
@@ -66,10 +63,10 @@ class ValidateStopTimeDepartureTimeAfterArrivalTimeTest {
         verify(mockLogger, times(1)).info("Validating rule 'E045 - `departure_time` and " +
                 "`arrival_time` out of order");
 
-        verify(mockDataRepo, times(1)).getStopTimeAll();
+        verify(mockDataRepo, times(1)).getStopTimeCursor();
 
-        verify(mockStopTime, times(1)).getArrivalTime();
-        verify(mockStopTime, times(1)).getDepartureTime();
+        verify(mockStopTime, times(2)).getArrivalTime();
+        verify(mockStopTime, times(2)).getDepartureTime();
 
         verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(mockDataRepo, mockLogger, mockStopTime, mockTimeUtil);
@@ -85,14 +82,14 @@ class ValidateStopTimeDepartureTimeAfterArrivalTimeTest {
         when(mockStopTime.getArrivalTime()).thenReturn(arrivalTime);
         when(mockStopTime.getDepartureTime()).thenReturn(departureTime);
 
-        final Map<String, TreeMap<Integer, StopTime>> mockStopTimeCollection = new HashMap<>();
         final TreeMap<Integer, StopTime> mockStopTimeEntry = new TreeMap<>();
         final Integer stopSequence = 0;
+        when(mockStopTime.getTripId()).thenReturn("trip_id");
+        when(mockStopTime.getStopSequence()).thenReturn(stopSequence);
         mockStopTimeEntry.put(stopSequence, mockStopTime);
-        mockStopTimeCollection.put("trip_id", mockStopTimeEntry);
 
         final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
-        when(mockDataRepo.getStopTimeAll()).thenReturn(mockStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursor()).thenReturn(StopTimeCursor.of(mockStopTimeEntry.values()));
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
 
@@ -108,10 +105,12 @@ class ValidateStopTimeDepartureTimeAfterArrivalTimeTest {
         verify(mockLogger, times(1)).info("Validating rule 'E045 - `departure_time` and " +
                 "`arrival_time` out of order");
 
-        verify(mockDataRepo, times(1)).getStopTimeAll();
+        verify(mockDataRepo, times(1)).getStopTimeCursor();
 
-        verify(mockStopTime, times(1)).getArrivalTime();
-        verify(mockStopTime, times(1)).getDepartureTime();
+        verify(mockStopTime, times(2)).getArrivalTime();
+        verify(mockStopTime, times(2)).getDepartureTime();
+        verify(mockStopTime, times(1)).getTripId();
+        verify(mockStopTime, times(1)).getStopSequence();
 
         final ArgumentCaptor<StopTimeArrivalTimeAfterDepartureTimeNotice> captor =
                 ArgumentCaptor.forClass(StopTimeArrivalTimeAfterDepartureTimeNotice.class);
@@ -147,14 +146,12 @@ class ValidateStopTimeDepartureTimeAfterArrivalTimeTest {
         when(mockStopTime.getArrivalTime()).thenReturn(arrivalTime);
         when(mockStopTime.getDepartureTime()).thenReturn(departureTime);
 
-        final Map<String, TreeMap<Integer, StopTime>> mockStopTimeCollection = new HashMap<>();
         final TreeMap<Integer, StopTime> mockStopTimeEntry = new TreeMap<>();
         final Integer stopSequence = 0;
         mockStopTimeEntry.put(stopSequence, mockStopTime);
-        mockStopTimeCollection.put("trip_id", mockStopTimeEntry);
 
         final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
-        when(mockDataRepo.getStopTimeAll()).thenReturn(mockStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursor()).thenReturn(StopTimeCursor.of(mockStopTimeEntry.values()));
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
         final TimeUtils mockTimeUtil = mock(TimeUtils.class);
@@ -167,7 +164,7 @@ class ValidateStopTimeDepartureTimeAfterArrivalTimeTest {
         verify(mockLogger, times(1)).info("Validating rule 'E045 - `departure_time` and " +
                 "`arrival_time` out of order");
 
-        verify(mockDataRepo, times(1)).getStopTimeAll();
+        verify(mockDataRepo, times(1)).getStopTimeCursor();
 
         verify(mockStopTime, times(1)).getArrivalTime();
         verify(mockStopTime, times(1)).getDepartureTime();
@@ -186,14 +183,12 @@ class ValidateStopTimeDepartureTimeAfterArrivalTimeTest {
         when(mockStopTime.getArrivalTime()).thenReturn(arrivalTime);
         when(mockStopTime.getDepartureTime()).thenReturn(departureTime);
 
-        final Map<String, TreeMap<Integer, StopTime>> mockStopTimeCollection = new HashMap<>();
         final TreeMap<Integer, StopTime> mockStopTimeEntry = new TreeMap<>();
         final Integer stopSequence = 0;
         mockStopTimeEntry.put(stopSequence, mockStopTime);
-        mockStopTimeCollection.put("trip_id", mockStopTimeEntry);
 
         final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
-        when(mockDataRepo.getStopTimeAll()).thenReturn(mockStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursor()).thenReturn(StopTimeCursor.of(mockStopTimeEntry.values()));
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
         final TimeUtils mockTimeUtil = mock(TimeUtils.class);
@@ -206,9 +201,8 @@ class ValidateStopTimeDepartureTimeAfterArrivalTimeTest {
         verify(mockLogger, times(1)).info("Validating rule 'E045 - `departure_time` and " +
                 "`arrival_time` out of order");
 
-        verify(mockDataRepo, times(1)).getStopTimeAll();
+        verify(mockDataRepo, times(1)).getStopTimeCursor();
 
-        verify(mockStopTime, times(1)).getArrivalTime();
         verify(mockStopTime, times(1)).getDepartureTime();
 
         verifyNoInteractions(mockResultRepo);
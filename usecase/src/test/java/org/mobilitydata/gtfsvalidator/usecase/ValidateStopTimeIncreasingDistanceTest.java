@@ -19,6 +19,7 @@ package org.mobilitydata.gtfsvalidator.usecase;
 import org.junit.jupiter.api.Test;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.DecreasingStopTimeDistanceNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mockito.ArgumentCaptor;
 
@@ -39,12 +40,16 @@ class ValidateStopTimeIncreasingDistanceTest {
 
         final StopTime firstStopTimeInSequence = mock(StopTime.class);
         when(firstStopTimeInSequence.getShapeDistTraveled()).thenReturn(5f);
+        when(firstStopTimeInSequence.getStopSequence()).thenReturn(1);
         final StopTime secondStopTimeInSequence = mock(StopTime.class);
         when(secondStopTimeInSequence.getShapeDistTraveled()).thenReturn(10f);
+        when(secondStopTimeInSequence.getStopSequence()).thenReturn(2);
         final StopTime thirdStopTimeInSequence = mock(StopTime.class);
         when(thirdStopTimeInSequence.getShapeDistTraveled()).thenReturn(15f);
+        when(thirdStopTimeInSequence.getStopSequence()).thenReturn(3);
         final StopTime fourthStopTimeInSequence = mock(StopTime.class);
         when(fourthStopTimeInSequence.getShapeDistTraveled()).thenReturn(20f);
+        when(fourthStopTimeInSequence.getStopSequence()).thenReturn(4);
 
         final TreeMap<Integer, StopTime> stopTimeSequence = new TreeMap<>();
         stopTimeSequence.put(1, firstStopTimeInSequence);
@@ -55,12 +60,16 @@ class ValidateStopTimeIncreasingDistanceTest {
         final ValidateStopTimeIncreasingDistance underTest =
                 new ValidateStopTimeIncreasingDistance(mockResultRepo);
 
-        underTest.execute(stopTimeSequence);
+        underTest.execute(StopTimeCursor.of(stopTimeSequence.values()));
 
-        verify(firstStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(secondStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(thirdStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(fourthStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(secondStopTimeInSequence, times(1)).getStopSequence();
+        verify(thirdStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
+        verify(fourthStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(1)).getStopSequence();
 
         verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(firstStopTimeInSequence, secondStopTimeInSequence, thirdStopTimeInSequence,
@@ -75,12 +84,16 @@ class ValidateStopTimeIncreasingDistanceTest {
 
         final StopTime firstStopTimeInSequence = mock(StopTime.class);
         when(firstStopTimeInSequence.getShapeDistTraveled()).thenReturn(5f);
+        when(firstStopTimeInSequence.getStopSequence()).thenReturn(1);
         final StopTime secondStopTimeInSequence = mock(StopTime.class);
         when(secondStopTimeInSequence.getShapeDistTraveled()).thenReturn(null);
+        when(secondStopTimeInSequence.getStopSequence()).thenReturn(2);
         final StopTime thirdStopTimeInSequence = mock(StopTime.class);
         when(thirdStopTimeInSequence.getShapeDistTraveled()).thenReturn(null);
+        when(thirdStopTimeInSequence.getStopSequence()).thenReturn(3);
         final StopTime fourthStopTimeInSequence = mock(StopTime.class);
         when(fourthStopTimeInSequence.getShapeDistTraveled()).thenReturn(20f);
+        when(fourthStopTimeInSequence.getStopSequence()).thenReturn(4);
 
         final TreeMap<Integer, StopTime> stopTimeSequence = new TreeMap<>();
         stopTimeSequence.put(1, firstStopTimeInSequence);
@@ -91,12 +104,14 @@ class ValidateStopTimeIncreasingDistanceTest {
         final ValidateStopTimeIncreasingDistance underTest =
                 new ValidateStopTimeIncreasingDistance(mockResultRepo);
 
-        underTest.execute(stopTimeSequence);
+        underTest.execute(StopTimeCursor.of(stopTimeSequence.values()));
 
-        verify(firstStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
         verify(secondStopTimeInSequence, times(1)).getShapeDistTraveled();
         verify(thirdStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(fourthStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(1)).getStopSequence();
 
         verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(firstStopTimeInSequence, secondStopTimeInSequence, thirdStopTimeInSequence,
@@ -111,12 +126,16 @@ class ValidateStopTimeIncreasingDistanceTest {
 
         final StopTime firstStopTimeInSequence = mock(StopTime.class);
         when(firstStopTimeInSequence.getShapeDistTraveled()).thenReturn(5f);
+        when(firstStopTimeInSequence.getStopSequence()).thenReturn(1);
         final StopTime secondStopTimeInSequence = mock(StopTime.class);
         when(secondStopTimeInSequence.getShapeDistTraveled()).thenReturn(10f);
+        when(secondStopTimeInSequence.getStopSequence()).thenReturn(2);
         final StopTime thirdStopTimeInSequence = mock(StopTime.class);
         when(thirdStopTimeInSequence.getShapeDistTraveled()).thenReturn(15f);
+        when(thirdStopTimeInSequence.getStopSequence()).thenReturn(3);
         final StopTime fourthStopTimeInSequence = mock(StopTime.class);
         when(fourthStopTimeInSequence.getShapeDistTraveled()).thenReturn(13f);
+        when(fourthStopTimeInSequence.getStopSequence()).thenReturn(4);
         when(fourthStopTimeInSequence.getTripId()).thenReturn("trip id value");
 
         final TreeMap<Integer, StopTime> stopTimeSequence = new TreeMap<>();
@@ -128,12 +147,16 @@ class ValidateStopTimeIncreasingDistanceTest {
         final ValidateStopTimeIncreasingDistance underTest =
                 new ValidateStopTimeIncreasingDistance(mockResultRepo);
 
-        underTest.execute(stopTimeSequence);
+        underTest.execute(StopTimeCursor.of(stopTimeSequence.values()));
 
-        verify(firstStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(secondStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(thirdStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(fourthStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(secondStopTimeInSequence, times(1)).getStopSequence();
+        verify(thirdStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
+        verify(fourthStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(1)).getStopSequence();
         verify(fourthStopTimeInSequence, times(1)).getTripId();
 
         final ArgumentCaptor<DecreasingStopTimeDistanceNotice> captor =
@@ -170,12 +193,16 @@ class ValidateStopTimeIncreasingDistanceTest {
 
         final StopTime firstStopTimeInSequence = mock(StopTime.class);
         when(firstStopTimeInSequence.getShapeDistTraveled()).thenReturn(5f);
+        when(firstStopTimeInSequence.getStopSequence()).thenReturn(1);
         final StopTime secondStopTimeInSequence = mock(StopTime.class);
         when(secondStopTimeInSequence.getShapeDistTraveled()).thenReturn(null);
+        when(secondStopTimeInSequence.getStopSequence()).thenReturn(2);
         final StopTime thirdStopTimeInSequence = mock(StopTime.class);
         when(thirdStopTimeInSequence.getShapeDistTraveled()).thenReturn(null);
+        when(thirdStopTimeInSequence.getStopSequence()).thenReturn(3);
         final StopTime fourthStopTimeInSequence = mock(StopTime.class);
         when(fourthStopTimeInSequence.getShapeDistTraveled()).thenReturn(2f);
+        when(fourthStopTimeInSequence.getStopSequence()).thenReturn(4);
         when(fourthStopTimeInSequence.getTripId()).thenReturn("trip id value");
 
         final TreeMap<Integer, StopTime> stopTimeSequence = new TreeMap<>();
@@ -187,12 +214,14 @@ class ValidateStopTimeIncreasingDistanceTest {
         final ValidateStopTimeIncreasingDistance underTest =
                 new ValidateStopTimeIncreasingDistance(mockResultRepo);
 
-        underTest.execute(stopTimeSequence);
+        underTest.execute(StopTimeCursor.of(stopTimeSequence.values()));
 
-        verify(firstStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
         verify(secondStopTimeInSequence, times(1)).getShapeDistTraveled();
         verify(thirdStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(fourthStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(1)).getStopSequence();
         verify(fourthStopTimeInSequence, times(1)).getTripId();
 
         final ArgumentCaptor<DecreasingStopTimeDistanceNotice> captor =
@@ -229,13 +258,17 @@ class ValidateStopTimeIncreasingDistanceTest {
 
         final StopTime firstStopTimeInSequence = mock(StopTime.class);
         when(firstStopTimeInSequence.getShapeDistTraveled()).thenReturn(5f);
+        when(firstStopTimeInSequence.getStopSequence()).thenReturn(1);
         final StopTime secondStopTimeInSequence = mock(StopTime.class);
         when(secondStopTimeInSequence.getShapeDistTraveled()).thenReturn(10f);
+        when(secondStopTimeInSequence.getStopSequence()).thenReturn(2);
         final StopTime thirdStopTimeInSequence = mock(StopTime.class);
         when(thirdStopTimeInSequence.getShapeDistTraveled()).thenReturn(10f);
+        when(thirdStopTimeInSequence.getStopSequence()).thenReturn(3);
         when(thirdStopTimeInSequence.getTripId()).thenReturn("trip id value");
         final StopTime fourthStopTimeInSequence = mock(StopTime.class);
         when(fourthStopTimeInSequence.getShapeDistTraveled()).thenReturn(22f);
+        when(fourthStopTimeInSequence.getStopSequence()).thenReturn(4);
 
         final TreeMap<Integer, StopTime> stopTimeSequence = new TreeMap<>();
         stopTimeSequence.put(1, firstStopTimeInSequence);
@@ -246,13 +279,17 @@ class ValidateStopTimeIncreasingDistanceTest {
         final ValidateStopTimeIncreasingDistance underTest =
                 new ValidateStopTimeIncreasingDistance(mockResultRepo);
 
-        underTest.execute(stopTimeSequence);
+        underTest.execute(StopTimeCursor.of(stopTimeSequence.values()));
 
-        verify(firstStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(secondStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(thirdStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(secondStopTimeInSequence, times(1)).getStopSequence();
+        verify(thirdStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
         verify(thirdStopTimeInSequence, times(1)).getTripId();
-        verify(fourthStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(1)).getStopSequence();
 
         final ArgumentCaptor<DecreasingStopTimeDistanceNotice> captor =
                 ArgumentCaptor.forClass(DecreasingStopTimeDistanceNotice.class);
@@ -288,12 +325,16 @@ class ValidateStopTimeIncreasingDistanceTest {
 
         final StopTime firstStopTimeInSequence = mock(StopTime.class);
         when(firstStopTimeInSequence.getShapeDistTraveled()).thenReturn(5f);
+        when(firstStopTimeInSequence.getStopSequence()).thenReturn(1);
         final StopTime secondStopTimeInSequence = mock(StopTime.class);
         when(secondStopTimeInSequence.getShapeDistTraveled()).thenReturn(null);
+        when(secondStopTimeInSequence.getStopSequence()).thenReturn(2);
         final StopTime thirdStopTimeInSequence = mock(StopTime.class);
         when(thirdStopTimeInSequence.getShapeDistTraveled()).thenReturn(null);
+        when(thirdStopTimeInSequence.getStopSequence()).thenReturn(3);
         final StopTime fourthStopTimeInSequence = mock(StopTime.class);
         when(fourthStopTimeInSequence.getShapeDistTraveled()).thenReturn(5f);
+        when(fourthStopTimeInSequence.getStopSequence()).thenReturn(4);
         when(fourthStopTimeInSequence.getTripId()).thenReturn("trip id value");
 
         final TreeMap<Integer, StopTime> stopTimeSequence = new TreeMap<>();
@@ -304,12 +345,14 @@ class ValidateStopTimeIncreasingDistanceTest {
 
         final ValidateStopTimeIncreasingDistance underTest = new ValidateStopTimeIncreasingDistance(mockResultRepo);
 
-        underTest.execute(stopTimeSequence);
+        underTest.execute(StopTimeCursor.of(stopTimeSequence.values()));
 
-        verify(firstStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
         verify(secondStopTimeInSequence, times(1)).getShapeDistTraveled();
         verify(thirdStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(fourthStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(1)).getStopSequence();
         verify(fourthStopTimeInSequence, times(1)).getTripId();
 
         final ArgumentCaptor<DecreasingStopTimeDistanceNotice> captor =
@@ -344,13 +387,17 @@ class ValidateStopTimeIncreasingDistanceTest {
 
         final StopTime firstStopTimeInSequence = mock(StopTime.class);
         when(firstStopTimeInSequence.getShapeDistTraveled()).thenReturn(10f);
+        when(firstStopTimeInSequence.getStopSequence()).thenReturn(1);
         final StopTime secondStopTimeInSequence = mock(StopTime.class);
         when(secondStopTimeInSequence.getShapeDistTraveled()).thenReturn(5f);
+        when(secondStopTimeInSequence.getStopSequence()).thenReturn(2);
         when(secondStopTimeInSequence.getTripId()).thenReturn("trip id value");
         final StopTime thirdStopTimeInSequence = mock(StopTime.class);
         when(thirdStopTimeInSequence.getShapeDistTraveled()).thenReturn(15f);
+        when(thirdStopTimeInSequence.getStopSequence()).thenReturn(3);
         final StopTime fourthStopTimeInSequence = mock(StopTime.class);
         when(fourthStopTimeInSequence.getShapeDistTraveled()).thenReturn(20f);
+        when(fourthStopTimeInSequence.getStopSequence()).thenReturn(4);
 
         final TreeMap<Integer, StopTime> stopTimeSequence = new TreeMap<>();
         stopTimeSequence.put(1, firstStopTimeInSequence);
@@ -361,13 +408,17 @@ class ValidateStopTimeIncreasingDistanceTest {
         final ValidateStopTimeIncreasingDistance underTest =
                 new ValidateStopTimeIncreasingDistance(mockResultRepo);
 
-        underTest.execute(stopTimeSequence);
+        underTest.execute(StopTimeCursor.of(stopTimeSequence.values()));
 
-        verify(firstStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(secondStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(firstStopTimeInSequence, times(1)).getStopSequence();
+        verify(secondStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(secondStopTimeInSequence, times(1)).getStopSequence();
         verify(secondStopTimeInSequence, times(1)).getTripId();
-        verify(thirdStopTimeInSequence, times(1)).getShapeDistTraveled();
-        verify(fourthStopTimeInSequence, times(1)).getShapeDistTraveled();
+        verify(thirdStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(thirdStopTimeInSequence, times(1)).getStopSequence();
+        verify(fourthStopTimeInSequence, times(2)).getShapeDistTraveled();
+        verify(fourthStopTimeInSequence, times(1)).getStopSequence();
 
         final ArgumentCaptor<DecreasingStopTimeDistanceNotice> captor =
                 ArgumentCaptor.forClass(DecreasingStopTimeDistanceNotice.class);
@@ -17,10 +17,10 @@
 package org.mobilitydata.gtfsvalidator.usecase;
 
 import org.junit.jupiter.api.Test;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.TripIdNotFoundNotice;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
@@ -38,7 +38,7 @@ class ValidateStopTimeTripIdTest {
     @Test
     void tripIdInDatasetShouldNotGenerateNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
-        final StopTime mockStopTime = mock(StopTime.class);
+        final StopTimeCursor mockStopTime = mock(StopTimeCursor.class);
         when(mockStopTime.getTripId()).thenReturn("trip id");
         // suppressed warning regarding unchecked type since it is not required here
         @SuppressWarnings("unchecked") final Map<String, Trip> mockTripCollection = mock(HashMap.class);
@@ -58,7 +58,7 @@ class ValidateStopTimeTripIdTest {
     @Test
     void tripIdNotFoundShouldGenerateNotice() {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
-        final StopTime mockStopTime = mock(StopTime.class);
+        final StopTimeCursor mockStopTime = mock(StopTimeCursor.class);
         when(mockStopTime.getTripId()).thenReturn("trip id");
         when(mockStopTime.getStopSequence()).thenReturn(1);
         when(mockStopTime.getTripId()).thenReturn("trip id");
@@ -26,6 +26,8 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.base.Notice;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.StopTooFarFromTripShapeNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.GeospatialUtils;
 import org.mockito.ArgumentCaptor;
@@ -65,10 +67,12 @@ class ValidateStopTooFarFromTripShapeNoticeTest {
         final StopTime stopTime1 = mock(StopTime.class);
         when(stopTime1.getStopSequence()).thenReturn(1);
         when(stopTime1.getStopId()).thenReturn(stopId1);
+        when(stopTime1.getTripId()).thenReturn("trip1");
 
         final StopTime stopTime2 = mock(StopTime.class);
         when(stopTime2.getStopSequence()).thenReturn(2);
         when(stopTime2.getStopId()).thenReturn(stopId2);
+        when(stopTime2.getTripId()).thenReturn("trip1");
 
         // shapes.txt
         final String shapeId = "shape1";
@@ -107,24 +111,22 @@ class ValidateStopTooFarFromTripShapeNoticeTest {
         when(trip.getTripId()).thenReturn(tripId);
         when(trip.getShapeId()).thenReturn(shapeId);
 
-        // Map containing StopTime entities. Entities are mapped on keys from GTFS file stop_times.txt:
-        // - trip_id
-        // - stop_sequence
-        final Map<String, TreeMap<Integer, StopTime>> stopTimeCollection = new HashMap<>(1);
+        // StopTime entities of the trip, ordered by stop_sequence
         final TreeMap<Integer, StopTime> stopTimes = new TreeMap<>(Map.of(1, stopTime1, 2, stopTime2));
-        stopTimeCollection.put(tripId, stopTimes);
+        final StopTimeCursor tripStopTimes = StopTimeCursor.of(stopTimes.values());
 
         // Map containing Stop entities. Entities are keyed on GTFS stops.txt stop_id
         final Map<String, LocationBase> stopPerId = new HashMap<>(Map.of(stopId1, stop1, stopId2, stop2));
 
         // Entities are keyed on shape_pt_sequence of GTFS file shapes.txt
-        SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
+        final ShapeView points = ShapeView.of(new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5)));
 
         final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
         when(mockDataRepo.getStopAll()).thenReturn(stopPerId);
-        when(mockDataRepo.getStopTimeAll()).thenReturn(stopTimeCollection);
+        when(mockDataRepo.getStopTimeCursor()).then(invocation -> StopTimeCursor.of(stopTimes.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId(tripId)).thenReturn(tripStopTimes);
         when(mockDataRepo.getTripById(tripId)).thenReturn(trip);
-        when(mockDataRepo.getShapeById(shapeId)).thenReturn(points);
+        when(mockDataRepo.getShapeViewById(shapeId)).thenReturn(points);
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
         final GeospatialUtils mockGeoUtil = mock(GeospatialUtils.class);
@@ -136,10 +138,12 @@ class ValidateStopTooFarFromTripShapeNoticeTest {
         underTest.execute();
         verify(mockLogger, times(1)).info("Validating rule 'E052 - Stop too far from trip shape'");
 
-        verify(mockGeoUtil, times(1)).checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, new HashSet<>());
+        verify(mockGeoUtil, times(1))
+                .checkStopsWithinTripShape(trip, tripStopTimes, points, stopPerId, new HashSet<>());
 
-        verify(mockDataRepo, times(1)).getStopTimeAll();
-        verify(mockDataRepo, times(1)).getShapeById(shapeId);
+        verify(mockDataRepo, times(1)).getStopTimeCursor();
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(tripId);
+        verify(mockDataRepo, times(1)).getShapeViewById(shapeId);
         verify(mockDataRepo, times(1)).getTripById(tripId);
         verify(mockDataRepo, times(1)).getStopAll();
 
@@ -147,7 +151,9 @@ class ValidateStopTooFarFromTripShapeNoticeTest {
 
         verifyNoMoreInteractions(stop1);
         verifyNoMoreInteractions(stop2);
+        verify(stopTime1, times(1)).getTripId();
         verifyNoMoreInteractions(stopTime1);
+        verify(stopTime2, times(1)).getTripId();
         verifyNoMoreInteractions(stopTime2);
         verifyNoMoreInteractions(pt1);
         verifyNoMoreInteractions(pt2);
@@ -189,14 +195,17 @@ class ValidateStopTooFarFromTripShapeNoticeTest {
         final StopTime stopTime1 = mock(StopTime.class);
         when(stopTime1.getStopSequence()).thenReturn(1);
         when(stopTime1.getStopId()).thenReturn(stopId1);
+        when(stopTime1.getTripId()).thenReturn("trip1");
 
         final StopTime stopTime2 = mock(StopTime.class);
         when(stopTime2.getStopSequence()).thenReturn(2);
         when(stopTime2.getStopId()).thenReturn(stopId2);
+        when(stopTime2.getTripId()).thenReturn("trip1");
 
         final StopTime stopTime3 = mock(StopTime.class);
         when(stopTime3.getStopSequence()).thenReturn(3);
         when(stopTime3.getStopId()).thenReturn(stopId3);
+        when(stopTime3.getTripId()).thenReturn("trip1");
 
         // shapes.txt
         final String shapeId = "shape1";
@@ -235,24 +244,22 @@ class ValidateStopTooFarFromTripShapeNoticeTest {
         when(trip.getTripId()).thenReturn(tripId);
         when(trip.getShapeId()).thenReturn(shapeId);
 
-        // Map containing StopTime entities. Entities are mapped on keys from GTFS file stop_times.txt:
-        // - trip_id
-        // - stop_sequence
-        final Map<String, TreeMap<Integer, StopTime>> stopTimeCollection = new HashMap<>(1);
+        // StopTime entities of the trip, ordered by stop_sequence
         final TreeMap<Integer, StopTime> stopTimes = new TreeMap<>(Map.of(1, stopTime1, 2, stopTime2, 3, stopTime3));
-        stopTimeCollection.put(tripId, stopTimes);
+        final StopTimeCursor tripStopTimes = StopTimeCursor.of(stopTimes.values());
 
         // Map containing Stop entities. Entities are keyed on GTFS stops.txt stop_id
         final Map<String, LocationBase> stopPerId = new HashMap<>(Map.of(stopId1, stop1, stopId2, stop2, stopId3, stop3));
 
         // Entities are keyed on shape_pt_sequence of GTFS file shapes.txt
-        SortedMap<Integer, ShapePoint> points = new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5));
+        final ShapeView points = ShapeView.of(new TreeMap<>(Map.of(1, pt1, 2, pt2, 3, pt3, 4, pt4, 5, pt5)));
 
         final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
         when(mockDataRepo.getStopAll()).thenReturn(stopPerId);
-        when(mockDataRepo.getStopTimeAll()).thenReturn(stopTimeCollection);
+        when(mockDataRepo.getStopTimeCursor()).then(invocation -> StopTimeCursor.of(stopTimes.values()));
+        when(mockDataRepo.getStopTimeCursorByTripId(tripId)).thenReturn(tripStopTimes);
         when(mockDataRepo.getTripById(tripId)).thenReturn(trip);
-        when(mockDataRepo.getShapeById(shapeId)).thenReturn(points);
+        when(mockDataRepo.getShapeViewById(shapeId)).thenReturn(points);
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
         final GeospatialUtils mockGeoUtil = mock(GeospatialUtils.class);
@@ -265,7 +272,7 @@ class ValidateStopTooFarFromTripShapeNoticeTest {
                 TRIP_BUFFER_METERS);
         // Mock a call to the GeospatialUtils implementation and an error response
         when(mockGeoUtil.checkStopsWithinTripShape(trip,
-                stopTimes,
+                tripStopTimes,
                 points,
                 stopPerId,
                 testedCache)).thenReturn(List.of(stopTooFarFromTripShapeNotice));
@@ -277,10 +284,11 @@ class ValidateStopTooFarFromTripShapeNoticeTest {
         underTest.execute();
         verify(mockLogger, times(1)).info("Validating rule 'E052 - Stop too far from trip shape'");
 
-        verify(mockGeoUtil, times(1)).checkStopsWithinTripShape(trip, stopTimes, points, stopPerId, testedCache);
+        verify(mockGeoUtil, times(1)).checkStopsWithinTripShape(trip, tripStopTimes, points, stopPerId, testedCache);
 
-        verify(mockDataRepo, times(1)).getStopTimeAll();
-        verify(mockDataRepo, times(1)).getShapeById(shapeId);
+        verify(mockDataRepo, times(1)).getStopTimeCursor();
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(tripId);
+        verify(mockDataRepo, times(1)).getShapeViewById(shapeId);
         verify(mockDataRepo, times(1)).getTripById(tripId);
         verify(mockDataRepo, times(1)).getStopAll();
 
@@ -311,7 +319,9 @@ class ValidateStopTooFarFromTripShapeNoticeTest {
 
         verifyNoMoreInteractions(stop1);
         verifyNoMoreInteractions(stop2);
+        verify(stopTime1, times(1)).getTripId();
         verifyNoMoreInteractions(stopTime1);
+        verify(stopTime2, times(1)).getTripId();
         verifyNoMoreInteractions(stopTime2);
         verifyNoMoreInteractions(pt1);
         verifyNoMoreInteractions(pt2);
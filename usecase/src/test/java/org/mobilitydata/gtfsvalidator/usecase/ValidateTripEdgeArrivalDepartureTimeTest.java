@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.MissingTripEdgeStopTimeNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
@@ -55,7 +56,8 @@ class ValidateTripEdgeArrivalDepartureTimeTest {
                         Map.of(0, mockStopTime0, 1, mockStopTime1, 2, mockStopTime2)
                 );
 
-        when(mockDataRepo.getStopTimeByTripId(ArgumentMatchers.anyString())).thenReturn(mockSortedMap);
+        when(mockDataRepo.getStopTimeCursorByTripId(ArgumentMatchers.anyString()))
+                .then(invocation -> StopTimeCursor.of(mockSortedMap.values()));
 
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
@@ -69,8 +71,7 @@ class ValidateTripEdgeArrivalDepartureTimeTest {
                 "Validating rule E044 - Missing trip edge arrival_time or departure_time"));
 
         verify(mockDataRepo, times(1)).getTripAll();
-        verify(mockDataRepo, times(1)).getStopTimeByTripId(ArgumentMatchers.eq("trip_id__test"));
-        verifyNoInteractions(mockStopTime1);
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(ArgumentMatchers.eq("trip_id__test"));
 
         final ArgumentCaptor<MissingTripEdgeStopTimeNotice> captor =
                 ArgumentCaptor.forClass(MissingTripEdgeStopTimeNotice.class);
@@ -119,7 +120,8 @@ class ValidateTripEdgeArrivalDepartureTimeTest {
                         Map.of(0, mockStopTime0, 1, mockStopTime1, 2, mockStopTime2)
                 );
 
-        when(mockDataRepo.getStopTimeByTripId(ArgumentMatchers.anyString())).thenReturn(mockSortedMap);
+        when(mockDataRepo.getStopTimeCursorByTripId(ArgumentMatchers.anyString()))
+                .then(invocation -> StopTimeCursor.of(mockSortedMap.values()));
 
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
@@ -133,8 +135,7 @@ class ValidateTripEdgeArrivalDepartureTimeTest {
                 "Validating rule E044 - Missing trip edge arrival_time or departure_time"));
 
         verify(mockDataRepo, times(1)).getTripAll();
-        verify(mockDataRepo, times(1)).getStopTimeByTripId(ArgumentMatchers.eq("trip_id__test"));
-        verifyNoInteractions(mockStopTime1);
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(ArgumentMatchers.eq("trip_id__test"));
 
         final ArgumentCaptor<MissingTripEdgeStopTimeNotice> captor =
                 ArgumentCaptor.forClass(MissingTripEdgeStopTimeNotice.class);
@@ -180,7 +181,8 @@ class ValidateTripEdgeArrivalDepartureTimeTest {
                         Map.of(0, mockStopTime0, 1, mockStopTime1, 2, mockStopTime2)
                 );
 
-        when(mockDataRepo.getStopTimeByTripId(ArgumentMatchers.anyString())).thenReturn(mockSortedMap);
+        when(mockDataRepo.getStopTimeCursorByTripId(ArgumentMatchers.anyString()))
+                .then(invocation -> StopTimeCursor.of(mockSortedMap.values()));
 
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
@@ -194,8 +196,8 @@ class ValidateTripEdgeArrivalDepartureTimeTest {
                 "Validating rule E044 - Missing trip edge arrival_time or departure_time"));
 
         verify(mockDataRepo, times(1)).getTripAll();
-        verify(mockDataRepo, times(1)).getStopTimeByTripId(ArgumentMatchers.eq("trip_id__test"));
-        verifyNoInteractions(mockStopTime1, mockResultRepo);
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(ArgumentMatchers.eq("trip_id__test"));
+        verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(mockLogger, mockResultRepo);
     }
 
@@ -216,7 +218,8 @@ class ValidateTripEdgeArrivalDepartureTimeTest {
                         Map.of(0, mockStopTime0, 1, mockStopTime1, 2, mockStopTime2)
                 );
 
-        when(mockDataRepo.getStopTimeByTripId(ArgumentMatchers.anyString())).thenReturn(mockSortedMap);
+        when(mockDataRepo.getStopTimeCursorByTripId(ArgumentMatchers.anyString()))
+                .then(invocation -> StopTimeCursor.of(mockSortedMap.values()));
 
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final Logger mockLogger = mock(Logger.class);
@@ -230,8 +233,8 @@ class ValidateTripEdgeArrivalDepartureTimeTest {
                 "Validating rule E044 - Missing trip edge arrival_time or departure_time"));
 
         verify(mockDataRepo, times(1)).getTripAll();
-        verify(mockDataRepo, times(2)).getStopTimeByTripId(ArgumentMatchers.anyString());
-        verifyNoInteractions(mockStopTime1, mockResultRepo);
+        verify(mockDataRepo, times(2)).getStopTimeCursorByTripId(ArgumentMatchers.anyString());
+        verifyNoInteractions(mockResultRepo);
         verifyNoMoreInteractions(mockLogger, mockResultRepo);
     }
 }
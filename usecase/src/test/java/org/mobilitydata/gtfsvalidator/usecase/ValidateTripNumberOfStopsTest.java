@@ -22,6 +22,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.UnusableTripNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
@@ -53,7 +54,8 @@ class ValidateTripNumberOfStopsTest {
         final Map<String, Trip> mockTripCollection = new HashMap<>();
         mockTripCollection.put("trip id", mockTrip);
         when(mockDataRepo.getTripAll()).thenReturn(mockTripCollection);
-        when(mockDataRepo.getStopTimeByTripId(ArgumentMatchers.eq("trip id"))).thenReturn(mockStopTimeSequence);
+        when(mockDataRepo.getStopTimeCursorByTripId(ArgumentMatchers.eq("trip id")))
+                .thenReturn(StopTimeCursor.of(mockStopTimeSequence.values()));
 
         final Map<String, TreeMap<Integer, StopTime>> mockStopTimeCollection = new HashMap<>();
         final TreeMap<Integer, StopTime> innerStopTimeMap = new TreeMap<>();
@@ -70,7 +72,7 @@ class ValidateTripNumberOfStopsTest {
                 .info("Validating rule 'E051 - Trips must have more than one stop to be usable.");
 
         verify(mockDataRepo, times(1)).getTripAll();
-        verify(mockDataRepo, times(1)).getStopTimeByTripId(ArgumentMatchers.eq("trip id"));
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(ArgumentMatchers.eq("trip id"));
 
         verifyNoInteractions(firstStopTimeInSequence, secondStopTimeInSequence, mockResultRepo);
         verifyNoMoreInteractions(mockDataRepo, mockLogger);
@@ -91,7 +93,8 @@ class ValidateTripNumberOfStopsTest {
         final Map<String, Trip> mockTripCollection = new HashMap<>();
         mockTripCollection.put("trip id", mockTrip);
         when(mockDataRepo.getTripAll()).thenReturn(mockTripCollection);
-        when(mockDataRepo.getStopTimeByTripId(ArgumentMatchers.eq("trip id"))).thenReturn(mockStopTimeSequence);
+        when(mockDataRepo.getStopTimeCursorByTripId(ArgumentMatchers.eq("trip id")))
+                .thenReturn(StopTimeCursor.of(mockStopTimeSequence.values()));
 
         final Map<String, TreeMap<Integer, StopTime>> mockStopTimeCollection = new HashMap<>();
         final TreeMap<Integer, StopTime> innerStopTimeMap = new TreeMap<>();
@@ -108,7 +111,7 @@ class ValidateTripNumberOfStopsTest {
                 .info("Validating rule 'E051 - Trips must have more than one stop to be usable.");
 
         verify(mockDataRepo, times(1)).getTripAll();
-        verify(mockDataRepo, times(1)).getStopTimeByTripId(ArgumentMatchers.eq("trip id"));
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(ArgumentMatchers.eq("trip id"));
 
         final ArgumentCaptor<UnusableTripNotice> captor = ArgumentCaptor.forClass(UnusableTripNotice.class);
 
@@ -23,6 +23,7 @@ import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.domain.entity.notice.error.FastTravelBetweenStopsNotice;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.GeospatialUtils;
 import org.mockito.ArgumentCaptor;
@@ -58,14 +59,17 @@ class ValidateTripTravelSpeedTest {
         final StopTime mockStopTime1 = mock(StopTime.class);
         final StopTime mockStopTime2 = mock(StopTime.class);
         when(mockStopTime0.getStopId()).thenReturn("stopTime0_stopId");
+        when(mockStopTime0.getStopSequence()).thenReturn(0);
         when(mockStopTime0.getDepartureTime()).thenReturn(130);
         when(mockStopTime0.getArrivalTime()).thenReturn(100);
 
         when(mockStopTime1.getStopId()).thenReturn("stopTime1_stopId");
+        when(mockStopTime1.getStopSequence()).thenReturn(1);
         when(mockStopTime1.getDepartureTime()).thenReturn(230);
         when(mockStopTime1.getArrivalTime()).thenReturn(200);
 
         when(mockStopTime2.getStopId()).thenReturn("stopTime2_stopId");
+        when(mockStopTime2.getStopSequence()).thenReturn(2);
         when(mockStopTime2.getDepartureTime()).thenReturn(33000);
         when(mockStopTime2.getArrivalTime()).thenReturn(30000);
 
@@ -78,7 +82,8 @@ class ValidateTripTravelSpeedTest {
                         Map.of(0, mockStopTime0, 1, mockStopTime1, 2, mockStopTime2)
                 );
 
-        when(mockDataRepo.getStopTimeByTripId(ArgumentMatchers.anyString())).thenReturn(mockSortedMap);
+        when(mockDataRepo.getStopTimeCursorByTripId(ArgumentMatchers.anyString()))
+                .thenReturn(StopTimeCursor.of(mockSortedMap.values()));
 
         when(mockDataRepo.getStopById(ArgumentMatchers.anyString())).thenReturn(mockStop0);
 
@@ -94,7 +99,7 @@ class ValidateTripTravelSpeedTest {
                 "Validating rule E046 - Fast travel between stops"));
 
         verify(mockDataRepo, times(1)).getTripAll();
-        verify(mockDataRepo, times(1)).getStopTimeByTripId(ArgumentMatchers.eq("trip_id__test"));
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(ArgumentMatchers.eq("trip_id__test"));
         verify(mockDataRepo, times(1)).getStopById(ArgumentMatchers.eq("stopTime0_stopId"));
         verify(mockDataRepo, times(1)).getStopById(ArgumentMatchers.eq("stopTime1_stopId"));
         verify(mockDataRepo, times(1)).getStopById(ArgumentMatchers.eq("stopTime2_stopId"));
@@ -136,18 +141,22 @@ class ValidateTripTravelSpeedTest {
         final StopTime mockStopTime2 = mock(StopTime.class);
         final StopTime mockStopTime3 = mock(StopTime.class);
         when(mockStopTime0.getStopId()).thenReturn("stopTime0_stopId");
+        when(mockStopTime0.getStopSequence()).thenReturn(0);
         when(mockStopTime0.getDepartureTime()).thenReturn(3130);
         when(mockStopTime0.getArrivalTime()).thenReturn(100);
 
         when(mockStopTime1.getStopId()).thenReturn("stopTime1_stopId");
+        when(mockStopTime1.getStopSequence()).thenReturn(1);
         when(mockStopTime1.getDepartureTime()).thenReturn(5200);
         when(mockStopTime1.getArrivalTime()).thenReturn(5200);
 
         when(mockStopTime2.getStopId()).thenReturn("stopTime2_stopId");
+        when(mockStopTime2.getStopSequence()).thenReturn(2);
         when(mockStopTime2.getDepartureTime()).thenReturn(5200);
         when(mockStopTime2.getArrivalTime()).thenReturn(5200);
 
         when(mockStopTime3.getStopId()).thenReturn("stopTime3_stopId");
+        when(mockStopTime3.getStopSequence()).thenReturn(3);
         when(mockStopTime3.getDepartureTime()).thenReturn(5400);
         when(mockStopTime3.getArrivalTime()).thenReturn(5300);
 
@@ -160,7 +169,8 @@ class ValidateTripTravelSpeedTest {
                         Map.of(0, mockStopTime0, 1, mockStopTime1, 2, mockStopTime2, 3, mockStopTime3)
                 );
 
-        when(mockDataRepo.getStopTimeByTripId(ArgumentMatchers.anyString())).thenReturn(mockSortedMap);
+        when(mockDataRepo.getStopTimeCursorByTripId(ArgumentMatchers.anyString()))
+                .thenReturn(StopTimeCursor.of(mockSortedMap.values()));
 
         when(mockDataRepo.getStopById(ArgumentMatchers.anyString())).thenReturn(mockStop0);
 
@@ -176,7 +186,7 @@ class ValidateTripTravelSpeedTest {
                 "Validating rule E046 - Fast travel between stops"));
 
         verify(mockDataRepo, times(1)).getTripAll();
-        verify(mockDataRepo, times(1)).getStopTimeByTripId(ArgumentMatchers.eq("trip_id__test"));
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(ArgumentMatchers.eq("trip_id__test"));
         verify(mockDataRepo, times(1)).getStopById(ArgumentMatchers.eq("stopTime0_stopId"));
         verify(mockDataRepo, times(1)).getStopById(ArgumentMatchers.eq("stopTime1_stopId"));
         verify(mockDataRepo, times(1)).getStopById(ArgumentMatchers.eq("stopTime2_stopId"));
@@ -219,18 +229,22 @@ class ValidateTripTravelSpeedTest {
         final StopTime mockStopTime2 = mock(StopTime.class);
         final StopTime mockStopTime3 = mock(StopTime.class);
         when(mockStopTime0.getStopId()).thenReturn("stopTime0_stopId");
+        when(mockStopTime0.getStopSequence()).thenReturn(0);
         when(mockStopTime0.getDepartureTime()).thenReturn(130);
         when(mockStopTime0.getArrivalTime()).thenReturn(100);
 
         when(mockStopTime1.getStopId()).thenReturn("stopTime1_stopId");
+        when(mockStopTime1.getStopSequence()).thenReturn(1);
         when(mockStopTime1.getDepartureTime()).thenReturn(230);
         when(mockStopTime1.getArrivalTime()).thenReturn(200);
 
         when(mockStopTime2.getStopId()).thenReturn("stopTime2_stopId");
+        when(mockStopTime2.getStopSequence()).thenReturn(2);
         when(mockStopTime2.getDepartureTime()).thenReturn(230);
         when(mockStopTime2.getArrivalTime()).thenReturn(230);
 
         when(mockStopTime3.getStopId()).thenReturn("stopTime3_stopId");
+        when(mockStopTime3.getStopSequence()).thenReturn(3);
         when(mockStopTime3.getDepartureTime()).thenReturn(430);
         when(mockStopTime3.getArrivalTime()).thenReturn(400);
 
@@ -243,7 +257,8 @@ class ValidateTripTravelSpeedTest {
                         Map.of(0, mockStopTime0, 1, mockStopTime1, 2, mockStopTime2, 3, mockStopTime3)
                 );
 
-        when(mockDataRepo.getStopTimeByTripId(ArgumentMatchers.anyString())).thenReturn(mockSortedMap);
+        when(mockDataRepo.getStopTimeCursorByTripId(ArgumentMatchers.anyString()))
+                .thenReturn(StopTimeCursor.of(mockSortedMap.values()));
 
         when(mockDataRepo.getStopById(ArgumentMatchers.anyString())).thenReturn(mockStop0);
 
@@ -259,7 +274,7 @@ class ValidateTripTravelSpeedTest {
                 "Validating rule E046 - Fast travel between stops"));
 
         verify(mockDataRepo, times(1)).getTripAll();
-        verify(mockDataRepo, times(1)).getStopTimeByTripId(ArgumentMatchers.eq("trip_id__test"));
+        verify(mockDataRepo, times(1)).getStopTimeCursorByTripId(ArgumentMatchers.eq("trip_id__test"));
         verify(mockDataRepo, times(1)).getStopById(ArgumentMatchers.eq("stopTime0_stopId"));
         verify(mockDataRepo, times(1)).getStopById(ArgumentMatchers.eq("stopTime1_stopId"));
         verify(mockDataRepo, times(1)).getStopById(ArgumentMatchers.eq("stopTime2_stopId"));
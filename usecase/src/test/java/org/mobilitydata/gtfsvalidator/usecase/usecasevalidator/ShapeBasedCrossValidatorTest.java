@@ -18,11 +18,11 @@ package org.mobilitydata.gtfsvalidator.usecase.usecasevalidator;
 
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateShapeIncreasingDistance;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateShapeUsage;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mockito.ArgumentMatchers;
 
@@ -41,19 +41,14 @@ class ShapeBasedCrossValidatorTest {
 
         final Trip mockTrip = mock(Trip.class);
         when(mockTrip.getShapeId()).thenReturn("shape id");
-        final ShapePoint mockShapePoint = mock(ShapePoint.class);
-        when(mockShapePoint.getShapeId()).thenReturn("shape id");
+        final ShapeView mockShape = mock(ShapeView.class);
+        when(mockShape.getShapeId()).thenReturn("shape id");
 
         final Map<String, Trip> mockTripCollection = new HashMap<>();
         mockTripCollection.put("trip id", mockTrip);
 
-        final Map<String, SortedMap<Integer, ShapePoint>> mockShapeCollection = new HashMap<>();
-        final SortedMap<Integer, ShapePoint> innerMap = new TreeMap<>();
-        innerMap.put(1, mockShapePoint);
-        mockShapeCollection.put("shape id", innerMap);
-
         when(mockDataRepo.getTripAll()).thenReturn(mockTripCollection);
-        when(mockDataRepo.getShapeAll()).thenReturn(mockShapeCollection);
+        when(mockDataRepo.getShapeViewAll()).thenReturn(List.of(mockShape));
 
         final Set<String> mockTripShapeIdCollection = new HashSet<>(List.of("shape id"));
 
@@ -70,15 +65,15 @@ class ShapeBasedCrossValidatorTest {
 
         verify(mockTrip, times(1)).getShapeId();
 
-        verify(mockDataRepo, times(1)).getShapeAll();
+        verify(mockDataRepo, times(1)).getShapeViewAll();
 
-        verify(mockShapePoint, times(1)).getShapeId();
+        verify(mockShape, times(1)).getShapeId();
 
         verify(mockE038, times(1)).execute(ArgumentMatchers.eq(mockResultRepo),
                 ArgumentMatchers.eq("shape id"), ArgumentMatchers.eq(mockTripShapeIdCollection));
 
         verify(mockE058, times(1)).execute(
-                ArgumentMatchers.eq(innerMap), ArgumentMatchers.eq("shape id"),
+                ArgumentMatchers.eq(mockShape), ArgumentMatchers.eq("shape id"),
                 ArgumentMatchers.eq(mockResultRepo));
     }
 }
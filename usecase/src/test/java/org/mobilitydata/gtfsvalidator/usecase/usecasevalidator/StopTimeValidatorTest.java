@@ -18,22 +18,20 @@ package org.mobilitydata.gtfsvalidator.usecase.usecasevalidator;
 
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.ShapePoint;
-import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.stoptimes.StopTime;
 import org.mobilitydata.gtfsvalidator.domain.entity.gtfs.trips.Trip;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateBackwardsTimeTravelForStops;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateShapeIdReferenceInStopTime;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateStopTimeIncreasingDistance;
 import org.mobilitydata.gtfsvalidator.usecase.ValidateStopTimeTripId;
 import org.mobilitydata.gtfsvalidator.usecase.port.GtfsDataRepository;
+import org.mobilitydata.gtfsvalidator.usecase.port.ShapeView;
+import org.mobilitydata.gtfsvalidator.usecase.port.StopTimeCursor;
 import org.mobilitydata.gtfsvalidator.usecase.port.ValidationResultRepository;
 import org.mobilitydata.gtfsvalidator.usecase.utils.TimeUtils;
 import org.mockito.ArgumentMatchers;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 import static org.mockito.Mockito.*;
 
@@ -45,23 +43,23 @@ class StopTimeValidatorTest {
         final ValidationResultRepository mockResultRepo = mock(ValidationResultRepository.class);
         final GtfsDataRepository mockDataRepo = mock(GtfsDataRepository.class);
 
-        final StopTime mockStopTime = mock(StopTime.class);
-        final Map<String, TreeMap<Integer, StopTime>> mockStopTimeCollection = new HashMap<>();
-        final TreeMap<Integer, StopTime> innerMap = new TreeMap<>();
-        innerMap.put(1, mockStopTime);
-        mockStopTimeCollection.put("trip id", innerMap);
-        when(mockStopTime.getTripId()).thenReturn("trip id");
+        // two rows of the same trip
+        final StopTimeCursor mockStopTimeCursor = mock(StopTimeCursor.class);
+        when(mockStopTimeCursor.next()).thenReturn(true, true, false);
+        when(mockStopTimeCursor.getTripId()).thenReturn("trip id");
+        final StopTimeCursor mockTripStopTimeCursor = mock(StopTimeCursor.class);
 
-        final SortedMap<Integer, ShapePoint> mockShape = mock(TreeMap.class);
+        final ShapeView mockShape = mock(ShapeView.class);
         final Trip mockTrip = mock(Trip.class);
         when(mockTrip.getShapeId()).thenReturn("shape id");
 
         final Map<String, Trip> mockTripCollection = mock(HashMap.class);
 
-        when(mockDataRepo.getStopTimeAll()).thenReturn(mockStopTimeCollection);
+        when(mockDataRepo.getStopTimeCursor()).thenReturn(mockStopTimeCursor);
+        when(mockDataRepo.getStopTimeCursorByTripId("trip id")).thenReturn(mockTripStopTimeCursor);
         when(mockDataRepo.getTripAll()).thenReturn(mockTripCollection);
         when(mockDataRepo.getTripById("trip id")).thenReturn(mockTrip);
-        when(mockDataRepo.getShapeById("shape id")).thenReturn(mockShape);
+        when(mockDataRepo.getShapeViewById("shape id")).thenReturn(mockShape);
 
         final Logger mockLogger = mock(Logger.class);
         final ValidateShapeIdReferenceInStopTime mockE034 = mock(ValidateShapeIdReferenceInStopTime.class);
@@ -83,17 +81,20 @@ class StopTimeValidatorTest {
         verify(mockLogger, times(1))
                 .info("                  'E054 & W013 - Decreasing travelled distance");
 
-        verify(mockDataRepo, times(1)).getStopTimeAll();
-        verify(mockStopTime, times(1)).getTripId();
-        verify(mockDataRepo, times(1)).getShapeById(ArgumentMatchers.eq("shape id"));
+        verify(mockDataRepo, times(1)).getStopTimeCursor();
+        verify(mockStopTimeCursor, times(3)).next();
+        verify(mockStopTimeCursor, times(2)).getTripId();
+        verify(mockDataRepo, times(1)).getTripById("trip id");
+        verify(mockDataRepo, times(1)).getShapeViewById(ArgumentMatchers.eq("shape id"));
         verify(mockDataRepo, times(1)).getTripAll();
+        verify(mockDataRepo, times(2)).getStopTimeCursorByTripId("trip id");
 
-        verify(mockE046, times(1)).execute(mockResultRepo, innerMap, mockTimeUtils);
-        verify(mockE034, times(1)).execute(ArgumentMatchers.eq(mockResultRepo),
-                ArgumentMatchers.eq(mockStopTime), ArgumentMatchers.eq(mockShape), ArgumentMatchers.eq(mockTrip));
+        verify(mockE046, times(1)).execute(mockResultRepo, mockTripStopTimeCursor, mockTimeUtils);
+        verify(mockE034, times(2)).execute(ArgumentMatchers.eq(mockResultRepo),
+                ArgumentMatchers.eq(mockStopTimeCursor), ArgumentMatchers.eq(mockShape), ArgumentMatchers.eq(mockTrip));
 
-        verify(mockE037, times(1)).execute(ArgumentMatchers.eq(mockResultRepo),
-                ArgumentMatchers.eq(mockStopTime), ArgumentMatchers.eq(mockTripCollection));
-        verify(mockE054AndW013, times(1)).execute(innerMap);
+        verify(mockE037, times(2)).execute(ArgumentMatchers.eq(mockResultRepo),
+                ArgumentMatchers.eq(mockStopTimeCursor), ArgumentMatchers.eq(mockTripCollection));
+        verify(mockE054AndW013, times(1)).execute(mockTripStopTimeCursor);
     }
 }